@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2020 IBM Corp. and others
+ * Copyright (c) 2009, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -43,6 +43,12 @@ public interface ICore
 	
 	public static final String CORE_CREATE_TIME_PROPERTY = "core.creation.time";
 	
+	/**
+	 * Absolute path of the core file, set by readers that were opened from a file
+	 * rather than a stream.
+	 */
+	public static final String CORE_FILE_PATH_PROPERTY = "core.file.path";
+	
 	/**
 	 * 
 	 * @return Address spaces held in this core dump
@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.j9ddr.corereaders;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Logger;
+
+import static java.util.logging.Level.*;
+
+/**
+ * Read-only view of a file through a set of memory-mapped windows.
+ *
+ * Reads are absolute (they do not share a file pointer) so a single instance
+ * can safely be used by several threads at once. Windows are mapped lazily
+ * the first time they are touched and stay mapped until the reader is closed
+ * or becomes unreachable.
+ *
+ * Mapping is used for core files unless the system property
+ * {@value #MAPPED_CORE_FILES_PROPERTY} is set to <code>false</code>, in which
+ * case readers fall back to the seek-and-read stream path.
+ */
+public final class MappedFileReader
+{
+	private static final Logger logger = Logger.getLogger(ICoreFileReader.J9DDR_CORE_READERS_LOGGER_NAME);
+
+	public static final String MAPPED_CORE_FILES_PROPERTY = "ddr.mapped.core.files";
+
+	/**
+	 * Size of each mapped window. MappedByteBuffers are indexed by int so a
+	 * window can never exceed 2GB; 1GB keeps the arithmetic simple.
+	 */
+	static final int DEFAULT_WINDOW_SHIFT = 30;
+
+	private static final boolean MAPPING_ENABLED;
+
+	static {
+		String value = AccessController.doPrivileged(new PrivilegedAction<String>() {
+			public String run()
+			{
+				return System.getProperty(MAPPED_CORE_FILES_PROPERTY);
+			}
+		});
+
+		MAPPING_ENABLED = (value == null) || Boolean.parseBoolean(value);
+		logger.logp(FINE, "MappedFileReader", "<clinit>", "Memory-mapped core files enabled: {0}", MAPPING_ENABLED);
+	}
+
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private final long length;
+	private final int windowShift;
+	private final long windowMask;
+	private final AtomicReferenceArray<MappedByteBuffer> windows;
+	private final String sourceName;
+
+	public MappedFileReader(File file) throws IOException
+	{
+		this(file, DEFAULT_WINDOW_SHIFT);
+	}
+
+	/* Visible for testing with small windows. */
+	MappedFileReader(File file, int windowShift) throws IOException
+	{
+		this.file = new RandomAccessFile(file, "r");
+		this.channel = this.file.getChannel();
+		this.length = channel.size();
+		this.windowShift = windowShift;
+		this.windowMask = (1L << windowShift) - 1;
+		long windowCount = (length + windowMask) >>> windowShift;
+		if (windowCount > Integer.MAX_VALUE) {
+			this.file.close();
+			throw new IOException("File too large to map: " + file.getAbsolutePath());
+		}
+		this.windows = new AtomicReferenceArray<MappedByteBuffer>((int) windowCount);
+		this.sourceName = file.getAbsolutePath();
+	}
+
+	/**
+	 * @return true unless mapping has been disabled with {@value #MAPPED_CORE_FILES_PROPERTY}
+	 */
+	public static boolean isMappingEnabled()
+	{
+		return MAPPING_ENABLED;
+	}
+
+	/**
+	 * Opens a mapped reader for file, or returns null if mapping is disabled
+	 * or the file cannot be mapped. Callers use the stream path when null is returned.
+	 */
+	public static MappedFileReader openIfEnabled(File file)
+	{
+		if (!MAPPING_ENABLED) {
+			return null;
+		}
+		try {
+			return new MappedFileReader(file);
+		} catch (IOException e) {
+			logger.logp(FINE, "MappedFileReader", "openIfEnabled", "Unable to map " + file.getAbsolutePath() + ", using stream access", e);
+			return null;
+		}
+	}
+
+	public long length()
+	{
+		return length;
+	}
+
+	/**
+	 * Copies length bytes starting at position in the file into buffer.
+	 *
+	 * @throws EOFException if the requested range extends past the end of the file
+	 */
+	public void readFully(long position, byte[] buffer, int offset, int length) throws IOException
+	{
+		if (position < 0 || position + length > this.length) {
+			throw new EOFException("Read of " + length + " bytes at " + position + " is outside " + sourceName);
+		}
+
+		while (length > 0) {
+			ByteBuffer window = getWindow((int) (position >>> windowShift)).duplicate();
+			int windowOffset = (int) (position & windowMask);
+			int chunk = Math.min(length, window.limit() - windowOffset);
+
+			window.position(windowOffset);
+			window.get(buffer, offset, chunk);
+
+			position += chunk;
+			offset += chunk;
+			length -= chunk;
+		}
+	}
+
+	/**
+	 * Reads the big-endian long at position. Reads that fall inside a single
+	 * window, which is every 8-byte aligned read, do not copy.
+	 *
+	 * @throws EOFException if the long extends past the end of the file
+	 */
+	public long readLong(long position) throws IOException
+	{
+		if (position < 0 || position + 8 > this.length) {
+			throw new EOFException("Read of 8 bytes at " + position + " is outside " + sourceName);
+		}
+
+		int windowOffset = (int) (position & windowMask);
+		MappedByteBuffer window = getWindow((int) (position >>> windowShift));
+		if (windowOffset + 8 <= window.limit()) {
+			/* absolute get does not touch the shared buffer position */
+			return window.getLong(windowOffset);
+		}
+
+		byte[] bytes = new byte[8];
+		readFully(position, bytes, 0, 8);
+		return ByteBuffer.wrap(bytes).getLong();
+	}
+
+	private MappedByteBuffer getWindow(int index) throws IOException
+	{
+		MappedByteBuffer window = windows.get(index);
+
+		if (window == null) {
+			synchronized (windows) {
+				window = windows.get(index);
+				if (window == null) {
+					long start = ((long) index) << windowShift;
+					long size = Math.min(windowMask + 1, length - start);
+					if (!channel.isOpen()) {
+						throw new IOException("Mapped file has been closed: " + sourceName);
+					}
+					window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+					windows.set(index, window);
+				}
+			}
+		}
+
+		return window;
+	}
+
+	public void close() throws IOException
+	{
+		synchronized (windows) {
+			/* Let the mappings be reclaimed by GC; there is no portable unmap. */
+			for (int i = 0; i < windows.length(); i++) {
+				windows.set(i, null);
+			}
+		}
+		file.close();
+	}
+
+	@Override
+	public String toString()
+	{
+		return "MappedFileReader[" + sourceName + "]";
+	}
+}
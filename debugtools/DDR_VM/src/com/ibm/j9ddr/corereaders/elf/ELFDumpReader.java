@@ -275,6 +275,9 @@ public abstract class ELFDumpReader implements ILibraryDependentCore {
 		props.setProperty(ICore.SYSTEM_TYPE_PROPERTY, "Linux");
 		props.setProperty(ICore.PROCESSOR_TYPE_PROPERTY, getProcessorType());
 		props.setProperty(ICore.PROCESSOR_SUBTYPE_PROPERTY, getProcessorSubType());
+		if (_reader.getFile() != null) {
+			props.setProperty(ICore.CORE_FILE_PATH_PROPERTY, _reader.getFile().getAbsolutePath());
+		}
 
 		return props;
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2020 IBM Corp. and others
+ * Copyright (c) 2004, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -41,6 +41,7 @@ import javax.imageio.stream.FileImageInputStream;
 import javax.imageio.stream.ImageInputStream;
 
 import com.ibm.j9ddr.corereaders.InvalidDumpFormatException;
+import com.ibm.j9ddr.corereaders.MappedFileReader;
 import com.ibm.j9ddr.corereaders.memory.IMemorySource;
 import com.ibm.j9ddr.corereaders.memory.ISymbol;
 import com.ibm.j9ddr.corereaders.memory.Symbol;
@@ -144,6 +145,12 @@ public abstract class ELFFileReader {
 
 	protected String sourceName;
 
+	/**
+	 * Memory-mapped view of the file used to serve memory reads, or null
+	 * when reading from an embedded stream or when mapping is disabled.
+	 */
+	private MappedFileReader mapped;
+
 	// Use openELFFile to get an ELFFile instance.
 	protected ELFFileReader(File file, ByteOrder byteOrder) throws IOException, InvalidDumpFormatException {
 		try {
@@ -153,6 +160,7 @@ public abstract class ELFFileReader {
 			sourceName = file.getAbsolutePath();
 			this.baseOffset = 0;
 			initializeReader(is.length());
+			mapped = MappedFileReader.openIfEnabled(file);
 		} catch (IOException | InvalidDumpFormatException e) {
 			// Don't leak file handles if we fail to create this reader.
 			close();
@@ -161,6 +169,9 @@ public abstract class ELFFileReader {
 	}
 
 	public void close() throws IOException {
+		if (mapped != null) {
+			mapped.close();
+		}
 		if (is != null) {
 			is.close();
 		}
@@ -721,6 +732,31 @@ public abstract class ELFFileReader {
 		is.readFully(b, off, len);
 	}
 
+	/**
+	 * Reads len bytes at the given file offset without disturbing the stream
+	 * position used for parsing. When the file is memory-mapped the read is
+	 * served from the mapping and is safe to issue from multiple threads.
+	 *
+	 * @param pos offset relative to the start of this ELF image
+	 */
+	public void readFullyAt(long pos, byte[] b, int off, int len) throws IOException {
+		if (mapped != null) {
+			mapped.readFully(baseOffset + pos, b, off, len);
+		} else {
+			synchronized (this) {
+				seek(pos);
+				is.readFully(b, off, len);
+			}
+		}
+	}
+
+	/**
+	 * @return true if memory reads are served from a memory-mapped view of the file
+	 */
+	public boolean isMapped() {
+		return mapped != null;
+	}
+
 	/**
 	 * Reads a string from the readers current position until
 	 * it is terminated by a null (0) byte.
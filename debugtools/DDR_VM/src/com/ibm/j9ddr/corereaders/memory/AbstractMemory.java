@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2014 IBM Corp. and others
+ * Copyright (c) 2004, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -21,21 +21,16 @@
  *******************************************************************************/
 package com.ibm.j9ddr.corereaders.memory;
 
-import java.lang.ref.Reference;
-import java.lang.ref.WeakReference;
 import java.nio.ByteOrder;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.Collection;
 import java.util.List;
-import java.util.ArrayList;
 import java.util.Map;
 import java.util.Properties;
 import java.util.TreeMap;
 import java.util.logging.Logger;
 
-import com.ibm.j9ddr.util.WeakValueMap;
-
 import static java.util.logging.Level.*;
 
 
@@ -76,29 +71,11 @@ public abstract class AbstractMemory extends SearchableMemory implements IMemory
 	 */
 	static final boolean RECORDING_CACHE_STATS;
 	
-	/* Cache stats counters */
-	private static long cacheHits = 0;
-	private static long cacheMisses = 0;
-	private static long bytesReadFromDisk = 0;
-	private static long bytesReadFromBlockCache = 0;
-	private static long purgedBlocks = 0;
-	private static long purgedBytes = 0;
-	private static long cacheByteHighWaterMark = 0;
-	
-	
-	/* A global list to hold strong references to the blocks used by all CachingMemorySource's
-	 * either in their blockMap or singleBlockRef fields.
-	 * Updates must be synchronized on the list to prevent multiple threads from interfering with
-	 * each other.
-	 * It is never read from directly, blocks are retrieved from the blockMap or singleBlockRef.
-	 * This list ensures that at least MAXIMUM_CORE_FILE_CACHE_BYTES worth of blocks are kept
-	 * alive by strong references and GC doesn't clear all the WeakReferences to blocks in one go.
+	/**
+	 * Blocks read by all CachingMemorySources, bounded by MAXIMUM_CORE_FILE_CACHE_BYTES.
+	 * Also holds the cache stats counters.
 	 */
-	private static final List<CacheBlock> keepAliveList = new ArrayList<CacheBlock>();
-	
-	/* Current core file cache size
-	 * Access should be synchronized on keepAliveList */
-	private static long cacheSize = 0;
+	private static final BlockCache blockCache;
 	
 	private final ByteOrder byteOrder;
 	
@@ -153,6 +130,7 @@ public abstract class AbstractMemory extends SearchableMemory implements IMemory
 			RECORDING_CACHE_STATS = false;
 		}
 		
+		blockCache = new BlockCache(Math.max(0, size), RECORDING_CACHE_STATS);
 	}
 	
 	protected AbstractMemory(ByteOrder byteOrder)
@@ -282,7 +260,10 @@ public abstract class AbstractMemory extends SearchableMemory implements IMemory
 																										Long.toHexString(source.getTopAddress())
 		});
 		
-		if (GLOBAL_CACHE_ENABLED) {
+		/* Mapped sources are already memory resident, so copying them into cache blocks only costs time */
+		boolean mapped = (source instanceof IMappedMemorySource) && ((IMappedMemorySource) source).isMapped();
+		
+		if (GLOBAL_CACHE_ENABLED && !mapped) {
 			IMemorySource wrappedSource = new CachingMemorySource(source);
 			decoratorMappingTable.put(source, wrappedSource);
 			
@@ -360,129 +341,65 @@ public abstract class AbstractMemory extends SearchableMemory implements IMemory
 		return new Properties();
 	}
 	
-	/**
-	 * Record used for tracking cached memory bytes.
-	 * 
-	 * @author andhall
-	 *
-	 */
-	static class CacheBlock
-	{
-		public CacheBlock(byte[] buffer)
-		{
-			this.buffer = buffer;
-		}
-		
-		public final byte[] buffer;
-	}
-	
 	/**
 	 * Dummy memory range that adds byte caching to the delegate memory range.
+	 * Blocks are held in the shared blockCache, so concurrent readers are safe.
 	 * @author andhall
 	 *
 	 */
 	private final static class CachingMemorySource extends DelegatingMemorySource
 	{
-		//For ranges smaller than a block, we have an optimised path to the single cache block
-		//that represents this range
-		private final boolean singleBlockRange;
-		
-		private final WeakValueMap<Integer, CacheBlock> blockMap;
-		
-		private Reference<CacheBlock> singleBlockRef;
+		private final int sourceId;
 
 		public CachingMemorySource(IMemorySource source)
 		{
 			super(source);
-			
-			if (delegate.getSize() <= CACHE_BLOCK_SIZE) {
-				singleBlockRange = true;
-				blockMap = null;
-			} else {
-				singleBlockRange = false;
-				blockMap = new WeakValueMap<Integer, CacheBlock>();
-			}
+			sourceId = blockCache.newSourceId();
 		}
 
 		public int getBytes(long address, byte[] buffer, int offset, int length)
 				throws MemoryFault
 		{
-			if (singleBlockRange) {
-				CacheBlock block;
-				boolean cacheHit = false;
-				if (singleBlockRef == null || (block = singleBlockRef.get()) == null) {
-					if (RECORDING_CACHE_STATS) {
-						cacheHit = true;
-					}
-					block = loadBlock(this.getBaseAddress(),address,(int)this.getSize());
-					singleBlockRef = new WeakReference<CacheBlock>(block);
-				} else {
-					if (RECORDING_CACHE_STATS) {
-						cacheHit = false;
-					}
-				}
+			int read = 0;
+			int destIndex = offset;
+			int toRead;
+		
+			while ((toRead = length - read) > 0) {
+				long rangeOffset = address - this.getBaseAddress();
+				int blockIndex = (int)(rangeOffset / CACHE_BLOCK_SIZE);
+				long blockBase = delegate.getBaseAddress() + (CACHE_BLOCK_SIZE * ((long)blockIndex));
+				long sizeToEndOfRange = delegate.getTopAddress() - blockBase + 1;
+				int blockSize = (int)(sizeToEndOfRange > CACHE_BLOCK_SIZE ? CACHE_BLOCK_SIZE : sizeToEndOfRange);
+				long key = BlockCache.key(sourceId, blockIndex);
 				
-				System.arraycopy(block.buffer, (int)(address - delegate.getBaseAddress()), buffer, offset, length);
+				byte[] block = blockCache.get(key);
+				boolean cacheHit = block != null;
 				
-				if (RECORDING_CACHE_STATS) {
-					if (cacheHit) {
-						cacheHits++;
-						bytesReadFromBlockCache += length;
-					} else {
-						cacheMisses++;
-					}
+				if (!cacheHit) {
+					block = blockCache.put(key, loadBlock(blockBase,address,blockSize));
 				}
 				
-				return length;
-			} else {
-				int read = 0;
-				int destIndex = offset;
-				int toRead;
-			
-				while ((toRead = length - read) > 0) {
-					long rangeOffset = address - this.getBaseAddress();
-					int blockIndex = (int)(rangeOffset / CACHE_BLOCK_SIZE);
-					long blockBase = delegate.getBaseAddress() + (CACHE_BLOCK_SIZE * ((long)blockIndex));
-					long sizeToEndOfRange = delegate.getTopAddress() - blockBase + 1;
-					int blockSize = (int)(sizeToEndOfRange > CACHE_BLOCK_SIZE ? CACHE_BLOCK_SIZE : sizeToEndOfRange);
-					boolean cacheHit = false;
-					
-					CacheBlock block = blockMap.get(blockIndex);
-					
-					if (RECORDING_CACHE_STATS) {
-						cacheHit = block != null;
-					}
-					
-					if (block == null) {
-						block = loadBlock(blockBase,address,blockSize);
-						blockMap.put(blockIndex, block);
-					}
-					
-					long offsetInBlock = address - blockBase;
-					long remainingInBlock = blockSize - offsetInBlock;
-					long amountToReadInBlock = remainingInBlock > toRead ? toRead : remainingInBlock;
-					
-					System.arraycopy(block.buffer,(int)offsetInBlock,buffer,destIndex,(int)amountToReadInBlock);
-					
-					if (RECORDING_CACHE_STATS) {
-						if (cacheHit) {
-							cacheHits++;
-							bytesReadFromBlockCache += amountToReadInBlock;
-						} else {
-							cacheMisses++;
-						}
-					}
-					
-					address += amountToReadInBlock;
-					read += amountToReadInBlock;
-					destIndex += amountToReadInBlock;
+				long offsetInBlock = address - blockBase;
+				long remainingInBlock = blockSize - offsetInBlock;
+				long amountToReadInBlock = remainingInBlock > toRead ? toRead : remainingInBlock;
+				
+				System.arraycopy(block,(int)offsetInBlock,buffer,destIndex,(int)amountToReadInBlock);
+				
+				if (cacheHit) {
+					blockCache.recordHit(amountToReadInBlock);
+				} else {
+					blockCache.recordMiss(blockSize);
 				}
-			
-				return read;
+				
+				address += amountToReadInBlock;
+				read += amountToReadInBlock;
+				destIndex += amountToReadInBlock;
 			}
+		
+			return read;
 		}
 
-		private CacheBlock loadBlock(long blockBaseAddress, long actualAddress, int blockSize) throws MemoryFault
+		private byte[] loadBlock(long blockBaseAddress, long actualAddress, int blockSize) throws MemoryFault
 		{
 			byte[] buffer = new byte[blockSize];
 			
@@ -500,99 +417,7 @@ public abstract class AbstractMemory extends SearchableMemory implements IMemory
 				throw new MemoryFault(actualAddress, "MemoryFault loading cache block, unbacked memory");
 			}
 			
-			if (RECORDING_CACHE_STATS) {
-				bytesReadFromDisk += blockSize;
-			}
-			
-			CacheBlock block = new CacheBlock(buffer);
-			
-			synchronized (keepAliveList) {
-				cacheSize += blockSize;
-				
-				if (cacheSize > MAXIMUM_CORE_FILE_CACHE_BYTES) {
-					trimCache();
-				}
-				
-				if (RECORDING_CACHE_STATS) {
-					if (cacheSize > cacheByteHighWaterMark) {
-						cacheByteHighWaterMark = cacheSize;
-					}
-				}
-				keepAliveList.add(block);
-			}
-			
-			return block;
-		}
-		
-		/*
-		 * Clear the keepAliveList so that GC can collect the items removed from
-		 * blockMap. 
-		 */
-		private static void trimCache()
-		{
-			synchronized (keepAliveList) {
-				// Drop entries from the cache until we're under the cache limit
-				// At the moment we just randomly drop things - a caching strategy that's proving hard to beat.
-				while (cacheSize > MAXIMUM_CORE_FILE_CACHE_BYTES && keepAliveList.size() > 0) {
-					CacheBlock block = keepAliveList.remove(0);
-					
-					cacheSize -= block.buffer.length;
-					
-					if (RECORDING_CACHE_STATS) {
-						purgedBlocks++;
-						purgedBytes += block.buffer.length;
-					}
-				}
-			}
-		}
-		
-		
-
-		@Override
-		public int hashCode()
-		{
-			final int prime = 31;
-			int result = super.hashCode();
-			result = prime * result
-					+ ((blockMap == null) ? 0 : blockMap.hashCode());
-			result = prime * result + (singleBlockRange ? 1231 : 1237);
-			result = prime
-					* result
-					+ ((singleBlockRef == null) ? 0 : singleBlockRef.hashCode());
-			return result;
-		}
-
-		@Override
-		public boolean equals(Object obj)
-		{
-			if (this == obj) {
-				return true;
-			}
-			if (!super.equals(obj)) {
-				return false;
-			}
-			if (!(obj instanceof CachingMemorySource)) {
-				return false;
-			}
-			CachingMemorySource other = (CachingMemorySource) obj;
-			if (blockMap == null) {
-				if (other.blockMap != null) {
-					return false;
-				}
-			} else if (!blockMap.equals(other.blockMap)) {
-				return false;
-			}
-			if (singleBlockRange != other.singleBlockRange) {
-				return false;
-			}
-			if (singleBlockRef == null) {
-				if (other.singleBlockRef != null) {
-					return false;
-				}
-			} else if (!singleBlockRef.equals(other.singleBlockRef)) {
-				return false;
-			}
-			return true;
+			return buffer;
 		}
 
 	}
@@ -614,8 +439,7 @@ public abstract class AbstractMemory extends SearchableMemory implements IMemory
 		{
 			int read = super.getBytes(address, buffer, offset, length);
 			
-			cacheMisses++;
-			bytesReadFromDisk += read;
+			blockCache.recordMiss(read);
 			
 			return read;
 		}
@@ -628,16 +452,19 @@ public abstract class AbstractMemory extends SearchableMemory implements IMemory
 		public void run()
 		{
 			System.err.println("**DDR Core Reader Cache Stats**");
+			long cacheHits = blockCache.getHits();
+			long cacheMisses = blockCache.getMisses();
 			System.err.println("Global cache enabled: " + GLOBAL_CACHE_ENABLED);
+			System.err.println("Cache budget bytes: " + blockCache.getBudget());
 			System.err.println("Cache hits: " + cacheHits);
 			System.err.println("Cache misses: " + cacheMisses);
 			double cacheHitRate = ((double)cacheHits / (cacheHits + cacheMisses)) * 100;
 			System.err.println("Cache hit rate: " + cacheHitRate);
-			System.err.println("Bytes read from disk: " + bytesReadFromDisk);
-			System.err.println("Bytes read from cache: " + bytesReadFromBlockCache);
-			System.err.println("Purged blocks: " + purgedBlocks);
-			System.err.println("Purged bytes: " + purgedBytes);
-			System.err.println("Cache bytes high water mark: " + cacheByteHighWaterMark);
+			System.err.println("Bytes read from disk: " + blockCache.getBytesLoaded());
+			System.err.println("Bytes read from cache: " + blockCache.getBytesReadFromCache());
+			System.err.println("Evicted blocks: " + blockCache.getEvictedBlocks());
+			System.err.println("Evicted bytes: " + blockCache.getEvictedBytes());
+			System.err.println("Cache bytes high water mark: " + blockCache.getHighWaterMark());
 			System.err.println("TLB Cache hits: " +  MemorySourceTable.tlbCacheHits);
 			System.err.println("TLB Cache misses: " +  MemorySourceTable.tlbCacheMisses);
 			double tlbHitRate = ((double)MemorySourceTable.tlbCacheHits / (MemorySourceTable.tlbCacheHits + MemorySourceTable.tlbCacheMisses)) * 100;
@@ -646,8 +473,8 @@ public abstract class AbstractMemory extends SearchableMemory implements IMemory
 			logger.logp(FINE,"AbstractMemory","CacheStatsReporter","DDR Core Reader Cache Stats");
 			logger.logp(FINE,"AbstractMemory","CacheStatsReporter","Global cache enabled: {0}",GLOBAL_CACHE_ENABLED);
 			logger.logp(FINE,"AbstractMemory","CacheStatsReporter","Cache hits: {0}, cache misses: {1}, cache hit rate: {2}", new Object[]{cacheHits,cacheMisses, cacheHitRate});
-			logger.logp(FINE,"AbstractMemory","CacheStatsReporter","Bytes read from disk: {0}, from cache: {1}, purged blocks: {2}, purged bytes: {3}", new Object[]{bytesReadFromDisk,bytesReadFromBlockCache,purgedBlocks,purgedBytes});
-			logger.logp(FINE,"AbstractMemory","CacheStatsReporter","Cache bytes high water mark {0}", new Object[]{cacheByteHighWaterMark});
+			logger.logp(FINE,"AbstractMemory","CacheStatsReporter","Bytes read from disk: {0}, from cache: {1}, evicted blocks: {2}, evicted bytes: {3}", new Object[]{blockCache.getBytesLoaded(),blockCache.getBytesReadFromCache(),blockCache.getEvictedBlocks(),blockCache.getEvictedBytes()});
+			logger.logp(FINE,"AbstractMemory","CacheStatsReporter","Cache bytes high water mark {0}", new Object[]{blockCache.getHighWaterMark()});
 			logger.logp(FINE,"AbstractMemory","CacheStatsReporter","TLB Cache hits: {0}, misses: {1}, hit rate:{2}",new Object[]{MemorySourceTable.tlbCacheHits,MemorySourceTable.tlbCacheMisses,tlbHitRate});
 		}
 	}
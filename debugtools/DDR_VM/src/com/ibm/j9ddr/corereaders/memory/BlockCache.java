@@ -0,0 +1,297 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.j9ddr.corereaders.memory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of blocks of core file data, shared by all caching memory
+ * sources.
+ *
+ * A block is identified by the id of the memory source it was read from and
+ * its index in that source. The cache is split into stripes, each with its own
+ * share of the byte budget. Lookups do not lock. Adding a block locks its
+ * stripe, and when the stripe is over budget blocks are evicted using the
+ * CLOCK algorithm: a block that has been read since the clock hand last passed
+ * it gets a second chance.
+ *
+ * Statistics are only collected when requested, so the counters cost nothing
+ * in normal use.
+ */
+final class BlockCache
+{
+	private static final int MAX_STRIPE_COUNT = 16;
+
+	/* small budgets use fewer stripes so that each stripe can hold a useful number of blocks */
+	private static final long MIN_STRIPE_BUDGET = 64 * 1024;
+
+	private final long budget;
+
+	private final long stripeBudget;
+
+	private final Stripe[] stripes;
+
+	private final int stripeMask;
+
+	private final boolean recordingStats;
+
+	private final AtomicInteger nextSourceId = new AtomicInteger();
+
+	private final AtomicLong size = new AtomicLong();
+
+	private final AtomicLong highWaterMark = new AtomicLong();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder bytesReadFromCache = new LongAdder();
+
+	private final LongAdder bytesLoaded = new LongAdder();
+
+	private final LongAdder evictedBlocks = new LongAdder();
+
+	private final LongAdder evictedBytes = new LongAdder();
+
+	private static final class Block
+	{
+		final long key;
+
+		final byte[] data;
+
+		/* set by readers, cleared by the clock hand */
+		volatile boolean referenced;
+
+		Block(long key, byte[] data)
+		{
+			this.key = key;
+			this.data = data;
+		}
+	}
+
+	private static final class Stripe
+	{
+		final ConcurrentHashMap<Long, Block> blocks = new ConcurrentHashMap<Long, Block>();
+
+		/* the clock; guarded by the stripe */
+		Block[] ring = new Block[64];
+
+		int count;
+
+		int hand;
+
+		long bytes;
+	}
+
+	/**
+	 * @param budget maximum number of bytes of block data to keep; at least one block is always kept
+	 * @param recordingStats whether to count hits, misses and evictions
+	 */
+	BlockCache(long budget, boolean recordingStats)
+	{
+		this.budget = budget;
+		int stripeCount = MAX_STRIPE_COUNT;
+		while ((stripeCount > 1) && ((budget / stripeCount) < MIN_STRIPE_BUDGET)) {
+			stripeCount >>= 1;
+		}
+		this.stripeBudget = Math.max(1, budget / stripeCount);
+		this.stripeMask = stripeCount - 1;
+		this.recordingStats = recordingStats;
+		this.stripes = new Stripe[stripeCount];
+		for (int i = 0; i < stripeCount; i++) {
+			stripes[i] = new Stripe();
+		}
+	}
+
+	/**
+	 * @return a new id for a memory source whose blocks will be held in this cache
+	 */
+	int newSourceId()
+	{
+		return nextSourceId.getAndIncrement();
+	}
+
+	static long key(int sourceId, int blockIndex)
+	{
+		return (((long) sourceId) << 32) | (0xFFFFFFFFL & blockIndex);
+	}
+
+	private Stripe stripeFor(long key)
+	{
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return stripes[(int) (hash >>> 60) & stripeMask];
+	}
+
+	/**
+	 * @return the data of the block, or null if it is not cached
+	 */
+	byte[] get(long key)
+	{
+		Block block = stripeFor(key).blocks.get(Long.valueOf(key));
+		if (null == block) {
+			return null;
+		}
+		if (!block.referenced) {
+			block.referenced = true;
+		}
+		return block.data;
+	}
+
+	/**
+	 * Add a block, evicting others if the cache is over budget.
+	 * If another thread added the same block first, its data is returned instead.
+	 *
+	 * @return the cached data for the block
+	 */
+	byte[] put(long key, byte[] data)
+	{
+		Stripe stripe = stripeFor(key);
+		Long boxedKey = Long.valueOf(key);
+		synchronized (stripe) {
+			Block existing = stripe.blocks.get(boxedKey);
+			if (null != existing) {
+				existing.referenced = true;
+				return existing.data;
+			}
+
+			Block block = new Block(key, data);
+			if (stripe.count == stripe.ring.length) {
+				Block[] ring = new Block[stripe.count * 2];
+				System.arraycopy(stripe.ring, 0, ring, 0, stripe.count);
+				stripe.ring = ring;
+			}
+			stripe.ring[stripe.count++] = block;
+			stripe.blocks.put(boxedKey, block);
+			stripe.bytes += data.length;
+			size.addAndGet(data.length);
+
+			while ((stripe.bytes > stripeBudget) && (stripe.count > 1)) {
+				evict(stripe, block);
+			}
+
+			if (recordingStats) {
+				long newSize = size.get();
+				long mark = highWaterMark.get();
+				while ((newSize > mark) && !highWaterMark.compareAndSet(mark, newSize)) {
+					mark = highWaterMark.get();
+				}
+			}
+		}
+		return data;
+	}
+
+	/* advance the clock hand of the stripe to a victim other than keep, and remove it */
+	private void evict(Stripe stripe, Block keep)
+	{
+		for (;;) {
+			if (stripe.hand >= stripe.count) {
+				stripe.hand = 0;
+			}
+			Block candidate = stripe.ring[stripe.hand];
+			if ((candidate == keep) || candidate.referenced) {
+				candidate.referenced = false;
+				stripe.hand += 1;
+				continue;
+			}
+
+			stripe.count -= 1;
+			stripe.ring[stripe.hand] = stripe.ring[stripe.count];
+			stripe.ring[stripe.count] = null;
+			stripe.blocks.remove(Long.valueOf(candidate.key));
+			stripe.bytes -= candidate.data.length;
+			size.addAndGet(-candidate.data.length);
+
+			if (recordingStats) {
+				evictedBlocks.increment();
+				evictedBytes.add(candidate.data.length);
+			}
+			return;
+		}
+	}
+
+	void recordHit(long bytes)
+	{
+		if (recordingStats) {
+			hits.increment();
+			bytesReadFromCache.add(bytes);
+		}
+	}
+
+	void recordMiss(long bytes)
+	{
+		if (recordingStats) {
+			misses.increment();
+			bytesLoaded.add(bytes);
+		}
+	}
+
+	long getBudget()
+	{
+		return budget;
+	}
+
+	/**
+	 * @return the number of bytes of block data currently cached
+	 */
+	long getSize()
+	{
+		return size.get();
+	}
+
+	long getHighWaterMark()
+	{
+		return highWaterMark.get();
+	}
+
+	long getHits()
+	{
+		return hits.sum();
+	}
+
+	long getMisses()
+	{
+		return misses.sum();
+	}
+
+	long getBytesReadFromCache()
+	{
+		return bytesReadFromCache.sum();
+	}
+
+	long getBytesLoaded()
+	{
+		return bytesLoaded.sum();
+	}
+
+	long getEvictedBlocks()
+	{
+		return evictedBlocks.sum();
+	}
+
+	long getEvictedBytes()
+	{
+		return evictedBytes.sum();
+	}
+}
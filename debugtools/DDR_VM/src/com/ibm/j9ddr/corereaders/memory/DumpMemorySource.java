@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2014 IBM Corp. and others
+ * Copyright (c) 2009, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -107,8 +107,11 @@ public class DumpMemorySource extends ProtectedMemoryRange implements IMemorySou
 		}
 
 		try {
-			coreReader.seek(fileOffset + rangeOffset);
-			coreReader.readFully(buffer, offset, length);
+			/* The reader's file pointer is shared by every source in the dump */
+			synchronized (coreReader) {
+				coreReader.seek(fileOffset + rangeOffset);
+				coreReader.readFully(buffer, offset, length);
+			}
 		} catch (IOException ex) {
 			throw new MemoryFault(address,
 					"Memory fault caused by IOException reading dump.", ex);
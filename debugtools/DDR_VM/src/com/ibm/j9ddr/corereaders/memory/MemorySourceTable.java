@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2020 IBM Corp. and others
+ * Copyright (c) 2009, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -92,35 +92,43 @@ public class MemorySourceTable {
 		}
 	}
 
-	private IAddressResolverStrategy addressResolver;
+	/* Rebuilt lazily after the set of sources changes; read without locking by concurrent heap walkers */
+	private volatile IAddressResolverStrategy addressResolver;
 
 	private final List<IMemorySource> rawMemorySources = new ArrayList<>();
 	private List<IMemorySource> memorySources;
 
-	public final void addMemorySource(IMemorySource source) {
+	public final synchronized void addMemorySource(IMemorySource source) {
 		rawMemorySources.add(source);
 		addressResolver = null;
 	}
 
-	public void removeMemorySource(IMemorySource source) {
+	public synchronized void removeMemorySource(IMemorySource source) {
 		rawMemorySources.remove(source);
 		addressResolver = null;
 	}
 
-	public final List<IMemoryRange> getMemorySources() {
+	public final synchronized List<IMemoryRange> getMemorySources() {
 		mergeOverlappingRanges();
 		return new ArrayList<IMemoryRange>(memorySources);
 	}
 
 	public final IMemorySource getRangeForAddress(long address) {
-		if (addressResolver == null) {
-			pickAddressResolver();
+		IAddressResolverStrategy resolver = addressResolver;
+
+		if (resolver == null) {
+			resolver = pickAddressResolver();
 		}
 
-		return addressResolver.getRangeForAddress(address);
+		return resolver.getRangeForAddress(address);
 	}
 
-	private void pickAddressResolver() {
+	private synchronized IAddressResolverStrategy pickAddressResolver() {
+		if (addressResolver != null) {
+			return addressResolver;
+		}
+
+
 		mergeOverlappingRanges();
 
 		// Need to figure out highest address and worst alignment
@@ -174,6 +182,8 @@ public class MemorySourceTable {
 		logger.logp(FINE, "MemoryRangeTable", "pickAddressResolver",
 				"Picked {0} as address resolver.",
 				addressResolver.getClass().getSimpleName());
+
+		return addressResolver;
 	}
 
 	private void mergeOverlappingRanges() {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2019 IBM Corp. and others
+ * Copyright (c) 1991, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -56,6 +56,7 @@ import com.ibm.j9ddr.tools.ddrinteractive.commands.NativeLibrariesCommand;
 import com.ibm.j9ddr.tools.ddrinteractive.commands.NativeStacksCommand;
 import com.ibm.j9ddr.tools.ddrinteractive.commands.TimeCommand;
 import com.ibm.j9ddr.tools.ddrinteractive.plugins.PluginCommand;
+import com.ibm.j9ddr.util.ReverseReferenceIndex;
 import com.ibm.j9ddr.view.dtfj.image.J9DDRImage;
 import com.ibm.j9ddr.view.dtfj.image.J9DDRImageAddressSpace;
 import com.ibm.j9ddr.view.dtfj.image.J9DDRImageProcess;
@@ -561,6 +562,7 @@ public class DDRInteractive implements Runnable
 	public void close() throws Exception
 	{
 		if (currentCore != null) {
+			ReverseReferenceIndex.closeIndexes(currentCore);
 			currentCore.close();
 		}
 		VMDataFactory.clearCache();
@@ -0,0 +1,284 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.j9ddr.util;
+
+import java.util.Arrays;
+
+/**
+ * Dominator tree and retained sizes of a graph held in compressed sparse row form.
+ *
+ * Nodes are numbered 0 to nodeCount - 1. The outgoing edges of node i are
+ * edgeTargets[edgeStart[i]] to edgeTargets[edgeStart[i + 1] - 1]. A virtual
+ * root, which is not one of the nodes, has an edge to each of the given roots,
+ * so a node reachable from several roots is dominated only by the virtual root.
+ *
+ * The immediate dominators are computed with the Lengauer-Tarjan algorithm
+ * (the simple version, with path compression) entirely on int arrays indexed
+ * by depth-first number, and the depth-first search and path compression are
+ * iterative, so very large graphs need neither boxing nor a deep stack.
+ */
+public final class DominatorTree
+{
+	/**
+	 * Immediate dominator of a node dominated only by the virtual root.
+	 */
+	public static final int ROOT = -1;
+
+	/**
+	 * Immediate dominator reported for a node that is not reachable from the roots.
+	 */
+	public static final int UNREACHABLE = -2;
+
+	private static final int NONE = -1;
+
+	private final int nodeCount;
+	/* depth-first number of each node, NONE if unreachable; the virtual root is 0 */
+	private final int[] dfsNumber;
+	/* node with each depth-first number; vertex[0] is the virtual root, nodeCount */
+	private final int[] vertex;
+	/* immediate dominator of each depth-first number, as a depth-first number */
+	private final int[] idom;
+	/* retained size of each depth-first number */
+	private final long[] retained;
+	private final int reachableCount;
+
+	private DominatorTree(int nodeCount, int[] dfsNumber, int[] vertex, int[] idom, long[] retained, int reachableCount)
+	{
+		this.nodeCount = nodeCount;
+		this.dfsNumber = dfsNumber;
+		this.vertex = vertex;
+		this.idom = idom;
+		this.retained = retained;
+		this.reachableCount = reachableCount;
+	}
+
+	/**
+	 * Compute the dominator tree.
+	 *
+	 * @param nodeCount number of nodes
+	 * @param edgeStart nodeCount + 1 offsets into edgeTargets
+	 * @param edgeTargets targets of the edges, grouped by source
+	 * @param roots nodes referenced by the virtual root
+	 * @param shallowSizes size of each node on its own
+	 */
+	public static DominatorTree compute(int nodeCount, int[] edgeStart, int[] edgeTargets, int[] roots, long[] shallowSizes)
+	{
+		int virtualRoot = nodeCount;
+		int[] dfsNumber = new int[nodeCount + 1];
+		int[] vertex = new int[nodeCount + 1];
+		int[] parent = new int[nodeCount + 1];
+		int[] stackVertex = new int[nodeCount + 1];
+		int[] stackCursor = new int[nodeCount + 1];
+
+		/* depth-first search from the virtual root, numbering nodes in preorder */
+		Arrays.fill(dfsNumber, NONE);
+		dfsNumber[virtualRoot] = 0;
+		vertex[0] = virtualRoot;
+		parent[0] = NONE;
+		int count = 1;
+		int stackSize = 1;
+		stackVertex[0] = 0;
+		stackCursor[0] = 0;
+
+		while (stackSize > 0) {
+			int current = stackVertex[stackSize - 1];
+			int node = vertex[current];
+			int cursor = stackCursor[stackSize - 1];
+			int end = (node == virtualRoot) ? roots.length : (edgeStart[node + 1] - edgeStart[node]);
+
+			if (cursor == end) {
+				stackSize -= 1;
+				continue;
+			}
+			stackCursor[stackSize - 1] = cursor + 1;
+
+			int target = (node == virtualRoot) ? roots[cursor] : edgeTargets[edgeStart[node] + cursor];
+			if (NONE == dfsNumber[target]) {
+				dfsNumber[target] = count;
+				vertex[count] = target;
+				parent[count] = current;
+				stackVertex[stackSize] = count;
+				stackCursor[stackSize] = 0;
+				stackSize += 1;
+				count += 1;
+			}
+		}
+
+		/* predecessors of each reached node, by depth-first number */
+		int[] predecessorStart = new int[count + 1];
+		for (int root : roots) {
+			predecessorStart[dfsNumber[root] + 1] += 1;
+		}
+		for (int v = 1; v < count; v++) {
+			int node = vertex[v];
+			for (int e = edgeStart[node]; e < edgeStart[node + 1]; e++) {
+				predecessorStart[dfsNumber[edgeTargets[e]] + 1] += 1;
+			}
+		}
+		for (int v = 0; v < count; v++) {
+			predecessorStart[v + 1] += predecessorStart[v];
+			if (predecessorStart[v + 1] < 0) {
+				throw new IllegalArgumentException("Too many edges");
+			}
+		}
+		int[] predecessors = new int[predecessorStart[count]];
+		/* the DFS stack is free again; reuse it as the fill cursor */
+		int[] fill = stackCursor;
+		System.arraycopy(predecessorStart, 0, fill, 0, count);
+		for (int root : roots) {
+			predecessors[fill[dfsNumber[root]]++] = 0;
+		}
+		for (int v = 1; v < count; v++) {
+			int node = vertex[v];
+			for (int e = edgeStart[node]; e < edgeStart[node + 1]; e++) {
+				predecessors[fill[dfsNumber[edgeTargets[e]]]++] = v;
+			}
+		}
+
+		int[] semi = new int[count];
+		int[] label = new int[count];
+		int[] ancestor = new int[count];
+		int[] idom = new int[count];
+		/* more reuse of the DFS arrays: buckets as singly linked lists, and the compression stack */
+		int[] bucketHead = stackVertex;
+		int[] bucketNext = fill;
+		int[] compressStack = new int[count];
+		for (int v = 0; v < count; v++) {
+			semi[v] = v;
+			label[v] = v;
+			ancestor[v] = NONE;
+			bucketHead[v] = NONE;
+		}
+
+		for (int w = count - 1; w > 0; w--) {
+			int p = parent[w];
+
+			for (int i = predecessorStart[w]; i < predecessorStart[w + 1]; i++) {
+				int u = eval(predecessors[i], ancestor, label, semi, compressStack);
+				if (semi[u] < semi[w]) {
+					semi[w] = semi[u];
+				}
+			}
+
+			bucketNext[w] = bucketHead[semi[w]];
+			bucketHead[semi[w]] = w;
+			ancestor[w] = p;
+
+			for (int v = bucketHead[p]; NONE != v; v = bucketNext[v]) {
+				int u = eval(v, ancestor, label, semi, compressStack);
+				idom[v] = (semi[u] < semi[v]) ? u : p;
+			}
+			bucketHead[p] = NONE;
+		}
+
+		idom[0] = NONE;
+		for (int w = 1; w < count; w++) {
+			if (idom[w] != semi[w]) {
+				idom[w] = idom[idom[w]];
+			}
+		}
+
+		/* children have higher depth-first numbers than their dominators */
+		long[] retained = new long[count];
+		for (int w = 1; w < count; w++) {
+			retained[w] = shallowSizes[vertex[w]];
+		}
+		for (int w = count - 1; w > 0; w--) {
+			retained[idom[w]] += retained[w];
+		}
+
+		return new DominatorTree(nodeCount, dfsNumber, vertex, idom, retained, count - 1);
+	}
+
+	private static int eval(int v, int[] ancestor, int[] label, int[] semi, int[] stack)
+	{
+		if (NONE == ancestor[v]) {
+			return v;
+		}
+
+		/* iterative form of the recursive compress(v) */
+		int size = 0;
+		int x = v;
+		while (NONE != ancestor[ancestor[x]]) {
+			stack[size++] = x;
+			x = ancestor[x];
+		}
+		while (size > 0) {
+			x = stack[--size];
+			int a = ancestor[x];
+			if (semi[label[a]] < semi[label[x]]) {
+				label[x] = label[a];
+			}
+			ancestor[x] = ancestor[a];
+		}
+		return label[v];
+	}
+
+	/**
+	 * @return the number of nodes reachable from the roots
+	 */
+	public int getReachableCount()
+	{
+		return reachableCount;
+	}
+
+	public boolean isReachable(int node)
+	{
+		return NONE != dfsNumber[node];
+	}
+
+	/**
+	 * @return the immediate dominator of node, {@link #ROOT} if it is dominated only
+	 * by the virtual root or {@link #UNREACHABLE} if it cannot be reached from the roots
+	 */
+	public int getImmediateDominator(int node)
+	{
+		int v = dfsNumber[node];
+		if (NONE == v) {
+			return UNREACHABLE;
+		}
+		int dominator = idom[v];
+		return (0 == dominator) ? ROOT : vertex[dominator];
+	}
+
+	/**
+	 * @return the total size of node and all the nodes it dominates, or 0 if it is unreachable
+	 */
+	public long getRetainedSize(int node)
+	{
+		int v = dfsNumber[node];
+		return (NONE == v) ? 0 : retained[v];
+	}
+
+	/**
+	 * @return the total size of all reachable nodes
+	 */
+	public long getTotalRetainedSize()
+	{
+		return retained[0];
+	}
+
+	public int getNodeCount()
+	{
+		return nodeCount;
+	}
+}
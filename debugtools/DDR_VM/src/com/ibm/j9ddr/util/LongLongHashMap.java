@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.j9ddr.util;
+
+import java.util.Arrays;
+
+/**
+ * Map from long to long using open addressing with linear probing, so that
+ * neither keys nor values are boxed. Absent keys read as 0.
+ *
+ * Not thread-safe.
+ */
+public final class LongLongHashMap
+{
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/* 0 marks a free slot; a 0 key is held separately */
+	private long[] keys;
+	private long[] values;
+	private int mask;
+	private int size;
+	private boolean hasZeroKey;
+	private long zeroValue;
+
+	public LongLongHashMap()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	public LongLongHashMap(int expectedSize)
+	{
+		int capacity = DEFAULT_CAPACITY;
+		while ((capacity >> 1) < expectedSize) {
+			capacity <<= 1;
+		}
+		allocate(capacity);
+	}
+
+	private void allocate(int capacity)
+	{
+		keys = new long[capacity];
+		values = new long[capacity];
+		mask = capacity - 1;
+	}
+
+	private static int hash(long key)
+	{
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/* slot holding key, or the free slot where it would go */
+	private int slot(long key)
+	{
+		int index = hash(key) & mask;
+		for (;;) {
+			long current = keys[index];
+			if ((current == key) || (0 == current)) {
+				return index;
+			}
+			index = (index + 1) & mask;
+		}
+	}
+
+	public int size()
+	{
+		return size;
+	}
+
+	public boolean containsKey(long key)
+	{
+		if (0 == key) {
+			return hasZeroKey;
+		}
+		return 0 != keys[slot(key)];
+	}
+
+	/**
+	 * @return the value for key, or 0 if there is none
+	 */
+	public long get(long key)
+	{
+		if (0 == key) {
+			return zeroValue;
+		}
+		return values[slot(key)];
+	}
+
+	public void put(long key, long value)
+	{
+		if (0 == key) {
+			if (!hasZeroKey) {
+				hasZeroKey = true;
+				size += 1;
+			}
+			zeroValue = value;
+			return;
+		}
+
+		int index = slot(key);
+		if (0 == keys[index]) {
+			keys[index] = key;
+			size += 1;
+			values[index] = value;
+			if (size > ((mask + 1) >> 1) + ((mask + 1) >> 2)) {
+				rehash();
+			}
+		} else {
+			values[index] = value;
+		}
+	}
+
+	/**
+	 * Add delta to the value for key, treating a missing value as 0.
+	 *
+	 * @return the new value
+	 */
+	public long addTo(long key, long delta)
+	{
+		if (0 == key) {
+			put(0, zeroValue + delta);
+			return zeroValue;
+		}
+
+		int index = slot(key);
+		if (0 == keys[index]) {
+			put(key, delta);
+			return delta;
+		}
+		values[index] += delta;
+		return values[index];
+	}
+
+	/**
+	 * Add the values of other to the values in this map.
+	 */
+	public void addAll(LongLongHashMap other)
+	{
+		if (other.hasZeroKey) {
+			addTo(0, other.zeroValue);
+		}
+		for (int i = 0; i < other.keys.length; i++) {
+			if (0 != other.keys[i]) {
+				addTo(other.keys[i], other.values[i]);
+			}
+		}
+	}
+
+	/**
+	 * @return the keys, in no particular order
+	 */
+	public long[] keys()
+	{
+		long[] result = new long[size];
+		int next = 0;
+		if (hasZeroKey) {
+			result[next++] = 0;
+		}
+		for (long key : keys) {
+			if (0 != key) {
+				result[next++] = key;
+			}
+		}
+		return result;
+	}
+
+	private void rehash()
+	{
+		long[] oldKeys = keys;
+		long[] oldValues = values;
+		allocate(oldKeys.length * 2);
+		for (int i = 0; i < oldKeys.length; i++) {
+			long key = oldKeys[i];
+			if (0 != key) {
+				int index = slot(key);
+				keys[index] = key;
+				values[index] = oldValues[i];
+			}
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		long[] sortedKeys = keys();
+		Arrays.sort(sortedKeys);
+		StringBuilder buffer = new StringBuilder("{");
+		for (int i = 0; i < sortedKeys.length; i++) {
+			if (i > 0) {
+				buffer.append(", ");
+			}
+			buffer.append(sortedKeys[i]).append('=').append(get(sortedKeys[i]));
+		}
+		return buffer.append('}').toString();
+	}
+}
@@ -0,0 +1,705 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.j9ddr.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.AccessController;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.ibm.j9ddr.corereaders.ICore;
+import com.ibm.j9ddr.corereaders.MappedFileReader;
+
+/**
+ * Index from each referenced object to the objects that reference it.
+ *
+ * The index is a list of (target, source) address pairs sorted by target and
+ * then by source, so the referrers of an object are found with a binary search
+ * followed by a scan of the matching entries.
+ *
+ * An index is normally saved to a file named after a digest of the core file,
+ * so that it can be reused by later sessions on the same core. The file holds
+ * a fixed size header followed by all the targets and then all the sources,
+ * as big-endian longs, and is read through memory-mapped windows.
+ */
+public final class ReverseReferenceIndex
+{
+	/**
+	 * Set to <code>false</code> to disable the index and walk the heap for every request.
+	 */
+	public static final String INDEX_PROPERTY = "ddr.reference.index";
+
+	/**
+	 * Directory holding saved indexes. Defaults to a j9ddr-index directory under java.io.tmpdir.
+	 */
+	public static final String INDEX_DIRECTORY_PROPERTY = "ddr.reference.index.dir";
+
+	private static final long MAGIC = 0x4A39444452524546L; /* "J9DDRREF" */
+	/* version 2 records the reference from each object to the java/lang/Class object of its class */
+	private static final int VERSION = 2;
+	private static final int KEY_LENGTH = 32; /* SHA-256 */
+	private static final int HEADER_SIZE = 64;
+
+	/* Digest sampling: the start and end of the core, plus evenly spaced blocks between them */
+	private static final int DIGEST_EDGE_SIZE = 1024 * 1024;
+	private static final int DIGEST_SAMPLE_SIZE = 4096;
+	private static final int DIGEST_SAMPLE_COUNT = 1024;
+
+	private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+	/* saved indexes that are open, by the core they were built from, so that they are closed with the core */
+	private static final Map<ICore, List<ReverseReferenceIndex>> openIndexes = new WeakHashMap<ICore, List<ReverseReferenceIndex>>();
+
+	private final MappedFileReader mapped;
+	private final long[] targets;
+	private final long[] sources;
+	private final long size;
+
+	private ReverseReferenceIndex(MappedFileReader mapped, long size)
+	{
+		this.mapped = mapped;
+		this.targets = null;
+		this.sources = null;
+		this.size = size;
+	}
+
+	private ReverseReferenceIndex(long[] targets, long[] sources)
+	{
+		this.mapped = null;
+		this.targets = targets;
+		this.sources = sources;
+		this.size = targets.length;
+	}
+
+	/**
+	 * A growable list of references found in one part of the heap.
+	 * Runs are filled by a single thread and sorted before they are written.
+	 */
+	public static final class EdgeRun
+	{
+		private static final int INITIAL_CAPACITY = 1024;
+
+		private long[] targets = new long[INITIAL_CAPACITY];
+		private long[] sources = new long[INITIAL_CAPACITY];
+		private int size;
+
+		public void add(long source, long target)
+		{
+			if (size == targets.length) {
+				int capacity = size + (size >> 1);
+				if (capacity < 0) {
+					throw new OutOfMemoryError("Too many references in one run");
+				}
+				targets = Arrays.copyOf(targets, capacity);
+				sources = Arrays.copyOf(sources, capacity);
+			}
+			targets[size] = target;
+			sources[size] = source;
+			size += 1;
+		}
+
+		public int size()
+		{
+			return size;
+		}
+
+		/**
+		 * Sort the run by target, then by source.
+		 */
+		public void sort()
+		{
+			EdgeSorter.sort(targets, sources, 0, size);
+		}
+	}
+
+	/**
+	 * @return false if the index has been disabled with {@value #INDEX_PROPERTY}
+	 */
+	public static boolean isEnabled()
+	{
+		String value = getProperty(INDEX_PROPERTY);
+		return (null == value) || Boolean.parseBoolean(value);
+	}
+
+	/**
+	 * @return the file used to save the index for the core with the given digest
+	 */
+	public static File getIndexFile(byte[] coreDigest)
+	{
+		String directory = getProperty(INDEX_DIRECTORY_PROPERTY);
+		if (null == directory) {
+			directory = new File(getProperty("java.io.tmpdir"), "j9ddr-index").getPath();
+		}
+		return new File(directory, "refs-" + toHex(coreDigest) + ".idx");
+	}
+
+	/**
+	 * Compute a digest identifying a core file. The digest covers the length of
+	 * the file, its first and last megabyte and a fixed number of blocks sampled
+	 * evenly in between, so it is cheap to compute for very large cores.
+	 */
+	public static byte[] digestCoreFile(File coreFile) throws IOException
+	{
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+
+		RandomAccessFile file = new RandomAccessFile(coreFile, "r");
+		try {
+			long length = file.length();
+			digest.update(ByteBuffer.allocate(8).putLong(length).array());
+
+			byte[] edge = new byte[(int) Math.min(length, DIGEST_EDGE_SIZE)];
+			file.readFully(edge);
+			digest.update(edge);
+
+			if (length > 2L * DIGEST_EDGE_SIZE) {
+				byte[] sample = new byte[DIGEST_SAMPLE_SIZE];
+				long stride = (length - DIGEST_EDGE_SIZE - DIGEST_SAMPLE_SIZE) / DIGEST_SAMPLE_COUNT;
+				for (int i = 1; i < DIGEST_SAMPLE_COUNT; i++) {
+					file.seek(i * stride);
+					file.readFully(sample);
+					digest.update(sample);
+				}
+			}
+
+			if (length > DIGEST_EDGE_SIZE) {
+				file.seek(length - edge.length);
+				file.readFully(edge);
+				digest.update(edge);
+			}
+		} finally {
+			file.close();
+		}
+
+		return digest.digest();
+	}
+
+	/**
+	 * Create an index held in memory from sorted runs. Used when the index
+	 * cannot be saved to disk.
+	 */
+	public static ReverseReferenceIndex fromRuns(List<EdgeRun> runs)
+	{
+		long total = totalSize(runs);
+		if (total > Integer.MAX_VALUE) {
+			throw new OutOfMemoryError("Too many references to index in memory: " + total);
+		}
+
+		final long[] targets = new long[(int) total];
+		final long[] sources = new long[(int) total];
+
+		merge(runs, new EdgeSink() {
+			int next = 0;
+
+			public void accept(long target, long source)
+			{
+				targets[next] = target;
+				sources[next] = source;
+				next += 1;
+			}
+		});
+
+		return new ReverseReferenceIndex(targets, sources);
+	}
+
+	/**
+	 * Merge sorted runs and save them as the index for the core with the given digest.
+	 * The index is written to a temporary file which is then renamed, so readers
+	 * never see a partially written index.
+	 */
+	public static void write(File indexFile, byte[] coreDigest, List<EdgeRun> runs) throws IOException
+	{
+		if (KEY_LENGTH != coreDigest.length) {
+			throw new IllegalArgumentException("Core digest must be " + KEY_LENGTH + " bytes");
+		}
+
+		File directory = indexFile.getAbsoluteFile().getParentFile();
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Unable to create index directory " + directory);
+		}
+
+		File tempFile = File.createTempFile("refs", ".tmp", directory);
+		boolean written = false;
+		try {
+			final long total = totalSize(runs);
+			RandomAccessFile file = new RandomAccessFile(tempFile, "rw");
+			try {
+				final FileChannel channel = file.getChannel();
+				final ByteBuffer targetBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+				final ByteBuffer sourceBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+				final long[] positions = { HEADER_SIZE, HEADER_SIZE + (total * 8) };
+
+				EdgeSink sink = new EdgeSink() {
+					public void accept(long target, long source) throws IOException
+					{
+						if (!targetBuffer.hasRemaining()) {
+							positions[0] = flush(channel, targetBuffer, positions[0]);
+							positions[1] = flush(channel, sourceBuffer, positions[1]);
+						}
+						targetBuffer.putLong(target);
+						sourceBuffer.putLong(source);
+					}
+				};
+				mergeChecked(runs, sink);
+				flush(channel, targetBuffer, positions[0]);
+				flush(channel, sourceBuffer, positions[1]);
+
+				ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+				header.putLong(MAGIC);
+				header.putInt(VERSION);
+				header.putInt(KEY_LENGTH);
+				header.putLong(total);
+				header.put(coreDigest);
+				header.flip();
+				while (header.hasRemaining()) {
+					channel.write(header, header.position());
+				}
+				channel.force(false);
+			} finally {
+				file.close();
+			}
+
+			try {
+				Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			written = true;
+		} finally {
+			if (!written) {
+				tempFile.delete();
+			}
+		}
+	}
+
+	/**
+	 * Open a saved index.
+	 *
+	 * @return the index, or null if the file does not exist, was not built from
+	 * the core with the given digest or is not a complete index
+	 */
+	public static ReverseReferenceIndex open(File indexFile, byte[] coreDigest) throws IOException
+	{
+		if (!indexFile.isFile()) {
+			return null;
+		}
+
+		MappedFileReader reader = new MappedFileReader(indexFile);
+		boolean valid = false;
+		try {
+			if (reader.length() >= HEADER_SIZE) {
+				byte[] header = new byte[HEADER_SIZE];
+				reader.readFully(0, header, 0, HEADER_SIZE);
+				ByteBuffer buffer = ByteBuffer.wrap(header);
+				long magic = buffer.getLong();
+				int version = buffer.getInt();
+				int keyLength = buffer.getInt();
+				long size = buffer.getLong();
+				byte[] key = new byte[KEY_LENGTH];
+				buffer.get(key);
+
+				valid = (MAGIC == magic)
+						&& (VERSION == version)
+						&& (KEY_LENGTH == keyLength)
+						&& (size >= 0)
+						&& (reader.length() == HEADER_SIZE + (size * 16))
+						&& Arrays.equals(key, coreDigest);
+				if (valid) {
+					return new ReverseReferenceIndex(reader, size);
+				}
+			}
+			return null;
+		} finally {
+			if (!valid) {
+				reader.close();
+			}
+		}
+	}
+
+	/**
+	 * @return the number of references in the index
+	 */
+	public long size()
+	{
+		return size;
+	}
+
+	/**
+	 * @return the addresses of the objects that reference target, in address order
+	 */
+	public long[] getReferrers(long target) throws IOException
+	{
+		long first = lowerBound(target);
+		long end = first;
+		while ((end < size) && (targetAt(end) == target)) {
+			end += 1;
+		}
+
+		long[] referrers = new long[(int) (end - first)];
+		for (int i = 0; i < referrers.length; i++) {
+			referrers[i] = sourceAt(first + i);
+		}
+		return referrers;
+	}
+
+	public void close() throws IOException
+	{
+		if (null != mapped) {
+			mapped.close();
+		}
+	}
+
+	/**
+	 * Close index when {@link #closeIndexes(ICore)} is called for core.
+	 */
+	public static void closeWith(ICore core, ReverseReferenceIndex index)
+	{
+		synchronized (openIndexes) {
+			List<ReverseReferenceIndex> indexes = openIndexes.get(core);
+			if (null == indexes) {
+				indexes = new ArrayList<ReverseReferenceIndex>();
+				openIndexes.put(core, indexes);
+			}
+			indexes.add(index);
+		}
+	}
+
+	/**
+	 * Close the indexes registered for core with {@link #closeWith(ICore, ReverseReferenceIndex)}.
+	 * This is called as the core is closed.
+	 */
+	public static void closeIndexes(ICore core)
+	{
+		List<ReverseReferenceIndex> indexes;
+		synchronized (openIndexes) {
+			indexes = openIndexes.remove(core);
+		}
+		if (null != indexes) {
+			for (ReverseReferenceIndex index : indexes) {
+				try {
+					index.close();
+				} catch (IOException e) {
+					// the core is being closed, nothing more can be done
+				}
+			}
+		}
+	}
+
+	/* Index of the first entry whose target is not less than target */
+	private long lowerBound(long target) throws IOException
+	{
+		long low = 0;
+		long high = size;
+		while (low < high) {
+			long middle = (low + high) >>> 1;
+			if (targetAt(middle) < target) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private long targetAt(long index) throws IOException
+	{
+		if (null == mapped) {
+			return targets[(int) index];
+		}
+		return mapped.readLong(HEADER_SIZE + (index * 8));
+	}
+
+	private long sourceAt(long index) throws IOException
+	{
+		if (null == mapped) {
+			return sources[(int) index];
+		}
+		return mapped.readLong(HEADER_SIZE + ((size + index) * 8));
+	}
+
+	private interface EdgeSink
+	{
+		public void accept(long target, long source) throws IOException;
+	}
+
+	private static void merge(List<EdgeRun> runs, EdgeSink sink)
+	{
+		try {
+			mergeChecked(runs, sink);
+		} catch (IOException e) {
+			/* only the file sink can fail */
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/* k-way merge of sorted runs using a binary heap of run indexes */
+	private static void mergeChecked(List<EdgeRun> runs, EdgeSink sink) throws IOException
+	{
+		EdgeRun[] live = new EdgeRun[runs.size()];
+		int liveCount = 0;
+		for (EdgeRun run : runs) {
+			if (run.size > 0) {
+				live[liveCount++] = run;
+			}
+		}
+
+		int[] cursors = new int[liveCount];
+		int[] heap = new int[liveCount];
+		for (int i = 0; i < liveCount; i++) {
+			heap[i] = i;
+		}
+		for (int i = (liveCount / 2) - 1; i >= 0; i--) {
+			siftDown(heap, liveCount, i, live, cursors);
+		}
+
+		int heapSize = liveCount;
+		while (heapSize > 0) {
+			int top = heap[0];
+			EdgeRun run = live[top];
+			int cursor = cursors[top];
+			sink.accept(run.targets[cursor], run.sources[cursor]);
+			cursors[top] = cursor + 1;
+			if (cursors[top] == run.size) {
+				heapSize -= 1;
+				heap[0] = heap[heapSize];
+			}
+			siftDown(heap, heapSize, 0, live, cursors);
+		}
+	}
+
+	private static void siftDown(int[] heap, int heapSize, int index, EdgeRun[] runs, int[] cursors)
+	{
+		int value = heap[index];
+		for (;;) {
+			int child = (2 * index) + 1;
+			if (child >= heapSize) {
+				break;
+			}
+			if ((child + 1 < heapSize) && (compareHeads(heap[child + 1], heap[child], runs, cursors) < 0)) {
+				child += 1;
+			}
+			if (compareHeads(heap[child], value, runs, cursors) >= 0) {
+				break;
+			}
+			heap[index] = heap[child];
+			index = child;
+		}
+		heap[index] = value;
+	}
+
+	private static int compareHeads(int left, int right, EdgeRun[] runs, int[] cursors)
+	{
+		EdgeRun leftRun = runs[left];
+		EdgeRun rightRun = runs[right];
+		int leftCursor = cursors[left];
+		int rightCursor = cursors[right];
+		int result = Long.compare(leftRun.targets[leftCursor], rightRun.targets[rightCursor]);
+		if (0 == result) {
+			result = Long.compare(leftRun.sources[leftCursor], rightRun.sources[rightCursor]);
+		}
+		return result;
+	}
+
+	private static long flush(FileChannel channel, ByteBuffer buffer, long position) throws IOException
+	{
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+		buffer.clear();
+		return position;
+	}
+
+	private static long totalSize(List<EdgeRun> runs)
+	{
+		long total = 0;
+		for (EdgeRun run : runs) {
+			total += run.size;
+		}
+		return total;
+	}
+
+	private static String toHex(byte[] bytes)
+	{
+		StringBuilder buffer = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			buffer.append(Character.forDigit((b >> 4) & 0xF, 16));
+			buffer.append(Character.forDigit(b & 0xF, 16));
+		}
+		return buffer.toString();
+	}
+
+	private static String getProperty(final String name)
+	{
+		return AccessController.doPrivileged(new PrivilegedAction<String>() {
+			public String run()
+			{
+				return System.getProperty(name);
+			}
+		});
+	}
+
+	/**
+	 * In-place sort of parallel target and source arrays by (target, source).
+	 * A quicksort that falls back to heapsort when partitioning goes badly,
+	 * so that no extra copy of the arrays is needed.
+	 */
+	private static final class EdgeSorter
+	{
+		private static final int INSERTION_SORT_THRESHOLD = 24;
+
+		static void sort(long[] targets, long[] sources, int from, int to)
+		{
+			int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(Math.max(1, to - from)));
+			quicksort(targets, sources, from, to, depthLimit);
+		}
+
+		private static void quicksort(long[] t, long[] s, int from, int to, int depthLimit)
+		{
+			while ((to - from) > INSERTION_SORT_THRESHOLD) {
+				if (0 == depthLimit) {
+					heapsort(t, s, from, to);
+					return;
+				}
+				depthLimit -= 1;
+
+				/* median of three moved to from, used as the pivot */
+				int middle = (from + to) >>> 1;
+				int last = to - 1;
+				if (less(t, s, middle, from)) {
+					swap(t, s, middle, from);
+				}
+				if (less(t, s, last, from)) {
+					swap(t, s, last, from);
+				}
+				if (less(t, s, last, middle)) {
+					swap(t, s, last, middle);
+				}
+				swap(t, s, from, middle);
+				long pivotTarget = t[from];
+				long pivotSource = s[from];
+
+				int i = from;
+				int j = to;
+				for (;;) {
+					do {
+						i += 1;
+					} while ((i < to) && (compare(t[i], s[i], pivotTarget, pivotSource) < 0));
+					do {
+						j -= 1;
+					} while (compare(t[j], s[j], pivotTarget, pivotSource) > 0);
+					if (i >= j) {
+						break;
+					}
+					swap(t, s, i, j);
+				}
+				swap(t, s, from, j);
+
+				/* recurse into the smaller side to bound stack depth */
+				if ((j - from) < (to - j - 1)) {
+					quicksort(t, s, from, j, depthLimit);
+					from = j + 1;
+				} else {
+					quicksort(t, s, j + 1, to, depthLimit);
+					to = j;
+				}
+			}
+
+			for (int i = from + 1; i < to; i++) {
+				for (int j = i; (j > from) && less(t, s, j, j - 1); j--) {
+					swap(t, s, j, j - 1);
+				}
+			}
+		}
+
+		private static void heapsort(long[] t, long[] s, int from, int to)
+		{
+			int n = to - from;
+			for (int i = (n / 2) - 1; i >= 0; i--) {
+				siftDown(t, s, from, i, n);
+			}
+			for (int end = n - 1; end > 0; end--) {
+				swap(t, s, from, from + end);
+				siftDown(t, s, from, 0, end);
+			}
+		}
+
+		private static void siftDown(long[] t, long[] s, int base, int index, int n)
+		{
+			for (;;) {
+				int child = (2 * index) + 1;
+				if (child >= n) {
+					return;
+				}
+				if ((child + 1 < n) && less(t, s, base + child, base + child + 1)) {
+					child += 1;
+				}
+				if (!less(t, s, base + index, base + child)) {
+					return;
+				}
+				swap(t, s, base + index, base + child);
+				index = child;
+			}
+		}
+
+		private static int compare(long leftTarget, long leftSource, long rightTarget, long rightSource)
+		{
+			int result = Long.compare(leftTarget, rightTarget);
+			if (0 == result) {
+				result = Long.compare(leftSource, rightSource);
+			}
+			return result;
+		}
+
+		private static boolean less(long[] t, long[] s, int left, int right)
+		{
+			return compare(t[left], s[left], t[right], s[right]) < 0;
+		}
+
+		private static void swap(long[] t, long[] s, int left, int right)
+		{
+			long target = t[left];
+			t[left] = t[right];
+			t[right] = target;
+			long source = s[left];
+			s[left] = s[right];
+			s[right] = source;
+		}
+	}
+}
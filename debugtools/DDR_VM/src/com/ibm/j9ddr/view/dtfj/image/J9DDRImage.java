@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2020 IBM Corp. and others
+ * Copyright (c) 1991, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -38,6 +38,7 @@ import com.ibm.dtfj.utils.file.ManagedImageSource;
 import com.ibm.j9ddr.corereaders.ICore;
 import com.ibm.j9ddr.corereaders.ILibraryDependentCore;
 import com.ibm.j9ddr.corereaders.memory.IAddressSpace;
+import com.ibm.j9ddr.util.ReverseReferenceIndex;
 import com.ibm.j9ddr.view.dtfj.DTFJCorruptDataException;
 import com.ibm.j9ddr.view.dtfj.image.J9RASImageDataFactory.MachineData;
 
@@ -297,6 +298,7 @@ public class J9DDRImage implements ManagedImage {
 	public void close() {
 		closed = true;			//indicate that we've attempted to close the image even if it ultimately fails
 		try {
+			ReverseReferenceIndex.closeIndexes(coreFile);
 			coreFile.close();
 			if(meta != null) {
 				meta.close();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2014 IBM Corp. and others
+ * Copyright (c) 1991, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -28,40 +28,63 @@ import java.util.logging.Logger;
 import com.ibm.j9ddr.CorruptDataException;
 import com.ibm.j9ddr.events.IEventListener;
 
+/**
+ * Sends events to the listener at the top of the calling thread's listener stack.
+ * 
+ * Each thread has its own stack, so listeners registered by one thread never see
+ * events raised by another. Code that raises events on behalf of another thread,
+ * such as a worker walking part of the heap, should register that thread's current
+ * listener (see {@link #getListener()}) for the duration of the work.
+ */
 public class EventManager {
 	private static Logger log = Logger.getLogger(EventManager.class.getPackage().getName());
-	private static LinkedList<IEventListener> listeners = null;		//listeners that this manager will call
+	private static final ThreadLocal<LinkedList<IEventListener>> listeners;		//listeners that this manager will call, per thread
 	private static DefaultEventListener defaultListener = null;
 	
 	static {
-		listeners = new LinkedList<IEventListener>();
+		listeners = new ThreadLocal<LinkedList<IEventListener>>() {
+			@Override
+			protected LinkedList<IEventListener> initialValue() {
+				return new LinkedList<IEventListener>();
+			}
+		};
 		defaultListener = new DefaultEventListener();		//create a default listener
 	}
 	
 	public static void register(IEventListener listener) {
-		if(!listeners.isEmpty()) {
-			IEventListener top = listeners.peek();
+		LinkedList<IEventListener> stack = listeners.get();
+		if(!stack.isEmpty()) {
+			IEventListener top = stack.peek();
 			if(top == listener) {
 				log.warning(String.format("The specified event listener was already registered : %s", listener.getClass().getName()));
 				return;			//skip the registration
 			}
 		}
-		listeners.addFirst(listener);
+		stack.addFirst(listener);
 	}
 	
 	public static void unregister(IEventListener listener) {
-		if(listeners.isEmpty()) {			//check that there are some entries on the stack
+		LinkedList<IEventListener> stack = listeners.get();
+		if(stack.isEmpty()) {			//check that there are some entries on the stack
 			log.warning("There are no listeners left on the stack, skipping unregistration");
 			return;
 		}
-		IEventListener top = listeners.peek();
+		IEventListener top = stack.peek();
 		if(top != listener) {			//check that the top of the stack is the same as being unregistered
 			String msg = String.format("The top listener on the stack does not match : expected [%s] actual [%s]", 
 					listener.getClass().getName(), top.getClass().getName());
 			log.warning(msg);
 			return;
 		}
-		listeners.removeFirst();
+		stack.removeFirst();
+	}
+
+	/**
+	 * Get the listener that events raised on the calling thread are sent to.
+	 * @return the listener at the top of the calling thread's stack, or null if the default listener is in use
+	 */
+	public static IEventListener getListener() {
+		return listeners.get().peek();
 	}
 
 	/**
@@ -71,10 +94,10 @@ public class EventManager {
 	 * @param isfatal
 	 */
 	public static void raiseCorruptDataEvent(String message, CorruptDataException e, boolean fatal) {
-		if(listeners.isEmpty()) {							//no listeners, so use the default
+		IEventListener listener = listeners.get().peek();
+		if(null == listener) {							//no listeners, so use the default
 			defaultListener.corruptData(message, e, fatal);
 		} else {
-			IEventListener listener = listeners.peek();
 			listener.corruptData(message, e, fatal);			//send the event to the listener at the top of the stack
 		}
 	}
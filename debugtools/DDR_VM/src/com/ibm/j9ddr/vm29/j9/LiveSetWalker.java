@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2014 IBM Corp. and others
+ * Copyright (c) 2001, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -21,15 +21,22 @@
  *******************************************************************************/
 package com.ibm.j9ddr.vm29.j9; 
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 
 import com.ibm.j9ddr.CorruptDataException;
+import com.ibm.j9ddr.util.LongLongHashMap;
+import com.ibm.j9ddr.util.ReverseReferenceIndex;
 import com.ibm.j9ddr.vm29.events.EventManager;
 import com.ibm.j9ddr.vm29.j9.RootSet.RootSetType;
 import com.ibm.j9ddr.vm29.j9.gc.GCClassIterator;
 import com.ibm.j9ddr.vm29.j9.gc.GCClassIteratorClassSlots;
 import com.ibm.j9ddr.vm29.j9.gc.GCIterator;
 import com.ibm.j9ddr.vm29.j9.gc.GCObjectIterator;
+import com.ibm.j9ddr.vm29.j9.gc.GCReverseReferenceIndex;
 import com.ibm.j9ddr.vm29.pointer.VoidPointer;
 import com.ibm.j9ddr.vm29.pointer.generated.J9ClassPointer;
 import com.ibm.j9ddr.vm29.pointer.generated.J9ObjectPointer;
@@ -40,6 +47,8 @@ import com.ibm.j9ddr.vm29.pointer.helper.J9ObjectHelper;
  */
 public class LiveSetWalker  
 {
+	private static final long LIVE = 1;
+	private static final long DEAD = 2;
 	
 	public interface ObjectVisitor
 	{
@@ -95,6 +104,145 @@ public class LiveSetWalker
 		walkLiveSet(visitor, RootSetType.STRONG_REACHABLE);
 	}
 	
+	/**
+	 * Finds a shortest path from a root to target by searching backwards from target
+	 * through the reverse reference index, instead of walking the live set.
+	 * 
+	 * @return the objects on the path, starting with the root and ending with target,
+	 * an empty list if target is not reachable from the roots, or null if the index is disabled
+	 */
+	public static List<J9ObjectPointer> findPathFromRoots(J9ObjectPointer target, RootSetType rootSetType) throws CorruptDataException
+	{
+		ReverseReferenceIndex index = GCReverseReferenceIndex.getIndex();
+		if (null == index) {
+			return null;
+		}
+		
+		long[] roots = rootAddresses(rootSetType);
+		
+		/* towardTarget maps each object found to the object it references on the way to target, 0 for target itself */
+		LongLongHashMap towardTarget = new LongLongHashMap();
+		long[] queue = new long[16];
+		int head = 0;
+		int tail = 0;
+		towardTarget.put(target.getAddress(), 0);
+		queue[tail++] = target.getAddress();
+		
+		while (head < tail) {
+			long current = queue[head++];
+			if (Arrays.binarySearch(roots, current) >= 0) {
+				List<J9ObjectPointer> path = new ArrayList<J9ObjectPointer>();
+				for (long step = current; 0 != step; step = towardTarget.get(step)) {
+					path.add(J9ObjectPointer.cast(step));
+				}
+				return path;
+			}
+			
+			for (long referrer : GCReverseReferenceIndex.getReferrers(index, J9ObjectPointer.cast(current))) {
+				if (!towardTarget.containsKey(referrer)) {
+					towardTarget.put(referrer, current);
+					if (tail == queue.length) {
+						queue = Arrays.copyOf(queue, tail * 2);
+					}
+					queue[tail++] = referrer;
+				}
+			}
+		}
+		
+		return Collections.emptyList();
+	}
+	
+	/**
+	 * Finds which of objects are reachable from a root by searching backwards through
+	 * the reverse reference index, computing the root set once for all of the objects.
+	 * 
+	 * The searches share what they learn: a search that reaches a root marks the objects
+	 * on its path live, and a search that fails marks every object it found dead, since
+	 * all of their referrers were searched as well. Later searches stop at either mark.
+	 * 
+	 * @return whether each of objects is reachable, or null if the index is disabled
+	 */
+	public static boolean[] findReachableFromRoots(long[] objects, RootSetType rootSetType) throws CorruptDataException
+	{
+		ReverseReferenceIndex index = GCReverseReferenceIndex.getIndex();
+		if (null == index) {
+			return null;
+		}
+		
+		long[] roots = rootAddresses(rootSetType);
+		
+		/* known maps objects whose reachability has been decided to LIVE or DEAD */
+		LongLongHashMap known = new LongLongHashMap();
+		boolean[] result = new boolean[objects.length];
+		long[] queue = new long[16];
+		
+		for (int i = 0; i < objects.length; i++) {
+			long state = known.get(objects[i]);
+			if (0 == state) {
+				/* towardObject maps each object found to the object it references on the way to objects[i] */
+				LongLongHashMap towardObject = new LongLongHashMap();
+				int head = 0;
+				int tail = 0;
+				towardObject.put(objects[i], 0);
+				queue[tail++] = objects[i];
+				state = DEAD;
+				
+				while (head < tail) {
+					long current = queue[head++];
+					if ((LIVE == known.get(current)) || (Arrays.binarySearch(roots, current) >= 0)) {
+						for (long step = current; 0 != step; step = towardObject.get(step)) {
+							known.put(step, LIVE);
+						}
+						state = LIVE;
+						break;
+					}
+					
+					for (long referrer : GCReverseReferenceIndex.getReferrers(index, J9ObjectPointer.cast(current))) {
+						if ((DEAD != known.get(referrer)) && !towardObject.containsKey(referrer)) {
+							towardObject.put(referrer, current);
+							if (tail == queue.length) {
+								queue = Arrays.copyOf(queue, tail * 2);
+							}
+							queue[tail++] = referrer;
+						}
+					}
+				}
+				
+				if (DEAD == state) {
+					for (int found = 0; found < tail; found++) {
+						known.put(queue[found], DEAD);
+					}
+				}
+			}
+			result[i] = (LIVE == state);
+		}
+		
+		return result;
+	}
+	
+	/* Sorted addresses of the objects in the root set */
+	private static long[] rootAddresses(RootSetType rootSetType) throws CorruptDataException
+	{
+		RootSet rootSet = RootSet.from(rootSetType, false);
+		GCIterator rootIterator = rootSet.gcIterator(rootSetType);
+		long[] roots = new long[16];
+		int count = 0;
+		
+		while (rootIterator.hasNext()) {
+			J9ObjectPointer root = (J9ObjectPointer) rootIterator.next();
+			if (root.notNull()) {
+				if (count == roots.length) {
+					roots = Arrays.copyOf(roots, count * 2);
+				}
+				roots[count++] = root.getAddress();
+			}
+		}
+		
+		roots = Arrays.copyOf(roots, count);
+		Arrays.sort(roots);
+		return roots;
+	}
+	
 	private static void scanObject(HashSet<J9ObjectPointer> visitedObjects, ObjectVisitor visitor, J9ObjectPointer object, VoidPointer address)
 	{	
 		if (visitedObjects.contains(object)) {
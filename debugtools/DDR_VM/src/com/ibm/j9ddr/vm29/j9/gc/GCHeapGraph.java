@@ -0,0 +1,334 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.j9ddr.vm29.j9.gc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ibm.j9ddr.CorruptDataException;
+import com.ibm.j9ddr.DataUnavailableException;
+import com.ibm.j9ddr.util.DominatorTree;
+import com.ibm.j9ddr.vm29.events.EventManager;
+import com.ibm.j9ddr.vm29.j9.ObjectModel;
+import com.ibm.j9ddr.vm29.j9.RootSet;
+import com.ibm.j9ddr.vm29.j9.RootSet.RootSetType;
+import com.ibm.j9ddr.vm29.pointer.generated.J9ObjectPointer;
+import com.ibm.j9ddr.vm29.pointer.helper.J9ObjectHelper;
+
+/**
+ * The object graph of the heap, held in primitive arrays.
+ *
+ * Objects are numbered in address order. Each object has its address, its
+ * consumed size, the number of its class and its outgoing references, stored
+ * in compressed sparse row form as object numbers. References to addresses
+ * that are not heap objects are dropped.
+ */
+public final class GCHeapGraph
+{
+	private final long[] addresses;
+	private final long[] sizes;
+	private final int[] classIds;
+	private final long[] classAddresses;
+	private final int[] edgeStart;
+	private final int[] edgeTargets;
+
+	private GCHeapGraph(long[] addresses, long[] sizes, int[] classIds, long[] classAddresses, int[] edgeStart, int[] edgeTargets)
+	{
+		this.addresses = addresses;
+		this.sizes = sizes;
+		this.classIds = classIds;
+		this.classAddresses = classAddresses;
+		this.edgeStart = edgeStart;
+		this.edgeTargets = edgeTargets;
+	}
+
+	/**
+	 * Build the graph with a parallel walk of the heap.
+	 *
+	 * @throws DataUnavailableException if the heap has too many objects or references to be numbered with ints
+	 */
+	public static GCHeapGraph fromHeap() throws CorruptDataException, DataUnavailableException
+	{
+		List<RegionGraph> regions = new GCParallelHeapWalker().walk(new RegionGraphBuilder());
+		if (null == regions) {
+			regions = new ArrayList<RegionGraph>();
+		}
+
+		long objectCount = 0;
+		long referenceCount = 0;
+		for (RegionGraph region : regions) {
+			objectCount += region.objectCount;
+			referenceCount += region.referenceCount;
+		}
+		if ((objectCount >= Integer.MAX_VALUE) || (referenceCount >= Integer.MAX_VALUE)) {
+			throw new DataUnavailableException("Heap too large for object graph: " + objectCount + " objects, " + referenceCount + " references");
+		}
+
+		/* regions are in address order, so the concatenated addresses are sorted */
+		long[] addresses = new long[(int) objectCount];
+		long[] sizes = new long[(int) objectCount];
+		int[] classIds = new int[(int) objectCount];
+		Map<Long, Integer> classNumbers = new HashMap<Long, Integer>();
+		int next = 0;
+		for (RegionGraph region : regions) {
+			int[] globalClassIds = new int[region.classCount];
+			for (int i = 0; i < region.classCount; i++) {
+				Long classAddress = Long.valueOf(region.classAddresses[i]);
+				Integer id = classNumbers.get(classAddress);
+				if (null == id) {
+					id = Integer.valueOf(classNumbers.size());
+					classNumbers.put(classAddress, id);
+				}
+				globalClassIds[i] = id.intValue();
+			}
+			System.arraycopy(region.addresses, 0, addresses, next, region.objectCount);
+			System.arraycopy(region.sizes, 0, sizes, next, region.objectCount);
+			for (int i = 0; i < region.objectCount; i++) {
+				classIds[next + i] = globalClassIds[region.classIds[i]];
+			}
+			next += region.objectCount;
+		}
+		long[] classAddresses = new long[classNumbers.size()];
+		for (Map.Entry<Long, Integer> entry : classNumbers.entrySet()) {
+			classAddresses[entry.getValue().intValue()] = entry.getKey().longValue();
+		}
+
+		int[] edgeStart = new int[(int) objectCount + 1];
+		int[] edgeTargets = new int[(int) referenceCount];
+		int object = 0;
+		int edgeCount = 0;
+		for (RegionGraph region : regions) {
+			int reference = 0;
+			for (int i = 0; i < region.objectCount; i++) {
+				edgeStart[object] = edgeCount;
+				for (int end = reference + region.referenceCounts[i]; reference < end; reference++) {
+					int target = Arrays.binarySearch(addresses, region.referenceTargets[reference]);
+					if (target >= 0) {
+						edgeTargets[edgeCount++] = target;
+					}
+				}
+				object += 1;
+			}
+			/* release the region's arrays as soon as they have been copied */
+			region.release();
+		}
+		edgeStart[object] = edgeCount;
+		if (edgeCount < edgeTargets.length) {
+			edgeTargets = Arrays.copyOf(edgeTargets, edgeCount);
+		}
+
+		return new GCHeapGraph(addresses, sizes, classIds, classAddresses, edgeStart, edgeTargets);
+	}
+
+	public int getObjectCount()
+	{
+		return addresses.length;
+	}
+
+	/**
+	 * @return the number of the object at address, or -1 if there is no heap object there
+	 */
+	public int indexOf(long address)
+	{
+		int index = Arrays.binarySearch(addresses, address);
+		return (index >= 0) ? index : -1;
+	}
+
+	public long getAddress(int object)
+	{
+		return addresses[object];
+	}
+
+	public long getSize(int object)
+	{
+		return sizes[object];
+	}
+
+	public int getClassId(int object)
+	{
+		return classIds[object];
+	}
+
+	public int getClassCount()
+	{
+		return classAddresses.length;
+	}
+
+	/**
+	 * @return the address of the J9Class with the given class number
+	 */
+	public long getClassAddress(int classId)
+	{
+		return classAddresses[classId];
+	}
+
+	/**
+	 * @return the numbers of the objects in the root set; roots that are not heap objects are left out
+	 */
+	public int[] getRoots(RootSetType rootSetType) throws CorruptDataException
+	{
+		RootSet rootSet = RootSet.from(rootSetType, false);
+		GCIterator rootIterator = rootSet.gcIterator(rootSetType);
+		int[] roots = new int[16];
+		int count = 0;
+
+		while (rootIterator.hasNext()) {
+			J9ObjectPointer root = (J9ObjectPointer) rootIterator.next();
+			int index = root.notNull() ? indexOf(root.getAddress()) : -1;
+			if (index >= 0) {
+				if (count == roots.length) {
+					roots = Arrays.copyOf(roots, count * 2);
+				}
+				roots[count++] = index;
+			}
+		}
+		return Arrays.copyOf(roots, count);
+	}
+
+	/**
+	 * Compute the dominator tree of the objects reachable from the root set.
+	 * Node numbers in the tree are object numbers in this graph.
+	 */
+	public DominatorTree computeDominators(RootSetType rootSetType) throws CorruptDataException
+	{
+		return DominatorTree.compute(addresses.length, edgeStart, edgeTargets, getRoots(rootSetType), sizes);
+	}
+
+	/**
+	 * The objects of one region, with their references still held as addresses.
+	 */
+	private static final class RegionGraph implements GCObjectReferenceScanner.ReferenceVisitor
+	{
+		long[] addresses = new long[256];
+		long[] sizes = new long[256];
+		int[] classIds = new int[256];
+		int[] referenceCounts = new int[256];
+		int objectCount;
+
+		long[] referenceTargets = new long[1024];
+		int referenceCount;
+
+		long[] classAddresses = new long[16];
+		int classCount;
+		Map<Long, Integer> classNumbers = new HashMap<Long, Integer>();
+		GCObjectReferenceScanner scanner = new GCObjectReferenceScanner();
+
+		void addObject(long address, long size, long classAddress)
+		{
+			if (objectCount == addresses.length) {
+				int capacity = objectCount * 2;
+				addresses = Arrays.copyOf(addresses, capacity);
+				sizes = Arrays.copyOf(sizes, capacity);
+				classIds = Arrays.copyOf(classIds, capacity);
+				referenceCounts = Arrays.copyOf(referenceCounts, capacity);
+			}
+			addresses[objectCount] = address;
+			sizes[objectCount] = size;
+			classIds[objectCount] = classNumber(classAddress);
+			referenceCounts[objectCount] = 0;
+			objectCount += 1;
+		}
+
+		/* references are reported for the object most recently added */
+		public void reference(long source, long target)
+		{
+			if (referenceCount == referenceTargets.length) {
+				referenceTargets = Arrays.copyOf(referenceTargets, referenceCount * 2);
+			}
+			referenceTargets[referenceCount++] = target;
+			referenceCounts[objectCount - 1] += 1;
+		}
+
+		private int classNumber(long classAddress)
+		{
+			Long key = Long.valueOf(classAddress);
+			Integer id = classNumbers.get(key);
+			if (null == id) {
+				if (classCount == classAddresses.length) {
+					classAddresses = Arrays.copyOf(classAddresses, classCount * 2);
+				}
+				classAddresses[classCount] = classAddress;
+				id = Integer.valueOf(classCount++);
+				classNumbers.put(key, id);
+			}
+			return id.intValue();
+		}
+
+		void release()
+		{
+			addresses = null;
+			sizes = null;
+			classIds = null;
+			referenceCounts = null;
+			referenceTargets = null;
+		}
+	}
+
+	private static final class RegionGraphBuilder extends GCParallelHeapWalker.ObjectVisitor<List<RegionGraph>>
+	{
+		RegionGraphBuilder()
+		{
+			super(true, false);
+		}
+
+		@Override
+		protected List<RegionGraph> createResult(GCHeapRegionDescriptor region)
+		{
+			List<RegionGraph> result = new ArrayList<RegionGraph>();
+			result.add(new RegionGraph());
+			return result;
+		}
+
+		@Override
+		public List<RegionGraph> visitRegion(GCHeapRegionDescriptor region) throws CorruptDataException
+		{
+			List<RegionGraph> result = super.visitRegion(region);
+			/* lookup tables are only needed while the region is walked */
+			RegionGraph graph = result.get(0);
+			graph.classNumbers = null;
+			graph.scanner = null;
+			return result;
+		}
+
+		@Override
+		protected boolean visit(J9ObjectPointer object, GCHeapRegionDescriptor region, List<RegionGraph> result)
+		{
+			RegionGraph graph = result.get(0);
+			try {
+				graph.addObject(object.getAddress(), ObjectModel.getConsumedSizeInBytesWithHeader(object).longValue(), J9ObjectHelper.clazz(object).getAddress());
+				graph.scanner.scan(object, graph);
+			} catch (CorruptDataException e) {
+				EventManager.raiseCorruptDataEvent("Corruption found while building the object graph, object: " + object.getHexAddress(), e, false);
+			}
+			return true;
+		}
+
+		public List<RegionGraph> merge(List<RegionGraph> lower, List<RegionGraph> upper)
+		{
+			lower.addAll(upper);
+			return lower;
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2014 IBM Corp. and others
+ * Copyright (c) 1991, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -23,8 +23,8 @@ package com.ibm.j9ddr.vm29.j9.gc;
 
 import static com.ibm.j9ddr.vm29.events.EventManager.raiseCorruptDataEvent;
 
-import java.util.HashMap;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.ibm.j9ddr.CorruptDataException;
 import com.ibm.j9ddr.vm29.j9.ObjectModel;
@@ -39,7 +39,7 @@ import com.ibm.j9ddr.vm29.types.UDATA;
 
 class GCMixedObjectIterator_V1 extends GCObjectIterator
 {
-	protected final static HashMap<J9ClassPointer, boolean[]> descriptionCache = new HashMap<J9ClassPointer, boolean[]>();
+	protected final static ConcurrentHashMap<J9ClassPointer, boolean[]> descriptionCache = new ConcurrentHashMap<J9ClassPointer, boolean[]>();
 	protected ObjectReferencePointer data;
 	protected boolean[] descriptionArray;
 	protected int scanIndex;
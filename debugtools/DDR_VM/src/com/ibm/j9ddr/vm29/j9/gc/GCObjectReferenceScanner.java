@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.j9ddr.vm29.j9.gc;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.ibm.j9ddr.CorruptDataException;
+import com.ibm.j9ddr.vm29.j9.ConstantPoolHelpers;
+import com.ibm.j9ddr.vm29.pointer.generated.J9ClassPointer;
+import com.ibm.j9ddr.vm29.pointer.generated.J9ObjectPointer;
+import com.ibm.j9ddr.vm29.pointer.helper.J9ClassHelper;
+import com.ibm.j9ddr.vm29.pointer.helper.J9ObjectHelper;
+
+/**
+ * Reports the non-null references held by heap objects: the object's own
+ * reference fields, the java/lang/Class object of its class and, for
+ * java/lang/Class objects, the static fields and
+ * class slots of the class, matching the edges followed by
+ * {@link com.ibm.j9ddr.vm29.j9.LiveSetWalker}.
+ *
+ * A scanner remembers which classes are java/lang/Class, so it should be
+ * reused for many objects, but it is not thread-safe.
+ */
+public final class GCObjectReferenceScanner
+{
+	public interface ReferenceVisitor
+	{
+		public void reference(long source, long target);
+	}
+
+	private final Map<Long, Boolean> classObjectClasses = new HashMap<Long, Boolean>();
+
+	/**
+	 * Report each reference held by object to visitor.
+	 */
+	public void scan(J9ObjectPointer object, ReferenceVisitor visitor) throws CorruptDataException
+	{
+		long source = object.getAddress();
+
+		/* include the class slot, so an object's class is reachable through it as in LiveSetWalker */
+		GCObjectIterator fieldIterator = GCObjectIterator.fromJ9Object(object, true);
+		while (fieldIterator.hasNext()) {
+			J9ObjectPointer slot = fieldIterator.next();
+			if (slot.notNull()) {
+				visitor.reference(source, slot.getAddress());
+			}
+		}
+
+		if (isClassObject(object)) {
+			J9ClassPointer clazz = ConstantPoolHelpers.J9VM_J9CLASS_FROM_HEAPCLASS(object);
+
+			GCClassIterator classIterator = GCClassIterator.fromJ9Class(clazz);
+			while (classIterator.hasNext()) {
+				J9ObjectPointer slot = classIterator.next();
+				if (slot.notNull()) {
+					visitor.reference(source, slot.getAddress());
+				}
+			}
+
+			GCClassIteratorClassSlots classSlotIterator = GCClassIteratorClassSlots.fromJ9Class(clazz);
+			while (classSlotIterator.hasNext()) {
+				J9ObjectPointer classObject = ConstantPoolHelpers.J9VM_J9CLASS_TO_HEAPCLASS(classSlotIterator.next());
+				if (classObject.notNull()) {
+					visitor.reference(source, classObject.getAddress());
+				}
+			}
+		}
+	}
+
+	private boolean isClassObject(J9ObjectPointer object) throws CorruptDataException
+	{
+		J9ClassPointer clazz = J9ObjectHelper.clazz(object);
+		Long key = Long.valueOf(clazz.getAddress());
+		Boolean isClass = classObjectClasses.get(key);
+		if (null == isClass) {
+			isClass = Boolean.valueOf(J9ClassHelper.getName(clazz).equals("java/lang/Class"));
+			classObjectClasses.put(key, isClass);
+		}
+		return isClass.booleanValue();
+	}
+}
@@ -0,0 +1,292 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.j9ddr.vm29.j9.gc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.ibm.j9ddr.CorruptDataException;
+import com.ibm.j9ddr.events.IEventListener;
+import com.ibm.j9ddr.vm29.events.EventManager;
+import com.ibm.j9ddr.vm29.pointer.generated.J9ObjectPointer;
+
+/**
+ * Walks the heap one region at a time on a fork/join pool.
+ * 
+ * Each region is visited on a worker thread and produces a partial result.
+ * Partial results are merged pairwise in region address order, so a visitor
+ * that merges by appending produces the same output as a sequential walk.
+ * 
+ * The number of worker threads defaults to the number of available processors
+ * and can be set with the system property {@value #PARALLELISM_PROPERTY}.
+ * A value of 1 walks the regions sequentially on the calling thread.
+ * 
+ * Corrupt data events raised while a region is walked on a worker thread are
+ * sent to the event listener the calling thread had registered when the walk
+ * started. Delivery is serialized on that listener, so it sees one event at a
+ * time, as it would during a sequential walk.
+ */
+public class GCParallelHeapWalker
+{
+	public static final String PARALLELISM_PROPERTY = "ddr.heap.walk.threads";
+
+	private final int parallelism;
+
+	/**
+	 * Visitor invoked once per heap region.
+	 *
+	 * @param <T> partial result type
+	 */
+	public interface RegionVisitor<T>
+	{
+		/**
+		 * Walk a single region. Called on a worker thread, possibly at the same
+		 * time as other regions are being walked.
+		 * 
+		 * @return the partial result for this region
+		 */
+		public T visitRegion(GCHeapRegionDescriptor region) throws CorruptDataException;
+
+		/**
+		 * Combine the partial results of two adjacent runs of regions.
+		 * 
+		 * @param lower result for the regions at lower addresses
+		 * @param upper result for the regions immediately above them
+		 * @return the combined result
+		 */
+		public T merge(T lower, T upper);
+	}
+
+	/**
+	 * Region visitor that calls {@link #visit(J9ObjectPointer, GCHeapRegionDescriptor, Object)}
+	 * for each object in every region that contains objects.
+	 *
+	 * @param <T> partial result type
+	 */
+	public static abstract class ObjectVisitor<T> implements RegionVisitor<T>
+	{
+		private final boolean includeLiveObjects;
+		private final boolean includeDeadObjects;
+
+		protected ObjectVisitor(boolean includeLiveObjects, boolean includeDeadObjects)
+		{
+			this.includeLiveObjects = includeLiveObjects;
+			this.includeDeadObjects = includeDeadObjects;
+		}
+
+		/**
+		 * @return a new, empty result for the region about to be walked
+		 */
+		protected abstract T createResult(GCHeapRegionDescriptor region) throws CorruptDataException;
+
+		/**
+		 * @return false to stop walking the current region
+		 */
+		protected abstract boolean visit(J9ObjectPointer object, GCHeapRegionDescriptor region, T result) throws CorruptDataException;
+
+		public T visitRegion(GCHeapRegionDescriptor region) throws CorruptDataException
+		{
+			T result = createResult(region);
+			if (region.containsObjects()) {
+				GCObjectHeapIterator heapObjectIterator = region.objectIterator(includeLiveObjects, includeDeadObjects);
+				while (heapObjectIterator.hasNext()) {
+					if (!visit(heapObjectIterator.next(), region, result)) {
+						break;
+					}
+				}
+			}
+			return result;
+		}
+	}
+
+	public GCParallelHeapWalker()
+	{
+		this(getDefaultParallelism());
+	}
+
+	public GCParallelHeapWalker(int parallelism)
+	{
+		this.parallelism = Math.max(1, parallelism);
+	}
+
+	/**
+	 * @return the number of walker threads requested by {@value #PARALLELISM_PROPERTY},
+	 * or the number of available processors if it is not set
+	 */
+	public static int getDefaultParallelism()
+	{
+		int processors = Runtime.getRuntime().availableProcessors();
+		String value = System.getProperty(PARALLELISM_PROPERTY);
+
+		if (null != value) {
+			try {
+				return Math.max(1, Integer.parseInt(value.trim()));
+			} catch (NumberFormatException e) {
+				/* fall through to the default */
+			}
+		}
+		return processors;
+	}
+
+	public int getParallelism()
+	{
+		return parallelism;
+	}
+
+	/**
+	 * Walk every region returned by {@link GCHeapRegionIterator#from()}.
+	 * 
+	 * @return the merged result, or null if the heap has no regions
+	 */
+	public <T> T walk(RegionVisitor<T> visitor) throws CorruptDataException
+	{
+		List<GCHeapRegionDescriptor> regions = new ArrayList<GCHeapRegionDescriptor>();
+		GCHeapRegionIterator regionIterator = GCHeapRegionIterator.from();
+		while (regionIterator.hasNext()) {
+			regions.add(regionIterator.next());
+		}
+		return walk(regions, visitor);
+	}
+
+	/**
+	 * Walk the given regions, which must be in address order.
+	 * 
+	 * @return the merged result, or null if regions is empty
+	 */
+	public <T> T walk(List<GCHeapRegionDescriptor> regions, RegionVisitor<T> visitor) throws CorruptDataException
+	{
+		if (regions.isEmpty()) {
+			return null;
+		}
+
+		if ((1 == parallelism) || (1 == regions.size())) {
+			T result = visitor.visitRegion(regions.get(0));
+			for (int i = 1; i < regions.size(); i++) {
+				result = visitor.merge(result, visitor.visitRegion(regions.get(i)));
+			}
+			return result;
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			IEventListener listener = EventManager.getListener();
+			if (null != listener) {
+				listener = new ForwardingListener(listener);
+			}
+			return pool.invoke(new RegionTask<T>(regions, 0, regions.size(), visitor, listener));
+		} catch (CorruptDataWrapper e) {
+			throw e.getCause();
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Carries a CorruptDataException out of a fork/join task.
+	 */
+	private static final class CorruptDataWrapper extends RuntimeException
+	{
+		private static final long serialVersionUID = 1L;
+
+		CorruptDataWrapper(CorruptDataException cause)
+		{
+			super(cause);
+		}
+
+		@Override
+		public synchronized CorruptDataException getCause()
+		{
+			return (CorruptDataException) super.getCause();
+		}
+	}
+
+	/**
+	 * Sends the events raised on worker threads to the listener of the thread
+	 * that started the walk, one at a time.
+	 */
+	private static final class ForwardingListener implements IEventListener
+	{
+		private final IEventListener target;
+
+		ForwardingListener(IEventListener target)
+		{
+			this.target = target;
+		}
+
+		public void corruptData(String message, CorruptDataException e, boolean fatal)
+		{
+			synchronized (target) {
+				target.corruptData(message, e, fatal);
+			}
+		}
+	}
+
+	private static final class RegionTask<T> extends RecursiveTask<T>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final List<GCHeapRegionDescriptor> regions;
+		private final int start;
+		private final int end;
+		private final RegionVisitor<T> visitor;
+		private final IEventListener listener;
+
+		RegionTask(List<GCHeapRegionDescriptor> regions, int start, int end, RegionVisitor<T> visitor, IEventListener listener)
+		{
+			this.regions = regions;
+			this.start = start;
+			this.end = end;
+			this.visitor = visitor;
+			this.listener = listener;
+		}
+
+		@Override
+		protected T compute()
+		{
+			if (1 == (end - start)) {
+				/* listener stacks are per thread, so install the caller's listener on this one */
+				if (null != listener) {
+					EventManager.register(listener);
+				}
+				try {
+					return visitor.visitRegion(regions.get(start));
+				} catch (CorruptDataException e) {
+					throw new CorruptDataWrapper(e);
+				} finally {
+					if (null != listener) {
+						EventManager.unregister(listener);
+					}
+				}
+			}
+
+			int middle = (start + end) >>> 1;
+			RegionTask<T> lower = new RegionTask<T>(regions, start, middle, visitor, listener);
+			RegionTask<T> upper = new RegionTask<T>(regions, middle, end, visitor, listener);
+
+			lower.fork();
+			T upperResult = upper.compute();
+			return visitor.merge(lower.join(), upperResult);
+		}
+	}
+}
@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.j9ddr.vm29.j9.gc;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ibm.j9ddr.CorruptDataException;
+import com.ibm.j9ddr.corereaders.ICore;
+import com.ibm.j9ddr.corereaders.memory.IProcess;
+import com.ibm.j9ddr.logging.LoggerNames;
+import com.ibm.j9ddr.util.ReverseReferenceIndex;
+import com.ibm.j9ddr.util.ReverseReferenceIndex.EdgeRun;
+import com.ibm.j9ddr.vm29.events.EventManager;
+import com.ibm.j9ddr.vm29.j9.DataType;
+import com.ibm.j9ddr.vm29.pointer.generated.J9ObjectPointer;
+
+/**
+ * Builds and caches the {@link ReverseReferenceIndex} for the heap of the current process.
+ *
+ * The index records every reference from a heap object, including the static
+ * fields and class slots reached through java/lang/Class objects, in the same
+ * way as {@link com.ibm.j9ddr.vm29.j9.LiveSetWalker}. It is built with a single
+ * parallel heap walk the first time it is needed and then saved next to other
+ * indexes, named after a digest of the core file, so later sessions on the same
+ * core open it without walking the heap.
+ */
+public final class GCReverseReferenceIndex
+{
+	private static final Logger logger = Logger.getLogger(LoggerNames.LOGGER_WALKERS);
+
+	private static final Map<IProcess, ReverseReferenceIndex> indexes = new WeakHashMap<IProcess, ReverseReferenceIndex>();
+
+	private GCReverseReferenceIndex()
+	{
+	}
+
+	/**
+	 * @return the index for the current process, or null if the index has been
+	 * disabled with {@value ReverseReferenceIndex#INDEX_PROPERTY}
+	 */
+	public static ReverseReferenceIndex getIndex() throws CorruptDataException
+	{
+		if (!ReverseReferenceIndex.isEnabled()) {
+			return null;
+		}
+
+		IProcess process = DataType.getProcess();
+		synchronized (indexes) {
+			ReverseReferenceIndex index = indexes.get(process);
+			if (null == index) {
+				index = loadOrBuild(process);
+				indexes.put(process, index);
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * @return the addresses of the heap objects that reference target
+	 */
+	public static long[] getReferrers(ReverseReferenceIndex index, J9ObjectPointer target) throws CorruptDataException
+	{
+		try {
+			return index.getReferrers(target.getAddress());
+		} catch (IOException e) {
+			throw new CorruptDataException("Unable to read reverse reference index", e);
+		}
+	}
+
+	private static ReverseReferenceIndex loadOrBuild(IProcess process) throws CorruptDataException
+	{
+		File indexFile = null;
+		byte[] digest = null;
+		String corePath = process.getAddressSpace().getCore().getProperties().getProperty(ICore.CORE_FILE_PATH_PROPERTY);
+
+		if (null != corePath) {
+			try {
+				digest = ReverseReferenceIndex.digestCoreFile(new File(corePath));
+				indexFile = ReverseReferenceIndex.getIndexFile(digest);
+				ReverseReferenceIndex index = ReverseReferenceIndex.open(indexFile, digest);
+				if (null != index) {
+					ReverseReferenceIndex.closeWith(process.getAddressSpace().getCore(), index);
+					logger.logp(Level.FINE, "GCReverseReferenceIndex", "loadOrBuild", "Using reference index {0}", indexFile);
+					return index;
+				}
+			} catch (IOException e) {
+				logger.logp(Level.FINE, "GCReverseReferenceIndex", "loadOrBuild", "Unable to open reference index for " + corePath, e);
+			}
+		}
+
+		List<EdgeRun> runs = new ArrayList<EdgeRun>();
+		RegionReferences references = new GCParallelHeapWalker().walk(new ReferenceCollector());
+		if (null != references) {
+			runs = references.runs;
+		}
+
+		if (null != indexFile) {
+			try {
+				ReverseReferenceIndex.write(indexFile, digest, runs);
+				ReverseReferenceIndex index = ReverseReferenceIndex.open(indexFile, digest);
+				if (null != index) {
+					ReverseReferenceIndex.closeWith(process.getAddressSpace().getCore(), index);
+					logger.logp(Level.FINE, "GCReverseReferenceIndex", "loadOrBuild", "Saved reference index {0}", indexFile);
+					return index;
+				}
+			} catch (IOException e) {
+				logger.logp(Level.FINE, "GCReverseReferenceIndex", "loadOrBuild", "Unable to save reference index " + indexFile + ", keeping it in memory", e);
+			}
+		}
+
+		return ReverseReferenceIndex.fromRuns(runs);
+	}
+
+	/**
+	 * Sorted runs of references, one per region, and while a region is being
+	 * walked the scanner used to find the references.
+	 */
+	private static final class RegionReferences
+	{
+		final List<EdgeRun> runs = new ArrayList<EdgeRun>();
+		GCObjectReferenceScanner scanner = new GCObjectReferenceScanner();
+	}
+
+	private static final class ReferenceCollector extends GCParallelHeapWalker.ObjectVisitor<RegionReferences>
+	{
+		ReferenceCollector()
+		{
+			super(true, false);
+		}
+
+		@Override
+		protected RegionReferences createResult(GCHeapRegionDescriptor region)
+		{
+			RegionReferences references = new RegionReferences();
+			references.runs.add(new EdgeRun());
+			return references;
+		}
+
+		@Override
+		public RegionReferences visitRegion(GCHeapRegionDescriptor region) throws CorruptDataException
+		{
+			RegionReferences references = super.visitRegion(region);
+			references.runs.get(0).sort();
+			/* the scanner is not needed once the region is done */
+			references.scanner = null;
+			return references;
+		}
+
+		@Override
+		protected boolean visit(J9ObjectPointer object, GCHeapRegionDescriptor region, RegionReferences references)
+		{
+			final EdgeRun run = references.runs.get(0);
+			try {
+				references.scanner.scan(object, new GCObjectReferenceScanner.ReferenceVisitor() {
+					public void reference(long source, long target)
+					{
+						run.add(source, target);
+					}
+				});
+			} catch (CorruptDataException e) {
+				EventManager.raiseCorruptDataEvent("Corruption found while indexing references, object: " + object.getHexAddress(), e, false);
+			}
+			return true;
+		}
+
+		public RegionReferences merge(RegionReferences lower, RegionReferences upper)
+		{
+			lower.runs.addAll(upper.runs);
+			return lower;
+		}
+	}
+}
@@ -494,9 +494,13 @@ public abstract class AbstractPointer extends DataType {
 		probes++;
 		for(int i = 0; i < cacheSize; i++) {
 			if(keys[i] == pointer) {
-				hits++;
-				counts[i]++;
-				return values[i];
+				J9ClassPointer cp = values[i];
+				/* A racing setClassCache() may have replaced the value after the key matched */
+				if((null != cp) && (cp.getAddress() == pointer)) {
+					hits++;
+					counts[i]++;
+					return cp;
+				}
 			}
 		}
 		return null;
@@ -45,9 +45,8 @@ import static com.ibm.j9ddr.vm29.structure.J9Consts.*;
 public class J9ObjectHelper 
 {
 	private static int cacheSize = 32;
-	private static J9ObjectPointer[] keys;
-	private static J9ClassPointer[] values;
-	private static int[] counts;
+	/* Entries pair each object with its class so that concurrent readers never see a key from one entry with the value of another */
+	private static ClassCacheEntry[] entries;
 	private static long probes;
 	private static long hits;
 	public static final boolean mixedReferenceMode;
@@ -435,12 +434,14 @@ public class J9ObjectHelper
 	
 	private static J9ClassPointer checkClassCache(J9ObjectPointer objPointer)
 	{
+		ClassCacheEntry[] cache = entries;
 		probes++;
 		for(int i = 0; i < cacheSize; i++) {
-			if(keys[i].equals(objPointer)) {
+			ClassCacheEntry entry = cache[i];
+			if((null != entry) && entry.key.equals(objPointer)) {
 				hits++;
-				counts[i]++;
-				return values[i];
+				entry.count++;
+				return entry.value;
 			}
 		}
 		return null;
@@ -448,28 +449,38 @@ public class J9ObjectHelper
 	
 	private static void setClassCache(J9ObjectPointer objPointer, J9ClassPointer classPointer)
 	{
-		int min = counts[0];
+		ClassCacheEntry[] cache = entries;
 		int minIndex = 0;
-		for(int i = 1; i < cacheSize; i++) {
-			if(counts[i] < min) {
-				min = counts[i];
+		int min = (null == cache[0]) ? 0 : cache[0].count;
+		for(int i = 1; (i < cacheSize) && (min > 0); i++) {
+			int count = (null == cache[i]) ? 0 : cache[i].count;
+			if(count < min) {
+				min = count;
 				minIndex = i;
 			}
 		}
-		keys[minIndex] = objPointer;
-		values[minIndex] = classPointer;
-		counts[minIndex] = 1;
+		cache[minIndex] = new ClassCacheEntry(objPointer, classPointer);
 	}
 	
 	private static void initializeCache()
 	{
-		keys = new J9ObjectPointer[cacheSize];
-		values = new J9ClassPointer[cacheSize];
-		counts = new int[cacheSize];
+		entries = new ClassCacheEntry[cacheSize];
 		probes = 0;
 		hits = 0;
-		for(int i = 0; i < cacheSize; i++) {
-			keys[i] = J9ObjectPointer.NULL;
+	}
+	
+	private static final class ClassCacheEntry
+	{
+		final J9ObjectPointer key;
+		final J9ClassPointer value;
+		/* Replacement hint only, so lost updates from racing threads are harmless */
+		int count;
+		
+		ClassCacheEntry(J9ObjectPointer key, J9ClassPointer value)
+		{
+			this.key = key;
+			this.value = value;
+			this.count = 1;
 		}
 	}
 	
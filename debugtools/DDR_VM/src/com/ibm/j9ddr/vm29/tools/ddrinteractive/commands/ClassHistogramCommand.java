@@ -0,0 +1,383 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.j9ddr.vm29.tools.ddrinteractive.commands;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ibm.j9ddr.CorruptDataException;
+import com.ibm.j9ddr.tools.ddrinteractive.Command;
+import com.ibm.j9ddr.tools.ddrinteractive.Context;
+import com.ibm.j9ddr.tools.ddrinteractive.DDRInteractiveCommandException;
+import com.ibm.j9ddr.tools.ddrinteractive.Table;
+import com.ibm.j9ddr.util.LongLongHashMap;
+import com.ibm.j9ddr.vm29.events.EventManager;
+import com.ibm.j9ddr.vm29.j9.DataType;
+import com.ibm.j9ddr.vm29.j9.ObjectModel;
+import com.ibm.j9ddr.vm29.j9.gc.GCHeapRegionDescriptor;
+import com.ibm.j9ddr.vm29.j9.gc.GCParallelHeapWalker;
+import com.ibm.j9ddr.vm29.pointer.generated.J9ClassPointer;
+import com.ibm.j9ddr.vm29.pointer.generated.J9JavaVMPointer;
+import com.ibm.j9ddr.vm29.pointer.generated.J9ObjectPointer;
+import com.ibm.j9ddr.vm29.pointer.helper.J9ClassHelper;
+import com.ibm.j9ddr.vm29.pointer.helper.J9ObjectHelper;
+import com.ibm.j9ddr.vm29.pointer.helper.J9RASHelper;
+
+/**
+ * Heap histogram: the number of instances and shallow bytes of each class,
+ * with the class loader that loaded it.
+ *
+ * Counts are collected in one parallel pass over the heap, keyed by J9Class
+ * address in primitive maps, so no per-object allocation is needed. Classes
+ * are reported per loader instance, so classes with the same name defined by
+ * two loaders of the same type are reported on separate rows.
+ *
+ * A histogram can be saved to a file and compared with the histogram of a
+ * later core, to show which classes are growing. Loader objects can move
+ * between cores, so saved histograms name loaders by class only, and rows
+ * with the same class and loader class are compared together.
+ */
+public class ClassHistogramCommand extends Command
+{
+	private static final String FILE_HEADER = "# j9ddr class histogram: instances, bytes, class, loader";
+
+	public ClassHistogramCommand()
+	{
+		addCommand("classhistogram", "[count | save <file> | diff <file>]",
+				"print the instance count and shallow size of each class on the heap, sorted by size or count;"
+				+ " save writes the histogram to a file and diff compares the heap with a saved histogram");
+	}
+
+	/**
+	 * Instances and bytes of one class name and loader.
+	 */
+	private static final class Row
+	{
+		final String className;
+		/** The class name of the loader, used as a label */
+		final String loader;
+		/** The address of the loader object, or 0 if there is none or it is not known */
+		final long loaderAddress;
+		long instances;
+		long bytes;
+
+		Row(String className, String loader, long loaderAddress)
+		{
+			this.className = className;
+			this.loader = loader;
+			this.loaderAddress = loaderAddress;
+		}
+
+		Row(String className, String loader)
+		{
+			this(className, loader, 0);
+		}
+
+		/**
+		 * The key for comparing with a histogram of another core, where the loader objects may have moved.
+		 */
+		String nameKey()
+		{
+			return className + '\t' + loader;
+		}
+	}
+
+	public void run(String command, String[] args, Context context, PrintStream out) throws DDRInteractiveCommandException
+	{
+		try {
+			if (0 == args.length) {
+				printHistogram(computeHistogram(), SIZE_ORDER, out);
+			} else if ((1 == args.length) && "count".equals(args[0])) {
+				printHistogram(computeHistogram(), COUNT_ORDER, out);
+			} else if ((2 == args.length) && "save".equals(args[0])) {
+				List<Row> rows = computeHistogram();
+				saveHistogram(rows, new File(args[1]));
+				printHistogram(rows, SIZE_ORDER, out);
+				out.println("Histogram saved to " + args[1]);
+			} else if ((2 == args.length) && "diff".equals(args[0])) {
+				Map<String, Row> before = loadHistogram(new File(args[1]));
+				printDifference(before, computeHistogram(), out);
+			} else {
+				throw new DDRInteractiveCommandException("Usage: !classhistogram [count | save <file> | diff <file>]");
+			}
+		} catch (CorruptDataException e) {
+			throw new DDRInteractiveCommandException("Memory fault while walking the heap", e);
+		} catch (IOException e) {
+			throw new DDRInteractiveCommandException(e);
+		}
+	}
+
+	/**
+	 * Instance counts and bytes for the classes in one part of the heap.
+	 */
+	private static final class ClassCounts
+	{
+		final LongLongHashMap instances = new LongLongHashMap();
+		final LongLongHashMap bytes = new LongLongHashMap();
+	}
+
+	private static final class HistogramVisitor extends GCParallelHeapWalker.ObjectVisitor<ClassCounts>
+	{
+		HistogramVisitor()
+		{
+			super(true, false);
+		}
+
+		@Override
+		protected ClassCounts createResult(GCHeapRegionDescriptor region)
+		{
+			return new ClassCounts();
+		}
+
+		@Override
+		protected boolean visit(J9ObjectPointer object, GCHeapRegionDescriptor region, ClassCounts counts)
+		{
+			try {
+				long clazz = J9ObjectHelper.clazz(object).getAddress();
+				long size = ObjectModel.getConsumedSizeInBytesWithHeader(object).longValue();
+				counts.instances.addTo(clazz, 1);
+				counts.bytes.addTo(clazz, size);
+			} catch (CorruptDataException e) {
+				EventManager.raiseCorruptDataEvent("Corruption found while counting object, object: " + object.getHexAddress(), e, false);
+			}
+			return true;
+		}
+
+		public ClassCounts merge(ClassCounts lower, ClassCounts upper)
+		{
+			lower.instances.addAll(upper.instances);
+			lower.bytes.addAll(upper.bytes);
+			return lower;
+		}
+	}
+
+	private static List<Row> computeHistogram() throws CorruptDataException
+	{
+		ClassCounts counts = new GCParallelHeapWalker().walk(new HistogramVisitor());
+		if (null == counts) {
+			counts = new ClassCounts();
+		}
+
+		J9JavaVMPointer vm = J9RASHelper.getVM(DataType.getJ9RASPointer());
+		J9ObjectPointer systemLoaderObject = vm.systemClassLoader().classLoaderObject();
+		/* rows are keyed by class name and loader object address, so loaders of the same type are kept apart */
+		Map<String, Row> rows = new LinkedHashMap<String, Row>();
+
+		for (long classAddress : counts.instances.keys()) {
+			J9ClassPointer clazz = J9ClassPointer.cast(classAddress);
+			String className;
+			String loader;
+			long loaderAddress;
+			try {
+				className = J9ClassHelper.getJavaName(clazz);
+				J9ObjectPointer classLoaderObject = clazz.classLoader().classLoaderObject();
+				loader = loaderName(classLoaderObject, systemLoaderObject);
+				loaderAddress = classLoaderObject.getAddress();
+			} catch (CorruptDataException e) {
+				className = "<corrupt class " + clazz.getHexAddress() + ">";
+				loader = "<unknown>";
+				loaderAddress = 0;
+			}
+
+			String key = className + '\t' + Long.toHexString(loaderAddress);
+			Row row = rows.get(key);
+			if (null == row) {
+				row = new Row(className, loader, loaderAddress);
+				rows.put(key, row);
+			}
+			row.instances += counts.instances.get(classAddress);
+			row.bytes += counts.bytes.get(classAddress);
+		}
+
+		return new ArrayList<Row>(rows.values());
+	}
+
+	private static String loaderName(J9ObjectPointer classLoaderObject, J9ObjectPointer systemLoaderObject) throws CorruptDataException
+	{
+		if (classLoaderObject.equals(systemLoaderObject)) {
+			return "*System*";
+		} else if (classLoaderObject.isNull()) {
+			return "<no loader object>";
+		}
+		return J9ObjectHelper.getClassName(classLoaderObject);
+	}
+
+	private static final Comparator<Row> SIZE_ORDER = new Comparator<Row>() {
+		public int compare(Row left, Row right)
+		{
+			return Long.compare(right.bytes, left.bytes);
+		}
+	};
+
+	private static final Comparator<Row> COUNT_ORDER = new Comparator<Row>() {
+		public int compare(Row left, Row right)
+		{
+			return Long.compare(right.instances, left.instances);
+		}
+	};
+
+	private static void printHistogram(List<Row> rows, Comparator<Row> order, PrintStream out)
+	{
+		Collections.sort(rows, order);
+
+		long totalInstances = 0;
+		long totalBytes = 0;
+		Table table = new Table("Class Histogram");
+		table.row("num", "instances", "bytes", "class", "loader", "loader object");
+		for (int i = 0; i < rows.size(); i++) {
+			Row row = rows.get(i);
+			table.row(Integer.toString(i + 1), Long.toString(row.instances), Long.toString(row.bytes), row.className, row.loader, loaderObject(row));
+			totalInstances += row.instances;
+			totalBytes += row.bytes;
+		}
+		table.render(out);
+		out.println("Total: " + totalInstances + " instances, " + totalBytes + " bytes in " + rows.size() + " classes");
+	}
+
+	private static String loaderObject(Row row)
+	{
+		return (0 == row.loaderAddress) ? "" : "!j9object " + J9ObjectPointer.cast(row.loaderAddress).getHexAddress();
+	}
+
+	/**
+	 * Sum the rows with the same class and loader class, to compare with a histogram of another core.
+	 */
+	private static Map<String, Row> byLoaderName(List<Row> rows)
+	{
+		Map<String, Row> combined = new LinkedHashMap<String, Row>();
+		for (Row row : rows) {
+			Row sum = combined.get(row.nameKey());
+			if (null == sum) {
+				sum = new Row(row.className, row.loader);
+				combined.put(row.nameKey(), sum);
+			}
+			sum.instances += row.instances;
+			sum.bytes += row.bytes;
+		}
+		return combined;
+	}
+
+	private static void saveHistogram(List<Row> rows, File file) throws IOException
+	{
+		PrintWriter writer = new PrintWriter(new FileWriter(file));
+		try {
+			writer.println(FILE_HEADER);
+			for (Row row : rows) {
+				writer.println(row.instances + "\t" + row.bytes + "\t" + row.className + "\t" + row.loader);
+			}
+		} finally {
+			writer.close();
+		}
+		if (writer.checkError()) {
+			throw new IOException("Error writing " + file);
+		}
+	}
+
+	private static Map<String, Row> loadHistogram(File file) throws IOException
+	{
+		List<Row> rows = new ArrayList<Row>();
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+		try {
+			String line;
+			int lineNumber = 0;
+			while (null != (line = reader.readLine())) {
+				lineNumber += 1;
+				if (line.isEmpty() || line.startsWith("#")) {
+					continue;
+				}
+				String[] fields = line.split("\t", 4);
+				if (4 != fields.length) {
+					throw new IOException(file + ":" + lineNumber + ": expected instances, bytes, class and loader");
+				}
+				Row row = new Row(fields[2], fields[3]);
+				try {
+					row.instances = Long.parseLong(fields[0]);
+					row.bytes = Long.parseLong(fields[1]);
+				} catch (NumberFormatException e) {
+					throw new IOException(file + ":" + lineNumber + ": " + e.getMessage());
+				}
+				rows.add(row);
+			}
+		} finally {
+			reader.close();
+		}
+		return byLoaderName(rows);
+	}
+
+	/**
+	 * Print the classes whose instance count or size changed, largest change in bytes first.
+	 */
+	private static void printDifference(Map<String, Row> before, List<Row> after, PrintStream out)
+	{
+		List<Row[]> changes = new ArrayList<Row[]>();
+		Map<String, Row> remaining = new LinkedHashMap<String, Row>(before);
+		for (Row now : byLoaderName(after).values()) {
+			Row then = remaining.remove(now.nameKey());
+			if (null == then) {
+				then = new Row(now.className, now.loader);
+			}
+			if ((now.instances != then.instances) || (now.bytes != then.bytes)) {
+				changes.add(new Row[] { then, now });
+			}
+		}
+		for (Row then : remaining.values()) {
+			changes.add(new Row[] { then, new Row(then.className, then.loader) });
+		}
+
+		Collections.sort(changes, new Comparator<Row[]>() {
+			public int compare(Row[] left, Row[] right)
+			{
+				return Long.compare(Math.abs(right[1].bytes - right[0].bytes), Math.abs(left[1].bytes - left[0].bytes));
+			}
+		});
+
+		long instancesChange = 0;
+		long bytesChange = 0;
+		Table table = new Table("Class Histogram Changes");
+		table.row("instances change", "bytes change", "instances", "bytes", "class", "loader");
+		for (Row[] change : changes) {
+			Row then = change[0];
+			Row now = change[1];
+			table.row(String.format("%+d", now.instances - then.instances)
+					, String.format("%+d", now.bytes - then.bytes)
+					, Long.toString(now.instances)
+					, Long.toString(now.bytes)
+					, now.className
+					, now.loader);
+			instancesChange += now.instances - then.instances;
+			bytesChange += now.bytes - then.bytes;
+		}
+		table.render(out);
+		out.println(String.format("Total change: %+d instances, %+d bytes in %d classes", instancesChange, bytesChange, changes.size()));
+	}
+}
@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.j9ddr.vm29.tools.ddrinteractive.commands;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.ibm.j9ddr.CorruptDataException;
+import com.ibm.j9ddr.DataUnavailableException;
+import com.ibm.j9ddr.corereaders.memory.IProcess;
+import com.ibm.j9ddr.tools.ddrinteractive.Command;
+import com.ibm.j9ddr.tools.ddrinteractive.CommandUtils;
+import com.ibm.j9ddr.tools.ddrinteractive.Context;
+import com.ibm.j9ddr.tools.ddrinteractive.DDRInteractiveCommandException;
+import com.ibm.j9ddr.tools.ddrinteractive.Table;
+import com.ibm.j9ddr.util.DominatorTree;
+import com.ibm.j9ddr.vm29.j9.DataType;
+import com.ibm.j9ddr.vm29.j9.RootSet.RootSetType;
+import com.ibm.j9ddr.vm29.j9.gc.GCHeapGraph;
+import com.ibm.j9ddr.vm29.pointer.generated.J9BuildFlags;
+import com.ibm.j9ddr.vm29.pointer.generated.J9ClassPointer;
+import com.ibm.j9ddr.vm29.pointer.generated.J9ObjectPointer;
+import com.ibm.j9ddr.vm29.pointer.helper.J9ClassHelper;
+
+/**
+ * Reports how much memory objects keep alive, using the dominator tree of the
+ * objects reachable from the strong roots. An object retains the objects it
+ * dominates: those that would become unreachable if it were removed.
+ *
+ * The object graph and dominator tree are computed the first time one of the
+ * commands is run and kept for the rest of the session.
+ */
+public class DominatorsCommand extends Command
+{
+	private static final int DEFAULT_COUNT = 20;
+
+	private static final Map<IProcess, Dominators> dominatorsByProcess = new WeakHashMap<IProcess, Dominators>();
+
+	public DominatorsCommand()
+	{
+		addCommand("dominators", "[count]", "list the classes whose instances retain the most memory (default top " + DEFAULT_COUNT + ")");
+		addCommand("retainedsize", "<address>", "print the memory retained by an object and its immediate dominator");
+	}
+
+	private static final class Dominators
+	{
+		final GCHeapGraph graph;
+		final DominatorTree tree;
+
+		Dominators(GCHeapGraph graph, DominatorTree tree)
+		{
+			this.graph = graph;
+			this.tree = tree;
+		}
+	}
+
+	public void run(String command, String[] args, Context context, PrintStream out) throws DDRInteractiveCommandException
+	{
+		try {
+			if (command.equals("!dominators")) {
+				int count = DEFAULT_COUNT;
+				if (args.length > 1) {
+					throw new DDRInteractiveCommandException("Usage: !dominators [count]");
+				} else if (args.length == 1) {
+					try {
+						count = Integer.parseInt(args[0]);
+					} catch (NumberFormatException e) {
+						throw new DDRInteractiveCommandException("Invalid count: " + args[0]);
+					}
+				}
+				printTopRetainers(getDominators(out), count, out);
+			} else if (command.equals("!retainedsize")) {
+				if (args.length != 1) {
+					throw new DDRInteractiveCommandException("This debug extension needs a single address argument: !retainedsize <object addr>");
+				}
+				long address = CommandUtils.parsePointer(args[0], J9BuildFlags.env_data64);
+				printRetainedSize(getDominators(out), address, out);
+			}
+		} catch (CorruptDataException e) {
+			throw new DDRInteractiveCommandException("Memory fault while computing dominators", e);
+		} catch (DataUnavailableException e) {
+			out.println("Cannot compute dominators: " + e.getMessage());
+		}
+	}
+
+	private static Dominators getDominators(PrintStream out) throws CorruptDataException, DataUnavailableException
+	{
+		IProcess process = DataType.getProcess();
+		synchronized (dominatorsByProcess) {
+			Dominators dominators = dominatorsByProcess.get(process);
+			if (null == dominators) {
+				out.println("Computing the dominator tree of the live set, this may take some time...");
+				GCHeapGraph graph = GCHeapGraph.fromHeap();
+				dominators = new Dominators(graph, graph.computeDominators(RootSetType.STRONG_REACHABLE));
+				dominatorsByProcess.put(process, dominators);
+			}
+			return dominators;
+		}
+	}
+
+	/**
+	 * Group the live objects by class. The retained size of a class is the sum of
+	 * the retained sizes of its instances that are not immediately dominated by
+	 * another instance of the same class, so chains such as linked lists are
+	 * counted once.
+	 */
+	private static void printTopRetainers(Dominators dominators, int count, PrintStream out) throws CorruptDataException
+	{
+		GCHeapGraph graph = dominators.graph;
+		DominatorTree tree = dominators.tree;
+		int classCount = graph.getClassCount();
+		final long[] retained = new long[classCount];
+		long[] shallow = new long[classCount];
+		long[] instances = new long[classCount];
+
+		for (int object = 0; object < graph.getObjectCount(); object++) {
+			if (!tree.isReachable(object)) {
+				continue;
+			}
+			int classId = graph.getClassId(object);
+			int dominator = tree.getImmediateDominator(object);
+			instances[classId] += 1;
+			shallow[classId] += graph.getSize(object);
+			if ((DominatorTree.ROOT == dominator) || (graph.getClassId(dominator) != classId)) {
+				retained[classId] += tree.getRetainedSize(object);
+			}
+		}
+
+		Integer[] order = new Integer[classCount];
+		for (int i = 0; i < classCount; i++) {
+			order[i] = Integer.valueOf(i);
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			public int compare(Integer left, Integer right)
+			{
+				return Long.compare(retained[right.intValue()], retained[left.intValue()]);
+			}
+		});
+
+		out.println("Live objects: " + tree.getReachableCount() + ", live size: " + tree.getTotalRetainedSize() + " bytes");
+
+		Table table = new Table("Top " + Math.min(count, classCount) + " retainers by class");
+		table.row("retained (bytes)", "% of live", "instances", "shallow (bytes)", "class");
+		for (int i = 0; (i < count) && (i < classCount); i++) {
+			int classId = order[i].intValue();
+			if (0 == instances[classId]) {
+				break;
+			}
+			J9ClassPointer clazz = J9ClassPointer.cast(graph.getClassAddress(classId));
+			table.row(Long.toString(retained[classId])
+					, percent(retained[classId], tree.getTotalRetainedSize())
+					, Long.toString(instances[classId])
+					, Long.toString(shallow[classId])
+					, J9ClassHelper.getJavaName(clazz) + " (!j9class " + clazz.getHexAddress() + ")");
+		}
+		table.render(out);
+	}
+
+	private static void printRetainedSize(Dominators dominators, long address, PrintStream out) throws CorruptDataException
+	{
+		GCHeapGraph graph = dominators.graph;
+		DominatorTree tree = dominators.tree;
+		int object = graph.indexOf(address);
+
+		if (object < 0) {
+			out.println("0x" + Long.toHexString(address) + " is not the address of a heap object");
+			return;
+		}
+
+		J9ObjectPointer objectPointer = J9ObjectPointer.cast(address);
+		out.println("!j9object " + objectPointer.getHexAddress() + " //" + className(graph, object));
+		if (!tree.isReachable(object)) {
+			out.println("Object is not reachable from the strong roots");
+			return;
+		}
+
+		out.println("Shallow size:  " + graph.getSize(object) + " bytes");
+		out.println("Retained size: " + tree.getRetainedSize(object) + " bytes (" + percent(tree.getRetainedSize(object), tree.getTotalRetainedSize()) + " of live)");
+
+		int dominator = tree.getImmediateDominator(object);
+		if (DominatorTree.ROOT == dominator) {
+			out.println("Immediate dominator: none, the object is a root or is reachable from more than one root");
+		} else {
+			out.println("Immediate dominator: !j9object " + J9ObjectPointer.cast(graph.getAddress(dominator)).getHexAddress() + " //" + className(graph, dominator));
+		}
+	}
+
+	private static String className(GCHeapGraph graph, int object) throws CorruptDataException
+	{
+		return J9ClassHelper.getJavaName(J9ClassPointer.cast(graph.getClassAddress(graph.getClassId(object))));
+	}
+
+	private static String percent(long part, long total)
+	{
+		if (0 == total) {
+			return "0.0%";
+		}
+		return String.format("%.1f%%", (part * 100.0) / total);
+	}
+}
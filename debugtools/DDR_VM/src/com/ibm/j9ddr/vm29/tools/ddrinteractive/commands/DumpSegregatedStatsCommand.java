@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2015 IBM Corp. and others
+ * Copyright (c) 2001, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -22,6 +22,8 @@
 package com.ibm.j9ddr.vm29.tools.ddrinteractive.commands;
 
 import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
 
 import com.ibm.j9ddr.CorruptDataException;
 import com.ibm.j9ddr.tools.ddrinteractive.Command;
@@ -30,6 +32,8 @@ import com.ibm.j9ddr.tools.ddrinteractive.DDRInteractiveCommandException;
 import com.ibm.j9ddr.vm29.j9.DataType;
 import com.ibm.j9ddr.vm29.j9.gc.GCExtensions;
 import com.ibm.j9ddr.vm29.j9.gc.GCHeapLinkedFreeHeader;
+import com.ibm.j9ddr.vm29.j9.gc.GCHeapRegionDescriptor;
+import com.ibm.j9ddr.vm29.j9.gc.GCParallelHeapWalker;
 import com.ibm.j9ddr.vm29.pointer.StructurePointer;
 import com.ibm.j9ddr.vm29.pointer.generated.J9JavaVMPointer;
 import com.ibm.j9ddr.vm29.pointer.generated.J9VMGCSegregatedAllocationCacheEntryPointer;
@@ -45,11 +49,18 @@ import com.ibm.j9ddr.vm29.pointer.generated.MM_RealtimeGCPointer;
 import com.ibm.j9ddr.vm29.pointer.generated.MM_RegionPoolSegregatedPointer;
 import com.ibm.j9ddr.vm29.pointer.helper.J9RASHelper;
 import com.ibm.j9ddr.vm29.structure.J9Consts;
+import com.ibm.j9ddr.vm29.structure.MM_HeapRegionDescriptor$RegionType;
 import com.ibm.j9ddr.vm29.structure.MM_RegionPoolSegregated;
 import com.ibm.j9ddr.vm29.types.UDATA;
 
 public class DumpSegregatedStatsCommand extends Command
 {
+	/**
+	 * Free cell counts of the small regions, keyed by region address. Filled in by a
+	 * parallel heap walk before the region lists are examined; null while not running.
+	 */
+	private Map<Long, Long> freeCellCounts;
+	
 	public DumpSegregatedStatsCommand()
 	{
 		addCommand("dumpsegregatedstats", "", "Print segregated heap statistics, similiar to -XXgc:gcbugheap");
@@ -134,6 +145,13 @@ public class DumpSegregatedStatsCommand extends Command
 	public long
 	getFreeCellCount (MM_HeapRegionDescriptorSegregatedPointer heapRegionDescriptor) throws CorruptDataException
 	{
+		if (null != freeCellCounts) {
+			Long count = freeCellCounts.get(heapRegionDescriptor.getAddress());
+			if (null != count) {
+				return count.longValue();
+			}
+		}
+		
 		/* TODO assumes a small region */
 		MM_MemoryPoolAggregatedCellListPointer memoryPoolACL = heapRegionDescriptor._memoryPoolACL();
 		GCHeapLinkedFreeHeader heapLinkedFreeHeader = GCHeapLinkedFreeHeader.fromLinkedFreeHeaderPointer(memoryPoolACL._freeListHead());
@@ -154,6 +172,33 @@ public class DumpSegregatedStatsCommand extends Command
 		return freeCellCount;
 	}
 
+	/**
+	 * Count the free cells of every small region on a parallel heap walk, so that
+	 * the size class loop below does not walk each free list on a single thread.
+	 */
+	private Map<Long, Long> countFreeCellsInSmallRegions() throws CorruptDataException
+	{
+		Map<Long, Long> counts = new GCParallelHeapWalker().walk(new GCParallelHeapWalker.RegionVisitor<Map<Long, Long>>() {
+			public Map<Long, Long> visitRegion(GCHeapRegionDescriptor region) throws CorruptDataException
+			{
+				Map<Long, Long> result = new HashMap<Long, Long>();
+				if (MM_HeapRegionDescriptor$RegionType.SEGREGATED_SMALL == region.getRegionType()) {
+					MM_HeapRegionDescriptorSegregatedPointer segregatedRegion = MM_HeapRegionDescriptorSegregatedPointer.cast(region.getHeapRegionDescriptorPointer());
+					result.put(segregatedRegion.getAddress(), getFreeCellCount(segregatedRegion));
+				}
+				return result;
+			}
+
+			public Map<Long, Long> merge(Map<Long, Long> lower, Map<Long, Long> upper)
+			{
+				lower.putAll(upper);
+				return lower;
+			}
+		});
+		
+		return (null != counts) ? counts : new HashMap<Long, Long>();
+	}
+
 	public void run(String command, String[] args, Context context, PrintStream out) throws DDRInteractiveCommandException 
 	{
 		if (!GCExtensions.isSegregatedHeap()) {
@@ -171,6 +216,8 @@ public class DumpSegregatedStatsCommand extends Command
 			J9JavaVMPointer vm = J9RASHelper.getVM(DataType.getJ9RASPointer());
 			J9VMGCSizeClassesPointer sizeClasses = vm.realtimeSizeClasses();
 
+			freeCellCounts = countFreeCellsInSmallRegions();
+
 			long countTotal = 0;
 			long countAvailableSmallTotal = 0;
 			long countFullSmallTotal = 0;
@@ -287,6 +334,8 @@ public class DumpSegregatedStatsCommand extends Command
 
 		} catch (CorruptDataException e) {
 			e.printStackTrace();
+		} finally {
+			freeCellCounts = null;
 		}
 	}
 }
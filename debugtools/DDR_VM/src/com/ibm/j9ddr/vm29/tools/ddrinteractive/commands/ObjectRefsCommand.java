@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2014 IBM Corp. and others
+ * Copyright (c) 2001, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -22,21 +22,25 @@
 package com.ibm.j9ddr.vm29.tools.ddrinteractive.commands;
 
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.ibm.j9ddr.CorruptDataException;
 import com.ibm.j9ddr.tools.ddrinteractive.Command;
 import com.ibm.j9ddr.tools.ddrinteractive.Context;
 import com.ibm.j9ddr.tools.ddrinteractive.DDRInteractiveCommandException;
 import com.ibm.j9ddr.tools.ddrinteractive.Table;
+import com.ibm.j9ddr.util.ReverseReferenceIndex;
 import com.ibm.j9ddr.vm29.j9.DataType;
 import com.ibm.j9ddr.vm29.j9.LiveSetWalker;
 import com.ibm.j9ddr.vm29.j9.LiveSetWalker.ObjectVisitor;
+import com.ibm.j9ddr.vm29.j9.RootSet.RootSetType;
 import com.ibm.j9ddr.vm29.j9.gc.GCExtensions;
 import com.ibm.j9ddr.vm29.j9.gc.GCHeapRegionDescriptor;
-import com.ibm.j9ddr.vm29.j9.gc.GCHeapRegionIterator;
 import com.ibm.j9ddr.vm29.j9.gc.GCHeapRegionManager;
-import com.ibm.j9ddr.vm29.j9.gc.GCObjectHeapIterator;
 import com.ibm.j9ddr.vm29.j9.gc.GCObjectIterator;
+import com.ibm.j9ddr.vm29.j9.gc.GCParallelHeapWalker;
+import com.ibm.j9ddr.vm29.j9.gc.GCReverseReferenceIndex;
 import com.ibm.j9ddr.vm29.pointer.VoidPointer;
 import com.ibm.j9ddr.vm29.pointer.generated.J9ClassPointer;
 import com.ibm.j9ddr.vm29.pointer.generated.J9JavaVMPointer;
@@ -121,35 +125,22 @@ public class ObjectRefsCommand extends Command {
 			table.row("object (!j9object)", "field (!j9object)"
 					, "!mm_heapregiondescriptorvlhgc" ,"AC (type)");
 
-			/* iterate over all heap regions */
-			GCHeapRegionIterator regionIterator = GCHeapRegionIterator.from();
-			while (regionIterator.hasNext()) {
-				GCHeapRegionDescriptor region = regionIterator.next();
-				if (region.containsObjects()) {
-					MM_HeapRegionDescriptorVLHGCPointer vlhgcRegion = MM_HeapRegionDescriptorVLHGCPointer.cast(region.getHeapRegionDescriptorPointer());
-					MM_AllocationContextTarokPointer currentAllocationContextTarok = vlhgcRegion._allocateData()._owningContext();
-
-					/* iterate over all objects in region */
-					GCObjectHeapIterator heapObjectIterator = region.objectIterator(true, false);
-					while (heapObjectIterator.hasNext()) {
-						J9ObjectPointer currentObject = heapObjectIterator.next();
-
-						/* Iterate over the object's fields and list any that point at @ref targetObject */
-						GCObjectIterator fieldIterator = GCObjectIterator.fromJ9Object(currentObject, false);
-						while (fieldIterator.hasNext()) {
-							J9ObjectPointer currentTargetObject = fieldIterator.next();
-							if (currentTargetObject.eq(targetObject)) {
-								/* found a reference to our targetObject, add it to the table */
-								J9ClassPointer objectClass = J9ObjectHelper.clazz(currentObject);
-								String objectClassString = J9ClassHelper.getJavaName(objectClass);
-
-								table.row(currentObject.getHexAddress() + " //" + objectClassString
-										, currentTargetObject.getHexAddress()
-										, vlhgcRegion.getHexAddress()
-										, currentAllocationContextTarok.getHexAddress() + " (" + currentAllocationContextTarok._allocationContextType() + ")");	
-							}
-						}
-					}					
+			ReverseReferenceIndex index = GCReverseReferenceIndex.getIndex();
+			if (null != index) {
+				/* look the referring objects up in the reverse reference index */
+				MM_HeapRegionManagerPointer hrmPointer = MM_GCExtensionsPointer.cast(vm.gcExtensions()).heapRegionManager();
+				GCHeapRegionManager heapRegionManager = GCHeapRegionManager.fromHeapRegionManager(hrmPointer);
+				for (long referrer : GCReverseReferenceIndex.getReferrers(index, targetObject)) {
+					J9ObjectPointer currentObject = J9ObjectPointer.cast(referrer);
+					table.row(referenceRow(currentObject, targetObject, heapRegionManager.regionDescriptorForAddress(currentObject)));
+				}
+			} else {
+				/* iterate over all heap regions in parallel, collecting rows in region order */
+				List<String[]> rows = new GCParallelHeapWalker().walk(new HeapReferenceVisitor(targetObject));
+				if (null != rows) {
+					for (String[] row : rows) {
+						table.row(row);
+					}
 				}
 			}
 
@@ -157,6 +148,57 @@ public class ObjectRefsCommand extends Command {
 		}
 	}
 	
+	/**
+	 * @return the on heap references table row for a reference from currentObject to targetObject
+	 */
+	private static String[] referenceRow(J9ObjectPointer currentObject, J9ObjectPointer targetObject, GCHeapRegionDescriptor region) throws CorruptDataException
+	{
+		MM_HeapRegionDescriptorVLHGCPointer vlhgcRegion = MM_HeapRegionDescriptorVLHGCPointer.cast(region.getHeapRegionDescriptorPointer());
+		MM_AllocationContextTarokPointer currentAllocationContextTarok = vlhgcRegion._allocateData()._owningContext();
+		J9ClassPointer objectClass = J9ObjectHelper.clazz(currentObject);
+		String objectClassString = J9ClassHelper.getJavaName(objectClass);
+
+		return new String[] { currentObject.getHexAddress() + " //" + objectClassString
+				, targetObject.getHexAddress()
+				, vlhgcRegion.getHexAddress()
+				, currentAllocationContextTarok.getHexAddress() + " (" + currentAllocationContextTarok._allocationContextType() + ")" };
+	}
+	
+	/**
+	 * Finds the objects in a region that have a field pointing at the target object.
+	 * Each region produces the table rows for the references it holds.
+	 */
+	private static class HeapReferenceVisitor extends GCParallelHeapWalker.ObjectVisitor<List<String[]>> {
+		private final J9ObjectPointer targetObject;
+		
+		HeapReferenceVisitor(J9ObjectPointer targetObject) {
+			super(true, false);
+			this.targetObject = targetObject;
+		}
+		
+		protected List<String[]> createResult(GCHeapRegionDescriptor region) {
+			return new ArrayList<String[]>();
+		}
+		
+		protected boolean visit(J9ObjectPointer currentObject, GCHeapRegionDescriptor region, List<String[]> rows) throws CorruptDataException {
+			/* Iterate over the object's fields and list any that point at @ref targetObject */
+			GCObjectIterator fieldIterator = GCObjectIterator.fromJ9Object(currentObject, false);
+			while (fieldIterator.hasNext()) {
+				J9ObjectPointer currentTargetObject = fieldIterator.next();
+				if (currentTargetObject.eq(targetObject)) {
+					/* found a reference to our targetObject, add it to the table */
+					rows.add(referenceRow(currentObject, currentTargetObject, region));
+				}
+			}
+			return true;
+		}
+		
+		public List<String[]> merge(List<String[]> lower, List<String[]> upper) {
+			lower.addAll(upper);
+			return lower;
+		}
+	}
+	
 	class LiveReferenceVisitor implements ObjectVisitor {
 		GCHeapRegionManager heapRegionManager;
 		J9ObjectPointer mainObject;
@@ -200,7 +242,20 @@ public class ObjectRefsCommand extends Command {
 		Table table = new Table("All Live Objects That Refer To !j9object " + targetObject.getHexAddress());
 		table.row("Object");
 		
-		LiveSetWalker.walkLiveSet(new LiveReferenceVisitor(heapRegionManager, targetObject, table));
+		ReverseReferenceIndex index = GCReverseReferenceIndex.getIndex();
+		if (null != index) {
+			/* a referring object is live if there is a path to it from the roots */
+			long[] referrers = GCReverseReferenceIndex.getReferrers(index, targetObject);
+			boolean[] live = LiveSetWalker.findReachableFromRoots(referrers, RootSetType.STRONG_REACHABLE);
+			for (int i = 0; i < referrers.length; i++) {
+				if (live[i]) {
+					J9ObjectPointer object = J9ObjectPointer.cast(referrers[i]);
+					table.row("!j9object " + object.getHexAddress() + " //" + J9ClassHelper.getJavaName(J9ObjectHelper.clazz(object)));
+				}
+			}
+		} else {
+			LiveSetWalker.walkLiveSet(new LiveReferenceVisitor(heapRegionManager, targetObject, table));
+		}
 		
 		table.render(out);
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2014 IBM Corp. and others
+ * Copyright (c) 2001, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -23,6 +23,7 @@ package com.ibm.j9ddr.vm29.tools.ddrinteractive.commands;
 
 import java.io.PrintStream;
 import java.io.StringWriter;
+import java.util.List;
 import java.util.Stack;
 
 import com.ibm.j9ddr.CorruptDataException;
@@ -101,6 +102,46 @@ public class RootPathCommand extends Command
 		return buf.toString();
 	}
 	
+	/**
+	 * Prints a path from a root, one object per line, indenting each object under the one that references it.
+	 */
+	private static void dumpPath(List<J9ObjectPointer> path, PrintStream out)
+	{
+		out.println("\n========================================");
+		for (int i = 0; i < path.size(); i++) {
+			for (int j = i; j > 0; j--) {
+				out.print("  ");
+			}
+			try {
+				out.println(objectToString(path.get(i)));
+			} catch (CorruptDataException cde) {
+				out.println("Invalid Object");
+			}
+		}
+	}
+	
+	/**
+	 * Prints one path from a root to objectToFind. The path is found with the reverse
+	 * reference index, which is built on first use and then reused, unless the index
+	 * is disabled, in which case the live set is walked.
+	 */
+	private void findRootPath(J9ObjectPointer objectToFind, RootSetType rootSetType, PrintStream out) throws CorruptDataException
+	{
+		List<J9ObjectPointer> path = LiveSetWalker.findPathFromRoots(objectToFind, rootSetType);
+		
+		if (null == path) {
+			RootPathFinder pathFinder = new RootPathFinder(objectToFind, out);
+			LiveSetWalker.walkLiveSet(pathFinder, rootSetType);
+			if (!pathFinder._pathFound) {
+				out.println("No paths from roots found");
+			}
+		} else if (path.isEmpty()) {
+			out.println("No paths from roots found");
+		} else {
+			dumpPath(path, out);
+		}
+	}
+	
 	private class RootPathFinder implements ObjectVisitor 
 	{
 		boolean _pathFound = false;
@@ -134,17 +175,7 @@ public class RootPathCommand extends Command
 		
 		private void dumpTree()
 		{
-			_out.println("\n========================================");
-			for (int i = 0; i < _scanStack.size(); i++) {
-				for (int j = i; j > 0; j--) {
-					_out.print("  ");
-				}
-				try {
-					_out.println(objectToString(_scanStack.get(i)));
-				} catch (CorruptDataException cde) {
-					_out.println("Invalid Object");
-				}
-			}
+			dumpPath(_scanStack, _out);
 		}
 		
 		public void finishVisit(J9ObjectPointer object, VoidPointer address)
@@ -205,17 +236,7 @@ public class RootPathCommand extends Command
 		}
 		
 		private void dumpTree() {
-			_out.println("\n========================================");
-			for (int i = 0; i < _scanStack.size(); i++) {
-				for (int j = i; j > 0; j--) {
-					_out.print("  ");
-				}
-				try {
-					_out.println(objectToString(_scanStack.get(i)));
-				} catch (CorruptDataException cde) {
-					_out.println("Invalid Object");
-				}
-			}
+			dumpPath(_scanStack, _out);
 		}
 		
 		public void finishVisit(J9ObjectPointer object, VoidPointer address) {
@@ -281,27 +302,22 @@ public class RootPathCommand extends Command
 				} else if (command.equals("!weakrootpathfindall")) {
 					LiveSetWalker.walkLiveSet(new RootPathsFinder(objectToFind, out), RootSetType.WEAK_REACHABLE);
 				} else if (command.equals("!rootpathfind") || command.equals("!strongrootpathfind")) {
-					RootPathFinder pathFinder = new RootPathFinder(objectToFind, out);
-					LiveSetWalker.walkLiveSet(pathFinder, RootSetType.STRONG_REACHABLE);
-					if (!pathFinder._pathFound) {
-						out.println("No paths from roots found");
-					}
+					findRootPath(objectToFind, RootSetType.STRONG_REACHABLE, out);
 				} else if (command.equals("!anyrootpathfind")) {
-					RootPathFinder pathFinder = new RootPathFinder(objectToFind, out);
-					LiveSetWalker.walkLiveSet(pathFinder, RootSetType.ALL);
-					if (!pathFinder._pathFound) {
-						out.println("No paths from roots found");
-					}
-				} else if (command.equals("!weakrootpathfindall")) {
-					RootPathFinder pathFinder = new RootPathFinder(objectToFind, out);
-					LiveSetWalker.walkLiveSet(pathFinder, RootSetType.WEAK_REACHABLE);
-					if (!pathFinder._pathFound) {
-						out.println("No paths from roots found");
-					}
+					findRootPath(objectToFind, RootSetType.ALL, out);
+				} else if (command.equals("!weakrootpathfind")) {
+					findRootPath(objectToFind, RootSetType.WEAK_REACHABLE, out);
 				} else if (command.equals("!isobjectalive")) {
-					ObjectFinderVisitor objectFinder = new ObjectFinderVisitor(objectToFind);
-					LiveSetWalker.walkLiveSet(objectFinder);
-					if (objectFinder._objectFound) {
+					boolean objectFound;
+					List<J9ObjectPointer> path = LiveSetWalker.findPathFromRoots(objectToFind, RootSetType.STRONG_REACHABLE);
+					if (null == path) {
+						ObjectFinderVisitor objectFinder = new ObjectFinderVisitor(objectToFind);
+						LiveSetWalker.walkLiveSet(objectFinder);
+						objectFound = objectFinder._objectFound;
+					} else {
+						objectFound = !path.isEmpty();
+					}
+					if (objectFound) {
 						out.println("Object is live");
 					} else {
 						out.println("Object is not live");
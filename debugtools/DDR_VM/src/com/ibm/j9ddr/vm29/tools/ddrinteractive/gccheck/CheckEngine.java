@@ -104,11 +104,16 @@ class CheckEngine
 	private boolean _needVerifyOwnableSynchronizerConsistency = false;
 
 	private GCHeapRegionManager _hrm;
+
+	/* Worker engines check part of the heap for a parallel heap check; their error numbers are provisional */
+	private final boolean _isWorker;
+	private int _workerErrorCount = 0;
 		
 	public CheckEngine(J9JavaVMPointer vm, CheckReporter reporter) throws CorruptDataException
 	{
 		_javaVM = vm;
 		_reporter = reporter;
+		_isWorker = false;
 
 		/*
 		 * Even if hrm is null, all helpers that use it will null check it and
@@ -118,6 +123,50 @@ class CheckEngine
 		_hrm = GCHeapRegionManager.fromHeapRegionManager(hrmPtr);
 	}
 	
+	private CheckEngine(CheckEngine parent, CheckReporterBuffered reporter)
+	{
+		_javaVM = parent._javaVM;
+		_reporter = reporter;
+		_cycle = parent._cycle;
+		_currentCheck = parent._currentCheck;
+		_classSegmentsTree = parent._classSegmentsTree;
+		_hrm = parent._hrm;
+		_needVerifyOwnableSynchronizerConsistency = parent._needVerifyOwnableSynchronizerConsistency;
+		_ownableSynchronizerObjectCountOnList = parent._ownableSynchronizerObjectCountOnList;
+		_ownableSynchronizerObjectCountOnHeap = (UNINITIALIZED_SIZE == parent._ownableSynchronizerObjectCountOnHeap) ? UNINITIALIZED_SIZE : 0;
+		_isWorker = true;
+	}
+
+	/**
+	 * Create an engine that can check objects on another thread, in the same
+	 * check cycle as this engine. Its reports are buffered in reporter until
+	 * they are handed back with {@link #mergeWorker(CheckEngine)}.
+	 */
+	CheckEngine createWorker(CheckReporterBuffered reporter)
+	{
+		return new CheckEngine(this, reporter);
+	}
+
+	/**
+	 * Replay the reports of a worker engine and fold in its counts. Workers
+	 * must be merged in heap order for the output to match a sequential check.
+	 */
+	void mergeWorker(CheckEngine worker)
+	{
+		((CheckReporterBuffered)worker._reporter).replay(_reporter, _cycle);
+		if ((UNINITIALIZED_SIZE != _ownableSynchronizerObjectCountOnHeap) && (UNINITIALIZED_SIZE != worker._ownableSynchronizerObjectCountOnHeap)) {
+			_ownableSynchronizerObjectCountOnHeap += worker._ownableSynchronizerObjectCountOnHeap;
+		}
+	}
+
+	private int nextErrorCount()
+	{
+		if (_isWorker) {
+			return ++_workerErrorCount;
+		}
+		return _cycle.nextErrorCount();
+	}
+
 	public J9JavaVMPointer getJavaVM()
 	{
 		return _javaVM;
@@ -184,7 +233,7 @@ class CheckEngine
 				/* this is a hole */
 				result = checkJ9LinkedFreeHeader(GCHeapLinkedFreeHeader.fromJ9Object(object), regionDesc, _cycle.getCheckFlags());
 				if (J9MODRON_GCCHK_RC_OK != result) {
-					CheckError error = new CheckError(object, _cycle, _currentCheck, "Object", result, _cycle.nextErrorCount());
+					CheckError error = new CheckError(object, _cycle, _currentCheck, "Object", result, nextErrorCount());
 					_reporter.report(error);
 					/* There are some error cases would not prevent further iteration */
 					if (!((J9MODRON_GCCHK_RC_DEAD_OBJECT_NEXT_IS_NOT_HOLE == result) ||
@@ -198,7 +247,7 @@ class CheckEngine
 			}
 		} catch (CorruptDataException e) {
 			// TODO : cde should be part of the error
-			CheckError error = new CheckError(object, _cycle, _currentCheck, "Object ", J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, _cycle.nextErrorCount());
+			CheckError error = new CheckError(object, _cycle, _currentCheck, "Object ", J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, nextErrorCount());
 			_reporter.report(error);
 			return J9MODRON_SLOT_ITERATOR_UNRECOVERABLE_ERROR;
 		}
@@ -210,13 +259,13 @@ class CheckEngine
 			result = checkJ9Object(object, regionDesc, _cycle.getCheckFlags());
 		} catch (CorruptDataException cde) {
 			// TODO : cde should be part of the error
-			CheckError error = new CheckError(object, _cycle, _currentCheck, "Object ", J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, _cycle.nextErrorCount());
+			CheckError error = new CheckError(object, _cycle, _currentCheck, "Object ", J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, nextErrorCount());
 			_reporter.report(error);
 			return J9MODRON_SLOT_ITERATOR_UNRECOVERABLE_ERROR;
 		}
 		if (J9MODRON_GCCHK_RC_OK != result) {
 			String elementName = isIndexable ? "IObject " : "Object ";
-			CheckError error = new CheckError(object, _cycle, _currentCheck, elementName, result, _cycle.nextErrorCount());
+			CheckError error = new CheckError(object, _cycle, _currentCheck, elementName, result, nextErrorCount());
 			_reporter.report(error);
 			/* There are some error cases would not prevent further iteration */
 			if (!(J9MODRON_GCCHK_RC_CLASS_IS_UNLOADED == result)) {
@@ -232,7 +281,7 @@ class CheckEngine
 			if (needVerifyOwnableSynchronizerConsistency()) {
 				if (J9Object.OBJECT_HEADER_SHAPE_MIXED == ObjectModel.getClassShape(clazz).intValue() && !J9ClassHelper.classFlags(clazz).bitAnd(J9AccClassOwnableSynchronizer).eq(0)) {
 					if (ObjectAccessBarrier.isObjectInOwnableSynchronizerList(object).isNull()) {
-						CheckError error = new CheckError(object, _cycle, _currentCheck, "Object ", J9MODRON_GCCHK_OWNABLE_SYNCHRONIZER_OBJECT_IS_NOT_ATTACHED_TO_THE_LIST, _cycle.nextErrorCount());
+						CheckError error = new CheckError(object, _cycle, _currentCheck, "Object ", J9MODRON_GCCHK_OWNABLE_SYNCHRONIZER_OBJECT_IS_NOT_ATTACHED_TO_THE_LIST, nextErrorCount());
 						_reporter.report(error);
 					} else {
 						_ownableSynchronizerObjectCountOnHeap += 1;
@@ -241,7 +290,7 @@ class CheckEngine
 			}
 		} catch (CorruptDataException cde) {
 			// TODO : cde should be part of the error
-			CheckError error = new CheckError(object, _cycle, _currentCheck, "Object ", J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, _cycle.nextErrorCount());
+			CheckError error = new CheckError(object, _cycle, _currentCheck, "Object ", J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, nextErrorCount());
 			_reporter.report(error);
 			return J9MODRON_SLOT_ITERATOR_UNRECOVERABLE_ERROR;
 		}
@@ -255,7 +304,7 @@ class CheckEngine
 				addressIterator = GCObjectIterator.fromJ9Object(object, true);
 			} catch (CorruptDataException e) {
 				// TODO : cde should be part of the error
-				CheckError error = new CheckError(object, _cycle, _currentCheck, "Object ", J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, _cycle.nextErrorCount());
+				CheckError error = new CheckError(object, _cycle, _currentCheck, "Object ", J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, nextErrorCount());
 				_reporter.report(error);
 				return J9MODRON_SLOT_ITERATOR_UNRECOVERABLE_ERROR;
 			}
@@ -316,14 +365,14 @@ class CheckEngine
 			scavengerEnabled = GCExtensions.scavengerEnabled();
 		} catch (CorruptDataException e) {
 			// TODO : cde should be part of the error
-			CheckError error = new CheckError(object, _cycle, _currentCheck, "Object ", J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, _cycle.nextErrorCount());
+			CheckError error = new CheckError(object, _cycle, _currentCheck, "Object ", J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, nextErrorCount());
 			_reporter.report(error);
 			return J9MODRON_SLOT_ITERATOR_UNRECOVERABLE_ERROR;
 		}
 		
 		if (J9MODRON_GCCHK_RC_OK != result) {
 			String elementName = isIndexable ? "IObject " : "Object ";
-			CheckError error = new CheckError(objectIndirectBase, objectIndirect, _cycle, _currentCheck, elementName, result, _cycle.nextErrorCount());
+			CheckError error = new CheckError(objectIndirectBase, objectIndirect, _cycle, _currentCheck, elementName, result, nextErrorCount());
 			_reporter.report(error);
 			return J9MODRON_SLOT_ITERATOR_OK;
 		}
@@ -347,7 +396,7 @@ class CheckEngine
 						isOld = ObjectModel.isOld(object);
 					} catch (CorruptDataException e) {
 						// TODO : cde should be part of the error
-						CheckError error = new CheckError(objectIndirectBase, _cycle, _currentCheck, "Object ", J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, _cycle.nextErrorCount());
+						CheckError error = new CheckError(objectIndirectBase, _cycle, _currentCheck, "Object ", J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, nextErrorCount());
 						_reporter.report(error);
 						return J9MODRON_SLOT_ITERATOR_UNRECOVERABLE_ERROR;
 					}
@@ -355,7 +404,7 @@ class CheckEngine
 					/* Old objects that point to new objects should have remembered bit ON */
 					if(regionType.allBitsIn(MEMORY_TYPE_OLD) && objectRegionType.allBitsIn(MEMORY_TYPE_NEW) && !isRemembered) {
 						String elementName = isIndexable ? "IObject " : "Object ";
-						CheckError error = new CheckError(objectIndirectBase, objectIndirect, _cycle, _currentCheck, elementName, J9MODRON_GCCHK_RC_NEW_POINTER_NOT_REMEMBERED, _cycle.nextErrorCount());
+						CheckError error = new CheckError(objectIndirectBase, objectIndirect, _cycle, _currentCheck, elementName, J9MODRON_GCCHK_RC_NEW_POINTER_NOT_REMEMBERED, nextErrorCount());
 						_reporter.report(error);
 						return J9MODRON_SLOT_ITERATOR_OK;
 					}
@@ -363,7 +412,7 @@ class CheckEngine
 					/* Old objects that point to objects with old bit OFF should have remembered bit ON */
 					if(regionType.allBitsIn(MEMORY_TYPE_OLD) && !isOld && !isRemembered) {
 						String elementName = isIndexable ? "IObject " : "Object ";
-						CheckError error = new CheckError(objectIndirectBase, objectIndirect, _cycle, _currentCheck, elementName, J9MODRON_GCCHK_RC_REMEMBERED_SET_OLD_OBJECT, _cycle.nextErrorCount());
+						CheckError error = new CheckError(objectIndirectBase, objectIndirect, _cycle, _currentCheck, elementName, J9MODRON_GCCHK_RC_REMEMBERED_SET_OLD_OBJECT, nextErrorCount());
 						_reporter.report(error);
 						return J9MODRON_SLOT_ITERATOR_OK;						
 					}
@@ -576,12 +625,12 @@ class CheckEngine
 			object = J9ObjectPointer.cast(objectIndirect.at(0));
 			int result = checkObjectIndirect(object);
 			if(J9MODRON_GCCHK_RC_OK != result) {
-				CheckError error = new CheckError(objectIndirectBase, objectIndirect, _cycle, _currentCheck, result, _cycle.nextErrorCount(), objectType);
+				CheckError error = new CheckError(objectIndirectBase, objectIndirect, _cycle, _currentCheck, result, nextErrorCount(), objectType);
 				_reporter.report(error);
 			}
 		} catch (CorruptDataException e) {
 			// TODO : cde should be part of the error
-			CheckError error = new CheckError(objectIndirectBase, objectIndirect, _cycle, _currentCheck, J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, _cycle.nextErrorCount(), objectType);
+			CheckError error = new CheckError(objectIndirectBase, objectIndirect, _cycle, _currentCheck, J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, nextErrorCount(), objectType);
 			_reporter.report(error);
 		}
 		return J9MODRON_SLOT_ITERATOR_OK;
@@ -597,12 +646,12 @@ class CheckEngine
 				result = checkStackObject(object);
 			}
 			if(J9MODRON_GCCHK_RC_OK != result) {
-				CheckError error = new CheckError(objectIndirectBase, objectIndirect, _cycle, _currentCheck, result, _cycle.nextErrorCount(), objectType);
+				CheckError error = new CheckError(objectIndirectBase, objectIndirect, _cycle, _currentCheck, result, nextErrorCount(), objectType);
 				_reporter.report(error);
 			}
 		} catch (CorruptDataException e) {
 			// TODO : cde should be part of the error
-			CheckError error = new CheckError(objectIndirectBase, objectIndirect, _cycle, _currentCheck, J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, _cycle.nextErrorCount(), objectType);
+			CheckError error = new CheckError(objectIndirectBase, objectIndirect, _cycle, _currentCheck, J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, nextErrorCount(), objectType);
 			_reporter.report(error);
 		}
 		return J9MODRON_SLOT_ITERATOR_OK;
@@ -618,13 +667,13 @@ class CheckEngine
 				result = checkStackObject(object);
 			}
 			if(J9MODRON_GCCHK_RC_OK != result) {
-				CheckError error = new CheckError(vmThread, objectIndirect, stackLocation, _cycle, _currentCheck, result, _cycle.nextErrorCount());
+				CheckError error = new CheckError(vmThread, objectIndirect, stackLocation, _cycle, _currentCheck, result, nextErrorCount());
 				_reporter.report(error);
 				return J9MODRON_SLOT_ITERATOR_RECOVERABLE_ERROR;
 			}
 		} catch (CorruptDataException e) {
 			// TODO : cde should be part of the error
-			CheckError error = new CheckError(vmThread, objectIndirect, stackLocation, _cycle, _currentCheck, J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, _cycle.nextErrorCount());
+			CheckError error = new CheckError(vmThread, objectIndirect, stackLocation, _cycle, _currentCheck, J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, nextErrorCount());
 			_reporter.report(error);
 			return J9MODRON_SLOT_ITERATOR_RECOVERABLE_ERROR;
 		}
@@ -683,7 +732,7 @@ class CheckEngine
 			
 			int result = checkObjectIndirect(object);
 			if(J9MODRON_GCCHK_RC_OK != result) {
-				CheckError error = new CheckError(puddle, objectIndirect, _cycle, _currentCheck, result, _cycle.nextErrorCount());
+				CheckError error = new CheckError(puddle, objectIndirect, _cycle, _currentCheck, result, nextErrorCount());
 				_reporter.report(error);
 				return J9MODRON_SLOT_ITERATOR_OK;
 			}
@@ -694,14 +743,14 @@ class CheckEngine
 				
 				if (objectRegion == null) {
 					/* shouldn't happen, since checkObjectIndirect() already verified this object */
-					CheckError error = new CheckError(puddle, objectIndirect, _cycle, _currentCheck, J9MODRON_GCCHK_RC_NOT_FOUND, _cycle.nextErrorCount());
+					CheckError error = new CheckError(puddle, objectIndirect, _cycle, _currentCheck, J9MODRON_GCCHK_RC_NOT_FOUND, nextErrorCount());
 					_reporter.report(error);
 					return J9MODRON_SLOT_ITERATOR_OK;
 				}
 
 				/* we shouldn't have newspace references in the remembered set */
 				if(objectRegion.getTypeFlags().allBitsIn(MEMORY_TYPE_NEW)) {
-					CheckError error = new CheckError(puddle, objectIndirect, _cycle, _currentCheck, J9MODRON_GCCHK_RC_REMEMBERED_SET_WRONG_SEGMENT, _cycle.nextErrorCount());
+					CheckError error = new CheckError(puddle, objectIndirect, _cycle, _currentCheck, J9MODRON_GCCHK_RC_REMEMBERED_SET_WRONG_SEGMENT, nextErrorCount());
 					_reporter.report(error);
 					return J9MODRON_SLOT_ITERATOR_OK;
 				}
@@ -719,7 +768,7 @@ class CheckEngine
 				if(!skipObject) {
 					/* content of Remembered Set should be Old and Remembered */
 					if (!ObjectModel.isOld(object) || !ObjectModel.isRemembered(object)) {
-						CheckError error = new CheckError(puddle, objectIndirect, _cycle, _currentCheck, J9MODRON_GCCHK_RC_REMEMBERED_SET_FLAGS, _cycle.nextErrorCount());
+						CheckError error = new CheckError(puddle, objectIndirect, _cycle, _currentCheck, J9MODRON_GCCHK_RC_REMEMBERED_SET_FLAGS, nextErrorCount());
 						_reporter.report(error);
 						_reporter.reportObjectHeader(error, object, null);
 						return J9MODRON_SLOT_ITERATOR_OK;
@@ -729,7 +778,7 @@ class CheckEngine
 			
 		} catch (CorruptDataException e) {
 			// TODO : cde should be part of the error
-			CheckError error = new CheckError(puddle, objectIndirect, _cycle, _currentCheck, J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, _cycle.nextErrorCount());
+			CheckError error = new CheckError(puddle, objectIndirect, _cycle, _currentCheck, J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, nextErrorCount());
 			_reporter.report(error);
 		}
 		return J9MODRON_SLOT_ITERATOR_OK;
@@ -742,12 +791,12 @@ class CheckEngine
 			object = J9ObjectPointer.cast(objectIndirect.at(0));
 			int result = checkObjectIndirect(object);
 			if(J9MODRON_GCCHK_RC_OK != result) {
-				CheckError error = new CheckError(objectIndirectBase, objectIndirect, _cycle, _currentCheck, result, _cycle.nextErrorCount(), CheckError.check_type_other);
+				CheckError error = new CheckError(objectIndirectBase, objectIndirect, _cycle, _currentCheck, result, nextErrorCount(), CheckError.check_type_other);
 				_reporter.report(error);
 			}
 		} catch (CorruptDataException e) {
 			// TODO : cde should be part of the error
-			CheckError error = new CheckError(objectIndirectBase, objectIndirect, _cycle, _currentCheck, J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, _cycle.nextErrorCount(), CheckError.check_type_other);
+			CheckError error = new CheckError(objectIndirectBase, objectIndirect, _cycle, _currentCheck, J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, nextErrorCount(), CheckError.check_type_other);
 			_reporter.report(error);
 		}
 		return J9MODRON_SLOT_ITERATOR_OK;
@@ -763,7 +812,7 @@ class CheckEngine
 		try {
 			result = checkJ9Class(clazz, segment, _cycle.getCheckFlags());
 			if (J9MODRON_GCCHK_RC_OK != result) {
-				CheckError error = new CheckError(clazz, _cycle, _currentCheck, "Class ", result, _cycle.nextErrorCount());
+				CheckError error = new CheckError(clazz, _cycle, _currentCheck, "Class ", result, nextErrorCount());
 				_reporter.report(error);
 			}
 		
@@ -790,7 +839,7 @@ class CheckEngine
 						elementName = "slots "; 
 						break;
 					}
-					CheckError error = new CheckError(clazz, slotPtr, _cycle, _currentCheck, elementName, result, _cycle.nextErrorCount());
+					CheckError error = new CheckError(clazz, slotPtr, _cycle, _currentCheck, elementName, result, nextErrorCount());
 					_reporter.report(error);
 					return J9MODRON_SLOT_ITERATOR_OK;
 				}
@@ -799,7 +848,7 @@ class CheckEngine
 					/* If the slot has its old bit OFF, the class's remembered bit should be ON */
 					if(object.notNull() && !ObjectModel.isOld(object)) {
 						if(!ObjectModel.isRemembered(clazz.classObject())) {
-							CheckError error = new CheckError(clazz, slotPtr, _cycle, _currentCheck, "Class ", J9MODRON_GCCHK_RC_REMEMBERED_SET_OLD_OBJECT, _cycle.nextErrorCount());
+							CheckError error = new CheckError(clazz, slotPtr, _cycle, _currentCheck, "Class ", J9MODRON_GCCHK_RC_REMEMBERED_SET_OLD_OBJECT, nextErrorCount());
 							_reporter.report(error);
 							return J9MODRON_SLOT_ITERATOR_OK;
 						}
@@ -815,7 +864,7 @@ class CheckEngine
 			J9ClassPointer replaced = clazz.replacedClass();
 			if (replaced.notNull()) {
 				if (!J9ClassHelper.isSwappedOut(replaced)) {
-					CheckError error = new CheckError(clazz, clazz.replacedClassEA(), _cycle, _currentCheck, "Class ", J9MODRON_GCCHK_RC_REPLACED_CLASS_HAS_NO_HOTSWAP_FLAG, _cycle.nextErrorCount());
+					CheckError error = new CheckError(clazz, clazz.replacedClassEA(), _cycle, _currentCheck, "Class ", J9MODRON_GCCHK_RC_REPLACED_CLASS_HAS_NO_HOTSWAP_FLAG, nextErrorCount());
 					_reporter.report(error);
 					return J9MODRON_SLOT_ITERATOR_OK;
 				}
@@ -861,7 +910,7 @@ class CheckEngine
 				}
 				
 				if (J9MODRON_GCCHK_RC_OK != result) {
-					CheckError error = new CheckError(clazz, classSlotPtr, _cycle, _currentCheck, elementName, result, _cycle.nextErrorCount());
+					CheckError error = new CheckError(clazz, classSlotPtr, _cycle, _currentCheck, elementName, result, nextErrorCount());
 					_reporter.report(error);
 					return J9MODRON_SLOT_ITERATOR_OK;
 				}
@@ -869,7 +918,7 @@ class CheckEngine
 					
 		} catch (CorruptDataException e) {
 			// TODO : cde should be part of the error
-			CheckError error = new CheckError(clazz, _cycle, _currentCheck, "Class ", J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, _cycle.nextErrorCount());
+			CheckError error = new CheckError(clazz, _cycle, _currentCheck, "Class ", J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, nextErrorCount());
 			_reporter.report(error);
 		}
 		
@@ -894,7 +943,7 @@ class CheckEngine
 				if(J9ClassHelper.isArrayClass(clazz)) {
 					/* j9arrayclass should not be hot swapped */
 					result = J9MODRON_GCCHK_RC_CLASS_HOT_SWAPPED_FOR_ARRAY;
-					CheckError error = new CheckError(clazz, _cycle, _currentCheck, "Class ", result, _cycle.nextErrorCount());
+					CheckError error = new CheckError(clazz, _cycle, _currentCheck, "Class ", result, nextErrorCount());
 					_reporter.report(error);
 					return result;
 				}
@@ -947,7 +996,7 @@ class CheckEngine
 					/* an address must be in gc scan range */
 					if(!(address.gte(sectionStart) && address.lt(sectionEnd))) {
 						result = J9MODRON_GCCHK_RC_CLASS_STATICS_REFERENCE_IS_NOT_IN_SCANNING_RANGE;
-						CheckError error = new CheckError(clazz, address, _cycle, _currentCheck, "Class ", result, _cycle.nextErrorCount());
+						CheckError error = new CheckError(clazz, address, _cycle, _currentCheck, "Class ", result, nextErrorCount());
 						_reporter.report(error);
 					}
 					
@@ -964,14 +1013,14 @@ class CheckEngine
 	
 				if (!numberOfReferences.eq(romClazz.objectStaticCount())) {
 					result = J9MODRON_GCCHK_RC_CLASS_STATICS_WRONG_NUMBER_OF_REFERENCES;
-					CheckError error = new CheckError(clazz, _cycle, _currentCheck, "Class ", result, _cycle.nextErrorCount());
+					CheckError error = new CheckError(clazz, _cycle, _currentCheck, "Class ", result, nextErrorCount());
 					_reporter.report(error);
 				}
 			}
 			
 		} catch (CorruptDataException e) {
 			// TODO : cde should be part of the error
-			CheckError error = new CheckError(clazz, _cycle, _currentCheck, "Class ", J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, _cycle.nextErrorCount());
+			CheckError error = new CheckError(clazz, _cycle, _currentCheck, "Class ", J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, nextErrorCount());
 			_reporter.report(error);
 		}		
 		
@@ -1398,7 +1447,7 @@ class CheckEngine
 	{
 		int result = checkObjectIndirect(object);
 		if(J9MODRON_GCCHK_RC_OK != result) {
-			CheckError error = new CheckError(currentList, object, _cycle, _currentCheck, result, _cycle.nextErrorCount());
+			CheckError error = new CheckError(currentList, object, _cycle, _currentCheck, result, nextErrorCount());
 			_reporter.report(error);
 		}
 		return J9MODRON_SLOT_ITERATOR_OK;
@@ -1412,7 +1461,7 @@ class CheckEngine
 		try {
 			int result = checkObjectIndirect(object);
 			if(J9MODRON_GCCHK_RC_OK != result) {
-				CheckError error = new CheckError(currentList, object, _cycle, _currentCheck, result, _cycle.nextErrorCount());
+				CheckError error = new CheckError(currentList, object, _cycle, _currentCheck, result, nextErrorCount());
 				_reporter.report(error);
 				_reporter.reportHeapWalkError(error, _lastHeapObject1, _lastHeapObject2, _lastHeapObject3);
 				return J9MODRON_SLOT_ITERATOR_UNRECOVERABLE_ERROR;
@@ -1420,11 +1469,11 @@ class CheckEngine
 			
 			J9ClassPointer instanceClass = J9ObjectHelper.clazz(object);
 			if (J9ClassHelper.classFlags(instanceClass).bitAnd(J9AccClassOwnableSynchronizer).eq(0)) {
-				CheckError error = new CheckError(currentList, object, _cycle, _currentCheck, J9MODRON_GCCHK_RC_INVALID_FLAGS, _cycle.nextErrorCount());
+				CheckError error = new CheckError(currentList, object, _cycle, _currentCheck, J9MODRON_GCCHK_RC_INVALID_FLAGS, nextErrorCount());
 				_reporter.report(error);
 			}			
 		} catch (CorruptDataException e) {
-			CheckError error = new CheckError(currentList, object, _cycle, _currentCheck, J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, _cycle.nextErrorCount());
+			CheckError error = new CheckError(currentList, object, _cycle, _currentCheck, J9MODRON_GCCHK_RC_CORRUPT_DATA_EXCEPTION, nextErrorCount());
 			_reporter.report(error);			
 			_reporter.reportHeapWalkError(error, _lastHeapObject1, _lastHeapObject2, _lastHeapObject3);
 			return J9MODRON_SLOT_ITERATOR_UNRECOVERABLE_ERROR;
@@ -1437,7 +1486,7 @@ class CheckEngine
 	{
 		int result = checkObjectIndirect(object);
 		if (J9MODRON_GCCHK_RC_OK != result) {
-			CheckError error = new CheckError(object, null, _cycle, _currentCheck, result, _cycle.nextErrorCount(), CheckError.check_type_finalizable);
+			CheckError error = new CheckError(object, null, _cycle, _currentCheck, result, nextErrorCount(), CheckError.check_type_finalizable);
 			_reporter.report(error);
 		}
 		return J9MODRON_SLOT_ITERATOR_OK;
@@ -1469,7 +1518,7 @@ class CheckEngine
 
 	public void reportOwnableSynchronizerCircularReferenceError(J9ObjectPointer object, MM_OwnableSynchronizerObjectListPointer currentList)
 	{
-		CheckError error = new CheckError(currentList, object, _cycle, _currentCheck, J9MODRON_GCCHK_OWNABLE_SYNCHRONIZER_LIST_HAS_CIRCULAR_REFERENCE, _cycle.nextErrorCount());
+		CheckError error = new CheckError(currentList, object, _cycle, _currentCheck, J9MODRON_GCCHK_OWNABLE_SYNCHRONIZER_LIST_HAS_CIRCULAR_REFERENCE, nextErrorCount());
 		_reporter.report(error);
 		_reporter.reportHeapWalkError(error, _lastHeapObject1, _lastHeapObject2, _lastHeapObject3);
 	}
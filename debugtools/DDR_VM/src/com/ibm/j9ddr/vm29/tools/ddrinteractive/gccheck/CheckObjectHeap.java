@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2018 IBM Corp. and others
+ * Copyright (c) 2001, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -21,12 +21,16 @@
  *******************************************************************************/
 package com.ibm.j9ddr.vm29.tools.ddrinteractive.gccheck;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.ibm.j9ddr.CorruptDataException;
 
 import com.ibm.j9ddr.vm29.j9.gc.GCExtensions;
 import com.ibm.j9ddr.vm29.j9.gc.GCHeapRegionDescriptor;
 import com.ibm.j9ddr.vm29.j9.gc.GCHeapRegionIterator;
 import com.ibm.j9ddr.vm29.j9.gc.GCObjectHeapIterator;
+import com.ibm.j9ddr.vm29.j9.gc.GCParallelHeapWalker;
 import com.ibm.j9ddr.vm29.j9.gc.GCScavengerForwardedHeader;
 import com.ibm.j9ddr.vm29.pointer.generated.J9ObjectPointer;
 import com.ibm.j9ddr.vm29.types.UDATA;
@@ -42,40 +46,48 @@ class CheckObjectHeap extends Check
 		// Design diverges here from GC_CheckObjectHeap
 		// Use iterators directly
 		try {
-			GCHeapRegionIterator regions = GCHeapRegionIterator.from();
-			boolean midScavenge = _engine.isMidscavengeFlagSet();
-			boolean isVLHGC = GCExtensions.isVLHGC();
-
-			while (regions.hasNext()) {
-				GCHeapRegionDescriptor region = GCHeapRegionDescriptor.fromHeapRegionDescriptor(regions.next());
-				boolean isRegionTypeNew = region.getTypeFlags().allBitsIn(MEMORY_TYPE_NEW);
-				
-				GCObjectHeapIterator heapIterator = region.objectIterator(true, true);
-				while(heapIterator.hasNext()) {
-					J9ObjectPointer object = heapIterator.peek();
-
-					if (midScavenge && (isVLHGC || isRegionTypeNew)) {
-						GCScavengerForwardedHeader scavengerForwardedHeader = GCScavengerForwardedHeader.fromJ9Object(object);
-						if (scavengerForwardedHeader.isForwardedPointer()) {
-							//forwarded pointer is discovered
-							//report it
-							_engine.reportForwardedObject(object, scavengerForwardedHeader.getForwardedObject());
-							
-							//and skip it by advancing of iterator to the next object
-							UDATA objectSize = scavengerForwardedHeader.getObjectSize();
-							heapIterator.advance(objectSize);
-							_engine.pushPreviousObject(object);
-							continue;
+			final boolean midScavenge = _engine.isMidscavengeFlagSet();
+			final boolean isVLHGC = GCExtensions.isVLHGC();
+			GCParallelHeapWalker walker = new GCParallelHeapWalker();
+
+			if (walker.getParallelism() > 1) {
+				/* Each region is checked by its own worker engine; reports are replayed in heap order */
+				List<RegionCheck> checks = walker.walk(new GCParallelHeapWalker.RegionVisitor<List<RegionCheck>>() {
+					public List<RegionCheck> visitRegion(GCHeapRegionDescriptor region)
+					{
+						RegionCheck check = new RegionCheck(_engine.createWorker(new CheckReporterBuffered()));
+						try {
+							checkRegion(check.worker, GCHeapRegionDescriptor.fromHeapRegionDescriptor(region), midScavenge, isVLHGC);
+						} catch (CorruptDataException e) {
+							check.failed = true;
 						}
+						List<RegionCheck> result = new ArrayList<RegionCheck>();
+						result.add(check);
+						return result;
+					}
+
+					public List<RegionCheck> merge(List<RegionCheck> lower, List<RegionCheck> upper)
+					{
+						lower.addAll(upper);
+						return lower;
 					}
+				});
 
-					int result = _engine.checkObjectHeap(object, region);
-					if(result != J9MODRON_SLOT_ITERATOR_OK) {
-						break;
+				if (null != checks) {
+					for (RegionCheck check : checks) {
+						_engine.mergeWorker(check.worker);
+						if (check.failed) {
+							/* a sequential walk stops at the first corrupt region */
+							break;
+						}
 					}
+				}
+			} else {
+				GCHeapRegionIterator regions = GCHeapRegionIterator.from();
 
-					heapIterator.next();
-					_engine.pushPreviousObject(object);
+				while (regions.hasNext()) {
+					GCHeapRegionDescriptor region = GCHeapRegionDescriptor.fromHeapRegionDescriptor(regions.next());
+					checkRegion(_engine, region, midScavenge, isVLHGC);
 				}
 			}
 		} catch (CorruptDataException e) {
@@ -83,6 +95,50 @@ class CheckObjectHeap extends Check
 		}
 	}
 
+	private static final class RegionCheck
+	{
+		final CheckEngine worker;
+		boolean failed;
+
+		RegionCheck(CheckEngine worker)
+		{
+			this.worker = worker;
+		}
+	}
+
+	private static void checkRegion(CheckEngine engine, GCHeapRegionDescriptor region, boolean midScavenge, boolean isVLHGC) throws CorruptDataException
+	{
+		boolean isRegionTypeNew = region.getTypeFlags().allBitsIn(MEMORY_TYPE_NEW);
+		
+		GCObjectHeapIterator heapIterator = region.objectIterator(true, true);
+		while(heapIterator.hasNext()) {
+			J9ObjectPointer object = heapIterator.peek();
+
+			if (midScavenge && (isVLHGC || isRegionTypeNew)) {
+				GCScavengerForwardedHeader scavengerForwardedHeader = GCScavengerForwardedHeader.fromJ9Object(object);
+				if (scavengerForwardedHeader.isForwardedPointer()) {
+					//forwarded pointer is discovered
+					//report it
+					engine.reportForwardedObject(object, scavengerForwardedHeader.getForwardedObject());
+					
+					//and skip it by advancing of iterator to the next object
+					UDATA objectSize = scavengerForwardedHeader.getObjectSize();
+					heapIterator.advance(objectSize);
+					engine.pushPreviousObject(object);
+					continue;
+				}
+			}
+
+			int result = engine.checkObjectHeap(object, region);
+			if(result != J9MODRON_SLOT_ITERATOR_OK) {
+				break;
+			}
+
+			heapIterator.next();
+			engine.pushPreviousObject(object);
+		}
+	}
+
 	@Override
 	public String getCheckName()
 	{
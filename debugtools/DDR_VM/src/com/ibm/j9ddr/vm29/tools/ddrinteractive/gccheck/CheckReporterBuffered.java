@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.j9ddr.vm29.tools.ddrinteractive.gccheck;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import com.ibm.j9ddr.vm29.pointer.generated.J9ClassPointer;
+import com.ibm.j9ddr.vm29.pointer.generated.J9ObjectPointer;
+
+/**
+ * Reporter used by the worker engines of a parallel heap check.
+ * 
+ * Reports are recorded rather than printed and are later replayed, in heap
+ * order, to the reporter of the main engine. Errors are renumbered from the
+ * check cycle as they are replayed so that numbering and the maximum error
+ * count behave as they would for a sequential check.
+ */
+class CheckReporterBuffered extends CheckReporter
+{
+	private final List<Event> _events = new ArrayList<Event>();
+
+	private static abstract class Event
+	{
+		final CheckError _error;
+
+		Event(CheckError error)
+		{
+			_error = error;
+		}
+
+		abstract void replay(CheckReporter reporter);
+	}
+
+	private static CheckElement snapshot(CheckElement element)
+	{
+		CheckElement copy = new CheckElement();
+		copy.copyFrom(element);
+		return copy;
+	}
+
+	@Override
+	public void report(CheckError error)
+	{
+		_events.add(new Event(error) {
+			void replay(CheckReporter reporter)
+			{
+				reporter.report(_error);
+			}
+		});
+	}
+
+	@Override
+	public void reportObjectHeader(CheckError error, final J9ObjectPointer objectPtr, final String prefix)
+	{
+		_events.add(new Event(error) {
+			void replay(CheckReporter reporter)
+			{
+				reporter.reportObjectHeader(_error, objectPtr, prefix);
+			}
+		});
+	}
+
+	@Override
+	public void reportClass(CheckError error, final J9ClassPointer clazz, final String prefix)
+	{
+		_events.add(new Event(error) {
+			void replay(CheckReporter reporter)
+			{
+				reporter.reportClass(_error, clazz, prefix);
+			}
+		});
+	}
+
+	@Override
+	public void reportFatalError(CheckError error)
+	{
+		_events.add(new Event(error) {
+			void replay(CheckReporter reporter)
+			{
+				reporter.reportFatalError(_error);
+			}
+		});
+	}
+
+	@Override
+	public void reportHeapWalkError(CheckError error, CheckElement previousObjectPtr1, CheckElement previousObjectPtr2, CheckElement previousObjectPtr3)
+	{
+		/* the engine reuses its previous object elements, so keep copies */
+		final CheckElement previous1 = snapshot(previousObjectPtr1);
+		final CheckElement previous2 = snapshot(previousObjectPtr2);
+		final CheckElement previous3 = snapshot(previousObjectPtr3);
+
+		_events.add(new Event(error) {
+			void replay(CheckReporter reporter)
+			{
+				reporter.reportHeapWalkError(_error, previous1, previous2, previous3);
+			}
+		});
+	}
+
+	@Override
+	public void reportForwardedObject(final J9ObjectPointer object, final J9ObjectPointer newObject)
+	{
+		_events.add(new Event(null) {
+			void replay(CheckReporter reporter)
+			{
+				reporter.reportForwardedObject(object, newObject);
+			}
+		});
+	}
+
+	@Override
+	public void print(final String arg)
+	{
+		_events.add(new Event(null) {
+			void replay(CheckReporter reporter)
+			{
+				reporter.print(arg);
+			}
+		});
+	}
+
+	@Override
+	public void println(final String arg)
+	{
+		_events.add(new Event(null) {
+			void replay(CheckReporter reporter)
+			{
+				reporter.println(arg);
+			}
+		});
+	}
+
+	/**
+	 * Replay the recorded reports to reporter, assigning each distinct error
+	 * its final number from cycle.
+	 */
+	void replay(CheckReporter reporter, CheckCycle cycle)
+	{
+		IdentityHashMap<CheckError, CheckError> renumbered = new IdentityHashMap<CheckError, CheckError>();
+
+		for (Event event : _events) {
+			CheckError error = event._error;
+			if ((null != error) && (null == renumbered.put(error, error))) {
+				error._errorNumber = cycle.nextErrorCount();
+			}
+			event.replay(reporter);
+		}
+		_events.clear();
+	}
+}
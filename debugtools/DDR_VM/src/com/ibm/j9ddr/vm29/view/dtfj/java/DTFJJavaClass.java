@@ -28,11 +28,11 @@ import static com.ibm.j9ddr.vm29.j9.OptInfo.getSourceFileNameForROMClass;
 
 import java.lang.ref.SoftReference;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 import com.ibm.dtfj.image.CorruptData;
@@ -141,7 +141,8 @@ public class DTFJJavaClass implements JavaClass {
 		}
 	}
 
-	static final Map<J9ClassPointer,List<Object>> declaredFieldsCache = new HashMap<J9ClassPointer,List<Object>>();
+	/* The caches below are shared by every thread reading the image, e.g. jdmpview heapdump walking the heap on several threads */
+	static final Map<J9ClassPointer,List<Object>> declaredFieldsCache = new ConcurrentHashMap<J9ClassPointer,List<Object>>();
 	
 	@SuppressWarnings("rawtypes")
 	public Iterator getDeclaredFields() {
@@ -287,7 +288,7 @@ public class DTFJJavaClass implements JavaClass {
 		return interfaceNames.iterator();
 	}
 
-	static final Map<J9ClassPointer,Integer> modifiersCache = new HashMap<J9ClassPointer,Integer>();
+	static final Map<J9ClassPointer,Integer> modifiersCache = new ConcurrentHashMap<J9ClassPointer,Integer>();
 	
 	
 	public int getModifiers() throws CorruptDataException {
@@ -507,7 +508,7 @@ public class DTFJJavaClass implements JavaClass {
 		public final JavaClass superClass;
 	}
 	
-	private static final Map<J9ClassPointer, SuperClassCacheEntry> superClassCache = new HashMap<J9ClassPointer,SuperClassCacheEntry>(); 
+	private static final Map<J9ClassPointer, SuperClassCacheEntry> superClassCache = new ConcurrentHashMap<J9ClassPointer,SuperClassCacheEntry>(); 
 	
 	public JavaClass getSuperclass() throws CorruptDataException {
 		SuperClassCacheEntry cachedEntry = superClassCache.get(j9class);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1991, 2020 IBM Corp. and others
+ * Copyright (c) 1991, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -32,8 +32,8 @@ import static com.ibm.j9ddr.view.dtfj.DTFJConstants.LONG_SIGNATURE;
 import static com.ibm.j9ddr.view.dtfj.DTFJConstants.OBJECT_PREFIX_SIGNATURE;
 import static com.ibm.j9ddr.view.dtfj.DTFJConstants.SHORT_SIGNATURE;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.ibm.dtfj.image.CorruptDataException;
 import com.ibm.dtfj.image.DataUnavailable;
@@ -206,7 +206,7 @@ public abstract class DTFJJavaField implements JavaField, IDTFJJavaField {
 		return name;
 	}
 
-	private static Map<J9ROMFieldShapePointer,String> signatureCache = new HashMap<J9ROMFieldShapePointer,String>();
+	private static final Map<J9ROMFieldShapePointer,String> signatureCache = new ConcurrentHashMap<J9ROMFieldShapePointer,String>();
 	
 	public String getSignature() throws CorruptDataException {
 		String cachedSignature = signatureCache.get(j9field);
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.j9ddr.corereaders;
+
+import static org.junit.Assert.*;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+/**
+ * Tests reads through MappedFileReader, including reads that straddle
+ * window boundaries.
+ */
+public class TestMappedFileReader
+{
+	private static File createFile(byte[] data) throws IOException
+	{
+		File file = File.createTempFile("mapped", ".bin");
+		file.deleteOnExit();
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(data);
+		} finally {
+			out.close();
+		}
+		return file;
+	}
+
+	private static byte[] createData(int length)
+	{
+		byte[] data = new byte[length];
+		for (int i = 0; i < length; i++) {
+			data[i] = (byte) (i * 7);
+		}
+		return data;
+	}
+
+	@Test
+	public void testReadAcrossWindows() throws Exception
+	{
+		byte[] data = createData(10000);
+		/* 1KB windows so most reads cross a boundary */
+		MappedFileReader reader = new MappedFileReader(createFile(data), 10);
+
+		try {
+			assertEquals(data.length, reader.length());
+
+			byte[] buffer = new byte[3000];
+			reader.readFully(1000, buffer, 0, buffer.length);
+			for (int i = 0; i < buffer.length; i++) {
+				assertEquals(data[1000 + i], buffer[i]);
+			}
+
+			reader.readFully(data.length - 1, buffer, 5, 1);
+			assertEquals(data[data.length - 1], buffer[5]);
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void testReadLongAcrossWindows() throws Exception
+	{
+		byte[] data = createData(4096);
+		MappedFileReader reader = new MappedFileReader(createFile(data), 10);
+
+		try {
+			/* aligned read inside a window, then one that straddles the first boundary */
+			assertEquals(ByteBuffer.wrap(data, 8, 8).getLong(), reader.readLong(8));
+			assertEquals(ByteBuffer.wrap(data, 1020, 8).getLong(), reader.readLong(1020));
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test(expected = EOFException.class)
+	public void testReadPastEnd() throws Exception
+	{
+		MappedFileReader reader = new MappedFileReader(createFile(createData(100)), 10);
+
+		try {
+			reader.readFully(99, new byte[2], 0, 2);
+		} finally {
+			reader.close();
+		}
+	}
+}
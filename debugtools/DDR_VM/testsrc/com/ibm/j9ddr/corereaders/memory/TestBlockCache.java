@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.j9ddr.corereaders.memory;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * Tests the byte budget, eviction and concurrent use of BlockCache.
+ */
+public class TestBlockCache
+{
+	private static final int BLOCK_SIZE = 1024;
+
+	@Test
+	public void testBudget()
+	{
+		BlockCache cache = new BlockCache(64 * BLOCK_SIZE, true);
+		int source = cache.newSourceId();
+
+		for (int i = 0; i < 10000; i++) {
+			cache.put(BlockCache.key(source, i), new byte[BLOCK_SIZE]);
+			assertTrue(cache.getSize() <= 64 * BLOCK_SIZE);
+		}
+		assertEquals(10000 * (long) BLOCK_SIZE, cache.getEvictedBytes() + cache.getSize());
+		assertTrue(cache.getHighWaterMark() <= 64 * BLOCK_SIZE);
+	}
+
+	@Test
+	public void testReferencedBlocksSurvive()
+	{
+		/* a small budget has a single stripe, so every new block forces an eviction */
+		BlockCache cache = new BlockCache(4 * BLOCK_SIZE, false);
+		int source = cache.newSourceId();
+		long hot = BlockCache.key(source, 0);
+		byte[] hotData = new byte[BLOCK_SIZE];
+		cache.put(hot, hotData);
+
+		for (int i = 1; i < 1000; i++) {
+			assertSame(hotData, cache.get(hot));
+			cache.put(BlockCache.key(source, i), new byte[BLOCK_SIZE]);
+		}
+		assertSame(hotData, cache.get(hot));
+	}
+
+	@Test
+	public void testPutKeepsFirstBlock()
+	{
+		BlockCache cache = new BlockCache(1024 * BLOCK_SIZE, false);
+		int source = cache.newSourceId();
+		int other = cache.newSourceId();
+		byte[] first = new byte[BLOCK_SIZE];
+
+		assertNull(cache.get(BlockCache.key(source, 7)));
+		assertSame(first, cache.put(BlockCache.key(source, 7), first));
+		assertSame(first, cache.put(BlockCache.key(source, 7), new byte[BLOCK_SIZE]));
+		assertSame(first, cache.get(BlockCache.key(source, 7)));
+		assertNull(cache.get(BlockCache.key(other, 7)));
+	}
+
+	@Test
+	public void testConcurrentReaders() throws Exception
+	{
+		final BlockCache cache = new BlockCache(32 * BLOCK_SIZE, true);
+		final int source = cache.newSourceId();
+		final AtomicReference<String> failure = new AtomicReference<String>();
+		List<Thread> threads = new ArrayList<Thread>();
+
+		for (int t = 0; t < 4; t++) {
+			final int seed = t;
+			Thread thread = new Thread() {
+				@Override
+				public void run()
+				{
+					for (int i = 0; i < 20000; i++) {
+						int index = ((i * 31) + seed) % 200;
+						long key = BlockCache.key(source, index);
+						byte[] data = cache.get(key);
+						if (null == data) {
+							byte[] loaded = new byte[BLOCK_SIZE];
+							loaded[0] = (byte) index;
+							data = cache.put(key, loaded);
+							cache.recordMiss(BLOCK_SIZE);
+						} else {
+							cache.recordHit(BLOCK_SIZE);
+						}
+						if (data[0] != (byte) index) {
+							failure.set("wrong block for index " + index);
+						}
+					}
+				}
+			};
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertNull(failure.get());
+		assertEquals(4 * 20000, cache.getHits() + cache.getMisses());
+		assertTrue(cache.getSize() <= 32 * BLOCK_SIZE);
+	}
+}
@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.j9ddr.util;
+
+import static org.junit.Assert.*;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests DominatorTree against a small hand checked graph and against
+ * dominator sets computed by iterative data flow on random graphs.
+ */
+public class TestDominatorTree
+{
+	/* edges[i] lists the targets of node i */
+	private static DominatorTree compute(int[][] edges, int[] roots, long[] sizes)
+	{
+		int[] edgeStart = new int[edges.length + 1];
+		for (int i = 0; i < edges.length; i++) {
+			edgeStart[i + 1] = edgeStart[i] + edges[i].length;
+		}
+		int[] edgeTargets = new int[edgeStart[edges.length]];
+		for (int i = 0; i < edges.length; i++) {
+			System.arraycopy(edges[i], 0, edgeTargets, edgeStart[i], edges[i].length);
+		}
+		return DominatorTree.compute(edges.length, edgeStart, edgeTargets, roots, sizes);
+	}
+
+	@Test
+	public void testSmallGraph()
+	{
+		/*
+		 * 0 -> 1 -> 2 -> 3
+		 *      1 -> 4 -> 3
+		 * 5 -> 6, 6 -> 5 (cycle)
+		 * 7 is unreachable and points at 2
+		 */
+		int[][] edges = { { 1 }, { 2, 4 }, { 3 }, { }, { 3 }, { 6 }, { 5 }, { 2 } };
+		long[] sizes = { 1, 2, 4, 8, 16, 32, 64, 128 };
+		DominatorTree tree = compute(edges, new int[] { 0, 5 }, sizes);
+
+		assertEquals(7, tree.getReachableCount());
+		assertEquals(DominatorTree.ROOT, tree.getImmediateDominator(0));
+		assertEquals(0, tree.getImmediateDominator(1));
+		assertEquals(1, tree.getImmediateDominator(2));
+		assertEquals(1, tree.getImmediateDominator(3));
+		assertEquals(1, tree.getImmediateDominator(4));
+		assertEquals(DominatorTree.ROOT, tree.getImmediateDominator(5));
+		assertEquals(5, tree.getImmediateDominator(6));
+		assertEquals(DominatorTree.UNREACHABLE, tree.getImmediateDominator(7));
+		assertFalse(tree.isReachable(7));
+
+		assertEquals(1 + 2 + 4 + 8 + 16, tree.getRetainedSize(0));
+		assertEquals(2 + 4 + 8 + 16, tree.getRetainedSize(1));
+		assertEquals(4, tree.getRetainedSize(2));
+		assertEquals(32 + 64, tree.getRetainedSize(5));
+		assertEquals(0, tree.getRetainedSize(7));
+		assertEquals(127, tree.getTotalRetainedSize());
+	}
+
+	@Test
+	public void testRandomGraphs()
+	{
+		Random random = new Random(7);
+		for (int round = 0; round < 50; round++) {
+			int nodeCount = 1 + random.nextInt(60);
+			int[][] edges = new int[nodeCount][];
+			for (int i = 0; i < nodeCount; i++) {
+				edges[i] = new int[random.nextInt(4)];
+				for (int j = 0; j < edges[i].length; j++) {
+					edges[i][j] = random.nextInt(nodeCount);
+				}
+			}
+			int[] roots = new int[1 + random.nextInt(3)];
+			for (int i = 0; i < roots.length; i++) {
+				roots[i] = random.nextInt(nodeCount);
+			}
+			long[] sizes = new long[nodeCount];
+			for (int i = 0; i < nodeCount; i++) {
+				sizes[i] = 1 + random.nextInt(100);
+			}
+
+			DominatorTree tree = compute(edges, roots, sizes);
+			BitSet[] dominators = dataFlowDominators(edges, roots);
+
+			for (int node = 0; node < nodeCount; node++) {
+				if (null == dominators[node]) {
+					assertEquals(DominatorTree.UNREACHABLE, tree.getImmediateDominator(node));
+					continue;
+				}
+				/* the immediate dominator is the strict dominator dominated by all the others */
+				int expected = DominatorTree.ROOT;
+				for (int d = dominators[node].nextSetBit(0); d >= 0; d = dominators[node].nextSetBit(d + 1)) {
+					if ((d != node) && (dominators[d].cardinality() == (dominators[node].cardinality() - 1))) {
+						expected = d;
+					}
+				}
+				assertEquals(expected, tree.getImmediateDominator(node));
+
+				long retained = 0;
+				for (int other = 0; other < nodeCount; other++) {
+					if ((null != dominators[other]) && dominators[other].get(node)) {
+						retained += sizes[other];
+					}
+				}
+				assertEquals(retained, tree.getRetainedSize(node));
+			}
+		}
+	}
+
+	/* Dominator sets, excluding the virtual root; null for unreachable nodes */
+	private static BitSet[] dataFlowDominators(int[][] edges, int[] roots)
+	{
+		int nodeCount = edges.length;
+		BitSet reachable = new BitSet();
+		int[] work = new int[nodeCount];
+		int workSize = 0;
+		for (int root : roots) {
+			if (!reachable.get(root)) {
+				reachable.set(root);
+				work[workSize++] = root;
+			}
+		}
+		while (workSize > 0) {
+			int node = work[--workSize];
+			for (int target : edges[node]) {
+				if (!reachable.get(target)) {
+					reachable.set(target);
+					work[workSize++] = target;
+				}
+			}
+		}
+
+		BitSet isRoot = new BitSet();
+		for (int root : roots) {
+			isRoot.set(root);
+		}
+		BitSet[] dominators = new BitSet[nodeCount];
+		for (int node = 0; node < nodeCount; node++) {
+			if (reachable.get(node)) {
+				dominators[node] = new BitSet();
+				if (isRoot.get(node)) {
+					dominators[node].set(node);
+				} else {
+					dominators[node].or(reachable);
+				}
+			}
+		}
+
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int node = 0; node < nodeCount; node++) {
+				if ((null == dominators[node]) || isRoot.get(node)) {
+					continue;
+				}
+				BitSet next = null;
+				for (int source = 0; source < nodeCount; source++) {
+					if (null == dominators[source]) {
+						continue;
+					}
+					for (int target : edges[source]) {
+						if (target == node) {
+							if (null == next) {
+								next = (BitSet) dominators[source].clone();
+							} else {
+								next.and(dominators[source]);
+							}
+						}
+					}
+				}
+				next.set(node);
+				if (!next.equals(dominators[node])) {
+					dominators[node] = next;
+					changed = true;
+				}
+			}
+		}
+		return dominators;
+	}
+}
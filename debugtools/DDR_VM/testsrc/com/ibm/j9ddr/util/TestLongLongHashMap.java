@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.j9ddr.util;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests LongLongHashMap against java.util.HashMap.
+ */
+public class TestLongLongHashMap
+{
+	@Test
+	public void testAgainstHashMap()
+	{
+		Random random = new Random(3);
+		LongLongHashMap map = new LongLongHashMap();
+		Map<Long, Long> expected = new HashMap<Long, Long>();
+
+		for (int i = 0; i < 100000; i++) {
+			/* class-like keys: aligned addresses, with some repeats and a zero key */
+			long key = (random.nextInt(5000) * 256L) + 0x7f0000000000L;
+			if (0 == (i % 1000)) {
+				key = 0;
+			}
+			long delta = random.nextInt(100);
+			map.addTo(key, delta);
+			Long old = expected.get(key);
+			expected.put(key, (null == old) ? delta : (old + delta));
+		}
+
+		assertEquals(expected.size(), map.size());
+		for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+			assertTrue(map.containsKey(entry.getKey()));
+			assertEquals(entry.getValue().longValue(), map.get(entry.getKey()));
+		}
+		assertEquals(expected.size(), map.keys().length);
+		assertFalse(map.containsKey(1));
+		assertEquals(0, map.get(1));
+	}
+
+	@Test
+	public void testAddAll()
+	{
+		LongLongHashMap first = new LongLongHashMap();
+		LongLongHashMap second = new LongLongHashMap();
+		first.put(8, 1);
+		first.put(0, 2);
+		second.put(8, 10);
+		second.put(16, 20);
+
+		first.addAll(second);
+		assertEquals(3, first.size());
+		assertEquals(11, first.get(8));
+		assertEquals(2, first.get(0));
+		assertEquals(20, first.get(16));
+	}
+}
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.j9ddr.util;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.ibm.j9ddr.util.ReverseReferenceIndex.EdgeRun;
+
+/**
+ * Tests that saved and in-memory reverse reference indexes return the
+ * referrers recorded in the runs they were built from.
+ */
+public class TestReverseReferenceIndex
+{
+	private static final int OBJECT_COUNT = 500;
+
+	/* referrers[target] lists the sources, built alongside the runs */
+	private static List<EdgeRun> createRuns(List<List<Long>> referrers)
+	{
+		Random random = new Random(42);
+		List<EdgeRun> runs = new ArrayList<EdgeRun>();
+
+		for (int i = 0; i < OBJECT_COUNT; i++) {
+			referrers.add(new ArrayList<Long>());
+		}
+		for (int r = 0; r < 7; r++) {
+			EdgeRun run = new EdgeRun();
+			for (int i = 0; i < 3000; i++) {
+				long source = random.nextInt(OBJECT_COUNT) * 16L;
+				int target = random.nextInt(OBJECT_COUNT);
+				run.add(source, target * 16L);
+				referrers.get(target).add(source);
+			}
+			run.sort();
+			runs.add(run);
+		}
+		/* an empty run must not disturb the merge */
+		runs.add(new EdgeRun());
+		return runs;
+	}
+
+	private static void checkReferrers(ReverseReferenceIndex index, List<List<Long>> referrers) throws Exception
+	{
+		assertEquals(7 * 3000, index.size());
+		for (int target = 0; target < OBJECT_COUNT; target++) {
+			List<Long> expected = referrers.get(target);
+			long[] expectedArray = new long[expected.size()];
+			for (int i = 0; i < expectedArray.length; i++) {
+				expectedArray[i] = expected.get(i);
+			}
+			Arrays.sort(expectedArray);
+			assertArrayEquals(expectedArray, index.getReferrers(target * 16L));
+		}
+		assertEquals(0, index.getReferrers(8).length);
+		assertEquals(0, index.getReferrers(Long.MAX_VALUE).length);
+	}
+
+	@Test
+	public void testSavedIndex() throws Exception
+	{
+		List<List<Long>> referrers = new ArrayList<List<Long>>();
+		List<EdgeRun> runs = createRuns(referrers);
+		byte[] digest = new byte[32];
+		digest[0] = 1;
+
+		File indexFile = File.createTempFile("refs", ".idx");
+		indexFile.deleteOnExit();
+		ReverseReferenceIndex.write(indexFile, digest, runs);
+
+		ReverseReferenceIndex index = ReverseReferenceIndex.open(indexFile, digest);
+		assertNotNull(index);
+		try {
+			checkReferrers(index, referrers);
+		} finally {
+			index.close();
+		}
+
+		/* an index built from another core is not reused */
+		digest[0] = 2;
+		assertNull(ReverseReferenceIndex.open(indexFile, digest));
+	}
+
+	@Test
+	public void testInMemoryIndex() throws Exception
+	{
+		List<List<Long>> referrers = new ArrayList<List<Long>>();
+		checkReferrers(ReverseReferenceIndex.fromRuns(createRuns(referrers)), referrers);
+	}
+}
@@ -0,0 +1,71 @@
+/*[INCLUDE-IF Sidecar16]*/
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+package com.ibm.oti.vm;
+
+/**
+ * Interface to allow privileged access to the java.lang.invoke.MethodHandles.Lookup
+ * handle caches from outside the java.lang.invoke package.
+ * The caches are named after the Lookup methods they serve, for example "findVirtual".
+ */
+public interface MethodHandleCacheAccess {
+	/**
+	 * Answer the names of the caches.
+	 */
+	public String[] getCacheNames();
+
+	/**
+	 * Answer the number of lookups that found a handle in the cache while statistics were enabled.
+	 *
+	 * @param cacheName the name of the cache
+	 * @throws IllegalArgumentException if there is no cache with that name
+	 */
+	public long getHitCount(String cacheName);
+
+	/**
+	 * Answer the number of lookups that did not find a handle in the cache while statistics were enabled.
+	 *
+	 * @param cacheName the name of the cache
+	 * @throws IllegalArgumentException if there is no cache with that name
+	 */
+	public long getMissCount(String cacheName);
+
+	/**
+	 * Answer the number of handles in the cache. Entries are removed shortly after their
+	 * handles are garbage collected.
+	 *
+	 * @param cacheName the name of the cache
+	 * @throws IllegalArgumentException if there is no cache with that name
+	 */
+	public long getEntryCount(String cacheName);
+
+	/**
+	 * Answer whether hits and misses are counted.
+	 */
+	public boolean isStatisticsEnabled();
+
+	/**
+	 * Enable or disable counting hits and misses. The counts are kept when counting is disabled.
+	 */
+	public void setStatisticsEnabled(boolean enabled);
+}
@@ -0,0 +1,78 @@
+/*[INCLUDE-IF Sidecar16]*/
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+package com.ibm.oti.vm;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collection;
+
+/**
+ * Interface to allow privileged access to java.lang.ref.ReferenceQueue
+ * internals from outside the java.lang.ref package.
+ */
+public interface ReferenceQueueAccess {
+	/**
+	 * Removes at most maxElements references from the queue and adds them
+	 * to the collection, in the order they were enqueued, using a single
+	 * acquisition of the queue monitor. Does not wait for references to
+	 * become available.
+	 *
+	 * @param queue the queue to drain
+	 * @param collection the collection to add the references to
+	 * @param maxElements the maximum number of references to remove
+	 * @return the number of references removed from the queue
+	 */
+	public <T> int drainTo(ReferenceQueue<T> queue, Collection<? super Reference<? extends T>> collection, int maxElements);
+
+	/**
+	 * Answer the number of references enqueued on the queue since it was created.
+	 */
+	public long getEnqueuedCount(ReferenceQueue<?> queue);
+
+	/**
+	 * Answer the number of references removed from the queue since it was created.
+	 */
+	public long getDrainedCount(ReferenceQueue<?> queue);
+
+	/**
+	 * Answer the number of threads waiting in ReferenceQueue.remove() on the queue.
+	 */
+	public int getWaiterCount(ReferenceQueue<?> queue);
+
+	/**
+	 * Answer whether queues are recorded as references are enqueued on them.
+	 */
+	public boolean isTrackingEnabled();
+
+	/**
+	 * Enable or disable recording queues as references are enqueued on them.
+	 * Disabling tracking forgets the queues recorded so far.
+	 */
+	public void setTrackingEnabled(boolean enabled);
+
+	/**
+	 * Answer the live queues recorded since tracking was enabled.
+	 */
+	public ReferenceQueue<?>[] getTrackedQueues();
+}
@@ -133,6 +133,8 @@ public final class VM {
 	/*[PR CMVC 189091] Perf: EnumSet.allOf() is slow */
 	/*[PR CMVC 191554] Provide access to ClassLoader methods to improve performance */
 	private static VMLangAccess javalangVMaccess;
+	private static ReferenceQueueAccess referenceQueueAccess;
+	private static MethodHandleCacheAccess methodHandleCacheAccess;
 
 	static {
 		/* Note this is never called - the VM marks this class as initialized immediately after loading.
@@ -559,6 +561,48 @@ public static VMLangAccess getVMLangAccess() {
 	return javalangVMaccess;
 }
 
+/**
+ * Set the access to java.lang.ref.ReferenceQueue internals. Called once,
+ * when java.lang.ref.ReferenceQueue is initialized.
+ *
+ * @param access the ReferenceQueueAccess
+ */
+public static void setReferenceQueueAccess(ReferenceQueueAccess access) {
+	/*[MSG "K05ba", "Cannot set access twice"]*/
+	if (referenceQueueAccess != null) throw new SecurityException(Msg.getString("K05ba")); //$NON-NLS-1$
+	referenceQueueAccess = access;
+}
+
+/**
+ * Answer the access to java.lang.ref.ReferenceQueue internals.
+ *
+ * @return the ReferenceQueueAccess
+ */
+public static ReferenceQueueAccess getReferenceQueueAccess() {
+	return referenceQueueAccess;
+}
+
+/**
+ * Set the access to the java.lang.invoke.MethodHandles.Lookup handle caches.
+ * Called once, when the caches are initialized.
+ *
+ * @param access the MethodHandleCacheAccess
+ */
+public static void setMethodHandleCacheAccess(MethodHandleCacheAccess access) {
+	/*[MSG "K05ba", "Cannot set access twice"]*/
+	if (methodHandleCacheAccess != null) throw new SecurityException(Msg.getString("K05ba")); //$NON-NLS-1$
+	methodHandleCacheAccess = access;
+}
+
+/**
+ * Answer the access to the java.lang.invoke.MethodHandles.Lookup handle caches.
+ *
+ * @return the MethodHandleCacheAccess, or null if the caches are not in use
+ */
+public static MethodHandleCacheAccess getMethodHandleCacheAccess() {
+	return methodHandleCacheAccess;
+}
+
 /**
  * Set the current thread as a JVM System Thread
  * @return 0 on success, -1 on failure
@@ -89,6 +89,11 @@ public interface VMLangAccess {
 	 * Set a MethodHandle cache to a given class.
 	 */
 	public java.lang.Object setMethodHandleCache(java.lang.Class<?> clazz, java.lang.Object object);
+
+	/**
+	 * Returns the counters of the reflection cache, by name.
+	 */
+	public java.util.Map<String, Long> getReflectCacheStatistics();
 	
 	/**
 	 * Returns a {@code java.util.Map} from method descriptor string to the equivalent {@code MethodType} as generated by {@code MethodType.fromMethodDescriptorString}.
@@ -177,6 +182,29 @@ public interface VMLangAccess {
 	 */
 	public void prepare(Class<?> theClass);
 
+	/**
+	 * Answer the class loaders that have waited for a contended class loading lock.
+	 *
+	 * @return the contended class loaders
+	 */
+	public ClassLoader[] getContendedClassLoaders();
+
+	/**
+	 * Answer the time in nanoseconds the class loader has spent waiting for contended class loading locks.
+	 *
+	 * @param loader The class loader
+	 * @return the wait time in nanoseconds
+	 */
+	public long getClassLoadingLockWaitTime(ClassLoader loader);
+
+	/**
+	 * Answer the number of times the class loader has waited for a contended class loading lock.
+	 *
+	 * @param loader The class loader
+	 * @return the wait count
+	 */
+	public long getClassLoadingLockWaitCount(ClassLoader loader);
+
 	/*[IF JAVA_SPEC_VERSION >= 11]*/
 	/**
 	 * Returns whether the classloader name should be included in the stack trace for the provided StackTraceElement.
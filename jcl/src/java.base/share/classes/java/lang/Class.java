@@ -38,7 +38,9 @@ import java.util.HashMap;
 /*[IF JAVA_SPEC_VERSION >= 16]*/
 import java.util.HashSet;
 /*[ENDIF] JAVA_SPEC_VERSION >= 16 */
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -47,6 +49,7 @@ import java.util.Optional;
 /*[ENDIF] JAVA_SPEC_VERSION >= 12 */
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.security.AccessController;
 import java.security.PrivilegedExceptionAction;
 import java.security.PrivilegedAction;
@@ -244,6 +247,8 @@ public final class Class<T> implements java.io.Serializable, GenericDeclaration,
 	private static boolean reflectCacheEnabled;
 	private static boolean reflectCacheDebug;
 	private static boolean reflectCacheAppOnly = true;
+	private static boolean reflectCacheStats;
+	private static int reflectCacheLimit = Integer.MAX_VALUE;
 
 	/*
 	 * This {@code ClassReflectNullPlaceHolder} class is created to indicate the cached class value is
@@ -3983,9 +3988,11 @@ private static Field constructorParameterTypesField;
 private static final Object[] NoArgs = new Object[0];
 
 /*[PR JAZZ 107786] constructorParameterTypesField should be initialized regardless of reflectCacheEnabled or not */
-static void initCacheIds(boolean cacheEnabled, boolean cacheDebug) {
+static void initCacheIds(boolean cacheEnabled, boolean cacheDebug, boolean cacheStats, int cacheLimit) {
 	reflectCacheEnabled = cacheEnabled;
 	reflectCacheDebug = cacheDebug;
+	reflectCacheStats = cacheStats;
+	reflectCacheLimit = cacheLimit;
 	AccessController.doPrivileged(new PrivilegedAction<Void>() {
 		@Override
 		public Void run() {
@@ -4351,13 +4358,46 @@ static Class<?>[] getParameterTypes(Method method) {
 private static final class ReflectCache extends ConcurrentHashMap<CacheKey, ReflectRef> {
 	private static final long serialVersionUID = 6551549321039776630L;
 
+	/*
+	 * The number of entries in all the caches. When it exceeds reflectCacheLimit the
+	 * entries of the least recently created cache are evicted.
+	 */
+	private static final AtomicInteger totalEntries = new AtomicInteger();
+	/* the trackers of the live caches, oldest first, guarded by itself */
+	private static final LinkedHashSet<Tracker> trackers = new LinkedHashSet<>();
+	/* the trackers of caches which have been collected, e.g. because their class was unloaded */
+	private static final ReferenceQueue<ReflectCache> collectedCaches = new ReferenceQueue<>();
+
+	/* statistics, the lookups are only counted with -Dreflect.cache=stats */
+	private static final AtomicLong hits = new AtomicLong();
+	private static final AtomicLong misses = new AtomicLong();
+	private static final AtomicLong evictions = new AtomicLong();
+	private static final AtomicLong cleared = new AtomicLong();
+
+	/**
+	 * Counts the entries of a cache without keeping the cache, or its owner, alive.
+	 */
+	private static final class Tracker extends WeakReference<ReflectCache> {
+		final AtomicInteger entries = new AtomicInteger();
+
+		Tracker(ReflectCache cache) {
+			super(cache, collectedCaches);
+		}
+	}
+
 	private final Class<?> owner;
 	private final AtomicInteger useCount;
+	private final Tracker tracker;
 
 	ReflectCache(Class<?> owner) {
 		super();
 		this.owner = owner;
 		this.useCount = new AtomicInteger();
+		this.tracker = new Tracker(this);
+		expungeCollectedCaches();
+		synchronized (trackers) {
+			trackers.add(tracker);
+		}
 	}
 
 	ReflectCache acquire() {
@@ -4367,8 +4407,10 @@ private static final class ReflectCache extends ConcurrentHashMap<CacheKey, Refl
 
 	void handleCleared(ReflectRef ref) {
 		boolean removed = false;
-		if (remove(ref.key, ref) && isEmpty()) {
-			if (useCount.get() == 0) {
+		if (remove(ref.key, ref)) {
+			entryRemoved();
+			cleared.incrementAndGet();
+			if (isEmpty() && (useCount.get() == 0)) {
 				owner.setReflectCache(null);
 				removed = true;
 			}
@@ -4384,11 +4426,21 @@ private static final class ReflectCache extends ConcurrentHashMap<CacheKey, Refl
 
 	Object find(CacheKey key) {
 		ReflectRef ref = get(key);
-		return ref != null ? ref.get() : null;
+		Object value = ref != null ? ref.get() : null;
+		if (reflectCacheStats) {
+			if (value != null) {
+				hits.incrementAndGet();
+			} else {
+				misses.incrementAndGet();
+			}
+		}
+		return value;
 	}
 
 	void insert(CacheKey key, Object value) {
-		put(key, new ReflectRef(this, key, value));
+		if (put(key, new ReflectRef(this, key, value)) == null) {
+			entryAdded();
+		}
 	}
 
 	<T> T insertIfAbsent(CacheKey key, T value) {
@@ -4396,6 +4448,7 @@ private static final class ReflectCache extends ConcurrentHashMap<CacheKey, Refl
 		for (;;) {
 			ReflectRef oldRef = putIfAbsent(key, newRef);
 			if (oldRef == null) {
+				entryAdded();
 				return value;
 			}
 			T oldValue = (T) oldRef.get();
@@ -4414,6 +4467,98 @@ private static final class ReflectCache extends ConcurrentHashMap<CacheKey, Refl
 		useCount.decrementAndGet();
 	}
 
+	private void entryAdded() {
+		tracker.entries.incrementAndGet();
+		if (totalEntries.incrementAndGet() > reflectCacheLimit) {
+			expungeCollectedCaches();
+			int others;
+			synchronized (trackers) {
+				others = trackers.size() - 1;
+			}
+			/* evict the other caches, oldest first, then this one if it alone exceeds the limit */
+			while ((totalEntries.get() > reflectCacheLimit) && (others > 0)) {
+				evictOldest();
+				others -= 1;
+			}
+			if (totalEntries.get() > reflectCacheLimit) {
+				evictAll();
+			}
+		}
+	}
+
+	private void entryRemoved() {
+		tracker.entries.decrementAndGet();
+		totalEntries.decrementAndGet();
+	}
+
+	/**
+	 * Evict all the entries of the least recently created cache other than this one.
+	 * The evicted cache moves to the end of the queue, as it may be filled again.
+	 */
+	private void evictOldest() {
+		Tracker victim = null;
+		synchronized (trackers) {
+			Iterator<Tracker> iterator = trackers.iterator();
+			while (iterator.hasNext()) {
+				Tracker next = iterator.next();
+				if (next != tracker) {
+					iterator.remove();
+					trackers.add(next);
+					victim = next;
+					break;
+				}
+			}
+		}
+		ReflectCache cache = (victim != null) ? victim.get() : null;
+		if (cache != null) {
+			cache.evictAll();
+		}
+	}
+
+	private void evictAll() {
+		for (ReflectRef ref : values()) {
+			if (remove(ref.key, ref)) {
+				// the entry is no longer reachable, don't let handleCleared() count it again
+				ref.clear();
+				entryRemoved();
+				evictions.incrementAndGet();
+			}
+		}
+		if (isEmpty() && (useCount.get() == 0)) {
+			owner.setReflectCache(null);
+		}
+		if (reflectCacheDebug) {
+			System.err.println("Evicted reflect cache for: " + this); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Stop counting the entries of the caches which have been collected.
+	 */
+	private static void expungeCollectedCaches() {
+		Tracker collected;
+		while ((collected = (Tracker) collectedCaches.poll()) != null) {
+			synchronized (trackers) {
+				trackers.remove(collected);
+			}
+			int entries = collected.entries.getAndSet(0);
+			totalEntries.addAndGet(-entries);
+			cleared.addAndGet(entries);
+		}
+	}
+
+	static Map<String, Long> statistics() {
+		expungeCollectedCaches();
+		Map<String, Long> result = new LinkedHashMap<>();
+		result.put("entries", Long.valueOf(totalEntries.get())); //$NON-NLS-1$
+		result.put("limit", Long.valueOf(reflectCacheLimit)); //$NON-NLS-1$
+		result.put("hits", Long.valueOf(hits.get())); //$NON-NLS-1$
+		result.put("misses", Long.valueOf(misses.get())); //$NON-NLS-1$
+		result.put("evictions", Long.valueOf(evictions.get())); //$NON-NLS-1$
+		result.put("cleared", Long.valueOf(cleared.get())); //$NON-NLS-1$
+		return result;
+	}
+
 }
 
 private transient ReflectCache reflectCache;
@@ -4671,6 +4816,16 @@ private Method[] cacheMethods(Method[] methods, CacheKey cacheKey) {
 	if (reflectCacheDebug) {
 		reflectCacheDebugHelper(null, 0, "cache Methods in: ", getName());	//$NON-NLS-1$
 	}
+	return copyMethods(insertMethods(methods, cacheKey));
+}
+
+/**
+ * Insert the methods, and the array of them under cacheKey, into the reflect caches
+ * of their declaring classes. Members already in the caches replace the ones in the array.
+ *
+ * @return the array held by the cache, which must not be modified
+ */
+private Method[] insertMethods(Method[] methods, CacheKey cacheKey) {
 	ReflectCache cache = null;
 	Class<?> cacheOwner = null;
 	try {
@@ -4701,7 +4856,18 @@ private Method[] cacheMethods(Method[] methods, CacheKey cacheKey) {
 			cache.release();
 		}
 	}
-	return copyMethods(methods);
+	return methods;
+}
+
+/**
+ * Answers the counters of the reflect cache: the number of entries and their limit,
+ * the lookup hits and misses (only counted with -Dreflect.cache=stats), and the
+ * entries evicted to stay within the limit or cleared by the garbage collector.
+ *
+ * @return a Map from the counter names to their values
+ */
+static Map<String, Long> getReflectCacheStatistics() {
+	return ReflectCache.statistics();
 }
 
 private static Field[] copyFields(Field[] fields) {
@@ -4742,6 +4908,16 @@ private Field[] cacheFields(Field[] fields, CacheKey cacheKey) {
 	if (reflectCacheDebug) {
 		reflectCacheDebugHelper(null, 0, "cache Fields in: ", getName());	//$NON-NLS-1$
 	}
+	return copyFields(insertFields(fields, cacheKey));
+}
+
+/**
+ * Insert the fields, and the array of them under cacheKey, into the reflect caches
+ * of their declaring classes. Members already in the caches replace the ones in the array.
+ *
+ * @return the array held by the cache, which must not be modified
+ */
+private Field[] insertFields(Field[] fields, CacheKey cacheKey) {
 	ReflectCache cache = null;
 	Class<?> cacheOwner = null;
 	try {
@@ -4772,7 +4948,7 @@ private Field[] cacheFields(Field[] fields, CacheKey cacheKey) {
 			cache.release();
 		}
 	}
-	return copyFields(fields);
+	return fields;
 }
 
 private static <T> Constructor<T>[] copyConstructors(Constructor<T>[] constructors) {
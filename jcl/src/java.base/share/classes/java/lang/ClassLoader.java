@@ -32,9 +32,11 @@ import com.ibm.oti.vm.AbstractClassLoader;
 import com.ibm.oti.vm.VM;
 
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Hashtable;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -42,6 +44,8 @@ import java.util.Queue;
 import java.util.Vector;
 import java.util.Collections;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.*;
@@ -55,11 +59,12 @@ import java.util.Spliterators;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import jdk.internal.module.ServicesCatalog;
-import java.util.concurrent.ConcurrentHashMap;
+import jdk.internal.misc.Unsafe;
 import jdk.internal.reflect.CallerSensitive;
 import jdk.internal.loader.ClassLoaders;
 import jdk.internal.loader.BootLoader;
 /*[ELSE]
+import sun.misc.Unsafe;
 import sun.reflect.CallerSensitive;
 /*[ENDIF]*/
 
@@ -128,19 +133,33 @@ public abstract class ClassLoader {
 
 	//	store parallel capable classloader classes
 	private static Map<Class<?>, Object> parallelCapableCollection;
-	//	store class binary name based lock
-	private volatile Hashtable<String, ClassNameLockRef> classNameBasedLock;
+	//	store class binary name based lock, looked up without locking
+	private volatile ConcurrentHashMap<String, ClassNameLockRef> classNameBasedLock;
 	//	for performance purpose, only check once if registered as parallel capable
 	//	assume customer classloader follow Java specification requirement 
 	//	in which registerAsParallelCapable shall be invoked during initialization
 	private boolean isParallelCapable;
-	private static final class ClassNameBasedLock { ClassNameBasedLock() {} }
+	//	the value is the number of threads holding or waiting for the lock
+	private static final class ClassNameBasedLock extends AtomicInteger { ClassNameBasedLock() {} }
+	//	the number of threads holding or waiting for this class loader as a class loading lock
+	private final AtomicInteger loaderLockThreads = new AtomicInteger();
+	//	the time in nanoseconds spent, and the number of times, waiting for contended class loading locks
+	private volatile long classLoadingLockWaitTime;
+	private volatile long classLoadingLockWaitCount;
+	private static long classLoadingLockWaitTimeOffset = -1;
+	//	written after classLoadingLockWaitTimeOffset, so both offsets are valid once this is set
+	private static volatile long classLoadingLockWaitCountOffset = -1;
+	//	the class loaders that have waited for a contended class loading lock, held weakly and
+	//	compared by identity, since they are recorded while a class loading lock is held
+	private static ArrayList<WeakReference<ClassLoader>> contendedClassLoaders;
 	private static final Package[] EMPTY_PACKAGE_ARRAY = new Package[0];
 	
 	// Cache instances of java.lang.invoke.MethodType generated from method descriptor strings
 	private Map<String, java.lang.invoke.MethodType> methodTypeFromMethodDescriptorStringCache;
 	
 	private static boolean allowArraySyntax;
+	/* the default bound on the number of reflect cache entries, a limit <= 0 disables the bound */
+	private static final int DEFAULT_REFLECT_CACHE_LIMIT = 65536;
 /*[IF Sidecar19-SE]*/	
 	private static boolean lazyClassLoaderInit = true;
 /*[ELSE]	
@@ -157,19 +176,16 @@ public abstract class ClassLoader {
 	static final class ClassNameLockRef extends WeakReference<Object> implements Runnable {
 		private static final ReferenceQueue<Object> queue = new ReferenceQueue<>();
 		private final String key;
-		private final Hashtable<?, ?> classNameLockHT;
-		public ClassNameLockRef(Object referent, String keyValue, Hashtable<?, ?> classNameLockHTValue) {
+		private final ConcurrentHashMap<String, ClassNameLockRef> classNameLockHT;
+		public ClassNameLockRef(Object referent, String keyValue, ConcurrentHashMap<String, ClassNameLockRef> classNameLockHTValue) {
 			super(referent, queue);
 			key = keyValue;
 			classNameLockHT = classNameLockHTValue;
 		}
+		/* Called by the reference handling path once the lock is no longer referenced */
 		@Override
 		public void run() {
-			synchronized(classNameLockHT) {
-				if (classNameLockHT.get(key) == this) {
-					classNameLockHT.remove(key);
-				}
-			}
+			classNameLockHT.remove(key, this);
 		}
 	}
 	
@@ -178,6 +194,7 @@ public abstract class ClassLoader {
 			return;
 		}
 		parallelCapableCollection = Collections.synchronizedMap(new WeakHashMap<>());
+		contendedClassLoaders = new ArrayList<>();
 		
 		allowArraySyntax = "true".equalsIgnoreCase(	//$NON-NLS-1$
 				System.internalGetProperties().getProperty("sun.lang.ClassLoader.allowArraySyntax"));	//$NON-NLS-1$
@@ -188,6 +205,7 @@ public abstract class ClassLoader {
 		/* Do not enable reflect cache if -Dreflect.cache=false is in commandline */
 		boolean reflectCacheEnabled = false;
 		boolean reflectCacheDebug = false;
+		boolean reflectCacheStats = false;
 		if (!"false".equals(propValue)) { //$NON-NLS-1$
 			/*JAZZ 42080: Turning off reflection caching for cloud to reduce Object Leaks*/	
 			reflectCacheEnabled = true;
@@ -198,6 +216,22 @@ public abstract class ClassLoader {
 					/* reflect.cache=boot is handled in completeInitialization() */
 					reflectCacheDebug = true;
 				}
+				if (propValue.indexOf("stats") >= 0) { //$NON-NLS-1$
+					reflectCacheStats = true;
+				}
+			}
+		}
+		/* The maximum number of entries in all the reflect caches, -Dreflect.cache.limit=<n> */
+		int reflectCacheLimit = DEFAULT_REFLECT_CACHE_LIMIT;
+		String limitValue = System.internalGetProperties().getProperty("reflect.cache.limit"); //$NON-NLS-1$
+		if (limitValue != null) {
+			try {
+				reflectCacheLimit = Integer.parseInt(limitValue.trim());
+				if (reflectCacheLimit <= 0) {
+					reflectCacheLimit = Integer.MAX_VALUE;
+				}
+			} catch (NumberFormatException e) {
+				// ignore, use the default
 			}
 		}
 
@@ -321,7 +355,7 @@ public abstract class ClassLoader {
 		
 		/*[PR 125932] Reflect cache may be initialized by multiple Threads */
 		/*[PR JAZZ 107786] constructorParameterTypesField should be initialized regardless of reflectCacheEnabled or not */
-		Class.initCacheIds(reflectCacheEnabled, reflectCacheDebug);
+		Class.initCacheIds(reflectCacheEnabled, reflectCacheDebug, reflectCacheStats, reflectCacheLimit);
 	}	
 
 /**
@@ -1325,65 +1359,178 @@ Class<?> loadClassHelper(final String className, boolean resolveClass, boolean d
 	, Module module
 /*[ENDIF]*/
 	) throws ClassNotFoundException {
-	Object lock = isParallelCapable ? getClassLoadingLock(className) : this;
-
-	synchronized (lock) {
-		// Ask the VM to look in its cache.
-		Class<?> loadedClass = findLoadedClass(className);
-		// search in parent if not found
-		if (loadedClass == null) {
-			if (delegateToParent) {
-				try {
-					if (parent == null) {
-						/*[PR 95894]*/
-						if (isDelegatingCL) {
-							loadedClass = bootstrapClassLoader.findLoadedClass(className);
-						}
-						if (loadedClass == null) {
-							loadedClass = bootstrapClassLoader.loadClass(className);
+	// Ask the VM to look in its cache, a class already loaded is answered without taking the lock
+	Class<?> loadedClass = findLoadedClass(className);
+	if (loadedClass == null) {
+		Object lock = isParallelCapable ? getClassLoadingLock(className) : this;
+		AtomicInteger lockThreads = getClassLoadingLockThreads(lock);
+		// only time the wait if another thread already holds or is waiting for the lock
+		boolean contended = (lockThreads != null) && (lockThreads.getAndIncrement() > 0) && !Thread.holdsLock(lock);
+		long lockStart = contended ? System.nanoTime() : 0;
+		long waitTime = 0;
+		try {
+			synchronized (lock) {
+				if (contended) {
+					waitTime = System.nanoTime() - lockStart;
+				}
+				// another thread may have loaded the class while this thread waited
+				loadedClass = findLoadedClass(className);
+				// search in parent if not found
+				if (loadedClass == null) {
+					if (delegateToParent) {
+						try {
+							if (parent == null) {
+								/*[PR 95894]*/
+								if (isDelegatingCL) {
+									loadedClass = bootstrapClassLoader.findLoadedClass(className);
+								}
+								if (loadedClass == null) {
+									loadedClass = bootstrapClassLoader.loadClass(className);
+								}
+							} else {
+								if (isDelegatingCL) {
+									loadedClass = parent.findLoadedClass(className);
+								}
+								if (loadedClass == null) {
+									loadedClass = parent.loadClass(className, resolveClass);
+								}
+							}
+						} catch (ClassNotFoundException e) {
+							// don't do anything.  Catching this exception is the normal protocol for
+							// parent classloaders telling use they couldn't find a class.
 						}
-					} else {
-						if (isDelegatingCL) {
-							loadedClass = parent.findLoadedClass(className);
+					}
+				
+					// not findLoadedClass or by parent.loadClass, try locally
+					if (loadedClass == null) {
+/*[IF Sidecar19-SE]*/
+						if (module == null) {
+/*[ENDIF]*/
+							loadedClass = findClass(className);
+/*[IF Sidecar19-SE]*/
 						}
-						if (loadedClass == null) {
-							loadedClass = parent.loadClass(className, resolveClass);
+						else {
+							loadedClass = findClass(module.getName(), className);
 						}
+/*[ENDIF]*/
 					}
-				} catch (ClassNotFoundException e) {
-					// don't do anything.  Catching this exception is the normal protocol for
-					// parent classloaders telling use they couldn't find a class.
 				}
 			}
-			
-			// not findLoadedClass or by parent.loadClass, try locally
-			if (loadedClass == null) {
+		} finally {
+			if (lockThreads != null) {
+				lockThreads.decrementAndGet();
+			}
+			if (contended) {
+				recordClassLoadingLockWait(waitTime);
+			}
+		}
+	}
+
 /*[IF Sidecar19-SE]*/
-				if (module == null) {
+	if (module != null && loadedClass != null) {
+		Module	moduleLoadedClass = loadedClass.getModule();
+		if (module != moduleLoadedClass) {
+			return null;
+		}
+	}
 /*[ENDIF]*/
-					loadedClass = findClass(className);
-/*[IF Sidecar19-SE]*/
-				}
-				else {
-					loadedClass = findClass(module.getName(), className);
+	
+	// resolve if required
+	if (resolveClass) resolveClass(loadedClass);
+	return loadedClass;
+}
+
+/**
+ * Answers the counter of threads holding or waiting for a class loading lock.
+ *
+ * @param		lock Object
+ *					the class loading lock
+ * @return		the counter, or null if the lock came from an overridden getClassLoadingLock()
+ */
+private AtomicInteger getClassLoadingLockThreads(Object lock) {
+	if (lock instanceof ClassNameBasedLock) {
+		return (ClassNameBasedLock) lock;
+	}
+	if (lock == this) {
+		// null if the VM created this class loader without running a constructor
+		return loaderLockThreads;
+	}
+	return null;
+}
+
+/**
+ * Records the time spent waiting for a contended class loading lock. It is only
+ * called, after the lock has been released, by threads that found another thread
+ * holding or waiting for the lock, so uncontended acquisitions cost nothing.
+ *
+ * @param		waitTime long
+ *					the time in nanoseconds taken to acquire the lock.
+ */
+private void recordClassLoadingLockWait(long waitTime) {
+	Unsafe unsafe = Class.getUnsafe();
+	long countOffset = classLoadingLockWaitCountOffset;
+	if (countOffset == -1) {
+		/*[IF JAVA_SPEC_VERSION >= 11]*/
+		classLoadingLockWaitTimeOffset = unsafe.objectFieldOffset(ClassLoader.class, "classLoadingLockWaitTime"); //$NON-NLS-1$
+		countOffset = unsafe.objectFieldOffset(ClassLoader.class, "classLoadingLockWaitCount"); //$NON-NLS-1$
+		/*[ELSE] JAVA_SPEC_VERSION >= 11 */
+		try {
+			classLoadingLockWaitTimeOffset = unsafe.objectFieldOffset(ClassLoader.class.getDeclaredField("classLoadingLockWaitTime")); //$NON-NLS-1$
+			countOffset = unsafe.objectFieldOffset(ClassLoader.class.getDeclaredField("classLoadingLockWaitCount")); //$NON-NLS-1$
+		} catch (NoSuchFieldException e) {
+			throw Class.newInternalError(e);
+		}
+		/*[ENDIF] JAVA_SPEC_VERSION >= 11 */
+		classLoadingLockWaitCountOffset = countOffset;
+	}
+	unsafe.getAndAddLong(this, classLoadingLockWaitTimeOffset, waitTime);
+	if (0 == unsafe.getAndAddLong(this, countOffset, 1)) {
+		// only the first contended wait adds the loader, so it is never in the list twice
+		synchronized (contendedClassLoaders) {
+			for (Iterator<WeakReference<ClassLoader>> iterator = contendedClassLoaders.iterator(); iterator.hasNext();) {
+				if (iterator.next().get() == null) {
+					iterator.remove();
 				}
-/*[ENDIF]*/
 			}
+			contendedClassLoaders.add(new WeakReference<>(this));
 		}
+	}
+}
 
-/*[IF Sidecar19-SE]*/
-		if (module != null && loadedClass != null) {
-			Module	moduleLoadedClass = loadedClass.getModule();
-			if (module != moduleLoadedClass) {
-				return null;
+/**
+ * Answers the class loaders that have waited for a contended class loading lock.
+ *
+ * @return		the contended class loaders
+ */
+static ClassLoader[] getContendedClassLoaders() {
+	ArrayList<ClassLoader> loaders = new ArrayList<>();
+	synchronized (contendedClassLoaders) {
+		for (WeakReference<ClassLoader> reference : contendedClassLoaders) {
+			ClassLoader loader = reference.get();
+			if (loader != null) {
+				loaders.add(loader);
 			}
 		}
-/*[ENDIF]*/
-		
-		// resolve if required
-		if (resolveClass) resolveClass(loadedClass);
-		return loadedClass;
 	}
+	return loaders.toArray(new ClassLoader[loaders.size()]);
+}
+
+/**
+ * Answers the time in nanoseconds this ClassLoader has spent waiting for contended class loading locks.
+ *
+ * @return		the wait time in nanoseconds
+ */
+long getClassLoadingLockWaitTime() {
+	return classLoadingLockWaitTime;
+}
+
+/**
+ * Answers the number of times this ClassLoader has waited for a contended class loading lock.
+ *
+ * @return		the wait count
+ */
+long getClassLoadingLockWaitCount() {
+	return classLoadingLockWaitCount;
 }
 
 /**
@@ -1434,20 +1581,38 @@ protected static boolean registerAsParallelCapable() {
 protected Object getClassLoadingLock(final String className) {
 	Object lock = this;
 	if (isParallelCapable)	{
-		if (classNameBasedLock == null) {
+		ConcurrentHashMap<String, ClassNameLockRef> locks = classNameBasedLock;
+		if (locks == null) {
 			synchronized(lazyInitLock) {
-				if (classNameBasedLock == null) {
-					classNameBasedLock = new Hashtable<>();
+				locks = classNameBasedLock;
+				if (locks == null) {
+					locks = new ConcurrentHashMap<>();
+					classNameBasedLock = locks;
 				} 
 			}
 		}
-		synchronized(classNameBasedLock) {
-			// get() does null pointer check
-			ClassNameLockRef wf = classNameBasedLock.get(className);
-			lock = (null != wf) ? wf.get() : null;
-			if (lock == null) {		
-				lock = new ClassNameBasedLock();
-				classNameBasedLock.put(className, new ClassNameLockRef(lock, className, classNameBasedLock));
+		// get() does null pointer check
+		ClassNameLockRef wf = locks.get(className);
+		lock = (null != wf) ? wf.get() : null;
+		while (lock == null) {
+			Object newLock = new ClassNameBasedLock();
+			ClassNameLockRef newRef = new ClassNameLockRef(newLock, className, locks);
+			boolean installed;
+			if (wf == null) {
+				wf = locks.putIfAbsent(className, newRef);
+				installed = (wf == null);
+			} else {
+				/* replace the cleared lock, its pending removal then leaves the new entry alone */
+				installed = locks.replace(className, wf, newRef);
+				if (!installed) {
+					wf = locks.get(className);
+				}
+			}
+			if (installed) {
+				lock = newLock;
+			} else {
+				/* another thread installed a lock first, use it unless it has already been cleared */
+				lock = (null != wf) ? wf.get() : null;
 			}
 		}
 	}
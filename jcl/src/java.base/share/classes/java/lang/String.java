@@ -205,6 +205,16 @@ public final class String implements Serializable, Comparable<String>, CharSeque
 	// Used to access compression related helper methods
 	private static final com.ibm.jit.JITHelpers helpers = com.ibm.jit.JITHelpers.getHelpers();
 
+	// Used by the kernels which scan, compress and decompress the backing arrays a word (8 bytes) at a time
+	private static final Unsafe unsafe = Unsafe.getUnsafe();
+	private static final long BYTE_ARRAY_BASE = Unsafe.ARRAY_BYTE_BASE_OFFSET;
+	private static final long CHAR_ARRAY_BASE = Unsafe.ARRAY_CHAR_BASE_OFFSET;
+
+	// The high bytes of the 4 UTF16 characters in a word, in either byte order
+	private static final long UTF16_HIGH_BYTES = 0xFF00FF00FF00FF00L;
+	// The high bits of the 8 Latin1 characters in a word
+	private static final long LATIN1_HIGH_BITS = 0x8080808080808080L;
+
 	static class StringCompressionFlag implements Serializable {
 		private static final long serialVersionUID = 1346155847239551492L;
 	}
@@ -292,7 +302,17 @@ public final class String implements Serializable, Comparable<String>, CharSeque
 	 *               using the Latin1 encoding; {@code false} otherwise
 	 */
 	static boolean canEncodeAsLatin1(char[] c, int start, int length) {
-		for (int i = start; i < start + length; ++i) {
+		int end = start + length;
+		int i = start;
+		long offset = CHAR_ARRAY_BASE + ((long) start << 1);
+
+		for (; i <= end - 4; i += 4, offset += 8) {
+			if ((unsafe.getLong(c, offset) & UTF16_HIGH_BYTES) != 0) {
+				return false;
+			}
+		}
+
+		for (; i < end; ++i) {
 			if (c[i] > 255) {
 				return false;
 			}
@@ -302,13 +322,17 @@ public final class String implements Serializable, Comparable<String>, CharSeque
 	}
 
 	static void compress(byte[] array1, int start1, byte[] array2, int start2, int length) {
-		for (int i = 0; i < length; ++i) {
+		int i = compressWords(array1, BYTE_ARRAY_BASE + ((long) start1 << 1), array2, start2, length);
+
+		for (; i < length; ++i) {
 			helpers.putByteInArrayByIndex(array2, start2 + i, (byte) helpers.getCharFromArrayByIndex(array1, start1 + i));
 		}
 	}
 
 	static void compress(char[] array1, int start1, byte[] array2, int start2, int length) {
-		for (int i = 0; i < length; ++i) {
+		int i = compressWords(array1, CHAR_ARRAY_BASE + ((long) start1 << 1), array2, start2, length);
+
+		for (; i < length; ++i) {
 			helpers.putByteInArrayByIndex(array2, start2 + i, (byte) helpers.getCharFromArrayByIndex(array1, start1 + i));
 		}
 	}
@@ -326,7 +350,9 @@ public final class String implements Serializable, Comparable<String>, CharSeque
 	}
 
 	static void decompress(byte[] array1, int start1, byte[] array2, int start2, int length) {
-		for (int i = 0; i < length; ++i) {
+		int i = decompressWords(array1, start1, array2, BYTE_ARRAY_BASE + ((long) start2 << 1), length);
+
+		for (; i < length; ++i) {
 			helpers.putCharInArrayByIndex(array2, start2 + i, helpers.byteToCharUnsigned(helpers.getByteFromArrayByIndex(array1, start1 + i)));
 		}
 	}
@@ -338,11 +364,105 @@ public final class String implements Serializable, Comparable<String>, CharSeque
 	}
 
 	static void decompress(byte[] array1, int start1, char[] array2, int start2, int length) {
-		for (int i = 0; i < length; ++i) {
+		int i = decompressWords(array1, start1, array2, CHAR_ARRAY_BASE + ((long) start2 << 1), length);
+
+		for (; i < length; ++i) {
 			helpers.putCharInArrayByIndex(array2, start2 + i, helpers.byteToCharUnsigned(helpers.getByteFromArrayByIndex(array1, start1 + i)));
 		}
 	}
 
+	/**
+	 * Compresses 4 UTF16 characters at a time into Latin1 by keeping the low byte of each character.
+	 *
+	 * @param src       the UTF16 source array, a byte[] or char[]
+	 * @param srcOffset the Unsafe offset of the first character in the source array
+	 * @param dst       the Latin1 destination array
+	 * @param dstIndex  the index of the first byte in the destination array
+	 * @param length    the number of characters to compress
+	 * @return          the number of characters compressed, the rest (less than 4) are left to the caller
+	 */
+	private static int compressWords(Object src, long srcOffset, byte[] dst, int dstIndex, int length) {
+		long dstOffset = BYTE_ARRAY_BASE + dstIndex;
+		int i = 0;
+
+		for (; i <= length - 4; i += 4, srcOffset += 8, dstOffset += 4) {
+			long word = unsafe.getLong(src, srcOffset);
+
+			// The low bytes of the characters are gathered into adjacent bytes, which is correct in either byte order
+			unsafe.putInt(dst, dstOffset, (int) ((word & 0xFFL) | ((word >>> 8) & 0xFF00L) | ((word >>> 16) & 0xFF0000L) | ((word >>> 24) & 0xFF000000L)));
+		}
+
+		return i;
+	}
+
+	/**
+	 * Decompresses 4 Latin1 characters at a time into UTF16 by zero extending each byte.
+	 *
+	 * @param src       the Latin1 source array
+	 * @param srcIndex  the index of the first byte in the source array
+	 * @param dst       the UTF16 destination array, a byte[] or char[]
+	 * @param dstOffset the Unsafe offset of the first character in the destination array
+	 * @param length    the number of characters to decompress
+	 * @return          the number of characters decompressed, the rest (less than 4) are left to the caller
+	 */
+	private static int decompressWords(byte[] src, int srcIndex, Object dst, long dstOffset, int length) {
+		long srcOffset = BYTE_ARRAY_BASE + srcIndex;
+		int i = 0;
+
+		for (; i <= length - 4; i += 4, srcOffset += 4, dstOffset += 8) {
+			long bytes = unsafe.getInt(src, srcOffset) & 0xFFFFFFFFL;
+
+			// The inverse of compressWords(), each byte moves to the low byte of its character
+			unsafe.putLong(dst, dstOffset, (bytes & 0xFFL) | ((bytes & 0xFF00L) << 8) | ((bytes & 0xFF0000L) << 16) | ((bytes & 0xFF000000L) << 24));
+		}
+
+		return i;
+	}
+
+	/**
+	 * Answers the index of the first pair of Latin1 words which are not equal ignoring the case of ASCII letters,
+	 * comparing 8 characters at a time. Words containing non-ASCII characters are not folded.
+	 *
+	 * @param s1Value the first Latin1 array
+	 * @param s2Value the second Latin1 array
+	 * @param length  the number of characters to compare
+	 * @return        the index of the first character of the first word which differs, or the index after the last
+	 *                whole word compared; the caller compares from there
+	 */
+	private static int regionMatchesIgnoreCaseWords(byte[] s1Value, byte[] s2Value, int length) {
+		long offset = BYTE_ARRAY_BASE;
+		int i = 0;
+
+		for (; i <= length - 8; i += 8, offset += 8) {
+			long word1 = unsafe.getLong(s1Value, offset);
+			long word2 = unsafe.getLong(s2Value, offset);
+
+			if (word1 != word2) {
+				if (((word1 | word2) & LATIN1_HIGH_BITS) != 0) {
+					break;
+				}
+				if (toLowerCaseASCII(word1) != toLowerCaseASCII(word2)) {
+					break;
+				}
+			}
+		}
+
+		return i;
+	}
+
+	/**
+	 * Converts the upper case letters in a word of 8 ASCII characters to lower case.
+	 */
+	private static long toLowerCaseASCII(long word) {
+		// For ASCII bytes the additions cannot carry into the next byte, and set the high bit of
+		// the bytes which are >= 'A' and >= 'Z' + 1 respectively
+		long atLeastA = word + 0x3F3F3F3F3F3F3F3FL;
+		long aboveZ = word + 0x2525252525252525L;
+		long upper = atLeastA & ~aboveZ & LATIN1_HIGH_BITS;
+
+		return word | (upper >>> 2);
+	}
+
 	static void decompress(char[] array1, int start1, char[] array2, int start2, int length) {
 		for (int i = 0; i < length; ++i) {
 			helpers.putCharInArrayByIndex(array2, start2 + i, helpers.byteToCharUnsigned(helpers.getByteFromArrayByIndex(array1, start1 + i)));
@@ -1819,6 +1939,9 @@ public final class String implements Serializable, Comparable<String>, CharSeque
 				return false;
 			}
 
+			// Skip the leading words which match, the remaining characters are compared one at a time
+			o1 = o2 = regionMatchesIgnoreCaseWords(s1Value, s2Value, end - 1);
+
 			while (o1 < end - 1) {
 				byte byteAtO1 = helpers.getByteFromArrayByIndex(s1Value, o1++);
 				byte byteAtO2 = helpers.getByteFromArrayByIndex(s2Value, o2++);
@@ -2011,8 +2134,18 @@ public final class String implements Serializable, Comparable<String>, CharSeque
 
 	private static int hashCodeImplCompressed(byte[] value, int offset, int count) {
 		int hash = 0, end = offset + count;
+		int i = offset;
 
-		for (int i = offset; i < end; ++i) {
+		// 4 characters at a time: hash * 31^4 + c0 * 31^3 + c1 * 31^2 + c2 * 31 + c3
+		for (; i <= end - 4; i += 4) {
+			hash = (hash * 923521)
+					+ (helpers.byteToCharUnsigned(helpers.getByteFromArrayByIndex(value, i)) * 29791)
+					+ (helpers.byteToCharUnsigned(helpers.getByteFromArrayByIndex(value, i + 1)) * 961)
+					+ (helpers.byteToCharUnsigned(helpers.getByteFromArrayByIndex(value, i + 2)) * 31)
+					+ helpers.byteToCharUnsigned(helpers.getByteFromArrayByIndex(value, i + 3));
+		}
+
+		for (; i < end; ++i) {
 			hash = (hash << 5) - hash + helpers.byteToCharUnsigned(helpers.getByteFromArrayByIndex(value, i));
 		}
 
@@ -2021,8 +2154,18 @@ public final class String implements Serializable, Comparable<String>, CharSeque
 
 	private static int hashCodeImplDecompressed(byte[] value, int offset, int count) {
 		int hash = 0, end = offset + count;
+		int i = offset;
 
-		for (int i = offset; i < end; ++i) {
+		// 4 characters at a time: hash * 31^4 + c0 * 31^3 + c1 * 31^2 + c2 * 31 + c3
+		for (; i <= end - 4; i += 4) {
+			hash = (hash * 923521)
+					+ (helpers.getCharFromArrayByIndex(value, i) * 29791)
+					+ (helpers.getCharFromArrayByIndex(value, i + 1) * 961)
+					+ (helpers.getCharFromArrayByIndex(value, i + 2) * 31)
+					+ helpers.getCharFromArrayByIndex(value, i + 3);
+		}
+
+		for (; i < end; ++i) {
 			hash = (hash << 5) - hash + helpers.getCharFromArrayByIndex(value, i);
 		}
 
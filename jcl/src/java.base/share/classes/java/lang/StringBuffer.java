@@ -415,7 +415,9 @@ public synchronized StringBuffer append(char ch) {
  * @return		this StringBuffer
  */
 public StringBuffer append (double value) {
-	return append (String.valueOf (value));
+	// Formats into a thread local buffer which is appended, without creating a String
+	sun.misc.FloatingDecimal.appendTo(value, this);
+	return this;
 }
 
 /**
@@ -426,7 +428,9 @@ public StringBuffer append (double value) {
  * @return		this StringBuffer
  */
 public StringBuffer append (float value) {
-	return append (String.valueOf (value));
+	// Formats into a thread local buffer which is appended, without creating a String
+	sun.misc.FloatingDecimal.appendTo(value, this);
+	return this;
 }
 
 /**
@@ -438,30 +442,33 @@ public StringBuffer append (float value) {
  */
 public synchronized StringBuffer append(int value) {
 	if (value != Integer.MIN_VALUE) {
-		if (String.COMPACT_STRINGS && count >= 0) {
-			return append(Integer.toString(value));
+		int currentLength = lengthInternalUnsynchronized();
+		int currentCapacity = capacityInternal();
+
+		int valueLength;
+		if (value < 0) {
+			/* stringSize can't handle negative numbers in Java 8 */
+			valueLength = Integer.stringSize(-value) + 1;
 		} else {
-			int currentLength = lengthInternalUnsynchronized();
-			int currentCapacity = capacityInternal();
+			valueLength = Integer.stringSize(value);
+		}
 
-			int valueLength;
-			if (value < 0) {
-				/* stringSize can't handle negative numbers in Java 8 */
-				valueLength = Integer.stringSize(-value) + 1;
-			} else {
-				valueLength = Integer.stringSize(value);
-			}
+		int newLength = currentLength + valueLength;
+		if (newLength < 0) {
+			/*[MSG "K0D01", "Array capacity exceeded"]*/
+			throw new OutOfMemoryError(com.ibm.oti.util.Msg.getString("K0D01")); //$NON-NLS-1$
+		}
 
-			int newLength = currentLength + valueLength;
-			if (newLength < 0) {
-				/*[MSG "K0D01", "Array capacity exceeded"]*/
-				throw new OutOfMemoryError(com.ibm.oti.util.Msg.getString("K0D01")); //$NON-NLS-1$
-			}
+		if (newLength > currentCapacity) {
+			ensureCapacityImpl(newLength);
+		}
 
-			if (newLength > currentCapacity) {
-				ensureCapacityImpl(newLength);
-			}
+		// Check if the StringBuffer is compressed
+		if (String.COMPACT_STRINGS && count >= 0) {
+			putDigitsCompressed(value, newLength, this.value);
 
+			count = newLength;
+		} else {
 			Integer.getChars(value, newLength, this.value);
 
 			if (String.COMPACT_STRINGS) {
@@ -469,9 +476,9 @@ public synchronized StringBuffer append(int value) {
 			} else {
 				count = newLength;
 			}
-
-			return this;
 		}
+
+		return this;
 	} else {
 		// Append Integer.MIN_VALUE as a String
 		return append("-2147483648"); //$NON-NLS-1$
@@ -487,30 +494,33 @@ public synchronized StringBuffer append(int value) {
  */
 public synchronized StringBuffer append(long value) {
 	if (value != Long.MIN_VALUE) {
-		if (String.COMPACT_STRINGS && count >= 0) {
-			return append(Long.toString(value));
+		int currentLength = lengthInternalUnsynchronized();
+		int currentCapacity = capacityInternal();
+
+		int valueLength;
+		if (value < 0) {
+			/* stringSize can't handle negative numbers in Java 8 */
+			valueLength = Long.stringSize(-value) + 1;
 		} else {
-			int currentLength = lengthInternalUnsynchronized();
-			int currentCapacity = capacityInternal();
+			valueLength = Long.stringSize(value);
+		}
 
-			int valueLength;
-			if (value < 0) {
-				/* stringSize can't handle negative numbers in Java 8 */
-				valueLength = Long.stringSize(-value) + 1;
-			} else {
-				valueLength = Long.stringSize(value);
-			}
+		int newLength = currentLength + valueLength;
+		if (newLength < 0) {
+			/*[MSG "K0D01", "Array capacity exceeded"]*/
+			throw new OutOfMemoryError(com.ibm.oti.util.Msg.getString("K0D01")); //$NON-NLS-1$
+		}
 
-			int newLength = currentLength + valueLength;
-			if (newLength < 0) {
-				/*[MSG "K0D01", "Array capacity exceeded"]*/
-				throw new OutOfMemoryError(com.ibm.oti.util.Msg.getString("K0D01")); //$NON-NLS-1$
-			}
+		if (newLength > currentCapacity) {
+			ensureCapacityImpl(newLength);
+		}
 
-			if (newLength > currentCapacity) {
-				ensureCapacityImpl(newLength);
-			}
+		// Check if the StringBuffer is compressed
+		if (String.COMPACT_STRINGS && count >= 0) {
+			putDigitsCompressed(value, newLength, this.value);
 
+			count = newLength;
+		} else {
 			Long.getChars(value, newLength, this.value);
 
 			if (String.COMPACT_STRINGS) {
@@ -518,15 +528,81 @@ public synchronized StringBuffer append(long value) {
 			} else {
 				count = newLength;
 			}
-
-			return this;
 		}
+
+		return this;
 	} else {
 		// Append Long.MIN_VALUE as a String
 		return append("-9223372036854775808"); //$NON-NLS-1$
 	}
 }
 
+/**
+ * Writes the decimal digits of value into a compressed buffer, ending before the
+ * specified index, without creating a String. value must not be Integer.MIN_VALUE.
+ *
+ * @param		value	the integer
+ * @param		end		the index after the last digit
+ * @param		buffer	the compressed buffer
+ */
+private static void putDigitsCompressed(int value, int end, char[] buffer) {
+	// Use negative values, like String, so the digits of any negative value can be computed
+	int quot = value <= 0 ? value : -value;
+	int index = end - 1;
+
+	do {
+		int res = quot / 10;
+		int rem = quot - (res * 10);
+
+		quot = res;
+
+		// Write the digit into the correct position
+		helpers.putByteInArrayByIndex(buffer, index--, (byte) ('0' - rem));
+	} while (quot != 0);
+
+	if (value < 0) {
+		helpers.putByteInArrayByIndex(buffer, index, (byte) '-');
+	}
+}
+
+/**
+ * Writes the decimal digits of value into a compressed buffer, ending before the
+ * specified index, without creating a String. value must not be Long.MIN_VALUE.
+ *
+ * @param		value	the long
+ * @param		end		the index after the last digit
+ * @param		buffer	the compressed buffer
+ */
+private static void putDigitsCompressed(long value, int end, char[] buffer) {
+	long quot = value <= 0 ? value : -value;
+	int index = end - 1;
+
+	// Reduce to an int as soon as possible, int division is cheaper
+	while (quot < Integer.MIN_VALUE) {
+		long res = quot / 10;
+		int rem = (int) (quot - (res * 10));
+
+		quot = res;
+
+		helpers.putByteInArrayByIndex(buffer, index--, (byte) ('0' - rem));
+	}
+
+	int intQuot = (int) quot;
+
+	do {
+		int res = intQuot / 10;
+		int rem = intQuot - (res * 10);
+
+		intQuot = res;
+
+		helpers.putByteInArrayByIndex(buffer, index--, (byte) ('0' - rem));
+	} while (intQuot != 0);
+
+	if (value < 0) {
+		helpers.putByteInArrayByIndex(buffer, index, (byte) '-');
+	}
+}
+
 /**
  * Adds the string representation of the specified object to the
  * end of this StringBuffer.
@@ -796,13 +872,14 @@ private void ensureCapacityImpl(int min) {
 	if (String.COMPACT_STRINGS && count >= 0) {
 		char[] newData = new char[(newLength + 1) >>> 1];
 		
-		String.compressedArrayCopy(value, 0, newData, 0, currentLength);
+		// Copy whole chars, each holds 2 compressed characters
+		System.arraycopy(value, 0, newData, 0, (currentLength + 1) >>> 1);
 		
 		value = newData;
 	} else {
 		char[] newData = new char[newLength];
 		
-		String.decompressedArrayCopy(value, 0, newData, 0, currentLength);
+		System.arraycopy(value, 0, newData, 0, currentLength);
 		value = newData;
 	}
 	
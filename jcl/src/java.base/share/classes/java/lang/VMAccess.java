@@ -133,6 +133,14 @@ final class VMAccess implements VMLangAccess {
 	public java.lang.Object setMethodHandleCache(java.lang.Class<?> clazz, java.lang.Object object) {
 		return clazz.setMethodHandleCache(object);
 	}
+
+	/**
+	 * Returns the counters of the reflection cache.
+	 */
+	@Override
+	public java.util.Map<String, Long> getReflectCacheStatistics() {
+		return Class.getReflectCacheStatistics();
+	}
 	
 	/**
 	 * Returns a {@code java.util.Map} from method descriptor string to the equivalent {@code MethodType} as generated by {@code MethodType.fromMethodDescriptorString}.
@@ -226,6 +234,21 @@ final class VMAccess implements VMLangAccess {
 		J9VMInternals.prepare(theClass);
 	}
 
+	@Override
+	public ClassLoader[] getContendedClassLoaders() {
+		return ClassLoader.getContendedClassLoaders();
+	}
+
+	@Override
+	public long getClassLoadingLockWaitTime(ClassLoader loader) {
+		return loader.getClassLoadingLockWaitTime();
+	}
+
+	@Override
+	public long getClassLoadingLockWaitCount(ClassLoader loader) {
+		return loader.getClassLoadingLockWaitCount();
+	}
+
 	/*[IF JAVA_SPEC_VERSION >= 11]*/
 	/**
 	 * Returns whether the classloader name should be included in the stack trace for the provided StackTraceElement.
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar19-SE & !OPENJDK_METHODHANDLES]*/
 /*******************************************************************************
- * Copyright (c) 2016, 2020 IBM Corp. and others
+ * Copyright (c) 2016, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -26,13 +26,19 @@ import static java.lang.invoke.ByteArrayViewVarHandle.ByteArrayViewVarHandleOper
 import static java.lang.invoke.MethodType.methodType;
 
 import java.nio.ByteOrder;
+import java.util.HashMap;
 import jdk.internal.misc.Unsafe;
 
 final class ByteArrayViewVarHandle extends ViewVarHandle {
 	private final static Class<?>[] COORDINATE_TYPES = new Class<?>[] {byte[].class, int.class};
+
+	/* A handle table holds no per-VarHandle state, so the table for a view type
+	 * and byte order is looked up once and shared by every VarHandle created for them.
+	 */
+	private final static HashMap<Class<?>, MethodHandle[]> handleTables = new HashMap<>();
 	
 	/**
-	 * Populates the static MethodHandle[] corresponding to the provided type. 
+	 * Answers the shared MethodHandle[] corresponding to the provided type, populating it on first use.
 	 * 
 	 * @param type The type to create MethodHandles for.
 	 * @return The populated MethodHandle[].
@@ -58,14 +64,20 @@ final class ByteArrayViewVarHandle extends ViewVarHandle {
 			throw new UnsupportedOperationException(com.ibm.oti.util.Msg.getString("K0624", type)); //$NON-NLS-1$
 		}
 		
-		MethodType getter = methodType(type, byte[].class, int.class, VarHandle.class);
-		MethodType setter = methodType(void.class, byte[].class, int.class, type, VarHandle.class);
-		MethodType compareAndSet = methodType(boolean.class, byte[].class, int.class, type, type, VarHandle.class);
-		MethodType compareAndExchange = compareAndSet.changeReturnType(type);
-		MethodType getAndSet = setter.changeReturnType(type);
-		MethodType[] lookupTypes = populateMTs(getter, setter, compareAndSet, compareAndExchange, getAndSet);
-		
-		return populateMHs(operationsClass, lookupTypes, lookupTypes);
+		synchronized (handleTables) {
+			MethodHandle[] handleTable = handleTables.get(operationsClass);
+			if (null == handleTable) {
+				MethodType getter = methodType(type, byte[].class, int.class, VarHandle.class);
+				MethodType setter = methodType(void.class, byte[].class, int.class, type, VarHandle.class);
+				MethodType compareAndSet = methodType(boolean.class, byte[].class, int.class, type, type, VarHandle.class);
+				MethodType compareAndExchange = compareAndSet.changeReturnType(type);
+				MethodType getAndSet = setter.changeReturnType(type);
+				MethodType[] lookupTypes = populateMTs(getter, setter, compareAndSet, compareAndExchange, getAndSet);
+				handleTable = populateMHs(operationsClass, lookupTypes, lookupTypes);
+				handleTables.put(operationsClass, handleTable);
+			}
+			return handleTable;
+		}
 	}
 	
 	/**
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar19-SE & !OPENJDK_METHODHANDLES]*/
 /*******************************************************************************
- * Copyright (c) 2016, 2020 IBM Corp. and others
+ * Copyright (c) 2016, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -23,20 +23,26 @@
 package java.lang.invoke;
 
 import static java.lang.invoke.ByteBufferViewVarHandle.ByteBufferViewVarHandleOperations.*;
-import static java.lang.invoke.MethodHandles.Lookup.IMPL_LOOKUP;
 import static java.lang.invoke.MethodType.methodType;
 
 import com.ibm.oti.util.Msg;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.ReadOnlyBufferException;
+import java.util.HashMap;
 import jdk.internal.misc.Unsafe;
 
 final class ByteBufferViewVarHandle extends ViewVarHandle {
 	private final static Class<?>[] COORDINATE_TYPES = new Class<?>[] {ByteBuffer.class, int.class};
+
+	/* A handle table holds no per-VarHandle state, so the table for a view type
+	 * and byte order is looked up once and shared by every VarHandle created for them.
+	 */
+	private final static HashMap<Class<?>, MethodHandle[]> handleTables = new HashMap<>();
 	
 	/**
-	 * Populates the static MethodHandle[] corresponding to the provided type. 
+	 * Answers the shared MethodHandle[] corresponding to the provided type, populating it on first use.
 	 * 
 	 * @param type The type to create MethodHandles for.
 	 * @param byteOrder The byteOrder of the ByteBuffer(s) that will be used.
@@ -45,7 +51,6 @@ final class ByteBufferViewVarHandle extends ViewVarHandle {
 	static final MethodHandle[] populateMHs(Class<?> type, ByteOrder byteOrder) {
 		Class<? extends ByteBufferViewVarHandleOperations> operationsClass = null;
 		boolean convertEndian = (byteOrder != ByteOrder.nativeOrder());
-		
 		if (int.class == type) {
 			operationsClass = convertEndian ? OpIntConvertEndian.class : OpInt.class;
 		} else if (long.class == type) {
@@ -63,14 +68,20 @@ final class ByteBufferViewVarHandle extends ViewVarHandle {
 			throw new UnsupportedOperationException(com.ibm.oti.util.Msg.getString("K0624", type)); //$NON-NLS-1$
 		}
 		
-		MethodType getter = methodType(type, ByteBuffer.class, int.class, VarHandle.class);
-		MethodType setter = methodType(void.class, ByteBuffer.class, int.class, type, VarHandle.class);
-		MethodType compareAndSet = methodType(boolean.class, ByteBuffer.class, int.class, type, type, VarHandle.class);
-		MethodType compareAndExchange = compareAndSet.changeReturnType(type);
-		MethodType getAndSet = setter.changeReturnType(type);
-		MethodType[] lookupTypes = populateMTs(getter, setter, compareAndSet, compareAndExchange, getAndSet);
-		
-		return populateMHs(operationsClass, lookupTypes, lookupTypes);
+		synchronized (handleTables) {
+			MethodHandle[] handleTable = handleTables.get(operationsClass);
+			if (null == handleTable) {
+				MethodType getter = methodType(type, ByteBuffer.class, int.class, VarHandle.class);
+				MethodType setter = methodType(void.class, ByteBuffer.class, int.class, type, VarHandle.class);
+				MethodType compareAndSet = methodType(boolean.class, ByteBuffer.class, int.class, type, type, VarHandle.class);
+				MethodType compareAndExchange = compareAndSet.changeReturnType(type);
+				MethodType getAndSet = setter.changeReturnType(type);
+				MethodType[] lookupTypes = populateMTs(getter, setter, compareAndSet, compareAndExchange, getAndSet);
+				handleTable = populateMHs(operationsClass, lookupTypes, lookupTypes);
+				handleTables.put(operationsClass, handleTable);
+			}
+			return handleTable;
+		}
 	}
 	
 	/**
@@ -92,68 +103,31 @@ final class ByteBufferViewVarHandle extends ViewVarHandle {
 		 * A ByteBuffer may be on-heap or off-heap. On-heap buffers are backed by a byte[], 
 		 * and off-heap buffers have a base memory address. This class abstracts away the
 		 * difference so that a buffer element can simply be referenced by base and offset.
+		 * <p>
+		 * Both kinds of buffer keep the Unsafe offset of their first element in the address
+		 * field: the memory address for direct buffers, the array base offset plus the buffer
+		 * offset for heap buffers, whose backing array is held in the hb field. Reading those
+		 * two fields resolves an element the same way for both, without any dispatch.
 		 */
 		private static class BufferElement {
-			private static final int INDEX_OFFSET = Unsafe.ARRAY_BYTE_BASE_OFFSET;
-			private static final MethodHandle directBufferAddressMH;
-			private static final MethodHandle onHeapBufferArrayMH;
-			private static final MethodHandle bufferOffsetMH;
-			
+			private static final long BUFFER_ADDRESS_OFFSET;
+			private static final long BUFFER_ARRAY_OFFSET;
+
 			final Object base;
 			final long offset;
-			
+
 			static {
-				MethodHandle addressMH = null;
-				MethodHandle arrayMH = null;
-				MethodHandle offsetMH = null;
-				try {
-					addressMH = IMPL_LOOKUP.findGetter(ByteBuffer.class, "address", long.class);
-					arrayMH = IMPL_LOOKUP.findGetter(ByteBuffer.class, "hb", byte[].class);
-					offsetMH = IMPL_LOOKUP.findGetter(ByteBuffer.class, "offset", int.class);
-				} catch (Throwable t) {
-					throw new InternalError("Could not create MethodHandles for ByteBuffer fields", t);
-				}
-				directBufferAddressMH = addressMH;
-				onHeapBufferArrayMH = arrayMH;
-				bufferOffsetMH = offsetMH;
-			}
-			
-			BufferElement(ByteBuffer buffer, int viewTypeSize, int index) {
-				if (buffer.isDirect()) {
-					this.base = null;
-					this.offset = computeAddress(buffer, index, viewTypeSize);
-				} else {
-					this.base = getArray(buffer);
-					this.offset = computeOffset(buffer, index, viewTypeSize);
-				}
-			}
-			
-			private final byte[] getArray(ByteBuffer buffer) {
-				try {
-					return (byte[])onHeapBufferArrayMH.invokeExact(buffer);
-				} catch (Throwable e) {
-					throw new InternalError("Could not get ByteBuffer backing array", e);
-				}
-			}
-			
-			private static final long computeOffset(ByteBuffer buffer, int index, int viewTypeSize) {
-				int arrayOffset = 0;
 				try {
-					arrayOffset = (int)bufferOffsetMH.invokeExact(buffer);
-				} catch (Throwable e) {
-					throw new InternalError("Could not get ByteBuffer offset", e);
+					BUFFER_ADDRESS_OFFSET = _unsafe.objectFieldOffset(Buffer.class.getDeclaredField("address")); //$NON-NLS-1$
+					BUFFER_ARRAY_OFFSET = _unsafe.objectFieldOffset(ByteBuffer.class.getDeclaredField("hb")); //$NON-NLS-1$
+				} catch (NoSuchFieldException e) {
+					throw new InternalError("Could not find ByteBuffer fields", e); //$NON-NLS-1$
 				}
-				return (long)INDEX_OFFSET + arrayOffset + index;
 			}
-			
-			private static final long computeAddress(ByteBuffer buffer, int index, int viewTypeSize) {
-				long base = 0;
-				try {
-					base = (long)directBufferAddressMH.invokeExact(buffer);
-				} catch (Throwable e) {
-					throw new InternalError("Could not get ByteBuffer address", e);
-				}
-				return (long)base + index;
+
+			BufferElement(ByteBuffer buffer, int index) {
+				this.base = _unsafe.getObject(buffer, BUFFER_ARRAY_OFFSET);
+				this.offset = _unsafe.getLong(buffer, BUFFER_ADDRESS_OFFSET) + index;
 			}
 		}
 
@@ -163,7 +137,7 @@ final class ByteBufferViewVarHandle extends ViewVarHandle {
 			if ((!readOnlyOperation) && receiver.isReadOnly()) {
 				throw new ReadOnlyBufferException();
 			}
-			BufferElement be = new BufferElement(receiver, viewTypeSize, index);
+			BufferElement be = new BufferElement(receiver, index);
 			alignmentCheck(be.offset, viewTypeSize, allowUnaligned);
 			return be;
 		}
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar17 & !OPENJDK_METHODHANDLES]*/
 /*******************************************************************************
- * Copyright (c) 2010, 2020 IBM Corp. and others
+ * Copyright (c) 2010, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -23,20 +23,109 @@
 package java.lang.invoke;
 
 import java.lang.ref.WeakReference;
-import java.util.Collections;
-import java.util.Map;
-import java.util.WeakHashMap;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.ibm.oti.vm.MethodHandleCacheAccess;
+import com.ibm.oti.vm.VM;
+
+/*[IF Sidecar19-SE]
+import jdk.internal.ref.Cleaner;
+/*[ELSE]*/
+import sun.misc.Cleaner;
+/*[ENDIF]*/
 
 /*
  * ClassValue based Cache for mapping from a Class to its perClassCache.
  */
-final class Cache extends ClassValue<Map<CacheKey, WeakReference<MethodHandle>>> {
+final class Cache extends ClassValue<PerClassCache> {
+	final String name;
+	/* only updated when statistics are enabled */
+	final LongAdder hits = new LongAdder();
+	final LongAdder misses = new LongAdder();
+	/* handles in all the per-class caches, including collected handles whose entries have not been removed yet */
+	final LongAdder entries = new LongAdder();
+
+	Cache(String name) {
+		this.name = name;
+	}
+
 	@Override
-	protected Map<CacheKey, WeakReference<MethodHandle>> computeValue(Class<?> arg0) {
-		return Collections.synchronizedMap(new WeakHashMap<CacheKey, WeakReference<MethodHandle>>());
+	protected PerClassCache computeValue(Class<?> arg0) {
+		return new PerClassCache(this);
 	}	
 }
 
+/*
+ * The MethodHandles cached for a single class. Lookups don't lock. The handles are only weakly
+ * referenced, and a Cleaner removes the entry for each handle once it has been collected.
+ */
+final class PerClassCache {
+	final Cache owner;
+	private final ConcurrentHashMap<CacheKey, HandleReference> handles = new ConcurrentHashMap<CacheKey, HandleReference>();
+
+	PerClassCache(Cache owner) {
+		this.owner = owner;
+	}
+
+	MethodHandle get(CacheKey key) {
+		HandleReference handleRef = handles.get(key);
+		MethodHandle handle = null;
+		if (handleRef != null) {
+			handle = handleRef.get();
+		}
+		if (HandleCache.collectStatistics) {
+			if (handle != null) {
+				owner.hits.increment();
+			} else {
+				owner.misses.increment();
+			}
+		}
+		return handle;
+	}
+
+	void put(CacheKey key, MethodHandle handle) {
+		HandleReference handleRef = new HandleReference(handle, this, key);
+		if (handles.put(key, handleRef) == null) {
+			owner.entries.increment();
+		}
+		Cleaner.create(handle, handleRef);
+	}
+
+	void remove(HandleReference handleRef) {
+		if (handles.remove(handleRef.key, handleRef)) {
+			owner.entries.decrement();
+		}
+	}
+
+	int size() {
+		return handles.size();
+	}
+}
+
+/*
+ * A weak reference to a cached MethodHandle. It is also the Cleaner action for the handle, which
+ * the reference handler runs once the handle has been collected, so the entry and the classes its
+ * key refers to are released without waiting for another lookup.
+ */
+final class HandleReference extends WeakReference<MethodHandle> implements Runnable {
+	final PerClassCache cache;
+	final CacheKey key;
+
+	HandleReference(MethodHandle handle, PerClassCache cache, CacheKey key) {
+		super(handle);
+		this.cache = cache;
+		this.key = key;
+	}
+
+	@Override
+	public void run() {
+		cache.remove(this);
+	}
+}
+
 /* Cache key for mapping the methodName and MethodType to the actual MethodHandle */
 final class MethodCacheKey extends CacheKey {
 	private final MethodType type;
@@ -109,88 +198,122 @@ final class FieldCacheKey extends CacheKey {
  * findConstructor
  */
 final class HandleCache {
-	private static final Cache findVirtualCache = new Cache();
-	private static final Cache findStaticCache = new Cache();
-	private static final Cache findSpecialCache = new Cache();
-	private static final Cache findConstructorCache = new Cache();
-	private static final Cache staticFieldSetterCache = new Cache();
-	private static final Cache staticFieldGetterCache = new Cache();
-	private static final Cache fieldSetterCache = new Cache();
-	private static final Cache fieldGetterCache = new Cache();
-
-	static Map<CacheKey, WeakReference<MethodHandle>> getVirtualCache(Class<?> c) {
+	/* Hit and miss counting, enabled by -Dcom.ibm.jsr292.handleCacheStatistics=true or through the MethodHandleCache bean */
+	static volatile boolean collectStatistics = AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
+		public Boolean run() {
+			return Boolean.valueOf(Boolean.getBoolean("com.ibm.jsr292.handleCacheStatistics")); //$NON-NLS-1$
+		}
+	}).booleanValue();
+
+	private static final Cache findVirtualCache = new Cache("findVirtual"); //$NON-NLS-1$
+	private static final Cache findStaticCache = new Cache("findStatic"); //$NON-NLS-1$
+	private static final Cache findSpecialCache = new Cache("findSpecial"); //$NON-NLS-1$
+	private static final Cache findConstructorCache = new Cache("findConstructor"); //$NON-NLS-1$
+	private static final Cache staticFieldSetterCache = new Cache("findStaticSetter"); //$NON-NLS-1$
+	private static final Cache staticFieldGetterCache = new Cache("findStaticGetter"); //$NON-NLS-1$
+	private static final Cache fieldSetterCache = new Cache("findSetter"); //$NON-NLS-1$
+	private static final Cache fieldGetterCache = new Cache("findGetter"); //$NON-NLS-1$
+
+	private static final Cache caches[] = { findVirtualCache, findStaticCache, findSpecialCache, findConstructorCache,
+			fieldGetterCache, fieldSetterCache, staticFieldGetterCache, staticFieldSetterCache };
+
+	static {
+		VM.setMethodHandleCacheAccess(new MethodHandleCacheAccess() {
+			public String[] getCacheNames() {
+				String[] names = new String[caches.length];
+				for (int i = 0; i < caches.length; i++) {
+					names[i] = caches[i].name;
+				}
+				return names;
+			}
+			public long getHitCount(String cacheName) {
+				return getCache(cacheName).hits.sum();
+			}
+			public long getMissCount(String cacheName) {
+				return getCache(cacheName).misses.sum();
+			}
+			public long getEntryCount(String cacheName) {
+				return getCache(cacheName).entries.sum();
+			}
+			public boolean isStatisticsEnabled() {
+				return collectStatistics;
+			}
+			public void setStatisticsEnabled(boolean enabled) {
+				collectStatistics = enabled;
+			}
+		});
+	}
+
+	private static Cache getCache(String cacheName) {
+		for (Cache cache : caches) {
+			if (cache.name.equals(cacheName)) {
+				return cache;
+			}
+		}
+		throw new IllegalArgumentException(cacheName);
+	}
+
+	static PerClassCache getVirtualCache(Class<?> c) {
 		return findVirtualCache.get(c);
 	}
-	static Map<CacheKey, WeakReference<MethodHandle>> getStaticCache(Class<?> c) {
+	static PerClassCache getStaticCache(Class<?> c) {
 		return findStaticCache.get(c);
 	}
-	static Map<CacheKey, WeakReference<MethodHandle>> getSpecialCache(Class<?> c) {
+	static PerClassCache getSpecialCache(Class<?> c) {
 		return findSpecialCache.get(c);
 	}
-	static Map<CacheKey, WeakReference<MethodHandle>> getConstructorCache(Class<?> c) {
+	static PerClassCache getConstructorCache(Class<?> c) {
 		return findConstructorCache.get(c);
 	}
-	static Map<CacheKey, WeakReference<MethodHandle>> getFieldSetterCache(Class<?> c) {
+	static PerClassCache getFieldSetterCache(Class<?> c) {
 		return fieldSetterCache.get(c);
 	}
-	static Map<CacheKey, WeakReference<MethodHandle>> getFieldGetterCache(Class<?> c) {
+	static PerClassCache getFieldGetterCache(Class<?> c) {
 		return fieldGetterCache.get(c);
 	}
-	static Map<CacheKey, WeakReference<MethodHandle>> getStaticFieldSetterCache(Class<?> c) {
+	static PerClassCache getStaticFieldSetterCache(Class<?> c) {
 		return staticFieldSetterCache.get(c);
 	}
-	static Map<CacheKey, WeakReference<MethodHandle>> getStaticFieldGetterCache(Class<?> c) {
+	static PerClassCache getStaticFieldGetterCache(Class<?> c) {
 		return staticFieldGetterCache.get(c);
 	}
 
 	/* Search the 'perClassCache' returned by one of the 'get{Virtual|Static|Special|Constructor}Cache(Class)' methods
 	 * for the MethodHandle with matching name and type.
 	 */
-	public static MethodHandle getMethodFromPerClassCache(Map<CacheKey, WeakReference<MethodHandle>> perClassCache, String name, MethodType type) {
+	public static MethodHandle getMethodFromPerClassCache(PerClassCache perClassCache, String name, MethodType type) {
 		return getMethodWithSpecialCallerFromPerClassCache(perClassCache, name, type, null);
 	}
 	
-	public static MethodHandle getMethodWithSpecialCallerFromPerClassCache(Map<CacheKey, WeakReference<MethodHandle>> perClassCache, String name, MethodType type, Class<?> specialCaller) {
-		WeakReference<MethodHandle> handleRef = perClassCache.get(new MethodCacheKey(name, type, specialCaller));
-		if (handleRef != null) {
-			return handleRef.get();
-		}
-		return null;
+	public static MethodHandle getMethodWithSpecialCallerFromPerClassCache(PerClassCache perClassCache, String name, MethodType type, Class<?> specialCaller) {
+		return perClassCache.get(new MethodCacheKey(name, type, specialCaller));
 	}
 	
-	public static MethodHandle getFieldFromPerClassCache(Map<CacheKey, WeakReference<MethodHandle>> perClassCache, String name, Class<?> fieldType) {
-		WeakReference<MethodHandle> handleRef = perClassCache.get(new FieldCacheKey(name, fieldType));
-		if (handleRef != null) {
-			return handleRef.get();
-		}
-		return null;
+	public static MethodHandle getFieldFromPerClassCache(PerClassCache perClassCache, String name, Class<?> fieldType) {
+		return perClassCache.get(new FieldCacheKey(name, fieldType));
 	}
 
 	/* Update the cache to hold the <Name, Type> -> MethodHandle mapping */
-	public static MethodHandle putMethodInPerClassCache(Map<CacheKey, WeakReference<MethodHandle>> perClassCache, String name, MethodType type, MethodHandle handle) {
+	public static MethodHandle putMethodInPerClassCache(PerClassCache perClassCache, String name, MethodType type, MethodHandle handle) {
 		return putMethodWithSpecialCallerInPerClassCache(perClassCache, name, type, handle, null);
 	}
 	
 	/* Update the cache to hold the <Name, Type, SpecialCaller> -> MethodHandle mapping */
-	public static MethodHandle putMethodWithSpecialCallerInPerClassCache(Map<CacheKey, WeakReference<MethodHandle>> perClassCache, String name, MethodType type, MethodHandle handle, Class<?> specialCaller) {
+	public static MethodHandle putMethodWithSpecialCallerInPerClassCache(PerClassCache perClassCache, String name, MethodType type, MethodHandle handle, Class<?> specialCaller) {
 		return cacheHandle(perClassCache, new MethodCacheKey(name, type, specialCaller), handle);
 	}
 	
 	/* Update the cache to hold the <Name, FieldType> -> MethodHandle mapping */
-	public static MethodHandle putFieldInPerClassCache(Map<CacheKey, WeakReference<MethodHandle>> perClassCache, String fieldName, Class<?> fieldType, MethodHandle handle) {
+	public static MethodHandle putFieldInPerClassCache(PerClassCache perClassCache, String fieldName, Class<?> fieldType, MethodHandle handle) {
 		return cacheHandle(perClassCache, new FieldCacheKey(fieldName, fieldType), handle);
 	}
 	
-	private static MethodHandle cacheHandle(Map<CacheKey, WeakReference<MethodHandle>> perClassCache, CacheKey cacheKey, MethodHandle handle){
-		/* Keep a strong reference to the FieldCacheKey in the MH being cached so that it won't
-		 * be immediately collected.  Uses a WeakHashMap<FieldCacheKey, WeakRef<MH>> to cache.
-		 * Since the MH keeps a strong ref to the FieldCacheKey, as long as the MH is alive
-		 * the Key can't be collected, despite being a weakref.
+	private static MethodHandle cacheHandle(PerClassCache perClassCache, CacheKey cacheKey, MethodHandle handle){
+		/* The cache holds the key strongly and the MethodHandle weakly. Once the handle has been
+		 * collected its Cleaner removes the entry, which releases the key and any classes it refers to.
 		 */
-		handle.cacheKey = cacheKey;
-		perClassCache.put(handle.cacheKey, new WeakReference<MethodHandle>(handle));
+		perClassCache.put(cacheKey, handle);
 		return handle;
 	}
 
 }
-
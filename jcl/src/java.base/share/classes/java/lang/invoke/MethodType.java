@@ -33,7 +33,7 @@ import java.lang.constant.Constable;
 import java.lang.constant.ClassDesc;
 import java.lang.constant.MethodTypeDesc;
 /*[ENDIF] JAVA_SPEC_VERSION >= 12 */
-import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.security.*;
@@ -48,7 +48,7 @@ import java.util.NoSuchElementException;
 import java.util.Optional;
 /*[ENDIF] JAVA_SPEC_VERSION >= 12 */
 import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.ibm.oti.util.Msg;
 import com.ibm.oti.vm.VM;
@@ -80,10 +80,57 @@ public final class MethodType implements Serializable
 	private MethodTypeForm form;
 /*[ENDIF]*/	
 
-	private static Map<MethodType, WeakReference<MethodType>> internTable = Collections.synchronizedMap(new WeakHashMap<MethodType, WeakReference<MethodType>>());
-	// lock object to control insertion of new MTs
-	static final class InternTableAddLock { }
-	private static InternTableAddLock internTableAddLock = new InternTableAddLock();
+	/* The interned MethodTypes. The entries are weak so that MethodTypes that are no longer used can be
+	 * collected. Interned MethodTypes are found by probing with a ProbeKey so no lock is taken.
+	 */
+	private static final ConcurrentHashMap<Object, InternedType> internTable = new ConcurrentHashMap<Object, InternedType>();
+	private static final ReferenceQueue<MethodType> collectedTypes = new ReferenceQueue<MethodType>();
+
+	/* An entry in the internTable, equal to another entry if their MethodTypes are equal */
+	private static final class InternedType extends WeakReference<MethodType> {
+		private final int hash;
+
+		InternedType(MethodType type) {
+			super(type, collectedTypes);
+			hash = type.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object x) {
+			if (this == x) {
+				return true;
+			}
+			if (x instanceof InternedType) {
+				MethodType type = get();
+				return (type != null) && type.equals(((InternedType) x).get());
+			}
+			return false;
+		}
+	}
+
+	/* Key used to look up a MethodType in the internTable without creating a weak reference */
+	private static final class ProbeKey {
+		private final MethodType type;
+
+		ProbeKey(MethodType type) {
+			this.type = type;
+		}
+
+		@Override
+		public int hashCode() {
+			return type.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object x) {
+			return (x instanceof InternedType) && type.equals(((InternedType) x).get());
+		}
+	}
 	
 	@VMCONSTANTPOOL_FIELD
 	final Class<?> rtype;
@@ -624,55 +671,67 @@ public final class MethodType implements Serializable
 			return type;
 		}
 	
-		/* Check for the item under lock to prevent multiple threads from 
-		 * successfully interning the same MethodType.  Use a lock object
-		 * other than the intern table so other threads can continue to
-		 * probe the table without waiting for unrelated MTs to be interned.
+		/* This MethodType hasn't been published so the expensive state can be initialized without
+		 * holding a lock. If another thread interns an equal MethodType first this one is discarded.
 		 */
-		synchronized(internTableAddLock) {
-			type = probeTable();
-			if (type != null) {
-				return type;
-			}
-			
-			int stackSlots = ptypes.length;
-			
-			for(Class<?> c : ptypes) {
-				/*[IF ]*/
-				/* getClass() gets compiled to just a NULLCHK and consumes fewer bytecodes than 'if (c == null) throw ...' */
-				/*[ENDIF]*/
-				c.getClass();	// Implicit nullcheck
-				if ((c == double.class) || (c == long.class)) {
-					stackSlots++;
-				} else if (c == void.class){
-					/*[MSG "K05d9", "invalid parameter: {}"]*/
-					throw new IllegalArgumentException(Msg.getString("K05d9", void.class)); //$NON-NLS-1$
-				}
-			}
-			if (stackSlots > 255) {
-				/*[MSG "K05d8", "MethodType would consume more than 255 argument slots: {0}"]*/
-				throw new IllegalArgumentException(Msg.getString("K05d8", stackSlots)); //$NON-NLS-1$
+		int stackSlots = ptypes.length;
+		
+		for(Class<?> c : ptypes) {
+			/*[IF ]*/
+			/* getClass() gets compiled to just a NULLCHK and consumes fewer bytecodes than 'if (c == null) throw ...' */
+			/*[ENDIF]*/
+			c.getClass();	// Implicit nullcheck
+			if ((c == double.class) || (c == long.class)) {
+				stackSlots++;
+			} else if (c == void.class){
+				/*[MSG "K05d9", "invalid parameter: {}"]*/
+				throw new IllegalArgumentException(Msg.getString("K05d9", void.class)); //$NON-NLS-1$
 			}
-			argSlots = stackSlots;
+		}
+		if (stackSlots > 255) {
+			/*[MSG "K05d8", "MethodType would consume more than 255 argument slots: {0}"]*/
+			throw new IllegalArgumentException(Msg.getString("K05d8", stackSlots)); //$NON-NLS-1$
+		}
+		argSlots = stackSlots;
+
+		/* initialize expensive state */
+		stackDescriptionBits = stackDescriptionBits(ptypes, argSlots);
+		methodDescriptor = createMethodDescriptorString();
 
-			/* initialize expensive state */
-			stackDescriptionBits = stackDescriptionBits(ptypes, argSlots);
-			methodDescriptor = createMethodDescriptorString();
+		MethodType tenured = makeTenured(this);
+		expungeCollectedTypes();
 
-			MethodType tenured = makeTenured(this);
-			internTable.put(tenured, new WeakReference<MethodType>(tenured));
-			return tenured;
+		InternedType entry = new InternedType(tenured);
+		for (;;) {
+			InternedType existing = internTable.putIfAbsent(entry, entry);
+			if (existing == null) {
+				return tenured;
+			}
+			type = existing.get();
+			if (type != null) {
+				return type;
+			}
+			/* the existing MethodType was collected after it was matched, replace it */
+			internTable.remove(existing, existing);
 		}
 	}
 	
 	/* Check if the current MethodType is already cached */
 	private MethodType probeTable() {
-		Reference<MethodType> reference = internTable.get(this);
-		if (reference != null) {
-			return reference.get();
+		InternedType entry = internTable.get(new ProbeKey(this));
+		if (entry != null) {
+			return entry.get();
 		}
 		return null;
 	}
+
+	/* Remove the entries for MethodTypes that have been collected */
+	private static void expungeCollectedTypes() {
+		Object entry;
+		while ((entry = collectedTypes.poll()) != null) {
+			internTable.remove(entry, entry);
+		}
+	}
 	
 	/*[IF ]*/
 	/*
@@ -1,14 +1,22 @@
 /*[INCLUDE-IF Sidecar16]*/
 package java.lang.ref;
 
+import java.util.ArrayList;
+import java.util.Collection;
+
+import com.ibm.oti.vm.ReferenceQueueAccess;
+import com.ibm.oti.vm.VM;
+
 /*[IF Sidecar19-SE]
+import jdk.internal.misc.Unsafe;
 import jdk.internal.ref.Cleaner;
 /*[ELSE]*/
 import sun.misc.Cleaner;
+import sun.misc.Unsafe;
 /*[ENDIF]*/
 
 /*******************************************************************************
- * Copyright (c) 1998, 2017 IBM Corp. and others
+ * Copyright (c) 1998, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -40,16 +48,47 @@ import sun.misc.Cleaner;
  */	
 
 public class ReferenceQueue<T> extends Object {
-	private Reference[] references;
-	private int head, tail;
-	private boolean empty;
+	/* References are pushed onto the pending stack without locking, so the reference
+	 * handling path never blocks on a consumer. Consumers move the whole stack, in
+	 * enqueue order, to the ready list while holding the queue monitor.
+	 */
+	private volatile Node pending;
+	private volatile Node ready;
+	/* the number of threads waiting in remove(), enqueue only notifies when there are waiters */
+	private volatile int waiters;
+	/* updated atomically by enqueue(), possibly from several threads */
+	private volatile long enqueuedCount;
+	/* only updated while holding the queue monitor */
+	private volatile long drainedCount;
+	/* the tracking epoch in which this queue was last recorded */
+	private int trackedEpoch;
+
+	private static final int DEFAULT_PRUNE_SIZE = 64;
 
-	static private final int DEFAULT_QUEUE_SIZE = 128;
+	private static final Unsafe unsafe = Unsafe.getUnsafe();
+	private static final long pendingOffset;
+	private static final long enqueuedCountOffset;
+
+	/* queues are recorded on their first enqueue after tracking is enabled */
+	private static volatile boolean trackingEnabled;
+	private static volatile int trackingEpoch;
+	private static final ArrayList<WeakReference<ReferenceQueue<?>>> trackedQueues = new ArrayList<>();
+	/* guarded by trackedQueues */
+	private static int trackedQueuesPruneSize = DEFAULT_PRUNE_SIZE;
 
 	private static final Class reflectRefClass;
 
 	private static final Class classNameLockRefClass;
 
+	private static final class Node {
+		final Reference reference;
+		Node next;
+
+		Node(Reference reference) {
+			this.reference = reference;
+		}
+	}
+
 	static {
 		/*[PR CMVC 114480] deadlock loading sun.misc.Cleaner */
 		// cause sun.misc.Cleaner to be loaded
@@ -66,6 +105,58 @@ public class ReferenceQueue<T> extends Object {
 			tmpClass2 = Class.forName("java.lang.ClassLoader$ClassNameLockRef"); //$NON-NLS-1$	
 		} catch (ClassNotFoundException e) {}
 		classNameLockRefClass = tmpClass2;
+
+		try {
+			pendingOffset = unsafe.objectFieldOffset(ReferenceQueue.class.getDeclaredField("pending")); //$NON-NLS-1$
+			enqueuedCountOffset = unsafe.objectFieldOffset(ReferenceQueue.class.getDeclaredField("enqueuedCount")); //$NON-NLS-1$
+		} catch (NoSuchFieldException e) {
+			throw new InternalError(e);
+		}
+
+		VM.setReferenceQueueAccess(new ReferenceQueueAccess() {
+			public <E> int drainTo(ReferenceQueue<E> queue, Collection<? super Reference<? extends E>> collection, int maxElements) {
+				return queue.drainTo(collection, maxElements);
+			}
+
+			public long getEnqueuedCount(ReferenceQueue<?> queue) {
+				return queue.enqueuedCount;
+			}
+
+			public long getDrainedCount(ReferenceQueue<?> queue) {
+				return queue.drainedCount;
+			}
+
+			public int getWaiterCount(ReferenceQueue<?> queue) {
+				return queue.waiters;
+			}
+
+			public boolean isTrackingEnabled() {
+				return trackingEnabled;
+			}
+
+			public void setTrackingEnabled(boolean enabled) {
+				synchronized (trackedQueues) {
+					if (enabled != trackingEnabled) {
+						trackedQueues.clear();
+						trackingEpoch += 1;
+						trackingEnabled = enabled;
+					}
+				}
+			}
+
+			public ReferenceQueue<?>[] getTrackedQueues() {
+				ArrayList<ReferenceQueue<?>> queues = new ArrayList<>();
+				synchronized (trackedQueues) {
+					for (int i = 0; i < trackedQueues.size(); i++) {
+						ReferenceQueue<?> queue = trackedQueues.get(i).get();
+						if (null != queue) {
+							queues.add(queue);
+						}
+					}
+				}
+				return queues.toArray(new ReferenceQueue<?>[queues.size()]);
+			}
+		});
 	}
 
 /**
@@ -80,23 +171,14 @@ public Reference<? extends T> poll () {
 	Reference ref;
 	
 	/* Optimization to return immediately and not synchronize if there is nothing in the queue */
-	if(empty) {
+	if ((null == ready) && (null == pending)) {
 		return null;
 	}
 	synchronized(this) {
-		if(empty) {
-			return null;
-		}
-		ref = references[head];
-		/*[PR 115652] null References when removed */ 
-		references[head++] = null;
+		ref = take();
+	}
+	if (null != ref) {
 		ref.dequeue();
-		if(head == references.length) {
-			head = 0;
-		}
-		if(head == tail) {
-			empty = true;
-		}
 	}
 	return ref;
 }
@@ -142,24 +224,129 @@ public Reference<? extends T> remove(long timeout) throws IllegalArgumentExcepti
 
 	Reference ref;
 	synchronized(this) {
-		if(empty) {
-			wait(timeout);
-			if(empty) return null;
+		ref = take();
+		if (null == ref) {
+			long start = System.nanoTime();
+			/* enqueue() reads waiters after pushing, and take() reads pending after waiters is
+			 * incremented, so either the reference is found or the waiter is notified.
+			 */
+			waiters += 1;
+			try {
+				for (;;) {
+					ref = take();
+					if (null != ref) {
+						break;
+					}
+					if (0 == timeout) {
+						wait();
+					} else {
+						long remaining = timeout - ((System.nanoTime() - start) / 1000000L);
+						if (remaining <= 0) {
+							break;
+						}
+						wait(remaining);
+					}
+				}
+			} finally {
+				waiters -= 1;
+			}
 		}
-		ref = references[head];
-		/*[PR 115652] null References when removed */ 
-		references[head++] = null;
+	}
+	if (null != ref) {
 		ref.dequeue();
-		if(head == references.length) {
-			head = 0;
+	}
+	return ref;
+}
+
+/**
+ * Removes the oldest reference from the queue. The reference is
+ * dequeued by the caller once the queue monitor is released: the
+ * enqueuing thread holds the reference monitor while it notifies.
+ *
+ * Must be called while holding the queue monitor.
+ *
+ * @return		Reference
+ *					the oldest reference, or null if the queue is empty.
+ */
+private Reference take() {
+	Node node = ready;
+	if (null == node) {
+		node = takePending();
+		if (null == node) {
+			return null;
 		}
-		if(head == tail) {
-			empty = true;
-		} else {
-			notifyAll();
+	}
+	ready = node.next;
+	drainedCount += 1;
+	return node.reference;
+}
+
+/**
+ * Detaches the pending stack and answers it in enqueue order.
+ *
+ * Must be called while holding the queue monitor.
+ */
+private Node takePending() {
+	if (null == pending) {
+		return null;
+	}
+	Node node = (Node)unsafe.getAndSetObject(this, pendingOffset, null);
+	Node reversed = null;
+	while (null != node) {
+		Node next = node.next;
+		node.next = reversed;
+		reversed = node;
+		node = next;
+	}
+	return reversed;
+}
+
+/**
+ * Removes at most maxElements references from the queue and adds them
+ * to the collection, in the order they were enqueued. Does not wait
+ * for references to become available.
+ *
+ * @param		collection
+ *					the collection to add the references to.
+ * @param		maxElements
+ *					the maximum number of references to remove.
+ * @return		int
+ *					the number of references removed.
+ * @exception	NullPointerException
+ *					if collection is null.
+ */
+int drainTo(Collection<? super Reference<? extends T>> collection, int maxElements) {
+	if (null == collection) throw new NullPointerException();
+
+	if ((maxElements <= 0) || ((null == ready) && (null == pending))) {
+		return 0;
+	}
+	Node first;
+	int count = 0;
+	synchronized(this) {
+		first = ready;
+		if (null == first) {
+			first = takePending();
+			if (null == first) {
+				return 0;
+			}
+		}
+		Node last = first;
+		count = 1;
+		while ((count < maxElements) && (null != last.next)) {
+			last = last.next;
+			count += 1;
 		}
+		ready = last.next;
+		last.next = null;
+		drainedCount += count;
 	}
-	return ref;
+	for (Node node = first; null != node; node = node.next) {
+		Reference<? extends T> ref = node.reference;
+		ref.dequeue();
+		collection.add(ref);
+	}
+	return count;
 }
 
 /**
@@ -188,32 +375,54 @@ boolean enqueue (Reference reference) {
 		((Runnable)reference).run();
 		return true;
 	}
-	synchronized(this) {
-		/*[PR CMVC 181985] Perf: zWAS ftprint regressed 6% Java7 vs 626FP1 -ReferenceQueue */
-		if ( references == null) {
-			references =  new Reference[DEFAULT_QUEUE_SIZE];
-		} else if(!empty && head == tail) {
-			/* Queue is full - grow */
-			int newQueueSize = (int)(references.length * 1.10);
-			Reference newQueue[] = new Reference[newQueueSize];
-			System.arraycopy(references, head, newQueue, 0, references.length - head);
-			if(tail > 0) {
-				System.arraycopy(references, 0, newQueue, references.length - head, tail);
-			}
-			head = 0;
-			tail = references.length;
-			references = newQueue;
-		}
-		references[tail++] = reference;
-		if(tail == references.length) {
-			tail = 0;
+	Node node = new Node(reference);
+	Node head;
+	/* count before publishing, so a consumer never sees more drained than enqueued */
+	unsafe.getAndAddLong(this, enqueuedCountOffset, 1);
+	do {
+		head = pending;
+		node.next = head;
+	} while (!compareAndSetPending(head, node));
+	if (trackingEnabled && (trackedEpoch != trackingEpoch)) {
+		track();
+	}
+	if (0 != waiters) {
+		synchronized(this) {
+			notifyAll();
 		}
-		empty = false;
-		notifyAll();
 	}
 	return true;
 }
 
+private boolean compareAndSetPending(Node expected, Node value) {
+/*[IF Sidecar19-SE]*/
+	return unsafe.compareAndSetObject(this, pendingOffset, expected, value);
+/*[ELSE]
+	return unsafe.compareAndSwapObject(this, pendingOffset, expected, value);
+/*[ENDIF]*/
+}
+
+/**
+ * Record the receiver in the tracked queues for the current tracking epoch.
+ */
+private void track() {
+	synchronized (trackedQueues) {
+		if (trackingEnabled && (trackedEpoch != trackingEpoch)) {
+			trackedEpoch = trackingEpoch;
+			if (trackedQueues.size() >= trackedQueuesPruneSize) {
+				/* drop the queues that have been collected before growing the list */
+				for (int i = trackedQueues.size() - 1; i >= 0; i--) {
+					if (null == trackedQueues.get(i).get()) {
+						trackedQueues.remove(i);
+					}
+				}
+				trackedQueuesPruneSize = Math.max(DEFAULT_PRUNE_SIZE, trackedQueues.size() * 2);
+			}
+			trackedQueues.add(new WeakReference<ReferenceQueue<?>>(this));
+		}
+	}
+}
+
 void forEach(java.util.function.Consumer<? super Reference<? extends T>> consumer) {
 }
 
@@ -221,8 +430,6 @@ void forEach(java.util.function.Consumer<? super Reference<? extends T>> consume
  * Constructs a new instance of this class.
  */
 public ReferenceQueue() {
-	head = 0;
-	tail = 0;
-	empty = true;	
+	super();
 }
 }
@@ -253,6 +253,16 @@ public class AttachHandler extends Thread {
 				}
 			}
 			waiter.start();
+			/*[IF JAVA_SPEC_VERSION >= 16]*/
+			if (AttachSocket.isListenerEnabled()) {
+				try {
+					AttachSocket.startListener();
+				} catch (IOException | UnsupportedOperationException e) {
+					/* attachers fall back to the semaphore protocol */
+					IPC.logMessage("cannot create attach socket", e); //$NON-NLS-1$
+				}
+			}
+			/*[ENDIF] JAVA_SPEC_VERSION >= 16 */
 		} catch (OutOfMemoryError e) {
 			/* avoid anything which might allocate more memory, but indicate that the attach API is not viable */
 			setAttachState(AttachStateValues.ATTACH_TERMINATED);
@@ -381,6 +391,9 @@ public class AttachHandler extends Thread {
 			}
 		}
 		currentAttachThread.interrupt(); /* do this after we change the attachState */
+		/*[IF JAVA_SPEC_VERSION >= 16]*/
+		AttachSocket.stopListener();
+		/*[ENDIF] JAVA_SPEC_VERSION >= 16 */
 		if (wakeHandler) {
 			if (LOGGING_DISABLED != loggingStatus) {
 				IPC.logMessage("AttachHandler terminate removing contents of directory : ", TargetDirectory.getTargetDirectoryPath(getVmId())); //$NON-NLS-1$
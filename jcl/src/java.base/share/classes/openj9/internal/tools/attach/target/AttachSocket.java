@@ -0,0 +1,230 @@
+/*[INCLUDE-IF JAVA_SPEC_VERSION >= 16]*/
+package openj9.internal.tools.attach.target;
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import static openj9.internal.tools.attach.target.IPC.LOGGING_DISABLED;
+import static openj9.internal.tools.attach.target.IPC.loggingStatus;
+
+/**
+ * Optional Unix domain socket transport for the attach API.
+ * A target started with {@value #UNIX_DOMAIN_SOCKET_PROPERTY}=yes listens on a socket
+ * in its advertisement directory, so an attacher can connect to it directly instead of
+ * writing a reply file and posting to the semaphore, which wakes every VM sharing the
+ * attach directory.
+ * The semaphore protocol remains the fallback if the socket cannot be used.
+ */
+public final class AttachSocket {
+
+	/**
+	 * Set this property to "yes" to listen on a socket, or to "no" to stop attachers from connecting to one.
+	 */
+	public static final String UNIX_DOMAIN_SOCKET_PROPERTY = "com.ibm.tools.attach.unixDomainSocket"; //$NON-NLS-1$
+	static final String SOCKET_FILENAME = "attachSocket"; //$NON-NLS-1$
+	static final int SOCKET_PERMISSIONS = 0600;
+	static final int BIND_DIRECTORY_PERMISSIONS = 0700;
+
+	private static final Object listenerSync = new Object();
+	private static ServerSocketChannel serverChannel;
+	private static Path serverSocketPath;
+
+	private AttachSocket() {
+	}
+
+	/**
+	 * The listener is off by default, so that VMs which are never attached to do not
+	 * run another thread or create another file.
+	 * @return true if this VM should listen on a socket
+	 */
+	public static boolean isListenerEnabled() {
+		return !IPC.isWindows && "yes".equalsIgnoreCase(getProperty()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Attachers use the socket of any target that created one.
+	 * @return true if this VM may connect to a target's socket
+	 */
+	public static boolean isConnectEnabled() {
+		return !IPC.isWindows && !"no".equalsIgnoreCase(getProperty()); //$NON-NLS-1$
+	}
+
+	private static String getProperty() {
+		return com.ibm.oti.vm.VM.getVMLangAccess().internalGetProperties().getProperty(UNIX_DOMAIN_SOCKET_PROPERTY);
+	}
+
+	/**
+	 * @param vmId ID of the target VM
+	 * @return path of the target's socket
+	 */
+	static Path getSocketPath(String vmId) {
+		return Paths.get(TargetDirectory.getTargetDirectoryPath(vmId), SOCKET_FILENAME);
+	}
+
+	/**
+	 * Connect to a target VM's socket and wait for its connection message.
+	 * @param vmId ID of the target VM
+	 * @param timeoutMs time in milliseconds to wait for the target to accept the connection
+	 * @return channel connected to the target, positioned at the connection message
+	 * @throws IOException if the socket is missing, has the wrong ownership or permissions, or the target does not respond
+	 */
+	public static SocketChannel connect(String vmId, long timeoutMs) throws IOException {
+		Path socketPath = getSocketPath(vmId);
+		/* the socket must have been created by the target's user, and accessible only by that user */
+		IPC.checkOwnerAccessOnly(socketPath.toString());
+		SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+		try {
+			channel.connect(UnixDomainSocketAddress.of(socketPath));
+			/* the kernel completes the connection even if the target is not accepting, so wait for the target to respond */
+			channel.configureBlocking(false);
+			try (Selector selector = Selector.open()) {
+				channel.register(selector, SelectionKey.OP_READ);
+				if (0 == selector.select(timeoutMs)) {
+					throw new SocketTimeoutException(socketPath.toString());
+				}
+			}
+			channel.configureBlocking(true);
+		} catch (IOException | RuntimeException e) {
+			closeQuietly(channel);
+			throw e;
+		}
+		if (LOGGING_DISABLED != loggingStatus) {
+			IPC.logMessage("connected to socket ", socketPath.toString()); //$NON-NLS-1$
+		}
+		return channel;
+	}
+
+	/**
+	 * Create this VM's socket and start a thread to accept connections on it.
+	 * @throws IOException if the socket cannot be created
+	 */
+	static void startListener() throws IOException {
+		Path socketPath = getSocketPath(AttachHandler.getVmId());
+		/*
+		 * The socket is created with permissions from the umask, which cannot be changed from Java.
+		 * Bind inside a new directory that only this user can enter, so that no one else can
+		 * connect before the permissions are restricted, then move the socket into place.
+		 */
+		Path bindDirectory = socketPath.resolveSibling(SOCKET_FILENAME + IPC.getRandomString());
+		IPC.mkdirWithPermissions(bindDirectory.toString(), BIND_DIRECTORY_PERMISSIONS);
+		Path tempPath = bindDirectory.resolve(SOCKET_FILENAME);
+		ServerSocketChannel channel = null;
+		try {
+			channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+			channel.bind(UnixDomainSocketAddress.of(tempPath));
+			IPC.chmod(tempPath.toString(), SOCKET_PERMISSIONS);
+			Files.move(tempPath, socketPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException | RuntimeException e) {
+			if (null != channel) {
+				closeQuietly(channel);
+			}
+			Files.deleteIfExists(tempPath);
+			throw e;
+		} finally {
+			Files.deleteIfExists(bindDirectory);
+		}
+		synchronized (listenerSync) {
+			if (AttachHandler.isAttachApiTerminated()) {
+				closeQuietly(channel);
+				Files.deleteIfExists(socketPath);
+				return;
+			}
+			serverChannel = channel;
+			serverSocketPath = socketPath;
+		}
+		Thread listener = new Thread(() -> acceptConnections(channel), "Attach API socket listener"); //$NON-NLS-1$
+		listener.setDaemon(true);
+		listener.start();
+		if (LOGGING_DISABLED != loggingStatus) {
+			IPC.logMessage("listening on socket ", socketPath.toString()); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Close this VM's socket and delete the socket file.
+	 */
+	static void stopListener() {
+		synchronized (listenerSync) {
+			if (null != serverChannel) {
+				closeQuietly(serverChannel);
+				try {
+					Files.deleteIfExists(serverSocketPath);
+				} catch (IOException e) {
+					IPC.logMessage("error deleting socket", e); //$NON-NLS-1$
+				}
+				serverChannel = null;
+				serverSocketPath = null;
+			}
+		}
+	}
+
+	private static void acceptConnections(ServerSocketChannel channel) {
+		com.ibm.oti.vm.VM.markCurrentThreadAsSystem();
+		while (channel.isOpen()) {
+			SocketChannel attacherChannel;
+			try {
+				attacherChannel = channel.accept();
+			} catch (ClosedChannelException e) {
+				break;
+			} catch (IOException e) {
+				IPC.logMessage("error accepting socket connection", e); //$NON-NLS-1$
+				break;
+			}
+			if (AttachHandler.isAttachApiTerminated()) {
+				closeQuietly(attacherChannel);
+				break;
+			}
+			if (LOGGING_DISABLED != loggingStatus) {
+				IPC.logMessage("accepted socket connection"); //$NON-NLS-1$
+			}
+			AttachHandler handler = AttachHandler.mainHandler;
+			Attachment at = new Attachment(handler, attacherChannel);
+			handler.addAttachment(at);
+			at.start();
+		}
+		if (LOGGING_DISABLED != loggingStatus) {
+			IPC.logMessage("socket listener exiting"); //$NON-NLS-1$
+		}
+	}
+
+	private static void closeQuietly(Closeable channel) {
+		try {
+			channel.close();
+		} catch (IOException e) {
+			// ignore
+		}
+	}
+}
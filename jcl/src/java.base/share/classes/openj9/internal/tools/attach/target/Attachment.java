@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2009, 2019 IBM Corp. and others
+ * Copyright (c) 2009, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -31,6 +31,8 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.Objects;
@@ -57,6 +59,7 @@ final class Attachment extends Thread implements Response {
 	private Exception lastError;
 	private OutputStream responseStream;
 	private Socket attacherSocket;
+	private SocketChannel attacherChannel;
 	private final int portNumber;
 	private InputStream commandStream;
 	private String attachError;
@@ -131,6 +134,40 @@ final class Attachment extends Thread implements Response {
 		setDaemon(true);
 	}
 
+	/**
+	 * @param attachHandler
+	 *            main handler object for this VM
+	 * @param channel
+	 *            connection accepted from the attacher on this VM's Unix domain socket
+	 */
+	Attachment(AttachHandler attachHandler, SocketChannel channel) {
+		setName("Attachment socket"); //$NON-NLS-1$
+		portNumber = -1;
+		this.key = null;
+		this.attacherChannel = channel;
+		this.handler = attachHandler;
+		setDaemon(true);
+	}
+
+	/**
+	 * Set up the streams for a connection accepted on this VM's Unix domain socket.
+	 * The socket file is accessible only by the owner, so no key is required.
+	 * 
+	 * @return true if successfully connected
+	 */
+	private boolean connectToAttacherChannel() {
+		try {
+			responseStream = Channels.newOutputStream(attacherChannel);
+			commandStream = Channels.newInputStream(attacherChannel);
+			AttachmentConnection.streamSend(responseStream, Response.CONNECTED + ' ');
+			return true;
+		} catch (IOException e) {
+			IPC.logMessage("connectToAttacherChannel exception " + e.getMessage() + " " + e.toString()); //$NON-NLS-1$ //$NON-NLS-2$
+			closeQuietly(attacherChannel);
+		}
+		return false;
+	}
+
 	/**
 	 * Create an attachment with a socket connection to the attacher
 	 * 
@@ -172,7 +209,11 @@ final class Attachment extends Thread implements Response {
 	public void run() {
 		boolean terminate = false;
 		IPC.logMessage("Attachment run"); //$NON-NLS-1$
-		connectToAttacher(getPortNumber());
+		if (null != attacherChannel) {
+			connectToAttacherChannel();
+		} else {
+			connectToAttacher(getPortNumber());
+		}
 		while (!terminate && !isInterrupted()) {
 			terminate = doCommand(commandStream, responseStream);
 		}
@@ -307,6 +348,9 @@ final class Attachment extends Thread implements Response {
 			if (null != attacherSocket) {
 				attacherSocket.close();
 			}
+			if (null != attacherChannel) {
+				attacherChannel.close();
+			}
 			if (null != commandStream) {
 				commandStream.close();
 			}
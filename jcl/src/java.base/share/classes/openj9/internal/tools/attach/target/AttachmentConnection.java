@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2009, 2009 IBM Corp. and others
+ * Copyright (c) 2009, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -141,4 +141,46 @@ public final class AttachmentConnection {
 		return message;
 	}
 
+	/**
+	 * Wrap a channel so that it reports end of file at the null which terminates a message,
+	 * so that a long message can be parsed as it arrives rather than collected first.
+	 * As with streamReceiveBytes(), nothing may follow the null until the peer receives the next message.
+	 * @param channel input stream
+	 * @return stream containing the message, not including null termination
+	 */
+	static InputStream messageStream(InputStream channel) {
+		return new InputStream() {
+			private boolean done;
+
+			@Override
+			public int read() throws IOException {
+				byte[] oneByte = new byte[1];
+				return (-1 == read(oneByte, 0, 1)) ? -1 : (oneByte[0] & 0xff);
+			}
+
+			@Override
+			public int read(byte[] buffer, int offset, int length) throws IOException {
+				if (done) {
+					return -1;
+				}
+				if (0 == length) {
+					return 0;
+				}
+				int nRead = channel.read(buffer, offset, length);
+				if (nRead <= 0) {
+					/*[MSG "K0571", "input stream closed"]*/
+					throw new IOException(com.ibm.oti.util.Msg.getString("K0571")); /* premature close of the socket */ //$NON-NLS-1$
+				}
+				for (int i = offset; i < (offset + nRead); ++i) {
+					if (0 == buffer[i]) { /* messages are terminated by a null */
+						done = true;
+						nRead = i - offset;
+						break;
+					}
+				}
+				return (done && (0 == nRead)) ? -1 : nRead;
+			}
+		};
+	}
+
 }
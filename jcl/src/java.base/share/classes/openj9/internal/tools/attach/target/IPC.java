@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2009, 2020 IBM Corp. and others
+ * Copyright (c) 2009, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -24,7 +24,6 @@
 package openj9.internal.tools.attach.target;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -530,10 +529,10 @@ public class IPC {
 	 */
 	public static void sendProperties(Properties props, OutputStream outStream)
 			throws IOException {
-		ByteArrayOutputStream propsBuffer = new ByteArrayOutputStream();
-		props.store(propsBuffer, ""); //$NON-NLS-1$
-		outStream.write(propsBuffer.toByteArray());
+		/* write directly to the connection so that large results, such as thread dumps, are not buffered in full */
+		props.store(outStream, ""); //$NON-NLS-1$
 		outStream.write(0);
+		outStream.flush();
 	}
 
 	/**
@@ -546,12 +545,28 @@ public class IPC {
 	 */
 	public static Properties receiveProperties(InputStream inStream, boolean requireNull)
 			throws IOException {
+		Properties props = new Properties();
+		if (requireNull && !isLoggingEnabled()) {
+			/* parse the message as it arrives */
+			InputStream message = AttachmentConnection.messageStream(inStream);
+			try {
+				props.load(message);
+			} catch (IllegalArgumentException e) {
+				/* consume the rest of a malformed message so the next response starts at a message boundary */
+				try {
+					message.skip(Long.MAX_VALUE);
+				} catch (IOException e2) {
+					e.addSuppressed(e2);
+				}
+				throw e;
+			}
+			return props;
+		}
 		byte msgBuff[] = AttachmentConnection.streamReceiveBytes(inStream, 0, requireNull);
 		if (isLoggingEnabled()) {
 			String propsString = new String(msgBuff, StandardCharsets.UTF_8);
 			logMessage("Received properties file:", propsString); //$NON-NLS-1$
 		}
-		Properties props = new Properties();
 		props.load(new ByteArrayInputStream(msgBuff));
 		return props;
 	}
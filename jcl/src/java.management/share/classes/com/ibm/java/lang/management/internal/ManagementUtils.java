@@ -716,6 +716,9 @@ public final class ManagementUtils {
 		private static final String HYPERVISOR_MXBEAN_NAME = "com.ibm.virtualization.management:type=Hypervisor"; //$NON-NLS-1$
 
 		private static final String JVM_CPU_MONITOR_MXBEAN_NAME = "com.ibm.lang.management:type=JvmCpuMonitor"; //$NON-NLS-1$
+		private static final String CLASS_LOADING_LOCK_MXBEAN_NAME = "com.ibm.lang.management:type=ClassLoadingLock"; //$NON-NLS-1$
+		private static final String REFERENCE_QUEUE_MXBEAN_NAME = "com.ibm.lang.management:type=ReferenceQueue"; //$NON-NLS-1$
+		private static final String METHOD_HANDLE_CACHE_MXBEAN_NAME = "com.ibm.lang.management:type=MethodHandleCache"; //$NON-NLS-1$
 		private static final String OPENJ9_DIAGNOSTICS_MXBEAN_NAME = "openj9.lang.management:type=OpenJ9Diagnostics"; //$NON-NLS-1$
 
 		static void registerAll() {
@@ -765,6 +768,18 @@ public final class ManagementUtils {
 				.addInterface(com.ibm.lang.management.JvmCpuMonitorMXBean.class)
 				.validateAndRegister();
 
+			create(CLASS_LOADING_LOCK_MXBEAN_NAME, com.ibm.lang.management.internal.ClassLoadingLockMXBeanImpl.getInstance())
+				.addInterface(com.ibm.lang.management.ClassLoadingLockMXBean.class)
+				.validateAndRegister();
+
+			create(REFERENCE_QUEUE_MXBEAN_NAME, com.ibm.lang.management.internal.ReferenceQueueMXBeanImpl.getInstance())
+				.addInterface(com.ibm.lang.management.ReferenceQueueMXBean.class)
+				.validateAndRegister();
+
+			create(METHOD_HANDLE_CACHE_MXBEAN_NAME, com.ibm.lang.management.internal.MethodHandleCacheMXBeanImpl.getInstance())
+				.addInterface(com.ibm.lang.management.MethodHandleCacheMXBean.class)
+				.validateAndRegister();
+
 			create(OPENJ9_DIAGNOSTICS_MXBEAN_NAME, openj9.lang.management.internal.OpenJ9DiagnosticsMXBeanImpl.getInstance())
 				.addInterface(openj9.lang.management.OpenJ9DiagnosticsMXBean.class)
 				.validateAndRegister();
@@ -32,6 +32,10 @@ import java.io.OutputStream;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
+/*[IF JAVA_SPEC_VERSION >= 16]*/
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+/*[ENDIF] JAVA_SPEC_VERSION >= 16 */
 import java.nio.charset.StandardCharsets;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
@@ -44,6 +48,9 @@ import java.util.regex.Pattern;
 
 import openj9.internal.tools.attach.target.AttachHandler;
 import openj9.internal.tools.attach.target.AttachmentConnection;
+/*[IF JAVA_SPEC_VERSION >= 16]*/
+import openj9.internal.tools.attach.target.AttachSocket;
+/*[ENDIF] JAVA_SPEC_VERSION >= 16 */
 import openj9.internal.tools.attach.target.Command;
 import openj9.internal.tools.attach.target.CommonDirectory;
 import openj9.internal.tools.attach.target.DiagnosticProperties;
@@ -76,6 +83,10 @@ public final class OpenJ9VirtualMachine extends VirtualMachine implements Respon
 	/* The units for timeouts are milliseconds, Set to 0 for no timeout. */	
 	private static final int DEFAULT_ATTACH_TIMEOUT = 120000;	/* should be ~2* the TCP timeout, i.e. /proc/sys/net/ipv4/tcp_fin_timeout on Linux */
 	private static final int DEFAULT_COMMAND_TIMEOUT = 0;
+	/*[IF JAVA_SPEC_VERSION >= 16]*/
+	/* time to wait for the target to accept a connection on its socket before falling back to the semaphore */
+	private static final int SOCKET_CONNECT_TIMEOUT = 10000;
+	/*[ENDIF] JAVA_SPEC_VERSION >= 16 */
 
 	private static int MAXIMUM_ATTACH_TIMEOUT;
 	private static int COMMAND_TIMEOUT;
@@ -91,6 +102,9 @@ public final class OpenJ9VirtualMachine extends VirtualMachine implements Respon
 	private FileLock[] targetLocks;
 	private ServerSocket targetServer;
 	private Socket targetSocket;
+	/*[IF JAVA_SPEC_VERSION >= 16]*/
+	private SocketChannel targetChannel;
+	/*[ENDIF] JAVA_SPEC_VERSION >= 16 */
 	
 	static {
 		PrivilegedAction<Object> action = () -> {
@@ -150,6 +164,12 @@ public final class OpenJ9VirtualMachine extends VirtualMachine implements Respon
 			/*[MSG "K0531", "target {0} not found"]*/
 			throw new AttachNotSupportedException(getString("K0531", targetId)); //$NON-NLS-1$
 		}
+		/*[IF JAVA_SPEC_VERSION >= 16]*/
+		if (tryAttachTargetSocket()) {
+			IPC.logMessage("OpenJ9VirtualMachine.attachTargetImpl() finished using socket"); //$NON-NLS-1$
+			return;
+		}
+		/*[ENDIF] JAVA_SPEC_VERSION >= 16 */
 		AttachNotSupportedException lastException = null;
 		/*[PR CMVC 182802 ]*/
 		int timeout = 500; /* start small in case there is a rogue process which is eating semaphores, grow big in case of system load. */
@@ -173,6 +193,50 @@ public final class OpenJ9VirtualMachine extends VirtualMachine implements Respon
 		}
 	}
 
+	/*[IF JAVA_SPEC_VERSION >= 16]*/
+	/**
+	 * Connect directly to the target's Unix domain socket, without notifying the other VMs.
+	 * Only targets started with com.ibm.tools.attach.unixDomainSocket=yes create the socket.
+	 * @return true if attached, false if the caller should use the semaphore protocol
+	 */
+	private boolean tryAttachTargetSocket() {
+		/*
+		 * The socket streams do not support a read timeout.
+		 * Attaching to this VM goes through the semaphore path, which checks jdk.attach.allowAttachSelf.
+		 */
+		if ((0 != COMMAND_TIMEOUT) || !AttachSocket.isConnectEnabled() || descriptor.id().equals(AttachHandler.getVmId())) {
+			return false;
+		}
+		SocketChannel channel = null;
+		try {
+			channel = AttachSocket.connect(descriptor.id(), SOCKET_CONNECT_TIMEOUT);
+			OutputStream channelOut = Channels.newOutputStream(channel);
+			InputStream channelIn = Channels.newInputStream(channel);
+			String response = AttachmentConnection.streamReceiveString(channelIn, ATTACH_CONNECTED_MESSAGE_LENGTH_LIMIT);
+			if (!response.startsWith(Response.CONNECTED)) {
+				throw new IOException(response);
+			}
+			commandStream = channelOut;
+			responseStream = channelIn;
+			targetChannel = channel;
+			targetAttached = true;
+			IPC.logMessage("attachTarget connected on socket to ", targetId); //$NON-NLS-1$
+			return true;
+		} catch (IOException | RuntimeException e) {
+			/* the target may predate the socket transport, or have exited without deleting its socket */
+			IPC.logMessage("attachTarget socket connection failed, using semaphore: ", e.toString()); //$NON-NLS-1$
+			if (null != channel) {
+				try {
+					channel.close();
+				} catch (IOException e1) {
+					// ignore
+				}
+			}
+		}
+		return false;
+	}
+	/*[ENDIF] JAVA_SPEC_VERSION >= 16 */
+
 	private static String createLoadAgent(String agentName, String options) {
 		String optString = (null == options) ? "" : //$NON-NLS-1$
 				options;
@@ -216,6 +280,12 @@ public final class OpenJ9VirtualMachine extends VirtualMachine implements Respon
 				targetServer.close();
 				targetServer = null;
 			}
+			/*[IF JAVA_SPEC_VERSION >= 16]*/
+			if (null != targetChannel) {
+				targetChannel.close();
+				targetChannel = null;
+			}
+			/*[ENDIF] JAVA_SPEC_VERSION >= 16 */
 		}
 		targetAttached = false;
 	}
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2019, 2019 IBM Corp. and others
+ * Copyright (c) 2019, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -39,6 +39,8 @@ public class Jstat {
 
 	private static String vmid;
 	private static String statOption;
+	private static long intervalMs;
+	private static long sampleCount = 1;
 
 	private static final String OPTION_CLASS = "-class";
 	private static final String[] OPTIONS = { OPTION_CLASS };
@@ -50,10 +52,12 @@ public class Jstat {
 	private static final String ERROR_NOT_EXIST_VMID = "No such process for vmid: ";
 	private static final String ERROR_OPTION_REQUIRED = "An <option> is required";
 	private static final String ERROR_VMID_REQUIRED = "A <vmid> is required";
+	private static final String ERROR_INVALID_INTERVAL = "An invalid <interval>: ";
+	private static final String ERROR_INVALID_COUNT = "An invalid <count>: ";
 
 	private static String HELPTEXT = "jstat: obtain statistics information about a Java process%n"
 			+ " Usage:%n"
-			+ "    jstat [<option>] [<vmid>]%n"
+			+ "    jstat [<option>] [<vmid>] [<interval>[s|ms] [<count>]]%n"
 			+ "%n"
 			+ "  option:%n"
 			+ "   -J : supply arguments to the Java VM running jstat%n"
@@ -61,6 +65,9 @@ public class Jstat {
 			+ "   -options : list the available command options%n"
 			+ "   -class : Classloading statistics%n"
 			+ "  <vmid>: Attach API VM ID as shown in jps or other Attach API-based tools%n"
+			+ "  <interval>: sampling interval, in milliseconds unless the s suffix is given.%n"
+			+ "    Samples are taken over a single connection until <count> samples are printed or the target terminates.%n"
+			+ "  <count>: number of samples to print. The default is unlimited if <interval> is given.%n"
 			+ "NOTE: this utility might significantly affect the performance of the target VM.%n"
 			+ "At least one option must be selected.%n";
 
@@ -94,7 +101,7 @@ public class Jstat {
 
 			try {
 				diagProvider.attach(vmid);
-				Util.runCommandAndPrintResult(diagProvider, statOption, "jstat");
+				printSamples(diagProvider);
 			} catch (Exception e) {
 				System.err.printf("Error getting data from %s", vmid);
 				final String msg = e.getMessage();
@@ -120,6 +127,58 @@ public class Jstat {
 		}
 	}
 
+	/**
+	 * Run the statistics command sampleCount times, or until the connection fails if sampleCount is 0,
+	 * reusing the connection. The column headings are printed only for the first sample, and sampling
+	 * stops if the target reports an error.
+	 * 
+	 * @param diagProvider attached diagnostics provider
+	 * @throws IOException in case of a communication error
+	 * @throws InterruptedException if interrupted while waiting for the next sample
+	 */
+	private static void printSamples(AttacherDiagnosticsProvider diagProvider) throws IOException, InterruptedException {
+		long nextSampleMs = System.currentTimeMillis();
+		for (long sample = 0; (0 == sampleCount) || (sample < sampleCount); ++sample) {
+			if (sample > 0) {
+				nextSampleMs += intervalMs;
+				long delayMs = nextSampleMs - System.currentTimeMillis();
+				if (delayMs > 0) {
+					Thread.sleep(delayMs);
+				}
+			}
+			boolean succeeded = Util.runCommandAndPrintResult(diagProvider, statOption, "jstat", sample > 0);
+			System.out.flush();
+			if (!succeeded) {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Parse an interval of the form n, nms or ns.
+	 * 
+	 * @param arg the interval argument
+	 * @return the interval in milliseconds
+	 */
+	private static long parseInterval(String arg) {
+		String digits = arg;
+		long multiplier = 1;
+		if (arg.endsWith("ms")) {
+			digits = arg.substring(0, arg.length() - 2);
+		} else if (arg.endsWith("s")) {
+			digits = arg.substring(0, arg.length() - 1);
+			multiplier = 1000;
+		}
+		long interval = 0;
+		if (digits.matches("\\d{1,9}")) {
+			interval = Long.parseLong(digits) * multiplier;
+		}
+		if (interval <= 0) {
+			Util.exitJVMWithReasonAndHelp(ERROR_INVALID_INTERVAL + arg, HELPTEXT);
+		}
+		return interval;
+	}
+
 	private static boolean parseArguments(String[] args) {
 		boolean foundStatOption = false;
 
@@ -159,11 +218,22 @@ public class Jstat {
 					if (statOption == null) {
 						// no option was specified, print error message and help text, and exit
 						Util.exitJVMWithReasonAndHelp(ERROR_OPTION_REQUIRED, HELPTEXT);
-					} else if (vmid != null) {
-						// one vmid has already been set, print error message and help text, and exit
-						Util.exitJVMWithReasonAndHelp(ERROR_INVALID_ARG, HELPTEXT);
-					} else {
+					} else if (vmid == null) {
 						vmid = arg;
+					} else if (intervalMs == 0) {
+						intervalMs = parseInterval(arg);
+						// sample until the target terminates unless a count is given
+						sampleCount = 0;
+					} else if (sampleCount == 0) {
+						if (arg.matches("\\d{1,18}")) {
+							sampleCount = Long.parseLong(arg);
+						}
+						if (sampleCount <= 0) {
+							Util.exitJVMWithReasonAndHelp(ERROR_INVALID_COUNT + arg, HELPTEXT);
+						}
+					} else {
+						// interval and count have already been set, print error message and help text, and exit
+						Util.exitJVMWithReasonAndHelp(ERROR_INVALID_ARG, HELPTEXT);
 					}
 				}
 			}
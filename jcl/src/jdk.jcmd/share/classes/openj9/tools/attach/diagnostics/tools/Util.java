@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2019, 2019 IBM Corp. and others
+ * Copyright (c) 2019, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -75,10 +75,32 @@ public class Util {
 
 	static void runCommandAndPrintResult(AttacherDiagnosticsProvider diagProvider, String cmd, String commandName)
 			throws IOException {
+		runCommandAndPrintResult(diagProvider, cmd, commandName, false);
+	}
+
+	/**
+	 * Run a diagnostic command on the target and print its string result, or the error it reported.
+	 * 
+	 * @param diagProvider attached diagnostics provider
+	 * @param cmd the diagnostic command
+	 * @param commandName name of the command for debug output
+	 * @param skipHeader omit the first line of a successful result, for example column headings already printed
+	 * @return true if the command produced a result, false if an error was printed
+	 * @throws IOException in case of a communication error
+	 */
+	static boolean runCommandAndPrintResult(AttacherDiagnosticsProvider diagProvider, String cmd, String commandName,
+			boolean skipHeader) throws IOException {
 		Properties props = diagProvider.executeDiagnosticCommand(cmd);
 		DiagnosticProperties.dumpPropertiesIfDebug(commandName + " result:", props); //$NON-NLS-1$
-		String responseString = new DiagnosticProperties(props).printStringResult();
+		DiagnosticProperties result = new DiagnosticProperties(props);
+		String responseString = result.printStringResult();
+		boolean succeeded = !Boolean.parseBoolean(result.getPropertyOrNull(IPC.PROPERTY_DIAGNOSTICS_ERROR))
+				&& result.containsField(DiagnosticProperties.DIAGNOSTICS_STRING_RESULT);
+		if (skipHeader && succeeded) {
+			responseString = responseString.substring(responseString.indexOf('\n') + 1);
+		}
 		System.out.print(responseString);
+		return succeeded;
 	}
 
 	static void handleCommandException(String vmid, Exception e) {
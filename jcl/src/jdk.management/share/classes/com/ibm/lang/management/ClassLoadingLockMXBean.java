@@ -0,0 +1,89 @@
+/*[INCLUDE-IF Sidecar18-SE]*/
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.lang.management;
+
+import java.lang.management.PlatformManagedObject;
+
+/**
+ * <p>
+ * This interface provides the time {@link java.lang.ClassLoader}s spend waiting
+ * for contended class loading locks, to find the class loaders that limit how
+ * well class loading scales across threads.
+ * <ol>
+ *     <li>A class loader waits when a thread loads a class that is not yet loaded while
+ *         another thread holds the lock for the same class name, or for the class loader
+ *         if it is not parallel capable.
+ *     <li>Classes that are already loaded are found without taking a lock, so they never wait.
+ *     <li>Only class loaders that have waited at least once are reported; a reported
+ *         class loader can still be garbage collected.
+ *     <li>Wait times are in nanoseconds and are summed over all the waiting threads.
+ * </ol>
+ * <br>
+ * <table border="1">
+ * <caption><b>Usage example for the {@link ClassLoadingLockMXBean}</b></caption>
+ * <tr> <td>
+ * <pre>
+ * {@code
+ *   ...
+ *   try {
+ *      mxbeanName = new ObjectName("com.ibm.lang.management:type=ClassLoadingLock");
+ *   } catch (MalformedObjectNameException e) {
+ *      // Exception Handling
+ *   }
+ *   try {
+ *      MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+ *      if (true != mbeanServer.isRegistered(mxbeanName)) {
+ *         // ClassLoadingLockMXBean not registered
+ *      }
+ *      ClassLoadingLockMXBean cllBean = JMX.newMXBeanProxy(mbeanServer, mxbeanName, ClassLoadingLockMXBean.class);
+ *   } catch (Exception e) {
+ *      // Exception Handling
+ *   }
+ * }
+ * </pre></td></tr>
+ * </table>
+ */
+public interface ClassLoadingLockMXBean extends PlatformManagedObject {
+
+	/**
+	 * Returns a snapshot of the contended class loading lock waits of each class loader
+	 * that has waited at least once.
+	 *
+	 * @return an array of {@link ClassLoadingLockUsage}.
+	 */
+	public ClassLoadingLockUsage[] getClassLoadingLockUsage();
+
+	/**
+	 * Returns the number of times class loaders waited for a contended class loading lock.
+	 *
+	 * @return the total wait count.
+	 */
+	public long getTotalWaitCount();
+
+	/**
+	 * Returns the time class loaders spent waiting for contended class loading locks, in nanoseconds.
+	 *
+	 * @return the total wait time in nanoseconds.
+	 */
+	public long getTotalWaitTime();
+}
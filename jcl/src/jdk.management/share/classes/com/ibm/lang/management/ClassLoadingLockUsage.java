@@ -0,0 +1,160 @@
+/*[INCLUDE-IF Sidecar18-SE]*/
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.lang.management;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.InvalidKeyException;
+
+import com.ibm.lang.management.internal.ClassLoadingLockUsageUtil;
+
+/**
+ * This represents a snapshot of the time a {@link java.lang.ClassLoader} has spent
+ * waiting for contended class loading locks. Acquiring an uncontended lock is not
+ * counted.
+ *
+ * @since 1.8
+ */
+public class ClassLoadingLockUsage {
+
+	private String name;
+	private long waitCount;
+	private long waitTime;
+
+	/**
+	 * Creates a new {@link ClassLoadingLockUsage} instance.
+	 *
+	 * @param name		The class name and identity hash code of the class loader.
+	 * @param waitCount	The number of times the class loader waited for a class loading lock.
+	 * @param waitTime	The time spent waiting for class loading locks in nanoseconds.
+	 *
+	 * @throws IllegalArgumentException if waitCount or waitTime is negative.
+	 */
+	public ClassLoadingLockUsage(String name, long waitCount, long waitTime) throws IllegalArgumentException {
+		super();
+		if ((waitCount < 0) || (waitTime < 0)) {
+			throw new IllegalArgumentException("For " + name + ", negative count"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		this.name = name;
+		this.waitCount = waitCount;
+		this.waitTime = waitTime;
+	}
+
+	/**
+	 * The name of the class loader, its class name followed by '@' and its identity hash code
+	 * in hexadecimal.
+	 *
+	 * @return The name of the class loader.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * The number of times the class loader waited for a contended class loading lock.
+	 *
+	 * @return The wait count.
+	 */
+	public long getWaitCount() {
+		return this.waitCount;
+	}
+
+	/**
+	 * The time the class loader spent waiting for contended class loading locks, in nanoseconds.
+	 * The time is summed over all the threads that waited, so it can exceed the elapsed time.
+	 *
+	 * @return The wait time in nanoseconds.
+	 */
+	public long getWaitTime() {
+		return this.waitTime;
+	}
+
+	/**
+	 * Receives a {@link javax.management.openmbean.CompositeData} representing a {@link ClassLoadingLockUsage}
+	 * object and attempts to return the root {@link ClassLoadingLockUsage}
+	 * instance.
+	 *
+	 * @param cd	A {@link javax.management.openmbean.CompositeData} that represents a {@link ClassLoadingLockUsage}
+	 *
+	 * @return	if <code>cd</code> is non- <code>null</code>, returns a new instance of
+	 * 		{@link ClassLoadingLockUsage}, If <code>cd</code>
+	 * 		is <code>null</code>, returns <code>null</code>.
+	 *
+	 * @throws IllegalArgumentException	if argument <code>cd</code> does not correspond to a
+	 * 		{@link ClassLoadingLockUsage} with the following attributes:
+	 * 		<ul>
+	 * 		<li><code>name</code>(<code>java.lang.String</code>)</li>
+	 * 		<li><code>waitCount</code>(<code>java.lang.Long</code>)</li>
+	 * 		<li><code>waitTime</code>(<code>java.lang.Long</code>)</li>
+	 * 		</ul>
+	 */
+	public static ClassLoadingLockUsage from(CompositeData cd) {
+		ClassLoadingLockUsage result = null;
+
+		if (null != cd) {
+			// Is the new received CompositeData of the required type to create
+			// a new ClassLoadingLockUsage ?
+			if (!ClassLoadingLockUsageUtil.getCompositeType().isValue(cd)) {
+				/*[MSG "K05E5", "CompositeData is not of the expected type."]*/
+				throw new IllegalArgumentException(com.ibm.oti.util.Msg.getString("K05E5")); //$NON-NLS-1$
+			}
+
+			String name;
+			long waitCount;
+			long waitTime;
+
+			try {
+				name = (String) cd.get("name"); //$NON-NLS-1$
+				waitCount = ((Long) cd.get("waitCount")).longValue(); //$NON-NLS-1$
+				waitTime = ((Long) cd.get("waitTime")).longValue(); //$NON-NLS-1$
+			} catch (InvalidKeyException e) {
+				/*[MSG "K05E6", "CompositeData object does not contain expected key."]*/
+				throw new IllegalArgumentException(com.ibm.oti.util.Msg.getString("K05E6")); //$NON-NLS-1$
+			}
+
+			result = new ClassLoadingLockUsage(name, waitCount, waitTime);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Text description of this {@link ClassLoadingLockUsage} object.
+	 *
+	 * @return Text description of this {@link ClassLoadingLockUsage} object.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(this.getClass().getSimpleName());
+		sb.append("[name="); //$NON-NLS-1$
+		sb.append(this.name);
+		sb.append(", waitCount="); //$NON-NLS-1$
+		sb.append(this.waitCount);
+		sb.append(", waitTime="); //$NON-NLS-1$
+		sb.append(this.waitTime);
+		sb.append("]"); //$NON-NLS-1$
+
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,114 @@
+/*[INCLUDE-IF Sidecar18-SE]*/
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.lang.management;
+
+import java.lang.management.PlatformManagedObject;
+
+/**
+ * <p>
+ * This interface provides the counters of the caches behind the
+ * {@link java.lang.invoke.MethodHandles.Lookup} find and unreflect methods, to show
+ * how often a lookup returns a cached {@link java.lang.invoke.MethodHandle}.
+ * <ol>
+ *     <li>There is one cache for each kind of lookup, named after the method that uses it,
+ *         for example "findVirtual".
+ *     <li>Hits and misses are only counted while statistics are enabled, either with
+ *         -Dcom.ibm.jsr292.handleCacheStatistics=true or through this bean.
+ *     <li>The cached handles are weakly referenced. The entry for a handle is removed
+ *         shortly after the handle is garbage collected.
+ *     <li>Nothing is reported if the virtual machine does not use the caches.
+ * </ol>
+ * <br>
+ * <table border="1">
+ * <caption><b>Usage example for the {@link MethodHandleCacheMXBean}</b></caption>
+ * <tr> <td>
+ * <pre>
+ * {@code
+ *   ...
+ *   try {
+ *      mxbeanName = new ObjectName("com.ibm.lang.management:type=MethodHandleCache");
+ *   } catch (MalformedObjectNameException e) {
+ *      // Exception Handling
+ *   }
+ *   try {
+ *      MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+ *      if (true != mbeanServer.isRegistered(mxbeanName)) {
+ *         // MethodHandleCacheMXBean not registered
+ *      }
+ *      MethodHandleCacheMXBean mhcBean = JMX.newMXBeanProxy(mbeanServer, mxbeanName, MethodHandleCacheMXBean.class);
+ *      mhcBean.setStatisticsEnabled(true);
+ *   } catch (Exception e) {
+ *      // Exception Handling
+ *   }
+ * }
+ * </pre></td></tr>
+ * </table>
+ */
+public interface MethodHandleCacheMXBean extends PlatformManagedObject {
+
+	/**
+	 * Returns whether cache hits and misses are counted.
+	 *
+	 * @return true if statistics are enabled, false otherwise.
+	 */
+	public boolean isStatisticsEnabled();
+
+	/**
+	 * Enables or disables counting cache hits and misses. The counts are kept
+	 * while counting is disabled.
+	 *
+	 * @param enabled true to enable statistics, false to disable them.
+	 *
+	 * @throws SecurityException if a security manager exists and the caller does not
+	 * have ManagementPermission("control").
+	 */
+	public void setStatisticsEnabled(boolean enabled);
+
+	/**
+	 * Returns a snapshot of the counters of each cache.
+	 *
+	 * @return an array of {@link MethodHandleCacheUsage}, empty if the caches are not used.
+	 */
+	public MethodHandleCacheUsage[] getMethodHandleCacheUsage();
+
+	/**
+	 * Returns the number of lookups that found a cached handle.
+	 *
+	 * @return the total hit count.
+	 */
+	public long getTotalHitCount();
+
+	/**
+	 * Returns the number of lookups that did not find a cached handle.
+	 *
+	 * @return the total miss count.
+	 */
+	public long getTotalMissCount();
+
+	/**
+	 * Returns the number of handles in the caches.
+	 *
+	 * @return the total entry count.
+	 */
+	public long getTotalEntryCount();
+}
@@ -0,0 +1,176 @@
+/*[INCLUDE-IF Sidecar18-SE]*/
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.lang.management;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.InvalidKeyException;
+
+import com.ibm.lang.management.internal.MethodHandleCacheUsageUtil;
+
+/**
+ * This represents a snapshot of the counters of one of the caches behind the
+ * {@link java.lang.invoke.MethodHandles.Lookup} find and unreflect methods.
+ *
+ * @since 1.8
+ */
+public class MethodHandleCacheUsage {
+
+	private String name;
+	private long hitCount;
+	private long missCount;
+	private long entryCount;
+
+	/**
+	 * Creates a new {@link MethodHandleCacheUsage} instance.
+	 *
+	 * @param name			The name of the cache.
+	 * @param hitCount		The number of lookups that found a cached handle.
+	 * @param missCount		The number of lookups that did not find a cached handle.
+	 * @param entryCount	The number of handles in the cache.
+	 *
+	 * @throws IllegalArgumentException if any count is negative.
+	 */
+	public MethodHandleCacheUsage(String name, long hitCount, long missCount, long entryCount) throws IllegalArgumentException {
+		super();
+		if ((hitCount < 0) || (missCount < 0) || (entryCount < 0)) {
+			throw new IllegalArgumentException("For " + name + ", negative count"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		this.name = name;
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.entryCount = entryCount;
+	}
+
+	/**
+	 * The name of the cache, which is the name of the {@link java.lang.invoke.MethodHandles.Lookup}
+	 * method that uses it, for example "findVirtual".
+	 *
+	 * @return The name of the cache.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * The number of lookups that found a cached handle while statistics were enabled.
+	 *
+	 * @return The hit count.
+	 */
+	public long getHitCount() {
+		return this.hitCount;
+	}
+
+	/**
+	 * The number of lookups that did not find a cached handle while statistics were enabled.
+	 *
+	 * @return The miss count.
+	 */
+	public long getMissCount() {
+		return this.missCount;
+	}
+
+	/**
+	 * The number of handles in the cache, including handles that have been garbage
+	 * collected but whose entries have not been removed yet.
+	 *
+	 * @return The entry count.
+	 */
+	public long getEntryCount() {
+		return this.entryCount;
+	}
+
+	/**
+	 * Receives a {@link javax.management.openmbean.CompositeData} representing a {@link MethodHandleCacheUsage}
+	 * object and attempts to return the root {@link MethodHandleCacheUsage}
+	 * instance.
+	 *
+	 * @param cd	A {@link javax.management.openmbean.CompositeData} that represents a {@link MethodHandleCacheUsage}
+	 *
+	 * @return	if <code>cd</code> is non- <code>null</code>, returns a new instance of
+	 * 		{@link MethodHandleCacheUsage}, If <code>cd</code>
+	 * 		is <code>null</code>, returns <code>null</code>.
+	 *
+	 * @throws IllegalArgumentException	if argument <code>cd</code> does not correspond to a
+	 * 		{@link MethodHandleCacheUsage} with the following attributes:
+	 * 		<ul>
+	 * 		<li><code>name</code>(<code>java.lang.String</code>)</li>
+	 * 		<li><code>hitCount</code>(<code>java.lang.Long</code>)</li>
+	 * 		<li><code>missCount</code>(<code>java.lang.Long</code>)</li>
+	 * 		<li><code>entryCount</code>(<code>java.lang.Long</code>)</li>
+	 * 		</ul>
+	 */
+	public static MethodHandleCacheUsage from(CompositeData cd) {
+		MethodHandleCacheUsage result = null;
+
+		if (null != cd) {
+			// Is the new received CompositeData of the required type to create
+			// a new MethodHandleCacheUsage ?
+			if (!MethodHandleCacheUsageUtil.getCompositeType().isValue(cd)) {
+				/*[MSG "K05E5", "CompositeData is not of the expected type."]*/
+				throw new IllegalArgumentException(com.ibm.oti.util.Msg.getString("K05E5")); //$NON-NLS-1$
+			}
+
+			String name;
+			long hitCount;
+			long missCount;
+			long entryCount;
+
+			try {
+				name = (String) cd.get("name"); //$NON-NLS-1$
+				hitCount = ((Long) cd.get("hitCount")).longValue(); //$NON-NLS-1$
+				missCount = ((Long) cd.get("missCount")).longValue(); //$NON-NLS-1$
+				entryCount = ((Long) cd.get("entryCount")).longValue(); //$NON-NLS-1$
+			} catch (InvalidKeyException e) {
+				/*[MSG "K05E6", "CompositeData object does not contain expected key."]*/
+				throw new IllegalArgumentException(com.ibm.oti.util.Msg.getString("K05E6")); //$NON-NLS-1$
+			}
+
+			result = new MethodHandleCacheUsage(name, hitCount, missCount, entryCount);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Text description of this {@link MethodHandleCacheUsage} object.
+	 *
+	 * @return Text description of this {@link MethodHandleCacheUsage} object.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(this.getClass().getSimpleName());
+		sb.append("[name="); //$NON-NLS-1$
+		sb.append(this.name);
+		sb.append(", hitCount="); //$NON-NLS-1$
+		sb.append(this.hitCount);
+		sb.append(", missCount="); //$NON-NLS-1$
+		sb.append(this.missCount);
+		sb.append(", entryCount="); //$NON-NLS-1$
+		sb.append(this.entryCount);
+		sb.append("]"); //$NON-NLS-1$
+
+		return sb.toString();
+	}
+
+}
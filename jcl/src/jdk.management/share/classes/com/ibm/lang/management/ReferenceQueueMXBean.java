@@ -0,0 +1,112 @@
+/*[INCLUDE-IF Sidecar18-SE]*/
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.lang.management;
+
+import java.lang.management.PlatformManagedObject;
+
+/**
+ * <p>
+ * This interface provides the counters of the {@link java.lang.ref.ReferenceQueue}s
+ * in the virtual machine, to help size the threads that process them.
+ * <ol>
+ *     <li>Every queue counts the references enqueued on it and the references removed from it,
+ *         by poll, remove or {@link com.ibm.jvm.ReferenceQueues#drainTo(java.lang.ref.ReferenceQueue, java.util.Collection, int)}.
+ *     <li>Queues are only reported while tracking is enabled. A queue is recorded on the first
+ *         reference enqueued on it after tracking is enabled; a recorded queue does not prevent
+ *         it from being garbage collected.
+ *     <li>The totals are the sums of the counters of the queues that are currently reported.
+ * </ol>
+ * <br>
+ * <table border="1">
+ * <caption><b>Usage example for the {@link ReferenceQueueMXBean}</b></caption>
+ * <tr> <td>
+ * <pre>
+ * {@code
+ *   ...
+ *   try {
+ *      mxbeanName = new ObjectName("com.ibm.lang.management:type=ReferenceQueue");
+ *   } catch (MalformedObjectNameException e) {
+ *      // Exception Handling
+ *   }
+ *   try {
+ *      MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+ *      if (true != mbeanServer.isRegistered(mxbeanName)) {
+ *         // ReferenceQueueMXBean not registered
+ *      }
+ *      ReferenceQueueMXBean rqBean = JMX.newMXBeanProxy(mbeanServer, mxbeanName, ReferenceQueueMXBean.class);
+ *      rqBean.setTrackingEnabled(true);
+ *   } catch (Exception e) {
+ *      // Exception Handling
+ *   }
+ * }
+ * </pre></td></tr>
+ * </table>
+ */
+public interface ReferenceQueueMXBean extends PlatformManagedObject {
+
+	/**
+	 * Returns whether queues are recorded as references are enqueued on them.
+	 *
+	 * @return true if tracking is enabled, false otherwise.
+	 */
+	public boolean isTrackingEnabled();
+
+	/**
+	 * Enables or disables recording queues as references are enqueued on them.
+	 * Disabling tracking forgets the queues recorded so far.
+	 *
+	 * @param enabled true to enable tracking, false to disable it.
+	 *
+	 * @throws SecurityException if a security manager exists and the caller does not
+	 * have ManagementPermission("control").
+	 */
+	public void setTrackingEnabled(boolean enabled);
+
+	/**
+	 * Returns a snapshot of the counters of each queue currently reported.
+	 *
+	 * @return an array of {@link ReferenceQueueUsage}, empty if tracking is disabled.
+	 */
+	public ReferenceQueueUsage[] getReferenceQueueUsage();
+
+	/**
+	 * Returns the number of references enqueued on the queues currently reported.
+	 *
+	 * @return the total enqueued count.
+	 */
+	public long getTotalEnqueuedCount();
+
+	/**
+	 * Returns the number of references removed from the queues currently reported.
+	 *
+	 * @return the total drained count.
+	 */
+	public long getTotalDrainedCount();
+
+	/**
+	 * Returns the number of references waiting on the queues currently reported.
+	 *
+	 * @return the total backlog.
+	 */
+	public long getTotalBacklog();
+}
@@ -0,0 +1,194 @@
+/*[INCLUDE-IF Sidecar18-SE]*/
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.lang.management;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.InvalidKeyException;
+
+import com.ibm.lang.management.internal.ReferenceQueueUsageUtil;
+
+/**
+ * This represents a snapshot of the counters of a {@link java.lang.ref.ReferenceQueue}.
+ * The counters are maintained from the creation of the queue; the snapshot is only
+ * available for queues recorded while tracking is enabled on the {@link ReferenceQueueMXBean}.
+ *
+ * @since 1.8
+ */
+public class ReferenceQueueUsage {
+
+	private String name;
+	private long enqueuedCount;
+	private long drainedCount;
+	private long backlog;
+	private int waiterCount;
+
+	/**
+	 * Creates a new {@link ReferenceQueueUsage} instance.
+	 *
+	 * @param name			The class name and identity hash code of the queue.
+	 * @param enqueuedCount	The number of references enqueued on the queue.
+	 * @param drainedCount	The number of references removed from the queue.
+	 * @param backlog		The number of references waiting on the queue.
+	 * @param waiterCount	The number of threads waiting for a reference to become available.
+	 *
+	 * @throws IllegalArgumentException if any of the counts is negative.
+	 */
+	public ReferenceQueueUsage(String name, long enqueuedCount, long drainedCount, long backlog, int waiterCount) throws IllegalArgumentException {
+		super();
+		if ((enqueuedCount < 0) || (drainedCount < 0) || (backlog < 0) || (waiterCount < 0)) {
+			throw new IllegalArgumentException("For " + name + ", negative count"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		this.name = name;
+		this.enqueuedCount = enqueuedCount;
+		this.drainedCount = drainedCount;
+		this.backlog = backlog;
+		this.waiterCount = waiterCount;
+	}
+
+	/**
+	 * The name of the queue, its class name followed by '@' and its identity hash code
+	 * in hexadecimal.
+	 *
+	 * @return The name of the queue.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * The number of references enqueued on the queue since it was created.
+	 *
+	 * @return The enqueued count.
+	 */
+	public long getEnqueuedCount() {
+		return this.enqueuedCount;
+	}
+
+	/**
+	 * The number of references removed from the queue, by poll, remove or a batch drain,
+	 * since it was created.
+	 *
+	 * @return The drained count.
+	 */
+	public long getDrainedCount() {
+		return this.drainedCount;
+	}
+
+	/**
+	 * The number of references enqueued but not yet removed from the queue.
+	 *
+	 * @return The backlog.
+	 */
+	public long getBacklog() {
+		return this.backlog;
+	}
+
+	/**
+	 * The number of threads waiting for a reference to become available on the queue.
+	 *
+	 * @return The waiter count.
+	 */
+	public int getWaiterCount() {
+		return this.waiterCount;
+	}
+
+	/**
+	 * Receives a {@link javax.management.openmbean.CompositeData} representing a {@link ReferenceQueueUsage}
+	 * object and attempts to return the root {@link ReferenceQueueUsage}
+	 * instance.
+	 *
+	 * @param cd	A {@link javax.management.openmbean.CompositeData} that represents a {@link ReferenceQueueUsage}
+	 *
+	 * @return	if <code>cd</code> is non- <code>null</code>, returns a new instance of
+	 * 		{@link ReferenceQueueUsage}, If <code>cd</code>
+	 * 		is <code>null</code>, returns <code>null</code>.
+	 *
+	 * @throws IllegalArgumentException	if argument <code>cd</code> does not correspond to a
+	 * 		{@link ReferenceQueueUsage} with the following attributes:
+	 * 		<ul>
+	 * 		<li><code>name</code>(<code>java.lang.String</code>)</li>
+	 * 		<li><code>enqueuedCount</code>(<code>java.lang.Long</code>)</li>
+	 * 		<li><code>drainedCount</code>(<code>java.lang.Long</code>)</li>
+	 * 		<li><code>backlog</code>(<code>java.lang.Long</code>)</li>
+	 * 		<li><code>waiterCount</code>(<code>java.lang.Integer</code>)</li>
+	 * 		</ul>
+	 */
+	public static ReferenceQueueUsage from(CompositeData cd) {
+		ReferenceQueueUsage result = null;
+
+		if (null != cd) {
+			// Is the new received CompositeData of the required type to create
+			// a new ReferenceQueueUsage ?
+			if (!ReferenceQueueUsageUtil.getCompositeType().isValue(cd)) {
+				/*[MSG "K05E5", "CompositeData is not of the expected type."]*/
+				throw new IllegalArgumentException(com.ibm.oti.util.Msg.getString("K05E5")); //$NON-NLS-1$
+			}
+
+			String name;
+			long enqueuedCount;
+			long drainedCount;
+			long backlog;
+			int waiterCount;
+
+			try {
+				name = (String) cd.get("name"); //$NON-NLS-1$
+				enqueuedCount = ((Long) cd.get("enqueuedCount")).longValue(); //$NON-NLS-1$
+				drainedCount = ((Long) cd.get("drainedCount")).longValue(); //$NON-NLS-1$
+				backlog = ((Long) cd.get("backlog")).longValue(); //$NON-NLS-1$
+				waiterCount = ((Integer) cd.get("waiterCount")).intValue(); //$NON-NLS-1$
+			} catch (InvalidKeyException e) {
+				/*[MSG "K05E6", "CompositeData object does not contain expected key."]*/
+				throw new IllegalArgumentException(com.ibm.oti.util.Msg.getString("K05E6")); //$NON-NLS-1$
+			}
+
+			result = new ReferenceQueueUsage(name, enqueuedCount, drainedCount, backlog, waiterCount);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Text description of this {@link ReferenceQueueUsage} object.
+	 *
+	 * @return Text description of this {@link ReferenceQueueUsage} object.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(this.getClass().getSimpleName());
+		sb.append("[name="); //$NON-NLS-1$
+		sb.append(this.name);
+		sb.append(", enqueuedCount="); //$NON-NLS-1$
+		sb.append(this.enqueuedCount);
+		sb.append(", drainedCount="); //$NON-NLS-1$
+		sb.append(this.drainedCount);
+		sb.append(", backlog="); //$NON-NLS-1$
+		sb.append(this.backlog);
+		sb.append(", waiterCount="); //$NON-NLS-1$
+		sb.append(this.waiterCount);
+		sb.append("]"); //$NON-NLS-1$
+
+		return sb.toString();
+	}
+
+}
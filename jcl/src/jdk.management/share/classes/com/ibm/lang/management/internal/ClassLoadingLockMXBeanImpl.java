@@ -0,0 +1,110 @@
+/*[INCLUDE-IF Sidecar18-SE]*/
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.lang.management.internal;
+
+import javax.management.ObjectName;
+
+import com.ibm.java.lang.management.internal.ManagementUtils;
+import com.ibm.lang.management.ClassLoadingLockMXBean;
+import com.ibm.lang.management.ClassLoadingLockUsage;
+import com.ibm.oti.vm.VM;
+import com.ibm.oti.vm.VMLangAccess;
+
+/**
+ * Runtime type for {@link ClassLoadingLockMXBean}.
+ */
+public final class ClassLoadingLockMXBeanImpl implements ClassLoadingLockMXBean {
+
+	private static final String CLASS_LOADING_LOCK_MXBEAN_NAME = "com.ibm.lang.management:type=ClassLoadingLock"; //$NON-NLS-1$
+
+	private static final ClassLoadingLockMXBeanImpl instance = new ClassLoadingLockMXBeanImpl();
+
+	private ObjectName objectName;
+
+	/**
+	 * Singleton accessor method. Returns an instance of {@link ClassLoadingLockMXBeanImpl}
+	 *
+	 * @return a static instance of {@link ClassLoadingLockMXBeanImpl}
+	 */
+	public static ClassLoadingLockMXBeanImpl getInstance() {
+		return instance;
+	}
+
+	private ClassLoadingLockMXBeanImpl() {
+		super();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ObjectName getObjectName() {
+		if (objectName == null) {
+			objectName = ManagementUtils.createObjectName(CLASS_LOADING_LOCK_MXBEAN_NAME);
+		}
+		return objectName;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ClassLoadingLockUsage[] getClassLoadingLockUsage() {
+		VMLangAccess access = VM.getVMLangAccess();
+		ClassLoader[] loaders = access.getContendedClassLoaders();
+		ClassLoadingLockUsage[] usage = new ClassLoadingLockUsage[loaders.length];
+		for (int i = 0; i < loaders.length; i++) {
+			ClassLoader loader = loaders[i];
+			String name = loader.getClass().getName() + '@' + Integer.toHexString(System.identityHashCode(loader));
+			usage[i] = new ClassLoadingLockUsage(name, access.getClassLoadingLockWaitCount(loader), access.getClassLoadingLockWaitTime(loader));
+		}
+		return usage;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getTotalWaitCount() {
+		VMLangAccess access = VM.getVMLangAccess();
+		long total = 0;
+		for (ClassLoader loader : access.getContendedClassLoaders()) {
+			total += access.getClassLoadingLockWaitCount(loader);
+		}
+		return total;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getTotalWaitTime() {
+		VMLangAccess access = VM.getVMLangAccess();
+		long total = 0;
+		for (ClassLoader loader : access.getContendedClassLoaders()) {
+			total += access.getClassLoadingLockWaitTime(loader);
+		}
+		return total;
+	}
+
+}
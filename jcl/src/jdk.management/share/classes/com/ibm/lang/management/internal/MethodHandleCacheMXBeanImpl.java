@@ -0,0 +1,169 @@
+/*[INCLUDE-IF Sidecar18-SE]*/
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.lang.management.internal;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+
+import javax.management.ObjectName;
+
+import com.ibm.java.lang.management.internal.ManagementPermissionHelper;
+import com.ibm.java.lang.management.internal.ManagementUtils;
+import com.ibm.lang.management.MethodHandleCacheMXBean;
+import com.ibm.lang.management.MethodHandleCacheUsage;
+import com.ibm.oti.vm.MethodHandleCacheAccess;
+import com.ibm.oti.vm.VM;
+
+/**
+ * Runtime type for {@link MethodHandleCacheMXBean}.
+ */
+public final class MethodHandleCacheMXBeanImpl implements MethodHandleCacheMXBean {
+
+	private static final String METHOD_HANDLE_CACHE_MXBEAN_NAME = "com.ibm.lang.management:type=MethodHandleCache"; //$NON-NLS-1$
+
+	private static final MethodHandleCacheMXBeanImpl instance = new MethodHandleCacheMXBeanImpl();
+
+	private ObjectName objectName;
+
+	/**
+	 * Singleton accessor method. Returns an instance of {@link MethodHandleCacheMXBeanImpl}
+	 *
+	 * @return a static instance of {@link MethodHandleCacheMXBeanImpl}
+	 */
+	public static MethodHandleCacheMXBeanImpl getInstance() {
+		return instance;
+	}
+
+	private MethodHandleCacheMXBeanImpl() {
+		super();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ObjectName getObjectName() {
+		if (objectName == null) {
+			objectName = ManagementUtils.createObjectName(METHOD_HANDLE_CACHE_MXBEAN_NAME);
+		}
+		return objectName;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isStatisticsEnabled() {
+		MethodHandleCacheAccess access = access();
+		return (null != access) && access.isStatisticsEnabled();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setStatisticsEnabled(boolean enabled) {
+		@SuppressWarnings("removal")
+		SecurityManager security = System.getSecurityManager();
+		if (security != null) {
+			security.checkPermission(ManagementPermissionHelper.MPCONTROL);
+		}
+		MethodHandleCacheAccess access = access();
+		if (null != access) {
+			access.setStatisticsEnabled(enabled);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public MethodHandleCacheUsage[] getMethodHandleCacheUsage() {
+		MethodHandleCacheAccess access = access();
+		if (null == access) {
+			return new MethodHandleCacheUsage[0];
+		}
+		String[] names = access.getCacheNames();
+		MethodHandleCacheUsage[] usage = new MethodHandleCacheUsage[names.length];
+		for (int i = 0; i < names.length; i++) {
+			String name = names[i];
+			usage[i] = new MethodHandleCacheUsage(name, access.getHitCount(name), access.getMissCount(name), access.getEntryCount(name));
+		}
+		return usage;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getTotalHitCount() {
+		long total = 0;
+		for (MethodHandleCacheUsage usage : getMethodHandleCacheUsage()) {
+			total += usage.getHitCount();
+		}
+		return total;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getTotalMissCount() {
+		long total = 0;
+		for (MethodHandleCacheUsage usage : getMethodHandleCacheUsage()) {
+			total += usage.getMissCount();
+		}
+		return total;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getTotalEntryCount() {
+		long total = 0;
+		for (MethodHandleCacheUsage usage : getMethodHandleCacheUsage()) {
+			total += usage.getEntryCount();
+		}
+		return total;
+	}
+
+	private static MethodHandleCacheAccess access() {
+		MethodHandleCacheAccess access = VM.getMethodHandleCacheAccess();
+		if (null == access) {
+			/* the caches register the access when they are initialized, which is normally on the first lookup */
+			PrivilegedAction<Void> initializeCaches = () -> {
+				try {
+					Class.forName("java.lang.invoke.HandleCache", true, null); //$NON-NLS-1$
+				} catch (ClassNotFoundException e) {
+					/* this method handle implementation does not use the caches */
+				}
+				return null;
+			};
+			AccessController.doPrivileged(initializeCaches);
+			access = VM.getMethodHandleCacheAccess();
+		}
+		return access;
+	}
+
+}
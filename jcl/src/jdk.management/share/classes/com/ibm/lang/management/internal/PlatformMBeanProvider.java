@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar19-SE]*/
 /*******************************************************************************
- * Copyright (c) 2016, 2019 IBM Corp. and others
+ * Copyright (c) 2016, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -29,7 +29,10 @@ import java.util.List;
 
 import com.ibm.java.lang.management.internal.ComponentBuilder;
 import com.ibm.java.lang.management.internal.ManagementUtils;
+import com.ibm.lang.management.ClassLoadingLockMXBean;
 import com.ibm.lang.management.JvmCpuMonitorMXBean;
+import com.ibm.lang.management.MethodHandleCacheMXBean;
+import com.ibm.lang.management.ReferenceQueueMXBean;
 import com.ibm.virtualization.management.internal.GuestOS;
 import com.ibm.virtualization.management.internal.HypervisorMXBeanImpl;
 import openj9.lang.management.OpenJ9DiagnosticsMXBean;
@@ -92,6 +95,18 @@ public final class PlatformMBeanProvider extends sun.management.spi.PlatformMBea
 			.addInterface(JvmCpuMonitorMXBean.class)
 			.register(allComponents);
 
+		ComponentBuilder.create("com.ibm.lang.management:type=ClassLoadingLock", ClassLoadingLockMXBeanImpl.getInstance()) //$NON-NLS-1$
+			.addInterface(ClassLoadingLockMXBean.class)
+			.register(allComponents);
+
+		ComponentBuilder.create("com.ibm.lang.management:type=ReferenceQueue", ReferenceQueueMXBeanImpl.getInstance()) //$NON-NLS-1$
+			.addInterface(ReferenceQueueMXBean.class)
+			.register(allComponents);
+
+		ComponentBuilder.create("com.ibm.lang.management:type=MethodHandleCache", MethodHandleCacheMXBeanImpl.getInstance()) //$NON-NLS-1$
+			.addInterface(MethodHandleCacheMXBean.class)
+			.register(allComponents);
+
 		/* OpenJ9DiagnosticsMXBeanImpl depends on openj9.jvm. If openj9.jvm is not
 		 * available exclude this component.
 		 */
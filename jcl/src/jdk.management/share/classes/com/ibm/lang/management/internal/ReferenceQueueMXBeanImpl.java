@@ -0,0 +1,168 @@
+/*[INCLUDE-IF Sidecar18-SE]*/
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.lang.management.internal;
+
+import java.lang.ref.ReferenceQueue;
+
+import javax.management.ObjectName;
+
+import com.ibm.java.lang.management.internal.ManagementPermissionHelper;
+import com.ibm.java.lang.management.internal.ManagementUtils;
+import com.ibm.lang.management.ReferenceQueueMXBean;
+import com.ibm.lang.management.ReferenceQueueUsage;
+import com.ibm.oti.vm.ReferenceQueueAccess;
+import com.ibm.oti.vm.VM;
+
+/**
+ * Runtime type for {@link ReferenceQueueMXBean}.
+ * <p>
+ * The counters are read from the queues without stopping them, so the
+ * snapshot of each queue is consistent but the queues are not consistent
+ * with each other.
+ * </p>
+ */
+public final class ReferenceQueueMXBeanImpl implements ReferenceQueueMXBean {
+
+	private static final String REFERENCE_QUEUE_MXBEAN_NAME = "com.ibm.lang.management:type=ReferenceQueue"; //$NON-NLS-1$
+
+	private static final ReferenceQueueMXBeanImpl instance = new ReferenceQueueMXBeanImpl();
+
+	private ObjectName objectName;
+
+	/**
+	 * Singleton accessor method. Returns an instance of {@link ReferenceQueueMXBeanImpl}
+	 *
+	 * @return a static instance of {@link ReferenceQueueMXBeanImpl}
+	 */
+	public static ReferenceQueueMXBeanImpl getInstance() {
+		return instance;
+	}
+
+	private ReferenceQueueMXBeanImpl() {
+		super();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ObjectName getObjectName() {
+		if (objectName == null) {
+			objectName = ManagementUtils.createObjectName(REFERENCE_QUEUE_MXBEAN_NAME);
+		}
+		return objectName;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isTrackingEnabled() {
+		return access().isTrackingEnabled();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setTrackingEnabled(boolean enabled) {
+		@SuppressWarnings("removal")
+		SecurityManager security = System.getSecurityManager();
+		if (security != null) {
+			security.checkPermission(ManagementPermissionHelper.MPCONTROL);
+		}
+		access().setTrackingEnabled(enabled);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ReferenceQueueUsage[] getReferenceQueueUsage() {
+		ReferenceQueueAccess access = access();
+		ReferenceQueue<?>[] queues = access.getTrackedQueues();
+		ReferenceQueueUsage[] usage = new ReferenceQueueUsage[queues.length];
+		for (int i = 0; i < queues.length; i++) {
+			ReferenceQueue<?> queue = queues[i];
+			long drained = access.getDrainedCount(queue);
+			long enqueued = access.getEnqueuedCount(queue);
+			String name = queue.getClass().getName() + '@' + Integer.toHexString(System.identityHashCode(queue));
+			usage[i] = new ReferenceQueueUsage(name, enqueued, drained, backlog(enqueued, drained), access.getWaiterCount(queue));
+		}
+		return usage;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getTotalEnqueuedCount() {
+		ReferenceQueueAccess access = access();
+		long total = 0;
+		for (ReferenceQueue<?> queue : access.getTrackedQueues()) {
+			total += access.getEnqueuedCount(queue);
+		}
+		return total;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getTotalDrainedCount() {
+		ReferenceQueueAccess access = access();
+		long total = 0;
+		for (ReferenceQueue<?> queue : access.getTrackedQueues()) {
+			total += access.getDrainedCount(queue);
+		}
+		return total;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getTotalBacklog() {
+		ReferenceQueueAccess access = access();
+		long total = 0;
+		for (ReferenceQueue<?> queue : access.getTrackedQueues()) {
+			long drained = access.getDrainedCount(queue);
+			total += backlog(access.getEnqueuedCount(queue), drained);
+		}
+		return total;
+	}
+
+	/**
+	 * The drained count is read first and each count only grows, so the backlog can
+	 * only appear negative if counts are read while another thread updates them.
+	 */
+	private static long backlog(long enqueued, long drained) {
+		return Math.max(0, enqueued - drained);
+	}
+
+	private static ReferenceQueueAccess access() {
+		/* java.lang.ref.ReferenceQueue registers the access when it is initialized, during startup */
+		return VM.getReferenceQueueAccess();
+	}
+
+}
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF DAA]*/
 /*******************************************************************************
- * Copyright (c) 2013, 2015 IBM Corp. and others
+ * Copyright (c) 2013, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -23,9 +23,11 @@
 
 package com.ibm.dataaccess;
 
+import java.nio.ByteBuffer;
+
 /**
  * Conversion routines to marshall Java binary types (short, int, long, float,
- * double) to byte arrays.
+ * double) to byte arrays and byte buffers.
  *
  * @author IBM
  * @version $Revision$ on $Date$ 
@@ -580,4 +582,539 @@ public class ByteArrayMarshaller {
         writeLong(Double.doubleToLongBits(value), byteArray, offset, bigEndian);
     }
 
+    /**
+     * Copies <code>count</code> short values from the short array starting at
+     * <code>valuesOffset</code>, each into two consecutive bytes of the byte
+     * array starting at the offset. The bounds are checked once for the whole
+     * run rather than for every value.
+     * 
+     * @param values
+     *            the short values to marshall
+     * @param valuesOffset
+     *            offset in the short array
+     * @param count
+     *            the number of values to copy
+     * @param byteArray
+     *            destination
+     * @param offset
+     *            offset in the byte array
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>values</code> or <code>byteArray</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if an invalid array access occurs
+     */
+    public static void writeShorts(short[] values, int valuesOffset, int count,
+            byte[] byteArray, int offset, boolean bigEndian) {
+        CommonData.checkBulkAccess("writeShorts", byteArray.length, offset, 2, values.length, valuesOffset, count); //$NON-NLS-1$
+
+        int end = valuesOffset + count;
+        if (bigEndian) {
+            for (int i = valuesOffset; i < end; i++, offset += 2) {
+                writeShort_(values[i], byteArray, offset, true);
+            }
+        } else {
+            for (int i = valuesOffset; i < end; i++, offset += 2) {
+                writeShort_(values[i], byteArray, offset, false);
+            }
+        }
+    }
+
+    /**
+     * Copies <code>count</code> int values from the int array starting at
+     * <code>valuesOffset</code>, each into four consecutive bytes of the byte
+     * array starting at the offset. The bounds are checked once for the whole
+     * run rather than for every value.
+     * 
+     * @param values
+     *            the int values to marshall
+     * @param valuesOffset
+     *            offset in the int array
+     * @param count
+     *            the number of values to copy
+     * @param byteArray
+     *            destination
+     * @param offset
+     *            offset in the byte array
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>values</code> or <code>byteArray</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if an invalid array access occurs
+     */
+    public static void writeInts(int[] values, int valuesOffset, int count,
+            byte[] byteArray, int offset, boolean bigEndian) {
+        CommonData.checkBulkAccess("writeInts", byteArray.length, offset, 4, values.length, valuesOffset, count); //$NON-NLS-1$
+
+        int end = valuesOffset + count;
+        if (bigEndian) {
+            for (int i = valuesOffset; i < end; i++, offset += 4) {
+                writeInt_(values[i], byteArray, offset, true);
+            }
+        } else {
+            for (int i = valuesOffset; i < end; i++, offset += 4) {
+                writeInt_(values[i], byteArray, offset, false);
+            }
+        }
+    }
+
+    /**
+     * Copies <code>count</code> long values from the long array starting at
+     * <code>valuesOffset</code>, each into eight consecutive bytes of the byte
+     * array starting at the offset. The bounds are checked once for the whole
+     * run rather than for every value.
+     * 
+     * @param values
+     *            the long values to marshall
+     * @param valuesOffset
+     *            offset in the long array
+     * @param count
+     *            the number of values to copy
+     * @param byteArray
+     *            destination
+     * @param offset
+     *            offset in the byte array
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>values</code> or <code>byteArray</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if an invalid array access occurs
+     */
+    public static void writeLongs(long[] values, int valuesOffset, int count,
+            byte[] byteArray, int offset, boolean bigEndian) {
+        CommonData.checkBulkAccess("writeLongs", byteArray.length, offset, 8, values.length, valuesOffset, count); //$NON-NLS-1$
+
+        int end = valuesOffset + count;
+        if (bigEndian) {
+            for (int i = valuesOffset; i < end; i++, offset += 8) {
+                writeLong_(values[i], byteArray, offset, true);
+            }
+        } else {
+            for (int i = valuesOffset; i < end; i++, offset += 8) {
+                writeLong_(values[i], byteArray, offset, false);
+            }
+        }
+    }
+
+    /**
+     * Copies <code>count</code> float values from the float array starting at
+     * <code>valuesOffset</code>, each into four consecutive bytes of the byte
+     * array starting at the offset. The bounds are checked once for the whole
+     * run rather than for every value.
+     * 
+     * @param values
+     *            the float values to marshall
+     * @param valuesOffset
+     *            offset in the float array
+     * @param count
+     *            the number of values to copy
+     * @param byteArray
+     *            destination
+     * @param offset
+     *            offset in the byte array
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>values</code> or <code>byteArray</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if an invalid array access occurs
+     */
+    public static void writeFloats(float[] values, int valuesOffset, int count,
+            byte[] byteArray, int offset, boolean bigEndian) {
+        CommonData.checkBulkAccess("writeFloats", byteArray.length, offset, 4, values.length, valuesOffset, count); //$NON-NLS-1$
+
+        int end = valuesOffset + count;
+        if (bigEndian) {
+            for (int i = valuesOffset; i < end; i++, offset += 4) {
+                writeInt_(Float.floatToIntBits(values[i]), byteArray, offset, true);
+            }
+        } else {
+            for (int i = valuesOffset; i < end; i++, offset += 4) {
+                writeInt_(Float.floatToIntBits(values[i]), byteArray, offset, false);
+            }
+        }
+    }
+
+    /**
+     * Copies <code>count</code> double values from the double array starting at
+     * <code>valuesOffset</code>, each into eight consecutive bytes of the byte
+     * array starting at the offset. The bounds are checked once for the whole
+     * run rather than for every value.
+     * 
+     * @param values
+     *            the double values to marshall
+     * @param valuesOffset
+     *            offset in the double array
+     * @param count
+     *            the number of values to copy
+     * @param byteArray
+     *            destination
+     * @param offset
+     *            offset in the byte array
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>values</code> or <code>byteArray</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if an invalid array access occurs
+     */
+    public static void writeDoubles(double[] values, int valuesOffset, int count,
+            byte[] byteArray, int offset, boolean bigEndian) {
+        CommonData.checkBulkAccess("writeDoubles", byteArray.length, offset, 8, values.length, valuesOffset, count); //$NON-NLS-1$
+
+        int end = valuesOffset + count;
+        if (bigEndian) {
+            for (int i = valuesOffset; i < end; i++, offset += 8) {
+                writeLong_(Double.doubleToLongBits(values[i]), byteArray, offset, true);
+            }
+        } else {
+            for (int i = valuesOffset; i < end; i++, offset += 8) {
+                writeLong_(Double.doubleToLongBits(values[i]), byteArray, offset, false);
+            }
+        }
+    }
+
+    /**
+     * Copies the short value into two consecutive bytes of the buffer
+     * starting at the offset. The offset is an absolute index, the position
+     * and byte order of the buffer are neither used nor modified.
+     * 
+     * @param value
+     *            the short value to marshall
+     * @param buffer
+     *            destination, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset in the buffer
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>buffer</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer access occurs
+     * @throws java.nio.ReadOnlyBufferException
+     *             if the buffer is read-only
+     */
+    public static void writeShort(short value, ByteBuffer buffer, int offset,
+            boolean bigEndian) {
+        CommonData.checkBufferAccess("writeShort", buffer.limit(), offset, 2, 1); //$NON-NLS-1$
+        buffer.putShort(offset, (CommonData.isBigEndian(buffer) == bigEndian) ? value : Short.reverseBytes(value));
+    }
+
+    /**
+     * Copies the int value into four consecutive bytes of the buffer
+     * starting at the offset. The offset is an absolute index, the position
+     * and byte order of the buffer are neither used nor modified.
+     * 
+     * @param value
+     *            the int value to marshall
+     * @param buffer
+     *            destination, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset in the buffer
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>buffer</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer access occurs
+     * @throws java.nio.ReadOnlyBufferException
+     *             if the buffer is read-only
+     */
+    public static void writeInt(int value, ByteBuffer buffer, int offset,
+            boolean bigEndian) {
+        CommonData.checkBufferAccess("writeInt", buffer.limit(), offset, 4, 1); //$NON-NLS-1$
+        buffer.putInt(offset, (CommonData.isBigEndian(buffer) == bigEndian) ? value : Integer.reverseBytes(value));
+    }
+
+    /**
+     * Copies the long value into eight consecutive bytes of the buffer
+     * starting at the offset. The offset is an absolute index, the position
+     * and byte order of the buffer are neither used nor modified.
+     * 
+     * @param value
+     *            the long value to marshall
+     * @param buffer
+     *            destination, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset in the buffer
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>buffer</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer access occurs
+     * @throws java.nio.ReadOnlyBufferException
+     *             if the buffer is read-only
+     */
+    public static void writeLong(long value, ByteBuffer buffer, int offset,
+            boolean bigEndian) {
+        CommonData.checkBufferAccess("writeLong", buffer.limit(), offset, 8, 1); //$NON-NLS-1$
+        buffer.putLong(offset, (CommonData.isBigEndian(buffer) == bigEndian) ? value : Long.reverseBytes(value));
+    }
+
+    /**
+     * Copies the float value into four consecutive bytes of the buffer
+     * starting at the offset. The offset is an absolute index, the position
+     * and byte order of the buffer are neither used nor modified.
+     * 
+     * @param value
+     *            the float value to marshall
+     * @param buffer
+     *            destination, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset in the buffer
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>buffer</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer access occurs
+     * @throws java.nio.ReadOnlyBufferException
+     *             if the buffer is read-only
+     */
+    public static void writeFloat(float value, ByteBuffer buffer, int offset,
+            boolean bigEndian) {
+        writeInt(Float.floatToIntBits(value), buffer, offset, bigEndian);
+    }
+
+    /**
+     * Copies the double value into eight consecutive bytes of the buffer
+     * starting at the offset. The offset is an absolute index, the position
+     * and byte order of the buffer are neither used nor modified.
+     * 
+     * @param value
+     *            the double value to marshall
+     * @param buffer
+     *            destination, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset in the buffer
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>buffer</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer access occurs
+     * @throws java.nio.ReadOnlyBufferException
+     *             if the buffer is read-only
+     */
+    public static void writeDouble(double value, ByteBuffer buffer, int offset,
+            boolean bigEndian) {
+        writeLong(Double.doubleToLongBits(value), buffer, offset, bigEndian);
+    }
+
+    /**
+     * Copies <code>count</code> short values from the short array starting at
+     * <code>valuesOffset</code>, each into two consecutive bytes of the
+     * buffer starting at the offset. The offset is an absolute index, the
+     * position and byte order of the buffer are neither used nor modified. The
+     * bounds are checked once for the whole run and the values are written in
+     * place.
+     * 
+     * @param values
+     *            the short values to marshall
+     * @param valuesOffset
+     *            offset in the short array
+     * @param count
+     *            the number of values to copy
+     * @param buffer
+     *            destination, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset in the buffer
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>values</code> or <code>buffer</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer or array access occurs
+     * @throws java.nio.ReadOnlyBufferException
+     *             if the buffer is read-only
+     */
+    public static void writeShorts(short[] values, int valuesOffset, int count,
+            ByteBuffer buffer, int offset, boolean bigEndian) {
+        CommonData.checkBufferAccess("writeShorts", buffer.limit(), offset, 2, count); //$NON-NLS-1$
+        CommonData.checkValuesAccess("writeShorts", values.length, valuesOffset, count); //$NON-NLS-1$
+
+        CommonData.getOrderedView(buffer, offset, bigEndian).asShortBuffer().put(values, valuesOffset, count);
+    }
+
+    /**
+     * Copies <code>count</code> int values from the int array starting at
+     * <code>valuesOffset</code>, each into four consecutive bytes of the
+     * buffer starting at the offset. The offset is an absolute index, the
+     * position and byte order of the buffer are neither used nor modified. The
+     * bounds are checked once for the whole run and the values are written in
+     * place.
+     * 
+     * @param values
+     *            the int values to marshall
+     * @param valuesOffset
+     *            offset in the int array
+     * @param count
+     *            the number of values to copy
+     * @param buffer
+     *            destination, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset in the buffer
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>values</code> or <code>buffer</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer or array access occurs
+     * @throws java.nio.ReadOnlyBufferException
+     *             if the buffer is read-only
+     */
+    public static void writeInts(int[] values, int valuesOffset, int count,
+            ByteBuffer buffer, int offset, boolean bigEndian) {
+        CommonData.checkBufferAccess("writeInts", buffer.limit(), offset, 4, count); //$NON-NLS-1$
+        CommonData.checkValuesAccess("writeInts", values.length, valuesOffset, count); //$NON-NLS-1$
+
+        CommonData.getOrderedView(buffer, offset, bigEndian).asIntBuffer().put(values, valuesOffset, count);
+    }
+
+    /**
+     * Copies <code>count</code> long values from the long array starting at
+     * <code>valuesOffset</code>, each into eight consecutive bytes of the
+     * buffer starting at the offset. The offset is an absolute index, the
+     * position and byte order of the buffer are neither used nor modified. The
+     * bounds are checked once for the whole run and the values are written in
+     * place.
+     * 
+     * @param values
+     *            the long values to marshall
+     * @param valuesOffset
+     *            offset in the long array
+     * @param count
+     *            the number of values to copy
+     * @param buffer
+     *            destination, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset in the buffer
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>values</code> or <code>buffer</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer or array access occurs
+     * @throws java.nio.ReadOnlyBufferException
+     *             if the buffer is read-only
+     */
+    public static void writeLongs(long[] values, int valuesOffset, int count,
+            ByteBuffer buffer, int offset, boolean bigEndian) {
+        CommonData.checkBufferAccess("writeLongs", buffer.limit(), offset, 8, count); //$NON-NLS-1$
+        CommonData.checkValuesAccess("writeLongs", values.length, valuesOffset, count); //$NON-NLS-1$
+
+        CommonData.getOrderedView(buffer, offset, bigEndian).asLongBuffer().put(values, valuesOffset, count);
+    }
+
+    /**
+     * Copies <code>count</code> float values from the float array starting at
+     * <code>valuesOffset</code>, each into four consecutive bytes of the
+     * buffer starting at the offset. The offset is an absolute index, the
+     * position and byte order of the buffer are neither used nor modified. The
+     * bounds are checked once for the whole run and the values are written in
+     * place.
+     * 
+     * @param values
+     *            the float values to marshall
+     * @param valuesOffset
+     *            offset in the float array
+     * @param count
+     *            the number of values to copy
+     * @param buffer
+     *            destination, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset in the buffer
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>values</code> or <code>buffer</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer or array access occurs
+     * @throws java.nio.ReadOnlyBufferException
+     *             if the buffer is read-only
+     */
+    public static void writeFloats(float[] values, int valuesOffset, int count,
+            ByteBuffer buffer, int offset, boolean bigEndian) {
+        CommonData.checkBufferAccess("writeFloats", buffer.limit(), offset, 4, count); //$NON-NLS-1$
+        CommonData.checkValuesAccess("writeFloats", values.length, valuesOffset, count); //$NON-NLS-1$
+
+        ByteBuffer view = CommonData.getOrderedView(buffer, offset, bigEndian);
+        int end = valuesOffset + count;
+        for (int i = valuesOffset; i < end; i++, offset += 4) {
+            view.putInt(offset, Float.floatToIntBits(values[i]));
+        }
+    }
+
+    /**
+     * Copies <code>count</code> double values from the double array starting at
+     * <code>valuesOffset</code>, each into eight consecutive bytes of the
+     * buffer starting at the offset. The offset is an absolute index, the
+     * position and byte order of the buffer are neither used nor modified. The
+     * bounds are checked once for the whole run and the values are written in
+     * place.
+     * 
+     * @param values
+     *            the double values to marshall
+     * @param valuesOffset
+     *            offset in the double array
+     * @param count
+     *            the number of values to copy
+     * @param buffer
+     *            destination, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset in the buffer
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>values</code> or <code>buffer</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer or array access occurs
+     * @throws java.nio.ReadOnlyBufferException
+     *             if the buffer is read-only
+     */
+    public static void writeDoubles(double[] values, int valuesOffset, int count,
+            ByteBuffer buffer, int offset, boolean bigEndian) {
+        CommonData.checkBufferAccess("writeDoubles", buffer.limit(), offset, 8, count); //$NON-NLS-1$
+        CommonData.checkValuesAccess("writeDoubles", values.length, valuesOffset, count); //$NON-NLS-1$
+
+        ByteBuffer view = CommonData.getOrderedView(buffer, offset, bigEndian);
+        int end = valuesOffset + count;
+        for (int i = valuesOffset; i < end; i++, offset += 8) {
+            view.putLong(offset, Double.doubleToLongBits(values[i]));
+        }
+    }
 }
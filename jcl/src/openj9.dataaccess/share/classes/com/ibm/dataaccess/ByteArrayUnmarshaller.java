@@ -1,6 +1,6 @@
 /*[INCLUDE-IF DAA]*/
 /*******************************************************************************
- * Copyright (c) 2013, 2020 IBM Corp. and others
+ * Copyright (c) 2013, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -22,9 +22,11 @@
  *******************************************************************************/
 package com.ibm.dataaccess;
 
+import java.nio.ByteBuffer;
+
 /**
  * Conversion routines to unmarshall Java binary types (short, int, long, float,
- * double) from byte arrays.
+ * double) from byte arrays and byte buffers.
  * 
  * <p>
  * With sign extensions enabled, the marshalled data is interpreted as signed
@@ -647,4 +649,510 @@ public final class ByteArrayUnmarshaller {
             boolean bigEndian) {
         return Double.longBitsToDouble(readLong(byteArray, offset, bigEndian));
     }
+
+    /**
+     * Copies <code>count</code> short values, each from two consecutive bytes
+     * of the byte array starting at the offset, into the short array starting
+     * at <code>valuesOffset</code>. The bounds are checked once for the whole
+     * run rather than for every value.
+     * 
+     * @param byteArray
+     *            source
+     * @param offset
+     *            offset in the byte array
+     * @param values
+     *            destination
+     * @param valuesOffset
+     *            offset in the short array
+     * @param count
+     *            the number of values to copy
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>byteArray</code> or <code>values</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if an invalid array access occurs
+     */
+    public static void readShorts(byte[] byteArray, int offset, short[] values,
+            int valuesOffset, int count, boolean bigEndian) {
+        CommonData.checkBulkAccess("readShorts", byteArray.length, offset, 2, values.length, valuesOffset, count); //$NON-NLS-1$
+
+        int end = valuesOffset + count;
+        if (bigEndian) {
+            for (int i = valuesOffset; i < end; i++, offset += 2) {
+                values[i] = readShort_(byteArray, offset, true);
+            }
+        } else {
+            for (int i = valuesOffset; i < end; i++, offset += 2) {
+                values[i] = readShort_(byteArray, offset, false);
+            }
+        }
+    }
+
+    /**
+     * Copies <code>count</code> int values, each from four consecutive bytes
+     * of the byte array starting at the offset, into the int array starting
+     * at <code>valuesOffset</code>. The bounds are checked once for the whole
+     * run rather than for every value.
+     * 
+     * @param byteArray
+     *            source
+     * @param offset
+     *            offset in the byte array
+     * @param values
+     *            destination
+     * @param valuesOffset
+     *            offset in the int array
+     * @param count
+     *            the number of values to copy
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>byteArray</code> or <code>values</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if an invalid array access occurs
+     */
+    public static void readInts(byte[] byteArray, int offset, int[] values,
+            int valuesOffset, int count, boolean bigEndian) {
+        CommonData.checkBulkAccess("readInts", byteArray.length, offset, 4, values.length, valuesOffset, count); //$NON-NLS-1$
+
+        int end = valuesOffset + count;
+        if (bigEndian) {
+            for (int i = valuesOffset; i < end; i++, offset += 4) {
+                values[i] = readInt_(byteArray, offset, true);
+            }
+        } else {
+            for (int i = valuesOffset; i < end; i++, offset += 4) {
+                values[i] = readInt_(byteArray, offset, false);
+            }
+        }
+    }
+
+    /**
+     * Copies <code>count</code> long values, each from eight consecutive bytes
+     * of the byte array starting at the offset, into the long array starting
+     * at <code>valuesOffset</code>. The bounds are checked once for the whole
+     * run rather than for every value.
+     * 
+     * @param byteArray
+     *            source
+     * @param offset
+     *            offset in the byte array
+     * @param values
+     *            destination
+     * @param valuesOffset
+     *            offset in the long array
+     * @param count
+     *            the number of values to copy
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>byteArray</code> or <code>values</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if an invalid array access occurs
+     */
+    public static void readLongs(byte[] byteArray, int offset, long[] values,
+            int valuesOffset, int count, boolean bigEndian) {
+        CommonData.checkBulkAccess("readLongs", byteArray.length, offset, 8, values.length, valuesOffset, count); //$NON-NLS-1$
+
+        int end = valuesOffset + count;
+        if (bigEndian) {
+            for (int i = valuesOffset; i < end; i++, offset += 8) {
+                values[i] = readLong_(byteArray, offset, true);
+            }
+        } else {
+            for (int i = valuesOffset; i < end; i++, offset += 8) {
+                values[i] = readLong_(byteArray, offset, false);
+            }
+        }
+    }
+
+    /**
+     * Copies <code>count</code> float values, each from four consecutive bytes
+     * of the byte array starting at the offset, into the float array starting
+     * at <code>valuesOffset</code>. The bounds are checked once for the whole
+     * run rather than for every value.
+     * 
+     * @param byteArray
+     *            source
+     * @param offset
+     *            offset in the byte array
+     * @param values
+     *            destination
+     * @param valuesOffset
+     *            offset in the float array
+     * @param count
+     *            the number of values to copy
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>byteArray</code> or <code>values</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if an invalid array access occurs
+     */
+    public static void readFloats(byte[] byteArray, int offset, float[] values,
+            int valuesOffset, int count, boolean bigEndian) {
+        CommonData.checkBulkAccess("readFloats", byteArray.length, offset, 4, values.length, valuesOffset, count); //$NON-NLS-1$
+
+        int end = valuesOffset + count;
+        if (bigEndian) {
+            for (int i = valuesOffset; i < end; i++, offset += 4) {
+                values[i] = Float.intBitsToFloat(readInt_(byteArray, offset, true));
+            }
+        } else {
+            for (int i = valuesOffset; i < end; i++, offset += 4) {
+                values[i] = Float.intBitsToFloat(readInt_(byteArray, offset, false));
+            }
+        }
+    }
+
+    /**
+     * Copies <code>count</code> double values, each from eight consecutive bytes
+     * of the byte array starting at the offset, into the double array starting
+     * at <code>valuesOffset</code>. The bounds are checked once for the whole
+     * run rather than for every value.
+     * 
+     * @param byteArray
+     *            source
+     * @param offset
+     *            offset in the byte array
+     * @param values
+     *            destination
+     * @param valuesOffset
+     *            offset in the double array
+     * @param count
+     *            the number of values to copy
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>byteArray</code> or <code>values</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if an invalid array access occurs
+     */
+    public static void readDoubles(byte[] byteArray, int offset, double[] values,
+            int valuesOffset, int count, boolean bigEndian) {
+        CommonData.checkBulkAccess("readDoubles", byteArray.length, offset, 8, values.length, valuesOffset, count); //$NON-NLS-1$
+
+        int end = valuesOffset + count;
+        if (bigEndian) {
+            for (int i = valuesOffset; i < end; i++, offset += 8) {
+                values[i] = Double.longBitsToDouble(readLong_(byteArray, offset, true));
+            }
+        } else {
+            for (int i = valuesOffset; i < end; i++, offset += 8) {
+                values[i] = Double.longBitsToDouble(readLong_(byteArray, offset, false));
+            }
+        }
+    }
+
+    /**
+     * Returns a short value copied from two consecutive bytes of the buffer
+     * starting at the offset. The offset is an absolute index, the position
+     * and byte order of the buffer are neither used nor modified.
+     * 
+     * @param buffer
+     *            source, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset in the buffer
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @return short
+     * 
+     * @throws NullPointerException
+     *             if <code>buffer</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer access occurs
+     */
+    public static short readShort(ByteBuffer buffer, int offset, boolean bigEndian) {
+        CommonData.checkBufferAccess("readShort", buffer.limit(), offset, 2, 1); //$NON-NLS-1$
+        short value = buffer.getShort(offset);
+        return (CommonData.isBigEndian(buffer) == bigEndian) ? value : Short.reverseBytes(value);
+    }
+
+    /**
+     * Returns an int value copied from four consecutive bytes of the buffer
+     * starting at the offset. The offset is an absolute index, the position
+     * and byte order of the buffer are neither used nor modified.
+     * 
+     * @param buffer
+     *            source, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset in the buffer
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @return int
+     * 
+     * @throws NullPointerException
+     *             if <code>buffer</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer access occurs
+     */
+    public static int readInt(ByteBuffer buffer, int offset, boolean bigEndian) {
+        CommonData.checkBufferAccess("readInt", buffer.limit(), offset, 4, 1); //$NON-NLS-1$
+        int value = buffer.getInt(offset);
+        return (CommonData.isBigEndian(buffer) == bigEndian) ? value : Integer.reverseBytes(value);
+    }
+
+    /**
+     * Returns a long value copied from eight consecutive bytes of the buffer
+     * starting at the offset. The offset is an absolute index, the position
+     * and byte order of the buffer are neither used nor modified.
+     * 
+     * @param buffer
+     *            source, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset in the buffer
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @return long
+     * 
+     * @throws NullPointerException
+     *             if <code>buffer</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer access occurs
+     */
+    public static long readLong(ByteBuffer buffer, int offset, boolean bigEndian) {
+        CommonData.checkBufferAccess("readLong", buffer.limit(), offset, 8, 1); //$NON-NLS-1$
+        long value = buffer.getLong(offset);
+        return (CommonData.isBigEndian(buffer) == bigEndian) ? value : Long.reverseBytes(value);
+    }
+
+    /**
+     * Returns a float value copied from four consecutive bytes of the buffer
+     * starting at the offset. The offset is an absolute index, the position
+     * and byte order of the buffer are neither used nor modified.
+     * 
+     * @param buffer
+     *            source, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset in the buffer
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @return float
+     * 
+     * @throws NullPointerException
+     *             if <code>buffer</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer access occurs
+     */
+    public static float readFloat(ByteBuffer buffer, int offset, boolean bigEndian) {
+        return Float.intBitsToFloat(readInt(buffer, offset, bigEndian));
+    }
+
+    /**
+     * Returns a double value copied from eight consecutive bytes of the buffer
+     * starting at the offset. The offset is an absolute index, the position
+     * and byte order of the buffer are neither used nor modified.
+     * 
+     * @param buffer
+     *            source, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset in the buffer
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @return double
+     * 
+     * @throws NullPointerException
+     *             if <code>buffer</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer access occurs
+     */
+    public static double readDouble(ByteBuffer buffer, int offset, boolean bigEndian) {
+        return Double.longBitsToDouble(readLong(buffer, offset, bigEndian));
+    }
+
+    /**
+     * Copies <code>count</code> short values, each from two consecutive bytes
+     * of the buffer starting at the offset, into the short array starting at
+     * <code>valuesOffset</code>. The offset is an absolute index, the position
+     * and byte order of the buffer are neither used nor modified. The bounds
+     * are checked once for the whole run and the values are read in place,
+     * without copying the buffer content to the heap first.
+     * 
+     * @param buffer
+     *            source, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset in the buffer
+     * @param values
+     *            destination
+     * @param valuesOffset
+     *            offset in the short array
+     * @param count
+     *            the number of values to copy
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>buffer</code> or <code>values</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer or array access occurs
+     */
+    public static void readShorts(ByteBuffer buffer, int offset, short[] values,
+            int valuesOffset, int count, boolean bigEndian) {
+        CommonData.checkBufferAccess("readShorts", buffer.limit(), offset, 2, count); //$NON-NLS-1$
+        CommonData.checkValuesAccess("readShorts", values.length, valuesOffset, count); //$NON-NLS-1$
+
+        CommonData.getOrderedView(buffer, offset, bigEndian).asShortBuffer().get(values, valuesOffset, count);
+    }
+
+    /**
+     * Copies <code>count</code> int values, each from four consecutive bytes
+     * of the buffer starting at the offset, into the int array starting at
+     * <code>valuesOffset</code>. The offset is an absolute index, the position
+     * and byte order of the buffer are neither used nor modified. The bounds
+     * are checked once for the whole run and the values are read in place,
+     * without copying the buffer content to the heap first.
+     * 
+     * @param buffer
+     *            source, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset in the buffer
+     * @param values
+     *            destination
+     * @param valuesOffset
+     *            offset in the int array
+     * @param count
+     *            the number of values to copy
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>buffer</code> or <code>values</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer or array access occurs
+     */
+    public static void readInts(ByteBuffer buffer, int offset, int[] values,
+            int valuesOffset, int count, boolean bigEndian) {
+        CommonData.checkBufferAccess("readInts", buffer.limit(), offset, 4, count); //$NON-NLS-1$
+        CommonData.checkValuesAccess("readInts", values.length, valuesOffset, count); //$NON-NLS-1$
+
+        CommonData.getOrderedView(buffer, offset, bigEndian).asIntBuffer().get(values, valuesOffset, count);
+    }
+
+    /**
+     * Copies <code>count</code> long values, each from eight consecutive bytes
+     * of the buffer starting at the offset, into the long array starting at
+     * <code>valuesOffset</code>. The offset is an absolute index, the position
+     * and byte order of the buffer are neither used nor modified. The bounds
+     * are checked once for the whole run and the values are read in place,
+     * without copying the buffer content to the heap first.
+     * 
+     * @param buffer
+     *            source, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset in the buffer
+     * @param values
+     *            destination
+     * @param valuesOffset
+     *            offset in the long array
+     * @param count
+     *            the number of values to copy
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>buffer</code> or <code>values</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer or array access occurs
+     */
+    public static void readLongs(ByteBuffer buffer, int offset, long[] values,
+            int valuesOffset, int count, boolean bigEndian) {
+        CommonData.checkBufferAccess("readLongs", buffer.limit(), offset, 8, count); //$NON-NLS-1$
+        CommonData.checkValuesAccess("readLongs", values.length, valuesOffset, count); //$NON-NLS-1$
+
+        CommonData.getOrderedView(buffer, offset, bigEndian).asLongBuffer().get(values, valuesOffset, count);
+    }
+
+    /**
+     * Copies <code>count</code> float values, each from four consecutive bytes
+     * of the buffer starting at the offset, into the float array starting at
+     * <code>valuesOffset</code>. The offset is an absolute index, the position
+     * and byte order of the buffer are neither used nor modified. The bounds
+     * are checked once for the whole run and the values are read in place,
+     * without copying the buffer content to the heap first.
+     * 
+     * @param buffer
+     *            source, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset in the buffer
+     * @param values
+     *            destination
+     * @param valuesOffset
+     *            offset in the float array
+     * @param count
+     *            the number of values to copy
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>buffer</code> or <code>values</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer or array access occurs
+     */
+    public static void readFloats(ByteBuffer buffer, int offset, float[] values,
+            int valuesOffset, int count, boolean bigEndian) {
+        CommonData.checkBufferAccess("readFloats", buffer.limit(), offset, 4, count); //$NON-NLS-1$
+        CommonData.checkValuesAccess("readFloats", values.length, valuesOffset, count); //$NON-NLS-1$
+
+        CommonData.getOrderedView(buffer, offset, bigEndian).asFloatBuffer().get(values, valuesOffset, count);
+    }
+
+    /**
+     * Copies <code>count</code> double values, each from eight consecutive bytes
+     * of the buffer starting at the offset, into the double array starting at
+     * <code>valuesOffset</code>. The offset is an absolute index, the position
+     * and byte order of the buffer are neither used nor modified. The bounds
+     * are checked once for the whole run and the values are read in place,
+     * without copying the buffer content to the heap first.
+     * 
+     * @param buffer
+     *            source, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset in the buffer
+     * @param values
+     *            destination
+     * @param valuesOffset
+     *            offset in the double array
+     * @param count
+     *            the number of values to copy
+     * @param bigEndian
+     *            if false the bytes will be copied in reverse (little endian)
+     *            order
+     * 
+     * @throws NullPointerException
+     *             if <code>buffer</code> or <code>values</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer or array access occurs
+     */
+    public static void readDoubles(ByteBuffer buffer, int offset, double[] values,
+            int valuesOffset, int count, boolean bigEndian) {
+        CommonData.checkBufferAccess("readDoubles", buffer.limit(), offset, 8, count); //$NON-NLS-1$
+        CommonData.checkValuesAccess("readDoubles", values.length, valuesOffset, count); //$NON-NLS-1$
+
+        CommonData.getOrderedView(buffer, offset, bigEndian).asDoubleBuffer().get(values, valuesOffset, count);
+    }
 }
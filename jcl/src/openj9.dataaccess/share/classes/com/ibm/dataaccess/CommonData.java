@@ -1,6 +1,6 @@
 /*[INCLUDE-IF DAA]*/
 /*******************************************************************************
- * Copyright (c) 2013, 2015 IBM Corp. and others
+ * Copyright (c) 2013, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -23,6 +23,8 @@
 
 package com.ibm.dataaccess;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 
 /**
@@ -149,16 +151,64 @@ class CommonData {
      * Converts a packed byte to binary value
      */
     public static int getPackedToBinaryValues(int input) {
-    	return (((input & CommonData.HIGHER_NIBBLE_MASK) >> 4) * 10) + 
-    	(input & CommonData.LOWER_NIBBLE_MASK);
+        return packedToBinaryValues[input & INTEGER_MASK];
     }
 
     /**
      * Converts a binary value to a packed byte
      */
     public static byte getBinaryToPackedValues(int input) {
-    	int value = ((input/10) << 4) + (input % 10);
-    	return (byte)value;
+        return binaryToPackedValues[input];
+    }
+
+    /**
+     * Converts a Packed Decimal of up to 18 digits to a long, one digit pair
+     * per table lookup. Like the scalar conversion, the digits are not
+     * validated.
+     *
+     * @param packedDecimal
+     *            byte array which contains the Packed Decimal value
+     * @param offset
+     *            offset of the first byte of the Packed Decimal
+     * @param precision
+     *            number of Packed Decimal digits, at most 18
+     * @return the value of the Packed Decimal
+     */
+    static long getPackedDecimalAsLong(byte[] packedDecimal, int offset, int precision) {
+        int end = offset + getPackedByteCount(precision) - 1;
+        long value = 0;
+        int pos = offset;
+        // Skip the first byte if the precision is even and the low-order nibble is zero
+        if (precision % 2 == 0 && (packedDecimal[pos] & LOWER_NIBBLE_MASK) == 0x00) {
+            pos++;
+        }
+        for (; pos < end; ++pos) {
+            value = value * 100 + packedToBinaryValues[packedDecimal[pos] & INTEGER_MASK];
+        }
+        int last = packedDecimal[end] & INTEGER_MASK;
+        value = value * 10 + (last >> 4);
+        return (getSign(last & LOWER_NIBBLE_MASK) == PACKED_MINUS) ? -value : value;
+    }
+
+    /**
+     * Converts a Packed Decimal of up to 18 digits in a buffer to a long, as
+     * {@link #getPackedDecimalAsLong(byte[], int, int)} does for a byte array.
+     * The position of the buffer is not used or modified.
+     */
+    static long getPackedDecimalAsLong(ByteBuffer buffer, int offset, int precision) {
+        int end = offset + getPackedByteCount(precision) - 1;
+        long value = 0;
+        int pos = offset;
+        // Skip the first byte if the precision is even and the low-order nibble is zero
+        if (precision % 2 == 0 && (buffer.get(pos) & LOWER_NIBBLE_MASK) == 0x00) {
+            pos++;
+        }
+        for (; pos < end; ++pos) {
+            value = value * 100 + packedToBinaryValues[buffer.get(pos) & INTEGER_MASK];
+        }
+        int last = buffer.get(end) & INTEGER_MASK;
+        value = value * 10 + (last >> 4);
+        return (getSign(last & LOWER_NIBBLE_MASK) == PACKED_MINUS) ? -value : value;
     }
 
     /**
@@ -184,7 +234,113 @@ class CommonData {
     public static int getPackedByteCount(int precision) {
         return ((precision / 2) + 1);
     }
-    
+
+    /**
+     * Checks that a run of <code>count</code> values, each <code>width</code>
+     * bytes wide, fits in both the byte array and the value array.
+     *
+     * @throws ArrayIndexOutOfBoundsException
+     *             if any part of the run is out of bounds
+     */
+    static void checkBulkAccess(String method, int byteArrayLength, int offset, int width,
+            int valuesLength, int valuesOffset, int count) {
+        if ((count < 0) || (offset < 0) || (valuesOffset < 0)
+                || (valuesOffset > (valuesLength - count))
+                || (offset > (byteArrayLength - ((long) count * width))))
+            throw new ArrayIndexOutOfBoundsException("Array access index out of bounds. " +
+                    method + " is trying to access " + count + " values from values[" + valuesOffset + "] and byteArray[" + offset + "] to byteArray[" + (offset + ((long) count * width) - 1) + "], " +
+                    " but valid indices are from 0 to " + (valuesLength - 1) + " and from 0 to " + (byteArrayLength - 1) + ".");
+    }
+
+    /**
+     * Checks that <code>count</code> records of <code>stride</code> bytes,
+     * each holding a <code>width</code> byte field at <code>offset</code> from
+     * the start of the record, fit in the byte array.
+     *
+     * @throws IllegalArgumentException
+     *             if <code>stride</code> is smaller than <code>width</code>
+     * @throws ArrayIndexOutOfBoundsException
+     *             if any field is out of bounds
+     */
+    static void checkStridedAccess(String method, int byteArrayLength, int offset, int width,
+            int stride, int count) {
+        if (stride < width)
+            throw new IllegalArgumentException(method + " record stride " + stride + " is smaller than the field width " + width + ".");
+        long end = offset + ((long) (count - 1) * stride) + width;
+        if ((count < 0) || (offset < 0) || ((count > 0) && (end > byteArrayLength)))
+            throw new ArrayIndexOutOfBoundsException("Array access index out of bounds. " +
+                    method + " is trying to access " + count + " fields of " + width + " bytes every " + stride + " bytes from byteArray[" + offset + "] to byteArray[" + (end - 1) + "], " +
+                    " but valid indices are from 0 to " + (byteArrayLength - 1) + ".");
+    }
+
+    /**
+     * Checks that <code>count</code> values starting at
+     * <code>valuesOffset</code> fit in the value array.
+     *
+     * @throws ArrayIndexOutOfBoundsException
+     *             if any value is out of bounds
+     */
+    static void checkValuesAccess(String method, int valuesLength, int valuesOffset, int count) {
+        if ((valuesOffset < 0) || (valuesOffset > (valuesLength - count)))
+            throw new ArrayIndexOutOfBoundsException("Array access index out of bounds. " +
+                    method + " is trying to access " + count + " values from values[" + valuesOffset + "], " +
+                    " but valid indices are from 0 to " + (valuesLength - 1) + ".");
+    }
+
+    /**
+     * Checks that a run of <code>count</code> values, each <code>width</code>
+     * bytes wide, fits below the limit of a buffer.
+     *
+     * @throws IndexOutOfBoundsException
+     *             if any part of the run is out of bounds
+     */
+    static void checkBufferAccess(String method, int limit, int offset, int width, int count) {
+        if ((count < 0) || (offset < 0) || (offset > (limit - ((long) count * width))))
+            throw new IndexOutOfBoundsException("Buffer access index out of bounds. " +
+                    method + " is trying to access " + count + " values from buffer[" + offset + "] to buffer[" + (offset + ((long) count * width) - 1) + "], " +
+                    " but the buffer limit is " + limit + ".");
+    }
+
+    /**
+     * Checks that <code>count</code> records of <code>stride</code> bytes,
+     * each holding a <code>width</code> byte field at <code>offset</code> from
+     * the start of the record, fit below the limit of a buffer.
+     *
+     * @throws IllegalArgumentException
+     *             if <code>stride</code> is smaller than <code>width</code>
+     * @throws IndexOutOfBoundsException
+     *             if any field is out of bounds
+     */
+    static void checkStridedBufferAccess(String method, int limit, int offset, int width,
+            int stride, int count) {
+        if (stride < width)
+            throw new IllegalArgumentException(method + " record stride " + stride + " is smaller than the field width " + width + ".");
+        long end = offset + ((long) (count - 1) * stride) + width;
+        if ((count < 0) || (offset < 0) || ((count > 0) && (end > limit)))
+            throw new IndexOutOfBoundsException("Buffer access index out of bounds. " +
+                    method + " is trying to access " + count + " fields of " + width + " bytes every " + stride + " bytes from buffer[" + offset + "] to buffer[" + (end - 1) + "], " +
+                    " but the buffer limit is " + limit + ".");
+    }
+
+    /**
+     * Returns whether the multi-byte accessors of the buffer read big endian
+     * values.
+     */
+    static boolean isBigEndian(ByteBuffer buffer) {
+        return buffer.order() == ByteOrder.BIG_ENDIAN;
+    }
+
+    /**
+     * Returns a view of the buffer that shares its content, is positioned at
+     * <code>offset</code> and has the requested byte order. The position and
+     * order of the buffer itself are not modified.
+     */
+    static ByteBuffer getOrderedView(ByteBuffer buffer, int offset, boolean bigEndian) {
+        ByteBuffer view = buffer.duplicate().order(bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+        view.position(offset);
+        return view;
+    }
+
     /**
      * Outputs the sum of the input and one taking into consideration the sign
      * of the input
@@ -224,8 +380,27 @@ class CommonData {
      */
     private static final byte[] packedDifferenceMinusOneValues = new byte[BYTE_ARITHMETICS_TABLE_LENGTH];
 
+    /**
+     * The binary value of each packed byte, indexed by the unsigned byte.
+     * Bytes holding invalid digits map to the same value the arithmetic
+     * conversion gives them.
+     */
+    private static final int[] packedToBinaryValues = new int[256];
+
+    /**
+     * The packed byte of each binary value from 0 to 99.
+     */
+    private static final byte[] binaryToPackedValues = new byte[100];
+
     static {
         int i, j, m, n;
+
+        for (i = 0; i < packedToBinaryValues.length; i++) {
+            packedToBinaryValues[i] = (((i & HIGHER_NIBBLE_MASK) >> 4) * 10) + (i & LOWER_NIBBLE_MASK);
+        }
+        for (i = 0; i < binaryToPackedValues.length; i++) {
+            binaryToPackedValues[i] = (byte) (((i / 10) << 4) + (i % 10));
+        }
         
         Arrays.fill(packedSumValues, PACKED_INVALID_DIGIT);
         Arrays.fill(packedSumPlusOneValues, PACKED_INVALID_DIGIT);
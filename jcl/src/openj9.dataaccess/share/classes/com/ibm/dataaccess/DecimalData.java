@@ -24,6 +24,8 @@ package com.ibm.dataaccess;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.util.Arrays;
 
 import com.ibm.dataaccess.ByteArrayMarshaller;
@@ -1041,6 +1043,297 @@ public final class DecimalData
         return value;
     }
     
+    /**
+     * Converts Packed Decimal fields of fixed-length records in a byte array into binary longs. The field of each
+     * record is at the same position within the record, so the fields are <code>stride</code> bytes apart. The
+     * digits are converted as by {@link #convertPackedDecimalToLong(byte[], int, int, boolean)}; a precision of at
+     * most 18 digits always fits into a long.
+     * 
+     * @param packedDecimals
+     *            byte array which contains the records
+     * @param offset
+     *            offset of the first byte of the Packed Decimal of the first record in <code>packedDecimals</code>
+     * @param stride
+     *            number of bytes from the start of one record to the start of the next one
+     * @param precision
+     *            number of decimal digits of each Packed Decimal. Maximum valid precision is 18
+     * @param longValues
+     *            long array that will hold the converted values
+     * @param longOffset
+     *            offset in <code>longValues</code> of the value of the first record
+     * @param count
+     *            number of records to convert
+     * 
+     * @throws NullPointerException
+     *             if <code>packedDecimals</code> or <code>longValues</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if an invalid array access occurs
+     * @throws IllegalArgumentException
+     *             if the <code>precision</code> is invalid or <code>stride</code> is smaller than the size of a Packed
+     *             Decimal
+     */
+    public static void convertPackedDecimalsToLongs(byte[] packedDecimals, int offset, int stride, int precision,
+            long[] longValues, int longOffset, int count) {
+        if ((precision < 1) || (precision > 18))
+            throw new IllegalArgumentException("Illegal Precision.");
+        int bytes = CommonData.getPackedByteCount(precision);
+        CommonData.checkStridedAccess("convertPackedDecimalsToLongs", packedDecimals.length, offset, bytes, stride, count);
+        CommonData.checkValuesAccess("convertPackedDecimalsToLongs", longValues.length, longOffset, count);
+
+        for (int i = 0; i < count; ++i, offset += stride) {
+            longValues[longOffset + i] = CommonData.getPackedDecimalAsLong(packedDecimals, offset, precision);
+        }
+    }
+
+    /**
+     * Converts binary longs into Packed Decimal fields of fixed-length records in a byte array. The field of each
+     * record is at the same position within the record, so the fields are <code>stride</code> bytes apart. Each
+     * value is converted as by {@link #convertLongToPackedDecimal(long, byte[], int, int, boolean)} and the bytes of
+     * the records outside the fields are not modified.
+     * 
+     * @param longValues
+     *            long array which contains the values to convert
+     * @param longOffset
+     *            offset in <code>longValues</code> of the value of the first record
+     * @param packedDecimals
+     *            byte array which contains the records
+     * @param offset
+     *            offset of the first byte of the Packed Decimal of the first record in <code>packedDecimals</code>
+     * @param stride
+     *            number of bytes from the start of one record to the start of the next one
+     * @param precision
+     *            number of decimal digits of each Packed Decimal. Maximum valid precision is 253
+     * @param count
+     *            number of records to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmeticException</code> will be thrown if a value does not fit in the specified
+     *            precision (overflow), otherwise a truncated value is stored
+     * 
+     * @throws NullPointerException
+     *             if <code>longValues</code> or <code>packedDecimals</code> is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if an invalid array access occurs
+     * @throws IllegalArgumentException
+     *             if <code>stride</code> is smaller than the size of a Packed Decimal
+     * @throws ArithmeticException
+     *             if the <code>checkOverflow</code> parameter is true and overflow occurs. The records before the one
+     *             that overflowed have been converted.
+     */
+    public static void convertLongsToPackedDecimals(long[] longValues, int longOffset, byte[] packedDecimals,
+            int offset, int stride, int precision, int count, boolean checkOverflow) {
+        int bytes = CommonData.getPackedByteCount(precision);
+        CommonData.checkStridedAccess("convertLongsToPackedDecimals", packedDecimals.length, offset, bytes, stride, count);
+        CommonData.checkValuesAccess("convertLongsToPackedDecimals", longValues.length, longOffset, count);
+
+        for (int i = 0; i < count; ++i, offset += stride) {
+            convertLongToPackedDecimal_(longValues[longOffset + i], packedDecimals, offset, precision, checkOverflow);
+        }
+    }
+
+    /**
+     * Converts a Packed Decimal value in a buffer into a binary long, as
+     * {@link #convertPackedDecimalToLong(byte[], int, int, boolean)} does for a byte array. The offset is an absolute
+     * index, the position of the buffer is neither used nor modified.
+     * 
+     * @param packedDecimal
+     *            buffer which contains the Packed Decimal value, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset of the first byte of the Packed Decimal in <code>packedDecimal</code>
+     * @param precision
+     *            number of decimal digits. Maximum valid precision is 253
+     * @param checkOverflow
+     *            if true an <code>ArithmeticException</code> may be thrown
+     * 
+     * @return long the resulting binary long value
+     * 
+     * @throws NullPointerException
+     *             if <code>packedDecimal</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer access occurs
+     * @throws ArithmeticException
+     *             if <code>checkOverflow</code> is true and the result does not fit into a long (overflow)
+     */
+    public static long convertPackedDecimalToLong(ByteBuffer packedDecimal, int offset, int precision,
+            boolean checkOverflow) {
+        int bytes = CommonData.getPackedByteCount(precision);
+        CommonData.checkBufferAccess("convertPackedDecimalToLong", packedDecimal.limit(), offset, bytes, 1);
+
+        if (packedDecimal.hasArray())
+            return convertPackedDecimalToLong_(packedDecimal.array(), packedDecimal.arrayOffset() + offset, precision, checkOverflow);
+        // Without the overflow check, up to 18 digits can be accumulated straight from the buffer
+        if (!checkOverflow && (precision > 0) && (precision <= 18))
+            return CommonData.getPackedDecimalAsLong(packedDecimal, offset, precision);
+        return convertPackedDecimalToLong_(getPackedDecimal(packedDecimal, offset, new byte[bytes]), 0, precision, checkOverflow);
+    }
+
+    /**
+     * Converts a binary long value into a signed Packed Decimal in a buffer, as
+     * {@link #convertLongToPackedDecimal(long, byte[], int, int, boolean)} does for a byte array. The offset is an
+     * absolute index, the position of the buffer is neither used nor modified.
+     * 
+     * @param longValue
+     *            the binary long value to convert
+     * @param packedDecimal
+     *            buffer that will store the resulting Packed Decimal value, which may be a direct or memory-mapped
+     *            buffer
+     * @param offset
+     *            offset of the first byte of the Packed Decimal in <code>packedDecimal</code>
+     * @param precision
+     *            number of Packed Decimal digits. Maximum valid precision is 253
+     * @param checkOverflow
+     *            if true an <code>ArithmeticException</code> will be thrown if the decimal value does not fit in the
+     *            specified precision (overflow), otherwise a truncated value is returned
+     * 
+     * @throws NullPointerException
+     *             if <code>packedDecimal</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer access occurs
+     * @throws ReadOnlyBufferException
+     *             if <code>packedDecimal</code> is read-only
+     * @throws ArithmeticException
+     *             the <code>checkOverflow</code> parameter is true and overflow occurs
+     */
+    public static void convertLongToPackedDecimal(long longValue, ByteBuffer packedDecimal, int offset,
+            int precision, boolean checkOverflow) {
+        int bytes = CommonData.getPackedByteCount(precision);
+        CommonData.checkBufferAccess("convertLongToPackedDecimal", packedDecimal.limit(), offset, bytes, 1);
+        if (packedDecimal.isReadOnly())
+            throw new ReadOnlyBufferException();
+
+        if (packedDecimal.hasArray()) {
+            convertLongToPackedDecimal_(longValue, packedDecimal.array(), packedDecimal.arrayOffset() + offset, precision, checkOverflow);
+        } else {
+            byte[] digits = new byte[bytes];
+            convertLongToPackedDecimal_(longValue, digits, 0, precision, checkOverflow);
+            putPackedDecimal(digits, packedDecimal, offset);
+        }
+    }
+
+    /**
+     * Converts Packed Decimal fields of fixed-length records in a buffer into binary longs, as
+     * {@link #convertPackedDecimalsToLongs(byte[], int, int, int, long[], int, int)} does for a byte array. The offset
+     * is an absolute index, the position of the buffer is neither used nor modified. The bounds are checked once for
+     * all the records, and the records are decoded in place, so a file mapped with
+     * {@link java.nio.channels.FileChannel#map} does not have to be copied to the heap first.
+     * 
+     * @param packedDecimals
+     *            buffer which contains the records, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset of the first byte of the Packed Decimal of the first record in <code>packedDecimals</code>
+     * @param stride
+     *            number of bytes from the start of one record to the start of the next one
+     * @param precision
+     *            number of decimal digits of each Packed Decimal. Maximum valid precision is 18
+     * @param longValues
+     *            long array that will hold the converted values
+     * @param longOffset
+     *            offset in <code>longValues</code> of the value of the first record
+     * @param count
+     *            number of records to convert
+     * 
+     * @throws NullPointerException
+     *             if <code>packedDecimals</code> or <code>longValues</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer or array access occurs
+     * @throws IllegalArgumentException
+     *             if the <code>precision</code> is invalid or <code>stride</code> is smaller than the size of a Packed
+     *             Decimal
+     */
+    public static void convertPackedDecimalsToLongs(ByteBuffer packedDecimals, int offset, int stride, int precision,
+            long[] longValues, int longOffset, int count) {
+        if ((precision < 1) || (precision > 18))
+            throw new IllegalArgumentException("Illegal Precision.");
+        int bytes = CommonData.getPackedByteCount(precision);
+        CommonData.checkStridedBufferAccess("convertPackedDecimalsToLongs", packedDecimals.limit(), offset, bytes, stride, count);
+        CommonData.checkValuesAccess("convertPackedDecimalsToLongs", longValues.length, longOffset, count);
+
+        if (packedDecimals.hasArray()) {
+            convertPackedDecimalsToLongs(packedDecimals.array(), packedDecimals.arrayOffset() + offset, stride, precision,
+                    longValues, longOffset, count);
+        } else {
+            for (int i = 0; i < count; ++i, offset += stride) {
+                longValues[longOffset + i] = CommonData.getPackedDecimalAsLong(packedDecimals, offset, precision);
+            }
+        }
+    }
+
+    /**
+     * Converts binary longs into Packed Decimal fields of fixed-length records in a buffer, as
+     * {@link #convertLongsToPackedDecimals(long[], int, byte[], int, int, int, int, boolean)} does for a byte array.
+     * The offset is an absolute index, the position of the buffer is neither used nor modified. The bounds are checked
+     * once for all the records, and the fields are written in place.
+     * 
+     * @param longValues
+     *            long array which contains the values to convert
+     * @param longOffset
+     *            offset in <code>longValues</code> of the value of the first record
+     * @param packedDecimals
+     *            buffer which contains the records, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset of the first byte of the Packed Decimal of the first record in <code>packedDecimals</code>
+     * @param stride
+     *            number of bytes from the start of one record to the start of the next one
+     * @param precision
+     *            number of decimal digits of each Packed Decimal. Maximum valid precision is 253
+     * @param count
+     *            number of records to convert
+     * @param checkOverflow
+     *            if true an <code>ArithmeticException</code> will be thrown if a value does not fit in the specified
+     *            precision (overflow), otherwise a truncated value is stored
+     * 
+     * @throws NullPointerException
+     *             if <code>longValues</code> or <code>packedDecimals</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer or array access occurs
+     * @throws ReadOnlyBufferException
+     *             if <code>packedDecimals</code> is read-only
+     * @throws IllegalArgumentException
+     *             if <code>stride</code> is smaller than the size of a Packed Decimal
+     * @throws ArithmeticException
+     *             if the <code>checkOverflow</code> parameter is true and overflow occurs. The records before the one
+     *             that overflowed have been converted.
+     */
+    public static void convertLongsToPackedDecimals(long[] longValues, int longOffset, ByteBuffer packedDecimals,
+            int offset, int stride, int precision, int count, boolean checkOverflow) {
+        int bytes = CommonData.getPackedByteCount(precision);
+        CommonData.checkStridedBufferAccess("convertLongsToPackedDecimals", packedDecimals.limit(), offset, bytes, stride, count);
+        CommonData.checkValuesAccess("convertLongsToPackedDecimals", longValues.length, longOffset, count);
+        if (packedDecimals.isReadOnly())
+            throw new ReadOnlyBufferException();
+
+        if (packedDecimals.hasArray()) {
+            convertLongsToPackedDecimals(longValues, longOffset, packedDecimals.array(), packedDecimals.arrayOffset() + offset,
+                    stride, precision, count, checkOverflow);
+        } else {
+            // Each field is encoded in a scratch array, which is reused for all the records
+            byte[] digits = new byte[bytes];
+            for (int i = 0; i < count; ++i, offset += stride) {
+                convertLongToPackedDecimal_(longValues[longOffset + i], digits, 0, precision, checkOverflow);
+                putPackedDecimal(digits, packedDecimals, offset);
+            }
+        }
+    }
+
+    /**
+     * Copies <code>digits.length</code> bytes of a buffer starting at the absolute index <code>offset</code> into
+     * <code>digits</code>.
+     */
+    private static byte[] getPackedDecimal(ByteBuffer buffer, int offset, byte[] digits) {
+        for (int i = 0; i < digits.length; ++i) {
+            digits[i] = buffer.get(offset + i);
+        }
+        return digits;
+    }
+
+    /**
+     * Copies <code>digits</code> into a buffer starting at the absolute index <code>offset</code>.
+     */
+    private static void putPackedDecimal(byte[] digits, ByteBuffer buffer, int offset) {
+        for (int i = 0; i < digits.length; ++i) {
+            buffer.put(offset + i, digits[i]);
+        }
+    }
+    
     /**
      * Converts a Packed Decimal in a byte array into an External Decimal in another byte array. If the digital part of
      * the input Packed Decimal is not valid then the digital part of the output will not be valid. The sign of the
@@ -23,6 +23,7 @@
 package com.ibm.dataaccess;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import com.ibm.dataaccess.CommonData;
@@ -1444,6 +1445,330 @@ public final class PackedDecimal {
                 op2Decimal, op2Offset, op2Precision);
     }
 
+    /**
+     * The bulk sum keeps its total in two limbs of 18 decimal digits.
+     */
+    private static final long SUM_LIMB = 1000000000000000000L;
+
+    /**
+     * Adds up the Packed Decimal fields of fixed-length records in a byte array. The field of each record is at the
+     * same position within the record, so the fields are <code>stride</code> bytes apart. The sign of each Packed
+     * Decimal is assumed to be positive unless the sign nibble contains one of the negative sign codes. Like
+     * {@link DecimalData#convertPackedDecimalToLong(byte[], int, int, boolean)}, the digits are not validated.
+     * 
+     * @param result
+     *            byte array that will hold the sum of the Packed Decimals
+     * @param resultOffset
+     *            offset into <code>result</code> where the sum Packed Decimal begins
+     * @param resultPrecision
+     *            number of Packed Decimal digits for the sum. Maximum valid precision is 253
+     * @param packedDecimals
+     *            byte array that holds the records
+     * @param offset
+     *            offset into <code>packedDecimals</code> of the Packed Decimal of the first record
+     * @param stride
+     *            number of bytes from the start of one record to the start of the next one
+     * @param precision
+     *            number of Packed Decimal digits of each record. Maximum valid precision is 18
+     * @param count
+     *            number of records to add up
+     * @param checkOverflow
+     *            if true an <code>ArithmeticException</code> is thrown if the sum does not fit in
+     *            <code>resultPrecision</code> digits, otherwise the high-order digits are truncated
+     * 
+     * @throws NullPointerException
+     *             if any of the byte arrays are null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if an invalid array access occurs
+     * @throws IllegalArgumentException
+     *             if a precision is invalid or <code>stride</code> is smaller than the size of a Packed Decimal
+     * @throws ArithmeticException
+     *             if <code>checkOverflow</code> is true and an overflow occurs
+     */
+    public static void sumPackedDecimals(byte[] result, int resultOffset, int resultPrecision,
+            byte[] packedDecimals, int offset, int stride, int precision, int count, boolean checkOverflow) {
+        if ((resultOffset + ((resultPrecision / 2) + 1) > result.length) || (resultOffset < 0))
+            throw new ArrayIndexOutOfBoundsException("Array access index out of bounds. " +
+                "sumPackedDecimals is trying to access result[" + resultOffset + "] to result[" + (resultOffset + (resultPrecision / 2)) + "]" +
+                " but valid indices are from 0 to " + (result.length - 1) + ".");
+        if (resultPrecision < 1 || precision < 1 || precision > 18)
+            throw new IllegalArgumentException("Illegal Precision.");
+        int bytes = precisionToByteLength(precision);
+        CommonData.checkStridedAccess("sumPackedDecimals", packedDecimals.length, offset, bytes, stride, count);
+
+        /* a valid value is less than SUM_LIMB, so low cannot overflow before the carry */
+        long high = 0;
+        long low = 0;
+        for (int i = 0; i < count; ++i, offset += stride) {
+            low += CommonData.getPackedDecimalAsLong(packedDecimals, offset, precision);
+            if (low >= SUM_LIMB || low <= -SUM_LIMB) {
+                high += low / SUM_LIMB;
+                low %= SUM_LIMB;
+            }
+        }
+        putPackedSum(result, resultOffset, resultPrecision, high, low, checkOverflow);
+    }
+
+    /**
+     * Adds up the Packed Decimal fields of fixed-length records in a buffer, as
+     * {@link #sumPackedDecimals(byte[], int, int, byte[], int, int, int, int, boolean)} does for a byte array. The
+     * offset is an absolute index, the position of the buffer is neither used nor modified. The bounds are checked
+     * once for all the records, and the records are read in place, so a file mapped with
+     * {@link java.nio.channels.FileChannel#map} does not have to be copied to the heap first.
+     * 
+     * @param result
+     *            byte array that will hold the sum of the Packed Decimals
+     * @param resultOffset
+     *            offset into <code>result</code> where the sum Packed Decimal begins
+     * @param resultPrecision
+     *            number of Packed Decimal digits for the sum. Maximum valid precision is 253
+     * @param packedDecimals
+     *            buffer that holds the records, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset into <code>packedDecimals</code> of the Packed Decimal of the first record
+     * @param stride
+     *            number of bytes from the start of one record to the start of the next one
+     * @param precision
+     *            number of Packed Decimal digits of each record. Maximum valid precision is 18
+     * @param count
+     *            number of records to add up
+     * @param checkOverflow
+     *            if true an <code>ArithmeticException</code> is thrown if the sum does not fit in
+     *            <code>resultPrecision</code> digits, otherwise the high-order digits are truncated
+     * 
+     * @throws NullPointerException
+     *             if <code>result</code> or <code>packedDecimals</code> is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid array or buffer access occurs
+     * @throws IllegalArgumentException
+     *             if a precision is invalid or <code>stride</code> is smaller than the size of a Packed Decimal
+     * @throws ArithmeticException
+     *             if <code>checkOverflow</code> is true and an overflow occurs
+     */
+    public static void sumPackedDecimals(byte[] result, int resultOffset, int resultPrecision,
+            ByteBuffer packedDecimals, int offset, int stride, int precision, int count, boolean checkOverflow) {
+        if ((resultOffset + ((resultPrecision / 2) + 1) > result.length) || (resultOffset < 0))
+            throw new ArrayIndexOutOfBoundsException("Array access index out of bounds. " +
+                "sumPackedDecimals is trying to access result[" + resultOffset + "] to result[" + (resultOffset + (resultPrecision / 2)) + "]" +
+                " but valid indices are from 0 to " + (result.length - 1) + ".");
+        if (resultPrecision < 1 || precision < 1 || precision > 18)
+            throw new IllegalArgumentException("Illegal Precision.");
+        int bytes = precisionToByteLength(precision);
+        CommonData.checkStridedBufferAccess("sumPackedDecimals", packedDecimals.limit(), offset, bytes, stride, count);
+
+        if (packedDecimals.hasArray()) {
+            sumPackedDecimals(result, resultOffset, resultPrecision, packedDecimals.array(),
+                    packedDecimals.arrayOffset() + offset, stride, precision, count, checkOverflow);
+            return;
+        }
+
+        long high = 0;
+        long low = 0;
+        for (int i = 0; i < count; ++i, offset += stride) {
+            low += CommonData.getPackedDecimalAsLong(packedDecimals, offset, precision);
+            if (low >= SUM_LIMB || low <= -SUM_LIMB) {
+                high += low / SUM_LIMB;
+                low %= SUM_LIMB;
+            }
+        }
+        putPackedSum(result, resultOffset, resultPrecision, high, low, checkOverflow);
+    }
+
+    /**
+     * Stores <code>high * SUM_LIMB + low</code> as a Packed Decimal after giving both limbs the same sign.
+     */
+    private static void putPackedSum(byte[] result, int resultOffset, int resultPrecision, long high, long low,
+            boolean checkOverflow) {
+        if (high > 0 && low < 0) {
+            high -= 1;
+            low += SUM_LIMB;
+        } else if (high < 0 && low > 0) {
+            high += 1;
+            low -= SUM_LIMB;
+        }
+        boolean isNegative = (high < 0) || (low < 0);
+        putPackedLimbs(result, resultOffset, resultPrecision, Math.abs(high), Math.abs(low), isNegative, checkOverflow);
+    }
+
+    /**
+     * Stores <code>high * SUM_LIMB + low</code> as a Packed Decimal.
+     */
+    private static void putPackedLimbs(byte[] result, int resultOffset, int resultPrecision, long high, long low,
+            boolean isNegative, boolean checkOverflow) {
+        int end = resultOffset + precisionToByteLength(resultPrecision) - 1;
+        byte sign = (isNegative && (high | low) != 0) ? CommonData.PACKED_MINUS : CommonData.PACKED_PLUS;
+        result[end] = (byte) (((low % 10) << 4) | sign);
+        low /= 10;
+        int lowDigits = 17;
+        for (int pos = end - 1; pos >= resultOffset; --pos) {
+            int digitPair;
+            if (lowDigits >= 2) {
+                digitPair = (int) (low % 100);
+                low /= 100;
+                lowDigits -= 2;
+            } else if (lowDigits == 1) {
+                digitPair = (int) ((high % 10) * 10 + low);
+                low = 0;
+                high /= 10;
+                lowDigits = 0;
+            } else {
+                digitPair = (int) (high % 100);
+                high /= 100;
+            }
+            result[pos] = CommonData.getBinaryToPackedValues(digitPair);
+        }
+        if (resultPrecision % 2 == 0) {
+            if (checkOverflow && (result[resultOffset] & CommonData.HIGHER_NIBBLE_MASK) != 0)
+                throw new ArithmeticException("Decimal overflow in sumPackedDecimals.");
+            result[resultOffset] &= CommonData.LOWER_NIBBLE_MASK;
+        }
+        if (checkOverflow && (high | low) != 0)
+            throw new ArithmeticException("Decimal overflow in sumPackedDecimals.");
+    }
+
+    /**
+     * Compares the Packed Decimal fields of fixed-length records in a byte array with a Packed Decimal operand. The
+     * field of each record is at the same position within the record, so the fields are <code>stride</code> bytes
+     * apart. Each comparison gives the same result as {@link #lessThanPackedDecimal(byte[], int, int, byte[], int, int)}
+     * and {@link #greaterThanPackedDecimal(byte[], int, int, byte[], int, int)}. A field that is neither less than nor
+     * greater than the operand is equal to it, which includes a zero with any sign code.
+     * 
+     * @param packedDecimals
+     *            byte array that holds the records
+     * @param offset
+     *            offset into <code>packedDecimals</code> of the Packed Decimal of the first record
+     * @param stride
+     *            number of bytes from the start of one record to the start of the next one
+     * @param precision
+     *            number of Packed Decimal digits of each record
+     * @param opDecimal
+     *            byte array that holds the Packed Decimal operand
+     * @param opOffset
+     *            offset into <code>opDecimal</code> where the operand is located
+     * @param opPrecision
+     *            number of Packed Decimal digits for the operand
+     * @param results
+     *            int array that will hold, for each record, -1, 0 or 1 if the Packed Decimal of the record is less
+     *            than, equal to or greater than the operand
+     * @param resultsOffset
+     *            offset into <code>results</code> of the result of the first record
+     * @param count
+     *            number of records to compare
+     * 
+     * @throws NullPointerException
+     *             if any of the arrays are null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if an invalid array access occurs
+     * @throws IllegalArgumentException
+     *             if a precision is invalid or <code>stride</code> is smaller than the size of a Packed Decimal
+     */
+    public static void comparePackedDecimals(byte[] packedDecimals, int offset, int stride, int precision,
+            byte[] opDecimal, int opOffset, int opPrecision, int[] results, int resultsOffset, int count) {
+        if ((opOffset < 0) || (opOffset + ((opPrecision / 2) + 1) > opDecimal.length))
+            throw new ArrayIndexOutOfBoundsException("Array access index out of bounds. " +
+                "comparePackedDecimals is trying to access opDecimal[" + opOffset + "] to opDecimal[" + (opOffset + (opPrecision / 2)) + "]" +
+                " but valid indices are from 0 to " + (opDecimal.length - 1) + ".");
+        if (precision < 1 || opPrecision < 1)
+            throw new IllegalArgumentException("Invalid Precision for an operand");
+        int bytes = precisionToByteLength(precision);
+        CommonData.checkStridedAccess("comparePackedDecimals", packedDecimals.length, offset, bytes, stride, count);
+        CommonData.checkValuesAccess("comparePackedDecimals", results.length, resultsOffset, count);
+
+        if (precision <= 18 && opPrecision <= 18) {
+            long opValue = CommonData.getPackedDecimalAsLong(opDecimal, opOffset, opPrecision);
+            for (int i = 0; i < count; ++i, offset += stride) {
+                results[resultsOffset + i] = Long.compare(CommonData.getPackedDecimalAsLong(packedDecimals, offset, precision), opValue);
+            }
+        } else {
+            for (int i = 0; i < count; ++i, offset += stride) {
+                int comparison;
+                if (greaterThanPackedDecimal_(packedDecimals, offset, precision, opDecimal, opOffset, opPrecision)) {
+                    comparison = 1;
+                } else if (greaterThanPackedDecimal_(opDecimal, opOffset, opPrecision, packedDecimals, offset, precision)) {
+                    comparison = -1;
+                } else {
+                    comparison = 0;
+                }
+                results[resultsOffset + i] = comparison;
+            }
+        }
+    }
+
+    /**
+     * Compares the Packed Decimal fields of fixed-length records in a buffer with a Packed Decimal operand, as
+     * {@link #comparePackedDecimals(byte[], int, int, int, byte[], int, int, int[], int, int)} does for a byte array.
+     * The offset is an absolute index, the position of the buffer is neither used nor modified. The bounds are
+     * checked once for all the records, and the records are read in place.
+     * 
+     * @param packedDecimals
+     *            buffer that holds the records, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset into <code>packedDecimals</code> of the Packed Decimal of the first record
+     * @param stride
+     *            number of bytes from the start of one record to the start of the next one
+     * @param precision
+     *            number of Packed Decimal digits of each record
+     * @param opDecimal
+     *            byte array that holds the Packed Decimal operand
+     * @param opOffset
+     *            offset into <code>opDecimal</code> where the operand is located
+     * @param opPrecision
+     *            number of Packed Decimal digits for the operand
+     * @param results
+     *            int array that will hold, for each record, -1, 0 or 1 if the Packed Decimal of the record is less
+     *            than, equal to or greater than the operand
+     * @param resultsOffset
+     *            offset into <code>results</code> of the result of the first record
+     * @param count
+     *            number of records to compare
+     * 
+     * @throws NullPointerException
+     *             if any of the arguments are null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid array or buffer access occurs
+     * @throws IllegalArgumentException
+     *             if a precision is invalid or <code>stride</code> is smaller than the size of a Packed Decimal
+     */
+    public static void comparePackedDecimals(ByteBuffer packedDecimals, int offset, int stride, int precision,
+            byte[] opDecimal, int opOffset, int opPrecision, int[] results, int resultsOffset, int count) {
+        if ((opOffset < 0) || (opOffset + ((opPrecision / 2) + 1) > opDecimal.length))
+            throw new ArrayIndexOutOfBoundsException("Array access index out of bounds. " +
+                "comparePackedDecimals is trying to access opDecimal[" + opOffset + "] to opDecimal[" + (opOffset + (opPrecision / 2)) + "]" +
+                " but valid indices are from 0 to " + (opDecimal.length - 1) + ".");
+        if (precision < 1 || opPrecision < 1)
+            throw new IllegalArgumentException("Invalid Precision for an operand");
+        int bytes = precisionToByteLength(precision);
+        CommonData.checkStridedBufferAccess("comparePackedDecimals", packedDecimals.limit(), offset, bytes, stride, count);
+        CommonData.checkValuesAccess("comparePackedDecimals", results.length, resultsOffset, count);
+
+        if (packedDecimals.hasArray()) {
+            comparePackedDecimals(packedDecimals.array(), packedDecimals.arrayOffset() + offset, stride, precision,
+                    opDecimal, opOffset, opPrecision, results, resultsOffset, count);
+        } else if (precision <= 18 && opPrecision <= 18) {
+            long opValue = CommonData.getPackedDecimalAsLong(opDecimal, opOffset, opPrecision);
+            for (int i = 0; i < count; ++i, offset += stride) {
+                results[resultsOffset + i] = Long.compare(CommonData.getPackedDecimalAsLong(packedDecimals, offset, precision), opValue);
+            }
+        } else {
+            // Fields too wide for a long are compared one at a time from a scratch array
+            byte[] field = new byte[bytes];
+            for (int i = 0; i < count; ++i, offset += stride) {
+                for (int j = 0; j < bytes; ++j) {
+                    field[j] = packedDecimals.get(offset + j);
+                }
+                int comparison;
+                if (greaterThanPackedDecimal_(field, 0, precision, opDecimal, opOffset, opPrecision)) {
+                    comparison = 1;
+                } else if (greaterThanPackedDecimal_(opDecimal, opOffset, opPrecision, field, 0, precision)) {
+                    comparison = -1;
+                } else {
+                    comparison = 0;
+                }
+                results[resultsOffset + i] = comparison;
+            }
+        }
+    }
+
     private static void roundUpPackedDecimal(byte[] packedDecimal, int offset,
             int end, int precision, int roundingDigit, boolean checkOverflow) {
     	
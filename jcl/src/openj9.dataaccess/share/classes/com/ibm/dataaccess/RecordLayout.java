@@ -0,0 +1,659 @@
+/*[INCLUDE-IF DAA]*/
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.dataaccess;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Layout of a fixed-length record made of Packed Decimal, External Decimal and binary integer fields, such as a record
+ * described by a COBOL copybook. A layout is built once with a {@link Builder} and then decodes runs of records into
+ * columns of longs, one column per field, and encodes columns back into records.
+ *
+ * <p>
+ * The offsets of the fields are resolved when the layout is built. Decoding a run of records converts one field of
+ * all the records at a time, with the strided bulk conversions of {@link DecimalData} for Packed Decimal fields, so
+ * the bounds are checked once per run and the kind of a field is looked at once per run rather than once per
+ * record.
+ * </p>
+ *
+ * <pre>
+ * RecordLayout layout = RecordLayout.builder()
+ *         .binaryInt(true, true)                                      // PIC S9(9) COMP
+ *         .packedDecimal(9)                                           // PIC S9(9) COMP-3
+ *         .externalDecimal(5, DecimalData.EBCDIC_SIGN_EMBEDDED_TRAILING) // PIC S9(5)
+ *         .skip(3)                                                    // FILLER PIC X(3)
+ *         .build();
+ * long[][] columns = layout.newColumns(1024);
+ * layout.decode(records, 0, 1024, columns, 0);
+ * </pre>
+ *
+ * <p>
+ * A layout is immutable and may be shared between threads.
+ * </p>
+ */
+public final class RecordLayout {
+
+    private final Field[] fields;
+    private final int recordLength;
+
+    private RecordLayout(Field[] fields, int recordLength) {
+        this.fields = fields;
+        this.recordLength = recordLength;
+    }
+
+    /**
+     * Returns a builder for a new record layout. Fields are added in the order they appear in the record.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the number of bytes of each record, including the bytes skipped between fields.
+     *
+     * @return the record length
+     */
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    /**
+     * Returns the number of fields, which is the number of columns decoded from or encoded into each record.
+     *
+     * @return the number of fields
+     */
+    public int getFieldCount() {
+        return fields.length;
+    }
+
+    /**
+     * Returns the offset of a field from the start of the record.
+     *
+     * @param field
+     *            the index of the field, in the order the fields were added
+     * @return the offset of the field
+     *
+     * @throws ArrayIndexOutOfBoundsException
+     *             if <code>field</code> is not a valid field index
+     */
+    public int getFieldOffset(int field) {
+        return fields[field].offset;
+    }
+
+    /**
+     * Returns the number of bytes of a field.
+     *
+     * @param field
+     *            the index of the field, in the order the fields were added
+     * @return the length of the field
+     *
+     * @throws ArrayIndexOutOfBoundsException
+     *             if <code>field</code> is not a valid field index
+     */
+    public int getFieldLength(int field) {
+        return fields[field].length;
+    }
+
+    /**
+     * Allocates one column per field, each with room for <code>count</code> records.
+     *
+     * @param count
+     *            the number of records
+     * @return the columns, indexed by field
+     */
+    public long[][] newColumns(int count) {
+        return new long[fields.length][count];
+    }
+
+    /**
+     * Decodes <code>count</code> consecutive records of a byte array into columns. The value of field <code>f</code>
+     * of record <code>i</code> is stored in <code>columns[f][columnOffset + i]</code>. The digits of decimal fields are
+     * not validated, as by {@link DecimalData#convertPackedDecimalToLong(byte[], int, int, boolean)}.
+     *
+     * @param records
+     *            byte array which contains the records
+     * @param offset
+     *            offset in <code>records</code> of the first record
+     * @param count
+     *            number of records to decode
+     * @param columns
+     *            one column per field that will hold the decoded values
+     * @param columnOffset
+     *            offset in each column of the value of the first record
+     *
+     * @throws NullPointerException
+     *             if <code>records</code>, <code>columns</code> or one of the columns is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if an invalid array access occurs
+     * @throws IllegalArgumentException
+     *             if the number of columns does not match the number of fields
+     */
+    public void decode(byte[] records, int offset, int count, long[][] columns, int columnOffset) {
+        checkColumns("decode", columns, columnOffset, count);
+        CommonData.checkStridedAccess("decode", records.length, offset, recordLength, recordLength, count);
+
+        for (int i = 0; i < fields.length; ++i) {
+            fields[i].decode(records, offset + fields[i].offset, recordLength, count, columns[i], columnOffset);
+        }
+    }
+
+    /**
+     * Decodes <code>count</code> consecutive records of a buffer into columns, as
+     * {@link #decode(byte[], int, int, long[][], int)} does for a byte array. The offset is an absolute index, the
+     * position of the buffer is neither used nor modified, and the records are decoded in place.
+     *
+     * @param records
+     *            buffer which contains the records, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset in <code>records</code> of the first record
+     * @param count
+     *            number of records to decode
+     * @param columns
+     *            one column per field that will hold the decoded values
+     * @param columnOffset
+     *            offset in each column of the value of the first record
+     *
+     * @throws NullPointerException
+     *             if <code>records</code>, <code>columns</code> or one of the columns is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer or array access occurs
+     * @throws IllegalArgumentException
+     *             if the number of columns does not match the number of fields
+     */
+    public void decode(ByteBuffer records, int offset, int count, long[][] columns, int columnOffset) {
+        checkColumns("decode", columns, columnOffset, count);
+        CommonData.checkStridedBufferAccess("decode", records.limit(), offset, recordLength, recordLength, count);
+
+        if (records.hasArray()) {
+            decode(records.array(), records.arrayOffset() + offset, count, columns, columnOffset);
+        } else {
+            for (int i = 0; i < fields.length; ++i) {
+                fields[i].decode(records, offset + fields[i].offset, recordLength, count, columns[i], columnOffset);
+            }
+        }
+    }
+
+    /**
+     * Encodes columns into <code>count</code> consecutive records of a byte array. The value of field <code>f</code>
+     * of record <code>i</code> is taken from <code>columns[f][columnOffset + i]</code>. The bytes skipped between
+     * fields are not modified.
+     *
+     * @param columns
+     *            one column per field that holds the values to encode
+     * @param columnOffset
+     *            offset in each column of the value of the first record
+     * @param records
+     *            byte array that will hold the records
+     * @param offset
+     *            offset in <code>records</code> of the first record
+     * @param count
+     *            number of records to encode
+     * @param checkOverflow
+     *            if true an <code>ArithmeticException</code> is thrown if a value does not fit in its field,
+     *            otherwise a truncated value is stored
+     *
+     * @throws NullPointerException
+     *             if <code>records</code>, <code>columns</code> or one of the columns is null
+     * @throws ArrayIndexOutOfBoundsException
+     *             if an invalid array access occurs
+     * @throws IllegalArgumentException
+     *             if the number of columns does not match the number of fields
+     * @throws ArithmeticException
+     *             if <code>checkOverflow</code> is true and a value does not fit in its field. The fields before
+     *             the one that overflowed have been encoded.
+     */
+    public void encode(long[][] columns, int columnOffset, byte[] records, int offset, int count,
+            boolean checkOverflow) {
+        checkColumns("encode", columns, columnOffset, count);
+        CommonData.checkStridedAccess("encode", records.length, offset, recordLength, recordLength, count);
+
+        for (int i = 0; i < fields.length; ++i) {
+            fields[i].encode(columns[i], columnOffset, records, offset + fields[i].offset, recordLength, count,
+                    checkOverflow);
+        }
+    }
+
+    /**
+     * Encodes columns into <code>count</code> consecutive records of a buffer, as
+     * {@link #encode(long[][], int, byte[], int, int, boolean)} does for a byte array. The offset is an absolute index,
+     * the position of the buffer is neither used nor modified, and the records are encoded in place.
+     *
+     * @param columns
+     *            one column per field that holds the values to encode
+     * @param columnOffset
+     *            offset in each column of the value of the first record
+     * @param records
+     *            buffer that will hold the records, which may be a direct or memory-mapped buffer
+     * @param offset
+     *            offset in <code>records</code> of the first record
+     * @param count
+     *            number of records to encode
+     * @param checkOverflow
+     *            if true an <code>ArithmeticException</code> is thrown if a value does not fit in its field,
+     *            otherwise a truncated value is stored
+     *
+     * @throws NullPointerException
+     *             if <code>records</code>, <code>columns</code> or one of the columns is null
+     * @throws IndexOutOfBoundsException
+     *             if an invalid buffer or array access occurs
+     * @throws ReadOnlyBufferException
+     *             if <code>records</code> is read-only
+     * @throws IllegalArgumentException
+     *             if the number of columns does not match the number of fields
+     * @throws ArithmeticException
+     *             if <code>checkOverflow</code> is true and a value does not fit in its field. The fields before
+     *             the one that overflowed have been encoded.
+     */
+    public void encode(long[][] columns, int columnOffset, ByteBuffer records, int offset, int count,
+            boolean checkOverflow) {
+        checkColumns("encode", columns, columnOffset, count);
+        CommonData.checkStridedBufferAccess("encode", records.limit(), offset, recordLength, recordLength, count);
+        if (records.isReadOnly())
+            throw new ReadOnlyBufferException();
+
+        if (records.hasArray()) {
+            encode(columns, columnOffset, records.array(), records.arrayOffset() + offset, count, checkOverflow);
+        } else {
+            for (int i = 0; i < fields.length; ++i) {
+                fields[i].encode(columns[i], columnOffset, records, offset + fields[i].offset, recordLength, count,
+                        checkOverflow);
+            }
+        }
+    }
+
+    private void checkColumns(String method, long[][] columns, int columnOffset, int count) {
+        if (columns.length != fields.length)
+            throw new IllegalArgumentException(method + " expects " + fields.length + " columns, but " + columns.length
+                    + " were given.");
+        for (long[] column : columns) {
+            CommonData.checkValuesAccess(method, column.length, columnOffset, count);
+        }
+    }
+
+    /**
+     * Builds a {@link RecordLayout} from its fields, in the order they appear in the record. Decimal fields hold at
+     * most 18 digits, so that every value fits into a long column.
+     */
+    public static final class Builder {
+
+        private final List<Field> fields = new ArrayList<>();
+        private int recordLength;
+
+        Builder() {
+            super();
+        }
+
+        /**
+         * Adds a signed Packed Decimal field.
+         *
+         * @param precision
+         *            number of Packed Decimal digits, from 1 to 18
+         * @return this builder
+         *
+         * @throws IllegalArgumentException
+         *             if <code>precision</code> is invalid
+         */
+        public Builder packedDecimal(int precision) {
+            checkPrecision(precision);
+            return add(new PackedDecimalField(recordLength, precision));
+        }
+
+        /**
+         * Adds an External Decimal field.
+         *
+         * @param precision
+         *            number of External Decimal digits, from 1 to 18
+         * @param decimalType
+         *            constant indicating the type of the decimal. Supported values are
+         *            <code>EBCDIC_SIGN_EMBEDDED_TRAILING</code>, <code>EBCDIC_SIGN_EMBEDDED_LEADING</code>,
+         *            <code>EBCDIC_SIGN_SEPARATE_TRAILING</code> and <code>EBCDIC_SIGN_SEPARATE_LEADING</code>.
+         * @return this builder
+         *
+         * @throws IllegalArgumentException
+         *             if <code>precision</code> or <code>decimalType</code> is invalid
+         */
+        public Builder externalDecimal(int precision, int decimalType) {
+            checkPrecision(precision);
+            if ((decimalType < DecimalData.EXTERNAL_DECIMAL_MIN) || (decimalType > DecimalData.EXTERNAL_DECIMAL_MAX))
+                throw new IllegalArgumentException("invalid decimalType");
+            return add(new ExternalDecimalField(recordLength, precision, decimalType));
+        }
+
+        /**
+         * Adds a two byte binary integer field.
+         *
+         * @param bigEndian
+         *            if false the bytes are in reverse (little endian) order
+         * @param signed
+         *            if false the field is an unsigned value
+         * @return this builder
+         */
+        public Builder binaryShort(boolean bigEndian, boolean signed) {
+            return add(new BinaryField(recordLength, 2, bigEndian, signed));
+        }
+
+        /**
+         * Adds a four byte binary integer field.
+         *
+         * @param bigEndian
+         *            if false the bytes are in reverse (little endian) order
+         * @param signed
+         *            if false the field is an unsigned value
+         * @return this builder
+         */
+        public Builder binaryInt(boolean bigEndian, boolean signed) {
+            return add(new BinaryField(recordLength, 4, bigEndian, signed));
+        }
+
+        /**
+         * Adds an eight byte signed binary integer field.
+         *
+         * @param bigEndian
+         *            if false the bytes are in reverse (little endian) order
+         * @return this builder
+         */
+        public Builder binaryLong(boolean bigEndian) {
+            return add(new BinaryField(recordLength, 8, bigEndian, true));
+        }
+
+        /**
+         * Skips bytes that are not decoded, such as a filler or a character field.
+         *
+         * @param length
+         *            the number of bytes to skip
+         * @return this builder
+         *
+         * @throws IllegalArgumentException
+         *             if <code>length</code> is negative
+         */
+        public Builder skip(int length) {
+            if (length < 0)
+                throw new IllegalArgumentException("Negative length.");
+            recordLength = Math.addExact(recordLength, length);
+            return this;
+        }
+
+        /**
+         * Returns the layout of the fields added so far.
+         *
+         * @return the record layout
+         */
+        public RecordLayout build() {
+            return new RecordLayout(fields.toArray(new Field[fields.size()]), recordLength);
+        }
+
+        private Builder add(Field field) {
+            recordLength = Math.addExact(recordLength, field.length);
+            fields.add(field);
+            return this;
+        }
+
+        private static void checkPrecision(int precision) {
+            if ((precision < 1) || (precision > 18))
+                throw new IllegalArgumentException("Illegal Precision.");
+        }
+    }
+
+    /**
+     * A field at a fixed offset of the record. Each kind of field converts a whole column with one loop over the
+     * records, which are <code>stride</code> bytes apart. The record bounds have been checked by the caller.
+     */
+    private static abstract class Field {
+
+        final int offset;
+        final int length;
+
+        Field(int offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        abstract void decode(byte[] records, int offset, int stride, int count, long[] column, int columnOffset);
+
+        abstract void decode(ByteBuffer records, int offset, int stride, int count, long[] column, int columnOffset);
+
+        abstract void encode(long[] column, int columnOffset, byte[] records, int offset, int stride, int count,
+                boolean checkOverflow);
+
+        abstract void encode(long[] column, int columnOffset, ByteBuffer records, int offset, int stride, int count,
+                boolean checkOverflow);
+    }
+
+    private static final class PackedDecimalField extends Field {
+
+        private final int precision;
+
+        PackedDecimalField(int offset, int precision) {
+            super(offset, CommonData.getPackedByteCount(precision));
+            this.precision = precision;
+        }
+
+        @Override
+        void decode(byte[] records, int offset, int stride, int count, long[] column, int columnOffset) {
+            DecimalData.convertPackedDecimalsToLongs(records, offset, stride, precision, column, columnOffset, count);
+        }
+
+        @Override
+        void decode(ByteBuffer records, int offset, int stride, int count, long[] column, int columnOffset) {
+            DecimalData.convertPackedDecimalsToLongs(records, offset, stride, precision, column, columnOffset, count);
+        }
+
+        @Override
+        void encode(long[] column, int columnOffset, byte[] records, int offset, int stride, int count,
+                boolean checkOverflow) {
+            DecimalData.convertLongsToPackedDecimals(column, columnOffset, records, offset, stride, precision, count,
+                    checkOverflow);
+        }
+
+        @Override
+        void encode(long[] column, int columnOffset, ByteBuffer records, int offset, int stride, int count,
+                boolean checkOverflow) {
+            DecimalData.convertLongsToPackedDecimals(column, columnOffset, records, offset, stride, precision, count,
+                    checkOverflow);
+        }
+    }
+
+    private static final class ExternalDecimalField extends Field {
+
+        private final int precision;
+        private final int decimalType;
+
+        ExternalDecimalField(int offset, int precision, int decimalType) {
+            super(offset, CommonData.getExternalByteCounts(precision, decimalType));
+            this.precision = precision;
+            this.decimalType = decimalType;
+        }
+
+        @Override
+        void decode(byte[] records, int offset, int stride, int count, long[] column, int columnOffset) {
+            for (int i = 0; i < count; ++i, offset += stride) {
+                column[columnOffset + i] = DecimalData.convertExternalDecimalToLong(records, offset, precision, false,
+                        decimalType);
+            }
+        }
+
+        @Override
+        void decode(ByteBuffer records, int offset, int stride, int count, long[] column, int columnOffset) {
+            // External Decimals have no buffer conversions, so each field is copied to a scratch array
+            byte[] digits = new byte[length];
+            for (int i = 0; i < count; ++i, offset += stride) {
+                for (int j = 0; j < length; ++j) {
+                    digits[j] = records.get(offset + j);
+                }
+                column[columnOffset + i] = DecimalData.convertExternalDecimalToLong(digits, 0, precision, false,
+                        decimalType);
+            }
+        }
+
+        @Override
+        void encode(long[] column, int columnOffset, byte[] records, int offset, int stride, int count,
+                boolean checkOverflow) {
+            for (int i = 0; i < count; ++i, offset += stride) {
+                DecimalData.convertLongToExternalDecimal(column[columnOffset + i], records, offset, precision,
+                        checkOverflow, decimalType);
+            }
+        }
+
+        @Override
+        void encode(long[] column, int columnOffset, ByteBuffer records, int offset, int stride, int count,
+                boolean checkOverflow) {
+            byte[] digits = new byte[length];
+            for (int i = 0; i < count; ++i, offset += stride) {
+                DecimalData.convertLongToExternalDecimal(column[columnOffset + i], digits, 0, precision,
+                        checkOverflow, decimalType);
+                for (int j = 0; j < length; ++j) {
+                    records.put(offset + j, digits[j]);
+                }
+            }
+        }
+    }
+
+    private static final class BinaryField extends Field {
+
+        private final boolean bigEndian;
+        private final boolean signed;
+
+        BinaryField(int offset, int length, boolean bigEndian, boolean signed) {
+            super(offset, length);
+            this.bigEndian = bigEndian;
+            this.signed = signed;
+        }
+
+        @Override
+        void decode(byte[] records, int offset, int stride, int count, long[] column, int columnOffset) {
+            switch (length) {
+            case 2:
+                for (int i = 0; i < count; ++i, offset += stride) {
+                    short value = ByteArrayUnmarshaller.readShort(records, offset, bigEndian);
+                    column[columnOffset + i] = signed ? value : (value & 0xFFFF);
+                }
+                break;
+            case 4:
+                for (int i = 0; i < count; ++i, offset += stride) {
+                    int value = ByteArrayUnmarshaller.readInt(records, offset, bigEndian);
+                    column[columnOffset + i] = signed ? value : (value & 0xFFFFFFFFL);
+                }
+                break;
+            default:
+                for (int i = 0; i < count; ++i, offset += stride) {
+                    column[columnOffset + i] = ByteArrayUnmarshaller.readLong(records, offset, bigEndian);
+                }
+                break;
+            }
+        }
+
+        @Override
+        void decode(ByteBuffer records, int offset, int stride, int count, long[] column, int columnOffset) {
+            ByteBuffer view = CommonData.getOrderedView(records, 0, bigEndian);
+            switch (length) {
+            case 2:
+                for (int i = 0; i < count; ++i, offset += stride) {
+                    short value = view.getShort(offset);
+                    column[columnOffset + i] = signed ? value : (value & 0xFFFF);
+                }
+                break;
+            case 4:
+                for (int i = 0; i < count; ++i, offset += stride) {
+                    int value = view.getInt(offset);
+                    column[columnOffset + i] = signed ? value : (value & 0xFFFFFFFFL);
+                }
+                break;
+            default:
+                for (int i = 0; i < count; ++i, offset += stride) {
+                    column[columnOffset + i] = view.getLong(offset);
+                }
+                break;
+            }
+        }
+
+        @Override
+        void encode(long[] column, int columnOffset, byte[] records, int offset, int stride, int count,
+                boolean checkOverflow) {
+            if (checkOverflow)
+                checkRange(column, columnOffset, count);
+            switch (length) {
+            case 2:
+                for (int i = 0; i < count; ++i, offset += stride) {
+                    ByteArrayMarshaller.writeShort((short) column[columnOffset + i], records, offset, bigEndian);
+                }
+                break;
+            case 4:
+                for (int i = 0; i < count; ++i, offset += stride) {
+                    ByteArrayMarshaller.writeInt((int) column[columnOffset + i], records, offset, bigEndian);
+                }
+                break;
+            default:
+                for (int i = 0; i < count; ++i, offset += stride) {
+                    ByteArrayMarshaller.writeLong(column[columnOffset + i], records, offset, bigEndian);
+                }
+                break;
+            }
+        }
+
+        @Override
+        void encode(long[] column, int columnOffset, ByteBuffer records, int offset, int stride, int count,
+                boolean checkOverflow) {
+            if (checkOverflow)
+                checkRange(column, columnOffset, count);
+            ByteBuffer view = CommonData.getOrderedView(records, 0, bigEndian);
+            switch (length) {
+            case 2:
+                for (int i = 0; i < count; ++i, offset += stride) {
+                    view.putShort(offset, (short) column[columnOffset + i]);
+                }
+                break;
+            case 4:
+                for (int i = 0; i < count; ++i, offset += stride) {
+                    view.putInt(offset, (int) column[columnOffset + i]);
+                }
+                break;
+            default:
+                for (int i = 0; i < count; ++i, offset += stride) {
+                    view.putLong(offset, column[columnOffset + i]);
+                }
+                break;
+            }
+        }
+
+        /**
+         * Checks that the values fit in the field before any of them is stored.
+         */
+        private void checkRange(long[] column, int columnOffset, int count) {
+            if (length == 8)
+                return;
+            int bits = length * 8;
+            long min = signed ? -(1L << (bits - 1)) : 0;
+            long max = signed ? (1L << (bits - 1)) - 1 : (1L << bits) - 1;
+            for (int i = columnOffset; i < columnOffset + count; ++i) {
+                if ((column[i] < min) || (column[i] > max))
+                    throw new ArithmeticException("Binary overflow - value " + column[i] + " does not fit in " + length
+                            + " bytes");
+            }
+        }
+    }
+}
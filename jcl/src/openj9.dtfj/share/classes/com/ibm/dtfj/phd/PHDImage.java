@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2008, 2017 IBM Corp. and others
+ * Copyright (c) 2008, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -56,6 +56,7 @@ public class PHDImage implements ManagedImage {
 	private final ArrayList<ImageAddressSpace> addressList;
 	private final Image meta;
 	private final List<HeapdumpReader> closeList = new LinkedList<HeapdumpReader>();
+	private final List<PHDJavaHeap> heapCloseList = new LinkedList<PHDJavaHeap>();
 	private final URI source;
 	private ManagedImageSource imageSource = null;
 
@@ -268,6 +269,10 @@ public class PHDImage implements ManagedImage {
 				r.releaseResources();
 			}
 		}
+		for (PHDJavaHeap heap : heapCloseList) {
+			heap.close();
+		}
+		heapCloseList.clear();
 		//if the Image Source has been set, then see if an extracted file needs to be deleted
 		if((imageSource != null) && (imageSource.getExtractedTo() != null)) {
 			imageSource.getExtractedTo().delete();		//attempt to delete the file
@@ -300,6 +305,14 @@ public class PHDImage implements ManagedImage {
 		closeList.remove(reader);
 	}
 
+	/**
+	 * Register a heap which holds the heap dump file open for random access,
+	 * so that it is closed when Image.close() is called on this Image.
+	 */
+	void registerHeap(PHDJavaHeap heap) {
+		heapCloseList.add(heap);
+	}
+
 	public Properties getProperties() {
 		return new Properties();		//not supported for this reader
 	}
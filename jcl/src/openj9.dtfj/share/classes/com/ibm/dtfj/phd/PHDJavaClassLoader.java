@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2008, 2017 IBM Corp. and others
+ * Copyright (c) 2008, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -41,6 +41,7 @@ import com.ibm.dtfj.image.ImagePointer;
 import com.ibm.dtfj.java.JavaClass;
 import com.ibm.dtfj.java.JavaClassLoader;
 import com.ibm.dtfj.java.JavaObject;
+import com.ibm.dtfj.phd.parser.HeapdumpIndex;
 import com.ibm.dtfj.phd.parser.HeapdumpReader;
 import com.ibm.dtfj.phd.parser.PortableHeapDumpListener;
 import com.ibm.dtfj.phd.util.LongEnumeration;
@@ -68,6 +69,8 @@ class PHDJavaClassLoader implements JavaClassLoader {
 	private final HashSet<String> duplicateClassNames = new HashSet<String>();
 	private JavaObject obj;
 	private long jlo;
+	/** Index of the PHD file recorded while finding the classes, or null */
+	HeapdumpIndex index;
 
 	PHDJavaClassLoader(ImageInputStream stream, final PHDImage parentImage, final ImageAddressSpace space, final PHDJavaRuntime runtime) throws IOException {
 		HeapdumpReader reader = new HeapdumpReader(stream, parentImage);
@@ -76,6 +79,8 @@ class PHDJavaClassLoader implements JavaClassLoader {
 	
 	PHDJavaClassLoader(File file, final PHDImage parentImage, final ImageAddressSpace space, final PHDJavaRuntime runtime) throws IOException {
 		HeapdumpReader reader = new HeapdumpReader(file, parentImage);
+		// This pass reads the whole file anyway, so record an index for random access to the heap
+		reader.recordIndex(HeapdumpIndex.DEFAULT_STRIDE);
 		processData(reader, parentImage, space, runtime);
 	}
 	
@@ -187,6 +192,7 @@ class PHDJavaClassLoader implements JavaClassLoader {
 		} catch (Exception e) {
 			classes.put(runtime.nextDummyClassAddr(), new PHDCorruptJavaClass("Building class "+realClasses[0], null, e));
 		} finally {
+			index = reader.getIndex();
 			reader.close();
 			reader = null;
 		}
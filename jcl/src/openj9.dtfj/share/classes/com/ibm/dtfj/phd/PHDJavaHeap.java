@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2008, 2019 IBM Corp. and others
+ * Copyright (c) 2008, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -26,13 +26,24 @@ import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.lang.ref.SoftReference;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
 
 import javax.imageio.stream.ImageInputStream;
 
@@ -44,7 +55,9 @@ import com.ibm.dtfj.image.ImageSection;
 import com.ibm.dtfj.java.JavaClass;
 import com.ibm.dtfj.java.JavaHeap;
 import com.ibm.dtfj.java.JavaObject;
+import com.ibm.dtfj.phd.parser.HeapdumpIndex;
 import com.ibm.dtfj.phd.parser.HeapdumpReader;
+import com.ibm.dtfj.phd.parser.MappedHeapdump;
 import com.ibm.dtfj.phd.parser.PortableHeapDumpListener;
 import com.ibm.dtfj.phd.util.LongEnumeration;
 
@@ -69,6 +82,17 @@ class PHDJavaHeap implements JavaHeap {
 	/** Flag used to show that all the CacheHeapSegments are set up */
 	private boolean doneScan;
 	private boolean lastSegment;
+	/** Index of an uncompressed PHD file, allowing parts of the heap to be read at random, or null */
+	private HeapdumpIndex index;
+	/** The indexed file, opened once and shared by the readers of all the index entries */
+	private MappedHeapdump mapped;
+	/** The objects of index entries that have been read */
+	private final Map<Integer,IndexedSegment> indexCache = new HashMap<Integer,IndexedSegment>();
+	/** Number of threads decoding index entries ahead of an iterator */
+	private static final int READ_AHEAD_THREADS = Runtime.getRuntime().availableProcessors();
+	/** Created when first needed and shut down when the image is closed */
+	private ExecutorService readAheadPool;
+	private boolean closed;
 	
 	PHDJavaHeap(ImageInputStream stream, final PHDImage parentImage, ImageAddressSpace space, PHDJavaRuntime runtime) throws IOException {
 		this.image = parentImage;
@@ -98,6 +122,44 @@ class PHDJavaHeap implements JavaHeap {
 		return "Java heap";
 	}
 
+	/**
+	 * Use an index of the PHD file, so that objects can be found without reparsing the heap
+	 * from the start and the heap can be decoded in parallel.
+	 * @param index the index recorded while parsing the uncompressed file, or null
+	 */
+	void setIndex(HeapdumpIndex index) {
+		if (file != null && index != null) {
+			try {
+				mapped = new MappedHeapdump(file);
+				this.index = index;
+				image.registerHeap(this);
+			} catch (IOException e) {
+				// Keep reading the file sequentially
+			}
+		}
+	}
+
+	/**
+	 * Release the indexed file and stop the threads reading ahead. Called when the image is closed.
+	 */
+	synchronized void close() {
+		closed = true;
+		if (readAheadPool != null) {
+			// Cancel the reads not yet started, so that iterators waiting for them do not wait forever
+			for (Runnable read : readAheadPool.shutdownNow()) {
+				((Future<?>)read).cancel(false);
+			}
+			readAheadPool = null;
+		}
+		if (mapped != null) {
+			try {
+				mapped.close();
+			} catch (IOException e) {
+				// Not a lot that we can do.
+			}
+		}
+	}
+
 	/**
 	 * Return all the objects in the heap
 	 * Accumulate the objects in several chunks so that not everything has to be active at once
@@ -582,6 +644,9 @@ class PHDJavaHeap implements JavaHeap {
 	}
 	
 	JavaObject getObjectAtAddress(ImagePointer address, boolean withRefs) {
+		if (index != null) {
+			return getIndexedObjectAtAddress(address.getAddress(), withRefs);
+		}
 		JavaObject jo = null;
 		try {
 			jo = getCachedObjectAtAddress(address, withRefs);
@@ -649,6 +714,9 @@ class PHDJavaHeap implements JavaHeap {
 	 * This uses a modified version of the HeapdumpReader which allows abort and resume.
 	 */
 	public Iterator<JavaObject> getObjects() {
+		if (index != null) {
+			return new IndexedObjectIterator();
+		}
 		final PHDJavaHeap heap = this;
 		try {
 			return new Iterator<JavaObject>() {
@@ -770,4 +838,202 @@ class PHDJavaHeap implements JavaHeap {
 			return new ArrayList<JavaObject>().iterator();
 		}
 	}
+
+	/**
+	 * The objects read from one entry of the index, held via a SoftReference so they can be read again if memory is short.
+	 */
+	private static class IndexedSegment {
+		final SoftReference<Map<AddressKey,JavaObject>> objects;
+		/** Whether the JavaObjects have references available */
+		final boolean withRefs;
+
+		IndexedSegment(Map<AddressKey,JavaObject> objects, boolean withRefs) {
+			this.objects = new SoftReference<Map<AddressKey,JavaObject>>(objects);
+			this.withRefs = withRefs;
+		}
+	}
+
+	/**
+	 * Find an object by reading only the index entries whose address range includes it.
+	 */
+	private JavaObject getIndexedObjectAtAddress(long address, boolean withRefs) {
+		AddressKey key = AddressKey.getAddress(this, address);
+		for (int entry : index.entriesSpanning(address)) {
+			JavaObject jo = getIndexedObjects(entry, withRefs).get(key);
+			if (jo != null) {
+				return jo;
+			}
+		}
+		return null;
+	}
+
+	private synchronized Map<AddressKey,JavaObject> getIndexedObjects(int entry, boolean withRefs) {
+		IndexedSegment seg = indexCache.get(entry);
+		Map<AddressKey,JavaObject> objects = seg == null ? null : seg.objects.get();
+		if (objects == null || withRefs && !seg.withRefs) {
+			objects = new HashMap<AddressKey,JavaObject>();
+			for (JavaObject jo : readEntry(entry, withRefs)) {
+				if (jo instanceof CorruptData) continue;
+				objects.put(AddressKey.getAddress(this, jo.getID().getAddress()), jo);
+			}
+			indexCache.put(entry, new IndexedSegment(objects, withRefs));
+		}
+		return objects;
+	}
+
+	/**
+	 * Read the objects of one index entry, with a reader of its own, so entries can be read in parallel.
+	 * A corrupt record ends the entry with a corrupt object, but other entries can still be read.
+	 */
+	private List<JavaObject> readEntry(int entry, final boolean withRefs) {
+		final List<JavaObject> objects = new ArrayList<JavaObject>(index.objectCount(entry));
+		final PHDJavaHeap heap = this;
+		final int adjustLen = isJ9V4 ? 1 : 0;
+		final long current[] = new long[1];
+		HeapdumpReader reader = null;
+		try {
+			reader = new HeapdumpReader(mapped, index, entry);
+			reader.setRecordLimit(index.stride());
+			reader.parse(new PortableHeapDumpListener() {
+
+				public void classDump(long address, long superAddress, String name, int size,
+						int flags, int hashCode, LongEnumeration refs) throws Exception {
+				}
+
+				public void objectArrayDump(long address, long classAddress, int flags,
+						int hashCode, LongEnumeration refs, int length, long instanceSize) throws Exception {
+					current[0] = address;
+					int refsLen = refs.numberOfElements();
+					int adjustLen2 = Math.min(adjustLen, refsLen);
+					// Use adjustLen for array class so for corrupt Java 5 with 0 refs we have no array class
+					PHDJavaObject.Builder b = new PHDJavaObject.Builder(heap,address,runtime.arrayOf(classAddress, refs, adjustLen),flags,hashCode)
+					.instanceSize(instanceSize);
+					objects.add(withRefs 
+						? b.refs(refs,adjustLen2).length(length-adjustLen2).build()
+						: b.length(length-adjustLen2).build());
+					current[0] = 0;
+				}
+
+				public void objectDump(long address, long classAddress, int flags, int hashCode,
+						LongEnumeration refs, long instanceSize) throws Exception {
+					current[0] = address;
+					PHDJavaObject.Builder b = new PHDJavaObject.Builder(heap,address,runtime.findClass(classAddress),flags,hashCode)
+					.length(PHDJavaObject.SIMPLE_OBJECT).instanceSize(instanceSize);
+					objects.add(withRefs 
+						? b.refs(refs, 0).build()
+						: b.build());
+					current[0] = 0;
+				}
+
+				public void primitiveArrayDump(long address, int type, int length, int flags,
+						int hashCode, long instanceSize) throws Exception {
+					current[0] = address;
+					objects.add(new PHDJavaObject.Builder(heap,address,runtime.findArrayOfType(type),flags,hashCode)
+					.refsAsArray(NOREFS,0).length(length).instanceSize(instanceSize).build());
+					current[0] = 0;
+				}
+			});
+		} catch (EOFException e) {
+			objects.add(new PHDCorruptJavaObject("Truncated dump found while building object "+(index.firstObject(entry)+objects.size())+"/"+index.totalObjects(), space.getPointer(current[0]), e));
+		} catch (Exception e) {
+			objects.add(new PHDCorruptJavaObject("Building object "+(index.firstObject(entry)+objects.size())+"/"+index.totalObjects(), space.getPointer(current[0]), e));
+		} finally {
+			if (reader != null) {
+				reader.close();
+			}
+		}
+		return objects;
+	}
+
+	/**
+	 * Returns the pool decoding index entries ahead of the iterators, or null once the image is closed.
+	 */
+	private synchronized ExecutorService getReadAheadPool() {
+		if (readAheadPool == null && !closed) {
+			readAheadPool = Executors.newFixedThreadPool(READ_AHEAD_THREADS, new ThreadFactory() {
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "PHD heap reader");
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		return readAheadPool;
+	}
+
+	/**
+	 * Iterate over the objects in the heap in file order, decoding the following index entries
+	 * in parallel while the objects of the current entry are returned.
+	 */
+	private class IndexedObjectIterator implements Iterator<JavaObject> {
+		private final ArrayDeque<Future<List<JavaObject>>> pending = new ArrayDeque<Future<List<JavaObject>>>();
+		private int nextEntry;
+		private Iterator<JavaObject> current = Collections.<JavaObject>emptyList().iterator();
+
+		IndexedObjectIterator() {
+			readAhead();
+		}
+
+		private void readAhead() {
+			ExecutorService pool = getReadAheadPool();
+			while (pending.size() < READ_AHEAD_THREADS * 2 && nextEntry < index.size()) {
+				final int entry = nextEntry++;
+				Callable<List<JavaObject>> read = new Callable<List<JavaObject>>() {
+					public List<JavaObject> call() {
+						return readEntry(entry, true);
+					}
+				};
+				if (pool != null) {
+					try {
+						pending.add(pool.submit(read));
+						continue;
+					} catch (RejectedExecutionException e) {
+						// The image has just been closed
+					}
+				}
+				// The image has been closed, so read the entry here, which reports the closed file as corrupt data, and stop
+				FutureTask<List<JavaObject>> task = new FutureTask<List<JavaObject>>(read);
+				task.run();
+				pending.add(task);
+				nextEntry = index.size();
+			}
+		}
+
+		public boolean hasNext() {
+			while (!current.hasNext()) {
+				Future<List<JavaObject>> next = pending.poll();
+				if (next == null) {
+					return false;
+				}
+				List<JavaObject> objects;
+				try {
+					objects = next.get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					objects = Collections.<JavaObject>singletonList(new PHDCorruptJavaObject("Interrupted while building objects", space.getPointer(0), e));
+					pending.clear();
+					nextEntry = index.size();
+				} catch (CancellationException e) {
+					objects = Collections.<JavaObject>singletonList(new PHDCorruptJavaObject("The image has been closed", space.getPointer(0), e));
+					pending.clear();
+					nextEntry = index.size();
+				} catch (ExecutionException e) {
+					Exception cause = e.getCause() instanceof Exception ? (Exception)e.getCause() : e;
+					objects = Collections.<JavaObject>singletonList(new PHDCorruptJavaObject("Building objects", space.getPointer(0), cause));
+				}
+				current = objects.iterator();
+				readAhead();
+			}
+			return true;
+		}
+
+		public JavaObject next() {
+			if (!hasNext()) throw new NoSuchElementException();
+			return current.next();
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
 }
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2008, 2019 IBM Corp. and others
+ * Copyright (c) 2008, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -110,6 +110,7 @@ class PHDJavaRuntime implements JavaRuntime {
 		HeapdumpReader reader = new HeapdumpReader(file, parentImage);
 		heaps.add(new PHDJavaHeap(file, parentImage, space, this));
 		PHDJavaClassLoader loader = new PHDJavaClassLoader(file, parentImage, space, this);
+		heaps.get(0).setIndex(loader.index);
 		processData(reader, parentImage, loader);
 		findLoaders(reader);
 		initClassCache();
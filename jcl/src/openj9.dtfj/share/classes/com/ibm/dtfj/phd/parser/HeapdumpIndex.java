@@ -0,0 +1,240 @@
+/*[INCLUDE-IF Sidecar18-SE]*/
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.dtfj.phd.parser;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ *  An index of the records in an uncompressed PHD file, so that parsing can start part way through the dump.
+ *  <p>
+ *  Records in a PHD file cannot be decoded on their own: addresses are stored as gaps from the previous
+ *  record, and short and medium object records refer to a cache of recently used class addresses.
+ *  So every <code>stride</code> records the index saves the file offset of the next record together with
+ *  that decoding state. A {@link HeapdumpReader} can then be positioned at any entry (see
+ *  {@link HeapdumpReader#HeapdumpReader(MappedHeapdump, HeapdumpIndex, int)})
+ *  and the entries parsed independently, in any order or in parallel.
+ *  <p>
+ *  The index is built as a side effect of a complete parse (see {@link HeapdumpReader#recordIndex}).
+ */
+public final class HeapdumpIndex {
+
+	/** Default number of records between index entries */
+	public static final int DEFAULT_STRIDE = 4096;
+
+	private static final int CACHE_SIZE = 4;
+
+	private final int stride;
+	private int size;
+	private long offsets[] = new long[16];
+	private long lastAddresses[] = new long[16];
+	private long classAddressCaches[] = new long[16 * CACHE_SIZE];
+	private int classAddressCacheIndexes[] = new int[16];
+	private int firstObjects[] = new int[16];
+	private long minAddresses[] = new long[16];
+	private long maxAddresses[] = new long[16];
+	private int totalObjects;
+	/** Entries with records, sorted by their lowest address, once the index is complete */
+	private int byMinAddress[];
+	/** The highest address of the entries in byMinAddress up to and including each position */
+	private long maxAddressUpTo[];
+
+	HeapdumpIndex(int stride) {
+		if (stride <= 0) throw new IllegalArgumentException("stride must be positive: " + stride);
+		this.stride = stride;
+	}
+
+	/**
+	 * Start a new entry.
+	 * @param offset file offset of the first record of the entry
+	 * @param lastAddress address of the record before the entry
+	 * @param classAddressCache the class address cache before the entry
+	 * @param classAddressCacheIndex next slot to be replaced in the class address cache
+	 * @param firstObject number of the first object in the entry, not counting class records
+	 */
+	void addEntry(long offset, long lastAddress, long classAddressCache[], int classAddressCacheIndex, int firstObject) {
+		if (size == offsets.length) {
+			int capacity = size * 2;
+			offsets = Arrays.copyOf(offsets, capacity);
+			lastAddresses = Arrays.copyOf(lastAddresses, capacity);
+			classAddressCaches = Arrays.copyOf(classAddressCaches, capacity * CACHE_SIZE);
+			classAddressCacheIndexes = Arrays.copyOf(classAddressCacheIndexes, capacity);
+			firstObjects = Arrays.copyOf(firstObjects, capacity);
+			minAddresses = Arrays.copyOf(minAddresses, capacity);
+			maxAddresses = Arrays.copyOf(maxAddresses, capacity);
+		}
+		offsets[size] = offset;
+		lastAddresses[size] = lastAddress;
+		System.arraycopy(classAddressCache, 0, classAddressCaches, size * CACHE_SIZE, CACHE_SIZE);
+		classAddressCacheIndexes[size] = classAddressCacheIndex;
+		firstObjects[size] = firstObject;
+		minAddresses[size] = Long.MAX_VALUE;
+		maxAddresses[size] = Long.MIN_VALUE;
+		size += 1;
+	}
+
+	/**
+	 * Record the address of a record in the current entry.
+	 */
+	void addAddress(long address) {
+		int entry = size - 1;
+		if (address < minAddresses[entry]) minAddresses[entry] = address;
+		if (address > maxAddresses[entry]) maxAddresses[entry] = address;
+	}
+
+	/**
+	 * Finish the index at the end of the dump.
+	 * @param totalObjects number of objects and arrays in the dump, not counting class records
+	 */
+	void complete(int totalObjects) {
+		this.totalObjects = totalObjects;
+		sortRanges();
+	}
+
+	/**
+	 * Sort the address ranges of the entries for {@link #entriesSpanning}. A dump is normally in address
+	 * order, so the entries are usually sorted already.
+	 */
+	private void sortRanges() {
+		int count = 0;
+		boolean sorted = true;
+		int entries[] = new int[size];
+		for (int entry = 0; entry < size; entry++) {
+			if (minAddresses[entry] <= maxAddresses[entry]) {
+				if (count > 0 && minAddresses[entry] < minAddresses[entries[count - 1]]) {
+					sorted = false;
+				}
+				entries[count++] = entry;
+			}
+		}
+		if (!sorted) {
+			Integer boxed[] = new Integer[count];
+			for (int i = 0; i < count; i++) {
+				boxed[i] = Integer.valueOf(entries[i]);
+			}
+			Arrays.sort(boxed, new Comparator<Integer>() {
+				public int compare(Integer left, Integer right) {
+					long leftMin = minAddresses[left.intValue()];
+					long rightMin = minAddresses[right.intValue()];
+					return leftMin < rightMin ? -1 : (leftMin == rightMin ? 0 : 1);
+				}
+			});
+			for (int i = 0; i < count; i++) {
+				entries[i] = boxed[i].intValue();
+			}
+		}
+		byMinAddress = Arrays.copyOf(entries, count);
+		maxAddressUpTo = new long[count];
+		long max = Long.MIN_VALUE;
+		for (int i = 0; i < count; i++) {
+			max = Math.max(max, maxAddresses[byMinAddress[i]]);
+			maxAddressUpTo[i] = max;
+		}
+	}
+
+	/**
+	 * Returns the number of records between entries.
+	 */
+	public int stride() {
+		return stride;
+	}
+
+	/**
+	 * Returns the number of entries.
+	 */
+	public int size() {
+		return size;
+	}
+
+	long offset(int entry) {
+		return offsets[entry];
+	}
+
+	long lastAddress(int entry) {
+		return lastAddresses[entry];
+	}
+
+	void classAddressCache(int entry, long cache[]) {
+		System.arraycopy(classAddressCaches, entry * CACHE_SIZE, cache, 0, CACHE_SIZE);
+	}
+
+	int classAddressCacheIndex(int entry) {
+		return classAddressCacheIndexes[entry];
+	}
+
+	/**
+	 * Returns the number of the first object in the entry, counting objects and arrays but not classes.
+	 */
+	public int firstObject(int entry) {
+		return firstObjects[entry];
+	}
+
+	/**
+	 * Returns the number of objects and arrays in the entry.
+	 */
+	public int objectCount(int entry) {
+		int next = (entry + 1 < size) ? firstObjects[entry + 1] : totalObjects;
+		return next - firstObjects[entry];
+	}
+
+	/**
+	 * Returns the number of objects and arrays in the dump.
+	 */
+	public int totalObjects() {
+		return totalObjects;
+	}
+
+	/**
+	 * Returns the entries holding records whose addresses span the given address, in file order.
+	 * Usually there is at most one, but gaps may be negative so entries can overlap.
+	 */
+	public int[] entriesSpanning(long address) {
+		// Find the last entry starting at or below the address
+		int low = 0;
+		int high = byMinAddress.length - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (minAddresses[byMinAddress[mid]] <= address) {
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+		// Only entries up to there can span the address, and none before the highest address falls below it
+		int stop = high;
+		while (stop >= 0 && maxAddressUpTo[stop] >= address) {
+			stop--;
+		}
+		int found[] = new int[high - stop];
+		int count = 0;
+		for (int i = stop + 1; i <= high; i++) {
+			int entry = byMinAddress[i];
+			if (address <= maxAddresses[entry]) {
+				found[count++] = entry;
+			}
+		}
+		found = Arrays.copyOf(found, count);
+		Arrays.sort(found);
+		return found;
+	}
+}
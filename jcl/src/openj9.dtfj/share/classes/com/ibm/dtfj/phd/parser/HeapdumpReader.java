@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2002, 2018 IBM Corp. and others
+ * Copyright (c) 2002, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -72,6 +72,13 @@ public class HeapdumpReader extends Base {
 	private static final boolean nomangle = Boolean.getBoolean("findroots.nomangle");
 	boolean continueParse;
 	PHDImage image = null;
+	/** Number of records parsed by this reader, used for indexing and the record limit */
+	int records;
+	long recordLimit = Long.MAX_VALUE;
+	/** The index being recorded, or null */
+	HeapdumpIndex index;
+	int nextIndexRecord;
+	boolean indexComplete;
 
 	/**
 	 * Create a new HeapdumpReader object from the given file. The file must be in Phd format.
@@ -106,6 +113,47 @@ public class HeapdumpReader extends Base {
 		this.image.registerReader(this);
 	}
 	
+	/**
+	 * Create a new HeapdumpReader for an uncompressed Phd file, positioned at an entry of an index
+	 * of that file. The reader shares the mapped file and its parsed header, so creating one is cheap
+	 * and several readers can parse different parts of the same file in parallel.
+	 * <p>
+	 * The reader is not registered with an image, so the caller must close it, and the
+	 * {@link MappedHeapdump} must stay open while it is used.
+	 * @param heapdump the uncompressed Phd file that the index was built from
+	 * @param index the index of the file
+	 * @param entry the index entry to start parsing at
+	 * @throws IOException 
+	 */
+	public HeapdumpReader(MappedHeapdump heapdump, HeapdumpIndex index, int entry) throws IOException {
+		HeapdumpReader header = heapdump.header;
+		filename = header.filename;
+		version = header.version;
+		dumpFlags = header.dumpFlags;
+		gapShift = header.gapShift;
+		j9 = header.j9;
+		pre78432 = header.pre78432;
+		full_version = header.full_version;
+		random1 = header.random1;
+		random2 = header.random2;
+		totalObjects = header.totalObjects;
+		totalRefs = header.totalRefs;
+		dis = new DataStreamAdapter(new MappedFileInput(heapdump));
+		dis.seek(index.offset(entry));
+		lastAddress = index.lastAddress(entry);
+		index.classAddressCache(entry, classAddressCache);
+		classAddressCacheIndex = index.classAddressCacheIndex(entry);
+	}
+
+	/**
+	 * Parse the header of a mapped Phd file, for the readers of its index entries to copy.
+	 */
+	HeapdumpReader(MappedHeapdump heapdump) throws IOException {
+		this.filename = heapdump.file().getAbsolutePath();
+		dis = new DataStreamAdapter(new MappedFileInput(heapdump));
+		processData();
+	}
+
 	/**
 	 * Create a new HeapdumpReader object from the given stream. The file must be in Phd format.
 	 * @throws IOException 
@@ -129,11 +177,14 @@ public class HeapdumpReader extends Base {
 		try {
 			if (filename.endsWith(".gz")) {
 				is = new BufferedInputStream(new GZIPInputStream(new FileInputStream(filename)));
+				dis = new DataStreamAdapter(new DataInputStream(is));
 			} else {			
 				FileInputStream fis = new FileInputStream(filename);
-				is = new BufferedInputStream(fis);
+				// Count the bytes read so that an index can be recorded
+				CountingInputStream counter = new CountingInputStream(new BufferedInputStream(fis));
+				is = counter;
+				dis = new DataStreamAdapter(new DataInputStream(counter), counter);
 			}
-			dis = new DataStreamAdapter(new DataInputStream(is));
 			processData();
 		} catch (java.io.UTFDataFormatException e) {
 			try {
@@ -453,6 +504,47 @@ public class HeapdumpReader extends Base {
 	public void exitParse() {
 		continueParse = false;
 	}
+
+	/**
+	 *  Record an index of the dump while it is parsed, with an entry every <code>stride</code> records.
+	 *  This must be called before parsing starts. The index is only recorded for uncompressed files,
+	 *  as other dumps cannot be read at random.
+	 *  @see #getIndex()
+	 */
+	public void recordIndex(int stride) {
+		if (records == 0 && dis.isIndexable()) {
+			index = new HeapdumpIndex(stride);
+			nextIndexRecord = 0;
+		}
+	}
+
+	/**
+	 *  Returns the index recorded while parsing, or null if no index was recorded or the whole
+	 *  dump was not parsed successfully.
+	 */
+	public HeapdumpIndex getIndex() {
+		return indexComplete ? index : null;
+	}
+
+	/**
+	 *  Limit the number of records parsed. After another <code>limit</code> records, {@link #parse}
+	 *  returns true as if the listener had called {@link #exitParse()}.
+	 */
+	public void setRecordLimit(int limit) {
+		recordLimit = (long)records + limit;
+	}
+
+	private void indexRecord() throws IOException {
+		if (records > 0) {
+			// Include the address of the record just parsed in its entry.
+			// This may be repeated if parsing is resumed, which does no harm.
+			index.addAddress(lastAddress);
+		}
+		if (records == nextIndexRecord) {
+			index.addEntry(dis.position(), lastAddress, classAddressCache, classAddressCacheIndex, records - totalClass);
+			nextIndexRecord += index.stride();
+		}
+	}
 	/**
 	 *  Parse the heapdump. This uses callbacks via the PortableHeapDumpListener interface. Any
 	 *  exceptions that the listener raises are propagated back.
@@ -461,6 +553,12 @@ public class HeapdumpReader extends Base {
 	public boolean parse(PortableHeapDumpListener listener) throws Exception {
 		long address = 0;
 		for (continueParse = true; continueParse;) {
+			if (records >= recordLimit) {
+				return true;
+			}
+			if (index != null) {
+				indexRecord();
+			}
 			int tag = dis.readUnsignedByte();
 			if (dbg) System.out.println("read tag " + hex(tag));
 			if ((tag & 0x80) != 0) {
@@ -476,6 +574,7 @@ public class HeapdumpReader extends Base {
 				if (dbg) System.out.println(hex(address) + ": short object, class = " + hex(classAddress));
 				totalShort++;
 				lastAddress = address;
+				records++;
 				listener.objectDump(address, classAddress, objFlags, hashCode, refEnum,  PHDJavaObject.UNSPECIFIED_INSTANCE_SIZE);
 			} else if ((tag & 0x40) != 0) {
 				// medium object
@@ -492,6 +591,7 @@ public class HeapdumpReader extends Base {
 				if (dbg) System.out.println(hex(address) + ": medium object, class = " + hex(classAddress));
 				totalMedium++;
 				lastAddress = address;
+				records++;
 				listener.objectDump(address, classAddress, objFlags, hashCode, refEnum, PHDJavaObject.UNSPECIFIED_INSTANCE_SIZE);
 			} else if ((tag & 0x20) != 0) {
 				// primitive array
@@ -524,12 +624,17 @@ public class HeapdumpReader extends Base {
 				if (dbg) System.out.println(hex(address) + ": primitive array, short record, length " + length + ", instance size = " + instanceSize);
 				totalPrim++;
 				lastAddress = address;
+				records++;
 				listener.primitiveArrayDump(address, type, length, objFlags, hashCode, instanceSize);
 			} else switch (tag) {
 			case HeapdumpWriter.END_OF_DUMP:
 				if (nomangle) System.out.println("totalLong = " + totalLong + " totalMedium = " + totalMedium + " totalShort = " + totalShort + " totalPrim = " + totalPrim + " totalHash = " + totalHash);
 				if (nomangle) System.out.println("totalLongPrim = " + totalLongPrim + " totalClass = " + totalClass + " totalArray = " + totalArray + " totalRefs = " + totalActualRefs);
 				if (nomangle) System.out.println("version = " + version);
+				if (index != null) {
+					index.complete(records - totalClass);
+					indexComplete = true;
+				}
 				return false;
 			case HeapdumpWriter.LONG_OBJECT_RECORD: {
 				int flags = dis.readUnsignedByte();
@@ -548,6 +653,7 @@ public class HeapdumpReader extends Base {
 				}
 				totalLong++;
 				lastAddress = address;
+				records++;
 				listener.objectDump(address, classAddress, objFlags, hashCode, refEnum, instanceSize);
 				break;
 			}
@@ -570,6 +676,7 @@ public class HeapdumpReader extends Base {
 				long instanceSize = getInstanceSize(); // will read an unsigned int * 4 from stream if version >= 6
 				if (dbg) System.out.println(hex(address) + ": object array, hash code = " + hex(hashCode) + " flags = " + hex(flags)+" num refs = " + numRefs + " length = " + length + " instance size = " + instanceSize);
 				lastAddress = address;
+				records++;
 				listener.objectArrayDump(address, classAddress, objFlags, hashCode, refEnum, length, instanceSize);
 				break;
 			}
@@ -590,6 +697,7 @@ public class HeapdumpReader extends Base {
 				readRefs(address, -1, numRefs, refsSize);
 				totalClass++;
 				lastAddress = address;
+				records++;
 				listener.classDump(address, superAddress, className, instanceSize, objFlags, hashCode, refEnum);
 				break;
 			}
@@ -610,6 +718,7 @@ public class HeapdumpReader extends Base {
 				if (dbg) System.out.println(hex(address) + ": primitive array, long record, length = " + length + " hash code = " + hex(hashCode) + " flags = " + hex(flags) + " instance size = " + instanceSize);
 				totalLongPrim++;
 				lastAddress = address;
+				records++;
 				listener.primitiveArrayDump(address, type, length, objFlags, hashCode, instanceSize);
 				break;
 			}
@@ -716,19 +825,39 @@ public class HeapdumpReader extends Base {
 	private class DataStreamAdapter {
 		private final DataInputStream dis;
 		private final ImageInputStream iis;
+		private final MappedFileInput mapped;
+		/** Counts the bytes read through dis, if the position is needed */
+		private final CountingInputStream counter;
 		
 		public DataStreamAdapter(ImageInputStream iis) {
 			this.iis = iis;
 			dis = null;
+			mapped = null;
+			counter = null;
 		}
 		
 		public DataStreamAdapter(DataInputStream dis) {
+			this(dis, null);
+		}
+		
+		public DataStreamAdapter(DataInputStream dis, CountingInputStream counter) {
 			this.dis = dis;
+			this.counter = counter;
+			iis = null;
+			mapped = null;
+		}
+		
+		public DataStreamAdapter(MappedFileInput mapped) {
+			this.mapped = mapped;
+			dis = null;
 			iis = null;
+			counter = null;
 		}
 		
 		public int readInt() throws IOException {
-			if(dis == null) {
+			if(mapped != null) {
+				return mapped.readInt();
+			} else if(dis == null) {
 				return iis.readInt();
 			} else {
 				return dis.readInt();
@@ -736,7 +865,9 @@ public class HeapdumpReader extends Base {
 		}
 		
 		public int readUnsignedShort() throws IOException {
-			if(dis == null) {
+			if(mapped != null) {
+				return mapped.readUnsignedShort();
+			} else if(dis == null) {
 				return iis.readUnsignedShort();
 			} else {
 				return dis.readUnsignedShort();
@@ -744,7 +875,9 @@ public class HeapdumpReader extends Base {
 		}
 		
 		public int readUnsignedByte() throws IOException {
-			if(dis == null) {
+			if(mapped != null) {
+				return mapped.readUnsignedByte();
+			} else if(dis == null) {
 				return iis.readUnsignedByte();
 			} else {
 				return dis.readUnsignedByte();
@@ -752,7 +885,9 @@ public class HeapdumpReader extends Base {
 		}
 		
 		public void mark(int readlimit) {
-			if(dis == null) {
+			if(mapped != null) {
+				mapped.mark();
+			} else if(dis == null) {
 				iis.mark();		//iis mark doesn't take a parameter
 			} else {
 				dis.mark(readlimit);
@@ -760,7 +895,9 @@ public class HeapdumpReader extends Base {
 		}
 		
 		public void reset() throws IOException {
-			if(dis == null) {
+			if(mapped != null) {
+				mapped.reset();
+			} else if(dis == null) {
 				iis.reset();
 			} else {
 				dis.reset();
@@ -768,7 +905,9 @@ public class HeapdumpReader extends Base {
 		}
 		
 		public long readLong() throws IOException {
-			if(dis == null) {
+			if(mapped != null) {
+				return mapped.readLong();
+			} else if(dis == null) {
 				return iis.readLong();
 			} else {
 				return dis.readLong();
@@ -776,7 +915,9 @@ public class HeapdumpReader extends Base {
 		}
 		
 		public short readShort() throws IOException {
-			if(dis == null) {
+			if(mapped != null) {
+				return mapped.readShort();
+			} else if(dis == null) {
 				return iis.readShort();
 			} else {
 				return dis.readShort();
@@ -784,7 +925,9 @@ public class HeapdumpReader extends Base {
 		}
 		
 		public byte readByte() throws IOException {
-			if(dis == null) {
+			if(mapped != null) {
+				return mapped.readByte();
+			} else if(dis == null) {
 				return iis.readByte();
 			} else {
 				return dis.readByte();
@@ -792,15 +935,45 @@ public class HeapdumpReader extends Base {
 		}
 		
 		public void readFully(byte[] buffer) throws IOException {
-			if(dis == null) {
+			if(mapped != null) {
+				mapped.readFully(buffer);
+			} else if(dis == null) {
 				iis.readFully(buffer);
 			} else {
 				dis.readFully(buffer);
 			}
 		}
 		
+		/**
+		 * Whether the file offset is known and the file can be read again at that offset,
+		 * so that an index can be recorded.
+		 */
+		public boolean isIndexable() {
+			return mapped != null || counter != null;
+		}
+		
+		public long position() throws IOException {
+			if(mapped != null) {
+				return mapped.position();
+			} else if(counter != null) {
+				return counter.count;
+			} else {
+				throw new IOException("Position not available for this stream");
+			}
+		}
+		
+		public void seek(long position) throws IOException {
+			if(mapped != null) {
+				mapped.seek(position);
+			} else {
+				throw new IOException("Seek not available for this stream");
+			}
+		}
+		
 		public void close() throws IOException {
-			if(dis == null) {
+			if(mapped != null) {
+				mapped.close();
+			} else if(dis == null) {
 				//ignore and do not close the image input stream as this will be handled by the PHD Image
 			} else {
 				dis.close();
@@ -809,11 +982,53 @@ public class HeapdumpReader extends Base {
 		
 		//allows all input sources to be closed and is used to signal the final closing
 		public void releaseResources() throws IOException {
-			if(dis == null) {
+			if(mapped != null) {
+				mapped.close();
+			} else if(dis == null) {
 				iis.close();
 			} else {
 				dis.close();
 			}
 		}
 	}
+
+	/**
+	 * Counts the bytes read from a stream, to give the file offset of each record.
+	 */
+	private static class CountingInputStream extends FilterInputStream {
+		long count;
+		private long markCount;
+		
+		CountingInputStream(InputStream in) {
+			super(in);
+		}
+		
+		public int read() throws IOException {
+			int b = in.read();
+			if (b >= 0) count++;
+			return b;
+		}
+		
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			int n = in.read(buffer, offset, length);
+			if (n > 0) count += n;
+			return n;
+		}
+		
+		public long skip(long n) throws IOException {
+			long skipped = in.skip(n);
+			count += skipped;
+			return skipped;
+		}
+		
+		public synchronized void mark(int readlimit) {
+			in.mark(readlimit);
+			markCount = count;
+		}
+		
+		public synchronized void reset() throws IOException {
+			in.reset();
+			count = markCount;
+		}
+	}
 }
@@ -0,0 +1,123 @@
+/*[INCLUDE-IF Sidecar18-SE]*/
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.dtfj.phd.parser;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Big-endian reads from a {@link MappedHeapdump}. Each instance has its own position
+ * in the shared mapped windows, so several instances can read different parts of the
+ * same file in parallel.
+ */
+class MappedFileInput {
+
+	private final MappedHeapdump heapdump;
+	private ByteBuffer window;
+	/** File offset of the start of the window */
+	private long windowStart;
+	private long mark;
+
+	MappedFileInput(MappedHeapdump heapdump) {
+		this.heapdump = heapdump;
+	}
+
+	/**
+	 * Make sure the next count bytes are in the window.
+	 */
+	private ByteBuffer ensure(int count) throws IOException {
+		if (window == null || window.remaining() < count) {
+			long position = position();
+			if (position + count > heapdump.length()) {
+				throw new EOFException("Read beyond the end of the heap dump at offset " + position);
+			}
+			window = heapdump.window(position);
+			windowStart = position - window.position();
+		}
+		return window;
+	}
+
+	long position() {
+		return window == null ? windowStart : windowStart + window.position();
+	}
+
+	void seek(long position) throws IOException {
+		if (window != null && position >= windowStart && position <= windowStart + window.limit()) {
+			window.position((int)(position - windowStart));
+		} else {
+			window = null;
+			windowStart = position;
+		}
+	}
+
+	void mark() {
+		mark = position();
+	}
+
+	void reset() throws IOException {
+		seek(mark);
+	}
+
+	byte readByte() throws IOException {
+		return ensure(1).get();
+	}
+
+	int readUnsignedByte() throws IOException {
+		return ensure(1).get() & 0xff;
+	}
+
+	short readShort() throws IOException {
+		return ensure(2).getShort();
+	}
+
+	int readUnsignedShort() throws IOException {
+		return ensure(2).getShort() & 0xffff;
+	}
+
+	int readInt() throws IOException {
+		return ensure(4).getInt();
+	}
+
+	long readLong() throws IOException {
+		return ensure(8).getLong();
+	}
+
+	void readFully(byte[] buffer) throws IOException {
+		if (buffer.length <= MappedHeapdump.WINDOW_OVERLAP) {
+			ensure(buffer.length).get(buffer);
+		} else {
+			// May be larger than a window, so read directly
+			long position = position();
+			heapdump.read(position, buffer);
+			seek(position + buffer.length);
+		}
+	}
+
+	/**
+	 * Stop reading. The file itself stays open for the other readers until the {@link MappedHeapdump} is closed.
+	 */
+	void close() {
+		window = null;
+	}
+}
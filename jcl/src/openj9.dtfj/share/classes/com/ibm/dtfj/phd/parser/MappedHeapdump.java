@@ -0,0 +1,132 @@
+/*[INCLUDE-IF Sidecar18-SE]*/
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.dtfj.phd.parser;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ *  An uncompressed PHD file opened once for random access, shared by the readers of
+ *  all the entries of its {@link HeapdumpIndex}.
+ *  <p>
+ *  The file is mapped in fixed windows as they are first needed, and each window is kept for
+ *  the life of the file. The readers share the windows but each has its own position, so
+ *  entries can be parsed in parallel without opening or mapping the file again.
+ *  The header is parsed once, when the file is opened.
+ */
+public final class MappedHeapdump implements Closeable {
+
+	/** Distance between the starts of the mapped windows */
+	static final long WINDOW_SIZE = 64 * 1024 * 1024;
+	/** Extra bytes mapped past the end of each window, so that no record field is split between windows */
+	static final int WINDOW_OVERLAP = 64 * 1024;
+
+	private final File file;
+	private final RandomAccessFile raf;
+	private final FileChannel channel;
+	private final long length;
+	private MappedByteBuffer windows[];
+	/** A reader positioned after the header, which other readers copy the header fields from */
+	final HeapdumpReader header;
+
+	/**
+	 * Open and map an uncompressed PHD file, and parse its header.
+	 * @param file the PHD file
+	 * @throws IOException if the file cannot be opened or is not a PHD file
+	 */
+	public MappedHeapdump(File file) throws IOException {
+		this.file = file;
+		raf = new RandomAccessFile(file, "r");
+		try {
+			channel = raf.getChannel();
+			length = channel.size();
+			windows = new MappedByteBuffer[(int)((length + WINDOW_SIZE - 1) / WINDOW_SIZE)];
+			header = new HeapdumpReader(this);
+		} catch (IOException e) {
+			raf.close();
+			throw e;
+		}
+	}
+
+	File file() {
+		return file;
+	}
+
+	long length() {
+		return length;
+	}
+
+	/**
+	 * Returns a view of the window holding the given file offset, with its own position set to that offset.
+	 * Reads of up to {@link #WINDOW_OVERLAP} bytes from the offset fit in the view unless they pass the end of the file.
+	 */
+	synchronized ByteBuffer window(long position) throws IOException {
+		if (windows == null) {
+			throw new IOException("Heap dump has been closed: " + file);
+		}
+		if (position < 0 || position >= length) {
+			throw new EOFException("Read beyond the end of the heap dump at offset " + position);
+		}
+		int number = (int)(position / WINDOW_SIZE);
+		long start = number * WINDOW_SIZE;
+		if (windows[number] == null) {
+			long size = Math.min(WINDOW_SIZE + WINDOW_OVERLAP, length - start);
+			windows[number] = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+		}
+		ByteBuffer view = windows[number].duplicate();
+		view.position((int)(position - start));
+		return view;
+	}
+
+	/**
+	 * Read bytes at a file offset without going through a window, for data too large for one.
+	 */
+	void read(long position, byte buffer[]) throws IOException {
+		if (position + buffer.length > length) {
+			throw new EOFException("Read beyond the end of the heap dump at offset " + position);
+		}
+		ByteBuffer target = ByteBuffer.wrap(buffer);
+		while (target.hasRemaining()) {
+			// Positional reads do not move the channel, so they can be made from several threads at once
+			if (channel.read(target, position + target.position()) < 0) {
+				throw new EOFException("Read beyond the end of the heap dump at offset " + position);
+			}
+		}
+	}
+
+	/**
+	 * Close the file. The mapped windows are released when they are garbage collected.
+	 */
+	public synchronized void close() throws IOException {
+		if (windows != null) {
+			windows = null;
+			raf.close();
+		}
+	}
+}
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2008, 2018 IBM Corp. and others
+ * Copyright (c) 2008, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -27,19 +27,32 @@ import static com.ibm.jvm.dtfjview.SessionProperties.VERBOSE_MODE_PROPERTY;
 import java.io.BufferedOutputStream;
 import java.io.DataOutputStream;
 import java.io.FileOutputStream;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
 
 import com.ibm.dtfj.image.CorruptData;
 import com.ibm.dtfj.image.CorruptDataException;
@@ -57,9 +70,11 @@ import com.ibm.dtfj.java.JavaRuntime;
 import com.ibm.java.diagnostics.utils.IContext;
 import com.ibm.java.diagnostics.utils.commands.CommandException;
 import com.ibm.java.diagnostics.utils.plugins.DTFJPlugin;
+import com.ibm.jvm.dtfjview.heapdump.HeapDumpChunk;
 import com.ibm.jvm.dtfjview.heapdump.HeapDumpFormatter;
 import com.ibm.jvm.dtfjview.heapdump.HeapDumpSettings;
-import com.ibm.jvm.dtfjview.heapdump.LongListReferenceIterator;
+import com.ibm.jvm.dtfjview.heapdump.LongArrayReferenceIterator;
+import com.ibm.jvm.dtfjview.heapdump.ParallelGZIPOutputStream;
 import com.ibm.jvm.dtfjview.heapdump.ReferenceIterator;
 import com.ibm.jvm.dtfjview.heapdump.classic.ClassicHeapDumpFormatter;
 import com.ibm.jvm.dtfjview.heapdump.portable.PortableHeapDumpFormatter;
@@ -91,11 +106,21 @@ public class HeapdumpCommand extends BaseJdmpviewCommand
 	//Do not change the order this array - the indexes are used to extract type codes in the getPrimitiveTypeCode method
 	private static final String[] PRIMITIVE_TYPES = { "boolean", "char",
 			"float", "double", "byte", "short", "int", "long", "void" };
+	/**
+	 * Number of heap objects walked by each task when the heap is walked on several threads
+	 */
+	private static final int OBJECTS_PER_CHUNK = 1024;
 	private int _numberOfObjects = 0;
 	private int _numberOfClasses = 0;
-	private int _numberOfErrors = 0;
+	private final AtomicInteger _numberOfErrors = new AtomicInteger();
 	private boolean _verbose = false;
 	private boolean _is32BitHash;
+	private int _threads = 1;
+	/**
+	 * What the heap walk needs to know about each class, so that it is worked out
+	 * once per class rather than once per object
+	 */
+	private final ConcurrentHashMap<JavaClass, ClassInfo> _classInfo = new ConcurrentHashMap<JavaClass, ClassInfo>();
 
 	{
 		addCommand(COMMAND_NAME, "", DESCRIPTION);	
@@ -113,7 +138,7 @@ public class HeapdumpCommand extends BaseJdmpviewCommand
 		Set heapsToDump = new HashSet();
 		
 		_numberOfObjects = 0;
-		_numberOfErrors = 0;
+		_numberOfErrors.set(0);
 		_numberOfClasses = 0;
 		
 		if (ctx.hasPropertyBeenSet(VERBOSE_MODE_PROPERTY)) {
@@ -148,6 +173,7 @@ public class HeapdumpCommand extends BaseJdmpviewCommand
 			
 			boolean is64Bit = addressSpace.getCurrentProcess().getPointerSize() == 64;
 
+			_threads = HeapDumpSettings.getThreads(ctx.getProperties());
 			String filename = HeapDumpSettings.getFileName(ctx.getProperties());
 			boolean phdFormat = HeapDumpSettings.areHeapDumpsPHD(ctx.getProperties());
 
@@ -158,7 +184,7 @@ public class HeapdumpCommand extends BaseJdmpviewCommand
 					dumpMultipleHeapsInOneFile(runtime,version,is64Bit,phdFormat,filename,heapsToDump);
 				}
 
-				if(_numberOfErrors == 0) {
+				if(_numberOfErrors.get() == 0) {
 					out.print("\nSuccessfully wrote " + _numberOfObjects + " objects and " + _numberOfClasses + " classes\n");
 				} else {
 					out.print("\nWrote " 
@@ -166,7 +192,7 @@ public class HeapdumpCommand extends BaseJdmpviewCommand
 							+ " objects and " 
 							+ _numberOfClasses 
 							+ " classes and encountered " 
-							+ _numberOfErrors 
+							+ _numberOfErrors.get() 
 							+ " errors."
 							+ "\n");
 				}
@@ -178,6 +204,7 @@ public class HeapdumpCommand extends BaseJdmpviewCommand
 				out.println(writer.toString());
 			}
 			
+			_classInfo.clear();
 			runtime = null;
 		}
 	}
@@ -208,9 +235,9 @@ public class HeapdumpCommand extends BaseJdmpviewCommand
 				workingSet.remove(thisHeap.getName());
 			} else if (potential instanceof CorruptData) {
 				reportError("Corrupt heap found. Address = " + ((CorruptData)potential).getAddress(),null);
-				_numberOfErrors++;
+				_numberOfErrors.incrementAndGet();
 			} else {
-				_numberOfErrors++;
+				_numberOfErrors.incrementAndGet();
 				reportError("Unexpected type " + potential.getClass().getName() + " found in heap iterator",null);
 			}
 		}
@@ -256,7 +283,7 @@ public class HeapdumpCommand extends BaseJdmpviewCommand
 			}
 		}
 		catch (CorruptDataException e) {
-			_numberOfErrors++;
+			_numberOfErrors.incrementAndGet();
 			out.println("Could not read version string from dump: data corrupted at "
 							+ e.getCorruptData().getAddress());
 			return "*Corrupt*";
@@ -280,7 +307,7 @@ public class HeapdumpCommand extends BaseJdmpviewCommand
 			if (thisHeapObj instanceof CorruptData) {
 				out.println("Corrupt heap data found at: " 
 						+ ((CorruptData) thisHeapObj).getAddress());
-				_numberOfErrors++;
+				_numberOfErrors.incrementAndGet();
 				continue;
 			}
 
@@ -310,7 +337,7 @@ public class HeapdumpCommand extends BaseJdmpviewCommand
 			if (thisHeapObj instanceof CorruptData) {
 				out.println("Heap corrupted at: "
 						+ ((CorruptData) thisHeapObj).getAddress());
-				_numberOfErrors++;
+				_numberOfErrors.incrementAndGet();
 				continue;
 			}
 
@@ -360,7 +387,7 @@ ITERATING_LOADERS:while(classLoaderIt.hasNext()) {
 			Object potential = classLoaderIt.next();
 			
 			if(potential instanceof CorruptData) {
-				_numberOfErrors++;
+				_numberOfErrors.incrementAndGet();
 				reportError("CorruptData found in classloader list at address: " + ((CorruptData)potential).getAddress(), null);
 				continue ITERATING_LOADERS;
 			}
@@ -377,7 +404,7 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 				try {
 					
 					if(potential instanceof CorruptData) {
-						_numberOfErrors++;
+						_numberOfErrors.incrementAndGet();
 						reportError("CorruptData found in class list for classloader "
 								+ Long.toHexString(thisClassLoader.getObject().getID().getAddress()) 
 								+ " at address: " + ((CorruptData)potential).getAddress(), null);
@@ -417,7 +444,7 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 								getClassReferences(thisJavaClass) );
 				} catch(DTFJException ex) {
 					//Handle CorruptDataException and DataUnavailableException the same way
-					_numberOfErrors++;
+					_numberOfErrors.incrementAndGet();
 					reportError(null,ex);
 					continue ITERATING_CLASSES;
 				}
@@ -436,77 +463,232 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 	private void dumpHeap(HeapDumpFormatter formatter, JavaHeap thisHeap)
 			throws IOException
 	{
+		if (_threads > 1) {
+			dumpHeapInParallel(formatter, thisHeap);
+			return;
+		}
+		
 		Iterator objectIterator = thisHeap.getObjects();
 
 		while (objectIterator.hasNext()) {
 			Object next = objectIterator.next();
 			_numberOfObjects++;
 
-			if (next instanceof CorruptData) {
-				_numberOfErrors++;
-				reportError("Corrupt object data found at " + ((CorruptData)next).getAddress() + " while walking heap " + thisHeap.getName(),null);
-				continue;
+			dumpObject(formatter, thisHeap, next);
+		}
+	}
+
+	/**
+	 * Walks the supplied heap on several threads. The heap iterator is read on this thread
+	 * and the objects are handed out in chunks; each chunk is turned into heapdump records
+	 * by a worker thread. The chunks are passed to the formatter in heap order, so the
+	 * heapdump is the same as one written by a single thread.
+	 * <p>
+	 * A few chunks per thread are in flight at once, so memory use does not grow with the heap.
+	 */
+	private void dumpHeapInParallel(final HeapDumpFormatter formatter, final JavaHeap thisHeap)
+			throws IOException
+	{
+		ExecutorService pool = Executors.newFixedThreadPool(_threads, new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "heapdump walker");
+				thread.setDaemon(true);
+				return thread;
 			}
+		});
+		ArrayDeque<Future<HeapDumpChunk>> pending = new ArrayDeque<Future<HeapDumpChunk>>();
+		
+		try {
+			Iterator objectIterator = thisHeap.getObjects();
 
-			try {
-				JavaObject thisObject = (JavaObject) next;
-				if (thisObject.getJavaClass().getName().equals("java/lang/Class")) {
-					// heap classes are handled separately, in dumpClasses()
-					continue;
-				}				
-				JavaClass thisClass = thisObject.getJavaClass();
-				JavaObject thisClassObject = thisClass.getObject();
-
-				int hashcode = 0;
-				if (_is32BitHash) { // JVMs from 2.6 on, optional 32-bit hashcodes, if object was hashed 
-					try {
-						hashcode = (int) thisObject.getPersistentHashcode();
-					} catch (DataUnavailable ex) {
-						// no persistent hashcode for this object, pass hashcode=0 to the heapdump formatter
-					}
-				} else { // JVMs prior to 2.6, all objects should have a 16-bit hashcode
-					try {
-						hashcode = (int) thisObject.getHashcode();
-					} catch (DataUnavailable ex) {
-						_numberOfErrors++;
-						reportError("Failed to get hashcode for object: " + thisObject.getID(),ex);
+			while (objectIterator.hasNext()) {
+				final List<Object> objects = new ArrayList<Object>(OBJECTS_PER_CHUNK);
+				
+				while (objects.size() < OBJECTS_PER_CHUNK && objectIterator.hasNext()) {
+					objects.add(objectIterator.next());
+					_numberOfObjects++;
+				}
+				
+				pending.addLast(pool.submit(new Callable<HeapDumpChunk>() {
+					public HeapDumpChunk call() throws IOException {
+						HeapDumpChunk chunk = new HeapDumpChunk(formatter);
+						
+						for (Object next : objects) {
+							dumpObject(chunk, thisHeap, next);
+						}
+						
+						return chunk;
 					}
+				}));
+				
+				while (pending.size() > 2 * _threads) {
+					writeChunk(formatter, pending.removeFirst());
 				}
+			}
+			
+			while (!pending.isEmpty()) {
+				writeChunk(formatter, pending.removeFirst());
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
 
-				if (thisObject.isArray()) {
-					if (isPrimitive(thisClass.getComponentType())) {
-						formatter.addPrimitiveArray(thisObject.getID().getAddress(), 
-													thisClassObject.getID().getAddress(),
-													getPrimitiveTypeCode(thisClass.getComponentType()),
-													thisObject.getSize(), 
-													hashcode,
-													thisObject.getArraySize());
-					} else {
-						formatter.addObjectArray(thisObject.getID().getAddress(), 
-								thisClassObject.getID().getAddress(), 
-								thisClass.getName(), 
-								thisClass.getComponentType().getObject().getID().getAddress(),
-								thisClass.getComponentType().getName(), 
-								thisObject.getSize(),
-								thisObject.getArraySize(),
-								hashcode, 
-								getObjectReferences(thisObject));
-					}
+	private void writeChunk(HeapDumpFormatter formatter, Future<HeapDumpChunk> future) throws IOException
+	{
+		try {
+			future.get().replay(formatter);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while walking the heap");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	/**
+	 * Passes one artifact from the heap through the formatter
+	 */
+	private void dumpObject(HeapDumpFormatter formatter, JavaHeap thisHeap, Object next)
+			throws IOException
+	{
+		if (next instanceof CorruptData) {
+			_numberOfErrors.incrementAndGet();
+			reportError("Corrupt object data found at " + ((CorruptData)next).getAddress() + " while walking heap " + thisHeap.getName(),null);
+			return;
+		}
+
+		try {
+			JavaObject thisObject = (JavaObject) next;
+			ClassInfo thisClass = getClassInfo(thisObject.getJavaClass());
+			if (thisClass.isClassClass) {
+				// heap classes are handled separately, in dumpClasses()
+				return;
+			}
+
+			int hashcode = 0;
+			if (_is32BitHash) { // JVMs from 2.6 on, optional 32-bit hashcodes, if object was hashed 
+				try {
+					hashcode = (int) thisObject.getPersistentHashcode();
+				} catch (DataUnavailable ex) {
+					// no persistent hashcode for this object, pass hashcode=0 to the heapdump formatter
 				}
-				else {
-					formatter.addObject(thisObject.getID().getAddress(), 
-										thisClassObject.getID().getAddress(), 
-										thisClass.getName(), 
-										(int)thisObject.getSize(),
-										hashcode, 
-										getObjectReferences(thisObject));
+			} else { // JVMs prior to 2.6, all objects should have a 16-bit hashcode
+				try {
+					hashcode = (int) thisObject.getHashcode();
+				} catch (DataUnavailable ex) {
+					_numberOfErrors.incrementAndGet();
+					reportError("Failed to get hashcode for object: " + thisObject.getID(),ex);
 				}
 			}
-			catch (CorruptDataException ex) {
-				_numberOfErrors++;
-				reportError(null,ex);
-				continue;
+
+			if (thisObject.isArray()) {
+				if (thisClass.primitiveTypeCode >= 0) {
+					formatter.addPrimitiveArray(thisObject.getID().getAddress(), 
+												thisClass.classObjectAddress,
+												thisClass.primitiveTypeCode,
+												thisObject.getSize(), 
+												hashcode,
+												thisObject.getArraySize());
+				} else {
+					formatter.addObjectArray(thisObject.getID().getAddress(), 
+							thisClass.classObjectAddress, 
+							thisClass.name, 
+							thisClass.elementClassAddress,
+							thisClass.elementClassName, 
+							thisObject.getSize(),
+							thisObject.getArraySize(),
+							hashcode, 
+							getObjectReferences(thisObject));
+				}
+			}
+			else {
+				formatter.addObject(thisObject.getID().getAddress(), 
+									thisClass.classObjectAddress, 
+									thisClass.name, 
+									(int)thisObject.getSize(),
+									hashcode, 
+									getObjectReferences(thisObject));
+			}
+		}
+		catch (CorruptDataException ex) {
+			_numberOfErrors.incrementAndGet();
+			reportError(null,ex);
+		}
+	}
+
+	/**
+	 * Returns what the heap walk needs to know about a class, working it out the first time
+	 * the class is seen.
+	 */
+	private ClassInfo getClassInfo(JavaClass thisClass) throws CorruptDataException
+	{
+		ClassInfo info = _classInfo.get(thisClass);
+		
+		if (info == null) {
+			info = new ClassInfo(thisClass);
+			_classInfo.put(thisClass, info);
+		}
+		
+		return info;
+	}
+
+	/**
+	 * The details of a class that are written into the record of every instance.
+	 */
+	private static final class ClassInfo
+	{
+		final String name;
+		final boolean isClassClass;
+		final long classObjectAddress;
+		/**
+		 * Primitive type code of the elements, or -1 if the class is not a primitive array
+		 */
+		final int primitiveTypeCode;
+		final long elementClassAddress;
+		final String elementClassName;
+
+		ClassInfo(JavaClass thisClass) throws CorruptDataException
+		{
+			name = thisClass.getName();
+			isClassClass = name.equals("java/lang/Class");
+			
+			if (isClassClass) {
+				// instances are not written, see dumpObject()
+				classObjectAddress = 0;
+				primitiveTypeCode = -1;
+				elementClassAddress = 0;
+				elementClassName = null;
+				return;
+			}
+			
+			if (thisClass.isArray()) {
+				JavaClass componentType = thisClass.getComponentType();
+				
+				if (isPrimitive(componentType)) {
+					primitiveTypeCode = getPrimitiveTypeCode(componentType);
+					elementClassAddress = 0;
+					elementClassName = null;
+				} else {
+					primitiveTypeCode = -1;
+					elementClassAddress = componentType.getObject().getID().getAddress();
+					elementClassName = componentType.getName();
+				}
+			} else {
+				primitiveTypeCode = -1;
+				elementClassAddress = 0;
+				elementClassName = null;
 			}
+			
+			classObjectAddress = thisClass.getObject().getID().getAddress();
 		}
 	}
 
@@ -522,7 +704,7 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 	 */
 	private ReferenceIterator getClassReferences(JavaClass thisJavaClass)
 	{
-		List references = new LinkedList();
+		ReferenceList references = new ReferenceList();
 		
 		try {
 			// Class object instance references
@@ -539,14 +721,14 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 				if (cpObject instanceof JavaClass) {
 					// Found a class reference, add it to the list
 					JavaClass cpJavaClass = (JavaClass)cpObject;
-					references.add(Long.valueOf(cpJavaClass.getObject().getID().getAddress()));
+					references.add(cpJavaClass.getObject().getID().getAddress());
 				}
 			}
 					
 			// Superclass references
 			JavaClass superClass = thisJavaClass.getSuperclass();
 			while (null != superClass){
-				references.add(Long.valueOf(superClass.getObject().getID().getAddress()));
+				references.add(superClass.getObject().getID().getAddress());
 				superClass = superClass.getSuperclass();
 			}
 			
@@ -556,34 +738,34 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 			if(loader != null) {
 				JavaObject loaderObject = loader.getObject();
 				if(loaderObject != null) {
-					references.add(Long.valueOf(loaderObject.getID().getAddress()));
+					references.add(loaderObject.getID().getAddress());
 				} else {
 					reportError("Null loader object returned for class: " + thisJavaClass.getName() + "(" + thisJavaClass.getID() + ")",null);
-					_numberOfErrors++;
+					_numberOfErrors.incrementAndGet();
 				}
 			} else {
 				reportError("Null classloader returned for class: " + thisJavaClass.getName() + "(" + thisJavaClass.getID() + ")",null);
-				_numberOfErrors++;
+				_numberOfErrors.incrementAndGet();
 			}
 		
 		} catch(DTFJException ex) {
 			reportError(null,ex);
-			_numberOfErrors++;
+			_numberOfErrors.incrementAndGet();
 		}
 		
-		return new LongListReferenceIterator(references);
+		return references.iterator();
 	}
 	
 	private long pdSkipCount = 0;
 	
 	private void addProtectionDomainReference(JavaClass thisJavaClass,
-			List references) throws CorruptDataException, MemoryAccessException
+			ReferenceList references) throws CorruptDataException, MemoryAccessException
 			
 	{
 		try {
 			JavaObject protectionDomain = thisJavaClass.getProtectionDomain();
 			if(protectionDomain != null) {
-				references.add(Long.valueOf(protectionDomain.getID().getAddress()));
+				references.add(protectionDomain.getID().getAddress());
 			}
 		} catch (DataUnavailable e) {
 			//record that access to the protection domain was not possible
@@ -596,7 +778,7 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 	 * @param thisClass Class being examined
 	 * @param references List to add references to
 	 */
-	private void addStaticReferences(JavaClass thisClass, List references)
+	private void addStaticReferences(JavaClass thisClass, ReferenceList references)
 			throws CorruptDataException, MemoryAccessException
 	{
 		Iterator fieldsIt = thisClass.getDeclaredFields();
@@ -610,7 +792,7 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 						+ "(" + thisClass.getID() + ") at "
 						+ ((CorruptData)potential).getAddress()
 						,null);
-				_numberOfErrors++;
+				_numberOfErrors.incrementAndGet();
 				continue;
 			}
 				
@@ -623,7 +805,7 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 			Object referent = field.get(thisClass.getObject());
 					
 			if(referent instanceof CorruptData) {
-				_numberOfErrors++;
+				_numberOfErrors.incrementAndGet();
 				reportError("Corrupt referent found in class "
 						+ thisClass.getName()
 						+ "(" + thisClass.getID() + ") from field "
@@ -634,9 +816,9 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 			} else if (referent instanceof JavaObject) {
 				JavaObject referredObject = (JavaObject) referent;
 					
-				references.add(Long.valueOf(referredObject.getID().getAddress()));
+				references.add(referredObject.getID().getAddress());
 			} else if (referent == null) {
-				references.add(Long.valueOf(0));
+				references.add(0);
 			} else if (referent instanceof Number || referent instanceof Boolean || referent instanceof Character) {
 				//Ignore
 			} else {
@@ -648,7 +830,7 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 						+ thisClass.getName()
 						+ "(" + thisClass.getID()+ ")"
 						,null);
-				_numberOfErrors++;
+				_numberOfErrors.incrementAndGet();
 			}
 		}
 	}
@@ -660,7 +842,7 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 	 */
 	private ReferenceIterator getObjectReferences(JavaObject thisObject)
 	{
-		List<Long> references = new LinkedList<Long>();
+		ReferenceList references = new ReferenceList();
 
 		try {
 			addReferences(thisObject, references);
@@ -676,29 +858,24 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 				 * <p>  
 				 * See CMVC 193691
 				 */
-				Long[] refsAsArray = references.toArray(new Long[0]); // Java idiom to dump a list to an array
-				references.clear();
-
-				for (int i = refsAsArray.length - 1; i >= 0; i--) {
-					references.add(refsAsArray[i]);
-				}			    	
+				references.reverse();
 			}
 		} catch(DTFJException ex) {
-			_numberOfErrors++;
+			_numberOfErrors.incrementAndGet();
 			reportError(null,ex);
 		}
 
-		return new LongListReferenceIterator(references);
+		return references.iterator();
 	}
 
 	/**
 	 * Extracts the instance references from an object
 	 * @param object Object being walked
-	 * @param references List<Long> to add references to
+	 * @param references List to add references to
 	 * @param thisClass Class of object
 	 */
 	private void addReferences(JavaObject object,
-			List<Long> references) throws CorruptDataException,
+			ReferenceList references) throws CorruptDataException,
 			MemoryAccessException
 	{
 		Iterator it = object.getReferences();
@@ -713,7 +890,7 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 			ref = it.next();
 			if(ref instanceof CorruptData) {
 				// can sometimes get a nasty surprise in the list - e.g. a J9DDRCorruptData
-				_numberOfErrors++;
+				_numberOfErrors.incrementAndGet();
 				reportError("Corrupt data found at address " 
 						+ ((CorruptData)ref).getAddress() 
 						+ " getting references from object at address: "
@@ -725,7 +902,7 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 				continue;
 			}
 			if ( ! (ref instanceof JavaReference)) {
-				_numberOfErrors++;
+				_numberOfErrors.incrementAndGet();
 				reportError("Object of unexpected type "
 						+ ref.getClass() 
 						+ " found within references from object at address: "
@@ -740,7 +917,7 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 				try {
 					target = ((JavaReference)ref).getTarget();
 				} catch (DataUnavailable e) {
-					_numberOfErrors++;
+					_numberOfErrors.incrementAndGet();
 					reportError("DataUnavailable thrown from call to getTarget() on reference: "
 							+ ref
 							,null);
@@ -748,11 +925,11 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 				}
 				// the following ugliness is necessary as JavaObject and JavaClass both support getID() but do not inherit from a common parent
 				if (target instanceof JavaObject) {
-					references.add(Long.valueOf(((JavaObject) target).getID().getAddress()));				
+					references.add(((JavaObject) target).getID().getAddress());				
 				} else if (target instanceof JavaClass) {
-					references.add(Long.valueOf(((JavaClass) target).getID().getAddress()));
+					references.add(((JavaClass) target).getID().getAddress());
 				} else {
-					_numberOfErrors++;
+					_numberOfErrors.incrementAndGet();
 					reportError("Object of unexpected type "
 							+ target.getClass() 
 							+ " returned from call to getTarget() on reference "
@@ -763,6 +940,38 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 		}
 	}
 
+	/**
+	 * A growable list of reference addresses, kept unboxed so that objects with
+	 * many references do not fill the Java heap with Long objects.
+	 */
+	private static final class ReferenceList
+	{
+		private long[] _references = new long[16];
+		private int _size = 0;
+
+		void add(long reference)
+		{
+			if (_size == _references.length) {
+				_references = Arrays.copyOf(_references, _size * 2);
+			}
+			_references[_size++] = reference;
+		}
+
+		void reverse()
+		{
+			for (int i = 0, j = _size - 1; i < j; i++, j--) {
+				long temp = _references[i];
+				_references[i] = _references[j];
+				_references[j] = temp;
+			}
+		}
+
+		ReferenceIterator iterator()
+		{
+			return new LongArrayReferenceIterator(Arrays.copyOf(_references, _size));
+		}
+	}
+
 	/**
 	 * Checks if class is primitive
 	 * 
@@ -794,7 +1003,7 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 	 * @param clazz
 	 * @return
 	 */
-	private int getPrimitiveTypeCode(JavaClass clazz)
+	private static int getPrimitiveTypeCode(JavaClass clazz)
 			throws CorruptDataException
 	{
 		String name = clazz.getName();
@@ -819,11 +1028,21 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 	private HeapDumpFormatter getFormatter(String fileName, String version,
 			boolean is64Bit, boolean phdFormat) throws IOException
 	{
+		OutputStream stream = new FileOutputStream(fileName);
+		
+		if(HeapDumpSettings.areHeapDumpsGzipped(ctx.getProperties())) {
+			if(_threads > 1) {
+				stream = new ParallelGZIPOutputStream(stream, _threads);
+			} else {
+				stream = new GZIPOutputStream(stream);
+			}
+		}
+		
 		if(phdFormat) {
-			DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName)));
+			DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(stream));
 			return new PortableHeapDumpFormatter(dos,version,is64Bit,_is32BitHash);
 		} else {
-			return new ClassicHeapDumpFormatter(new FileWriter(fileName),version,is64Bit);
+			return new ClassicHeapDumpFormatter(new OutputStreamWriter(stream),version,is64Bit);
 		}
 	}
 
@@ -845,7 +1064,7 @@ ITERATING_CLASSES:while(classesIt.hasNext()) {
 	/**
 	 * Internal error handling routine that only reports the supplied message if verbose was supplied on the command line.
 	 */
-	private void reportError(String msg,Throwable t) 
+	private synchronized void reportError(String msg,Throwable t) 
 	{
 		if(!_verbose) {
 			return;
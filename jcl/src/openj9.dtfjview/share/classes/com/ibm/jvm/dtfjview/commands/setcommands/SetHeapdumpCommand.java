@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2008, 2017 IBM Corp. and others
+ * Copyright (c) 2008, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -33,13 +33,17 @@ import com.ibm.jvm.dtfjview.heapdump.HeapDumpSettings;
 @DTFJPlugin(version="1.*")
 public class SetHeapdumpCommand extends BaseJdmpviewCommand
 {
-	private static final String SHORT_DESCRIPTION = "configures heapdump format, filename and multiple heap support";
+	private static final String SHORT_DESCRIPTION = "configures heapdump format, filename, multiple heap support, threads and compression";
 	private static final String COMMAND_NAME = "set heapdump";
-	private static final String LONG_DESCRIPTION = "parameters: [phd|txt], [file <filename>], [multiplefiles on|off]\n\n" 
+	private static final String LONG_DESCRIPTION = "parameters: [phd|txt], [file <filename>], [multiplefiles on|off], [threads <n>], [gzip on|off]\n\n" 
 		+ "[phd|txt] - the format for the heapdump. Default: phd.\n"
 		+ "[file <filename>] - the file to write the heapdump to. Default: <core file name>.phd or <core file name>.txt.\n\n"
 		+ "[multiplefiles on|off] - if set to on, multiple heaps are written to separate heapdumps. If set to off, multiple heaps are written " +
 				"to the same heapdump. Default: off.\n\n"
+		+ "[threads <n>] - the number of threads used to walk the heap and to compress the heapdump. The heapdump written " +
+				"is the same whatever the number of threads. Default: 1.\n\n"
+		+ "[gzip on|off] - if set to on, heapdumps are compressed with gzip as they are written, and the default file name " +
+				"ends in .gz. Default: off.\n\n"
 		+ "Use \"show heapdump\" to see current settings.\n";
 
 	{
@@ -105,6 +109,43 @@ public class SetHeapdumpCommand extends BaseJdmpviewCommand
 			} else {
 				out.println("Unrecognised setting: " + setting + ". Valid options are \"on\" or \"off\"\n");
 			}
+		} else if (arg1.equalsIgnoreCase("threads")) {
+			if(args.length != 2) {
+				out.println("\"set heapdump threads\" requires one parameter: the number of threads\n");
+				return;
+			}
+			
+			int threads;
+			try {
+				threads = Integer.parseInt(args[1]);
+			} catch (NumberFormatException e) {
+				threads = 0;
+			}
+			
+			if(threads < 1) {
+				out.println("Invalid number of threads: " + args[1] + ". The number of threads must be a positive integer\n");
+				return;
+			}
+			
+			HeapDumpSettings.setThreads(ctx.getProperties(), threads);
+			out.println("Heapdumps will be written using " + threads + (threads == 1 ? " thread" : " threads"));
+		} else if (arg1.equalsIgnoreCase("gzip")) {
+			if(args.length != 2) {
+				out.println("\"set heapdump gzip\" requires one parameter: on or off\n");
+				return;
+			}
+			
+			String setting = args[1];
+			
+			if(setting.equalsIgnoreCase("on")) {
+				out.println("Heapdumps will be compressed with gzip");
+				HeapDumpSettings.setGzipHeapDumps(ctx.getProperties(), true);
+			} else if (setting.equalsIgnoreCase("off")) {
+				out.println("Heapdumps will not be compressed");
+				HeapDumpSettings.setGzipHeapDumps(ctx.getProperties(), false);
+			} else {
+				out.println("Unrecognised setting: " + setting + ". Valid options are \"on\" or \"off\"\n");
+			}
 		} else {
 			out.println(arg1 + " is not a valid parameter for the \"set heapdump\" command");
 		}
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2008, 2017 IBM Corp. and others
+ * Copyright (c) 2008, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -36,7 +36,7 @@ public class ShowHeapdumpCommand extends BaseJdmpviewCommand
 	public static final String COMMAND_NAME = "show heapdump";
 	public static final String COMMAND_DESCRIPTION = "displays heapdump settings";
 	public static final String LONG_DESCRIPTION = "Parameters:none\n\n"
-		+ "Prints heapdump format and file name.\n"
+		+ "Prints heapdump format, file name, threads and compression.\n"
 		+ "Use \"set heapdump\" to change settings\n";
 
 	{
@@ -59,6 +59,8 @@ public class ShowHeapdumpCommand extends BaseJdmpviewCommand
 		out.print("\tMultiple heaps will be written to " 
 				+ (HeapDumpSettings.multipleHeapsInMultipleFiles(ctx.getProperties()) ? "multiple files":"a single file") 
 				+ "\n");
+		out.print("\tThreads: " + HeapDumpSettings.getThreads(ctx.getProperties()) + "\n");
+		out.print("\tCompression: " + (HeapDumpSettings.areHeapDumpsGzipped(ctx.getProperties()) ? "gzip" : "none") + "\n");
 	}
 
 
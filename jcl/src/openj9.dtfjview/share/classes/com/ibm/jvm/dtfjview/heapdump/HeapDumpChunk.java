@@ -0,0 +1,175 @@
+/*[INCLUDE-IF Sidecar18-SE]*/
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.jvm.dtfjview.heapdump;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A formatter that keeps the records added to it, so that a part of the heap can be
+ * walked on one thread and written out later through the real formatter on another.
+ * 
+ * Replaying a chunk makes exactly the calls that were made on it, in the same order,
+ * so chunks replayed in heap order give the same heapdump as walking the heap directly.
+ * The reference iterators passed in are kept rather than copied, so they must not be
+ * reused by the caller.
+ */
+public class HeapDumpChunk extends HeapDumpFormatter
+{
+	private static final int CLASS = 0;
+	private static final int OBJECT = 1;
+	private static final int PRIMITIVE_ARRAY = 2;
+	private static final int OBJECT_ARRAY = 3;
+
+	private static final class Entry
+	{
+		int kind;
+		long address;
+		long classAddress;
+		long elementClassAddress;
+		long size;
+		long instanceSize;
+		int hashCode;
+		int numberOfElements;
+		int type;
+		String className;
+		String elementClassName;
+		ReferenceIterator references;
+	}
+
+	private final List<Entry> _entries = new ArrayList<Entry>();
+
+	/**
+	 * Constructor
+	 * 
+	 * @param target the formatter the chunk will be replayed into
+	 */
+	public HeapDumpChunk(HeapDumpFormatter target)
+	{
+		super(target._version, target._is64Bit);
+	}
+
+	public void addClass(long address, String name, long superClassAddress,
+			int size, long instanceSize, int hashCode, ReferenceIterator references)
+	{
+		Entry entry = add(CLASS, address, references);
+		entry.className = name;
+		entry.classAddress = superClassAddress;
+		entry.size = size;
+		entry.instanceSize = instanceSize;
+		entry.hashCode = hashCode;
+	}
+
+	public void addObject(long address, long classAddress, String className,
+			int size, int hashCode, ReferenceIterator references)
+	{
+		Entry entry = add(OBJECT, address, references);
+		entry.classAddress = classAddress;
+		entry.className = className;
+		entry.size = size;
+		entry.hashCode = hashCode;
+	}
+
+	public void addPrimitiveArray(long address, long arrayClassAddress, int type, long size,
+			int hashCode, int numberOfElements)
+	{
+		Entry entry = add(PRIMITIVE_ARRAY, address, null);
+		entry.classAddress = arrayClassAddress;
+		entry.type = type;
+		entry.size = size;
+		entry.hashCode = hashCode;
+		entry.numberOfElements = numberOfElements;
+	}
+
+	public void addObjectArray(long address, long arrayClassAddress,
+			String arrayClassName, long elementClassAddress,
+			String elementClassName, long size, int numberOfElements,
+			int hashCode, ReferenceIterator references)
+	{
+		Entry entry = add(OBJECT_ARRAY, address, references);
+		entry.classAddress = arrayClassAddress;
+		entry.className = arrayClassName;
+		entry.elementClassAddress = elementClassAddress;
+		entry.elementClassName = elementClassName;
+		entry.size = size;
+		entry.numberOfElements = numberOfElements;
+		entry.hashCode = hashCode;
+	}
+
+	private Entry add(int kind, long address, ReferenceIterator references)
+	{
+		Entry entry = new Entry();
+		entry.kind = kind;
+		entry.address = address;
+		entry.references = references;
+		_entries.add(entry);
+		return entry;
+	}
+
+	/**
+	 * @return the number of records in the chunk
+	 */
+	public int size()
+	{
+		return _entries.size();
+	}
+
+	/**
+	 * Passes the records in this chunk to another formatter, in the order they were added.
+	 */
+	public void replay(HeapDumpFormatter formatter) throws IOException
+	{
+		for (Entry entry : _entries) {
+			switch (entry.kind) {
+			case CLASS:
+				formatter.addClass(entry.address, entry.className, entry.classAddress,
+						(int) entry.size, entry.instanceSize, entry.hashCode, entry.references);
+				break;
+			case OBJECT:
+				formatter.addObject(entry.address, entry.classAddress, entry.className,
+						(int) entry.size, entry.hashCode, entry.references);
+				break;
+			case PRIMITIVE_ARRAY:
+				formatter.addPrimitiveArray(entry.address, entry.classAddress, entry.type,
+						entry.size, entry.hashCode, entry.numberOfElements);
+				break;
+			case OBJECT_ARRAY:
+				formatter.addObjectArray(entry.address, entry.classAddress, entry.className,
+						entry.elementClassAddress, entry.elementClassName, entry.size,
+						entry.numberOfElements, entry.hashCode, entry.references);
+				break;
+			default:
+				throw new IllegalStateException("Unknown record kind " + entry.kind);
+			}
+		}
+	}
+
+	/**
+	 * Discards the records, a chunk has nowhere to write them.
+	 */
+	public void close()
+	{
+		_entries.clear();
+	}
+}
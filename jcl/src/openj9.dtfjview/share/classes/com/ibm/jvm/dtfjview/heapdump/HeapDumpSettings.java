@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2008, 2017 IBM Corp. and others
+ * Copyright (c) 2008, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -40,6 +40,8 @@ public class HeapDumpSettings
 	public static final String HEAP_DUMP_FORMAT_PROPERTY = "heap_dump_format"; 
 	public static final String MULTIPLE_HEAPS_MULTIPLE_FILES_PROPERTY = "heap_dump_multiple_heaps_multiple_files";
 	public static final String HEAP_DUMP_RUNTIME_ID = "heap_dump_runtime_id";
+	public static final String HEAP_DUMP_THREADS_PROPERTY = "heap_dump_threads";
+	public static final String HEAP_DUMP_GZIP_PROPERTY = "heap_dump_gzip";
 	
 	public static void setFileName(String fileName,Map properties) 
 	{
@@ -74,10 +76,12 @@ public class HeapDumpSettings
 			runtimeID = "";
 		}
 		
+		String suffix = areHeapDumpsGzipped(properties) ? ".gz" : "";
+		
 		if(areHeapDumpsPHD(properties)) {
-			return baseFileName + runtimeID +".phd";
+			return baseFileName + runtimeID +".phd" + suffix;
 		} else {
-			return baseFileName + runtimeID +".txt";
+			return baseFileName + runtimeID +".txt" + suffix;
 		}
 	}
 	
@@ -126,4 +130,40 @@ public class HeapDumpSettings
 			return multipleFilesValue.equals("true");
 		}
 	}
+	
+	public static void setThreads(Map properties, int threads)
+	{
+		properties.put(HEAP_DUMP_THREADS_PROPERTY, String.valueOf(threads));
+	}
+	
+	/**
+	 * Returns the number of threads used to walk the heap and compress the heapdump.
+	 * One thread, the default, walks the heap on the command thread.
+	 */
+	public static int getThreads(Map properties)
+	{
+		Object threadsValue = properties.get(HEAP_DUMP_THREADS_PROPERTY);
+		
+		if(threadsValue == null) {
+			return 1;
+		} else {
+			return Integer.parseInt((String) threadsValue);
+		}
+	}
+	
+	public static void setGzipHeapDumps(Map properties, boolean gzip)
+	{
+		properties.put(HEAP_DUMP_GZIP_PROPERTY, gzip ? "true" : "false");
+	}
+	
+	public static boolean areHeapDumpsGzipped(Map properties)
+	{
+		Object gzipValue = properties.get(HEAP_DUMP_GZIP_PROPERTY);
+		
+		if(gzipValue == null) {
+			return false;
+		} else {
+			return gzipValue.equals("true");
+		}
+	}
 }
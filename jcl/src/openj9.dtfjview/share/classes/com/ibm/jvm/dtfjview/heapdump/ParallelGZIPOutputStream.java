@@ -0,0 +1,238 @@
+/*[INCLUDE-IF Sidecar18-SE]*/
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.jvm.dtfjview.heapdump;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * A gzip output stream that compresses blocks of its input on several threads.
+ * 
+ * The input is split into fixed size blocks which are deflated independently, each
+ * primed with the last 32KB of the block before it so that little compression is lost,
+ * and ended with a sync flush so that the compressed blocks can simply be joined.
+ * The result is a single ordinary gzip member that any gzip reader can decompress.
+ * 
+ * At most two blocks per thread are held in memory. When the compressors fall behind,
+ * writes wait for them.
+ */
+public class ParallelGZIPOutputStream extends FilterOutputStream
+{
+	private static final int BLOCK_SIZE = 128 * 1024;
+	private static final int DICTIONARY_SIZE = 32 * 1024;
+	private static final byte[] HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0 };
+
+	private final ExecutorService _pool;
+	private final int _maxPending;
+	private final ArrayDeque<Future<byte[]>> _pending = new ArrayDeque<Future<byte[]>>();
+	private final CRC32 _crc = new CRC32();
+	private long _totalIn = 0;
+	private byte[] _block = new byte[BLOCK_SIZE];
+	private int _blockLength = 0;
+	private byte[] _dictionary = null;
+	private boolean _closed = false;
+
+	/**
+	 * @param out the stream to write the compressed data to
+	 * @param threads the number of threads to compress with
+	 */
+	public ParallelGZIPOutputStream(OutputStream out, int threads) throws IOException
+	{
+		super(out);
+		threads = Math.max(1, threads);
+		_pool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "heapdump compressor");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		_maxPending = threads * 2;
+		out.write(HEADER);
+	}
+
+	public void write(int b) throws IOException
+	{
+		checkClosed();
+		_block[_blockLength++] = (byte) b;
+		if (_blockLength == BLOCK_SIZE) {
+			submitBlock(false);
+		}
+	}
+
+	public void write(byte[] b, int off, int len) throws IOException
+	{
+		checkClosed();
+		while (len > 0) {
+			int count = Math.min(len, BLOCK_SIZE - _blockLength);
+			System.arraycopy(b, off, _block, _blockLength, count);
+			_blockLength += count;
+			off += count;
+			len -= count;
+			if (_blockLength == BLOCK_SIZE) {
+				submitBlock(false);
+			}
+		}
+	}
+
+	/**
+	 * Writes out the blocks that have been compressed so far. Data in the current,
+	 * partly filled block stays buffered until the block is full or the stream is closed.
+	 */
+	public void flush() throws IOException
+	{
+		checkClosed();
+		while (!_pending.isEmpty() && _pending.peekFirst().isDone()) {
+			writeBlock(_pending.removeFirst());
+		}
+		out.flush();
+	}
+
+	/**
+	 * Writes out the remaining blocks and the gzip trailer, then closes the underlying stream.
+	 * The underlying stream is closed and the compressor threads are stopped even when
+	 * compressing or writing fails.
+	 */
+	public void close() throws IOException
+	{
+		if (_closed) {
+			return;
+		}
+		_closed = true;
+		try (OutputStream target = out) {
+			try {
+				submitBlock(true);
+				while (!_pending.isEmpty()) {
+					writeBlock(_pending.removeFirst());
+				}
+			} finally {
+				_pool.shutdownNow();
+			}
+			writeInt((int) _crc.getValue());
+			writeInt((int) _totalIn);
+		}
+	}
+
+	private void checkClosed() throws IOException
+	{
+		if (_closed) {
+			throw new IOException("Stream closed");
+		}
+	}
+
+	private void submitBlock(final boolean last) throws IOException
+	{
+		final byte[] input = _block;
+		final int length = _blockLength;
+		final byte[] dictionary = _dictionary;
+
+		_crc.update(input, 0, length);
+		_totalIn += length;
+
+		if (!last) {
+			/* blocks are only submitted early when full, so the dictionary is the end of this block */
+			_dictionary = new byte[DICTIONARY_SIZE];
+			System.arraycopy(input, length - DICTIONARY_SIZE, _dictionary, 0, DICTIONARY_SIZE);
+			_block = new byte[BLOCK_SIZE];
+			_blockLength = 0;
+		}
+
+		_pending.addLast(_pool.submit(new Callable<byte[]>() {
+			public byte[] call() {
+				return compress(input, length, dictionary, last);
+			}
+		}));
+
+		while (_pending.size() > _maxPending) {
+			writeBlock(_pending.removeFirst());
+		}
+	}
+
+	private static byte[] compress(byte[] input, int length, byte[] dictionary, boolean last)
+	{
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		try {
+			if (dictionary != null) {
+				deflater.setDictionary(dictionary);
+			}
+			deflater.setInput(input, 0, length);
+			ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2 + 64);
+			byte[] buffer = new byte[64 * 1024];
+			if (last) {
+				deflater.finish();
+				while (!deflater.finished()) {
+					int count = deflater.deflate(buffer);
+					compressed.write(buffer, 0, count);
+				}
+			} else {
+				int count;
+				do {
+					count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+					compressed.write(buffer, 0, count);
+				} while (count == buffer.length);
+			}
+			return compressed.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private void writeBlock(Future<byte[]> block) throws IOException
+	{
+		try {
+			out.write(block.get());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while compressing heapdump");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	/* gzip trailer fields are little-endian */
+	private void writeInt(int value) throws IOException
+	{
+		out.write(value & 0xff);
+		out.write((value >> 8) & 0xff);
+		out.write((value >> 16) & 0xff);
+		out.write((value >> 24) & 0xff);
+	}
+}
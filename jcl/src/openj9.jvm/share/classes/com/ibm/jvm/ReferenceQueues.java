@@ -0,0 +1,80 @@
+/*[INCLUDE-IF JAVA_SPEC_VERSION >= 8]*/
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.jvm;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * The <code>ReferenceQueues</code> class contains methods for processing
+ * the references enqueued on a {@link ReferenceQueue} in batches.
+ * This class cannot be instantiated.
+ */
+public final class ReferenceQueues {
+
+	/**
+	 * Removes at most <code>maxElements</code> references from the queue and adds
+	 * them to the collection, in the order they were enqueued. Unlike a loop over
+	 * {@link ReferenceQueue#poll()}, the queue monitor is acquired only once.
+	 * This method does not wait for references to become available.
+	 * <p>
+	 * The references are removed from the queue before they are added to the
+	 * collection, so if adding a reference fails, the remaining references are
+	 * not returned to the queue.
+	 *
+	 * @param <T> the type of the referents
+	 * @param queue the queue to drain
+	 * @param collection the collection to add the references to
+	 * @param maxElements the maximum number of references to remove
+	 * @return the number of references removed from the queue
+	 * @throws NullPointerException if queue or collection is null
+	 */
+	public static <T> int drainTo(ReferenceQueue<T> queue, Collection<? super Reference<? extends T>> collection, int maxElements) {
+		Objects.requireNonNull(queue, "queue"); //$NON-NLS-1$
+		Objects.requireNonNull(collection, "collection"); //$NON-NLS-1$
+		return com.ibm.oti.vm.VM.getReferenceQueueAccess().drainTo(queue, collection, maxElements);
+	}
+
+	/**
+	 * Removes all the references currently on the queue and adds them to the
+	 * collection, in the order they were enqueued.
+	 *
+	 * @param <T> the type of the referents
+	 * @param queue the queue to drain
+	 * @param collection the collection to add the references to
+	 * @return the number of references removed from the queue
+	 * @throws NullPointerException if queue or collection is null
+	 * @see #drainTo(ReferenceQueue, Collection, int)
+	 */
+	public static <T> int drainTo(ReferenceQueue<T> queue, Collection<? super Reference<? extends T>> collection) {
+		return drainTo(queue, collection, Integer.MAX_VALUE);
+	}
+
+	/*
+	 * ReferenceQueues should not be instantiated.
+	 */
+	private ReferenceQueues() {
+	}
+}
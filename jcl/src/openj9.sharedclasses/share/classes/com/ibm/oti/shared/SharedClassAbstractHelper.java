@@ -45,7 +45,7 @@ public abstract class SharedClassAbstractHelper extends SharedAbstractHelper imp
 	private static final int URI_EXCEPTION = 1;
 	private static final int FILE_EXIST = 2;
 	private static final int FILE_NOT_EXIST = 3;
-	private SharedClassFilter sharedClassFilter; 
+	private volatile SharedClassFilter sharedClassFilter;
 
 	static byte[] nativeFlags = new byte[1];
 	static final int CACHE_FULL_FLAG = 0;
@@ -234,7 +234,7 @@ public abstract class SharedClassAbstractHelper extends SharedAbstractHelper imp
 	 * @return The filter instance, or null if none is associated
 	 */
 	@Override
-	public synchronized SharedClassFilter getSharingFilter() {
+	public SharedClassFilter getSharingFilter() {
 		return this.sharedClassFilter;
 	}
 }
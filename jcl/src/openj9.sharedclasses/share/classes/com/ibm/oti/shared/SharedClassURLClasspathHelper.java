@@ -187,7 +187,43 @@ public interface SharedClassURLClasspathHelper extends SharedClassHelper {
 	 * 					A byte array describing the class found, or null.
 	 */
 	public byte[] findSharedClass(String partition, String className, IndexHolder indexFoundAt);
-	
+
+	/**
+	 * <p>Finds a batch of classes in the shared cache by using the class names and partition given (implicitly using the caller's classpath).</p>
+	 * <p>The result is the same as calling {@link #findSharedClass(String, String, IndexHolder)} for each class name in turn,
+	 * but the caller's classpath is resolved only once for the whole batch.</p>
+	 *
+	 * @param 		partition String.
+	 * 					User-defined partition if finding modified bytecode (see <q>Partitions</q>).
+	 * 					Passing null is equivalent of calling non-partition findSharedClasses call.
+	 *
+	 * @param 		classNames String[].
+	 * 					The names of the classes to be found. Null elements are never found.
+	 *
+	 * @param 		indexesFoundAt int[].
+	 * 					Receives, for each class name, the index in the caller ClassLoader's classpath at which the class was found,
+	 * 					or -1 if the class was not found. Must be at least as long as classNames.
+	 * 					This parameter can be null if this data is not needed.
+	 *
+	 * @return		byte[][].
+	 * 					For each class name, a byte array describing the class found, or null.
+	 */
+	public default byte[][] findSharedClasses(String partition, String[] classNames, int[] indexesFoundAt) {
+		byte[][] romClassCookies = new byte[classNames.length][];
+		int[] indexFoundAt = new int[1];
+		IndexHolder holder = index -> indexFoundAt[0] = index;
+		for (int i = 0; i < classNames.length; i++) {
+			indexFoundAt[0] = -1;
+			if (classNames[i] != null) {
+				romClassCookies[i] = findSharedClass(partition, classNames[i], holder);
+			}
+			if (indexesFoundAt != null) {
+				indexesFoundAt[i] = (romClassCookies[i] != null) ? indexFoundAt[0] : -1;
+			}
+		}
+		return romClassCookies;
+	}
+
 	/**
 	 * <p>Stores a class in the shared cache by using the caller's URL classpath.</p>
 	 * <p>The class being stored must have been defined by the caller ClassLoader and must exist in the URL location specified.</p>
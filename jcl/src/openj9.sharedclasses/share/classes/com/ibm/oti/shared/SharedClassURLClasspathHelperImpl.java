@@ -2,7 +2,7 @@
 package com.ibm.oti.shared;
 
 /*******************************************************************************
- * Copyright (c) 1998, 2020 IBM Corp. and others
+ * Copyright (c) 1998, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -24,7 +24,8 @@ package com.ibm.oti.shared;
  *******************************************************************************/
 
 import java.net.URL;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
 
 import com.ibm.oti.util.Msg;
 
@@ -37,47 +38,78 @@ import com.ibm.oti.util.Msg;
  */
 final class SharedClassURLClasspathHelperImpl extends SharedClassAbstractHelper implements
 		SharedClassURLClasspathHelper {
-	private URL[] urls, origurls;
+	/* Replaced, never modified, whenever the classpath or the number of confirmed entries changes */
+	private volatile ClasspathState classpathState;
 	private boolean[] validated;
-	private int urlCount, confirmedCount;
-	private boolean invalidURLExists;
-	private ReentrantReadWriteLock urlcpReadWriteLock;
-	
+	/* The natives cache classpath entries for the classloader and notifyClasspathChange2() frees them,
+	 * so calls to the natives hold a read stamp and classpath changes hold the write stamp.
+	 */
+	private final StampedLock urlcpLock;
+
+	/* ROMClass cookies are copied out of this buffer only when a class is found */
+	private static final ThreadLocal<byte[]> romClassCookieBuffer = new ThreadLocal<>();
+
 	private static native void init();
 	
 	static {
 		init();
 	}
 
+	/**
+	 * An immutable snapshot of the classpath.
+	 */
+	private static final class ClasspathState {
+		final URL[] origurls;
+		final URL[] urls;
+		final int confirmedCount;
+		final boolean invalidURLExists;
+
+		ClasspathState(URL[] origurls, URL[] urls, int confirmedCount, boolean invalidURLExists) {
+			this.origurls = origurls;
+			this.urls = urls;
+			this.confirmedCount = confirmedCount;
+			this.invalidURLExists = invalidURLExists;
+		}
+
+		ClasspathState withConfirmedCount(int newConfirmedCount) {
+			return new ClasspathState(origurls, urls, newConfirmedCount, invalidURLExists);
+		}
+	}
+
 	/* Not public - should only be created by factory */
 	SharedClassURLClasspathHelperImpl(ClassLoader loader, URL[] classpath, int id, boolean canFind, boolean canStore) {
-		this.origurls = classpath;
-		this.urls = new URL[classpath.length];
-		this.urlCount = classpath.length;
 		this.validated = new boolean[classpath.length];
-		this.confirmedCount = 0;
-		this.invalidURLExists = false;
-		urlcpReadWriteLock = new ReentrantReadWriteLock();
+		urlcpLock = new StampedLock();
 		initialize(loader, id, canFind, canStore);
 		initializeShareableClassloader(loader);
-		initializeURLs();
-		if (!invalidURLExists) {
-			notifyClasspathChange3(id, loader, this.urls, 0, this.urlCount, true);
+		ClasspathState state = initializeURLs(classpath.clone());
+		classpathState = state;
+		if (!state.invalidURLExists) {
+			notifyClasspathChange3(id, loader, state.urls, 0, state.urls.length, true);
 		}
 	}
 
-	private void initializeURLs() {
-		for (int i=0; i<urlCount; i++) {
+	private ClasspathState initializeURLs(URL[] origurls) {
+		URL[] urls = new URL[origurls.length];
+		boolean invalidURLExists = false;
+		for (int i=0; i<urls.length; i++) {
 			urls[i] = convertJarURL(origurls[i]);
 			if (!validateURL(urls[i], false)) {
 				invalidURLExists = true;
 			}
 		}
+		return new ClasspathState(origurls, urls, 0, invalidURLExists);
 	}
 
 	private native int findSharedClassImpl2(int loaderId, String partition, String className, ClassLoader loader, URL[] loaderURLs, 
 			boolean doFind, boolean doStore, int loaderURLCount, int confirmedURLCount, byte[] romClassCookie);
 
+	/* doFind and doStore may be null, meaning true for every class name. Sets romClassCookies[i] and indexesFoundAt[i]
+	 * for each class found and returns the number of classes found.
+	 */
+	private native int findSharedClassesImpl2(int loaderId, String partition, String[] classNames, ClassLoader loader, URL[] loaderURLs,
+			boolean[] doFind, boolean[] doStore, int loaderURLCount, int confirmedURLCount, byte[][] romClassCookies, int[] indexesFoundAt);
+
 	private native boolean storeSharedClassImpl2(int loaderid, String partition, ClassLoader loader, URL[] loaderURLs, int loaderURLCount, int cpLoadIndex, Class<?> clazz, byte[] flags);
 
 	/* Before setClasspath(), classpath changes were detected by change in urlCount. However, this is now
@@ -90,6 +122,36 @@ final class SharedClassURLClasspathHelperImpl extends SharedClassAbstractHelper
 	/* Notify the open state to all the jar/zip files on the URL classpath to force a timestamp check once */
 	private native void notifyClasspathChange3(int loaderId, ClassLoader classloader, URL[] loaderURLs, int urlIndex, int loaderURLCount, boolean isOpen);
 
+	private boolean isFindable(ClasspathState state) {
+		if (state.invalidURLExists) {
+			/* Any URL which has its protocol other than 'jar:' or 'file:' is not supported by
+			 * shared class cache and is considered invalid.
+			 * invalidURLExists = true indicates classpath contains an invalid URL,
+			 * As such there is no point in calling native method findSharedClassImpl2() 
+			 * since it is bound to fail when creating classpath entries.
+			 */
+			/*[MSG "K05a4", "Classpath contains an invalid URL. Returning null."]*/
+			printVerboseInfo(Msg.getString("K05a4")); //$NON-NLS-1$
+			return false;
+		}
+		/* Important not to call findSharedClassImpl if confirmedCount==0 as 0 means "confirmedCount not set" */
+		if (state.confirmedCount==0) {
+			/*[MSG "K05a5", "There are no confirmed elements in the classpath. Returning null."]*/
+			printVerboseInfo(Msg.getString("K05a5")); //$NON-NLS-1$
+			return false;
+		}
+		return true;
+	}
+
+	private byte[] getROMClassCookieBuffer() {
+		byte[] buffer = romClassCookieBuffer.get();
+		if ((buffer == null) || (buffer.length != ROMCLASS_COOKIE_SIZE)) {
+			buffer = new byte[ROMCLASS_COOKIE_SIZE];
+			romClassCookieBuffer.set(buffer);
+		}
+		return buffer;
+	}
+
 	@Override
 	public byte[] findSharedClass(String className, IndexHolder indexFoundAtHolder) {
 		return findSharedClass(null, className, indexFoundAtHolder);
@@ -127,31 +189,22 @@ final class SharedClassURLClasspathHelperImpl extends SharedClassAbstractHelper
 			doFind = true;
 			doStore = true;
 		}
-		byte[] romClassCookie = new byte[ROMCLASS_COOKIE_SIZE];
+		if (!isFindable(classpathState)) {
+			return null;
+		}
+		byte[] romClassCookie = getROMClassCookieBuffer();
 		int indexFoundAt = -1;
-		urlcpReadWriteLock.readLock().lock();
+		long stamp = urlcpLock.readLock();
 		try {
-			if (invalidURLExists) {
-				/* Any URL which has its protocol other than 'jar:' or 'file:' is not supported by
-				 * shared class cache and is considered invalid.
-				 * invalidURLExists = true indicates classpath contains an invalid URL,
-				 * As such there is no point in calling native method findSharedClassImpl2() 
-				 * since it is bound to fail when creating classpath entries.
-				 */
-				/*[MSG "K05a4", "Classpath contains an invalid URL. Returning null."]*/
-				printVerboseInfo(Msg.getString("K05a4")); //$NON-NLS-1$
-				return null;
-			}
-			/* Important not to call findSharedClassImpl if confirmedCount==0 as 0 means "confirmedCount not set" */
-			if (confirmedCount==0) {
-				/*[MSG "K05a5", "There are no confirmed elements in the classpath. Returning null."]*/
-				printVerboseInfo(Msg.getString("K05a5")); //$NON-NLS-1$
+			/* Re-read the classpath, it may have changed before the stamp was taken */
+			ClasspathState state = classpathState;
+			if (!isFindable(state)) {
 				return null;
 			}
-			indexFoundAt = findSharedClassImpl2(this.id, partition, className, loader, this.urls, doFind, doStore, this.urlCount, this.confirmedCount, romClassCookie);
+			indexFoundAt = findSharedClassImpl2(this.id, partition, className, loader, state.urls, doFind, doStore, state.urls.length, state.confirmedCount, romClassCookie);
 			/* indexFoundAt will be -1 if class is not found */
 		} finally {
-			urlcpReadWriteLock.readLock().unlock();
+			urlcpLock.unlockRead(stamp);
 		}
 		if (indexFoundAt < 0) {
 			return null;
@@ -159,7 +212,54 @@ final class SharedClassURLClasspathHelperImpl extends SharedClassAbstractHelper
 		if (indexFoundAtHolder!=null) {
 			indexFoundAtHolder.setIndex(indexFoundAt);
 		}
-		return romClassCookie;
+		return romClassCookie.clone();
+	}
+
+	@Override
+	public byte[][] findSharedClasses(String partition, String[] classNames, int[] indexesFoundAt) {
+		int classCount = classNames.length;
+		byte[][] romClassCookies = new byte[classCount][];
+		int[] indexes = (indexesFoundAt != null) ? indexesFoundAt : new int[classCount];
+		Arrays.fill(indexes, 0, classCount, -1);
+		ClassLoader loader = getClassLoader();
+		if (loader == null) {
+			printVerboseInfo(Msg.getString("K059f")); //$NON-NLS-1$
+			return romClassCookies;
+		}
+		if (!canFind || (classCount == 0)) {
+			return romClassCookies;
+		}
+		SharedClassFilter theFilter = getSharingFilter();
+		boolean[] doFind = null;
+		boolean[] doStore = null;
+		if (theFilter!=null) {
+			doFind = new boolean[classCount];
+			doStore = new boolean[classCount];
+			synchronized(this) {
+				/* Don't invoke the store filter if the cache is full */
+				boolean cacheFull = (nativeFlags[CACHE_FULL_FLAG] != 0);
+				for (int i = 0; i < classCount; i++) {
+					String className = classNames[i];
+					if (className != null) {
+						doFind[i] = theFilter.acceptFind(className);
+						doStore[i] = cacheFull || theFilter.acceptStore(className);
+					}
+				}
+			}
+		}
+		if (!isFindable(classpathState)) {
+			return romClassCookies;
+		}
+		long stamp = urlcpLock.readLock();
+		try {
+			ClasspathState state = classpathState;
+			if (isFindable(state)) {
+				findSharedClassesImpl2(this.id, partition, classNames, loader, state.urls, doFind, doStore, state.urls.length, state.confirmedCount, romClassCookies, indexes);
+			}
+		} finally {
+			urlcpLock.unlockRead(stamp);
+		}
+		return romClassCookies;
 	}
 	
 	@Override
@@ -190,8 +290,10 @@ final class SharedClassURLClasspathHelperImpl extends SharedClassAbstractHelper
 		}
 		boolean storeRet = false;
 		boolean incConfirmedCount = false;
-		urlcpReadWriteLock.readLock().lock();
+		long stamp = urlcpLock.readLock();
 		try {
+			ClasspathState state = classpathState;
+			int urlCount = state.urls.length;
 			if (urlCount==0) {
 				/*[MSG "K05a6", "Classpath has zero elements. Cannot call storeSharedClass without classpath. Returning false."]*/
 				printVerboseError(Msg.getString("K05a6")); //$NON-NLS-1$
@@ -202,7 +304,7 @@ final class SharedClassURLClasspathHelperImpl extends SharedClassAbstractHelper
 				printVerboseError(Msg.getString("K05a8")); //$NON-NLS-1$
 				return false;
 			}
-			if (invalidURLExists) {
+			if (state.invalidURLExists) {
 				/* Any URL which has its protocol other than 'jar:' or 'file:' is not supported by
 				 * shared class cache and is considered invalid.
 				 * invalidURLExists = true indicates classpath contains an invalid URL,
@@ -215,17 +317,17 @@ final class SharedClassURLClasspathHelperImpl extends SharedClassAbstractHelper
 			}
 			if (!validated[foundAtIndex]) {
 				/* Because we only check each element once, we can afford to also check whether the URL exists */
-				if (!validateURL(urls[foundAtIndex], true)) {
+				if (!validateURL(state.urls[foundAtIndex], true)) {
 					return false;
 				}
 				validated[foundAtIndex]=true;
 			}
-			if (confirmedCount <= foundAtIndex) {
+			if (state.confirmedCount <= foundAtIndex) {
 				incConfirmedCount = true;
 			}
-			storeRet = storeSharedClassImpl2(this.id, partition, actualLoader, this.urls, this.urlCount, foundAtIndex, clazz, nativeFlags);
+			storeRet = storeSharedClassImpl2(this.id, partition, actualLoader, state.urls, urlCount, foundAtIndex, clazz, nativeFlags);
 		} finally {
-			urlcpReadWriteLock.readLock().unlock();
+			urlcpLock.unlockRead(stamp);
 		}
 		if (incConfirmedCount) {
 			increaseConfirmedCount(foundAtIndex + 1);
@@ -233,22 +335,15 @@ final class SharedClassURLClasspathHelperImpl extends SharedClassAbstractHelper
 		return storeRet;
 	}
 
-	private void growURLs(int toMinSize) {
-		if (!urlcpReadWriteLock.writeLock().isHeldByCurrentThread()) {
-			throw new InternalError();
+	/* Must be called while holding the write stamp */
+	private void growValidated(int toMinSize) {
+		if (validated.length >= toMinSize) {
+			return;
 		}
 		/*[MSG "K05ab", "Growing URL array to {0}"]*/
 		printVerboseInfo(Msg.getString("K05ab", toMinSize)); //$NON-NLS-1$
 		int newSize = ((toMinSize+1)*2);		/* toMinSize could be zero! */
-		URL[] newOrigUrls = new URL[newSize];
-		URL[] newUrls = new URL[newSize];
-		boolean[] newValidated = new boolean[newSize];
-		System.arraycopy(origurls, 0, newOrigUrls, 0, urlCount);
-		System.arraycopy(urls, 0, newUrls, 0, urlCount);
-		System.arraycopy(validated, 0, newValidated, 0, urlCount);
-		origurls = newOrigUrls;
-		urls = newUrls;
-		validated = newValidated;
+		validated = Arrays.copyOf(validated, newSize);
 	}
 
 	@Override
@@ -265,58 +360,53 @@ final class SharedClassURLClasspathHelperImpl extends SharedClassAbstractHelper
 			if (!validateURL(convertedurl, false)) {
 				invalidUrl = true;
 			}
-			urlcpReadWriteLock.writeLock().lock();
+			long stamp = urlcpLock.writeLock();
 			try {
-				/* If array is not big enough, grow it */
-				if (urls.length < (urlCount+1)) {
-					growURLs(urlCount+1);
-				}
-				origurls[urlCount] = cpe;
-				urls[urlCount] = convertedurl;
-				invalidURLExists = invalidUrl;
+				ClasspathState state = classpathState;
+				int urlCount = state.urls.length;
+				URL[] newOrigurls = Arrays.copyOf(state.origurls, urlCount + 1);
+				URL[] newUrls = Arrays.copyOf(state.urls, urlCount + 1);
+				growValidated(urlCount + 1);
+				newOrigurls[urlCount] = cpe;
+				newUrls[urlCount] = convertedurl;
+				classpathState = new ClasspathState(newOrigurls, newUrls, state.confirmedCount, invalidUrl);
 				notifyClasspathChange2(loader);
-				if (!invalidURLExists) {
-					notifyClasspathChange3(id, loader, urls, urlCount, (urlCount + 1), true);
+				if (!invalidUrl) {
+					notifyClasspathChange3(id, loader, newUrls, urlCount, (urlCount + 1), true);
 				}
-				++urlCount;
 			} finally {
-				urlcpReadWriteLock.writeLock().unlock();
+				urlcpLock.unlockWrite(stamp);
 			}
 		}
 	}
 
 	/* Function required by the factory */
 	URL[] getClasspath() {
-		URL[] correctLengthArray = new URL[urlCount];
-		urlcpReadWriteLock.readLock().lock();
-		try {
-			System.arraycopy(origurls, 0, correctLengthArray, 0, urlCount);
-		} finally {
-			urlcpReadWriteLock.readLock().unlock();
-		}
-		return correctLengthArray;
+		return classpathState.origurls.clone();
 	}
 	
 	private void increaseConfirmedCount(int newCount) {
-		urlcpReadWriteLock.writeLock().lock();
+		long stamp = urlcpLock.writeLock();
 		try {
-			if (newCount > confirmedCount) {
-				confirmedCount = newCount;
+			ClasspathState state = classpathState;
+			if (newCount > state.confirmedCount) {
+				classpathState = state.withConfirmedCount(newCount);
 				/*[MSG "K05aa", "Number of confirmed entries is now {0}"]*/
-				printVerboseInfo(Msg.getString("K05aa", confirmedCount)); //$NON-NLS-1$
+				printVerboseInfo(Msg.getString("K05aa", newCount)); //$NON-NLS-1$
 			}
 		} finally {
-			urlcpReadWriteLock.writeLock().unlock();
+			urlcpLock.unlockWrite(stamp);
 		}
 	}
 
 	@Override
 	public void confirmAllEntries() {
-		urlcpReadWriteLock.writeLock().lock();
+		long stamp = urlcpLock.writeLock();
 		try {
-			confirmedCount = urlCount;
+			ClasspathState state = classpathState;
+			classpathState = state.withConfirmedCount(state.urls.length);
 		} finally {
-			urlcpReadWriteLock.writeLock().unlock();
+			urlcpLock.unlockWrite(stamp);
 		}
 	}
 
@@ -331,8 +421,12 @@ final class SharedClassURLClasspathHelperImpl extends SharedClassAbstractHelper
 			throw new CannotSetClasspathException(Msg.getString("K059a")); //$NON-NLS-1$
 		}
 		
-		urlcpReadWriteLock.writeLock().lock();
+		long stamp = urlcpLock.writeLock();
 		try {
+			ClasspathState state = classpathState;
+			URL[] origurls = state.origurls;
+			URL[] urls = state.urls;
+			int confirmedCount = state.confirmedCount;
 			int commonURLsLength = (origurls.length < newClasspath.length) ? origurls.length : newClasspath.length;
 			if (newClasspath.length < confirmedCount) {
 				/*[MSG "K05ad", "New classpath cannot be shorter than confirmed elements of original"]*/
@@ -345,10 +439,10 @@ final class SharedClassURLClasspathHelperImpl extends SharedClassAbstractHelper
 				}
 			}
 			
-			/* Grow urls if necessary */
-			if (newClasspath.length > origurls.length) {
-				growURLs(newClasspath.length);
-			}
+			/* The published arrays are never modified, build the new classpath in copies */
+			URL[] newOrigurls = newClasspath.clone();
+			URL[] newUrls = Arrays.copyOf(urls, newClasspath.length);
+			growValidated(newClasspath.length);
 			
 			/* Having ensured that confirmed URLs are the same, validate the others if required, and copy them if they have been modified */
 			for (int i = confirmedCount; i < commonURLsLength; i++) {
@@ -357,7 +451,7 @@ final class SharedClassURLClasspathHelperImpl extends SharedClassAbstractHelper
 				/* If the original classpath had any invalid URL then unconfirmed URLs in original classpath 
 				 * should be validated again in case invalid URL has been corrected now.
 				 */
-				if (invalidURLExists || urlUpdated) {
+				if (state.invalidURLExists || urlUpdated) {
 					URL temp = null;
 					if (urlUpdated) {
 						temp = convertJarURL(newClasspath[i]);
@@ -371,25 +465,19 @@ final class SharedClassURLClasspathHelperImpl extends SharedClassAbstractHelper
 						printVerboseInfo(Msg.getString("K05af", newClasspath[i], Integer.valueOf(i))); //$NON-NLS-1$
 					}
 					if (urlUpdated) {
-						origurls[i] = newClasspath[i];
-						urls[i] = temp;
+						newUrls[i] = temp;
 						changeMade = true;
 					}
 				}
 				/* validated[i] will already be false as it would be confirmed otherwise, so no need to set */
 			}
-			if (invalidURLFound) {
-				invalidURLExists = true;
-			} else {
-				invalidURLExists = false;
-			}
+			boolean invalidURLExists = invalidURLFound;
 	
 			for (int i = commonURLsLength; i < newClasspath.length; i++) {
-				origurls[i] = newClasspath[i];
-				urls[i] = convertJarURL(newClasspath[i]);
+				newUrls[i] = convertJarURL(newClasspath[i]);
 				
 				/* if 'invalidURLExists' is already set to true, no need to validate any more URLs */
-				if (!invalidURLExists && !validateURL(urls[i], false)) {
+				if (!invalidURLExists && !validateURL(newUrls[i], false)) {
 					/*[MSG "K05b0", "setClasspath() added new invalid URL {0} at index {1}"]*/
 					printVerboseInfo(Msg.getString("K05b0", newClasspath[i], Integer.valueOf(i))); //$NON-NLS-1$
 					
@@ -398,11 +486,10 @@ final class SharedClassURLClasspathHelperImpl extends SharedClassAbstractHelper
 				changeMade = true;
 			}
 			
-			/* If new classpath is shorter, remaining entries will be ignored as they are > urlCount */
-			if (urlCount != newClasspath.length) {
-				urlCount = newClasspath.length;
+			if (urls.length != newClasspath.length) {
 				changeMade = true;
 			}
+			classpathState = new ClasspathState(newOrigurls, newUrls, confirmedCount, invalidURLExists);
 			if (!invalidURLExists) {
 				/*[MSG "K05b1", "setClasspath() updated classpath. No invalid URLs found"]*/
 				printVerboseInfo(Msg.getString("K05b1")); //$NON-NLS-1$
@@ -411,14 +498,14 @@ final class SharedClassURLClasspathHelperImpl extends SharedClassAbstractHelper
 			 * will be cleared unnecessarily */
 			if (changeMade) {
 				/*[MSG "K05b2", "setClasspath() updated classpath. Now urlCount={0}"]*/
-				printVerboseInfo(Msg.getString("K05b2", urlCount)); //$NON-NLS-1$
+				printVerboseInfo(Msg.getString("K05b2", newUrls.length)); //$NON-NLS-1$
 				notifyClasspathChange2(loader);
 				if (!invalidURLExists) {
-					notifyClasspathChange3(id, loader, urls, 0, urlCount, true);
+					notifyClasspathChange3(id, loader, newUrls, 0, newUrls.length, true);
 				}
 			}
 		} finally {
-			urlcpReadWriteLock.writeLock().unlock();
+			urlcpLock.unlockWrite(stamp);
 		}
 	}
 
@@ -107,6 +107,9 @@ public class TraceContext {
 	/* The subset of threads we're interested in */
 	Set filteredThreads;
 
+	/* Indexes of the files added with addIndexedData, threads refer to their records by position in this list */
+	List indexes = new ArrayList();
+
 	/* The time zone offset (in +/- minutes) to be added when formatting the time stamps */
 	int timezoneOffset = 0;
 
@@ -191,7 +194,7 @@ public class TraceContext {
 	 * @param source - the object generating the message
 	 * @param message - the message to report
 	 */
-	public void warning(Object source, Object message) {
+	public synchronized void warning(Object source, Object message) {
 		warningCount++;
 
 		if (warningStream != null) {
@@ -204,7 +207,7 @@ public class TraceContext {
 	 * @param source - the object generating the message
 	 * @param message - the message to report
 	 */
-	public void error(Object source, Object message) {
+	public synchronized void error(Object source, Object message) {
 		errorCount++;
 
 		if (errorStream != null) {
@@ -601,6 +604,23 @@ public class TraceContext {
 	 * @throws IllegalArgumentException
 	 */
 	private synchronized TraceThread addData(TraceRecord record) {
+		TraceThread thread = registerRecord(record);
+
+		/* if there's a filter set and this thread isn't part of it, discard the data */
+		if (filteredThreads == null || filteredThreads.contains(Long.valueOf(record.threadID))) {
+			thread.addRecord(record);
+		}
+
+		return thread;
+	}
+
+	/**
+	 * This method finds or creates the TraceThread object for a trace record and updates the
+	 * context with the information in the record's header. It does not add the record to the thread.
+	 * @param record - a trace record
+	 * @return - TraceThread object that corresponds to the input record
+	 */
+	private TraceThread registerRecord(TraceRecord record) {
 		TraceThread thread;
 		
 		/* which thread does it belong to? */
@@ -674,11 +694,6 @@ public class TraceContext {
 			}
 		}
 
-		/* if there's a filter set and this thread isn't part of it, discard the data */
-		if (filteredThreads == null || filteredThreads.contains(Long.valueOf(record.threadID))) {
-			thread.addRecord(record);
-		}
-
 		return thread;
 	}
 
@@ -702,6 +717,57 @@ public class TraceContext {
 		return addData(new TraceRecord(this, data));
 	}
 
+	/**
+	 * This method adds all of the trace buffers in a binary trace file to the context without reading
+	 * the buffers into memory. The file is indexed, recording the offset, thread and time range of
+	 * each buffer, and memory mapped. Each thread then decodes its buffers from the mapping one at a
+	 * time as trace points are read, so the memory needed does not grow with the size of the buffers.
+	 * 
+	 * Buffers from the file are returned after any buffers already added to the same thread with the
+	 * other addData methods. The file must stay open while trace points are being read.
+	 * 
+	 * @param file - a binary trace file generated by the JVM corresponding to the context
+	 * @return - the index of the file
+	 * @throws IOException
+	 */
+	public synchronized TraceFileIndex addIndexedData(RandomAccessFile file) throws IOException {
+		TraceFileIndex index = new TraceFileIndex(file, getRecordSize());
+		int indexNumber = indexes.size();
+		indexes.add(index);
+
+		long length = index.length();
+		for (long offset = getHeaderSize(); offset < length; offset += getRecordSize()) {
+			TraceRecord record;
+			try {
+				record = index.readRecord(this, offset);
+			} catch (IllegalArgumentException e) {
+				error(this, "Bad block of trace data in input file at offset "+offset+": "+e.getMessage());
+				continue;
+			}
+
+			int entry = index.size();
+			index.add(offset, record);
+
+			TraceThread thread = registerRecord(record);
+
+			/* if there's a filter set and this thread isn't part of it, discard the data */
+			if (filteredThreads == null || filteredThreads.contains(Long.valueOf(record.threadID))) {
+				thread.addIndexedRecord(indexNumber, entry);
+			}
+		}
+
+		return index;
+	}
+
+	/**
+	 * Returns the trace record for an entry in one of the indexes added with addIndexedData
+	 * @param indexNumber - the position of the index in the order the files were added
+	 * @param entry - the entry in the index
+	 */
+	TraceRecord getIndexedRecord(int indexNumber, int entry) throws IOException, IllegalArgumentException {
+		return ((TraceFileIndex)indexes.get(indexNumber)).getRecord(this, entry);
+	}
+
 	/**
 	 * This method tells the formatter that there was data discarded at this point in
 	 * the stream of records. This has the affect of discarding any trace point fragments
@@ -878,19 +944,22 @@ public class TraceContext {
 			} else if (threads.size() > 1 && ((TraceThread)threads.get(0)).compareTo(threads.get(1)) > 0) {
 				TraceThread bubble = (TraceThread)threads.get(0);
 				threads.remove(0);
-				Iterator itr = threads.iterator();
 
-				for (int i = 0; itr.hasNext(); i++) {
-					if (bubble.compareTo(itr.next()) <= 0) {
-						threads.add(i, bubble);
-						bubble = null;
-						break;
+				/* The rest of the list is still sorted, so binary search for the first thread that
+				 * isn't older than the bubble and insert the bubble in front of it. This keeps the
+				 * cost of the merge logarithmic in the number of threads.
+				 */
+				int low = 0;
+				int high = threads.size();
+				while (low < high) {
+					int mid = (low + high) >>> 1;
+					if (bubble.compareTo(threads.get(mid)) <= 0) {
+						high = mid;
+					} else {
+						low = mid + 1;
 					}
 				}
-
-				if (bubble != null) {
-					threads.add(bubble);
-				}
+				threads.add(low, bubble);
 
 				sorted = true;
 			}
@@ -0,0 +1,165 @@
+/*[INCLUDE-IF Sidecar18-SE]*/
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.jvm.trace.format.api;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An index of the trace buffers in a binary trace file, with the file memory mapped
+ * so that buffers can be decoded as they are needed rather than held in memory.
+ * 
+ * For each buffer in the file the index holds its offset, the thread that wrote it and
+ * the time range it covers. The buffers themselves stay in the file until a thread runs
+ * out of trace points and asks for its next buffer.
+ * 
+ * @see com.ibm.jvm.trace.format.api.TraceContext#addIndexedData(RandomAccessFile)
+ */
+public class TraceFileIndex {
+	/* The file is mapped in windows of this size. Successive windows overlap by a record so
+	 * that any record starting in a window also ends in it.
+	 */
+	private static final long WINDOW_SIZE = 64 * 1024 * 1024;
+	/* Buffers from different threads are interleaved in the file, so keep a few windows mapped */
+	private static final int MAX_WINDOWS = 4;
+
+	private final FileChannel channel;
+	private final long length;
+	private final int recordSize;
+
+	private int size = 0;
+	private long offsets[] = new long[64];
+	private long threadIDs[] = new long[64];
+	private long wrapTimes[] = new long[64];
+	private long writeTimes[] = new long[64];
+
+	private final Map windows = new LinkedHashMap(MAX_WINDOWS, 0.75f, true) {
+		protected boolean removeEldestEntry(Map.Entry eldest) {
+			return size() > MAX_WINDOWS;
+		}
+	};
+
+	TraceFileIndex(RandomAccessFile file, int recordSize) throws IOException {
+		this.channel = file.getChannel();
+		this.length = channel.size();
+		this.recordSize = recordSize;
+	}
+
+	/**
+	 * Adds an entry for a buffer to the index
+	 */
+	void add(long offset, TraceRecord record) {
+		if (size == offsets.length) {
+			int capacity = size * 2;
+			offsets = Arrays.copyOf(offsets, capacity);
+			threadIDs = Arrays.copyOf(threadIDs, capacity);
+			wrapTimes = Arrays.copyOf(wrapTimes, capacity);
+			writeTimes = Arrays.copyOf(writeTimes, capacity);
+		}
+
+		offsets[size] = offset;
+		threadIDs[size] = record.threadID;
+		wrapTimes[size] = record.wrapTime.longValue();
+		writeTimes[size] = record.writePlatform.longValue();
+		size++;
+	}
+
+	/**
+	 * Returns a record backed by the mapped file for the buffer at the given offset. Only the
+	 * header is read from the mapping at this point.
+	 * 
+	 * @throws IllegalArgumentException if the buffer header is not valid
+	 */
+	synchronized TraceRecord readRecord(TraceContext context, long offset) throws IOException, IllegalArgumentException {
+		Long window = Long.valueOf(offset / WINDOW_SIZE);
+		MappedByteBuffer mapping = (MappedByteBuffer)windows.get(window);
+
+		long windowStart = window.longValue() * WINDOW_SIZE;
+		if (mapping == null) {
+			long windowLength = Math.min(WINDOW_SIZE + recordSize, length - windowStart);
+			mapping = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowLength);
+			windows.put(window, mapping);
+		}
+
+		ByteBuffer slice = mapping.duplicate();
+		slice.position((int)(offset - windowStart));
+		slice.limit((int)Math.min(offset - windowStart + recordSize, slice.capacity()));
+
+		return new TraceRecord(context, slice.slice(), offset);
+	}
+
+	/**
+	 * Returns the trace record for an entry in the index
+	 */
+	TraceRecord getRecord(TraceContext context, int entry) throws IOException, IllegalArgumentException {
+		return readRecord(context, offsets[entry]);
+	}
+
+	/**
+	 * The number of buffers in the index
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * The offset in the file of a buffer
+	 */
+	public long getOffset(int entry) {
+		return offsets[entry];
+	}
+
+	/**
+	 * The id of the thread that wrote a buffer
+	 */
+	public long getThreadID(int entry) {
+		return threadIDs[entry];
+	}
+
+	/**
+	 * The high precision time at which a buffer last wrapped, the start of the time range it covers
+	 */
+	public long getWrapTime(int entry) {
+		return wrapTimes[entry];
+	}
+
+	/**
+	 * The high precision time at which a buffer was written to the file, the end of the time range it covers
+	 */
+	public long getWriteTime(int entry) {
+		return writeTimes[entry];
+	}
+
+	/**
+	 * The length of the indexed file
+	 */
+	public long length() {
+		return length;
+	}
+}
@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2009, 2019 IBM Corp. and others
+ * Copyright (c) 2009, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -25,6 +25,7 @@ package com.ibm.jvm.trace.format.api;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.List;
 import java.util.Vector;
@@ -73,6 +74,9 @@ public class TraceRecord implements Comparable<TraceRecord> {
 	RandomAccessFile file;
 	long offset;
 	
+	/* This field is only used if this is a trace record in a memory mapped file */
+	private ByteBuffer mapped;
+	
 	/* a record of the offsets that we've preprocessed to aid in debugging */
 	List<Integer> debugOffsets = null;
 
@@ -129,6 +133,42 @@ public class TraceRecord implements Comparable<TraceRecord> {
 		}
 	}
 	
+	/**
+	 * This will create a TraceRecord backed by a memory mapped file. Only the header is read, the
+	 * body is copied out of the mapping when the record is appended to a stream.
+	 * 
+	 * @param context
+	 * @param mapped - the record, from its first byte up to at most the end of the record
+	 * @param offset - the offset of the record in the file
+	 * @throws IllegalArgumentException
+	 */
+	TraceRecord(TraceContext context, ByteBuffer mapped, long offset) throws IllegalArgumentException {
+		this.context = context;
+		this.mapped = mapped;
+		this.offset = offset;
+
+		int required = TRACERECORD_HEADER_SIZE + GUESSED_MAX_THREAD_NAME;
+
+		if (context.debugLevel > 0) {
+			debugOffsets = new Vector<Integer>();
+		}
+		
+		while (required != 0) {
+			byte data[] = new byte[required];
+
+			if (mapped.remaining() < data.length) {
+				throw new IllegalArgumentException();
+			}
+			mapped.duplicate().get(data);
+
+			required = parseHeader(data);
+		}
+
+		if (context.debugStream != null) {
+			context.debug(this, 3, summary());
+		}
+	}
+	
 	private int parseHeader(byte[] data) throws IllegalArgumentException {
 		ByteStream stream = context.createByteStream(data);
 
@@ -183,6 +223,26 @@ public class TraceRecord implements Comparable<TraceRecord> {
 	 * @return - the number of bytes loaded for the record
 	 */
 	private int load() {
+		/* if we've got a mapping then copy the data out of it */
+		if (mapped != null && (data == null || data.length != context.getRecordSize())) {
+			int bytesRead = Math.min(mapped.remaining(), context.getRecordSize());
+
+			data = new byte[bytesRead];
+			if (context.debugStream != null) {
+				context.debug(this, 3, "Reading in full "+context.getRecordSize()+ "byte record @"+offset);
+			}
+			mapped.duplicate().get(data);
+			
+			if (bytesRead != context.getRecordSize()) {
+				context.error(this, "couldn't read an entire record from the file");
+				if (bytesRead <= nextEntry) {
+					return 0;
+				}
+			}
+			
+			return bytesRead;
+		}
+		
 		/* if we've got a file and offset then make sure we've got all the data */
 		if (file != null && (data == null || data.length != context.getRecordSize())) {
 			data = new byte[context.getRecordSize()];
@@ -740,7 +800,7 @@ public class TraceRecord implements Comparable<TraceRecord> {
 		if (textSummary == null) {
 			StringBuilder s = new StringBuilder("TraceRecord:"+System.getProperty("line.separator"));
 
-			if (file != null) {
+			if (file != null || mapped != null) {
 				s.append("file offset:    "+offset).append(System.getProperty("line.separator"));
 			} else {
 				s.append("non file data").append(System.getProperty("line.separator"));
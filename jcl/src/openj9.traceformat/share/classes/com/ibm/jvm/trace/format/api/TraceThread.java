@@ -1,6 +1,6 @@
 /*[INCLUDE-IF Sidecar18-SE]*/
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corp. and others
+ * Copyright (c) 2000, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -22,8 +22,11 @@
  *******************************************************************************/
 package com.ibm.jvm.trace.format.api;
 
+import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.BufferUnderflowException;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -54,6 +57,16 @@ public class TraceThread implements Comparable {
 	
 	Vector records = new Vector(); 
 
+	/* Records from indexed files that are still to be appended, in order. Each is the number of the
+	 * index in the context in the upper word and the entry in that index in the lower word. These are
+	 * only turned into TraceRecords as they are needed, after the records in the vector above.
+	 */
+	long indexedRecords[] = null;
+	int indexedRecordCount = 0;
+	int nextIndexedRecord = 0;
+	/* Indexed records that data was discarded before, set by userDiscardedData() */
+	BitSet indexedRecordsAfterDiscard = null;
+
 	/* if a user discards records we can rely on lost record trace points so we record it here.
 	 * True means that data immediately after the current contents of the threads stream has been
 	 * discarded and that there are no records in the store in which to record the fact.
@@ -179,12 +192,15 @@ public class TraceThread implements Comparable {
 
 			/* check to see if there's a record waiting to be appended */
 			if (records.isEmpty()) {
-				return null;
+				record = getNextIndexedRecord();
+				if (record == null) {
+					return null;
+				}
+			} else {
+				record = (TraceRecord)records.firstElement();
+				records.remove(record);
 			}
 
-			record = (TraceRecord)records.firstElement();
-			records.remove(record);
-
 			record.appendToStream(stream, threadRecordCount == 0);
 			threadRecordCount++;
 
@@ -289,6 +305,71 @@ public class TraceThread implements Comparable {
 		records.add(record);
 	}
 	
+	/**
+	 * Adds a record from an indexed file to the set of records associated with this thread. The record
+	 * is left in the file until it's needed.
+	 * 
+	 * @param indexNumber - the number of the index in the context
+	 * @param entry - the entry for the record in the index
+	 */
+	synchronized void addIndexedRecord(int indexNumber, int entry) {
+		if (indexedRecords == null) {
+			indexedRecords = new long[16];
+		} else if (indexedRecordCount == indexedRecords.length) {
+			indexedRecords = Arrays.copyOf(indexedRecords, indexedRecordCount * 2);
+		}
+
+		/* if it's been noted that there was user discarded data then propagate that to the record */
+		if (userDiscardedData) {
+			if (indexedRecordsAfterDiscard == null) {
+				indexedRecordsAfterDiscard = new BitSet();
+			}
+			indexedRecordsAfterDiscard.set(indexedRecordCount);
+			userDiscardedData = false;
+		}
+
+		indexedRecords[indexedRecordCount++] = ((long)indexNumber << 32) | (entry & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Reads in the next record from the indexed files
+	 * @return the next record, or null if there are no more
+	 */
+	private TraceRecord getNextIndexedRecord() {
+		while (nextIndexedRecord < indexedRecordCount) {
+			int position = nextIndexedRecord++;
+			long indexedRecord = indexedRecords[position];
+			TraceRecord record = null;
+
+			try {
+				record = context.getIndexedRecord((int)(indexedRecord >>> 32), (int)indexedRecord);
+			} catch (IOException e) {
+				context.error(this, "IOException while mapping trace record: " + e.getMessage());
+			} catch (IllegalArgumentException e) {
+				/* the header was valid when the file was indexed, so this shouldn't happen */
+				context.error(this, "Invalid trace record: " + e.getMessage());
+			}
+
+			if (record != null && indexedRecordsAfterDiscard != null && indexedRecordsAfterDiscard.get(position)) {
+				record.userDiscardedData = true;
+			}
+
+			if (nextIndexedRecord == indexedRecordCount) {
+				/* all used, release the memory */
+				indexedRecords = null;
+				indexedRecordCount = 0;
+				nextIndexedRecord = 0;
+				indexedRecordsAfterDiscard = null;
+			}
+
+			if (record != null) {
+				return record;
+			}
+		}
+
+		return null;
+	}
+
 	/**
 	 * This records the fact that we've been told that the user discarded data at this point in the series of records.
 	 * This fact will be tagged onto the next record to be added to the thread and will cause a lost record trace point
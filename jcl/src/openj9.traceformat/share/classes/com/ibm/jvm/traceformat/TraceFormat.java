@@ -36,6 +36,7 @@ import java.io.UnsupportedEncodingException;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -43,6 +44,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import com.ibm.jvm.trace.format.api.MissingDataException;
 import com.ibm.jvm.trace.format.api.TraceContext;
@@ -79,6 +86,7 @@ public class TraceFormat
 		ProgramOption.addOption(Verbose.class);
 		ProgramOption.addOption(Debug.class);
 		ProgramOption.addOption(Statistics.class);
+		ProgramOption.addOption(FormatThreads.class);
 		
 		/* The trace context holds the configuration and state for the parsing */
 		TraceContext context;
@@ -110,6 +118,7 @@ public class TraceFormat
 		Boolean verbose = (Boolean)ProgramOption.getValue("verbose");
 		Integer debugLevel = (Integer)ProgramOption.getValue("debug");
 		Boolean statistics = (Boolean)ProgramOption.getValue("statistics");
+		Integer formatThreads = (Integer)ProgramOption.getValue("format_threads");
 
 		/* Parse the header on the first file */
 		int blockSize = 4000;
@@ -215,19 +224,20 @@ public class TraceFormat
 				context.warning(context, "The body of the trace file is not a multiple of the record size, file either truncated or corrupt");
 			}
 
-			while (offset < length) {
-				try {
-					TraceThread thread = context.addData(traceFile, offset);
-					indentMap.put(thread, "");
-				} catch (IllegalArgumentException e) {
-					context.error(context, "Bad block of trace data in input file at offset "+offset+": "+e.getMessage());
-				}
+			/* index the file rather than reading it in, the buffers are decoded as they're needed */
+			context.addIndexedData(traceFile);
 
-				offset += recordSize;
-				totalBytes+= recordSize;
-				recordsInData++;
+			if (offset < length) {
+				long records = (length - offset + recordSize - 1) / recordSize;
+				totalBytes += records * recordSize;
+				recordsInData += records;
 			}
 		}
+
+		itr = context.getThreads();
+		while (itr.hasNext()) {
+			indentMap.put(itr.next(), "");
+		}
 		
 		/* output the summary information */
 		output.println(context.summary());
@@ -269,6 +279,24 @@ public class TraceFormat
 		String totalMbytes = (float)totalBytes/(float)(1024*1024) + "Mb";
 		context.message(context, "Processing " + totalMbytes + " of binary trace data");
 		
+		/* the messages are formatted in chunks on a pool of worker threads if requested, the chunks
+		 * are written out in order so the output is the same as for a single thread
+		 */
+		ExecutorService pool = null;
+		ArrayDeque pending = null;
+		FormattingChunk chunk = null;
+		if (formatThreads.intValue() > 1 && !summary.booleanValue()) {
+			pool = Executors.newFixedThreadPool(formatThreads.intValue(), new ThreadFactory() {
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "trace formatter");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			pending = new ArrayDeque();
+			chunk = new FormattingChunk(context, formatTime.booleanValue(), debugLevel.intValue());
+		}
+
 		TraceThread thread = null;
 		String indent = "";
 		while (itr.hasNext()) {
@@ -284,43 +312,9 @@ public class TraceFormat
 			/* If we've only been asked for the summary we don't format the trace */
 			if (!summary.booleanValue()) {
 				TraceThread current = tracepoint.getThread();
-				String component = tracepoint.getComponentName();
-				int tpID = tracepoint.getID();
-				String container = tracepoint.getContainerComponent();
-				String parameters = "";
-				try {
-					parameters = tracepoint.getFormattedParameters();
-					if (parameters == null || parameters.length() == 0) {
-					context.error(context, "null parameter data for trace point "+component+"."+tpID);
-					}
-				} catch (BufferUnderflowException e) {
-					/* This may be thrown, but there's essentially nothing we can do about it at this level so
-					 * just report it
-					 */
-					context.error(context, "Underflow accessing parameter data for trace point "+component+"."+tpID);
-				}
-	
-				StringBuilder formatted = new StringBuilder();
-				if (formatTime.booleanValue()) {
-					formatted.append(tracepoint.getFormattedTime());
-				} else {
-					formatted.append(tracepoint.getRawTime());
-				}
-				
-				/* append thread id */
-				formatted.append(" ").append((current != thread ? "*" : " "));
-				formatted.append(context.formatPointer(current.getThreadID()));
-				formatted.append(" ");
-	
-				/* append component and padding - add container if this is a sub component.
-				 * e.g j9codertvm(j9jit).91 vs j9jit.18 */			
-				String fullTracepointID = String.format((container != null ? "%s(%s).%d" : "%1$s.%3$d"), component, container, tpID);
-				
-				/* Left justify but include a space in the formatting as a column separator in case of very long component id's. */
-				formatted.append(String.format("%-19s ", fullTracepointID));
-				
-				formatted.append(tracepoint.getType());
-				
+				String tracepointIndent = null;
+
+				/* the indent depends on the tracepoints before this one on the thread so it's tracked here rather than by the formatter */
 				if (indenting.booleanValue()) {
 					indent = indentMap.get(current).toString();
 	
@@ -335,12 +329,8 @@ public class TraceFormat
 						}
 					}
 	
-					formatted.append(indent);
-				}
-	
-				formatted.append(parameters.length() > 0 ? ((parameters.charAt(0) == '*' ? " " : "") + parameters) : "");
-	
-				if (indenting.booleanValue()) {
+					tracepointIndent = indent;
+
 					/* juggle the indent for the thread */
 					if (tracepoint.getTypeAsInt() == TracePoint.ENTRY_TYPE || tracepoint.getTypeAsInt() == TracePoint.ENTRY_EXCPT_TYPE) {
 						indent = indent+"  ";
@@ -348,12 +338,23 @@ public class TraceFormat
 					}
 				}
 
-				if (debugLevel > 0) {
-					formatted.append(" ["+((TracePointImpl)tracepoint).getDebugInfo()+"]");
-				}
-
+				boolean threadChanged = current != thread;
 				thread = current;
-				output.println(formatted.toString());
+
+				if (pool == null) {
+					output.println(formatTracepoint(context, tracepoint, threadChanged, tracepointIndent, formatTime.booleanValue(), debugLevel.intValue()));
+				} else {
+					chunk.add(tracepoint, threadChanged, tracepointIndent);
+					if (chunk.isFull()) {
+						pending.addLast(pool.submit(chunk));
+						chunk = new FormattingChunk(context, formatTime.booleanValue(), debugLevel.intValue());
+
+						/* bound the number of chunks in flight so memory use doesn't grow with the trace */
+						while (pending.size() > 2 * formatThreads.intValue()) {
+							writeChunk(output, (Future)pending.removeFirst());
+						}
+					}
+				}
 			}
 			
 			/* print percentage */
@@ -375,6 +376,14 @@ public class TraceFormat
 			}
 		}
 
+		if (pool != null) {
+			pending.addLast(pool.submit(chunk));
+			while (!pending.isEmpty()) {
+				writeChunk(output, (Future)pending.removeFirst());
+			}
+			pool.shutdown();
+		}
+
 		if (lostCountByException > 0) {
 			context.warning(context, lostCountByException + " records were discarded during trace generation");
 		}
@@ -393,6 +402,128 @@ public class TraceFormat
 		}
 	}
 
+	/**
+	 * Formats a single tracepoint as a line of output.
+	 * 
+	 * @param threadChanged - true if the previous tracepoint was on a different thread
+	 * @param indent - the indent for the tracepoint, or null if indenting is disabled
+	 */
+	static String formatTracepoint(TraceContext context, TracePointImpl tracepoint, boolean threadChanged, String indent, boolean formatTime, int debugLevel) {
+		TraceThread current = tracepoint.getThread();
+		String component = tracepoint.getComponentName();
+		int tpID = tracepoint.getID();
+		String container = tracepoint.getContainerComponent();
+		String parameters = "";
+		try {
+			parameters = tracepoint.getFormattedParameters();
+			if (parameters == null || parameters.length() == 0) {
+			context.error(context, "null parameter data for trace point "+component+"."+tpID);
+			}
+		} catch (BufferUnderflowException e) {
+			/* This may be thrown, but there's essentially nothing we can do about it at this level so
+			 * just report it
+			 */
+			context.error(context, "Underflow accessing parameter data for trace point "+component+"."+tpID);
+		}
+
+		StringBuilder formatted = new StringBuilder();
+		if (formatTime) {
+			formatted.append(tracepoint.getFormattedTime());
+		} else {
+			formatted.append(tracepoint.getRawTime());
+		}
+		
+		/* append thread id */
+		formatted.append(" ").append((threadChanged ? "*" : " "));
+		formatted.append(context.formatPointer(current.getThreadID()));
+		formatted.append(" ");
+
+		/* append component and padding - add container if this is a sub component.
+		 * e.g j9codertvm(j9jit).91 vs j9jit.18 */			
+		String fullTracepointID = String.format((container != null ? "%s(%s).%d" : "%1$s.%3$d"), component, container, tpID);
+		
+		/* Left justify but include a space in the formatting as a column separator in case of very long component id's. */
+		formatted.append(String.format("%-19s ", fullTracepointID));
+		
+		formatted.append(tracepoint.getType());
+		
+		if (indent != null) {
+			formatted.append(indent);
+		}
+
+		formatted.append(parameters.length() > 0 ? ((parameters.charAt(0) == '*' ? " " : "") + parameters) : "");
+
+		if (debugLevel > 0) {
+			formatted.append(" ["+tracepoint.getDebugInfo()+"]");
+		}
+
+		return formatted.toString();
+	}
+
+	/**
+	 * Waits for a chunk to be formatted and writes it to the output.
+	 */
+	private static void writeChunk(PrintWriter output, Future future) throws InterruptedException {
+		String lines[];
+		try {
+			lines = (String[])future.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException)cause;
+			} else if (cause instanceof Error) {
+				throw (Error)cause;
+			}
+			throw new RuntimeException(cause);
+		}
+
+		for (int i = 0; i < lines.length; i++) {
+			output.println(lines[i]);
+		}
+	}
+
+	/**
+	 * A run of consecutive tracepoints to be formatted on a worker thread. Everything that depends
+	 * on the preceding tracepoints, the thread change marker and the indent, is worked out when
+	 * the tracepoint is added.
+	 */
+	private static class FormattingChunk implements Callable {
+		static final int TRACEPOINTS_PER_CHUNK = 1024;
+
+		private final TraceContext context;
+		private final boolean formatTime;
+		private final int debugLevel;
+		private final TracePointImpl tracepoints[] = new TracePointImpl[TRACEPOINTS_PER_CHUNK];
+		private final boolean threadChanged[] = new boolean[TRACEPOINTS_PER_CHUNK];
+		private final String indents[] = new String[TRACEPOINTS_PER_CHUNK];
+		private int count;
+
+		FormattingChunk(TraceContext context, boolean formatTime, int debugLevel) {
+			this.context = context;
+			this.formatTime = formatTime;
+			this.debugLevel = debugLevel;
+		}
+
+		void add(TracePointImpl tracepoint, boolean threadChanged, String indent) {
+			tracepoints[count] = tracepoint;
+			this.threadChanged[count] = threadChanged;
+			indents[count] = indent;
+			count++;
+		}
+
+		boolean isFull() {
+			return count == TRACEPOINTS_PER_CHUNK;
+		}
+
+		public Object call() {
+			String lines[] = new String[count];
+			for (int i = 0; i < count; i++) {
+				lines[i] = formatTracepoint(context, tracepoints[i], threadChanged[i], indents[i], formatTime, debugLevel);
+			}
+			return lines;
+		}
+	}
+
 }
 
 class Debug extends ProgramOption {
@@ -518,6 +649,46 @@ class Statistics extends ProgramOption {
 	
 }
 
+class FormatThreads extends ProgramOption {
+	int formatThreads;
+
+	String getDescription() {
+		return "The number of threads used to format the trace data. The output is the same whatever the number of threads. If specified without a value one thread per processor is used.";
+	}
+
+	String getName() {
+		return "format_threads";
+	}
+
+	String getUsage() {
+		return "-format_threads=n";
+	}
+
+	Object getValue() {
+		return Integer.valueOf(formatThreads);
+	}
+
+	void setValue(String value) throws IllegalArgumentException {
+		try {
+			formatThreads = Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			formatThreads = 0;
+		}
+
+		if (formatThreads < 1) {
+			throw new IllegalArgumentException("The value \""+value+"\" specified for format_threads is not valid, must be a positive integer");
+		}
+	}
+
+	void setAutomatic() {
+		formatThreads = Runtime.getRuntime().availableProcessors();
+	}
+
+	void setDefault() {
+		formatThreads = 1;
+	}
+}
+
 class MessageFile extends ProgramOption {
 	List messageFiles = new LinkedList();
 
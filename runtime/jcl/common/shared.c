@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1998, 2020 IBM Corp. and others
+ * Copyright (c) 1998, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -98,6 +98,7 @@ UDATA urlHashEqualFn(void* left, void* right, void *userData);
 static UDATA getPathProtocolFromURL(JNIEnv* env, jobject url, jmethodID URLgetPathID, jmethodID URLgetProtocolID, URLElements *urlElements);
 static void releaseStringChars(JNIEnv* env, jstring str, const char* chars);
 static void releaseStringPair(JNIEnv* env, jstring str1, const char* chars1, jstring str2, const char* chars2);
+static UDATA getURLClasspathEntries(JNIEnv* env, jint helperID, J9ClassLoader* classloader, jobjectArray urlArrayObj, jint urlCount, const char* partitionChars, jsize partitionLen, J9ClassPathEntry** cpEntries_, const J9UTF8** partition_);
 static J9Pool* getTokenCache(JNIEnv* env);
 
 
@@ -1587,80 +1588,59 @@ _error:
 	return FALSE;
 }
 
-jint JNICALL 
-Java_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassImpl2(JNIEnv* env, jobject thisObj, jint helperID, 
-		jstring partitionObj, jstring classNameObj, jobject loaderObj, jobjectArray urlArrayObj, jboolean doFind, jboolean doStore,  
-		jint urlCount, jint confirmedCount, jbyteArray romClassCookie)
+/**
+ * Get the classpath entries of a URLClasspath helper's classloader, creating them from the URL array
+ * if they have been flushed, and look up the partition in the JCL string farm.
+ *
+ * THREADING: Must not be called while holding jclCacheMutex. The caller must prevent a concurrent
+ * notifyClasspathChange2() for the same classloader while the returned entries are in use.
+ *
+ * @param [in] env                The JNI environment
+ * @param [in] helperID           The ID of the helper
+ * @param [in] classloader        The classloader owning the classpath
+ * @param [in] urlArrayObj        The URL array of the classpath
+ * @param [in] urlCount           The number of URLs in use in urlArrayObj
+ * @param [in] partitionChars     The partition, or NULL if there is none
+ * @param [in] partitionLen       The length of partitionChars
+ * @param [out] cpEntries_        The classpath entries of the classloader
+ * @param [out] partition_        The cached partition, or NULL if there is none
+ *
+ * @return TRUE on success, FALSE otherwise
+ */
+static UDATA
+getURLClasspathEntries(JNIEnv* env, jint helperID, J9ClassLoader* classloader, jobjectArray urlArrayObj, jint urlCount,
+		const char* partitionChars, jsize partitionLen, J9ClassPathEntry** cpEntries_, const J9UTF8** partition_)
 {
-#if defined(J9VM_OPT_SHARED_CLASSES)
-	J9VMThread* vmThread = ((J9VMThread*)env);
-	J9JavaVM* vm = vmThread->javaVM;
-	const char* nameChars = NULL;
-	const char* partitionChars = NULL;
-	jsize nameLen = 0;
-	jsize partitionLen = 0;
-	J9ROMClass* romClass = NULL;
+	J9JavaVM* vm = ((J9VMThread*)env)->javaVM;
+	omrthread_monitor_t jclCacheMutex = vm->sharedClassConfig->jclCacheMutex;
 	J9ClassPathEntry* cpEntries = NULL;
-	UDATA entryCount = (UDATA)urlCount;
-	IDATA indexFoundAt = 0;
-	UDATA oldState;
-	const J9UTF8* partition = NULL;
-	omrthread_monitor_t jclCacheMutex;
-	J9ClassLoader* classloader;
 	URLElements* urlArrayElements = NULL;
+	UDATA result = FALSE;
 	IDATA i = 0;
-	jmethodID urlGetPathID = NULL;
-	jmethodID urlGetProtocolID = NULL;
-	
-	PORT_ACCESS_FROM_VMC((J9VMThread*)env);
-
-	Trc_JCL_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassImpl_Entry(env, helperID);
-
-	jclCacheMutex = vm->sharedClassConfig->jclCacheMutex;
-
-	if ((helperID > 0xFFFF) || (vm->sharedClassConfig->runtimeFlags & J9SHR_RUNTIMEFLAG_DENY_CACHE_ACCESS)) {
-		/* trace event is at level 1 and trace exit message is at level 2 as per CMVC 155318/157683 */		
-		Trc_JCL_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassImpl_ExitDenyAccess_Event(env, helperID);
-		Trc_JCL_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassImpl_ExitDenyAccess(env);
-		return -1;
-	}
-
-	oldState = ((J9VMThread*)env)->omrVMThread->vmState;
-	((J9VMThread*)env)->omrVMThread->vmState = J9VMSTATE_SHAREDCLASS_FIND;
-
-	vm->internalVMFunctions->internalEnterVMFromJNI(vmThread);
-	classloader = J9VMJAVALANGCLASSLOADER_VMREF(vmThread, J9_JNI_UNWRAP_REFERENCE(loaderObj));
-	vm->internalVMFunctions->internalExitVMToJNI(vmThread);
-
-	if (!getStringPair(env, &nameChars, &nameLen, &partitionChars, &partitionLen, classNameObj, partitionObj)) {
-		Trc_JCL_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassImpl_ExitError2_Event(env, helperID);
-		goto _errorPostClassNamePartition;
-	}
 
-	urlGetPathID = JCL_CACHE_GET(env, MID_java_net_URL_getPath);
-	if (NULL == urlGetPathID) {
-		goto _errorPostClassNamePartition;
-	}
-	urlGetProtocolID = JCL_CACHE_GET(env, MID_java_net_URL_getProtocol);
-	if (NULL == urlGetProtocolID) {
-		goto _errorPostClassNamePartition;
-	}
+	PORT_ACCESS_FROM_VMC((J9VMThread*)env);
 
 	if (NULL == classloader->classPathEntries) {
+		jmethodID urlGetPathID = JCL_CACHE_GET(env, MID_java_net_URL_getPath);
+		jmethodID urlGetProtocolID = JCL_CACHE_GET(env, MID_java_net_URL_getProtocol);
+
+		if ((NULL == urlGetPathID) || (NULL == urlGetProtocolID)) {
+			return FALSE;
+		}
 		urlArrayElements = (URLElements *)j9mem_allocate_memory(urlCount * sizeof(URLElements), J9MEM_CATEGORY_VM_JCL);
 		if (NULL == urlArrayElements) {
-			goto _errorPostClassNamePartition;
+			return FALSE;
 		}
 		memset(urlArrayElements, 0, urlCount * sizeof(URLElements));
 
 		for (i = 0; i < urlCount; i++) {
 			jobject url = (*env)->GetObjectArrayElement(env, urlArrayObj, (jsize)i);
 			if (JNI_TRUE == (*env)->ExceptionCheck(env)) {
-				goto _errorFreeURLElements;
+				goto _done;
 			}
 
 			if (!getPathProtocolFromURL(env, url, urlGetPathID, urlGetProtocolID, urlArrayElements + i)) {
-				goto _errorFreeURLElements;
+				goto _done;
 			}
 		}
 	}
@@ -1671,28 +1651,26 @@ Java_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassImpl2(J
 
 	if (!cpEntries) {
 		if (!createCPEntries(env, helperID, urlCount, &cpEntries, urlArrayElements)) {
-			if (cpEntries) {
-				j9mem_free_memory(cpEntries);
-			}
 			Trc_JCL_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassImpl_ExitError3_Event(env, helperID);
-			goto _errorWithMutex;
+			goto _doneWithMutex;
 		} else {
 			classloader->classPathEntries = cpEntries;
 		}
 	}
 
 	if (partitionChars) {
-		if (!getCachedString(env, partitionChars, partitionLen, &(vm->sharedClassConfig->jclStringFarm), &partition)) {
+		if (!getCachedString(env, partitionChars, partitionLen, &(vm->sharedClassConfig->jclStringFarm), partition_)) {
 			Trc_JCL_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassImpl_ExitError4_Event(env, helperID);
-			goto _errorWithMutex;
+			goto _doneWithMutex;
 		}
 	}
 
-	omrthread_monitor_exit(jclCacheMutex);
-
-	ALWAYS_TRIGGER_J9HOOK_VM_FIND_LOCALLY_DEFINED_CLASS(vm->hookInterface, (J9VMThread*)env, classloader, NULL,
-			(const char*)nameChars, (UDATA)nameLen, cpEntries, entryCount, confirmedCount, partition, !doFind, !doStore, &indexFoundAt, romClass);
+	*cpEntries_ = cpEntries;
+	result = TRUE;
 
+_doneWithMutex:
+	omrthread_monitor_exit(jclCacheMutex);
+_done:
 	if (NULL != urlArrayElements) {
 		for (i = 0; i < urlCount; i++) {
 			/* NULL check is done in releaseStringPair(), so no need to do it here */
@@ -1700,6 +1678,56 @@ Java_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassImpl2(J
 		}
 		j9mem_free_memory(urlArrayElements);
 	}
+	return result;
+}
+
+jint JNICALL 
+Java_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassImpl2(JNIEnv* env, jobject thisObj, jint helperID, 
+		jstring partitionObj, jstring classNameObj, jobject loaderObj, jobjectArray urlArrayObj, jboolean doFind, jboolean doStore,  
+		jint urlCount, jint confirmedCount, jbyteArray romClassCookie)
+{
+#if defined(J9VM_OPT_SHARED_CLASSES)
+	J9VMThread* vmThread = ((J9VMThread*)env);
+	J9JavaVM* vm = vmThread->javaVM;
+	const char* nameChars = NULL;
+	const char* partitionChars = NULL;
+	jsize nameLen = 0;
+	jsize partitionLen = 0;
+	J9ROMClass* romClass = NULL;
+	J9ClassPathEntry* cpEntries = NULL;
+	UDATA entryCount = (UDATA)urlCount;
+	IDATA indexFoundAt = 0;
+	UDATA oldState;
+	const J9UTF8* partition = NULL;
+	J9ClassLoader* classloader;
+
+	Trc_JCL_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassImpl_Entry(env, helperID);
+
+	if ((helperID > 0xFFFF) || (vm->sharedClassConfig->runtimeFlags & J9SHR_RUNTIMEFLAG_DENY_CACHE_ACCESS)) {
+		/* trace event is at level 1 and trace exit message is at level 2 as per CMVC 155318/157683 */		
+		Trc_JCL_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassImpl_ExitDenyAccess_Event(env, helperID);
+		Trc_JCL_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassImpl_ExitDenyAccess(env);
+		return -1;
+	}
+
+	oldState = ((J9VMThread*)env)->omrVMThread->vmState;
+	((J9VMThread*)env)->omrVMThread->vmState = J9VMSTATE_SHAREDCLASS_FIND;
+
+	vm->internalVMFunctions->internalEnterVMFromJNI(vmThread);
+	classloader = J9VMJAVALANGCLASSLOADER_VMREF(vmThread, J9_JNI_UNWRAP_REFERENCE(loaderObj));
+	vm->internalVMFunctions->internalExitVMToJNI(vmThread);
+
+	if (!getStringPair(env, &nameChars, &nameLen, &partitionChars, &partitionLen, classNameObj, partitionObj)) {
+		Trc_JCL_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassImpl_ExitError2_Event(env, helperID);
+		goto _errorPostClassNamePartition;
+	}
+
+	if (!getURLClasspathEntries(env, helperID, classloader, urlArrayObj, urlCount, partitionChars, partitionLen, &cpEntries, &partition)) {
+		goto _errorPostClassNamePartition;
+	}
+
+	ALWAYS_TRIGGER_J9HOOK_VM_FIND_LOCALLY_DEFINED_CLASS(vm->hookInterface, (J9VMThread*)env, classloader, NULL,
+			(const char*)nameChars, (UDATA)nameLen, cpEntries, entryCount, confirmedCount, partition, !doFind, !doStore, &indexFoundAt, romClass);
 
 	releaseStringPair(env, classNameObj, nameChars, partitionObj, partitionChars);
 
@@ -1717,16 +1745,6 @@ Java_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassImpl2(J
 	Trc_JCL_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassImpl_ExitNoResult(env);
 	return -1;
 
-_errorWithMutex:
-	omrthread_monitor_exit(jclCacheMutex);
-_errorFreeURLElements:
-	if (NULL != urlArrayElements) {
-		for (i = 0; i < urlCount; i++) {
-			/* NULL check is done in releaseStringPair(), no need to do it here */
-			releaseStringPair(env, urlArrayElements[i].pathObj, urlArrayElements[i].pathChars, urlArrayElements[i].protocolObj, urlArrayElements[i].protocolChars);
-		}
-		j9mem_free_memory(urlArrayElements);
-	}
 _errorPostClassNamePartition:
 	releaseStringPair(env, classNameObj, nameChars, partitionObj, partitionChars);
 	(*env)->ExceptionClear(env);
@@ -1743,6 +1761,135 @@ _errorPostClassNamePartition:
 	return -1;
 }
 
+/**
+ * Find a batch of classes in the shared cache for a URLClasspath helper. The classpath entries and the partition
+ * are resolved once for the whole batch.
+ *
+ * @param [in] env                The JNI environment
+ * @param [in] thisObj            The object on which the method was invoked
+ * @param [in] helperID           The ID of the helper
+ * @param [in] partitionObj       The partition, or NULL if there is none
+ * @param [in] classNameArrayObj  The names of the classes to find
+ * @param [in] loaderObj          The classloader of the helper
+ * @param [in] urlArrayObj        The URL array of the classpath
+ * @param [in] doFindArrayObj     Per class, whether the class may be found, or NULL if all may be found
+ * @param [in] doStoreArrayObj    Per class, whether the class may be stored later, or NULL if all may be stored
+ * @param [in] urlCount           The number of URLs in use in urlArrayObj
+ * @param [in] confirmedCount     The number of confirmed URLs
+ * @param [out] romClassCookieArrayObj  Receives a new ROMClass cookie for each class found
+ * @param [out] indexFoundAtArrayObj    Receives the classpath index of each class found, -1 for each class not found
+ *
+ * @return the number of classes found
+ */
+jint JNICALL
+Java_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassesImpl2(JNIEnv* env, jobject thisObj, jint helperID,
+		jstring partitionObj, jobjectArray classNameArrayObj, jobject loaderObj, jobjectArray urlArrayObj, jbooleanArray doFindArrayObj,
+		jbooleanArray doStoreArrayObj, jint urlCount, jint confirmedCount, jobjectArray romClassCookieArrayObj, jintArray indexFoundAtArrayObj)
+{
+	jint foundCount = 0;
+#if defined(J9VM_OPT_SHARED_CLASSES)
+	J9VMThread* vmThread = ((J9VMThread*)env);
+	J9JavaVM* vm = vmThread->javaVM;
+	const char* partitionChars = NULL;
+	jsize partitionLen = 0;
+	J9ClassPathEntry* cpEntries = NULL;
+	UDATA entryCount = (UDATA)urlCount;
+	UDATA oldState;
+	const J9UTF8* partition = NULL;
+	J9ClassLoader* classloader;
+	jsize classCount = (*env)->GetArrayLength(env, classNameArrayObj);
+	jsize i = 0;
+
+	Trc_JCL_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassesImpl_Entry(env, helperID, classCount);
+
+	if ((helperID > 0xFFFF) || (vm->sharedClassConfig->runtimeFlags & J9SHR_RUNTIMEFLAG_DENY_CACHE_ACCESS)) {
+		Trc_JCL_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassImpl_ExitDenyAccess_Event(env, helperID);
+		Trc_JCL_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassesImpl_ExitDenyAccess(env);
+		return 0;
+	}
+
+	oldState = ((J9VMThread*)env)->omrVMThread->vmState;
+	((J9VMThread*)env)->omrVMThread->vmState = J9VMSTATE_SHAREDCLASS_FIND;
+
+	vm->internalVMFunctions->internalEnterVMFromJNI(vmThread);
+	classloader = J9VMJAVALANGCLASSLOADER_VMREF(vmThread, J9_JNI_UNWRAP_REFERENCE(loaderObj));
+	vm->internalVMFunctions->internalExitVMToJNI(vmThread);
+
+	if (!getStringChars(env, &partitionChars, &partitionLen, partitionObj)) {
+		Trc_JCL_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassImpl_ExitError2_Event(env, helperID);
+		goto _error;
+	}
+
+	if (!getURLClasspathEntries(env, helperID, classloader, urlArrayObj, urlCount, partitionChars, partitionLen, &cpEntries, &partition)) {
+		goto _error;
+	}
+
+	for (i = 0; i < classCount; i++) {
+		jstring classNameObj = (jstring)(*env)->GetObjectArrayElement(env, classNameArrayObj, i);
+		const char* nameChars = NULL;
+		jsize nameLen = 0;
+		jboolean doFind = JNI_TRUE;
+		jboolean doStore = JNI_TRUE;
+		J9ROMClass* romClass = NULL;
+		IDATA indexFoundAt = -1;
+		jint indexResult = -1;
+
+		if (NULL == classNameObj) {
+			/* leave the cookie NULL and the index at -1 */
+			(*env)->SetIntArrayRegion(env, indexFoundAtArrayObj, i, 1, &indexResult);
+			continue;
+		}
+		if (!getStringChars(env, &nameChars, &nameLen, classNameObj)) {
+			(*env)->DeleteLocalRef(env, classNameObj);
+			Trc_JCL_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassImpl_ExitError2_Event(env, helperID);
+			goto _error;
+		}
+		if (NULL != doFindArrayObj) {
+			(*env)->GetBooleanArrayRegion(env, doFindArrayObj, i, 1, &doFind);
+		}
+		if (NULL != doStoreArrayObj) {
+			(*env)->GetBooleanArrayRegion(env, doStoreArrayObj, i, 1, &doStore);
+		}
+
+		ALWAYS_TRIGGER_J9HOOK_VM_FIND_LOCALLY_DEFINED_CLASS(vm->hookInterface, (J9VMThread*)env, classloader, NULL,
+				(const char*)nameChars, (UDATA)nameLen, cpEntries, entryCount, confirmedCount, partition, !doFind, !doStore, &indexFoundAt, romClass);
+
+		releaseStringChars(env, classNameObj, nameChars);
+		(*env)->DeleteLocalRef(env, classNameObj);
+
+		if (NULL != romClass) {
+			jbyteArray romClassCookie = (*env)->NewByteArray(env, sizeof(J9ROMClassCookieSharedClass));
+			if (NULL == romClassCookie) {
+				goto _error;
+			}
+			createROMClassCookie(env, vm, romClass, romClassCookie);
+			(*env)->SetObjectArrayElement(env, romClassCookieArrayObj, i, romClassCookie);
+			(*env)->DeleteLocalRef(env, romClassCookie);
+			indexResult = (jint)indexFoundAt;
+			foundCount += 1;
+		}
+		(*env)->SetIntArrayRegion(env, indexFoundAtArrayObj, i, 1, &indexResult);
+	}
+
+	releaseStringChars(env, partitionObj, partitionChars);
+
+	((J9VMThread*)env)->omrVMThread->vmState = oldState;
+
+	Trc_JCL_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassesImpl_Exit(env, foundCount);
+	return foundCount;
+
+_error:
+	releaseStringChars(env, partitionObj, partitionChars);
+	(*env)->ExceptionClear(env);
+
+	((J9VMThread*)env)->omrVMThread->vmState = oldState;
+
+	Trc_JCL_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassesImpl_ExitError(env, foundCount);
+#endif 		/* J9VM_OPT_SHARED_CLASSES */
+
+	return foundCount;
+}
+
 
 jlong JNICALL 
 Java_com_ibm_oti_shared_SharedClassStatistics_maxSizeBytesImpl(JNIEnv* env, jobject thisObj)
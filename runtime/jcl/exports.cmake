@@ -268,6 +268,7 @@ omr_add_exports(jclse
 	Java_com_ibm_oti_shared_SharedClassTokenHelperImpl_findSharedClassImpl2
 	Java_com_ibm_oti_shared_SharedClassTokenHelperImpl_storeSharedClassImpl2
 	Java_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassImpl2
+	Java_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassesImpl2
 	Java_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_init
 	Java_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_notifyClasspathChange2
 	Java_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_notifyClasspathChange3
@@ -72,6 +72,8 @@ Java_com_ibm_oti_shared_SharedClassTokenHelperImpl_storeSharedClassImpl2(JNIEnv*
 jint JNICALL 
 Java_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassImpl2(JNIEnv* env, jobject thisObj, jint helperID, jstring partitionObj, jstring classNameObj, jobject loaderObj, jobjectArray urlArrayObj, jboolean doFind, jboolean doStore, jint urlCount, jint confirmedCount, jbyteArray romClassCookie);
 jint JNICALL 
+Java_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_findSharedClassesImpl2(JNIEnv* env, jobject thisObj, jint helperID, jstring partitionObj, jobjectArray classNameArrayObj, jobject loaderObj, jobjectArray urlArrayObj, jbooleanArray doFindArrayObj, jbooleanArray doStoreArrayObj, jint urlCount, jint confirmedCount, jobjectArray romClassCookieArrayObj, jintArray indexFoundAtArrayObj);
+jint JNICALL 
 Java_com_ibm_oti_shared_SharedClassURLClasspathHelperImpl_storeSharedClassImpl2(JNIEnv* env, jobject thisObj, jint helperID, jstring partitionObj, jobject loaderObj, jobjectArray urlArrayObj, jint urlCount, jint cpLoadIndex, jclass clazzObj, jbyteArray nativeFlags);
 jboolean JNICALL 
 Java_com_ibm_oti_shared_SharedClassURLHelperImpl_findSharedClassImpl3(JNIEnv* env, jobject thisObj, jint helperID, jstring partitionObj, jstring classNameObj, jobject loaderObj, jobject urlObj, jboolean doFind, jboolean doStore, jbyteArray romClassCookie, jboolean newJarFile, jboolean minimizeUpdateChecks);
@@ -28,6 +28,7 @@ import j9vm.test.ddrext.junit.TestCollisionResilientHashtable;
 import j9vm.test.ddrext.junit.TestDDRExtensionGeneral;
 import j9vm.test.ddrext.junit.TestFindExt;
 import j9vm.test.ddrext.junit.TestJITExt;
+import j9vm.test.ddrext.junit.TestParallelHeapWalk;
 import j9vm.test.ddrext.junit.TestMonitors;
 import j9vm.test.ddrext.junit.TestRTSpecificDDRExt;
 import j9vm.test.ddrext.junit.TestSharedClassesExt;
@@ -467,6 +468,8 @@ public class AutoRun {
 					suite.addTestSuite(TestTypeResolution.class);
 				} else if (aTest.trim().equalsIgnoreCase("TestMonitors")) {
 					suite.addTestSuite(TestMonitors.class);
+				} else if (aTest.trim().equalsIgnoreCase("TestParallelHeapWalk")) {
+					suite.addTestSuite(TestParallelHeapWalk.class);
 				} else if (aTest.trim().equalsIgnoreCase("TestDeadlockCase1")) {
 					suite.addTestSuite(TestDeadlockCase1.class);
 				} else if (aTest.trim().equalsIgnoreCase("TestDeadlockCase2")) {
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package j9vm.test.ddrext.junit;
+
+import j9vm.test.ddrext.Constants;
+import j9vm.test.ddrext.DDRExtTesterBase;
+
+import com.ibm.j9ddr.vm29.j9.gc.GCParallelHeapWalker;
+
+/**
+ * Checks that the commands that walk the heap on several threads print exactly
+ * what they print when the heap is walked on one thread.
+ *
+ * !objectrefs only walks the heap with the balanced GC policy, and
+ * !dumpsegregatedstats only reports on a segregated (metronome) heap, so this
+ * test is run on cores generated with each of those policies as well.
+ */
+public class TestParallelHeapWalk extends DDRExtTesterBase
+{
+	private static final String PARALLEL_THREADS = "4";
+
+	/** !gccheck prints how long each check took, e.g. "done (12 ms)." */
+	private static final String ELAPSED_TIME = "\\(\\d+ ?ms\\)";
+
+	public void testGCCheck() {
+		compareOutput("gccheck", new String[] {});
+	}
+
+	public void testObjectRefs() {
+		String objectAddress = getClassObjectAddress();
+		assertNotNull("Not able to find the address of the java/lang/Object class object", objectAddress);
+		compareOutput("objectrefs", new String[] { objectAddress, "heapWalk" });
+	}
+
+	public void testDumpSegregatedStats() {
+		compareOutput("dumpsegregatedstats", new String[] {});
+	}
+
+	/**
+	 * Runs a command with a sequential heap walk and then with a parallel heap
+	 * walk, and fails if the two outputs differ in anything but elapsed times.
+	 */
+	private void compareOutput(String command, String[] args) {
+		String sequential = execWithThreads("1", command, args);
+		assertNotNull("!" + command + " printed nothing", sequential);
+		assertFalse("!" + command + " is not recognized", sequential.contains(Constants.UNRECOGNIZED_CMD));
+
+		String parallel = execWithThreads(PARALLEL_THREADS, command, args);
+		assertEquals("!" + command + " output differs when the heap is walked on " + PARALLEL_THREADS + " threads",
+				sequential, parallel);
+	}
+
+	private String execWithThreads(String threads, String command, String[] args) {
+		String previous = System.setProperty(GCParallelHeapWalker.PARALLELISM_PROPERTY, threads);
+		try {
+			String output = exec(command, args);
+			return (null == output) ? null : output.replaceAll(ELAPSED_TIME, "(ms)");
+		} finally {
+			if (null == previous) {
+				System.clearProperty(GCParallelHeapWalker.PARALLELISM_PROPERTY);
+			} else {
+				System.setProperty(GCParallelHeapWalker.PARALLELISM_PROPERTY, previous);
+			}
+		}
+	}
+
+	/**
+	 * @return the address of the java.lang.Class instance of java/lang/Object, which
+	 * is referenced from the heap
+	 */
+	private String getClassObjectAddress() {
+		String classForNameOutput = exec(Constants.CL_FOR_NAME_CMD, new String[] { Constants.CL_FOR_NAME_CLASS });
+		String classAddress = null;
+		for (String line : classForNameOutput.split(Constants.NL)) {
+			if (line.contains("!j9class")) {
+				classAddress = line.split(" ")[1].trim();
+				break;
+			}
+		}
+		if (null == classAddress) {
+			return null;
+		}
+		String classOutput = exec("j9class", new String[] { classAddress });
+		for (String line : classOutput.split(Constants.NL)) {
+			if (line.contains("!j9object")) {
+				return line.split("!j9object")[1].trim().split(" ")[0].trim();
+			}
+		}
+		return null;
+	}
+}
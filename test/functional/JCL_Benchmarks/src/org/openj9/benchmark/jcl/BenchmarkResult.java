@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+package org.openj9.benchmark.jcl;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A single benchmark score, keyed by benchmark name, parameters and mode.
+ * <p>
+ * Results are stored one per line, tab separated, in the order
+ * <code>benchmark params mode score error unit</code>. Lines starting with
+ * <code>#</code> are comments. The parameters column is <code>-</code> when
+ * the benchmark has no parameters, otherwise a comma separated list of
+ * <code>name=value</code> pairs in declaration order.
+ */
+public final class BenchmarkResult {
+	static final String HEADER = "# benchmark\tparams\tmode\tscore\terror\tunit"; //$NON-NLS-1$
+
+	private final String benchmark;
+	private final String params;
+	private final String mode;
+	private final double score;
+	private final double error;
+	private final String unit;
+
+	public BenchmarkResult(String benchmark, String params, String mode, double score, double error, String unit) {
+		this.benchmark = benchmark;
+		this.params = params.isEmpty() ? "-" : params; //$NON-NLS-1$
+		this.mode = mode;
+		this.score = score;
+		/* JMH reports NaN when there are too few samples to compute an interval */
+		this.error = Double.isNaN(error) ? 0 : error;
+		this.unit = unit;
+	}
+
+	public String getKey() {
+		return benchmark + '\t' + params + '\t' + mode;
+	}
+
+	public String getBenchmark() {
+		return benchmark;
+	}
+
+	public String getParams() {
+		return params;
+	}
+
+	public String getMode() {
+		return mode;
+	}
+
+	public double getScore() {
+		return score;
+	}
+
+	public double getError() {
+		return error;
+	}
+
+	public String getUnit() {
+		return unit;
+	}
+
+	/**
+	 * Answer whether a larger score is an improvement for this result.
+	 * Throughput is measured in operations per unit of time, every other
+	 * JMH mode in time per operation.
+	 *
+	 * @return true if a larger score is better
+	 */
+	public boolean isHigherBetter() {
+		return "thrpt".equals(mode); //$NON-NLS-1$
+	}
+
+	@Override
+	public String toString() {
+		return getKey() + '\t' + score + '\t' + error + '\t' + unit;
+	}
+
+	/**
+	 * Read the results stored in a file.
+	 *
+	 * @param file the file to read
+	 * @return the results keyed by {@link #getKey()}, in file order
+	 * @throws IOException if the file cannot be read or a line is malformed
+	 */
+	public static Map<String, BenchmarkResult> read(Path file) throws IOException {
+		Map<String, BenchmarkResult> results = new LinkedHashMap<>();
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			int lineNumber = 0;
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				lineNumber += 1;
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#")) { //$NON-NLS-1$
+					continue;
+				}
+				String[] fields = line.split("\t"); //$NON-NLS-1$
+				if (fields.length != 6) {
+					throw new IOException(file + ":" + lineNumber + ": expected 6 fields but found " + fields.length); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				BenchmarkResult result;
+				try {
+					result = new BenchmarkResult(fields[0], fields[1], fields[2],
+							Double.parseDouble(fields[3]), Double.parseDouble(fields[4]), fields[5]);
+				} catch (NumberFormatException e) {
+					throw new IOException(file + ":" + lineNumber + ": " + e.getMessage(), e); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				results.put(result.getKey(), result);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Write results to a file in the format understood by {@link #read(Path)}.
+	 *
+	 * @param file the file to write, replacing any existing content
+	 * @param results the results to write
+	 * @param comment a comment written before the results, or null
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void write(Path file, Collection<BenchmarkResult> results, String comment) throws IOException {
+		Path parent = file.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			if (comment != null) {
+				writer.write("# " + comment); //$NON-NLS-1$
+				writer.newLine();
+			}
+			writer.write(HEADER);
+			writer.newLine();
+			for (BenchmarkResult result : results) {
+				writer.write(result.toString());
+				writer.newLine();
+			}
+		}
+	}
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+package org.openj9.benchmark.jcl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs one benchmark suite and compares the scores against its baseline.
+ * <p>
+ * Usage: <code>BenchmarkRunner &lt;suite&gt; &lt;baselineDir&gt; &lt;resultDir&gt; [JMH options]</code>
+ * <p>
+ * A suite is one of the sub-packages of <code>org.openj9.benchmark.jcl</code>,
+ * such as <code>string</code> or <code>invoke</code>. The scores are written
+ * to <code>&lt;resultDir&gt;/&lt;suite&gt;.txt</code> and compared with
+ * <code>&lt;baselineDir&gt;/&lt;suite&gt;.txt</code>; see {@link BenchmarkResult}
+ * for the file format. The following system properties are recognized:
+ * <ul>
+ * <li><code>jcl.benchmark.threshold</code> - the tolerated slowdown in percent, default 10</li>
+ * <li><code>jcl.benchmark.update</code> - if true, replace the baseline with the new scores</li>
+ * </ul>
+ * The exit status is 0 if there were no regressions, 1 if there were and 2
+ * if the benchmarks could not be run.
+ */
+public final class BenchmarkRunner {
+	private static final String PACKAGE = BenchmarkRunner.class.getPackage().getName();
+
+	private BenchmarkRunner() {
+	}
+
+	/**
+	 * Convert JMH run results to benchmark results.
+	 *
+	 * @param runResults the results returned by the JMH runner
+	 * @return the primary score of each run
+	 */
+	static List<BenchmarkResult> convert(Collection<RunResult> runResults) {
+		List<BenchmarkResult> results = new ArrayList<>(runResults.size());
+		for (RunResult runResult : runResults) {
+			BenchmarkParams params = runResult.getParams();
+			StringBuilder paramText = new StringBuilder();
+			for (String key : params.getParamsKeys()) {
+				if (paramText.length() > 0) {
+					paramText.append(',');
+				}
+				paramText.append(key).append('=').append(params.getParam(key));
+			}
+			Result<?> primary = runResult.getPrimaryResult();
+			results.add(new BenchmarkResult(params.getBenchmark(), paramText.toString(), params.getMode().shortLabel(),
+					primary.getScore(), primary.getScoreError(), primary.getScoreUnit()));
+		}
+		return results;
+	}
+
+	public static void main(String[] args) {
+		if (args.length < 3) {
+			System.err.println("usage: BenchmarkRunner <suite> <baselineDir> <resultDir> [JMH options]"); //$NON-NLS-1$
+			System.exit(2);
+		}
+		String suite = args[0];
+		Path baselineFile = Paths.get(args[1], suite + ".txt"); //$NON-NLS-1$
+		Path resultFile = Paths.get(args[2], suite + ".txt"); //$NON-NLS-1$
+		double thresholdPercent = Double.parseDouble(System.getProperty("jcl.benchmark.threshold", //$NON-NLS-1$
+				String.valueOf(ResultComparator.DEFAULT_THRESHOLD_PERCENT)));
+		boolean update = Boolean.getBoolean("jcl.benchmark.update"); //$NON-NLS-1$
+
+		List<BenchmarkResult> results;
+		try {
+			CommandLineOptions jmhOptions = new CommandLineOptions(Arrays.copyOfRange(args, 3, args.length));
+			Options options = new OptionsBuilder()
+					.parent(jmhOptions)
+					.include('^' + Pattern.quote(PACKAGE + '.' + suite + '.'))
+					.build();
+			results = convert(new Runner(options).run());
+		} catch (CommandLineOptionException | RunnerException e) {
+			e.printStackTrace();
+			System.exit(2);
+			return;
+		}
+		if (results.isEmpty()) {
+			System.err.println("no benchmarks found for suite " + suite); //$NON-NLS-1$
+			System.exit(2);
+		}
+
+		int regressions;
+		try {
+			BenchmarkResult.write(resultFile, results, "suite " + suite + ", " + System.getProperty("java.vm.name") //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					+ ' ' + System.getProperty("java.vm.version")); //$NON-NLS-1$
+			System.out.println();
+			System.out.println("Results written to " + resultFile); //$NON-NLS-1$
+			Map<String, BenchmarkResult> baseline = Files.exists(baselineFile)
+					? BenchmarkResult.read(baselineFile)
+					: Collections.<String, BenchmarkResult>emptyMap();
+			if (baseline.isEmpty()) {
+				System.out.println("No baseline in " + baselineFile + ", regressions cannot be detected"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			Map<String, BenchmarkResult> current = BenchmarkResult.read(resultFile);
+			regressions = new ResultComparator(thresholdPercent, System.out).compare(baseline, current);
+			if (update) {
+				Files.copy(resultFile, baselineFile, StandardCopyOption.REPLACE_EXISTING);
+				System.out.println("Baseline " + baselineFile + " updated"); //$NON-NLS-1$ //$NON-NLS-2$
+				regressions = 0;
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.exit(2);
+			return;
+		}
+		System.exit((regressions == 0) ? 0 : 1);
+	}
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+package org.openj9.benchmark.jcl;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Compares benchmark results against a baseline.
+ * <p>
+ * A result is a regression when it is worse than its baseline by more than
+ * the threshold (a fraction of the baseline score) and the difference is
+ * larger than the sum of both error margins, so noisy benchmarks do not fail
+ * a run on their own. Results without a baseline are reported as new and
+ * never fail.
+ * <p>
+ * Usage: <code>ResultComparator &lt;baseline&gt; &lt;results&gt; [thresholdPercent]</code>.
+ * The exit status is 1 if any regression was found.
+ */
+public final class ResultComparator {
+	/** Default regression threshold, in percent of the baseline score. */
+	public static final double DEFAULT_THRESHOLD_PERCENT = 10;
+
+	private final double threshold;
+	private final PrintStream out;
+
+	/**
+	 * @param thresholdPercent the slowdown, in percent of the baseline score, tolerated before a result is a regression
+	 * @param out where the comparison report is printed
+	 */
+	public ResultComparator(double thresholdPercent, PrintStream out) {
+		if (!(thresholdPercent >= 0)) {
+			throw new IllegalArgumentException("threshold must be a non-negative percentage: " + thresholdPercent); //$NON-NLS-1$
+		}
+		this.threshold = thresholdPercent / 100;
+		this.out = out;
+	}
+
+	/**
+	 * Compare results against a baseline and print one line per result.
+	 *
+	 * @param baseline the baseline results keyed by {@link BenchmarkResult#getKey()}
+	 * @param results the new results keyed by {@link BenchmarkResult#getKey()}
+	 * @return the number of regressions
+	 */
+	public int compare(Map<String, BenchmarkResult> baseline, Map<String, BenchmarkResult> results) {
+		int regressions = 0;
+		int improvements = 0;
+		int unmatched = 0;
+		out.printf("%-11s %8s  %14s %14s  %-8s %s%n", "status", "change", "baseline", "score", "unit", "benchmark"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+		for (BenchmarkResult result : results.values()) {
+			BenchmarkResult base = baseline.get(result.getKey());
+			String name = result.getBenchmark() + ("-".equals(result.getParams()) ? "" : " [" + result.getParams() + "]"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			if ((base == null) || !base.getUnit().equals(result.getUnit())) {
+				unmatched += 1;
+				out.printf("%-11s %8s  %14s %14.3f  %-8s %s%n", "NEW", "", "", result.getScore(), result.getUnit(), name); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+				continue;
+			}
+			double baseScore = base.getScore();
+			double difference = result.getScore() - baseScore;
+			/* positive gain is an improvement, whatever the mode */
+			double gain = result.isHigherBetter() ? difference : -difference;
+			double change = (baseScore == 0) ? 0 : (gain / baseScore);
+			boolean significant = Math.abs(difference) > (base.getError() + result.getError());
+			String status;
+			if (significant && (change < -threshold)) {
+				status = "REGRESSION"; //$NON-NLS-1$
+				regressions += 1;
+			} else if (significant && (change > threshold)) {
+				status = "improved"; //$NON-NLS-1$
+				improvements += 1;
+			} else {
+				status = "ok"; //$NON-NLS-1$
+			}
+			out.printf("%-11s %+7.1f%%  %14.3f %14.3f  %-8s %s%n", status, (change * 100) + 0.0, baseScore, result.getScore(), result.getUnit(), name); //$NON-NLS-1$
+		}
+		out.printf("%d results: %d regressions, %d improvements, %d without baseline (threshold %.1f%%)%n", //$NON-NLS-1$
+				results.size(), regressions, improvements, unmatched, threshold * 100);
+		return regressions;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if ((args.length < 2) || (args.length > 3)) {
+			System.err.println("usage: ResultComparator <baseline> <results> [thresholdPercent]"); //$NON-NLS-1$
+			System.exit(2);
+		}
+		Path baselineFile = Paths.get(args[0]);
+		double thresholdPercent = (args.length > 2) ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+		Map<String, BenchmarkResult> baseline = Files.exists(baselineFile)
+				? BenchmarkResult.read(baselineFile)
+				: Collections.<String, BenchmarkResult>emptyMap();
+		Map<String, BenchmarkResult> results = BenchmarkResult.read(Paths.get(args[1]));
+		int regressions = new ResultComparator(thresholdPercent, System.out).compare(baseline, results);
+		System.exit((regressions == 0) ? 0 : 1);
+	}
+}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+package org.openj9.benchmark.jcl.dataaccess;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.dataaccess.ByteArrayMarshaller;
+import com.ibm.dataaccess.ByteArrayUnmarshaller;
+import com.ibm.dataaccess.DecimalData;
+import com.ibm.dataaccess.PackedDecimal;
+
+/**
+ * com.ibm.dataaccess packed decimal arithmetic and conversions, and binary
+ * marshalling. Many of these methods are recognized by the JIT, so a
+ * regression here can come from the library or from the compiler.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DataAccessBenchmarks {
+	@Param({"9", "18"})
+	public int precision;
+
+	private byte[] op1;
+	private byte[] op2;
+	private byte[] result;
+	private byte[] external;
+	private byte[] binary;
+	private long value;
+	private int[] ints;
+	private long[] longs;
+
+	@Setup
+	public void setup() {
+		int length = (precision / 2) + 1;
+		value = (precision == 9) ? 123456789L : 123456789012345678L;
+		op1 = new byte[length];
+		op2 = new byte[length];
+		/* one extra digit so the sum cannot overflow */
+		result = new byte[((precision + 1) / 2) + 1];
+		external = new byte[precision];
+		binary = new byte[64];
+		ints = new int[binary.length / Integer.BYTES];
+		longs = new long[binary.length / Long.BYTES];
+		DecimalData.convertLongToPackedDecimal(value, op1, 0, precision, true);
+		DecimalData.convertLongToPackedDecimal(-value / 3, op2, 0, precision, true);
+		for (int i = 0; i < binary.length; i++) {
+			binary[i] = (byte)(i * 7);
+		}
+	}
+
+	@Benchmark
+	public byte[] convertLongToPackedDecimal() {
+		DecimalData.convertLongToPackedDecimal(value, op1, 0, precision, true);
+		return op1;
+	}
+
+	@Benchmark
+	public long convertPackedDecimalToLong() {
+		return DecimalData.convertPackedDecimalToLong(op1, 0, precision, true);
+	}
+
+	@Benchmark
+	public byte[] convertPackedDecimalToExternalDecimal() {
+		DecimalData.convertPackedDecimalToExternalDecimal(op1, 0, external, 0, precision, DecimalData.EBCDIC_SIGN_EMBEDDED_TRAILING);
+		return external;
+	}
+
+	@Benchmark
+	public int checkPackedDecimal() {
+		return PackedDecimal.checkPackedDecimal(op1, 0, precision, false, false);
+	}
+
+	@Benchmark
+	public byte[] addPackedDecimal() {
+		PackedDecimal.addPackedDecimal(result, 0, precision + 1, op1, 0, precision, op2, 0, precision, true);
+		return result;
+	}
+
+	@Benchmark
+	public byte[] subtractPackedDecimal() {
+		PackedDecimal.subtractPackedDecimal(result, 0, precision + 1, op1, 0, precision, op2, 0, precision, true);
+		return result;
+	}
+
+	@Benchmark
+	public boolean lessThanPackedDecimal() {
+		return PackedDecimal.lessThanPackedDecimal(op1, 0, precision, op2, 0, precision);
+	}
+
+	@Benchmark
+	public long readIntsAndLongs() {
+		long sum = 0;
+		for (int i = 0; i < binary.length; i += Long.BYTES) {
+			sum += ByteArrayUnmarshaller.readLong(binary, i, true);
+			sum += ByteArrayUnmarshaller.readInt(binary, i, false);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public byte[] writeIntsAndLongs() {
+		for (int i = 0; i < binary.length; i += Long.BYTES) {
+			ByteArrayMarshaller.writeLong(value + i, binary, i, true);
+			ByteArrayMarshaller.writeInt(i, binary, i, false);
+		}
+		return binary;
+	}
+
+	@Benchmark
+	public int[] readIntsBulk() {
+		ByteArrayUnmarshaller.readInts(binary, 0, ints, 0, ints.length, true);
+		return ints;
+	}
+
+	@Benchmark
+	public byte[] writeLongsBulk() {
+		ByteArrayMarshaller.writeLongs(longs, 0, longs.length, binary, 0, false);
+		return binary;
+	}
+}
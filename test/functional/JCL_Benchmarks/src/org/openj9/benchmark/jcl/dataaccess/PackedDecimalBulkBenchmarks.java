@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+package org.openj9.benchmark.jcl.dataaccess;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.dataaccess.DecimalData;
+import com.ibm.dataaccess.PackedDecimal;
+
+/**
+ * Strided packed decimal operations over an array of fixed-length records,
+ * each bulk operation paired with the loop of scalar calls it replaces. The
+ * direct buffer variants read the same records in place, as from a file
+ * mapped with FileChannel.map, and are paired with copying the records to
+ * the heap first.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PackedDecimalBulkBenchmarks {
+	/* the packed decimal field sits after a 4 byte key in each record */
+	private static final int FIELD_OFFSET = 4;
+
+	@Param({"9", "18"})
+	public int precision;
+
+	@Param({"1024"})
+	public int records;
+
+	private int stride;
+	private byte[] data;
+	private ByteBuffer direct;
+	private byte[] copy;
+	private long[] values;
+	private int[] comparisons;
+	private byte[] operand;
+	private byte[] sum;
+	private byte[] partialSum;
+	private int sumPrecision;
+
+	@Setup
+	public void setup() {
+		stride = FIELD_OFFSET + (precision / 2) + 1 + 8;
+		data = new byte[records * stride];
+		values = new long[records];
+		comparisons = new int[records];
+		long max = (precision == 9) ? 999999999L : 999999999999999999L;
+		for (int i = 0; i < records; i++) {
+			values[i] = ((i * 7919L) % records) * (max / records) - (max / 2);
+		}
+		DecimalData.convertLongsToPackedDecimals(values, 0, data, FIELD_OFFSET, stride, precision, records, true);
+		direct = ByteBuffer.allocateDirect(data.length);
+		direct.put(data).clear();
+		copy = new byte[data.length];
+		operand = new byte[(precision / 2) + 1];
+		DecimalData.convertLongToPackedDecimal(values[records / 2], operand, 0, precision, true);
+		/* room for the sum of all the records */
+		sumPrecision = precision + 5;
+		sum = new byte[(sumPrecision / 2) + 1];
+		partialSum = new byte[sum.length];
+	}
+
+	@Benchmark
+	public long[] convertToLongsScalar() {
+		for (int i = 0, offset = FIELD_OFFSET; i < records; i++, offset += stride) {
+			values[i] = DecimalData.convertPackedDecimalToLong(data, offset, precision, false);
+		}
+		return values;
+	}
+
+	@Benchmark
+	public long[] convertToLongsBulk() {
+		DecimalData.convertPackedDecimalsToLongs(data, FIELD_OFFSET, stride, precision, values, 0, records);
+		return values;
+	}
+
+	@Benchmark
+	public byte[] convertFromLongsScalar() {
+		for (int i = 0, offset = FIELD_OFFSET; i < records; i++, offset += stride) {
+			DecimalData.convertLongToPackedDecimal(values[i], data, offset, precision, true);
+		}
+		return data;
+	}
+
+	@Benchmark
+	public byte[] convertFromLongsBulk() {
+		DecimalData.convertLongsToPackedDecimals(values, 0, data, FIELD_OFFSET, stride, precision, records, true);
+		return data;
+	}
+
+	@Benchmark
+	public byte[] sumScalar() {
+		byte[] total = sum;
+		byte[] next = partialSum;
+		PackedDecimal.setPackedZero(total, 0, sumPrecision);
+		for (int i = 0, offset = FIELD_OFFSET; i < records; i++, offset += stride) {
+			PackedDecimal.addPackedDecimal(next, 0, sumPrecision, total, 0, sumPrecision, data, offset, precision, true);
+			byte[] swap = total;
+			total = next;
+			next = swap;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public byte[] sumBulk() {
+		PackedDecimal.sumPackedDecimals(sum, 0, sumPrecision, data, FIELD_OFFSET, stride, precision, records, true);
+		return sum;
+	}
+
+	@Benchmark
+	public int[] compareScalar() {
+		for (int i = 0, offset = FIELD_OFFSET; i < records; i++, offset += stride) {
+			if (PackedDecimal.lessThanPackedDecimal(data, offset, precision, operand, 0, precision)) {
+				comparisons[i] = -1;
+			} else if (PackedDecimal.equalsPackedDecimal(data, offset, precision, operand, 0, precision)) {
+				comparisons[i] = 0;
+			} else {
+				comparisons[i] = 1;
+			}
+		}
+		return comparisons;
+	}
+
+	@Benchmark
+	public int[] compareBulk() {
+		PackedDecimal.comparePackedDecimals(data, FIELD_OFFSET, stride, precision, operand, 0, precision, comparisons, 0, records);
+		return comparisons;
+	}
+
+	@Benchmark
+	public long[] convertToLongsDirectCopied() {
+		direct.get(copy, 0, copy.length).clear();
+		DecimalData.convertPackedDecimalsToLongs(copy, FIELD_OFFSET, stride, precision, values, 0, records);
+		return values;
+	}
+
+	@Benchmark
+	public long[] convertToLongsDirect() {
+		DecimalData.convertPackedDecimalsToLongs(direct, FIELD_OFFSET, stride, precision, values, 0, records);
+		return values;
+	}
+
+	@Benchmark
+	public byte[] sumDirect() {
+		PackedDecimal.sumPackedDecimals(sum, 0, sumPrecision, direct, FIELD_OFFSET, stride, precision, records, true);
+		return sum;
+	}
+
+	@Benchmark
+	public int[] compareDirect() {
+		PackedDecimal.comparePackedDecimals(direct, FIELD_OFFSET, stride, precision, operand, 0, precision, comparisons, 0, records);
+		return comparisons;
+	}
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+
+package org.openj9.benchmark.jcl.dataaccess;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.dataaccess.ByteArrayUnmarshaller;
+import com.ibm.dataaccess.DecimalData;
+import com.ibm.dataaccess.RecordLayout;
+
+/**
+ * Decoding fixed-length records with a RecordLayout, paired with the per-field
+ * calls it replaces.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RecordLayoutBenchmarks {
+	@Param({"1024"})
+	public int records;
+
+	private RecordLayout layout;
+	private byte[] data;
+	private long[][] columns;
+
+	@Setup
+	public void setup() {
+		/* key, two amounts, a quantity and a name */
+		layout = RecordLayout.builder()
+				.binaryInt(true, true)
+				.packedDecimal(9)
+				.packedDecimal(15)
+				.externalDecimal(5, DecimalData.EBCDIC_SIGN_EMBEDDED_TRAILING)
+				.skip(20)
+				.build();
+		data = new byte[records * layout.getRecordLength()];
+		columns = layout.newColumns(records);
+		for (int i = 0; i < records; i++) {
+			columns[0][i] = i;
+			columns[1][i] = (i * 7919L) % 999999999L - 500000;
+			columns[2][i] = (i * 104729L) * 1000;
+			columns[3][i] = i % 99999;
+		}
+		layout.encode(columns, 0, data, 0, records, true);
+	}
+
+	@Benchmark
+	public long[][] decodePerField() {
+		int recordLength = layout.getRecordLength();
+		int offset1 = layout.getFieldOffset(1);
+		int offset2 = layout.getFieldOffset(2);
+		int offset3 = layout.getFieldOffset(3);
+		for (int i = 0, offset = 0; i < records; i++, offset += recordLength) {
+			columns[0][i] = ByteArrayUnmarshaller.readInt(data, offset, true);
+			columns[1][i] = DecimalData.convertPackedDecimalToLong(data, offset + offset1, 9, false);
+			columns[2][i] = DecimalData.convertPackedDecimalToLong(data, offset + offset2, 15, false);
+			columns[3][i] = DecimalData.convertExternalDecimalToLong(data, offset + offset3, 5, false, DecimalData.EBCDIC_SIGN_EMBEDDED_TRAILING);
+		}
+		return columns;
+	}
+
+	@Benchmark
+	public long[][] decodeLayout() {
+		layout.decode(data, 0, records, columns, 0);
+		return columns;
+	}
+
+	@Benchmark
+	public byte[] encodeLayout() {
+		layout.encode(columns, 0, data, 0, records, true);
+		return data;
+	}
+}
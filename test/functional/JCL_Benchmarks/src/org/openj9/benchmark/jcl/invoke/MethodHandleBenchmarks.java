@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+package org.openj9.benchmark.jcl.invoke;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * java.lang.invoke.MethodHandle lookup, MethodType interning and invocation.
+ * The lookup benchmarks measure the cached paths, as every lookup after the
+ * first one finds the handle or type already created.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MethodHandleBenchmarks {
+	private static final MethodHandle STATIC_ADD;
+	private static final MethodHandle VIRTUAL_LENGTH;
+
+	static {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			STATIC_ADD = lookup.findStatic(MethodHandleBenchmarks.class, "add", MethodType.methodType(int.class, int.class, int.class)); //$NON-NLS-1$
+			VIRTUAL_LENGTH = lookup.findVirtual(String.class, "length", MethodType.methodType(int.class)); //$NON-NLS-1$
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private MethodHandles.Lookup lookup;
+	private MethodHandle nonConstantAdd;
+	private String receiver;
+	private int value;
+
+	static int add(int a, int b) {
+		return a + b;
+	}
+
+	@Setup
+	public void setup() {
+		lookup = MethodHandles.lookup();
+		nonConstantAdd = STATIC_ADD;
+		receiver = "receiver"; //$NON-NLS-1$
+		value = 42;
+	}
+
+	@Benchmark
+	public MethodType methodType() {
+		return MethodType.methodType(int.class, String.class, long.class);
+	}
+
+	@Benchmark
+	public MethodType methodTypeChange() {
+		return MethodType.methodType(int.class, int.class, int.class).changeReturnType(long.class);
+	}
+
+	@Benchmark
+	public MethodHandle findVirtual() throws ReflectiveOperationException {
+		return lookup.findVirtual(String.class, "length", MethodType.methodType(int.class)); //$NON-NLS-1$
+	}
+
+	@Benchmark
+	public MethodHandle findStatic() throws ReflectiveOperationException {
+		return lookup.findStatic(MethodHandleBenchmarks.class, "add", MethodType.methodType(int.class, int.class, int.class)); //$NON-NLS-1$
+	}
+
+	@Benchmark
+	public int invokeExactStatic() throws Throwable {
+		return (int)STATIC_ADD.invokeExact(value, value);
+	}
+
+	@Benchmark
+	public int invokeExactVirtual() throws Throwable {
+		return (int)VIRTUAL_LENGTH.invokeExact(receiver);
+	}
+
+	@Benchmark
+	public int invokeExactNonConstant() throws Throwable {
+		return (int)nonConstantAdd.invokeExact(value, value);
+	}
+
+	@Benchmark
+	public Object invokeGeneric() throws Throwable {
+		/* boxes the arguments and result, so asType adaptation is on the path */
+		return nonConstantAdd.invoke((Object)Integer.valueOf(value), (Object)Integer.valueOf(value));
+	}
+}
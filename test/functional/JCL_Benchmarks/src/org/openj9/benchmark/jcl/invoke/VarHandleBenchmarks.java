@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+package org.openj9.benchmark.jcl.invoke;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * java.lang.invoke.VarHandle access to array elements and to byte[] and
+ * ByteBuffer views. Each benchmark walks the whole array so the cost per
+ * element, including bounds and alignment checks, dominates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VarHandleBenchmarks {
+	private static final int LENGTH = 1024;
+
+	private static final VarHandle INT_ARRAY = MethodHandles.arrayElementVarHandle(int[].class);
+	private static final VarHandle OBJECT_ARRAY = MethodHandles.arrayElementVarHandle(Object[].class);
+	private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+	private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+	private static final VarHandle INT_BE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+	private static final VarHandle BUFFER_LONG_LE = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+	private int[] ints;
+	private Object[] objects;
+	private byte[] bytes;
+	private ByteBuffer heapBuffer;
+	private ByteBuffer directBuffer;
+
+	@Setup
+	public void setup() {
+		ints = new int[LENGTH];
+		objects = new Object[LENGTH];
+		bytes = new byte[LENGTH * Long.BYTES];
+		for (int i = 0; i < LENGTH; i++) {
+			ints[i] = i;
+			objects[i] = Integer.valueOf(i);
+		}
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte)i;
+		}
+		heapBuffer = ByteBuffer.wrap(bytes);
+		directBuffer = ByteBuffer.allocateDirect(bytes.length);
+		directBuffer.put(bytes).clear();
+	}
+
+	@Benchmark
+	public int intArrayGet() {
+		int sum = 0;
+		for (int i = 0; i < LENGTH; i++) {
+			sum += (int)INT_ARRAY.get(ints, i);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public int[] intArraySet() {
+		for (int i = 0; i < LENGTH; i++) {
+			INT_ARRAY.set(ints, i, i);
+		}
+		return ints;
+	}
+
+	@Benchmark
+	public int intArrayGetVolatile() {
+		int sum = 0;
+		for (int i = 0; i < LENGTH; i++) {
+			sum += (int)INT_ARRAY.getVolatile(ints, i);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public int intArrayCompareAndSet() {
+		int swapped = 0;
+		for (int i = 0; i < LENGTH; i++) {
+			if (INT_ARRAY.compareAndSet(ints, i, i, i)) {
+				swapped += 1;
+			}
+		}
+		return swapped;
+	}
+
+	@Benchmark
+	public int intArrayGetAndAdd() {
+		int sum = 0;
+		for (int i = 0; i < LENGTH; i++) {
+			sum += (int)INT_ARRAY.getAndAdd(ints, i, 0);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public Object[] objectArraySet() {
+		/* storing a reference includes the array store check */
+		for (int i = 0; i < LENGTH; i++) {
+			OBJECT_ARRAY.set(objects, i, objects[LENGTH - 1 - i]);
+		}
+		return objects;
+	}
+
+	@Benchmark
+	public long byteArrayViewGetLongLE() {
+		long sum = 0;
+		for (int i = 0; i < bytes.length; i += Long.BYTES) {
+			sum += (long)LONG_LE.get(bytes, i);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long byteArrayViewGetLongBE() {
+		long sum = 0;
+		for (int i = 0; i < bytes.length; i += Long.BYTES) {
+			sum += (long)LONG_BE.get(bytes, i);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long byteArrayViewGetLongUnaligned() {
+		long sum = 0;
+		for (int i = 1; i < (bytes.length - Long.BYTES); i += Long.BYTES) {
+			sum += (long)LONG_LE.get(bytes, i);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public byte[] byteArrayViewSetLongBE() {
+		for (int i = 0; i < bytes.length; i += Long.BYTES) {
+			LONG_BE.set(bytes, i, (long)i);
+		}
+		return bytes;
+	}
+
+	@Benchmark
+	public int byteArrayViewGetIntBE() {
+		int sum = 0;
+		for (int i = 0; i < bytes.length; i += Integer.BYTES) {
+			sum += (int)INT_BE.get(bytes, i);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long byteArrayViewGetLongVolatile() {
+		long sum = 0;
+		for (int i = 0; i < bytes.length; i += Long.BYTES) {
+			sum += (long)LONG_LE.getVolatile(bytes, i);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long heapByteBufferViewGetLong() {
+		long sum = 0;
+		for (int i = 0; i < bytes.length; i += Long.BYTES) {
+			sum += (long)BUFFER_LONG_LE.get(heapBuffer, i);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long directByteBufferViewGetLong() {
+		long sum = 0;
+		for (int i = 0; i < bytes.length; i += Long.BYTES) {
+			sum += (long)BUFFER_LONG_LE.get(directBuffer, i);
+		}
+		return sum;
+	}
+}
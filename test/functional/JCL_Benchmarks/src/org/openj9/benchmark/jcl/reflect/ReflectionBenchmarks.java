@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+package org.openj9.benchmark.jcl.reflect;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * java.lang.Class reflection queries. The reflection cache is enabled by
+ * default, so these measure the cached paths: the lookup, and the copy of
+ * the cached member objects handed back to the caller.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReflectionBenchmarks {
+	/* a class loaded by the application class loader, with a typical number of members */
+	public static class Target {
+		public int field0;
+		public int field1;
+		public long field2;
+		public long field3;
+		public String field4;
+		public String field5;
+		protected Object field6;
+		private Object field7;
+
+		public Target() {
+		}
+
+		public Target(int value) {
+			field0 = value;
+		}
+
+		public int method0() {
+			return field0;
+		}
+
+		public long method1(long value) {
+			return field2 + value;
+		}
+
+		public String method2(String value) {
+			return field4 + value;
+		}
+
+		protected Object method3() {
+			return field6;
+		}
+
+		private Object method4() {
+			return field7;
+		}
+
+		@Override
+		public String toString() {
+			return field5;
+		}
+	}
+
+	private Class<?> targetClass;
+	private Class<?> systemClass;
+
+	@Setup
+	public void setup() {
+		targetClass = Target.class;
+		systemClass = String.class;
+	}
+
+	@Benchmark
+	public Field[] getDeclaredFields() {
+		return targetClass.getDeclaredFields();
+	}
+
+	@Benchmark
+	public Method[] getDeclaredMethods() {
+		return targetClass.getDeclaredMethods();
+	}
+
+	@Benchmark
+	public Method[] getMethods() {
+		return targetClass.getMethods();
+	}
+
+	@Benchmark
+	public Field getDeclaredField() throws NoSuchFieldException {
+		return targetClass.getDeclaredField("field5"); //$NON-NLS-1$
+	}
+
+	@Benchmark
+	public Method getMethod() throws NoSuchMethodException {
+		return targetClass.getMethod("method1", long.class); //$NON-NLS-1$
+	}
+
+	@Benchmark
+	public Method getInheritedMethod() throws NoSuchMethodException {
+		return targetClass.getMethod("hashCode"); //$NON-NLS-1$
+	}
+
+	@Benchmark
+	public Constructor<?> getConstructor() throws NoSuchMethodException {
+		return targetClass.getConstructor(int.class);
+	}
+
+	@Benchmark
+	public Method[] systemClassGetDeclaredMethods() {
+		return systemClass.getDeclaredMethods();
+	}
+
+	@Benchmark
+	public Method systemClassGetMethod() throws NoSuchMethodException {
+		return systemClass.getMethod("regionMatches", int.class, String.class, int.class, int.class); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+package org.openj9.benchmark.jcl.string;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * java.lang.String operations on Latin1 and UTF16 content. With compact
+ * strings the Latin1 case exercises compression and the byte[] kernels, the
+ * UTF16 case the fallback to two byte characters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StringBenchmarks {
+	@Param({"16", "256", "4096", "65536"})
+	public int length;
+
+	@Param({"latin1", "utf16"})
+	public String content;
+
+	private char[] chars;
+	private String string;
+	private String copy;
+	private String upperCase;
+	private String needle;
+	private char last;
+
+	@Setup
+	public void setup() {
+		/* the UTF16 content has a single character outside Latin1 at the start, so every kernel still sees it */
+		chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = (char)('a' + (i % 26));
+		}
+		if ("utf16".equals(content)) { //$NON-NLS-1$
+			chars[0] = '\u0100';
+		}
+		last = chars[length - 1] = '#';
+		string = new String(chars);
+		copy = new String(chars);
+		upperCase = string.toUpperCase();
+		needle = string.substring(length - Math.min(length, 8));
+	}
+
+	@Benchmark
+	public String newStringFromChars() {
+		return new String(chars);
+	}
+
+	@Benchmark
+	public char[] toCharArray() {
+		return string.toCharArray();
+	}
+
+	@Benchmark
+	public int newStringHashCode() {
+		/* the hash is cached in the String, so it has to be computed on a fresh instance */
+		return new String(chars).hashCode();
+	}
+
+	@Benchmark
+	public boolean equals() {
+		return string.equals(copy);
+	}
+
+	@Benchmark
+	public boolean equalsIgnoreCase() {
+		return string.equalsIgnoreCase(upperCase);
+	}
+
+	@Benchmark
+	public int indexOfChar() {
+		return string.indexOf(last);
+	}
+
+	@Benchmark
+	public int indexOfString() {
+		return string.indexOf(needle);
+	}
+
+	@Benchmark
+	public String toLowerCase() {
+		return upperCase.toLowerCase();
+	}
+
+	@Benchmark
+	public byte[] getBytesUTF8() {
+		return string.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public String concat() {
+		return string.concat(copy);
+	}
+}
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+package org.openj9.benchmark.jcl.string;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building strings with java.lang.StringBuilder and StringBuffer, starting
+ * from the default capacity so growth is part of the measurement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StringBuilderBenchmarks {
+	@Param({"8", "128"})
+	public int count;
+
+	private String word;
+	private String nonLatin1Word;
+
+	@Setup
+	public void setup() {
+		word = "benchmark"; //$NON-NLS-1$
+		nonLatin1Word = "benchmar\u0101"; //$NON-NLS-1$
+	}
+
+	@Benchmark
+	public String appendInt() {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			builder.append(i * 1000003);
+		}
+		return builder.toString();
+	}
+
+	@Benchmark
+	public String appendLong() {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			builder.append(i * 1000000007L * 1000003L);
+		}
+		return builder.toString();
+	}
+
+	@Benchmark
+	public String appendDouble() {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			builder.append(i * 0.37);
+		}
+		return builder.toString();
+	}
+
+	@Benchmark
+	public String appendString() {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			builder.append(word);
+		}
+		return builder.toString();
+	}
+
+	@Benchmark
+	public String appendStringInflate() {
+		/* the last append forces the Latin1 contents to be inflated */
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			builder.append(word);
+		}
+		builder.append(nonLatin1Word);
+		return builder.toString();
+	}
+
+	@Benchmark
+	public String appendChar() {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			builder.append((char)('a' + (i & 15)));
+		}
+		return builder.toString();
+	}
+
+	@Benchmark
+	public String stringBufferAppendInt() {
+		StringBuffer buffer = new StringBuffer();
+		for (int i = 0; i < count; i++) {
+			buffer.append(i * 1000003);
+		}
+		return buffer.toString();
+	}
+
+	@Benchmark
+	public String stringBufferAppendString() {
+		StringBuffer buffer = new StringBuffer();
+		for (int i = 0; i < count; i++) {
+			buffer.append(word);
+		}
+		return buffer.toString();
+	}
+}
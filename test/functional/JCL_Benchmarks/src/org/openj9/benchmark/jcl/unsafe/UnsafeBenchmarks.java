@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+package org.openj9.benchmark.jcl.unsafe;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sun.misc.Unsafe;
+
+/**
+ * sun.misc.Unsafe heap, off-heap and atomic accesses, which the class
+ * library itself relies on for its array kernels and atomics.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UnsafeBenchmarks {
+	private static final int LENGTH = 1024;
+	private static final Unsafe UNSAFE;
+	private static final long BYTE_ARRAY_BASE;
+	private static final long VALUE_OFFSET;
+
+	static {
+		try {
+			Field field = Unsafe.class.getDeclaredField("theUnsafe"); //$NON-NLS-1$
+			field.setAccessible(true);
+			UNSAFE = (Unsafe)field.get(null);
+			BYTE_ARRAY_BASE = UNSAFE.arrayBaseOffset(byte[].class);
+			VALUE_OFFSET = UNSAFE.objectFieldOffset(UnsafeBenchmarks.class.getDeclaredField("value")); //$NON-NLS-1$
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private byte[] bytes;
+	private byte[] copy;
+	private long address;
+	private volatile int value;
+
+	@Setup
+	public void setup() {
+		bytes = new byte[LENGTH * Long.BYTES];
+		copy = new byte[bytes.length];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte)i;
+		}
+		address = UNSAFE.allocateMemory(bytes.length);
+		UNSAFE.copyMemory(bytes, BYTE_ARRAY_BASE, null, address, bytes.length);
+	}
+
+	@TearDown
+	public void tearDown() {
+		UNSAFE.freeMemory(address);
+	}
+
+	@Benchmark
+	public long getLongHeap() {
+		long sum = 0;
+		for (int i = 0; i < bytes.length; i += Long.BYTES) {
+			sum += UNSAFE.getLong(bytes, BYTE_ARRAY_BASE + i);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public byte[] putLongHeap() {
+		for (int i = 0; i < bytes.length; i += Long.BYTES) {
+			UNSAFE.putLong(bytes, BYTE_ARRAY_BASE + i, i);
+		}
+		return bytes;
+	}
+
+	@Benchmark
+	public long getLongOffHeap() {
+		long sum = 0;
+		for (int i = 0; i < bytes.length; i += Long.BYTES) {
+			sum += UNSAFE.getLong(address + i);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long putLongOffHeap() {
+		for (int i = 0; i < bytes.length; i += Long.BYTES) {
+			UNSAFE.putLong(address + i, i);
+		}
+		return address;
+	}
+
+	@Benchmark
+	public byte[] copyMemoryHeap() {
+		UNSAFE.copyMemory(bytes, BYTE_ARRAY_BASE, copy, BYTE_ARRAY_BASE, bytes.length);
+		return copy;
+	}
+
+	@Benchmark
+	public byte[] copyMemoryOffHeapToHeap() {
+		UNSAFE.copyMemory(null, address, copy, BYTE_ARRAY_BASE, bytes.length);
+		return copy;
+	}
+
+	@Benchmark
+	public int getIntVolatile() {
+		return UNSAFE.getIntVolatile(this, VALUE_OFFSET);
+	}
+
+	@Benchmark
+	public boolean compareAndSwapInt() {
+		int current = value;
+		return UNSAFE.compareAndSwapInt(this, VALUE_OFFSET, current, current + 1);
+	}
+
+	@Benchmark
+	public int getAndAddInt() {
+		return UNSAFE.getAndAddInt(this, VALUE_OFFSET, 1);
+	}
+}
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+package org.openj9.test.java.lang.management;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.ibm.lang.management.ClassLoadingLockMXBean;
+import com.ibm.lang.management.ClassLoadingLockUsage;
+
+/**
+ * Tests that com.ibm.lang.management.ClassLoadingLockMXBean reports waits for class loading
+ * locks held by other threads, and nothing for uncontended or reentrant acquisitions.
+ */
+@Test(groups = { "level.sanity" })
+public class TestClassLoadingLockMXBean {
+	private static final String MISSING_CLASS = "org.openj9.test.java.lang.management.MissingClass";
+
+	private ClassLoadingLockMXBean cllBean;
+
+	@BeforeClass
+	public void setUp() throws Exception {
+		ObjectName mxbeanName = new ObjectName("com.ibm.lang.management:type=ClassLoadingLock");
+		MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+		Assert.assertTrue(mbeanServer.isRegistered(mxbeanName), "ClassLoadingLockMXBean is not registered");
+		cllBean = JMX.newMXBeanProxy(mbeanServer, mxbeanName, ClassLoadingLockMXBean.class);
+	}
+
+	private ClassLoadingLockUsage findUsage(ClassLoader loader) {
+		String name = loader.getClass().getName() + '@' + Integer.toHexString(System.identityHashCode(loader));
+		for (ClassLoadingLockUsage usage : cllBean.getClassLoadingLockUsage()) {
+			if (name.equals(usage.getName())) {
+				return usage;
+			}
+		}
+		return null;
+	}
+
+	private static void loadMissingClass(ClassLoader loader, String name) {
+		try {
+			loader.loadClass(name);
+			Assert.fail("loaded " + name);
+		} catch (ClassNotFoundException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testUncontended() {
+		BlockingLoader loader = new BlockingLoader();
+		for (int i = 0; i < 1000; i++) {
+			loadMissingClass(loader, MISSING_CLASS + i);
+		}
+		Assert.assertNull(findUsage(loader), "uncontended class loading reported as contended");
+	}
+
+	@Test
+	public void testReentrant() {
+		ReentrantLoader loader = new ReentrantLoader();
+		for (int i = 0; i < 1000; i++) {
+			loadMissingClass(loader, MISSING_CLASS + i);
+		}
+		Assert.assertNull(findUsage(loader), "reentrant class loading reported as contended");
+	}
+
+	@Test
+	public void testContended() throws Exception {
+		final BlockingLoader loader = new BlockingLoader();
+		Thread holder = new Thread(() -> loadMissingClass(loader, BlockingLoader.BLOCKING_CLASS));
+		Thread waiter = new Thread(() -> loadMissingClass(loader, BlockingLoader.BLOCKING_CLASS));
+		holder.start();
+		try {
+			loader.entered.await();
+			waiter.start();
+			long deadline = System.currentTimeMillis() + 60000;
+			while ((Thread.State.BLOCKED != waiter.getState()) && (System.currentTimeMillis() < deadline)) {
+				Thread.sleep(10);
+			}
+			Assert.assertEquals(waiter.getState(), Thread.State.BLOCKED, "second thread did not wait for the class loading lock");
+		} finally {
+			loader.release.countDown();
+			holder.join();
+			waiter.join();
+		}
+		ClassLoadingLockUsage usage = findUsage(loader);
+		Assert.assertNotNull(usage, "contended class loading not reported");
+		Assert.assertEquals(usage.getWaitCount(), 1);
+		Assert.assertTrue(usage.getWaitTime() > 0, usage.toString());
+		Assert.assertTrue(cllBean.getTotalWaitCount() >= usage.getWaitCount());
+		Assert.assertTrue(cllBean.getTotalWaitTime() >= usage.getWaitTime());
+	}
+
+	/**
+	 * Parallel capable, so each class name has its own lock. Loading BLOCKING_CLASS waits
+	 * in findClass() until released.
+	 */
+	static final class BlockingLoader extends ClassLoader {
+		static final String BLOCKING_CLASS = "org.openj9.test.java.lang.management.BlockingClass";
+
+		static {
+			registerAsParallelCapable();
+		}
+
+		final CountDownLatch entered = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+
+		BlockingLoader() {
+			super(null);
+		}
+
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException {
+			if (BLOCKING_CLASS.equals(name)) {
+				entered.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					// give up
+				}
+			}
+			throw new ClassNotFoundException(name);
+		}
+	}
+
+	/**
+	 * Not parallel capable, so the loader is the class loading lock. Finding a class
+	 * loads another class, which takes the lock again on the same thread.
+	 */
+	static final class ReentrantLoader extends ClassLoader {
+		ReentrantLoader() {
+			super(null);
+		}
+
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException {
+			if (!name.endsWith("$Nested")) {
+				loadMissingClass(this, name + "$Nested");
+			}
+			throw new ClassNotFoundException(name);
+		}
+	}
+}
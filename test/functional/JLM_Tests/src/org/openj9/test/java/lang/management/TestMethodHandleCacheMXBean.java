@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+package org.openj9.test.java.lang.management;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.ibm.lang.management.MethodHandleCacheMXBean;
+import com.ibm.lang.management.MethodHandleCacheUsage;
+
+/**
+ * Tests the MethodHandles.Lookup caches through com.ibm.lang.management.MethodHandleCacheMXBean.
+ */
+@Test(groups = { "level.sanity" })
+public class TestMethodHandleCacheMXBean {
+	private static final MethodType INT_TO_INT = MethodType.methodType(int.class, int.class);
+
+	private MethodHandleCacheMXBean mhcBean;
+	private boolean statisticsEnabled;
+
+	@BeforeClass
+	public void setUp() throws Exception {
+		ObjectName mxbeanName = new ObjectName("com.ibm.lang.management:type=MethodHandleCache");
+		MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+		Assert.assertTrue(mbeanServer.isRegistered(mxbeanName), "MethodHandleCacheMXBean is not registered");
+		mhcBean = JMX.newMXBeanProxy(mbeanServer, mxbeanName, MethodHandleCacheMXBean.class);
+		if (0 == mhcBean.getMethodHandleCacheUsage().length) {
+			throw new SkipException("the method handle implementation does not use the lookup caches");
+		}
+		statisticsEnabled = mhcBean.isStatisticsEnabled();
+	}
+
+	@AfterMethod
+	public void restoreStatistics() {
+		mhcBean.setStatisticsEnabled(statisticsEnabled);
+	}
+
+	public static int increment(int value) {
+		return value + 1;
+	}
+
+	public static int decrement(int value) {
+		return value - 1;
+	}
+
+	public static int negate(int value) {
+		return -value;
+	}
+
+	private MethodHandleCacheUsage findUsage(String name) {
+		for (MethodHandleCacheUsage usage : mhcBean.getMethodHandleCacheUsage()) {
+			if (name.equals(usage.getName())) {
+				return usage;
+			}
+		}
+		Assert.fail("cache not reported: " + name);
+		return null;
+	}
+
+	@Test
+	public void testCacheNames() {
+		String[] expected = { "findVirtual", "findStatic", "findSpecial", "findConstructor",
+				"findGetter", "findSetter", "findStaticGetter", "findStaticSetter" };
+		for (String name : expected) {
+			MethodHandleCacheUsage usage = findUsage(name);
+			Assert.assertTrue(usage.getEntryCount() >= 0, usage.toString());
+		}
+		Assert.assertEquals(mhcBean.getMethodHandleCacheUsage().length, expected.length);
+	}
+
+	@Test
+	public void testHitAndMissCounts() throws Throwable {
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		mhcBean.setStatisticsEnabled(true);
+		Assert.assertTrue(mhcBean.isStatisticsEnabled());
+
+		MethodHandleCacheUsage before = findUsage("findStatic");
+		MethodHandle first = lookup.findStatic(TestMethodHandleCacheMXBean.class, "decrement", INT_TO_INT);
+		MethodHandleCacheUsage afterMiss = findUsage("findStatic");
+		Assert.assertEquals(afterMiss.getMissCount(), before.getMissCount() + 1, "first lookup not counted as a miss");
+		Assert.assertEquals(afterMiss.getHitCount(), before.getHitCount(), "first lookup counted as a hit");
+		Assert.assertEquals(afterMiss.getEntryCount(), before.getEntryCount() + 1, "handle not cached");
+
+		MethodHandle second = lookup.findStatic(TestMethodHandleCacheMXBean.class, "decrement", INT_TO_INT);
+		MethodHandleCacheUsage afterHit = findUsage("findStatic");
+		Assert.assertSame(second, first, "cached handle not returned");
+		Assert.assertEquals(afterHit.getHitCount(), afterMiss.getHitCount() + 1, "second lookup not counted as a hit");
+		Assert.assertEquals(afterHit.getMissCount(), afterMiss.getMissCount(), "second lookup counted as a miss");
+		Assert.assertEquals(afterHit.getEntryCount(), afterMiss.getEntryCount(), "handle cached twice");
+		Assert.assertEquals((int) second.invokeExact(1), 0);
+
+		mhcBean.setStatisticsEnabled(false);
+		Assert.assertFalse(mhcBean.isStatisticsEnabled());
+		lookup.findStatic(TestMethodHandleCacheMXBean.class, "decrement", INT_TO_INT);
+		MethodHandleCacheUsage disabled = findUsage("findStatic");
+		Assert.assertEquals(disabled.getHitCount(), afterHit.getHitCount(), "hit counted while statistics are disabled");
+		Assert.assertEquals(disabled.getMissCount(), afterHit.getMissCount(), "miss counted while statistics are disabled");
+
+		Assert.assertTrue(mhcBean.getTotalHitCount() >= afterHit.getHitCount());
+		Assert.assertTrue(mhcBean.getTotalMissCount() >= afterHit.getMissCount());
+		Assert.assertTrue(mhcBean.getTotalEntryCount() >= afterHit.getEntryCount());
+	}
+
+	@Test
+	public void testConcurrentLookup() throws Throwable {
+		final int threadCount = 8;
+		final int lookups = 1000;
+		final MethodHandles.Lookup lookup = MethodHandles.lookup();
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		final MethodHandle[] handles = new MethodHandle[threadCount];
+		long entriesBefore = findUsage("findStatic").getEntryCount();
+		Thread[] threads = new Thread[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			final int index = i;
+			threads[i] = new Thread(() -> {
+				try {
+					start.await();
+					for (int j = 0; j < lookups; j++) {
+						MethodHandle handle = lookup.findStatic(TestMethodHandleCacheMXBean.class, "increment", INT_TO_INT);
+						if ((int) handle.invokeExact(j) != (j + 1)) {
+							throw new AssertionError("wrong result from " + handle);
+						}
+						handles[index] = handle;
+					}
+				} catch (Throwable t) {
+					failure.compareAndSet(null, t);
+				}
+			});
+			threads[i].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		if (null != failure.get()) {
+			throw failure.get();
+		}
+		/* threads that miss at the same time may each create a handle, but only one stays cached */
+		MethodHandle cached = lookup.findStatic(TestMethodHandleCacheMXBean.class, "increment", INT_TO_INT);
+		Assert.assertSame(lookup.findStatic(TestMethodHandleCacheMXBean.class, "increment", INT_TO_INT), cached);
+		Assert.assertEquals(findUsage("findStatic").getEntryCount(), entriesBefore + 1, "more than one entry for the same method");
+		Assert.assertNotNull(handles[0]);
+	}
+
+	@Test
+	public void testEntryRemovedAfterGC() throws Exception {
+		long entriesBefore = findUsage("findStatic").getEntryCount();
+		lookUpAndDrop();
+		Assert.assertEquals(findUsage("findStatic").getEntryCount(), entriesBefore + 1, "handle not cached");
+		long deadline = System.currentTimeMillis() + 60000;
+		long entries;
+		do {
+			System.gc();
+			Thread.sleep(10);
+			entries = findUsage("findStatic").getEntryCount();
+		} while ((entries > entriesBefore) && (System.currentTimeMillis() < deadline));
+		Assert.assertEquals(entries, entriesBefore, "entry not removed after the handle was collected");
+	}
+
+	private static void lookUpAndDrop() throws Exception {
+		MethodHandles.lookup().findStatic(TestMethodHandleCacheMXBean.class, "negate", INT_TO_INT);
+	}
+
+	/**
+	 * The cache for MethodHandle.invokeExact belongs to a class that is never unloaded, but its
+	 * keys refer to the classes in the types looked up. Those classes must be unloadable once
+	 * the handles are collected, without any further lookups to clean up the cache.
+	 */
+	@Test
+	public void testClassesReleasedAfterGC() throws Exception {
+		WeakReference<ClassLoader> loaderRef = lookUpInvokerForIsolatedClass();
+		long deadline = System.currentTimeMillis() + 60000;
+		while ((null != loaderRef.get()) && (System.currentTimeMillis() < deadline)) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		Assert.assertNull(loaderRef.get(), "class loader kept alive by the lookup caches");
+	}
+
+	private static WeakReference<ClassLoader> lookUpInvokerForIsolatedClass() throws Exception {
+		IsolatingClassLoader loader = new IsolatingClassLoader();
+		Class<?> isolated = loader.loadClass(IsolatedClass.class.getName());
+		Assert.assertSame(isolated.getClassLoader(), loader);
+		MethodHandle invoker = MethodHandles.lookup().findVirtual(MethodHandle.class, "invokeExact", MethodType.methodType(void.class, isolated));
+		Assert.assertEquals(invoker.type().parameterType(1), isolated);
+		return new WeakReference<>(loader);
+	}
+
+	public static class IsolatedClass {
+	}
+
+	/**
+	 * Defines its own copy of IsolatedClass, which can be unloaded with the loader.
+	 */
+	static final class IsolatingClassLoader extends ClassLoader {
+		IsolatingClassLoader() {
+			super(TestMethodHandleCacheMXBean.class.getClassLoader());
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (!IsolatedClass.class.getName().equals(name)) {
+				return super.loadClass(name, resolve);
+			}
+			synchronized (getClassLoadingLock(name)) {
+				Class<?> result = findLoadedClass(name);
+				if (null == result) {
+					String resource = name.replace('.', '/') + ".class";
+					try (InputStream in = getParent().getResourceAsStream(resource)) {
+						ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+						byte[] buffer = new byte[4096];
+						for (int count = in.read(buffer); count > 0; count = in.read(buffer)) {
+							bytes.write(buffer, 0, count);
+						}
+						result = defineClass(name, bytes.toByteArray(), 0, bytes.size());
+					} catch (IOException e) {
+						throw new ClassNotFoundException(name, e);
+					}
+				}
+				return result;
+			}
+		}
+	}
+}
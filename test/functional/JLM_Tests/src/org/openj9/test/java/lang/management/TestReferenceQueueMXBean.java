@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+package org.openj9.test.java.lang.management;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.ibm.lang.management.ReferenceQueueMXBean;
+import com.ibm.lang.management.ReferenceQueueUsage;
+
+/**
+ * Tests the counters reported by com.ibm.lang.management.ReferenceQueueMXBean.
+ */
+@Test(groups = { "level.sanity" })
+public class TestReferenceQueueMXBean {
+	private ReferenceQueueMXBean rqBean;
+
+	@BeforeClass
+	public void setUp() throws Exception {
+		ObjectName mxbeanName = new ObjectName("com.ibm.lang.management:type=ReferenceQueue");
+		MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+		Assert.assertTrue(mbeanServer.isRegistered(mxbeanName), "ReferenceQueueMXBean is not registered");
+		rqBean = JMX.newMXBeanProxy(mbeanServer, mxbeanName, ReferenceQueueMXBean.class);
+	}
+
+	@AfterMethod
+	public void disableTracking() {
+		rqBean.setTrackingEnabled(false);
+	}
+
+	private static String queueName(ReferenceQueue<?> queue) {
+		return queue.getClass().getName() + '@' + Integer.toHexString(System.identityHashCode(queue));
+	}
+
+	private ReferenceQueueUsage findUsage(ReferenceQueue<?> queue) {
+		String name = queueName(queue);
+		for (ReferenceQueueUsage usage : rqBean.getReferenceQueueUsage()) {
+			if (name.equals(usage.getName())) {
+				return usage;
+			}
+		}
+		return null;
+	}
+
+	@Test
+	public void testTrackingDisabled() {
+		rqBean.setTrackingEnabled(false);
+		Assert.assertFalse(rqBean.isTrackingEnabled());
+		ReferenceQueue<Object> queue = new ReferenceQueue<>();
+		new WeakReference<Object>(new Object(), queue).enqueue();
+		Assert.assertNull(findUsage(queue), "queue reported while tracking is disabled");
+		Assert.assertEquals(rqBean.getReferenceQueueUsage().length, 0);
+	}
+
+	@Test
+	public void testCounters() {
+		rqBean.setTrackingEnabled(true);
+		Assert.assertTrue(rqBean.isTrackingEnabled());
+		ReferenceQueue<Object> queue = new ReferenceQueue<>();
+		Object referent = new Object();
+		WeakReference<?>[] refs = new WeakReference<?>[3];
+		for (int i = 0; i < refs.length; i++) {
+			refs[i] = new WeakReference<Object>(referent, queue);
+			Assert.assertTrue(refs[i].enqueue());
+		}
+		ReferenceQueueUsage usage = findUsage(queue);
+		Assert.assertNotNull(usage, "queue not reported");
+		Assert.assertEquals(usage.getEnqueuedCount(), 3);
+		Assert.assertEquals(usage.getDrainedCount(), 0);
+		Assert.assertEquals(usage.getBacklog(), 3);
+		Assert.assertEquals(usage.getWaiterCount(), 0);
+
+		Reference<?> polled = queue.poll();
+		Assert.assertSame(polled, refs[0]);
+		usage = findUsage(queue);
+		Assert.assertEquals(usage.getEnqueuedCount(), 3);
+		Assert.assertEquals(usage.getDrainedCount(), 1);
+		Assert.assertEquals(usage.getBacklog(), 2);
+
+		Assert.assertTrue(rqBean.getTotalEnqueuedCount() >= 3);
+		Assert.assertTrue(rqBean.getTotalDrainedCount() >= 1);
+		Assert.assertTrue(rqBean.getTotalBacklog() >= 2);
+
+		rqBean.setTrackingEnabled(false);
+		Assert.assertNull(findUsage(queue), "queue reported after tracking is disabled");
+	}
+
+	@Test
+	public void testWaiterCount() throws Exception {
+		rqBean.setTrackingEnabled(true);
+		final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+		/* the queue is recorded on its first enqueue */
+		new WeakReference<Object>(new Object(), queue).enqueue();
+		Assert.assertNotNull(queue.poll());
+		Thread waiter = new Thread(() -> {
+			try {
+				queue.remove();
+			} catch (InterruptedException e) {
+				// expected
+			}
+		});
+		waiter.start();
+		try {
+			long deadline = System.currentTimeMillis() + 60000;
+			int waiters = 0;
+			while ((0 == waiters) && (System.currentTimeMillis() < deadline)) {
+				Thread.sleep(10);
+				waiters = findUsage(queue).getWaiterCount();
+			}
+			Assert.assertEquals(waiters, 1);
+			Assert.assertEquals(findUsage(queue).getBacklog(), 0);
+		} finally {
+			waiter.interrupt();
+			waiter.join();
+		}
+		Assert.assertEquals(findUsage(queue).getWaiterCount(), 0);
+	}
+
+	@Test
+	public void testBacklogNeverNegative() throws Exception {
+		rqBean.setTrackingEnabled(true);
+		final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+		final Object referent = new Object();
+		final int count = 100000;
+		new WeakReference<Object>(referent, queue).enqueue();
+		Assert.assertNotNull(queue.poll());
+		Thread producer = new Thread(() -> {
+			for (int i = 0; i < count; i++) {
+				new WeakReference<Object>(referent, queue).enqueue();
+			}
+		});
+		Thread consumer = new Thread(() -> {
+			try {
+				for (int i = 0; i < count; i++) {
+					queue.remove();
+				}
+			} catch (InterruptedException e) {
+				// ignore
+			}
+		});
+		producer.start();
+		consumer.start();
+		while (consumer.isAlive()) {
+			ReferenceQueueUsage usage = findUsage(queue);
+			Assert.assertTrue(usage.getBacklog() >= 0, "negative backlog: " + usage);
+			Assert.assertTrue(usage.getDrainedCount() <= usage.getEnqueuedCount(), "more drained than enqueued: " + usage);
+		}
+		producer.join();
+		consumer.join();
+		ReferenceQueueUsage usage = findUsage(queue);
+		Assert.assertEquals(usage.getEnqueuedCount(), count + 1);
+		Assert.assertEquals(usage.getDrainedCount(), count + 1);
+		Assert.assertEquals(usage.getBacklog(), 0);
+	}
+}
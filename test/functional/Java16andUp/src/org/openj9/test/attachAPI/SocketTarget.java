@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package org.openj9.test.attachAPI;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+
+import com.ibm.lang.management.RuntimeMXBean;
+
+/**
+ * Target VM for Test_AttachSocket. Prints its attach API VM ID once the attach API
+ * is initialized, then waits until its standard input is closed.
+ */
+@SuppressWarnings("nls")
+public class SocketTarget {
+	public static final String VMID_PREAMBLE = "vmid=";
+	public static final String INIT_FAILED = "attach_init_fail";
+
+	public static void main(String[] args) throws Exception {
+		RuntimeMXBean bean = (RuntimeMXBean) ManagementFactory.getRuntimeMXBean();
+		for (int tries = 0; (tries < 1000) && !bean.isAttachApiInitialized() && !bean.isAttachApiTerminated(); ++tries) {
+			Thread.sleep(100);
+		}
+		if (bean.isAttachApiInitialized()) {
+			System.out.println(VMID_PREAMBLE + bean.getVmId());
+		} else {
+			System.out.println(INIT_FAILED);
+		}
+		System.out.flush();
+		BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+		while (null != in.readLine()) {
+			/* wait for the test to close standard input */
+		}
+	}
+}
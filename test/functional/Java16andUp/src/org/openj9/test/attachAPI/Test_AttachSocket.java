@@ -0,0 +1,267 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package org.openj9.test.attachAPI;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.testng.SkipException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.testng.log4testng.Logger;
+
+import com.sun.tools.attach.VirtualMachine;
+
+/**
+ * Checks the optional Unix domain socket attach transport, and that attachers fall back to
+ * the semaphore protocol whenever the socket cannot be used.
+ * <p>
+ * Needs --add-opens jdk.attach/com.ibm.tools.attach.attacher=ALL-UNNAMED to see which
+ * transport an attach used, and --add-exports java.base/openj9.internal.tools.attach.target=ALL-UNNAMED
+ * for the socket ownership check.
+ */
+@Test(groups = { "level.extended" })
+@SuppressWarnings("nls")
+public class Test_AttachSocket {
+	private static final Logger logger = Logger.getLogger(Test_AttachSocket.class);
+
+	private static final String SOCKET_PROPERTY = "com.ibm.tools.attach.unixDomainSocket";
+	private static final String SOCKET_FILENAME = "attachSocket";
+	private static final Set<PosixFilePermission> OWNER_READ_WRITE = PosixFilePermissions.fromString("rw-------");
+
+	private final List<Target> targets = new ArrayList<>();
+
+	/**
+	 * A target VM running SocketTarget.
+	 */
+	private static final class Target {
+		final Process process;
+		final String vmId;
+		final Path socketPath;
+
+		Target(Process process, String vmId) {
+			this.process = process;
+			this.vmId = vmId;
+			String directory = System.getProperty("com.ibm.tools.attach.directory");
+			Path commonDirectory = (null != directory) ? Paths.get(directory) : Paths.get(System.getProperty("java.io.tmpdir"), ".com_ibm_tools_attach");
+			this.socketPath = commonDirectory.resolve(vmId).resolve(SOCKET_FILENAME);
+		}
+
+		void stop() throws Exception {
+			process.getOutputStream().close();
+			process.waitFor();
+		}
+	}
+
+	@BeforeMethod
+	protected void setUp() {
+		if (System.getProperty("os.name").startsWith("Windows")) {
+			throw new SkipException("The attach API does not use Unix domain sockets on Windows");
+		}
+	}
+
+	@AfterMethod(alwaysRun = true)
+	protected void tearDown() throws Exception {
+		System.clearProperty(SOCKET_PROPERTY);
+		for (Target target : targets) {
+			target.stop();
+		}
+		targets.clear();
+	}
+
+	/**
+	 * A target started with the property set listens on a socket that only its owner can use,
+	 * and attachers connect to it.
+	 */
+	public void testAttachThroughSocket() throws Exception {
+		Target target = startTarget(true);
+		assertTrue(Files.exists(target.socketPath, LinkOption.NOFOLLOW_LINKS), "socket not created: " + target.socketPath);
+		assertEquals(Files.getPosixFilePermissions(target.socketPath, LinkOption.NOFOLLOW_LINKS), OWNER_READ_WRITE, "wrong socket permissions");
+		try (DirectoryStream<Path> siblings = Files.newDirectoryStream(target.socketPath.getParent())) {
+			for (Path sibling : siblings) {
+				assertFalse(sibling.getFileName().toString().startsWith(SOCKET_FILENAME) && !sibling.equals(target.socketPath),
+						"temporary socket files left behind: " + sibling);
+			}
+		}
+		assertTrue(attach(target), "did not attach through the socket");
+		/* the target accepts more than one connection */
+		assertTrue(attach(target), "did not attach through the socket a second time");
+	}
+
+	/**
+	 * The transport is off by default.
+	 */
+	public void testNoSocketByDefault() throws Exception {
+		Target target = startTarget(false);
+		assertFalse(Files.exists(target.socketPath, LinkOption.NOFOLLOW_LINKS), "socket created without being enabled");
+		assertFalse(attach(target), "attached through a socket that should not exist");
+	}
+
+	/**
+	 * Attachers fall back to the semaphore protocol if the socket file has been deleted.
+	 */
+	public void testMissingSocket() throws Exception {
+		Target target = startTarget(true);
+		Files.delete(target.socketPath);
+		assertFalse(attach(target), "attached through a deleted socket");
+	}
+
+	/**
+	 * Attachers fall back to the semaphore protocol if nothing is listening on the socket,
+	 * as happens when a VM exits without deleting it.
+	 */
+	public void testStaleSocket() throws Exception {
+		Target target = startTarget(true);
+		Path stalePath = target.socketPath.resolveSibling("staleSocket");
+		try (ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+			channel.bind(UnixDomainSocketAddress.of(stalePath));
+		}
+		Files.setPosixFilePermissions(stalePath, OWNER_READ_WRITE);
+		Files.move(stalePath, target.socketPath, StandardCopyOption.REPLACE_EXISTING);
+		assertFalse(attach(target), "attached through a socket nothing listens on");
+	}
+
+	/**
+	 * Attachers do not connect to a socket if they are started with the property set to "no".
+	 */
+	public void testSocketDisabledInAttacher() throws Exception {
+		Target target = startTarget(true);
+		System.setProperty(SOCKET_PROPERTY, "no");
+		assertFalse(attach(target), "attached through the socket when disabled");
+		System.clearProperty(SOCKET_PROPERTY);
+		assertTrue(attach(target), "did not attach through the socket once enabled again");
+	}
+
+	/**
+	 * Attachers do not connect to a socket that other users can access.
+	 */
+	public void testSocketWithWrongMode() throws Exception {
+		Target target = startTarget(true);
+		Files.setPosixFilePermissions(target.socketPath, PosixFilePermissions.fromString("rw-rw-rw-"));
+		assertFalse(attach(target), "attached through a socket other users can access");
+		Files.setPosixFilePermissions(target.socketPath, OWNER_READ_WRITE);
+		assertTrue(attach(target), "did not attach through the socket once its permissions were restored");
+	}
+
+	/**
+	 * Attachers do not connect to a socket owned by another user. A user cannot give a file
+	 * away, so this checks the ownership test the attacher applies to the socket on a file
+	 * owned by root. Root may attach to any VM, so the test is skipped when run as root.
+	 */
+	public void testSocketWithWrongOwner() throws Exception {
+		Path root = Paths.get("/");
+		int rootOwner = (Integer) Files.getAttribute(root, "unix:uid");
+		File myFile = File.createTempFile("Test_AttachSocket", null);
+		try {
+			int myUid = (Integer) Files.getAttribute(myFile.toPath(), "unix:uid");
+			if ((0 == myUid) || (myUid == rootOwner)) {
+				throw new SkipException("the current user owns " + root);
+			}
+		} finally {
+			myFile.delete();
+		}
+		Class<?> ipcClass = Class.forName("openj9.internal.tools.attach.target.IPC");
+		Method checkOwnerAccessOnly = ipcClass.getMethod("checkOwnerAccessOnly", String.class);
+		try {
+			checkOwnerAccessOnly.invoke(null, root.toString());
+			fail("accepted a file owned by another user");
+		} catch (InvocationTargetException e) {
+			assertTrue(e.getCause() instanceof IOException, "unexpected exception " + e.getCause());
+		}
+	}
+
+	/**
+	 * Start a target VM and wait for its attach API to initialize.
+	 * @param listen true to enable the socket in the target
+	 */
+	private Target startTarget(boolean listen) throws Exception {
+		List<String> command = new ArrayList<>();
+		command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+		command.add("--enable-preview");
+		command.add("-Dcom.ibm.tools.attach.enable=yes");
+		if (listen) {
+			command.add("-D" + SOCKET_PROPERTY + "=yes");
+		}
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(SocketTarget.class.getName());
+		ProcessBuilder builder = new ProcessBuilder(command);
+		builder.redirectErrorStream(true);
+		Process process = builder.start();
+		BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()));
+		StringBuilder log = new StringBuilder();
+		for (String line = output.readLine(); null != line; line = output.readLine()) {
+			logger.debug("target: " + line);
+			if (line.startsWith(SocketTarget.VMID_PREAMBLE)) {
+				Target target = new Target(process, line.substring(SocketTarget.VMID_PREAMBLE.length()));
+				targets.add(target);
+				return target;
+			}
+			log.append(line).append('\n');
+		}
+		process.waitFor();
+		fail("target did not initialize the attach API:\n" + log);
+		return null;
+	}
+
+	/**
+	 * Attach to a target, check that commands work, and detach.
+	 * @return true if the attach used the target's socket
+	 */
+	private static boolean attach(Target target) throws Exception {
+		VirtualMachine vm = VirtualMachine.attach(target.vmId);
+		try {
+			assertNotNull(vm.getSystemProperties().getProperty("java.home"), "no system properties from the target");
+			Field channel = vm.getClass().getDeclaredField("targetChannel");
+			channel.setAccessible(true);
+			return null != channel.get(vm);
+		} finally {
+			vm.detach();
+		}
+	}
+}
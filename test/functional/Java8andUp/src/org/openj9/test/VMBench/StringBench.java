@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+package org.openj9.test.VMBench;
+
+import org.testng.Assert;
+import org.testng.annotations.Optional;
+import org.testng.annotations.Parameters;
+import org.testng.annotations.Test;
+import org.testng.log4testng.Logger;
+
+/**
+ * Times the String operations which scan, compress and decompress the backing
+ * array, for Strings from 8 bytes to 1 MB, and checks their results against
+ * a character at a time computation.
+ */
+@Test(groups = { "level.sanity" })
+public class StringBench {
+
+	public static final Logger logger = Logger.getLogger(StringBench.class);
+
+	private static final int[] SIZES = { 8, 15, 64, 512, 4 * 1024, 64 * 1024, 1024 * 1024 };
+
+	private static int sink;
+
+	private static char[] latin1Chars(int size) {
+		char[] chars = new char[size];
+		for (int i = 0; i < size; ++i) {
+			chars[i] = (char) ('a' + (i % 26));
+		}
+		// include a non-ASCII Latin1 character
+		chars[size / 2] = '\u00e9';
+		return chars;
+	}
+
+	private static int expectedHash(char[] chars) {
+		int hash = 0;
+		for (int i = 0; i < chars.length; ++i) {
+			hash = 31 * hash + chars[i];
+		}
+		return hash;
+	}
+
+	private static void report(String operation, int size, long start, int iterations) {
+		long elapsed = System.nanoTime() - start;
+		logger.info(operation + " size=" + size + " ns/op=" + (elapsed / iterations));
+	}
+
+	@Parameters({ "stringBenchBytes" })
+	@Test
+	public static void testStringOperations(@Optional("67108864") int bytesPerOperation) {
+		for (int s = 0; s < SIZES.length; ++s) {
+			int size = SIZES[s];
+			int iterations = Math.max(1, bytesPerOperation / size);
+			char[] latin1 = latin1Chars(size);
+			char[] utf16 = latin1.clone();
+			// the last character can't be compressed, so the whole array is scanned
+			utf16[size - 1] = '\u0100';
+			String upper = new String(latin1).toUpperCase();
+			int expectedHash = expectedHash(latin1);
+
+			long start = System.nanoTime();
+			for (int i = 0; i < iterations; ++i) {
+				String string = new String(latin1);
+				sink += string.length();
+			}
+			report("compress", size, start, iterations);
+
+			start = System.nanoTime();
+			for (int i = 0; i < iterations; ++i) {
+				String string = new String(utf16);
+				sink += string.length();
+			}
+			report("canEncodeAsLatin1 (fails)", size, start, iterations);
+
+			String string = new String(latin1);
+			start = System.nanoTime();
+			for (int i = 0; i < iterations; ++i) {
+				char[] chars = string.toCharArray();
+				sink += chars.length;
+			}
+			report("decompress", size, start, iterations);
+			Assert.assertEquals(string.toCharArray(), latin1, "toCharArray() size " + size);
+
+			start = System.nanoTime();
+			for (int i = 0; i < iterations; ++i) {
+				// a new String, as the hash is cached
+				sink += new String(string).hashCode();
+			}
+			report("hashCode", size, start, iterations);
+			Assert.assertEquals(new String(latin1).hashCode(), expectedHash, "Latin1 hashCode() size " + size);
+			Assert.assertEquals(new String(utf16).hashCode(), expectedHash(utf16), "UTF16 hashCode() size " + size);
+
+			start = System.nanoTime();
+			for (int i = 0; i < iterations; ++i) {
+				if (string.equalsIgnoreCase(upper)) {
+					sink++;
+				}
+			}
+			report("equalsIgnoreCase", size, start, iterations);
+			Assert.assertTrue(string.equalsIgnoreCase(upper), "equalsIgnoreCase() size " + size);
+			char[] different = latin1.clone();
+			different[size - 2] = '!';
+			Assert.assertFalse(string.equalsIgnoreCase(new String(different)), "equalsIgnoreCase() different size " + size);
+
+			start = System.nanoTime();
+			for (int i = 0; i < iterations; ++i) {
+				sink += string.indexOf('\u00e9');
+			}
+			report("indexOf", size, start, iterations);
+			Assert.assertEquals(string.indexOf('\u00e9'), size / 2, "indexOf() size " + size);
+		}
+		logger.info("StringBench done, sink = " + sink);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019, 2020 IBM Corp. and others
+ * Copyright (c) 2019, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -40,6 +40,10 @@ public class TestJstat extends AttachApiTest {
 	private static final String JSTAT_COMMAND = "jstat"; //$NON-NLS-1$
 	private static final String JSTAT_OPTION_CLASS = "-class"; //$NON-NLS-1$
 	private static final String JSTAT_OPTION_CLASS_HEADER = "Class Loaded    Class Unloaded"; //$NON-NLS-1$
+	private static final String JSTAT_CLASS_SAMPLE = "\\s*\\d+\\s+\\d+\\s*"; //$NON-NLS-1$
+	private static final String JSTAT_INVALID_ARG = "An invalid argument"; //$NON-NLS-1$
+	private static final String JSTAT_INVALID_INTERVAL = "An invalid <interval>: "; //$NON-NLS-1$
+	private static final String JSTAT_INVALID_COUNT = "An invalid <count>: "; //$NON-NLS-1$
 	Object syncObject = new Object();
 	private String vmId;
 
@@ -59,6 +63,83 @@ public class TestJstat extends AttachApiTest {
 		AssertJUnit.assertTrue(JSTAT_OPTION_CLASS_HEADER + " missing", searchResult.isPresent()); //$NON-NLS-1$
 	}
 
+	@Test
+	public void testIntervalAndCount() throws IOException {
+		List<String> jstatOutput = runCommand(Arrays.asList(JSTAT_OPTION_CLASS, vmId, "100ms", "3")); //$NON-NLS-1$ //$NON-NLS-2$
+		logOutput(jstatOutput, JSTAT_COMMAND);
+		checkSamples(jstatOutput, 3);
+	}
+
+	@Test
+	public void testIntervalInSeconds() throws IOException {
+		List<String> jstatOutput = runCommand(Arrays.asList(JSTAT_OPTION_CLASS, vmId, "1s", "2")); //$NON-NLS-1$ //$NON-NLS-2$
+		logOutput(jstatOutput, JSTAT_COMMAND);
+		checkSamples(jstatOutput, 2);
+	}
+
+	@Test
+	public void testIntervalDefaultsToMilliseconds() throws IOException {
+		List<String> jstatOutput = runCommand(Arrays.asList(JSTAT_OPTION_CLASS, vmId, "50", "2")); //$NON-NLS-1$ //$NON-NLS-2$
+		logOutput(jstatOutput, JSTAT_COMMAND);
+		checkSamples(jstatOutput, 2);
+	}
+
+	@Test
+	public void testInvalidInterval() throws IOException {
+		for (String interval : Arrays.asList("0ms", "10m", "-5", "ms", "s")) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+			List<String> jstatOutput = runCommand(Arrays.asList(JSTAT_OPTION_CLASS, vmId, interval));
+			logOutput(jstatOutput, JSTAT_COMMAND);
+			checkNoSamples(jstatOutput, interval.startsWith("-") ? JSTAT_INVALID_ARG : JSTAT_INVALID_INTERVAL + interval); //$NON-NLS-1$
+		}
+	}
+
+	@Test
+	public void testInvalidCount() throws IOException {
+		for (String count : Arrays.asList("0", "x", "1.5")) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			List<String> jstatOutput = runCommand(Arrays.asList(JSTAT_OPTION_CLASS, vmId, "100ms", count)); //$NON-NLS-1$
+			logOutput(jstatOutput, JSTAT_COMMAND);
+			checkNoSamples(jstatOutput, JSTAT_INVALID_COUNT + count);
+		}
+	}
+
+	@Test
+	public void testTooManyArguments() throws IOException {
+		List<String> jstatOutput = runCommand(Arrays.asList(JSTAT_OPTION_CLASS, vmId, "100ms", "2", "3")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		logOutput(jstatOutput, JSTAT_COMMAND);
+		checkNoSamples(jstatOutput, JSTAT_INVALID_ARG);
+	}
+
+	/**
+	 * Check that the column headings are printed once, followed by one line for each sample.
+	 */
+	private static void checkSamples(List<String> jstatOutput, int expectedSamples) {
+		int headers = 0;
+		int samples = 0;
+		for (String line : jstatOutput) {
+			if (line.contains(JSTAT_OPTION_CLASS_HEADER)) {
+				AssertJUnit.assertEquals("Column headings after a sample", 0, samples); //$NON-NLS-1$
+				headers += 1;
+			} else if (line.matches(JSTAT_CLASS_SAMPLE)) {
+				samples += 1;
+			} else {
+				AssertJUnit.assertTrue("Unexpected output: " + line, line.trim().isEmpty()); //$NON-NLS-1$
+			}
+		}
+		AssertJUnit.assertEquals("Column headings", 1, headers); //$NON-NLS-1$
+		AssertJUnit.assertEquals("Samples", expectedSamples, samples); //$NON-NLS-1$
+	}
+
+	/**
+	 * Check that jstat rejected its arguments with the given message and did not sample the target.
+	 */
+	private static void checkNoSamples(List<String> jstatOutput, String expectedError) {
+		Optional<String> searchResult = StringUtilities.searchSubstring(expectedError, jstatOutput);
+		AssertJUnit.assertTrue(expectedError + " missing", searchResult.isPresent()); //$NON-NLS-1$
+		for (String line : jstatOutput) {
+			AssertJUnit.assertFalse("Sampled with invalid arguments: " + line, line.matches(JSTAT_CLASS_SAMPLE)); //$NON-NLS-1$
+		}
+	}
+
 	@BeforeSuite
 	protected void setupSuite() {
 		getJdkUtilityPath(JSTAT_COMMAND);
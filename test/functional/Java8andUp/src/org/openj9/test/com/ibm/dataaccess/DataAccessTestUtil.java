@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+package org.openj9.test.com.ibm.dataaccess;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.testng.Assert;
+import org.testng.AssertJUnit;
+
+/**
+ * Fixtures shared by the tests of the bulk, strided and ByteBuffer dataaccess methods.
+ */
+final class DataAccessTestUtil {
+
+	/** Fills the bytes around the ones under test, so that a stray write shows up */
+	static final byte FILL = (byte)0xA5;
+
+	static final boolean[] ENDIANNESS = { true, false };
+
+	private DataAccessTestUtil() {
+	}
+
+	/**
+	 * Returns a byte array of <code>length</code> bytes, all set to FILL.
+	 */
+	static byte[] newFilledArray(int length) {
+		byte[] bytes = new byte[length];
+		Arrays.fill(bytes, FILL);
+		return bytes;
+	}
+
+	/**
+	 * Sets every byte of a buffer up to its limit to FILL, without moving its position.
+	 */
+	static void fill(ByteBuffer buffer) {
+		for (int i = 0; i < buffer.limit(); i++) {
+			buffer.put(i, FILL);
+		}
+	}
+
+	/**
+	 * Fails unless <code>runnable</code> throws an instance of <code>expected</code>.
+	 */
+	static void checkThrows(Class<? extends RuntimeException> expected, String call, Runnable runnable) {
+		try {
+			runnable.run();
+		} catch (RuntimeException e) {
+			AssertJUnit.assertTrue(call + " threw " + e, expected.isInstance(e));
+			return;
+		}
+		Assert.fail(call + " did not throw " + expected.getName());
+	}
+
+	/**
+	 * Fails unless every one of <code>runnables</code> throws an instance of <code>expected</code>. A failure names
+	 * the index of the call among <code>calls</code>.
+	 */
+	static void checkAllThrow(Class<? extends RuntimeException> expected, String calls, Runnable... runnables) {
+		for (int i = 0; i < runnables.length; i++) {
+			checkThrows(expected, "Call " + i + " of " + calls, runnables[i]);
+		}
+	}
+}
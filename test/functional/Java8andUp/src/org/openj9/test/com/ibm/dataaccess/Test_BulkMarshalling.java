@@ -0,0 +1,382 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+package org.openj9.test.com.ibm.dataaccess;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.ibm.dataaccess.ByteArrayMarshaller;
+import com.ibm.dataaccess.ByteArrayUnmarshaller;
+import org.testng.annotations.Test;
+import org.testng.AssertJUnit;
+
+import static org.openj9.test.com.ibm.dataaccess.DataAccessTestUtil.ENDIANNESS;
+import static org.openj9.test.com.ibm.dataaccess.DataAccessTestUtil.checkThrows;
+import static org.openj9.test.com.ibm.dataaccess.DataAccessTestUtil.newFilledArray;
+
+/**
+ * Checks that the bulk write and read methods of ByteArrayMarshaller and ByteArrayUnmarshaller give the same
+ * bytes and values as a loop of the scalar methods, and that they check their bounds before touching any array.
+ */
+@Test(groups = { "level.sanity" })
+public class Test_BulkMarshalling {
+
+	/** Enough values to cover the unrolled loops of the bulk methods and their remainders */
+	private static final int COUNT = 37;
+
+	/** Odd offsets, so that the values are not aligned in the byte array */
+	private static final int VALUES_OFFSET = 2;
+	private static final int BYTE_OFFSET = 3;
+
+	private final Random random = new Random(17);
+
+	/**
+	 * A bulk call with the bounds arguments that are checked.
+	 */
+	private interface BulkCall {
+		void call(int offset, int valuesOffset, int count);
+	}
+
+	/**
+	 * @tests com.ibm.dataaccess.ByteArrayMarshaller#writeShorts(short[], int, int, byte[], int, boolean)
+	 * @tests com.ibm.dataaccess.ByteArrayUnmarshaller#readShorts(byte[], int, short[], int, int, boolean)
+	 */
+	public void test_shorts() {
+		short[] values = new short[COUNT + VALUES_OFFSET + 1];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = (short)random.nextInt();
+		}
+		values[VALUES_OFFSET] = Short.MIN_VALUE;
+		values[VALUES_OFFSET + 1] = Short.MAX_VALUE;
+		values[VALUES_OFFSET + 2] = -1;
+
+		for (boolean bigEndian : ENDIANNESS) {
+			byte[] expected = newByteArray(2);
+			byte[] actual = newByteArray(2);
+			for (int i = 0; i < COUNT; i++) {
+				ByteArrayMarshaller.writeShort(values[VALUES_OFFSET + i], expected, BYTE_OFFSET + (i * 2), bigEndian);
+			}
+			ByteArrayMarshaller.writeShorts(values, VALUES_OFFSET, COUNT, actual, BYTE_OFFSET, bigEndian);
+			AssertJUnit.assertTrue("writeShorts differs from writeShort, bigEndian " + bigEndian, Arrays.equals(expected, actual));
+
+			short[] read = new short[values.length];
+			ByteArrayUnmarshaller.readShorts(actual, BYTE_OFFSET, read, VALUES_OFFSET, COUNT, bigEndian);
+			for (int i = 0; i < read.length; i++) {
+				short value = ((i < VALUES_OFFSET) || (i >= VALUES_OFFSET + COUNT)) ? 0
+						: ByteArrayUnmarshaller.readShort(actual, BYTE_OFFSET + ((i - VALUES_OFFSET) * 2), bigEndian);
+				AssertJUnit.assertEquals("readShorts differs from readShort at " + i + ", bigEndian " + bigEndian, value, read[i]);
+			}
+		}
+	}
+
+	/**
+	 * @tests com.ibm.dataaccess.ByteArrayMarshaller#writeInts(int[], int, int, byte[], int, boolean)
+	 * @tests com.ibm.dataaccess.ByteArrayUnmarshaller#readInts(byte[], int, int[], int, int, boolean)
+	 */
+	public void test_ints() {
+		int[] values = new int[COUNT + VALUES_OFFSET + 1];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = random.nextInt();
+		}
+		values[VALUES_OFFSET] = Integer.MIN_VALUE;
+		values[VALUES_OFFSET + 1] = Integer.MAX_VALUE;
+		values[VALUES_OFFSET + 2] = -1;
+
+		for (boolean bigEndian : ENDIANNESS) {
+			byte[] expected = newByteArray(4);
+			byte[] actual = newByteArray(4);
+			for (int i = 0; i < COUNT; i++) {
+				ByteArrayMarshaller.writeInt(values[VALUES_OFFSET + i], expected, BYTE_OFFSET + (i * 4), bigEndian);
+			}
+			ByteArrayMarshaller.writeInts(values, VALUES_OFFSET, COUNT, actual, BYTE_OFFSET, bigEndian);
+			AssertJUnit.assertTrue("writeInts differs from writeInt, bigEndian " + bigEndian, Arrays.equals(expected, actual));
+
+			int[] read = new int[values.length];
+			ByteArrayUnmarshaller.readInts(actual, BYTE_OFFSET, read, VALUES_OFFSET, COUNT, bigEndian);
+			for (int i = 0; i < read.length; i++) {
+				int value = ((i < VALUES_OFFSET) || (i >= VALUES_OFFSET + COUNT)) ? 0
+						: ByteArrayUnmarshaller.readInt(actual, BYTE_OFFSET + ((i - VALUES_OFFSET) * 4), bigEndian);
+				AssertJUnit.assertEquals("readInts differs from readInt at " + i + ", bigEndian " + bigEndian, value, read[i]);
+			}
+		}
+	}
+
+	/**
+	 * @tests com.ibm.dataaccess.ByteArrayMarshaller#writeLongs(long[], int, int, byte[], int, boolean)
+	 * @tests com.ibm.dataaccess.ByteArrayUnmarshaller#readLongs(byte[], int, long[], int, int, boolean)
+	 */
+	public void test_longs() {
+		long[] values = new long[COUNT + VALUES_OFFSET + 1];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = random.nextLong();
+		}
+		values[VALUES_OFFSET] = Long.MIN_VALUE;
+		values[VALUES_OFFSET + 1] = Long.MAX_VALUE;
+		values[VALUES_OFFSET + 2] = -1L;
+
+		for (boolean bigEndian : ENDIANNESS) {
+			byte[] expected = newByteArray(8);
+			byte[] actual = newByteArray(8);
+			for (int i = 0; i < COUNT; i++) {
+				ByteArrayMarshaller.writeLong(values[VALUES_OFFSET + i], expected, BYTE_OFFSET + (i * 8), bigEndian);
+			}
+			ByteArrayMarshaller.writeLongs(values, VALUES_OFFSET, COUNT, actual, BYTE_OFFSET, bigEndian);
+			AssertJUnit.assertTrue("writeLongs differs from writeLong, bigEndian " + bigEndian, Arrays.equals(expected, actual));
+
+			long[] read = new long[values.length];
+			ByteArrayUnmarshaller.readLongs(actual, BYTE_OFFSET, read, VALUES_OFFSET, COUNT, bigEndian);
+			for (int i = 0; i < read.length; i++) {
+				long value = ((i < VALUES_OFFSET) || (i >= VALUES_OFFSET + COUNT)) ? 0L
+						: ByteArrayUnmarshaller.readLong(actual, BYTE_OFFSET + ((i - VALUES_OFFSET) * 8), bigEndian);
+				AssertJUnit.assertEquals("readLongs differs from readLong at " + i + ", bigEndian " + bigEndian, value, read[i]);
+			}
+		}
+	}
+
+	/**
+	 * NaNs with a payload are written as the canonical NaN by both the scalar and the bulk method.
+	 *
+	 * @tests com.ibm.dataaccess.ByteArrayMarshaller#writeFloats(float[], int, int, byte[], int, boolean)
+	 * @tests com.ibm.dataaccess.ByteArrayUnmarshaller#readFloats(byte[], int, float[], int, int, boolean)
+	 */
+	public void test_floats() {
+		float[] values = new float[COUNT + VALUES_OFFSET + 1];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = Float.intBitsToFloat(random.nextInt());
+		}
+		values[VALUES_OFFSET] = Float.NaN;
+		values[VALUES_OFFSET + 1] = Float.intBitsToFloat(0x7F800001);
+		values[VALUES_OFFSET + 2] = -0.0f;
+		values[VALUES_OFFSET + 3] = Float.NEGATIVE_INFINITY;
+		values[VALUES_OFFSET + 4] = Float.MIN_VALUE;
+
+		for (boolean bigEndian : ENDIANNESS) {
+			byte[] expected = newByteArray(4);
+			byte[] actual = newByteArray(4);
+			for (int i = 0; i < COUNT; i++) {
+				ByteArrayMarshaller.writeFloat(values[VALUES_OFFSET + i], expected, BYTE_OFFSET + (i * 4), bigEndian);
+			}
+			ByteArrayMarshaller.writeFloats(values, VALUES_OFFSET, COUNT, actual, BYTE_OFFSET, bigEndian);
+			AssertJUnit.assertTrue("writeFloats differs from writeFloat, bigEndian " + bigEndian, Arrays.equals(expected, actual));
+
+			float[] read = new float[values.length];
+			ByteArrayUnmarshaller.readFloats(actual, BYTE_OFFSET, read, VALUES_OFFSET, COUNT, bigEndian);
+			for (int i = 0; i < read.length; i++) {
+				float value = ((i < VALUES_OFFSET) || (i >= VALUES_OFFSET + COUNT)) ? 0.0f
+						: ByteArrayUnmarshaller.readFloat(actual, BYTE_OFFSET + ((i - VALUES_OFFSET) * 4), bigEndian);
+				AssertJUnit.assertEquals("readFloats differs from readFloat at " + i + ", bigEndian " + bigEndian,
+						Float.floatToRawIntBits(value), Float.floatToRawIntBits(read[i]));
+			}
+		}
+	}
+
+	/**
+	 * NaNs with a payload are written as the canonical NaN by both the scalar and the bulk method.
+	 *
+	 * @tests com.ibm.dataaccess.ByteArrayMarshaller#writeDoubles(double[], int, int, byte[], int, boolean)
+	 * @tests com.ibm.dataaccess.ByteArrayUnmarshaller#readDoubles(byte[], int, double[], int, int, boolean)
+	 */
+	public void test_doubles() {
+		double[] values = new double[COUNT + VALUES_OFFSET + 1];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = Double.longBitsToDouble(random.nextLong());
+		}
+		values[VALUES_OFFSET] = Double.NaN;
+		values[VALUES_OFFSET + 1] = Double.longBitsToDouble(0x7FF0000000000001L);
+		values[VALUES_OFFSET + 2] = -0.0d;
+		values[VALUES_OFFSET + 3] = Double.NEGATIVE_INFINITY;
+		values[VALUES_OFFSET + 4] = Double.MIN_VALUE;
+
+		for (boolean bigEndian : ENDIANNESS) {
+			byte[] expected = newByteArray(8);
+			byte[] actual = newByteArray(8);
+			for (int i = 0; i < COUNT; i++) {
+				ByteArrayMarshaller.writeDouble(values[VALUES_OFFSET + i], expected, BYTE_OFFSET + (i * 8), bigEndian);
+			}
+			ByteArrayMarshaller.writeDoubles(values, VALUES_OFFSET, COUNT, actual, BYTE_OFFSET, bigEndian);
+			AssertJUnit.assertTrue("writeDoubles differs from writeDouble, bigEndian " + bigEndian, Arrays.equals(expected, actual));
+
+			double[] read = new double[values.length];
+			ByteArrayUnmarshaller.readDoubles(actual, BYTE_OFFSET, read, VALUES_OFFSET, COUNT, bigEndian);
+			for (int i = 0; i < read.length; i++) {
+				double value = ((i < VALUES_OFFSET) || (i >= VALUES_OFFSET + COUNT)) ? 0.0d
+						: ByteArrayUnmarshaller.readDouble(actual, BYTE_OFFSET + ((i - VALUES_OFFSET) * 8), bigEndian);
+				AssertJUnit.assertEquals("readDoubles differs from readDouble at " + i + ", bigEndian " + bigEndian,
+						Double.doubleToRawLongBits(value), Double.doubleToRawLongBits(read[i]));
+			}
+		}
+	}
+
+	/**
+	 * A count of zero touches nothing, even at the very end of both arrays.
+	 */
+	public void test_emptyRun() {
+		int[] values = new int[] { 1, 2 };
+		byte[] bytes = newByteArray(4);
+		byte[] copy = bytes.clone();
+		ByteArrayMarshaller.writeInts(values, values.length, 0, bytes, bytes.length, true);
+		AssertJUnit.assertTrue("writeInts modified the byte array", Arrays.equals(copy, bytes));
+		ByteArrayUnmarshaller.readInts(bytes, bytes.length, values, values.length, 0, false);
+		AssertJUnit.assertEquals(1, values[0]);
+		AssertJUnit.assertEquals(2, values[1]);
+	}
+
+	/**
+	 * The runs that end exactly at the end of the arrays are accepted.
+	 */
+	public void test_runAtEnd() {
+		long[] values = new long[] { 5L, 6L, 7L };
+		byte[] bytes = new byte[3 + (2 * 8)];
+		ByteArrayMarshaller.writeLongs(values, 1, 2, bytes, 3, false);
+		AssertJUnit.assertEquals(6L, ByteArrayUnmarshaller.readLong(bytes, 3, false));
+		AssertJUnit.assertEquals(7L, ByteArrayUnmarshaller.readLong(bytes, 11, false));
+		long[] read = new long[2];
+		ByteArrayUnmarshaller.readLongs(bytes, 3, read, 0, 2, false);
+		AssertJUnit.assertEquals(6L, read[0]);
+		AssertJUnit.assertEquals(7L, read[1]);
+	}
+
+	/**
+	 * Writes out of bounds of either array throw ArrayIndexOutOfBoundsException and leave the byte array unchanged.
+	 */
+	public void test_writeBounds() {
+		final short[] shorts = new short[4];
+		final int[] ints = new int[4];
+		final long[] longs = new long[4];
+		final float[] floats = new float[4];
+		final double[] doubles = new double[4];
+		Arrays.fill(shorts, (short)1);
+		Arrays.fill(ints, 1);
+		Arrays.fill(longs, 1L);
+		Arrays.fill(floats, 1.0f);
+		Arrays.fill(doubles, 1.0d);
+		final byte[] bytes = newFilledArray(32);
+		final byte[] copy = bytes.clone();
+
+		checkBounds("writeShorts", 2, shorts.length, bytes.length, new BulkCall() {
+			public void call(int offset, int valuesOffset, int count) {
+				ByteArrayMarshaller.writeShorts(shorts, valuesOffset, count, bytes, offset, true);
+			}
+		});
+		checkBounds("writeInts", 4, ints.length, bytes.length, new BulkCall() {
+			public void call(int offset, int valuesOffset, int count) {
+				ByteArrayMarshaller.writeInts(ints, valuesOffset, count, bytes, offset, false);
+			}
+		});
+		checkBounds("writeLongs", 8, longs.length, bytes.length, new BulkCall() {
+			public void call(int offset, int valuesOffset, int count) {
+				ByteArrayMarshaller.writeLongs(longs, valuesOffset, count, bytes, offset, true);
+			}
+		});
+		checkBounds("writeFloats", 4, floats.length, bytes.length, new BulkCall() {
+			public void call(int offset, int valuesOffset, int count) {
+				ByteArrayMarshaller.writeFloats(floats, valuesOffset, count, bytes, offset, false);
+			}
+		});
+		checkBounds("writeDoubles", 8, doubles.length, bytes.length, new BulkCall() {
+			public void call(int offset, int valuesOffset, int count) {
+				ByteArrayMarshaller.writeDoubles(doubles, valuesOffset, count, bytes, offset, true);
+			}
+		});
+		AssertJUnit.assertTrue("A write that failed its bounds check modified the byte array", Arrays.equals(copy, bytes));
+	}
+
+	/**
+	 * Reads out of bounds of either array throw ArrayIndexOutOfBoundsException and leave the values unchanged.
+	 */
+	public void test_readBounds() {
+		final short[] shorts = new short[4];
+		final int[] ints = new int[4];
+		final long[] longs = new long[4];
+		final float[] floats = new float[4];
+		final double[] doubles = new double[4];
+		final byte[] bytes = newFilledArray(32);
+
+		checkBounds("readShorts", 2, shorts.length, bytes.length, new BulkCall() {
+			public void call(int offset, int valuesOffset, int count) {
+				ByteArrayUnmarshaller.readShorts(bytes, offset, shorts, valuesOffset, count, true);
+			}
+		});
+		checkBounds("readInts", 4, ints.length, bytes.length, new BulkCall() {
+			public void call(int offset, int valuesOffset, int count) {
+				ByteArrayUnmarshaller.readInts(bytes, offset, ints, valuesOffset, count, false);
+			}
+		});
+		checkBounds("readLongs", 8, longs.length, bytes.length, new BulkCall() {
+			public void call(int offset, int valuesOffset, int count) {
+				ByteArrayUnmarshaller.readLongs(bytes, offset, longs, valuesOffset, count, true);
+			}
+		});
+		checkBounds("readFloats", 4, floats.length, bytes.length, new BulkCall() {
+			public void call(int offset, int valuesOffset, int count) {
+				ByteArrayUnmarshaller.readFloats(bytes, offset, floats, valuesOffset, count, false);
+			}
+		});
+		checkBounds("readDoubles", 8, doubles.length, bytes.length, new BulkCall() {
+			public void call(int offset, int valuesOffset, int count) {
+				ByteArrayUnmarshaller.readDoubles(bytes, offset, doubles, valuesOffset, count, true);
+			}
+		});
+		AssertJUnit.assertTrue("A read that failed its bounds check modified the values", Arrays.equals(new short[4], shorts));
+		AssertJUnit.assertTrue("A read that failed its bounds check modified the values", Arrays.equals(new int[4], ints));
+		AssertJUnit.assertTrue("A read that failed its bounds check modified the values", Arrays.equals(new long[4], longs));
+		AssertJUnit.assertTrue("A read that failed its bounds check modified the values", Arrays.equals(new float[4], floats));
+		AssertJUnit.assertTrue("A read that failed its bounds check modified the values", Arrays.equals(new double[4], doubles));
+	}
+
+	/**
+	 * Checks the bounds of a bulk call over a byte array of <code>byteLength</code> bytes and a value array of
+	 * <code>valuesLength</code> values, each <code>width</code> bytes wide. Every call is out of bounds by a single
+	 * byte or value, or has a negative argument.
+	 */
+	private static void checkBounds(String method, int width, int valuesLength, int byteLength, final BulkCall bulk) {
+		int fit = Math.min(valuesLength, byteLength / width);
+		int[][] outOfBounds = {
+			{ -1, 0, 1 },
+			{ 0, -1, 1 },
+			{ 0, 0, -1 },
+			{ byteLength - (fit * width) + 1, 0, fit },
+			{ byteLength - width + 1, 0, 1 },
+			{ byteLength, 0, 1 },
+			{ 0, valuesLength - fit + 1, fit },
+			{ 0, valuesLength, 1 },
+			{ 0, 0, valuesLength + 1 },
+			{ 0, 0, (byteLength / width) + 1 },
+			{ Integer.MAX_VALUE, 0, 1 },
+			{ 0, 0, Integer.MAX_VALUE },
+			{ width, 0, Integer.MIN_VALUE },
+		};
+		for (final int[] args : outOfBounds) {
+			String call = method + " with offset " + args[0] + ", valuesOffset " + args[1] + ", count " + args[2];
+			checkThrows(ArrayIndexOutOfBoundsException.class, call, new Runnable() {
+				public void run() {
+					bulk.call(args[0], args[1], args[2]);
+				}
+			});
+		}
+	}
+
+	private static byte[] newByteArray(int width) {
+		return newFilledArray(BYTE_OFFSET + (COUNT * width) + 5);
+	}
+}
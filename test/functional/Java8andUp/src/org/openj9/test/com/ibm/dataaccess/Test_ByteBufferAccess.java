@@ -0,0 +1,513 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+package org.openj9.test.com.ibm.dataaccess;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ReadOnlyBufferException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.ibm.dataaccess.ByteArrayMarshaller;
+import com.ibm.dataaccess.ByteArrayUnmarshaller;
+import com.ibm.dataaccess.DecimalData;
+import com.ibm.dataaccess.PackedDecimal;
+import org.testng.annotations.Test;
+import org.testng.AssertJUnit;
+
+import static org.openj9.test.com.ibm.dataaccess.DataAccessTestUtil.ENDIANNESS;
+import static org.openj9.test.com.ibm.dataaccess.DataAccessTestUtil.FILL;
+import static org.openj9.test.com.ibm.dataaccess.DataAccessTestUtil.checkAllThrow;
+import static org.openj9.test.com.ibm.dataaccess.DataAccessTestUtil.fill;
+import static org.openj9.test.com.ibm.dataaccess.DataAccessTestUtil.newFilledArray;
+
+/**
+ * Checks that the ByteBuffer overloads of the dataaccess methods give the same results as the byte array methods,
+ * for heap, direct and sliced buffers, that they neither use nor modify the position and byte order of the buffer,
+ * and that they check their bounds against the buffer limit.
+ */
+@Test(groups = { "level.sanity" })
+public class Test_ByteBufferAccess {
+
+	private static final int SIZE = 64;
+
+	private final Random random = new Random(22);
+
+	/**
+	 * A buffer of SIZE bytes, which may be a slice of a larger buffer. The bytes of the larger buffer outside the
+	 * slice must never be modified, and neither must the position and byte order of the buffer.
+	 */
+	private static final class TestBuffer {
+		final String name;
+		final ByteBuffer buffer;
+		final ByteBuffer parent;
+		final int start;
+		final int position;
+		final ByteOrder order;
+
+		TestBuffer(String name, ByteBuffer parent, int start, boolean slice, ByteOrder order) {
+			this.name = name;
+			this.parent = parent;
+			this.start = start;
+			fill(parent);
+			ByteBuffer buffer = parent;
+			if (slice) {
+				parent.position(start);
+				parent.limit(start + SIZE);
+				buffer = parent.slice();
+				parent.clear();
+			}
+			buffer.order(order);
+			buffer.position(3);
+			this.buffer = buffer;
+			this.position = buffer.position();
+			this.order = buffer.order();
+		}
+
+		void clear() {
+			fill(buffer);
+		}
+
+		/**
+		 * Returns the content of the buffer, up to its limit.
+		 */
+		byte[] contents() {
+			byte[] contents = new byte[buffer.limit()];
+			for (int i = 0; i < contents.length; i++) {
+				contents[i] = buffer.get(i);
+			}
+			return contents;
+		}
+
+		void check(String call) {
+			AssertJUnit.assertEquals(call + " moved the position of the " + name, position, buffer.position());
+			AssertJUnit.assertEquals(call + " changed the limit of the " + name, SIZE, buffer.limit());
+			AssertJUnit.assertEquals(call + " changed the byte order of the " + name, order, buffer.order());
+			for (int i = 0; i < parent.limit(); i++) {
+				if ((i < start) || (i >= start + SIZE)) {
+					AssertJUnit.assertEquals(call + " wrote outside the " + name + " at " + i, FILL, parent.get(i));
+				}
+			}
+		}
+	}
+
+	private static List<TestBuffer> newBuffers() {
+		List<TestBuffer> buffers = new ArrayList<TestBuffer>();
+		buffers.add(new TestBuffer("heap buffer", ByteBuffer.allocate(SIZE), 0, false, ByteOrder.BIG_ENDIAN));
+		buffers.add(new TestBuffer("little endian heap buffer", ByteBuffer.allocate(SIZE), 0, false, ByteOrder.LITTLE_ENDIAN));
+		buffers.add(new TestBuffer("heap slice", ByteBuffer.allocate(SIZE + 16), 5, true, ByteOrder.BIG_ENDIAN));
+		buffers.add(new TestBuffer("direct buffer", ByteBuffer.allocateDirect(SIZE), 0, false, ByteOrder.BIG_ENDIAN));
+		buffers.add(new TestBuffer("little endian direct buffer", ByteBuffer.allocateDirect(SIZE), 0, false, ByteOrder.LITTLE_ENDIAN));
+		buffers.add(new TestBuffer("direct slice", ByteBuffer.allocateDirect(SIZE + 16), 7, true, ByteOrder.LITTLE_ENDIAN));
+		return buffers;
+	}
+
+	private static byte[] newByteArray() {
+		return newFilledArray(SIZE);
+	}
+
+	/**
+	 * @tests com.ibm.dataaccess.ByteArrayMarshaller#writeShort(short, java.nio.ByteBuffer, int, boolean)
+	 * @tests com.ibm.dataaccess.ByteArrayUnmarshaller#readShort(java.nio.ByteBuffer, int, boolean)
+	 * @tests com.ibm.dataaccess.ByteArrayUnmarshaller#readLong(java.nio.ByteBuffer, int, boolean)
+	 */
+	public void test_scalarReadWrite() {
+		for (TestBuffer test : newBuffers()) {
+			for (boolean bigEndian : ENDIANNESS) {
+				byte[] expected = newByteArray();
+				test.clear();
+				int[] offsets = { 0, 1, 3, 5, SIZE - 24 };
+				for (int offset : offsets) {
+					short s = (short)random.nextInt();
+					int i = random.nextInt();
+					long l = random.nextLong();
+					float f = Float.intBitsToFloat(random.nextInt());
+					double d = Double.longBitsToDouble(random.nextLong());
+
+					ByteArrayMarshaller.writeShort(s, expected, offset, bigEndian);
+					ByteArrayMarshaller.writeInt(i, expected, offset + 2, bigEndian);
+					ByteArrayMarshaller.writeLong(l, expected, offset + 6, bigEndian);
+					ByteArrayMarshaller.writeFloat(f, expected, offset + 14, bigEndian);
+					ByteArrayMarshaller.writeDouble(d, expected, offset + 16, bigEndian);
+
+					ByteArrayMarshaller.writeShort(s, test.buffer, offset, bigEndian);
+					ByteArrayMarshaller.writeInt(i, test.buffer, offset + 2, bigEndian);
+					ByteArrayMarshaller.writeLong(l, test.buffer, offset + 6, bigEndian);
+					ByteArrayMarshaller.writeFloat(f, test.buffer, offset + 14, bigEndian);
+					ByteArrayMarshaller.writeDouble(d, test.buffer, offset + 16, bigEndian);
+					test.check("write");
+					AssertJUnit.assertTrue("Scalar writes to the " + test.name + " differ, offset " + offset + ", bigEndian " + bigEndian,
+							Arrays.equals(expected, test.contents()));
+
+					String message = "Scalar reads from the " + test.name + " differ, offset " + offset + ", bigEndian " + bigEndian;
+					AssertJUnit.assertEquals(message, ByteArrayUnmarshaller.readShort(expected, offset, bigEndian),
+							ByteArrayUnmarshaller.readShort(test.buffer, offset, bigEndian));
+					AssertJUnit.assertEquals(message, ByteArrayUnmarshaller.readInt(expected, offset + 2, bigEndian),
+							ByteArrayUnmarshaller.readInt(test.buffer, offset + 2, bigEndian));
+					AssertJUnit.assertEquals(message, ByteArrayUnmarshaller.readLong(expected, offset + 6, bigEndian),
+							ByteArrayUnmarshaller.readLong(test.buffer, offset + 6, bigEndian));
+					AssertJUnit.assertEquals(message, Float.floatToRawIntBits(ByteArrayUnmarshaller.readFloat(expected, offset + 14, bigEndian)),
+							Float.floatToRawIntBits(ByteArrayUnmarshaller.readFloat(test.buffer, offset + 14, bigEndian)));
+					AssertJUnit.assertEquals(message, Double.doubleToRawLongBits(ByteArrayUnmarshaller.readDouble(expected, offset + 16, bigEndian)),
+							Double.doubleToRawLongBits(ByteArrayUnmarshaller.readDouble(test.buffer, offset + 16, bigEndian)));
+					test.check("read");
+				}
+			}
+		}
+	}
+
+	/**
+	 * @tests com.ibm.dataaccess.ByteArrayMarshaller#writeInts(int[], int, int, java.nio.ByteBuffer, int, boolean)
+	 * @tests com.ibm.dataaccess.ByteArrayUnmarshaller#readInts(java.nio.ByteBuffer, int, int[], int, int, boolean)
+	 */
+	public void test_bulkReadWrite() {
+		int count = 5;
+		short[] shorts = new short[count + 2];
+		int[] ints = new int[count + 2];
+		long[] longs = new long[count + 2];
+		float[] floats = new float[count + 2];
+		double[] doubles = new double[count + 2];
+		for (int i = 0; i < count + 2; i++) {
+			shorts[i] = (short)random.nextInt();
+			ints[i] = random.nextInt();
+			longs[i] = random.nextLong();
+			floats[i] = Float.intBitsToFloat(random.nextInt());
+			doubles[i] = Double.longBitsToDouble(random.nextLong());
+		}
+		floats[1] = Float.intBitsToFloat(0x7FC00001);
+		doubles[1] = Double.longBitsToDouble(0x7FF8000000000001L);
+
+		for (TestBuffer test : newBuffers()) {
+			for (boolean bigEndian : ENDIANNESS) {
+				for (int offset : new int[] { 0, 1, 3 }) {
+					int[] starts = { offset, offset + 10, offset + 20, offset, offset + 20 };
+					for (int kind = 0; kind < starts.length; kind++) {
+						byte[] expected = newByteArray();
+						byte[] actual = newByteArray();
+						test.clear();
+						int start = starts[kind];
+						switch (kind) {
+						case 0:
+							ByteArrayMarshaller.writeShorts(shorts, 1, count, expected, start, bigEndian);
+							ByteArrayMarshaller.writeShorts(shorts, 1, count, test.buffer, start, bigEndian);
+							short[] readShorts = new short[count + 2];
+							ByteArrayUnmarshaller.readShorts(test.buffer, start, readShorts, 1, count, bigEndian);
+							ByteArrayMarshaller.writeShorts(readShorts, 1, count, actual, start, bigEndian);
+							break;
+						case 1:
+							ByteArrayMarshaller.writeInts(ints, 1, count, expected, start, bigEndian);
+							ByteArrayMarshaller.writeInts(ints, 1, count, test.buffer, start, bigEndian);
+							int[] readInts = new int[count + 2];
+							ByteArrayUnmarshaller.readInts(test.buffer, start, readInts, 1, count, bigEndian);
+							ByteArrayMarshaller.writeInts(readInts, 1, count, actual, start, bigEndian);
+							break;
+						case 2:
+							ByteArrayMarshaller.writeLongs(longs, 1, count, expected, start, bigEndian);
+							ByteArrayMarshaller.writeLongs(longs, 1, count, test.buffer, start, bigEndian);
+							long[] readLongs = new long[count + 2];
+							ByteArrayUnmarshaller.readLongs(test.buffer, start, readLongs, 1, count, bigEndian);
+							ByteArrayMarshaller.writeLongs(readLongs, 1, count, actual, start, bigEndian);
+							break;
+						case 3:
+							ByteArrayMarshaller.writeFloats(floats, 1, count, expected, start, bigEndian);
+							ByteArrayMarshaller.writeFloats(floats, 1, count, test.buffer, start, bigEndian);
+							float[] readFloats = new float[count + 2];
+							ByteArrayUnmarshaller.readFloats(test.buffer, start, readFloats, 1, count, bigEndian);
+							ByteArrayMarshaller.writeFloats(readFloats, 1, count, actual, start, bigEndian);
+							break;
+						default:
+							ByteArrayMarshaller.writeDoubles(doubles, 1, count, expected, start, bigEndian);
+							ByteArrayMarshaller.writeDoubles(doubles, 1, count, test.buffer, start, bigEndian);
+							double[] readDoubles = new double[count + 2];
+							ByteArrayUnmarshaller.readDoubles(test.buffer, start, readDoubles, 1, count, bigEndian);
+							ByteArrayMarshaller.writeDoubles(readDoubles, 1, count, actual, start, bigEndian);
+							break;
+						}
+						String message = "Bulk access " + kind + " to the " + test.name + ", offset " + start + ", bigEndian " + bigEndian;
+						test.check(message);
+						AssertJUnit.assertTrue(message + ": write differs", Arrays.equals(expected, test.contents()));
+						AssertJUnit.assertTrue(message + ": read differs", Arrays.equals(expected, actual));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Fields up to 18 digits are read straight from the buffer, wider fields through a copy, and both give the same
+	 * values and overflows as the byte array conversions.
+	 *
+	 * @tests com.ibm.dataaccess.DecimalData#convertPackedDecimalToLong(java.nio.ByteBuffer, int, int, boolean)
+	 * @tests com.ibm.dataaccess.DecimalData#convertLongToPackedDecimal(long, java.nio.ByteBuffer, int, int, boolean)
+	 */
+	public void test_packedDecimal() {
+		for (TestBuffer test : newBuffers()) {
+			for (int precision = 1; precision <= 25; precision++) {
+				for (boolean checkOverflow : new boolean[] { false, true }) {
+					long value = random.nextLong() >> random.nextInt(64);
+					byte[] expected = newByteArray();
+					Throwable expectedThrown = null;
+					Throwable actualThrown = null;
+					try {
+						DecimalData.convertLongToPackedDecimal(value, expected, 5, precision, checkOverflow);
+					} catch (ArithmeticException e) {
+						expectedThrown = e;
+					}
+					test.clear();
+					try {
+						DecimalData.convertLongToPackedDecimal(value, test.buffer, 5, precision, checkOverflow);
+					} catch (ArithmeticException e) {
+						actualThrown = e;
+					}
+					String message = "Packed Decimal precision " + precision + " in the " + test.name + ", value " + value + ", checkOverflow " + checkOverflow;
+					test.check(message);
+					AssertJUnit.assertEquals(message, expectedThrown == null, actualThrown == null);
+					if (expectedThrown == null) {
+						AssertJUnit.assertTrue(message, Arrays.equals(expected, test.contents()));
+					}
+
+					/* random field bytes, so that invalid digits and values too large for a long are read too */
+					byte[] field = new byte[(precision / 2) + 1];
+					random.nextBytes(field);
+					System.arraycopy(field, 0, expected, 7, field.length);
+					for (int i = 0; i < field.length; i++) {
+						test.buffer.put(7 + i, field[i]);
+					}
+					long expectedValue = 0;
+					long actualValue = 0;
+					expectedThrown = null;
+					actualThrown = null;
+					try {
+						expectedValue = DecimalData.convertPackedDecimalToLong(expected, 7, precision, checkOverflow);
+					} catch (ArithmeticException e) {
+						expectedThrown = e;
+					}
+					try {
+						actualValue = DecimalData.convertPackedDecimalToLong(test.buffer, 7, precision, checkOverflow);
+					} catch (ArithmeticException e) {
+						actualThrown = e;
+					}
+					test.check(message);
+					AssertJUnit.assertEquals(message + ", field " + Arrays.toString(field), expectedThrown == null, actualThrown == null);
+					AssertJUnit.assertEquals(message + ", field " + Arrays.toString(field), expectedValue, actualValue);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @tests com.ibm.dataaccess.DecimalData#convertPackedDecimalsToLongs(java.nio.ByteBuffer, int, int, int, long[], int, int)
+	 * @tests com.ibm.dataaccess.DecimalData#convertLongsToPackedDecimals(long[], int, java.nio.ByteBuffer, int, int, int, int, boolean)
+	 * @tests com.ibm.dataaccess.PackedDecimal#sumPackedDecimals(byte[], int, int, java.nio.ByteBuffer, int, int, int, int, boolean)
+	 * @tests com.ibm.dataaccess.PackedDecimal#comparePackedDecimals(java.nio.ByteBuffer, int, int, int, byte[], int, int, int[], int, int)
+	 */
+	public void test_stridedPackedDecimals() {
+		int count = 5;
+		long[] values = new long[count];
+		for (TestBuffer test : newBuffers()) {
+			for (int precision : new int[] { 1, 4, 7, 18 }) {
+				int bytes = (precision / 2) + 1;
+				int stride = bytes + 1;
+				int offset = SIZE - ((count - 1) * stride) - bytes;
+				long limit = (precision == 18) ? Long.MAX_VALUE : (long)Math.pow(10, precision);
+				for (int i = 0; i < count; i++) {
+					values[i] = random.nextLong() % limit;
+				}
+				values[0] = 0;
+				values[1] = -values[2];
+
+				byte[] expected = newByteArray();
+				test.clear();
+				DecimalData.convertLongsToPackedDecimals(values, 0, expected, offset, stride, precision, count, false);
+				DecimalData.convertLongsToPackedDecimals(values, 0, test.buffer, offset, stride, precision, count, false);
+				String message = "Strided Packed Decimals of precision " + precision + " in the " + test.name;
+				test.check(message);
+				AssertJUnit.assertTrue(message, Arrays.equals(expected, test.contents()));
+
+				long[] expectedValues = new long[count];
+				long[] actualValues = new long[count];
+				DecimalData.convertPackedDecimalsToLongs(expected, offset, stride, precision, expectedValues, 0, count);
+				DecimalData.convertPackedDecimalsToLongs(test.buffer, offset, stride, precision, actualValues, 0, count);
+				AssertJUnit.assertTrue(message, Arrays.equals(expectedValues, actualValues));
+
+				byte[] expectedSum = new byte[14];
+				byte[] actualSum = new byte[14];
+				PackedDecimal.sumPackedDecimals(expectedSum, 1, 25, expected, offset, stride, precision, count, true);
+				PackedDecimal.sumPackedDecimals(actualSum, 1, 25, test.buffer, offset, stride, precision, count, true);
+				AssertJUnit.assertTrue(message, Arrays.equals(expectedSum, actualSum));
+
+				byte[] op = new byte[bytes];
+				System.arraycopy(expected, offset + (2 * stride), op, 0, bytes);
+				int[] expectedResults = new int[count];
+				int[] actualResults = new int[count];
+				PackedDecimal.comparePackedDecimals(expected, offset, stride, precision, op, 0, precision, expectedResults, 0, count);
+				PackedDecimal.comparePackedDecimals(test.buffer, offset, stride, precision, op, 0, precision, actualResults, 0, count);
+				AssertJUnit.assertTrue(message, Arrays.equals(expectedResults, actualResults));
+				test.check(message);
+			}
+		}
+	}
+
+	/**
+	 * Fields wider than 18 digits are compared through a copy.
+	 *
+	 * @tests com.ibm.dataaccess.PackedDecimal#comparePackedDecimals(java.nio.ByteBuffer, int, int, int, byte[], int, int, int[], int, int)
+	 */
+	public void test_compareWidePackedDecimals() {
+		int precision = 23;
+		int bytes = 12;
+		int count = 4;
+		byte[] expected = newByteArray();
+		DecimalData.convertBigIntegerToPackedDecimal(new java.math.BigInteger("12345678901234567890123"), expected, 0, precision, true);
+		DecimalData.convertBigIntegerToPackedDecimal(new java.math.BigInteger("-12345678901234567890123"), expected, bytes, precision, true);
+		DecimalData.convertBigIntegerToPackedDecimal(new java.math.BigInteger("12345678901234567890124"), expected, 2 * bytes, precision, true);
+		DecimalData.convertBigIntegerToPackedDecimal(new java.math.BigInteger("12345678901234567890122"), expected, 3 * bytes, precision, true);
+		byte[] op = Arrays.copyOf(expected, bytes);
+		for (TestBuffer test : newBuffers()) {
+			for (int i = 0; i < SIZE; i++) {
+				test.buffer.put(i, expected[i]);
+			}
+			int[] results = new int[count];
+			PackedDecimal.comparePackedDecimals(test.buffer, 0, bytes, precision, op, 0, precision, results, 0, count);
+			test.check("comparePackedDecimals");
+			AssertJUnit.assertTrue(test.name + ": " + Arrays.toString(results), Arrays.equals(new int[] { 0, -1, 1, -1 }, results));
+		}
+	}
+
+	/**
+	 * Accesses past the limit throw IndexOutOfBoundsException, even when the capacity of the buffer or its backing
+	 * array would allow them, and nothing is written.
+	 */
+	public void test_bounds() {
+		for (TestBuffer test : newBuffers()) {
+			final ByteBuffer buffer = test.buffer;
+			final int limit = SIZE - 8;
+			buffer.limit(limit);
+			final short[] shorts = new short[4];
+			final int[] ints = new int[4];
+			final long[] longs = new long[4];
+			final float[] floats = new float[4];
+			final double[] doubles = new double[4];
+			final int[] results = new int[4];
+			final byte[] sum = new byte[10];
+			final byte[] op = { 0x1C };
+
+			/* one byte or one value past the limit, or a negative argument */
+			List<Runnable> calls = new ArrayList<Runnable>();
+			calls.add(new Runnable() { public void run() { ByteArrayUnmarshaller.readShort(buffer, limit - 1, true); } });
+			calls.add(new Runnable() { public void run() { ByteArrayUnmarshaller.readInt(buffer, limit - 3, false); } });
+			calls.add(new Runnable() { public void run() { ByteArrayUnmarshaller.readLong(buffer, limit - 7, true); } });
+			calls.add(new Runnable() { public void run() { ByteArrayUnmarshaller.readFloat(buffer, -1, false); } });
+			calls.add(new Runnable() { public void run() { ByteArrayUnmarshaller.readDouble(buffer, limit, true); } });
+			calls.add(new Runnable() { public void run() { ByteArrayMarshaller.writeShort((short)1, buffer, limit - 1, true); } });
+			calls.add(new Runnable() { public void run() { ByteArrayMarshaller.writeInt(1, buffer, -1, false); } });
+			calls.add(new Runnable() { public void run() { ByteArrayMarshaller.writeLong(1L, buffer, limit - 7, true); } });
+			calls.add(new Runnable() { public void run() { ByteArrayMarshaller.writeFloat(1.0f, buffer, limit - 3, false); } });
+			calls.add(new Runnable() { public void run() { ByteArrayMarshaller.writeDouble(1.0d, buffer, Integer.MAX_VALUE, true); } });
+			calls.add(new Runnable() { public void run() { ByteArrayUnmarshaller.readShorts(buffer, limit - 7, shorts, 0, 4, true); } });
+			calls.add(new Runnable() { public void run() { ByteArrayUnmarshaller.readInts(buffer, 0, ints, 1, 4, false); } });
+			calls.add(new Runnable() { public void run() { ByteArrayUnmarshaller.readLongs(buffer, limit - 31, longs, 0, 4, true); } });
+			calls.add(new Runnable() { public void run() { ByteArrayUnmarshaller.readFloats(buffer, 0, floats, -1, 1, false); } });
+			calls.add(new Runnable() { public void run() { ByteArrayUnmarshaller.readDoubles(buffer, 0, doubles, 0, -1, true); } });
+			calls.add(new Runnable() { public void run() { ByteArrayMarshaller.writeShorts(shorts, 0, 4, buffer, limit - 7, true); } });
+			calls.add(new Runnable() { public void run() { ByteArrayMarshaller.writeInts(ints, 1, 4, buffer, 0, false); } });
+			calls.add(new Runnable() { public void run() { ByteArrayMarshaller.writeLongs(longs, 0, 4, buffer, limit - 31, true); } });
+			calls.add(new Runnable() { public void run() { ByteArrayMarshaller.writeFloats(floats, 0, Integer.MAX_VALUE, buffer, 0, false); } });
+			calls.add(new Runnable() { public void run() { ByteArrayMarshaller.writeDoubles(doubles, 0, 1, buffer, -8, true); } });
+			calls.add(new Runnable() { public void run() { DecimalData.convertPackedDecimalToLong(buffer, limit - 2, 5, false); } });
+			calls.add(new Runnable() { public void run() { DecimalData.convertPackedDecimalToLong(buffer, limit - 10, 21, false); } });
+			calls.add(new Runnable() { public void run() { DecimalData.convertLongToPackedDecimal(1L, buffer, limit - 2, 5, false); } });
+			calls.add(new Runnable() { public void run() { DecimalData.convertPackedDecimalsToLongs(buffer, limit - 14, 4, 5, longs, 0, 4); } });
+			calls.add(new Runnable() { public void run() { DecimalData.convertPackedDecimalsToLongs(buffer, 0, 4, 5, longs, 1, 4); } });
+			calls.add(new Runnable() { public void run() { DecimalData.convertLongsToPackedDecimals(longs, 0, buffer, limit - 14, 4, 5, 4, false); } });
+			calls.add(new Runnable() { public void run() { DecimalData.convertLongsToPackedDecimals(longs, 0, buffer, -1, 4, 5, 1, false); } });
+			calls.add(new Runnable() { public void run() { PackedDecimal.sumPackedDecimals(sum, 0, 9, buffer, limit - 14, 4, 5, 4, false); } });
+			calls.add(new Runnable() { public void run() { PackedDecimal.sumPackedDecimals(sum, 0, 9, buffer, 0, 4, 5, -1, false); } });
+			calls.add(new Runnable() { public void run() { PackedDecimal.sumPackedDecimals(sum, 1, 19, buffer, 0, 4, 5, 1, false); } });
+			calls.add(new Runnable() { public void run() { PackedDecimal.comparePackedDecimals(buffer, limit - 14, 4, 5, op, 0, 1, results, 0, 4); } });
+			calls.add(new Runnable() { public void run() { PackedDecimal.comparePackedDecimals(buffer, 0, 4, 5, op, 0, 1, results, 1, 4); } });
+			calls.add(new Runnable() { public void run() { PackedDecimal.comparePackedDecimals(buffer, 0, 4, 5, op, 1, 1, results, 0, 1); } });
+			checkAllThrow(IndexOutOfBoundsException.class, "the calls on the " + test.name, calls.toArray(new Runnable[calls.size()]));
+
+			/* the same runs end exactly at the limit */
+			ByteArrayUnmarshaller.readShort(buffer, limit - 2, true);
+			ByteArrayUnmarshaller.readDouble(buffer, limit - 8, true);
+			ByteArrayUnmarshaller.readShorts(buffer, limit - 8, shorts, 0, 4, true);
+			ByteArrayUnmarshaller.readLongs(buffer, limit - 32, longs, 0, 4, true);
+			DecimalData.convertPackedDecimalsToLongs(buffer, limit - 15, 4, 5, longs, 0, 4);
+
+			buffer.limit(SIZE);
+			test.check("Out of bounds calls");
+			byte[] unchanged = newByteArray();
+			AssertJUnit.assertTrue("A call that failed its bounds check modified the " + test.name, Arrays.equals(unchanged, test.contents()));
+		}
+	}
+
+	/**
+	 * The strided methods reject a stride smaller than the field, as the byte array methods do.
+	 */
+	public void test_invalidStride() {
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(SIZE);
+		final long[] values = new long[4];
+		List<Runnable> calls = new ArrayList<Runnable>();
+		calls.add(new Runnable() { public void run() { DecimalData.convertPackedDecimalsToLongs(buffer, 0, 2, 5, values, 0, 2); } });
+		calls.add(new Runnable() { public void run() { DecimalData.convertLongsToPackedDecimals(values, 0, buffer, 0, 2, 5, 2, false); } });
+		calls.add(new Runnable() { public void run() { PackedDecimal.sumPackedDecimals(new byte[10], 0, 9, buffer, 0, 2, 5, 2, false); } });
+		calls.add(new Runnable() { public void run() { PackedDecimal.comparePackedDecimals(buffer, 0, 2, 5, new byte[] { 0x1C }, 0, 1, new int[2], 0, 2); } });
+		calls.add(new Runnable() { public void run() { DecimalData.convertPackedDecimalsToLongs(buffer, 0, 16, 19, values, 0, 2); } });
+		checkAllThrow(IllegalArgumentException.class, "the calls with an invalid stride", calls.toArray(new Runnable[calls.size()]));
+	}
+
+	/**
+	 * Reads from read-only buffers are allowed, and writes to them throw ReadOnlyBufferException.
+	 */
+	public void test_readOnly() {
+		ByteBuffer[] buffers = { ByteBuffer.allocate(SIZE).asReadOnlyBuffer(), ByteBuffer.allocateDirect(SIZE).asReadOnlyBuffer() };
+		for (final ByteBuffer buffer : buffers) {
+			AssertJUnit.assertEquals(0L, ByteArrayUnmarshaller.readLong(buffer, 8, true));
+			AssertJUnit.assertEquals(0L, DecimalData.convertPackedDecimalToLong(buffer, 8, 7, true));
+			long[] values = new long[4];
+			ByteArrayUnmarshaller.readLongs(buffer, 0, values, 0, 4, false);
+			DecimalData.convertPackedDecimalsToLongs(buffer, 0, 8, 9, values, 0, 4);
+
+			final long[] longs = { 1L, 2L, 3L, 4L };
+			final float[] floats = { 1.0f, 2.0f };
+			List<Runnable> calls = new ArrayList<Runnable>();
+			calls.add(new Runnable() { public void run() { ByteArrayMarshaller.writeShort((short)1, buffer, 0, true); } });
+			calls.add(new Runnable() { public void run() { ByteArrayMarshaller.writeInt(1, buffer, 0, false); } });
+			calls.add(new Runnable() { public void run() { ByteArrayMarshaller.writeLong(1L, buffer, 0, true); } });
+			calls.add(new Runnable() { public void run() { ByteArrayMarshaller.writeFloat(1.0f, buffer, 0, false); } });
+			calls.add(new Runnable() { public void run() { ByteArrayMarshaller.writeDouble(1.0d, buffer, 0, true); } });
+			calls.add(new Runnable() { public void run() { ByteArrayMarshaller.writeLongs(longs, 0, 4, buffer, 0, true); } });
+			calls.add(new Runnable() { public void run() { ByteArrayMarshaller.writeFloats(floats, 0, 2, buffer, 0, false); } });
+			calls.add(new Runnable() { public void run() { DecimalData.convertLongToPackedDecimal(1L, buffer, 0, 5, true); } });
+			calls.add(new Runnable() { public void run() { DecimalData.convertLongsToPackedDecimals(longs, 0, buffer, 0, 8, 5, 4, true); } });
+			checkAllThrow(ReadOnlyBufferException.class, "the writes to a read-only buffer", calls.toArray(new Runnable[calls.size()]));
+			for (int i = 0; i < SIZE; i++) {
+				AssertJUnit.assertEquals("Read-only buffer modified at " + i, 0, buffer.get(i));
+			}
+		}
+	}
+}
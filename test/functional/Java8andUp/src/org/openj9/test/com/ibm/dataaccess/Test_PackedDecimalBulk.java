@@ -0,0 +1,405 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+package org.openj9.test.com.ibm.dataaccess;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+import com.ibm.dataaccess.DecimalData;
+import com.ibm.dataaccess.PackedDecimal;
+import org.testng.annotations.Test;
+import org.testng.Assert;
+import org.testng.AssertJUnit;
+
+import static org.openj9.test.com.ibm.dataaccess.DataAccessTestUtil.FILL;
+import static org.openj9.test.com.ibm.dataaccess.DataAccessTestUtil.checkAllThrow;
+import static org.openj9.test.com.ibm.dataaccess.DataAccessTestUtil.checkThrows;
+import static org.openj9.test.com.ibm.dataaccess.DataAccessTestUtil.newFilledArray;
+
+/**
+ * Checks that the strided bulk Packed Decimal conversions, sum and compare give the same results as a loop of the
+ * scalar methods over the fields of fixed-length records, and that they check their arguments before touching any
+ * array.
+ */
+@Test(groups = { "level.sanity" })
+public class Test_PackedDecimalBulk {
+
+	private static final int COUNT = 29;
+
+	/** The records start after a few bytes, and the field is a few bytes into each record */
+	private static final int FIRST_RECORD = 3;
+	private static final int FIELD_OFFSET = 2;
+	private static final int RECORD_PADDING = 5;
+
+	private static final byte[] SIGNS = { 0x0A, 0x0B, 0x0C, 0x0D, 0x0E, 0x0F };
+
+	private final Random random = new Random(21);
+
+	/**
+	 * Every byte of the fields is random, so that invalid digits and sign codes are converted too.
+	 *
+	 * @tests com.ibm.dataaccess.DecimalData#convertPackedDecimalsToLongs(byte[], int, int, int, long[], int, int)
+	 */
+	public void test_convertPackedDecimalsToLongs() {
+		for (int precision = 1; precision <= 18; precision++) {
+			int stride = stride(precision);
+			byte[] records = new byte[FIRST_RECORD + (COUNT * stride)];
+			random.nextBytes(records);
+			long[] values = new long[COUNT + 4];
+			DecimalData.convertPackedDecimalsToLongs(records, FIRST_RECORD + FIELD_OFFSET, stride, precision, values, 2, COUNT);
+			for (int i = 0; i < values.length; i++) {
+				long expected = ((i < 2) || (i >= COUNT + 2)) ? 0L
+						: DecimalData.convertPackedDecimalToLong(records, fieldOffset(i - 2, stride), precision, false);
+				AssertJUnit.assertEquals("precision " + precision + ", value " + i, expected, values[i]);
+			}
+		}
+	}
+
+	/**
+	 * Values too large for the field are truncated as by the scalar conversion, and the bytes between the fields are
+	 * not modified.
+	 *
+	 * @tests com.ibm.dataaccess.DecimalData#convertLongsToPackedDecimals(long[], int, byte[], int, int, int, int, boolean)
+	 */
+	public void test_convertLongsToPackedDecimals() {
+		long[] values = new long[COUNT + 1];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = random.nextLong() >> random.nextInt(64);
+		}
+		values[1] = Long.MIN_VALUE;
+		values[2] = Long.MAX_VALUE;
+		values[3] = 0L;
+		for (int precision = 1; precision <= 21; precision++) {
+			int stride = stride(precision);
+			byte[] expected = newRecords(stride);
+			byte[] actual = newRecords(stride);
+			for (int i = 0; i < COUNT; i++) {
+				DecimalData.convertLongToPackedDecimal(values[i + 1], expected, fieldOffset(i, stride), precision, false);
+			}
+			DecimalData.convertLongsToPackedDecimals(values, 1, actual, FIRST_RECORD + FIELD_OFFSET, stride, precision, COUNT, false);
+			AssertJUnit.assertTrue("precision " + precision, Arrays.equals(expected, actual));
+		}
+	}
+
+	/**
+	 * With checkOverflow, the records before the value that overflows have been converted and the others are not
+	 * modified.
+	 *
+	 * @tests com.ibm.dataaccess.DecimalData#convertLongsToPackedDecimals(long[], int, byte[], int, int, int, int, boolean)
+	 */
+	public void test_convertLongsToPackedDecimalsOverflow() {
+		int precision = 5;
+		int stride = stride(precision);
+		long[] values = { 12345L, -99999L, 0L, 100000L, 7L };
+		byte[] expected = newRecords(stride);
+		byte[] actual = newRecords(stride);
+		for (int i = 0; i < 3; i++) {
+			DecimalData.convertLongToPackedDecimal(values[i], expected, fieldOffset(i, stride), precision, true);
+		}
+		try {
+			DecimalData.convertLongsToPackedDecimals(values, 0, actual, FIRST_RECORD + FIELD_OFFSET, stride, precision, values.length, true);
+			Assert.fail("convertLongsToPackedDecimals did not detect the overflow");
+		} catch (ArithmeticException e) {
+			// expected
+		}
+		AssertJUnit.assertTrue("Records differ after the overflow", Arrays.equals(expected, actual));
+	}
+
+	/**
+	 * Sums that do not fit into a long, of fields with every sign code, are the same as the BigDecimal sum of the
+	 * scalar conversions.
+	 *
+	 * @tests com.ibm.dataaccess.PackedDecimal#sumPackedDecimals(byte[], int, int, byte[], int, int, int, int, boolean)
+	 */
+	public void test_sumPackedDecimals() {
+		int[] counts = { 0, 1, 2, COUNT, 1000 };
+		for (int precision = 1; precision <= 18; precision++) {
+			for (int count : counts) {
+				int stride = stride(precision);
+				byte[] records = new byte[FIRST_RECORD + (Math.max(count, 1) * stride)];
+				BigDecimal sum = BigDecimal.ZERO;
+				for (int i = 0; i < count; i++) {
+					int offset = fieldOffset(i, stride);
+					DecimalData.convertBigIntegerToPackedDecimal(randomDigits(precision), records, offset, precision, true);
+					setSign(records, offset, precision, SIGNS[i % SIGNS.length]);
+					sum = sum.add(DecimalData.convertPackedDecimalToBigDecimal(records, offset, precision, 0, true));
+				}
+				checkSum(sum, 25, records, stride, precision, count);
+				checkSum(sum, 40, records, stride, precision, count);
+			}
+		}
+	}
+
+	/**
+	 * A sum that does not fit into the result is reported with checkOverflow, and truncated to its low order digits
+	 * without.
+	 *
+	 * @tests com.ibm.dataaccess.PackedDecimal#sumPackedDecimals(byte[], int, int, byte[], int, int, int, int, boolean)
+	 */
+	public void test_sumPackedDecimalsOverflow() {
+		int precision = 18;
+		int stride = stride(precision);
+		byte[] records = new byte[FIRST_RECORD + (COUNT * stride)];
+		BigDecimal sum = BigDecimal.ZERO;
+		for (int i = 0; i < COUNT; i++) {
+			BigInteger value = BigInteger.valueOf(999999999999999999L - i).negate();
+			DecimalData.convertBigIntegerToPackedDecimal(value, records, fieldOffset(i, stride), precision, true);
+			sum = sum.add(new BigDecimal(value));
+		}
+		for (int resultPrecision = 18; resultPrecision <= 19; resultPrecision++) {
+			byte[] result = new byte[10];
+			try {
+				PackedDecimal.sumPackedDecimals(result, 0, resultPrecision, records, FIRST_RECORD + FIELD_OFFSET, stride, precision, COUNT, true);
+				Assert.fail("sumPackedDecimals did not detect the overflow for result precision " + resultPrecision);
+			} catch (ArithmeticException e) {
+				// expected
+			}
+
+			BigInteger truncated = sum.toBigInteger().remainder(BigInteger.TEN.pow(resultPrecision));
+			byte[] expected = new byte[10];
+			DecimalData.convertBigIntegerToPackedDecimal(truncated, expected, 0, resultPrecision, true);
+			PackedDecimal.sumPackedDecimals(result, 0, resultPrecision, records, FIRST_RECORD + FIELD_OFFSET, stride, precision, COUNT, false);
+			AssertJUnit.assertTrue("Truncated sum for result precision " + resultPrecision, Arrays.equals(expected, result));
+		}
+	}
+
+	/**
+	 * Fields and operands up to 18 digits are compared as longs, wider ones byte by byte, and both give the same
+	 * results as the scalar comparisons. A field that is neither less nor greater than the operand compares equal,
+	 * which includes a zero with any sign code.
+	 *
+	 * @tests com.ibm.dataaccess.PackedDecimal#comparePackedDecimals(byte[], int, int, int, byte[], int, int, int[], int, int)
+	 */
+	public void test_comparePackedDecimals() {
+		int[][] precisions = { { 1, 1 }, { 5, 3 }, { 3, 5 }, { 18, 18 }, { 17, 18 }, { 18, 25 }, { 25, 7 }, { 31, 31 } };
+		for (int[] pair : precisions) {
+			int precision = pair[0];
+			int opPrecision = pair[1];
+			int stride = stride(precision);
+			byte[] records = new byte[FIRST_RECORD + (COUNT * stride)];
+			byte[] op = new byte[1 + (opPrecision / 2) + 1];
+			DecimalData.convertBigIntegerToPackedDecimal(randomDigits(Math.min(precision, opPrecision)), op, 1, opPrecision, true);
+			for (int i = 0; i < COUNT; i++) {
+				int offset = fieldOffset(i, stride);
+				/* Some fields are equal to the operand, or its negation, with different sign codes */
+				BigInteger value = randomDigits(precision);
+				if (i % 4 == 0) {
+					value = DecimalData.convertPackedDecimalToBigInteger(op, 1, opPrecision, true);
+				} else if (i % 4 == 1) {
+					value = DecimalData.convertPackedDecimalToBigInteger(op, 1, opPrecision, true).negate();
+				}
+				DecimalData.convertBigIntegerToPackedDecimal(value, records, offset, precision, true);
+				setSign(records, offset, precision, SIGNS[i % SIGNS.length]);
+			}
+
+			int[] results = new int[COUNT + 2];
+			Arrays.fill(results, 2);
+			PackedDecimal.comparePackedDecimals(records, FIRST_RECORD + FIELD_OFFSET, stride, precision, op, 1, opPrecision, results, 1, COUNT);
+			for (int i = 0; i < results.length; i++) {
+				int expected = 2;
+				if ((i >= 1) && (i <= COUNT)) {
+					int offset = fieldOffset(i - 1, stride);
+					boolean lessThan = PackedDecimal.lessThanPackedDecimal(records, offset, precision, op, 1, opPrecision);
+					boolean greaterThan = PackedDecimal.greaterThanPackedDecimal(records, offset, precision, op, 1, opPrecision);
+					AssertJUnit.assertFalse("record " + (i - 1) + " is both less and greater than the operand", lessThan && greaterThan);
+					expected = lessThan ? -1 : (greaterThan ? 1 : 0);
+					int numeric = DecimalData.convertPackedDecimalToBigDecimal(records, offset, precision, 0, false)
+							.compareTo(DecimalData.convertPackedDecimalToBigDecimal(op, 1, opPrecision, 0, false));
+					AssertJUnit.assertEquals("record " + (i - 1) + " compared by value", numeric, expected);
+				}
+				AssertJUnit.assertEquals("precision " + precision + ", operand precision " + opPrecision + ", record " + (i - 1),
+						expected, results[i]);
+			}
+		}
+	}
+
+	/**
+	 * The last field may end exactly at the end of the array, even though its record does not fit, and a stride
+	 * equal to the field size reads contiguous Packed Decimals.
+	 */
+	public void test_lastFieldAtEnd() {
+		int precision = 7;
+		int bytes = 4;
+		long[] values = { 1234567L, -7654321L, 42L };
+		for (int stride : new int[] { bytes, bytes + 9 }) {
+			byte[] records = new byte[1 + ((values.length - 1) * stride) + bytes];
+			DecimalData.convertLongsToPackedDecimals(values, 0, records, 1, stride, precision, values.length, true);
+			long[] read = new long[values.length];
+			DecimalData.convertPackedDecimalsToLongs(records, 1, stride, precision, read, 0, values.length);
+			AssertJUnit.assertTrue("stride " + stride, Arrays.equals(values, read));
+			int[] results = new int[values.length];
+			byte[] op = { 0x00, 0x00, 0x04, 0x2C };
+			PackedDecimal.comparePackedDecimals(records, 1, stride, precision, op, 0, precision, results, 0, values.length);
+			AssertJUnit.assertTrue("stride " + stride, Arrays.equals(new int[] { 1, -1, 0 }, results));
+			byte[] sum = new byte[5];
+			PackedDecimal.sumPackedDecimals(sum, 0, 9, records, 1, stride, precision, values.length, true);
+			AssertJUnit.assertEquals("stride " + stride, -6419712L, DecimalData.convertPackedDecimalToLong(sum, 0, 9, true));
+		}
+	}
+
+	/**
+	 * Invalid strides and precisions throw IllegalArgumentException, and fields or values out of bounds throw
+	 * ArrayIndexOutOfBoundsException, before any array is modified.
+	 */
+	public void test_invalidArguments() {
+		final int precision = 5;
+		final int bytes = 3;
+		final int stride = 4;
+		final byte[] records = newFilledArray(3 * stride);
+		final byte[] recordsCopy = records.clone();
+		final long[] values = new long[3];
+		final int[] results = new int[3];
+		final byte[] sum = new byte[4];
+		final byte[] op = { 0x00, 0x00, 0x1C };
+
+		/* offset, stride, precision, valuesOffset, count */
+		int[][] outOfBounds = {
+			{ -1, stride, precision, 0, 1 },
+			{ 0, stride, precision, 0, -1 },
+			{ records.length - bytes + 1, stride, precision, 0, 1 },
+			{ 1 + stride - bytes, stride, precision, 0, 3 },
+			{ 0, stride, precision, -1, 1 },
+			{ 0, stride, precision, 1, 3 },
+			{ 0, Integer.MAX_VALUE, precision, 0, 2 },
+			{ Integer.MAX_VALUE, stride, precision, 0, 1 },
+		};
+		int[][] illegal = {
+			{ 0, bytes - 1, precision, 0, 1 },
+			{ 0, 0, precision, 0, 1 },
+			{ 0, -stride, precision, 0, 1 },
+		};
+		for (final int[] args : outOfBounds) {
+			checkAllThrow(ArrayIndexOutOfBoundsException.class, "the calls for " + Arrays.toString(args),
+				new Runnable() { public void run() { DecimalData.convertPackedDecimalsToLongs(records, args[0], args[1], args[2], values, args[3], args[4]); } },
+				new Runnable() { public void run() { DecimalData.convertLongsToPackedDecimals(values, args[3], records, args[0], args[1], args[2], args[4], false); } },
+				new Runnable() { public void run() { PackedDecimal.comparePackedDecimals(records, args[0], args[1], args[2], op, 0, precision, results, args[3], args[4]); } });
+		}
+		for (final int[] args : illegal) {
+			checkAllThrow(IllegalArgumentException.class, "the calls for " + Arrays.toString(args),
+				new Runnable() { public void run() { DecimalData.convertPackedDecimalsToLongs(records, args[0], args[1], args[2], values, args[3], args[4]); } },
+				new Runnable() { public void run() { DecimalData.convertLongsToPackedDecimals(values, args[3], records, args[0], args[1], args[2], args[4], false); } },
+				new Runnable() { public void run() { PackedDecimal.sumPackedDecimals(sum, 0, 7, records, args[0], args[1], args[2], args[4], false); } },
+				new Runnable() { public void run() { PackedDecimal.comparePackedDecimals(records, args[0], args[1], args[2], op, 0, precision, results, args[3], args[4]); } });
+		}
+
+		/* the sum reads no values array, so only the field bounds apply */
+		int[][] sumOutOfBounds = { { -1, 1 }, { 0, -1 }, { records.length - bytes + 1, 1 }, { 1 + stride - bytes, 3 } };
+		for (final int[] args : sumOutOfBounds) {
+			checkThrows(ArrayIndexOutOfBoundsException.class, "sumPackedDecimals with offset " + args[0] + ", count " + args[1], new Runnable() {
+				public void run() {
+					PackedDecimal.sumPackedDecimals(sum, 0, 7, records, args[0], stride, precision, args[1], false);
+				}
+			});
+		}
+		checkThrows(ArrayIndexOutOfBoundsException.class, "sumPackedDecimals result", new Runnable() {
+			public void run() {
+				PackedDecimal.sumPackedDecimals(sum, 1, 7, records, 0, stride, precision, 1, false);
+			}
+		});
+		checkThrows(ArrayIndexOutOfBoundsException.class, "sumPackedDecimals result", new Runnable() {
+			public void run() {
+				PackedDecimal.sumPackedDecimals(sum, -1, 1, records, 0, stride, precision, 1, false);
+			}
+		});
+		checkThrows(ArrayIndexOutOfBoundsException.class, "comparePackedDecimals operand", new Runnable() {
+			public void run() {
+				PackedDecimal.comparePackedDecimals(records, 0, stride, precision, op, 1, precision, results, 0, 1);
+			}
+		});
+		checkThrows(ArrayIndexOutOfBoundsException.class, "comparePackedDecimals operand", new Runnable() {
+			public void run() {
+				PackedDecimal.comparePackedDecimals(records, 0, stride, precision, op, -1, 1, results, 0, 1);
+			}
+		});
+		for (final int invalid : new int[] { 0, 19 }) {
+			checkThrows(IllegalArgumentException.class, "convertPackedDecimalsToLongs precision " + invalid, new Runnable() {
+				public void run() {
+					DecimalData.convertPackedDecimalsToLongs(new byte[32], 0, 16, invalid, values, 0, 1);
+				}
+			});
+			checkThrows(IllegalArgumentException.class, "sumPackedDecimals precision " + invalid, new Runnable() {
+				public void run() {
+					PackedDecimal.sumPackedDecimals(new byte[16], 0, 25, new byte[32], 0, 16, invalid, 1, false);
+				}
+			});
+		}
+		checkThrows(IllegalArgumentException.class, "sumPackedDecimals result precision 0", new Runnable() {
+			public void run() {
+				PackedDecimal.sumPackedDecimals(sum, 0, 0, records, 0, stride, precision, 1, false);
+			}
+		});
+		checkThrows(IllegalArgumentException.class, "comparePackedDecimals operand precision 0", new Runnable() {
+			public void run() {
+				PackedDecimal.comparePackedDecimals(records, 0, stride, precision, op, 0, 0, results, 0, 1);
+			}
+		});
+
+		AssertJUnit.assertTrue("A call that failed its checks modified the records", Arrays.equals(recordsCopy, records));
+		AssertJUnit.assertTrue("A call that failed its checks modified the values", Arrays.equals(new long[3], values));
+		AssertJUnit.assertTrue("A call that failed its checks modified the results", Arrays.equals(new int[3], results));
+		AssertJUnit.assertTrue("A call that failed its checks modified the sum", Arrays.equals(new byte[4], sum));
+	}
+
+	private static void checkSum(BigDecimal sum, int resultPrecision, byte[] records, int stride, int precision, int count) {
+		int resultBytes = (resultPrecision / 2) + 1;
+		/* the scalar conversion of more than 18 digits leaves the leading zero bytes as they are */
+		byte[] expected = new byte[resultBytes + 2];
+		byte[] actual = newFilledArray(resultBytes + 2);
+		expected[0] = FILL;
+		expected[resultBytes + 1] = FILL;
+		Arrays.fill(actual, 1, resultBytes + 1, (byte)0x99);
+		DecimalData.convertBigDecimalToPackedDecimal(sum, expected, 1, resultPrecision, true);
+		PackedDecimal.sumPackedDecimals(actual, 1, resultPrecision, records, FIRST_RECORD + FIELD_OFFSET, stride, precision, count, true);
+		AssertJUnit.assertTrue("Sum of " + count + " values of precision " + precision + " into precision " + resultPrecision
+				+ ": expected " + sum + " found " + DecimalData.convertPackedDecimalToBigDecimal(actual, 1, resultPrecision, 0, false),
+				Arrays.equals(expected, actual));
+	}
+
+	/**
+	 * A random value of up to <code>precision</code> digits. One value in four has all its digits set.
+	 */
+	private BigInteger randomDigits(int precision) {
+		BigInteger limit = BigInteger.TEN.pow(precision);
+		BigInteger value = (random.nextInt(4) == 0) ? limit.subtract(BigInteger.ONE) : new BigInteger(precision * 4, random).mod(limit);
+		return random.nextBoolean() ? value.negate() : value;
+	}
+
+	private static void setSign(byte[] records, int offset, int precision, byte sign) {
+		int last = offset + (precision / 2);
+		records[last] = (byte)((records[last] & 0xF0) | sign);
+	}
+
+	private static int stride(int precision) {
+		return FIELD_OFFSET + (precision / 2) + 1 + RECORD_PADDING;
+	}
+
+	private static int fieldOffset(int record, int stride) {
+		return FIRST_RECORD + (record * stride) + FIELD_OFFSET;
+	}
+
+	private static byte[] newRecords(int stride) {
+		return newFilledArray(FIRST_RECORD + (COUNT * stride));
+	}
+}
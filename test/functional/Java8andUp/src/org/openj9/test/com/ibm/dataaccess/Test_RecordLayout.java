@@ -0,0 +1,434 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+
+package org.openj9.test.com.ibm.dataaccess;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+import java.util.Random;
+
+import com.ibm.dataaccess.ByteArrayMarshaller;
+import com.ibm.dataaccess.ByteArrayUnmarshaller;
+import com.ibm.dataaccess.DecimalData;
+import com.ibm.dataaccess.RecordLayout;
+import org.testng.annotations.Test;
+import org.testng.Assert;
+import org.testng.AssertJUnit;
+
+import static org.openj9.test.com.ibm.dataaccess.DataAccessTestUtil.checkAllThrow;
+import static org.openj9.test.com.ibm.dataaccess.DataAccessTestUtil.checkThrows;
+import static org.openj9.test.com.ibm.dataaccess.DataAccessTestUtil.fill;
+import static org.openj9.test.com.ibm.dataaccess.DataAccessTestUtil.newFilledArray;
+
+/**
+ * Checks that a RecordLayout decodes and encodes records column by column with the same results as one scalar
+ * dataaccess call per field, and that it checks the records and columns before touching any of them.
+ */
+@Test(groups = { "level.sanity" })
+public class Test_RecordLayout {
+
+	private static final int COUNT = 23;
+
+	/** The records start after a few bytes, and there are a few bytes after the last record */
+	private static final int FIRST_RECORD = 5;
+	private static final int TRAILER = 3;
+
+	/** The offsets of the fields below, and the three bytes skipped between fields 2 and 3 */
+	private static final int[] OFFSETS = { 0, 4, 9, 17, 19, 23, 31, 39, 49 };
+	private static final int[] LENGTHS = { 4, 5, 5, 2, 4, 8, 8, 10, 2 };
+	private static final int RECORD_LENGTH = 51;
+
+	private final Random random = new Random(23);
+
+	private static RecordLayout newLayout() {
+		return RecordLayout.builder()
+				.binaryInt(true, true)
+				.packedDecimal(9)
+				.externalDecimal(5, DecimalData.EBCDIC_SIGN_EMBEDDED_TRAILING)
+				.skip(3)
+				.binaryShort(false, false)
+				.binaryInt(false, false)
+				.binaryLong(false)
+				.externalDecimal(7, DecimalData.EBCDIC_SIGN_SEPARATE_LEADING)
+				.packedDecimal(18)
+				.binaryShort(true, true)
+				.build();
+	}
+
+	/**
+	 * Decodes one field of one record with the scalar method for the field.
+	 */
+	private static long decodeField(int field, byte[] records, int offset) {
+		offset += OFFSETS[field];
+		switch (field) {
+		case 0:
+			return ByteArrayUnmarshaller.readInt(records, offset, true);
+		case 1:
+			return DecimalData.convertPackedDecimalToLong(records, offset, 9, false);
+		case 2:
+			return DecimalData.convertExternalDecimalToLong(records, offset, 5, false, DecimalData.EBCDIC_SIGN_EMBEDDED_TRAILING);
+		case 3:
+			return ByteArrayUnmarshaller.readShort(records, offset, false) & 0xFFFF;
+		case 4:
+			return ByteArrayUnmarshaller.readInt(records, offset, false) & 0xFFFFFFFFL;
+		case 5:
+			return ByteArrayUnmarshaller.readLong(records, offset, false);
+		case 6:
+			return DecimalData.convertExternalDecimalToLong(records, offset, 7, false, DecimalData.EBCDIC_SIGN_SEPARATE_LEADING);
+		case 7:
+			return DecimalData.convertPackedDecimalToLong(records, offset, 18, false);
+		default:
+			return ByteArrayUnmarshaller.readShort(records, offset, true);
+		}
+	}
+
+	/**
+	 * Encodes one field of one record with the scalar method for the field.
+	 */
+	private static void encodeField(int field, long value, byte[] records, int offset) {
+		offset += OFFSETS[field];
+		switch (field) {
+		case 0:
+			ByteArrayMarshaller.writeInt((int)value, records, offset, true);
+			break;
+		case 1:
+			DecimalData.convertLongToPackedDecimal(value, records, offset, 9, false);
+			break;
+		case 2:
+			DecimalData.convertLongToExternalDecimal(value, records, offset, 5, false, DecimalData.EBCDIC_SIGN_EMBEDDED_TRAILING);
+			break;
+		case 3:
+			ByteArrayMarshaller.writeShort((short)value, records, offset, false);
+			break;
+		case 4:
+			ByteArrayMarshaller.writeInt((int)value, records, offset, false);
+			break;
+		case 5:
+			ByteArrayMarshaller.writeLong(value, records, offset, false);
+			break;
+		case 6:
+			DecimalData.convertLongToExternalDecimal(value, records, offset, 7, false, DecimalData.EBCDIC_SIGN_SEPARATE_LEADING);
+			break;
+		case 7:
+			DecimalData.convertLongToPackedDecimal(value, records, offset, 18, false);
+			break;
+		default:
+			ByteArrayMarshaller.writeShort((short)value, records, offset, true);
+			break;
+		}
+	}
+
+	/**
+	 * A random value that fits in the field.
+	 */
+	private long randomValue(int field) {
+		switch (field) {
+		case 0:
+			return random.nextInt();
+		case 1:
+			return random.nextInt(2 * 999999999) - 999999999;
+		case 2:
+			return random.nextInt(2 * 99999) - 99999;
+		case 3:
+			return random.nextInt(0x10000);
+		case 4:
+			return random.nextInt() & 0xFFFFFFFFL;
+		case 5:
+			return random.nextLong();
+		case 6:
+			return random.nextInt(2 * 9999999) - 9999999;
+		case 7:
+			return random.nextLong() % 1000000000000000000L;
+		default:
+			return (short)random.nextInt();
+		}
+	}
+
+	private long[][] randomColumns(int columnOffset) {
+		long[][] columns = new long[OFFSETS.length][COUNT + columnOffset + 1];
+		for (int field = 0; field < columns.length; field++) {
+			for (int i = 0; i < columns[field].length; i++) {
+				columns[field][i] = randomValue(field);
+			}
+		}
+		/* the extremes of every field */
+		long[][] extremes = {
+			{ Integer.MIN_VALUE, Integer.MAX_VALUE },
+			{ -999999999L, 999999999L },
+			{ -99999L, 99999L },
+			{ 0L, 0xFFFFL },
+			{ 0L, 0xFFFFFFFFL },
+			{ Long.MIN_VALUE, Long.MAX_VALUE },
+			{ -9999999L, 9999999L },
+			{ -999999999999999999L, 999999999999999999L },
+			{ Short.MIN_VALUE, Short.MAX_VALUE },
+		};
+		for (int field = 0; field < columns.length; field++) {
+			columns[field][columnOffset] = extremes[field][0];
+			columns[field][columnOffset + 1] = extremes[field][1];
+			columns[field][columnOffset + 2] = 0L;
+		}
+		return columns;
+	}
+
+	private static byte[] newRecords() {
+		return newFilledArray(FIRST_RECORD + (COUNT * RECORD_LENGTH) + TRAILER);
+	}
+
+	/**
+	 * @tests com.ibm.dataaccess.RecordLayout#getRecordLength()
+	 * @tests com.ibm.dataaccess.RecordLayout#getFieldOffset(int)
+	 * @tests com.ibm.dataaccess.RecordLayout#getFieldLength(int)
+	 */
+	public void test_builder() {
+		RecordLayout layout = newLayout();
+		AssertJUnit.assertEquals(RECORD_LENGTH, layout.getRecordLength());
+		AssertJUnit.assertEquals(OFFSETS.length, layout.getFieldCount());
+		for (int field = 0; field < OFFSETS.length; field++) {
+			AssertJUnit.assertEquals("offset of field " + field, OFFSETS[field], layout.getFieldOffset(field));
+			AssertJUnit.assertEquals("length of field " + field, LENGTHS[field], layout.getFieldLength(field));
+		}
+		long[][] columns = layout.newColumns(7);
+		AssertJUnit.assertEquals(OFFSETS.length, columns.length);
+		AssertJUnit.assertEquals(7, columns[0].length);
+
+		RecordLayout empty = RecordLayout.builder().skip(4).build();
+		AssertJUnit.assertEquals(4, empty.getRecordLength());
+		AssertJUnit.assertEquals(0, empty.getFieldCount());
+
+		try {
+			layout.getFieldOffset(OFFSETS.length);
+			Assert.fail("getFieldOffset accepted an invalid field");
+		} catch (ArrayIndexOutOfBoundsException e) {
+			// expected
+		}
+
+		Runnable[] invalid = {
+			new Runnable() { public void run() { RecordLayout.builder().packedDecimal(0); } },
+			new Runnable() { public void run() { RecordLayout.builder().packedDecimal(19); } },
+			new Runnable() { public void run() { RecordLayout.builder().externalDecimal(0, DecimalData.EBCDIC_SIGN_EMBEDDED_LEADING); } },
+			new Runnable() { public void run() { RecordLayout.builder().externalDecimal(19, DecimalData.EBCDIC_SIGN_EMBEDDED_LEADING); } },
+			new Runnable() { public void run() { RecordLayout.builder().externalDecimal(5, DecimalData.UNICODE_UNSIGNED); } },
+			new Runnable() { public void run() { RecordLayout.builder().externalDecimal(5, 0); } },
+			new Runnable() { public void run() { RecordLayout.builder().skip(-1); } },
+		};
+		checkAllThrow(IllegalArgumentException.class, "the invalid fields", invalid);
+	}
+
+	/**
+	 * Every byte of the records is random, so that invalid digits and sign codes are decoded too.
+	 *
+	 * @tests com.ibm.dataaccess.RecordLayout#decode(byte[], int, int, long[][], int)
+	 */
+	public void test_decode() {
+		RecordLayout layout = newLayout();
+		byte[] records = newRecords();
+		random.nextBytes(records);
+		/* the sign bytes of the separate sign fields must be valid */
+		for (int i = 0; i < COUNT; i++) {
+			records[FIRST_RECORD + (i * RECORD_LENGTH) + OFFSETS[6]] = (byte)(random.nextBoolean() ? 0x4E : 0x60);
+		}
+		long[][] columns = layout.newColumns(COUNT + 3);
+		layout.decode(records, FIRST_RECORD, COUNT, columns, 2);
+		for (int field = 0; field < columns.length; field++) {
+			for (int i = 0; i < columns[field].length; i++) {
+				long expected = ((i < 2) || (i >= COUNT + 2)) ? 0L : decodeField(field, records, FIRST_RECORD + ((i - 2) * RECORD_LENGTH));
+				AssertJUnit.assertEquals("field " + field + ", value " + i, expected, columns[field][i]);
+			}
+		}
+	}
+
+	/**
+	 * The skipped bytes and the bytes outside the records are not modified.
+	 *
+	 * @tests com.ibm.dataaccess.RecordLayout#encode(long[][], int, byte[], int, int, boolean)
+	 */
+	public void test_encode() {
+		RecordLayout layout = newLayout();
+		for (boolean checkOverflow : new boolean[] { false, true }) {
+			long[][] columns = randomColumns(1);
+			byte[] expected = newRecords();
+			byte[] actual = newRecords();
+			for (int i = 0; i < COUNT; i++) {
+				for (int field = 0; field < columns.length; field++) {
+					encodeField(field, columns[field][i + 1], expected, FIRST_RECORD + (i * RECORD_LENGTH));
+				}
+			}
+			layout.encode(columns, 1, actual, FIRST_RECORD, COUNT, checkOverflow);
+			AssertJUnit.assertTrue("checkOverflow " + checkOverflow, Arrays.equals(expected, actual));
+
+			long[][] decoded = layout.newColumns(COUNT + 2);
+			layout.decode(actual, FIRST_RECORD, COUNT, decoded, 1);
+			for (int field = 0; field < columns.length; field++) {
+				for (int i = 1; i <= COUNT; i++) {
+					AssertJUnit.assertEquals("round trip of field " + field + ", value " + i, columns[field][i], decoded[field][i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Without checkOverflow values too large for a field are truncated as by the scalar methods. With checkOverflow
+	 * a binary value out of range is found before any value of its field is stored, and the fields before it have
+	 * been encoded.
+	 *
+	 * @tests com.ibm.dataaccess.RecordLayout#encode(long[][], int, byte[], int, int, boolean)
+	 */
+	public void test_encodeOverflow() {
+		RecordLayout layout = newLayout();
+		long[][] columns = randomColumns(0);
+		columns[3][COUNT - 1] = 0x10000L;
+		columns[0][5] = 1L << 40;
+		columns[1][6] = -12345678901L;
+
+		byte[] expected = newRecords();
+		byte[] actual = newRecords();
+		for (int i = 0; i < COUNT; i++) {
+			for (int field = 0; field < columns.length; field++) {
+				encodeField(field, columns[field][i], expected, FIRST_RECORD + (i * RECORD_LENGTH));
+			}
+		}
+		layout.encode(columns, 0, actual, FIRST_RECORD, COUNT, false);
+		AssertJUnit.assertTrue("Truncated values", Arrays.equals(expected, actual));
+
+		columns[0][5] = 5L;
+		columns[1][6] = 6L;
+		expected = newRecords();
+		actual = newRecords();
+		for (int i = 0; i < COUNT; i++) {
+			for (int field = 0; field < 3; field++) {
+				encodeField(field, columns[field][i], expected, FIRST_RECORD + (i * RECORD_LENGTH));
+			}
+		}
+		try {
+			layout.encode(columns, 0, actual, FIRST_RECORD, COUNT, true);
+			Assert.fail("encode did not detect the overflow of an unsigned short");
+		} catch (ArithmeticException e) {
+			// expected
+		}
+		AssertJUnit.assertTrue("Records after the overflow", Arrays.equals(expected, actual));
+	}
+
+	/**
+	 * Decoding and encoding a buffer gives the same results as the byte array, for heap and direct buffers, and
+	 * neither uses nor modifies the position of the buffer.
+	 *
+	 * @tests com.ibm.dataaccess.RecordLayout#decode(java.nio.ByteBuffer, int, int, long[][], int)
+	 * @tests com.ibm.dataaccess.RecordLayout#encode(long[][], int, java.nio.ByteBuffer, int, int, boolean)
+	 */
+	public void test_buffers() {
+		RecordLayout layout = newLayout();
+		long[][] columns = randomColumns(0);
+		byte[] expected = newRecords();
+		layout.encode(columns, 0, expected, FIRST_RECORD, COUNT, true);
+
+		ByteBuffer[] buffers = { ByteBuffer.allocate(expected.length), ByteBuffer.allocateDirect(expected.length),
+				ByteBuffer.allocate(expected.length + 10) };
+		buffers[2].position(4);
+		buffers[2] = buffers[2].slice();
+		for (ByteBuffer buffer : buffers) {
+			fill(buffer);
+			buffer.position(1);
+			layout.encode(columns, 0, buffer, FIRST_RECORD, COUNT, true);
+			for (int i = 0; i < expected.length; i++) {
+				AssertJUnit.assertEquals("encode into " + buffer + " at " + i, expected[i], buffer.get(i));
+			}
+			long[][] decoded = layout.newColumns(COUNT);
+			layout.decode(buffer, FIRST_RECORD, COUNT, decoded, 0);
+			for (int field = 0; field < columns.length; field++) {
+				AssertJUnit.assertTrue("decode field " + field + " from " + buffer, Arrays.equals(Arrays.copyOf(columns[field], COUNT), decoded[field]));
+			}
+			AssertJUnit.assertEquals(1, buffer.position());
+		}
+	}
+
+	/**
+	 * Records or columns out of bounds, and columns that do not match the fields, are rejected before anything is
+	 * decoded or encoded.
+	 */
+	public void test_invalidArguments() {
+		final RecordLayout layout = newLayout();
+		final byte[] records = newFilledArray(3 * RECORD_LENGTH);
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(4 * RECORD_LENGTH);
+		buffer.limit(3 * RECORD_LENGTH);
+		final long[][] columns = layout.newColumns(3);
+		final long[][] shortColumns = layout.newColumns(3);
+		shortColumns[4] = new long[2];
+
+		/* record offset, count, column offset */
+		int[][] outOfBounds = {
+			{ -1, 1, 0 },
+			{ 1, 3, 0 },
+			{ (2 * RECORD_LENGTH) + 1, 1, 0 },
+			{ 3 * RECORD_LENGTH, 1, 0 },
+			{ 0, -1, 0 },
+			{ 0, 1, -1 },
+			{ 0, 3, 1 },
+			{ 0, 4, 0 },
+			{ Integer.MAX_VALUE, 1, 0 },
+		};
+		for (final int[] args : outOfBounds) {
+			String arguments = Arrays.toString(args);
+			checkAllThrow(ArrayIndexOutOfBoundsException.class, "the array calls for " + arguments,
+				new Runnable() { public void run() { layout.decode(records, args[0], args[1], columns, args[2]); } },
+				new Runnable() { public void run() { layout.encode(columns, args[2], records, args[0], args[1], false); } });
+			checkAllThrow(IndexOutOfBoundsException.class, "the buffer calls for " + arguments,
+				new Runnable() { public void run() { layout.decode(buffer, args[0], args[1], columns, args[2]); } },
+				new Runnable() { public void run() { layout.encode(columns, args[2], buffer, args[0], args[1], false); } });
+		}
+		checkAllThrow(ArrayIndexOutOfBoundsException.class, "the calls with a column that is too short",
+			new Runnable() { public void run() { layout.decode(records, 0, 3, shortColumns, 0); } },
+			new Runnable() { public void run() { layout.encode(shortColumns, 0, records, 0, 3, false); } });
+
+		final long[][] tooFew = new long[OFFSETS.length - 1][3];
+		final long[][] tooMany = new long[OFFSETS.length + 1][3];
+		Runnable[] mismatched = {
+			new Runnable() { public void run() { layout.decode(records, 0, 1, tooFew, 0); } },
+			new Runnable() { public void run() { layout.decode(records, 0, 1, tooMany, 0); } },
+			new Runnable() { public void run() { layout.encode(tooFew, 0, records, 0, 1, false); } },
+			new Runnable() { public void run() { layout.decode(buffer, 0, 1, tooMany, 0); } },
+			new Runnable() { public void run() { layout.encode(tooFew, 0, buffer, 0, 1, false); } },
+		};
+		checkAllThrow(IllegalArgumentException.class, "the calls with the wrong number of columns", mismatched);
+		checkThrows(ReadOnlyBufferException.class, "encode to a read-only buffer", new Runnable() {
+			public void run() {
+				layout.encode(columns, 0, buffer.asReadOnlyBuffer(), 0, 1, false);
+			}
+		});
+
+		AssertJUnit.assertTrue("A call that failed its checks modified the records", Arrays.equals(newFilledArray(records.length), records));
+		for (long[] column : columns) {
+			AssertJUnit.assertTrue("A call that failed its checks modified the columns", Arrays.equals(new long[3], column));
+		}
+
+		/* the last record may end exactly at the end of the records, or at the limit of the buffer */
+		layout.decode(records, 2 * RECORD_LENGTH, 1, columns, 2);
+		layout.decode(buffer, 0, 3, columns, 0);
+		layout.encode(columns, 0, buffer, 0, 3, false);
+
+		buffer.limit(buffer.capacity());
+		for (int i = 3 * RECORD_LENGTH; i < buffer.capacity(); i++) {
+			AssertJUnit.assertEquals("Wrote past the limit of the buffer at " + i, 0, buffer.get(i));
+		}
+	}
+}
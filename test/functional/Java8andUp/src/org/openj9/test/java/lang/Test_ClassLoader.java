@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1998, 2019 IBM Corp. and others
+ * Copyright (c) 1998, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -416,6 +416,83 @@ public class Test_ClassLoader {
 		}
 	}
 
+	/**
+	 * @tests java.lang.ClassLoader#getClassLoadingLock(java.lang.String)
+	 */
+	@Test
+	public void test_getClassLoadingLockConcurrent() throws InterruptedException {
+		final MyClassLoader mcl = new MyClassLoader();
+		final int threadCount = 8;
+		final Object[] locks = new Object[threadCount];
+		Thread[] threads = new Thread[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			final int index = i;
+			threads[i] = new Thread() {
+				public void run() {
+					locks[index] = mcl.myGetClassLoadingLock("concurrentLock");
+				}
+			};
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		for (int i = 1; i < threadCount; i++) {
+			AssertJUnit.assertSame("getClassLoadingLock() returns different lock objects for same class name", locks[0], locks[i]);
+		}
+		AssertJUnit.assertNotSame("getClassLoadingLock() returns the same lock object for different class names",
+				locks[0], mcl.myGetClassLoadingLock("otherConcurrentLock"));
+	}
+
+	/**
+	 * A class loader whose hashCode() and equals() cannot be called.
+	 */
+	static class IdentityOnlyClassLoader extends ClassLoader {
+		public int hashCode() {
+			throw new IllegalStateException("hashCode() called on the class loader");
+		}
+
+		public boolean equals(Object other) {
+			throw new IllegalStateException("equals() called on the class loader");
+		}
+	}
+
+	/**
+	 * Recording a wait for a contended class loading lock does not call
+	 * methods the class loader can override.
+	 *
+	 * @tests java.lang.ClassLoader#loadClass(java.lang.String)
+	 */
+	@Test
+	public void test_loadClassContendedLock() throws InterruptedException {
+		final IdentityOnlyClassLoader loader = new IdentityOnlyClassLoader();
+		final Throwable[] thrown = new Throwable[1];
+		Thread loading = new Thread() {
+			public void run() {
+				try {
+					loader.loadClass("org.openj9.test.java.lang.NoSuchClass");
+				} catch (Throwable e) {
+					thrown[0] = e;
+				}
+			}
+		};
+		/* the loader is not parallel capable, so it is its own class loading lock */
+		synchronized (loader) {
+			loading.start();
+			while (loading.getState() != Thread.State.BLOCKED) {
+				if (!loading.isAlive()) {
+					break;
+				}
+				Thread.sleep(1);
+			}
+			Thread.sleep(10);
+		}
+		loading.join();
+		AssertJUnit.assertTrue("Expected ClassNotFoundException, got " + thrown[0], thrown[0] instanceof ClassNotFoundException);
+	}
+
 	/**
 	 * [PR Jazz103 76960]
 	 * 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 1998, 2018 IBM Corp. and others
+ * Copyright (c) 1998, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -195,6 +195,56 @@ public class Test_StringBuilder {
 		AssertJUnit.assertTrue("StringBuilder", sb4.toString().equals("hi ther"));
 	}
 
+	/**
+	 * @tests java.lang.StringBuilder#append(int)
+	 * @tests java.lang.StringBuilder#append(long)
+	 * @tests java.lang.StringBuilder#append(float)
+	 * @tests java.lang.StringBuilder#append(double)
+	 */
+	@Test
+	public void test_appendPrimitives() {
+		int[] ints = { 0, 7, -7, 10, -10, 123456789, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE + 1 };
+		long[] longs = { 0L, -1L, 4294967296L, -4294967296L, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1 };
+		float[] floats = { 0.0f, -0.0f, 1.5f, -3.25e-10f, Float.MAX_VALUE, Float.MIN_VALUE, Float.NaN, Float.NEGATIVE_INFINITY };
+		double[] doubles = { 0.0d, -0.0d, 0.1d, -1234.5678e100d, Double.MAX_VALUE, Double.MIN_VALUE, Double.NaN, Double.POSITIVE_INFINITY };
+
+		// start compressed, then with a character which can't be compressed
+		String[] prefixes = { "", "x", "\u0100" };
+		for (int p = 0; p < prefixes.length; p++) {
+			StringBuilder sb = new StringBuilder(prefixes[p]);
+			StringBuilder expected = new StringBuilder(prefixes[p]);
+			for (int i = 0; i < ints.length; i++) {
+				sb.append(ints[i]);
+				expected.append(String.valueOf(ints[i]));
+			}
+			for (int i = 0; i < longs.length; i++) {
+				sb.append(longs[i]);
+				expected.append(String.valueOf(longs[i]));
+			}
+			for (int i = 0; i < floats.length; i++) {
+				sb.append(floats[i]);
+				expected.append(String.valueOf(floats[i]));
+			}
+			for (int i = 0; i < doubles.length; i++) {
+				sb.append(doubles[i]);
+				expected.append(String.valueOf(doubles[i]));
+			}
+			AssertJUnit.assertEquals("prefix " + p, expected.toString(), sb.toString());
+			AssertJUnit.assertEquals("prefix " + p + " length", expected.length(), sb.length());
+		}
+
+		// grow from the smallest capacity a digit at a time, then inflate
+		StringBuilder sb = new StringBuilder(0);
+		String expected = "";
+		for (int i = 0; i < 100; i++) {
+			sb.append(i % 10);
+			expected += i % 10;
+		}
+		sb.append('\u0100').append(-42L).append(2.5d);
+		expected += "\u0100-422.5";
+		AssertJUnit.assertEquals("grown", expected, sb.toString());
+	}
+
 	/**
 	 * @tests java.lang.StringBuilder#insert(int, java.lang.CharSequence)
 	 */
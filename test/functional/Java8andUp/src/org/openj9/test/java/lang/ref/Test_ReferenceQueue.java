@@ -1,7 +1,7 @@
 package org.openj9.test.java.lang.ref;
 
 /*******************************************************************************
- * Copyright (c) 1998, 2020 IBM Corp. and others
+ * Copyright (c) 1998, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -29,6 +29,11 @@ import org.testng.AssertJUnit;
 import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ibm.jvm.ReferenceQueues;
 
 @Test(groups = { "level.sanity" })
 public class Test_ReferenceQueue {
@@ -138,6 +143,87 @@ public class Test_ReferenceQueue {
 		}
 	}
 
+	/**
+	 * @tests java.lang.ref.ReferenceQueue#remove(long)
+	 */
+	@Test
+	public void test_remove_notifiedWithoutReference() throws InterruptedException {
+		final long timeout = 1000;
+		Thread notifier = new Thread(new Runnable() {
+			public void run() {
+				try {
+					Thread.sleep(timeout / 5);
+				} catch (InterruptedException e) {
+					return;
+				}
+				synchronized (rq) {
+					rq.notifyAll();
+				}
+			}
+		});
+		long start = System.nanoTime();
+		notifier.start();
+		/* a notification without a reference must not end the wait early */
+		Reference ret = rq.remove(timeout);
+		long elapsedMs = (System.nanoTime() - start) / 1000000L;
+		notifier.join();
+		AssertJUnit.assertNull("Reference removed from an empty queue.", ret);
+		AssertJUnit.assertTrue("remove(long) returned after " + elapsedMs + "ms.", elapsedMs >= timeout);
+	}
+
+	/**
+	 * @tests java.lang.ref.ReferenceQueue#remove(long)
+	 */
+	@Test
+	public void test_remove_referenceEnqueuedWhileWaiting() throws InterruptedException {
+		final Object referent = new Object();
+		final WeakReference ref = new WeakReference(referent, rq);
+		Thread enqueuer = new Thread(new Runnable() {
+			public void run() {
+				try {
+					Thread.sleep(200);
+				} catch (InterruptedException e) {
+					return;
+				}
+				ref.enqueue();
+			}
+		});
+		enqueuer.start();
+		Reference ret = rq.remove(60000);
+		enqueuer.join();
+		AssertJUnit.assertEquals("Wrong reference removed.", ref, ret);
+		AssertJUnit.assertFalse("Removed reference still enqueued.", ret.isEnqueued());
+		AssertJUnit.assertNull("Queue is not empty.", rq.remove(1));
+	}
+
+	/**
+	 * @tests com.ibm.jvm.ReferenceQueues#drainTo(ReferenceQueue, java.util.Collection, int)
+	 */
+	@Test
+	public void test_drainTo() {
+		Object referent = new Object();
+		WeakReference[] refs = new WeakReference[5];
+		for (int i = 0; i < refs.length; i++) {
+			refs[i] = new WeakReference(referent, rq);
+			refs[i].enqueue();
+		}
+		List<Reference> drained = new ArrayList<>();
+		AssertJUnit.assertEquals("Nothing drained with max 0.", 0, ReferenceQueues.drainTo(rq, drained, 0));
+		AssertJUnit.assertEquals("Wrong count with max 3.", 3, ReferenceQueues.drainTo(rq, drained, 3));
+		AssertJUnit.assertEquals("Poll after partial drain failed.", refs[3], rq.poll());
+		AssertJUnit.assertEquals("Wrong count draining the rest.", 1, ReferenceQueues.drainTo(rq, drained));
+		AssertJUnit.assertEquals("Empty queue drained.", 0, ReferenceQueues.drainTo(rq, drained));
+		AssertJUnit.assertEquals("Wrong number of references.", 4, drained.size());
+		for (int i = 0; i < 3; i++) {
+			AssertJUnit.assertEquals("References out of order.", refs[i], drained.get(i));
+		}
+		AssertJUnit.assertEquals("References out of order.", refs[4], drained.get(3));
+		for (Reference ref : drained) {
+			AssertJUnit.assertFalse("Drained reference still enqueued.", ref.isEnqueued());
+		}
+		AssertJUnit.assertNull("Queue is not empty.", rq.poll());
+	}
+
 	/**
 	 * @tests java.lang.ref.ReferenceQueue#ReferenceQueue()
 	 */
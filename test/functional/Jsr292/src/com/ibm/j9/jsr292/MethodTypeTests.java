@@ -23,10 +23,18 @@ package com.ibm.j9.jsr292;
 
 import org.testng.annotations.Test;
 import org.testng.AssertJUnit;
+import org.testng.SkipException;
 import java.io.*;
 import java.lang.invoke.MethodType;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
 
 import static java.lang.invoke.MethodType.*;
 
@@ -595,4 +603,94 @@ public class MethodTypeTests {
 			System.setSecurityManager(null);
 		}
 	}
+
+	/**
+	 * Ensure that threads creating equal MethodTypes at the same time all get the same interned instance.
+	 */
+	@Test(groups = { "level.extended" })
+	public void test_Intern_Concurrent() throws Throwable {
+		final int threadCount = 8;
+		final int typeCount = 100;
+		final MethodType[][] results = new MethodType[threadCount][typeCount];
+		final Throwable[] failures = new Throwable[threadCount];
+		final CyclicBarrier barrier = new CyclicBarrier(threadCount);
+		Thread[] threads = new Thread[threadCount];
+		for (int t = 0; t < threadCount; t++) {
+			final int thread = t;
+			threads[t] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						for (int i = 0; i < typeCount; i++) {
+							barrier.await();
+							/* the return type makes these MethodTypes new to the intern table */
+							results[thread][i] = MethodType.methodType(MethodTypeTests.class, Collections.<Class<?>>nCopies(i, CyclicBarrier[].class));
+						}
+					} catch (Throwable e) {
+						failures[thread] = e;
+						barrier.reset();
+					}
+				}
+			};
+			threads[t].start();
+		}
+		for (int t = 0; t < threadCount; t++) {
+			threads[t].join();
+			if (failures[t] != null) {
+				throw failures[t];
+			}
+		}
+		for (int i = 0; i < typeCount; i++) {
+			AssertJUnit.assertEquals(i, results[0][i].parameterCount());
+			for (int t = 1; t < threadCount; t++) {
+				AssertJUnit.assertSame("MethodType " + i + " was interned twice", results[0][i], results[t][i]);
+			}
+		}
+	}
+
+	/**
+	 * Ensure that interning does not keep MethodTypes alive, and that the intern table entries
+	 * of collected MethodTypes are removed.
+	 */
+	@Test(groups = { "level.extended" })
+	public void test_Intern_CollectedTypesExpunged() throws Throwable {
+		Field internTableField = MethodType.class.getDeclaredField("internTable");
+		internTableField.setAccessible(true);
+		Object internTable = internTableField.get(null);
+		if (!(internTable instanceof ConcurrentHashMap)) {
+			throw new SkipException("MethodTypes are not interned in a ConcurrentHashMap");
+		}
+		Map<?, ?> table = (Map<?, ?>)internTable;
+
+		WeakReference<Class<?>> classReference = internCustomLoadedTypes();
+		for (int i = 0; (i < 50) && hasCollectedEntries(table, classReference); i++) {
+			System.gc();
+			Thread.sleep(100);
+			/* interning a new MethodType removes the entries of collected ones */
+			MethodType.methodType(MethodTypeTests.class, Collections.<Class<?>>nCopies(i, MethodTypeTests[].class));
+		}
+		AssertJUnit.assertNull("MethodTypes keep their classes alive", classReference.get());
+		AssertJUnit.assertFalse("entries of collected MethodTypes were not removed", hasCollectedEntries(table, classReference));
+	}
+
+	private static WeakReference<Class<?>> internCustomLoadedTypes() throws Throwable {
+		Class<?> customClass = new ParentCustomClassLoader(MethodTypeTests.class.getClassLoader()).loadClass("com.ibm.j9.jsr292.CustomLoadedClass1");
+		AssertJUnit.assertNotSame(CustomLoadedClass1.class, customClass);
+		for (int i = 0; i < 10; i++) {
+			MethodType.methodType(customClass, Collections.<Class<?>>nCopies(i, customClass));
+		}
+		return new WeakReference<Class<?>>(customClass);
+	}
+
+	private static boolean hasCollectedEntries(Map<?, ?> table, WeakReference<Class<?>> classReference) {
+		if (classReference.get() != null) {
+			return true;
+		}
+		for (Object entry : table.values()) {
+			if (((Reference<?>)entry).get() == null) {
+				return true;
+			}
+		}
+		return false;
+	}
 }
@@ -0,0 +1,348 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.jvm.ras.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import junit.framework.TestCase;
+
+import com.ibm.dtfj.image.CorruptData;
+import com.ibm.dtfj.image.Image;
+import com.ibm.dtfj.image.ImageAddressSpace;
+import com.ibm.dtfj.image.ImageFactory;
+import com.ibm.dtfj.java.JavaHeap;
+import com.ibm.dtfj.java.JavaObject;
+import com.ibm.dtfj.java.JavaRuntime;
+
+/**
+ * Check the heapdumps jdmpview writes on several threads and compresses as it goes.
+ * <p>
+ * The compressed stream is checked directly, by reading back what it wrote with an ordinary
+ * gzip reader. The whole heapdump command is checked by running jdmpview on a portable heap dump
+ * and on a system dump, and comparing the heapdumps it writes on one and on several threads.
+ * <p>
+ * The heapdump classes are not exported by the openj9.dtfjview module, so on Java 9 and later
+ * this test needs --add-exports openj9.dtfjview/com.ibm.jvm.dtfjview.heapdump=ALL-UNNAMED.
+ */
+public class ParallelHeapdumpTests extends TestCase {
+
+	private static final String PHD_FACTORY = "com.ibm.dtfj.phd.PHDImageFactory";
+	private static final String PARALLEL_GZIP = "com.ibm.jvm.dtfjview.heapdump.ParallelGZIPOutputStream";
+
+	/** The size of the blocks the stream compresses independently */
+	private static final int BLOCK_SIZE = 128 * 1024;
+
+	/** Keep a few thousand objects alive so that the heap is walked in several chunks, see retainObjects() */
+	private static List<Object> retained;
+
+	private final List<File> files = new ArrayList<File>();
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		retained = null;
+		for (File file : files) {
+			file.delete();
+		}
+		files.clear();
+	}
+
+	public void testEmptyInput() throws Exception {
+		checkRoundTrip(new byte[0], 1);
+		checkRoundTrip(new byte[0], 4);
+	}
+
+	public void testSingleByte() throws Exception {
+		checkRoundTrip(new byte[] { 42 }, 1);
+		checkRoundTrip(new byte[] { 42 }, 4);
+	}
+
+	/**
+	 * Input that exactly fills its blocks, so that the last block is empty.
+	 */
+	public void testWholeBlocks() throws Exception {
+		checkRoundTrip(testData(2 * BLOCK_SIZE), 1);
+		checkRoundTrip(testData(2 * BLOCK_SIZE), 4);
+	}
+
+	/**
+	 * More blocks than can be pending at once, so that writes wait for the compressors.
+	 */
+	public void testManyBlocks() throws Exception {
+		byte input[] = testData(20 * BLOCK_SIZE + 12345);
+		checkRoundTrip(input, 1);
+		checkRoundTrip(input, 4);
+	}
+
+	/**
+	 * Data written a byte at a time comes back the same as data written in arrays.
+	 */
+	public void testSingleByteWrites() throws Exception {
+		byte input[] = testData(BLOCK_SIZE + 100);
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		OutputStream out = newParallelGZIPOutputStream(compressed, 2);
+		for (byte b : input) {
+			out.write(b);
+		}
+		out.close();
+		assertTrue("Data differs after decompression", Arrays.equals(input, gunzip(compressed.toByteArray())));
+	}
+
+	/**
+	 * When the underlying stream fails, close reports the failure and still closes the
+	 * underlying stream, and the compressing stream cannot be written to again.
+	 */
+	public void testCloseAfterWriteFailure() throws Exception {
+		FailingOutputStream failing = new FailingOutputStream(100);
+		OutputStream out = newParallelGZIPOutputStream(failing, 2);
+		out.write(testData(3 * BLOCK_SIZE));
+		try {
+			out.close();
+			fail("close did not report the write failure");
+		} catch (IOException e) {
+			assertEquals(FailingOutputStream.MESSAGE, e.getMessage());
+		}
+		assertTrue("Underlying stream not closed", failing.closed);
+		out.close();
+		try {
+			out.write(1);
+			fail("Wrote to a closed stream");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * A heapdump written by jdmpview on several threads and compressed as it is written
+	 * is the same as one written on one thread, and the PHD reader can read it.
+	 */
+	public void testParallelHeapdumpReadBack() throws Exception {
+		retainObjects();
+		String prefix = "heapdump." + getName() + "." + System.currentTimeMillis();
+		File source = newFile(new File(System.getProperty("user.dir"), prefix + ".phd"));
+		com.ibm.jvm.Dump.heapDumpToFile(source.getAbsolutePath());
+
+		File parallel = checkParallelHeapdump(source, prefix, true);
+
+		ImageFactory factory = (ImageFactory)Class.forName(PHD_FACTORY).newInstance();
+		Image image = factory.getImage(parallel);
+		try {
+			ImageAddressSpace space = (ImageAddressSpace)image.getAddressSpaces().next();
+			JavaRuntime runtime = (JavaRuntime)space.getCurrentProcess().getRuntimes().next();
+			int count = 0;
+			for (Iterator<?> heaps = runtime.getHeaps(); heaps.hasNext();) {
+				for (Iterator<?> objects = ((JavaHeap)heaps.next()).getObjects(); objects.hasNext();) {
+					Object object = objects.next();
+					assertFalse("Corrupt object " + object, object instanceof CorruptData);
+					((JavaObject)object).getJavaClass().getName();
+					count += 1;
+				}
+			}
+			assertTrue("Too few objects in the heapdump: " + count, count > 50000);
+		} finally {
+			image.close();
+		}
+	}
+
+	/**
+	 * A heapdump written by jdmpview from a system dump on several threads is the same as
+	 * one written on one thread. The objects of a system dump are read through DDR, whose
+	 * class and field caches are then used by all the threads at once.
+	 */
+	public void testParallelHeapdumpOfSystemDump() throws Exception {
+		if (System.getProperty("os.name").startsWith("z/OS")) {
+			System.err.printf("Skipping %s, z/OS system dumps are not written to the file system\n", getName());
+			return;
+		}
+		retainObjects();
+		String prefix = "heapdump." + getName() + "." + System.currentTimeMillis();
+		String coreName = com.ibm.jvm.Dump.systemDumpToFile(new File(System.getProperty("user.dir"), prefix + ".dmp").getAbsolutePath());
+		assertNotNull("No system dump written", coreName);
+		File source = newFile(new File(coreName));
+		assertTrue("System dump not found: " + coreName, source.isFile());
+
+		/* classic heapdumps name every class, so the class and field lookups are all compared as well */
+		checkParallelHeapdump(source, prefix, false);
+	}
+
+	/**
+	 * Keep a few thousand objects, of several classes and referring to each other, alive in the heap.
+	 */
+	private static void retainObjects() {
+		retained = new ArrayList<Object>();
+		for (int i = 0; i < 50000; i++) {
+			retained.add((i % 3 == 0) ? new long[i % 13] : new Object[] { retained.isEmpty() ? null : retained.get(i / 2), Integer.valueOf(i) });
+		}
+	}
+
+	/**
+	 * Runs jdmpview on a dump to write a heapdump on one thread and then on four threads,
+	 * and checks the two are the same.
+	 *
+	 * @param source the dump to open
+	 * @param prefix the start of the names of the files written
+	 * @param phd true to write PHD heapdumps and compress the one written on four threads,
+	 * false to write uncompressed classic heapdumps
+	 * @return the heapdump written on four threads
+	 */
+	private File checkParallelHeapdump(File source, String prefix, boolean phd) throws Exception {
+		String userDir = System.getProperty("user.dir");
+		String suffix = phd ? ".phd" : ".txt";
+		File sequential = newFile(new File(userDir, prefix + ".sequential" + suffix));
+		File parallel = newFile(new File(userDir, prefix + ".parallel" + suffix + (phd ? ".gz" : "")));
+
+		File commands = newFile(new File(userDir, prefix + ".cmd"));
+		PrintWriter writer = new PrintWriter(new FileWriter(commands));
+		try {
+			writer.println(phd ? "set heapdump phd" : "set heapdump txt");
+			writer.println("set heapdump file " + sequential.getAbsolutePath());
+			writer.println("heapdump");
+			writer.println("set heapdump threads 4");
+			if (phd) {
+				writer.println("set heapdump gzip on");
+			}
+			writer.println("set heapdump file " + parallel.getAbsolutePath());
+			writer.println("heapdump");
+		} finally {
+			writer.close();
+		}
+		File output = newFile(new File(userDir, prefix + ".out"));
+		ProcessBuilder builder = new ProcessBuilder(findJdmpview(), "-core", source.getAbsolutePath(), "-cmdfile", commands.getAbsolutePath());
+		builder.redirectErrorStream(true);
+		builder.redirectOutput(output);
+		int exitCode = builder.start().waitFor();
+		String log = new String(readFully(new FileInputStream(output)));
+		assertEquals("jdmpview failed: " + log, 0, exitCode);
+		assertTrue("Sequential heapdump not written: " + log, sequential.length() > 0);
+		assertTrue("Parallel heapdump not written: " + log, parallel.length() > 0);
+
+		byte expected[] = readFully(new FileInputStream(sequential));
+		byte actual[] = readFully(new FileInputStream(parallel));
+		if (phd) {
+			actual = gunzip(actual);
+		}
+		assertTrue("Heapdump written on several threads differs from one written on one thread", Arrays.equals(expected, actual));
+		return parallel;
+	}
+
+	private File newFile(File file) {
+		files.add(file);
+		return file;
+	}
+
+	private static void checkRoundTrip(byte input[], int threads) throws Exception {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		OutputStream out = newParallelGZIPOutputStream(compressed, threads);
+		out.write(input);
+		out.close();
+		byte output[] = gunzip(compressed.toByteArray());
+		assertEquals("Length after decompression with " + threads + " threads", input.length, output.length);
+		assertTrue("Data differs after decompression with " + threads + " threads", Arrays.equals(input, output));
+	}
+
+	private static OutputStream newParallelGZIPOutputStream(OutputStream out, int threads) throws Exception {
+		Class<?> streamClass = Class.forName(PARALLEL_GZIP);
+		return (OutputStream)streamClass.getConstructor(OutputStream.class, int.class).newInstance(out, threads);
+	}
+
+	/**
+	 * Runs of random bytes, which do not compress, between runs of repeated bytes, which do.
+	 */
+	private static byte[] testData(int length) {
+		Random random = new Random(length);
+		byte data[] = new byte[length];
+		for (int i = 0; i < length; i++) {
+			data[i] = ((i / 5000) % 2 == 0) ? (byte)random.nextInt() : (byte)(i % 7);
+		}
+		return data;
+	}
+
+	private static byte[] gunzip(byte compressed[]) throws IOException {
+		return readFully(new GZIPInputStream(new ByteArrayInputStream(compressed)));
+	}
+
+	private static byte[] readFully(InputStream in) throws IOException {
+		try {
+			ByteArrayOutputStream data = new ByteArrayOutputStream();
+			byte buffer[] = new byte[8192];
+			for (int n; (n = in.read(buffer)) > 0;) {
+				data.write(buffer, 0, n);
+			}
+			return data.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * The jdmpview launcher of the JDK under test. On Java 8 java.home is the jre directory.
+	 */
+	private static String findJdmpview() {
+		String name = System.getProperty("os.name").startsWith("Windows") ? "jdmpview.exe" : "jdmpview";
+		File javaHome = new File(System.getProperty("java.home"));
+		File jdmpview = new File(new File(javaHome, "bin"), name);
+		if (!jdmpview.isFile()) {
+			jdmpview = new File(new File(javaHome.getParentFile(), "bin"), name);
+		}
+		assertTrue("jdmpview not found in " + javaHome, jdmpview.isFile());
+		return jdmpview.getAbsolutePath();
+	}
+
+	/**
+	 * A stream that fails once a number of bytes have been written to it, and records being closed.
+	 */
+	private static class FailingOutputStream extends OutputStream {
+		static final String MESSAGE = "No space left";
+
+		private int remaining;
+		boolean closed;
+
+		FailingOutputStream(int capacity) {
+			remaining = capacity;
+		}
+
+		public void write(int b) throws IOException {
+			if (remaining <= 0) {
+				throw new IOException(MESSAGE);
+			}
+			remaining -= 1;
+		}
+
+		public void close() {
+			closed = true;
+		}
+	}
+}
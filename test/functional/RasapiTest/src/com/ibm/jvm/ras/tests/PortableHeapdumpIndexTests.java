@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package com.ibm.jvm.ras.tests;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import junit.framework.TestCase;
+
+import com.ibm.dtfj.image.CorruptData;
+import com.ibm.dtfj.image.CorruptDataException;
+import com.ibm.dtfj.image.Image;
+import com.ibm.dtfj.image.ImageAddressSpace;
+import com.ibm.dtfj.image.ImageFactory;
+import com.ibm.dtfj.image.ImageProcess;
+import com.ibm.dtfj.java.JavaHeap;
+import com.ibm.dtfj.java.JavaObject;
+import com.ibm.dtfj.java.JavaReference;
+import com.ibm.dtfj.java.JavaRuntime;
+
+/**
+ * Check that an uncompressed portable heap dump, which DTFJ indexes and reads at random,
+ * gives the same objects as the same dump gzipped, which DTFJ can only read from the start.
+ */
+public class PortableHeapdumpIndexTests extends TestCase {
+
+	private static final String PHD_FACTORY = "com.ibm.dtfj.phd.PHDImageFactory";
+
+	/** Keep a few thousand objects alive so that the dump has several index entries */
+	private static List<Object> retained;
+
+	private File phdFile;
+	private File gzFile;
+	private Image indexed;
+	private Image sequential;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		retained = new ArrayList<Object>();
+		for (int i = 0; i < 50000; i++) {
+			retained.add((i % 3 == 0) ? new int[i % 17] : new Object[] { retained.isEmpty() ? null : retained.get(i / 2), Integer.valueOf(i) });
+		}
+		String userDir = System.getProperty("user.dir");
+		phdFile = new File(userDir, "heapdump." + getName() + "." + System.currentTimeMillis() + ".phd");
+		com.ibm.jvm.Dump.heapDumpToFile(phdFile.getAbsolutePath());
+		gzFile = new File(phdFile.getAbsolutePath() + ".gz");
+		InputStream in = new FileInputStream(phdFile);
+		try {
+			OutputStream out = new GZIPOutputStream(new FileOutputStream(gzFile));
+			try {
+				byte buffer[] = new byte[8192];
+				for (int n; (n = in.read(buffer)) > 0;) {
+					out.write(buffer, 0, n);
+				}
+			} finally {
+				out.close();
+			}
+		} finally {
+			in.close();
+		}
+		ImageFactory factory = (ImageFactory)Class.forName(PHD_FACTORY).newInstance();
+		indexed = factory.getImage(phdFile);
+		sequential = factory.getImage(gzFile);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		retained = null;
+		if (indexed != null) {
+			indexed.close();
+		}
+		if (sequential != null) {
+			sequential.close();
+		}
+		phdFile.delete();
+		gzFile.delete();
+	}
+
+	/**
+	 * Iterating the indexed dump, which decodes it in parallel, gives the objects in file order.
+	 */
+	public void testObjectsMatchSequentialRead() throws Exception {
+		List<String> expected = describeHeap(getRuntime(sequential));
+		List<String> actual = describeHeap(getRuntime(indexed));
+		assertTrue("Too few objects in the heap dump: " + expected.size(), expected.size() > 50000);
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals("Object " + i, expected.get(i), actual.get(i));
+		}
+	}
+
+	/**
+	 * Objects found by address, only reading the index entries that span the address,
+	 * match the objects found by iterating, including when several threads look them up at once.
+	 */
+	public void testObjectAtAddress() throws Exception {
+		final JavaRuntime runtime = getRuntime(indexed);
+		final ImageAddressSpace space = (ImageAddressSpace)indexed.getAddressSpaces().next();
+		final List<String> expected = describeHeap(getRuntime(sequential));
+		final List<String> failures = Collections.synchronizedList(new ArrayList<String>());
+		Thread threads[] = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			final int first = t;
+			threads[t] = new Thread() {
+				public void run() {
+					for (int i = first; i < expected.size(); i += 31) {
+						String description = expected.get(i);
+						long address = Long.parseLong(description.substring(0, description.indexOf(' ')), 16);
+						try {
+							String found = describe(runtime.getObjectAtAddress(space.getPointer(address)));
+							if (!description.equals(found)) {
+								failures.add("Expected " + description + " found " + found);
+							}
+						} catch (Exception e) {
+							failures.add("Object at 0x" + Long.toHexString(address) + ": " + e);
+						}
+					}
+				}
+			};
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertTrue(failures.toString(), failures.isEmpty());
+	}
+
+	/**
+	 * An address inside an object, not at its start, is not found as an object.
+	 */
+	public void testNoObjectBetweenObjects() throws Exception {
+		JavaRuntime runtime = getRuntime(indexed);
+		ImageAddressSpace space = (ImageAddressSpace)indexed.getAddressSpaces().next();
+		JavaObject object = (JavaObject)getHeap(runtime).getObjects().next();
+		JavaObject inside = runtime.getObjectAtAddress(space.getPointer(object.getID().getAddress() + 4));
+		try {
+			fail("Found an object of class " + inside.getJavaClass().getName() + " inside another object");
+		} catch (CorruptDataException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Closing the image stops the threads decoding the heap, and an iterator still in use ends.
+	 */
+	public void testCloseStopsReaders() throws Exception {
+		Iterator<?> objects = getHeap(getRuntime(indexed)).getObjects();
+		objects.next();
+		indexed.close();
+		indexed = null;
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if ("PHD heap reader".equals(thread.getName())) {
+				thread.join(10000);
+				assertFalse("Heap reader thread still running after close", thread.isAlive());
+			}
+		}
+		int count = 0;
+		while (objects.hasNext()) {
+			objects.next();
+			count += 1;
+		}
+		assertTrue("Iterator did not end after close", count < 50000);
+	}
+
+	private static JavaRuntime getRuntime(Image image) throws Exception {
+		ImageAddressSpace space = (ImageAddressSpace)image.getAddressSpaces().next();
+		ImageProcess process = space.getCurrentProcess();
+		return (JavaRuntime)process.getRuntimes().next();
+	}
+
+	private static JavaHeap getHeap(JavaRuntime runtime) {
+		return (JavaHeap)runtime.getHeaps().next();
+	}
+
+	private static List<String> describeHeap(JavaRuntime runtime) throws Exception {
+		List<String> descriptions = new ArrayList<String>();
+		for (Iterator<?> objects = getHeap(runtime).getObjects(); objects.hasNext();) {
+			Object object = objects.next();
+			assertFalse("Corrupt object " + object, object instanceof CorruptData);
+			descriptions.add(describe((JavaObject)object));
+		}
+		return descriptions;
+	}
+
+	/**
+	 * The address, class, size and referenced objects of an object.
+	 */
+	private static String describe(JavaObject object) throws Exception {
+		StringBuilder description = new StringBuilder();
+		description.append(Long.toHexString(object.getID().getAddress()));
+		description.append(' ').append(object.getJavaClass().getName());
+		description.append(' ').append(object.getSize());
+		for (Iterator<?> references = object.getReferences(); references.hasNext();) {
+			Object reference = references.next();
+			if (reference instanceof JavaReference) {
+				Object target = ((JavaReference)reference).getTarget();
+				if (target instanceof JavaObject) {
+					description.append(' ').append(Long.toHexString(((JavaObject)target).getID().getAddress()));
+				}
+			}
+		}
+		return description.toString();
+	}
+}
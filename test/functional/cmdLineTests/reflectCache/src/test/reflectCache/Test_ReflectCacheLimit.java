@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package test.reflectCache;
+
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Map;
+
+/**
+ * This class is used to test the -Dreflect.cache.limit option and the reflect cache statistics.
+ *
+ * "limit" expects -Dreflect.cache=stats -Dreflect.cache.limit=16. It checks that the number of
+ * entries stays within the limit, also when a single class has more members than the limit,
+ * that other caches are evicted first, and that lookups are counted.
+ *
+ * "cleared" expects the default options. It checks that the entries of a class that is unloaded
+ * are counted as cleared, and that lookups are not counted.
+ *
+ * The statistics are read from com.ibm.oti.vm.VMLangAccess, which must be exported to the
+ * unnamed module.
+ */
+public class Test_ReflectCacheLimit {
+
+	private static final long LIMIT = 16;
+
+	/* looked up once, so that reading the statistics does not add cache entries */
+	private static Object access;
+	private static Method getStatistics;
+
+	public static void main(String[] args) throws Exception {
+		if ((args.length == 1) && "limit".equals(args[0])) {
+			testLimit();
+		} else if ((args.length == 1) && "cleared".equals(args[0])) {
+			testCleared();
+		} else {
+			System.out.println("TEST FAILED: usage Test_ReflectCacheLimit limit|cleared");
+			return;
+		}
+		System.out.println("TEST PASSED");
+	}
+
+	private static void testLimit() throws Exception {
+		check(statistics().get("limit").longValue() == LIMIT, "limit is not " + LIMIT + ": " + statistics());
+
+		/* the first lookup misses, the second one hits */
+		Map<String, Long> before = statistics();
+		Test.class.getMethod("testMethod", String.class);
+		Map<String, Long> after = statistics();
+		check(after.get("misses").longValue() > before.get("misses").longValue(), "miss not counted: " + after);
+		Test.class.getMethod("testMethod", String.class);
+		before = after;
+		after = statistics();
+		check(after.get("hits").longValue() > before.get("hits").longValue(), "hit not counted: " + after);
+
+		/* a single class with more members than the limit evicts every other cache, then its own */
+		Method[] methods = String.class.getDeclaredMethods();
+		check(methods.length > LIMIT, "String declares only " + methods.length + " methods");
+		before = after;
+		after = statistics();
+		check(after.get("entries").longValue() <= LIMIT, "limit exceeded: " + after);
+		check(after.get("evictions").longValue() > before.get("evictions").longValue(), "nothing evicted: " + after);
+
+		/* the entry of Test was evicted, so it is looked up again */
+		Test.class.getMethod("testMethod", String.class);
+		before = after;
+		after = statistics();
+		check(after.get("misses").longValue() > before.get("misses").longValue(), "evicted entry found: " + after);
+		check(after.get("entries").longValue() <= LIMIT, "limit exceeded: " + after);
+	}
+
+	private static void testCleared() throws Exception {
+		Map<String, Long> before = statistics();
+		reflectInLoader();
+		Map<String, Long> after = statistics();
+		for (int i = 0; (i < 20) && (after.get("cleared").longValue() <= before.get("cleared").longValue()); i++) {
+			System.gc();
+			Thread.sleep(100);
+			after = statistics();
+		}
+		check(after.get("cleared").longValue() > before.get("cleared").longValue(), "entries of an unloaded class not cleared: " + after);
+		check((after.get("hits").longValue() == 0) && (after.get("misses").longValue() == 0), "lookups counted without -Dreflect.cache=stats: " + after);
+	}
+
+	/**
+	 * Cache members of a copy of Test which is unloaded once the loader is collected.
+	 */
+	private static void reflectInLoader() throws Exception {
+		URL location = Test.class.getProtectionDomain().getCodeSource().getLocation();
+		URLClassLoader loader = new URLClassLoader(new URL[] { location }, null);
+		try {
+			Class<?> testClass = loader.loadClass(Test.class.getName());
+			check(testClass != Test.class, "Test loaded by the application class loader");
+			testClass.getMethod("testMethod", String.class);
+			testClass.getField("testField");
+			testClass.getConstructor();
+		} finally {
+			loader.close();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Long> statistics() throws Exception {
+		if (getStatistics == null) {
+			access = Class.forName("com.ibm.oti.vm.VM").getMethod("getVMLangAccess").invoke(null);
+			getStatistics = Class.forName("com.ibm.oti.vm.VMLangAccess").getMethod("getReflectCacheStatistics");
+		}
+		return (Map<String, Long>) getStatistics.invoke(access);
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			System.out.println("TEST FAILED: " + message);
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package APITests;
+
+import java.io.File;
+import java.net.URL;
+import java.util.Arrays;
+
+import Utilities.URLClassPathCreator;
+import CustomCLs.CustomURLClassLoader;
+
+/**
+ * Finds a batch of classes with SharedClassURLClasspathHelper.findSharedClasses and checks
+ * that each result is the same as finding the class on its own with findSharedClass.
+ * The batch holds stored classes from both classpath entries, a class that was never stored,
+ * a class that does not exist, a null name and a class made stale after it was stored.
+ */
+public class URLClasspathBatchFindTest {
+
+	static final String[] CLASSES_TO_LOAD = { "Dog", "Cat", "A", "B", "C" };
+	static final String[] CLASSES_TO_FIND = { "Dog", "Fish", "A", "NoSuchClass", null, "B", "Cat", "C" };
+	static final boolean[] EXPECTED_FOUND = { true, false, true, false, false, false, true, true };
+	static final int[] EXPECTED_INDEX = { 0, -1, 1, -1, -1, -1, 0, 1 };
+	static final String STALE_CLASS_FILE = "./Alphabet/B.class";
+
+	public static void main(String[] args) {
+		URLClasspathBatchFindTest test = new URLClasspathBatchFindTest();
+		test.run();
+	}
+
+	public void run(){
+		boolean result = true;
+		URLClassPathCreator pathCreator = new URLClassPathCreator("./Pets;./Alphabet;");
+		URL[] urls = pathCreator.createURLClassPath();
+
+		CustomURLClassLoader loader = new CustomURLClassLoader(urls, this.getClass().getClassLoader());
+
+		for (String name : CLASSES_TO_LOAD) {
+			try {
+				loader.loadClass(name);
+			} catch (ClassNotFoundException e) {
+				e.printStackTrace();
+				result = false;
+			}
+		}
+
+		/* B was stored from its class file, so a later timestamp makes the cached copy stale */
+		File staleClassFile = new File(STALE_CLASS_FILE);
+		long originalTimestamp = staleClassFile.lastModified();
+		if (!staleClassFile.setLastModified(originalTimestamp + 10000)) {
+			System.out.println("\nCould not change the timestamp of " + STALE_CLASS_FILE);
+			result = false;
+		}
+
+		try {
+			/* Find the batch first, so that it is the batch that finds B stale */
+			int[] batchIndexes = new int[CLASSES_TO_FIND.length];
+			byte[][] batchResults = loader.findAllInSharedCache(CLASSES_TO_FIND, batchIndexes);
+
+			if (batchResults.length != CLASSES_TO_FIND.length) {
+				System.out.println("\nfindSharedClasses returned " + batchResults.length + " results for " + CLASSES_TO_FIND.length + " classes");
+				result = false;
+			} else {
+				for (int i = 0; i < CLASSES_TO_FIND.length; i++) {
+					String name = CLASSES_TO_FIND[i];
+					byte[] single = null;
+					int singleIndex = -1;
+					if (name != null) {
+						single = loader.findInSharedCache(name);
+						singleIndex = (single != null) ? loader.getFoundAtIndex() : -1;
+					}
+
+					if (!Arrays.equals(batchResults[i], single)) {
+						System.out.println("\nBatch and single find differ for class " + name
+								+ ": batch found " + (batchResults[i] != null) + ", single found " + (single != null));
+						result = false;
+					}
+					if (batchIndexes[i] != singleIndex) {
+						System.out.println("\nBatch and single find differ for class " + name
+								+ ": batch index " + batchIndexes[i] + ", single index " + singleIndex);
+						result = false;
+					}
+					if ((batchResults[i] != null) != EXPECTED_FOUND[i]) {
+						System.out.println("\nClass " + name + " found: " + (batchResults[i] != null) + " expecting: " + EXPECTED_FOUND[i]);
+						result = false;
+					}
+					if (batchIndexes[i] != EXPECTED_INDEX[i]) {
+						System.out.println("\nClass " + name + " found at index: " + batchIndexes[i] + " expecting: " + EXPECTED_INDEX[i]);
+						result = false;
+					}
+				}
+			}
+		} finally {
+			staleClassFile.setLastModified(originalTimestamp);
+		}
+
+		if(result == true){
+			System.out.println("\nTEST PASSED");
+		} else {
+			System.out.println("\nTEST FAILED");
+		}
+	}
+}
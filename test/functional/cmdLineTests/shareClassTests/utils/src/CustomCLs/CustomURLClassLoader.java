@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2020 IBM Corp. and others
+ * Copyright (c) 2005, 2021 IBM Corp. and others
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which accompanies this
@@ -495,6 +495,19 @@ public class CustomURLClassLoader extends SecureClassLoader {
 		return false;
 	}
 	
+	public byte[] findInSharedCache(String className){
+		foundAtIndex.reset();
+		return scHelper.findSharedClass(className, foundAtIndex);
+	}
+
+	public int getFoundAtIndex(){
+		return foundAtIndex.getIndex();
+	}
+
+	public byte[][] findAllInSharedCache(String[] classNames, int[] indexesFoundAt){
+		return scHelper.findSharedClasses(null, classNames, indexesFoundAt);
+	}
+
 	public Class getClassFromCache(String name){
 		Class clazz = null;
 		byte[] classBytes = scHelper.findSharedClass(name, foundAtIndex);
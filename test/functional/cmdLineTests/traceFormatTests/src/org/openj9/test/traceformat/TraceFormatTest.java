@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2021, 2021 IBM Corp. and others
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which accompanies this
+ * distribution and is available at https://www.eclipse.org/legal/epl-2.0/
+ * or the Apache License, Version 2.0 which accompanies this distribution and
+ * is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * This Source Code may also be made available under the following
+ * Secondary Licenses when the conditions for such availability set
+ * forth in the Eclipse Public License, v. 2.0 are satisfied: GNU
+ * General Public License, version 2 with the GNU Classpath
+ * Exception [1] and GNU General Public License, version 2 with the
+ * OpenJDK Assembly Exception [2].
+ *
+ * [1] https://www.gnu.org/software/classpath/license.html
+ * [2] http://openjdk.java.net/legal/assembly-exception.html
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0 OR GPL-2.0 WITH Classpath-exception-2.0 OR LicenseRef-GPL-2.0 WITH Assembly-exception
+ *******************************************************************************/
+package org.openj9.test.traceformat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import com.ibm.jvm.trace.format.api.MissingDataException;
+import com.ibm.jvm.trace.format.api.TraceContext;
+import com.ibm.jvm.trace.format.api.TracePoint;
+
+/**
+ * Checks the output of the trace formatter.
+ * <ul>
+ * <li>generate: runs a workload to fill the trace files the VM was started with.</li>
+ * <li>indexed &lt;file pattern&gt;: checks that the trace files matching the pattern, where '#' is
+ * the generation, are formatted the same when they are indexed with TraceContext.addIndexedData()
+ * as when each record is added with TraceContext.addData(). A copy of one file with a corrupt
+ * record is used so that the "Bad block" error is reported, and TraceContext.discardedData()
+ * is called between the files.</li>
+ * <li>compare &lt;file&gt; &lt;file&gt;: checks that two files, such as the output of the formatter
+ * run with different numbers of -format_threads, are identical.</li>
+ * </ul>
+ */
+public class TraceFormatTest {
+
+	private static final String CORRUPT_FILE = "traceformat_corrupt.trc";
+
+	/* the offset of firstEntry in the header of a trace record */
+	private static final int FIRST_ENTRY_OFFSET = 56;
+
+	public static void main(String[] args) throws Exception {
+		if ((args.length == 1) && "generate".equals(args[0])) {
+			generate();
+		} else if ((args.length == 2) && "indexed".equals(args[0])) {
+			compareIndexed(args[1]);
+		} else if ((args.length == 3) && "compare".equals(args[0])) {
+			compareFiles(new File(args[1]), new File(args[2]));
+		} else {
+			System.out.println("TEST FAILED: usage TraceFormatTest generate | indexed <file pattern> | compare <file> <file>");
+		}
+	}
+
+	/**
+	 * Load classes in new class loaders and collect them, which is traced by the j9vm and j9mm components.
+	 */
+	private static void generate() throws Exception {
+		URL location = TraceFormatTest.class.getProtectionDomain().getCodeSource().getLocation();
+		for (int i = 0; i < 500; i++) {
+			try (URLClassLoader loader = new URLClassLoader(new URL[] { location }, null)) {
+				Class<?> copy = loader.loadClass(TraceFormatTest.class.getName());
+				for (Method method : copy.getDeclaredMethods()) {
+					method.getParameterTypes();
+				}
+			}
+			if ((i % 50) == 0) {
+				System.gc();
+			}
+		}
+		System.out.println("Trace generated");
+	}
+
+	private static void compareIndexed(String pattern) throws Exception {
+		List<File> files = new ArrayList<>();
+		for (int generation = 0; generation < 10; generation++) {
+			File file = new File(pattern.replace('#', Character.forDigit(generation, 10)));
+			if (file.exists()) {
+				files.add(file);
+			}
+		}
+		if (files.size() < 2) {
+			System.out.println("TEST FAILED: expected more than one file matching " + pattern + ", found " + files);
+			return;
+		}
+
+		/* replace the second file by a copy with a corrupt second record */
+		TraceContext context = createContext(files.get(0), new PrintStream(new ByteArrayOutputStream()));
+		File corrupt = new File(CORRUPT_FILE);
+		Files.copy(files.get(1).toPath(), corrupt.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		try (RandomAccessFile file = new RandomAccessFile(corrupt, "rw")) {
+			file.seek(context.getHeaderSize() + context.getRecordSize() + FIRST_ENTRY_OFFSET);
+			file.writeInt(0);
+		}
+		files.set(1, corrupt);
+
+		String byRecord = format(files, false);
+		String indexed = format(files, true);
+		corrupt.delete();
+
+		if (!byRecord.contains("Bad block of trace data")) {
+			System.out.println("TEST FAILED: the corrupt record was not reported");
+			return;
+		}
+		if (!byRecord.equals(indexed)) {
+			reportDifference(byRecord, indexed);
+			return;
+		}
+		System.out.println("TEST PASSED");
+	}
+
+	private static void compareFiles(File expectedFile, File actualFile) throws IOException {
+		String expected = new String(Files.readAllBytes(expectedFile.toPath()), "UTF-8");
+		String actual = new String(Files.readAllBytes(actualFile.toPath()), "UTF-8");
+		if (!expected.contains("Trace Formatted Data")) {
+			System.out.println("TEST FAILED: no formatted trace data in " + expectedFile);
+			return;
+		}
+		if (!expected.equals(actual)) {
+			reportDifference(expected, actual);
+			return;
+		}
+		System.out.println("TEST PASSED");
+	}
+
+	/**
+	 * Format the trace files in one context, adding them with addIndexedData() or a record at a time.
+	 * @return the messages, errors, formatted tracepoints and counts
+	 */
+	private static String format(List<File> files, boolean indexed) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		PrintStream out = new PrintStream(bytes, false, "UTF-8");
+		TraceContext context = createContext(files.get(0), out);
+		List<RandomAccessFile> opened = new ArrayList<>();
+		try {
+			for (File file : files) {
+				RandomAccessFile traceFile = new RandomAccessFile(file, "r");
+				opened.add(traceFile);
+				if (indexed) {
+					context.addIndexedData(traceFile);
+				} else {
+					long length = traceFile.length();
+					for (long offset = context.getHeaderSize(); offset < length; offset += context.getRecordSize()) {
+						try {
+							context.addData(traceFile, offset);
+						} catch (IllegalArgumentException e) {
+							context.error(context, "Bad block of trace data in input file at offset " + offset + ": " + e.getMessage());
+						}
+					}
+				}
+				/* the start of the next file is treated as if data had been discarded */
+				context.discardedData();
+			}
+
+			Iterator<?> tracepoints = context.getTracepoints();
+			while (tracepoints.hasNext()) {
+				try {
+					TracePoint tracepoint = (TracePoint) tracepoints.next();
+					out.println(tracepoint.getFormattedTime() + " " + tracepoint.getThread().getThreadID()
+							+ " " + tracepoint.getComponent() + "." + tracepoint.getID()
+							+ " " + tracepoint.getType() + " " + tracepoint.getFormattedParameters());
+				} catch (MissingDataException e) {
+					out.println("Missing " + e.getMissingBytes() + " bytes");
+				}
+			}
+		} finally {
+			for (RandomAccessFile traceFile : opened) {
+				traceFile.close();
+			}
+		}
+		out.println(context.getTotalTracePoints() + " tracepoints, " + context.getTotalRecords() + " records, "
+				+ context.getWarningCount() + " warnings, " + context.getErrorCount() + " errors");
+		out.close();
+		return bytes.toString("UTF-8");
+	}
+
+	private static TraceContext createContext(File file, PrintStream out) throws IOException {
+		byte[] header = Files.readAllBytes(file.toPath());
+		File lib = new File(System.getProperty("java.home"), "lib");
+		TraceContext context = TraceContext.getContext(header, header.length, new File(lib, "J9TraceFormat.dat"), out, out, out, null);
+		context.addMessageData(new File(lib, "OMRTraceFormat.dat"));
+		return context;
+	}
+
+	private static void reportDifference(String expected, String actual) {
+		String[] expectedLines = expected.split("\n", -1);
+		String[] actualLines = actual.split("\n", -1);
+		int line = 0;
+		while ((line < expectedLines.length) && (line < actualLines.length) && expectedLines[line].equals(actualLines[line])) {
+			line += 1;
+		}
+		System.out.println("TEST FAILED: the output differs at line " + (line + 1));
+		System.out.println("expected: " + ((line < expectedLines.length) ? expectedLines[line] : "<end of output>"));
+		System.out.println("actual:   " + ((line < actualLines.length) ? actualLines[line] : "<end of output>"));
+	}
+}